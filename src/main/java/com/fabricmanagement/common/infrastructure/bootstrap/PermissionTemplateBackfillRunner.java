@@ -2,11 +2,10 @@ package com.fabricmanagement.common.infrastructure.bootstrap;
 
 import com.fabricmanagement.common.infrastructure.persistence.SystemTransactionExecutor;
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.security.PermissionInvalidationNotifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -43,11 +42,9 @@ import org.springframework.stereotype.Component;
 @Order(200) // after DevSeedDataRunner (100), which creates the tenants this backfills
 public class PermissionTemplateBackfillRunner {
 
-  private static final String PERMISSIONS_CACHE = "permissions";
-
   private final PermissionTemplateSeeder permissionTemplateSeeder;
   private final SystemTransactionExecutor systemTransactionExecutor;
-  private final CacheManager cacheManager;
+  private final PermissionInvalidationNotifier permissionInvalidationNotifier;
 
   /**
    * Copies each template-tenant row into every tenant that lacks it.
@@ -121,18 +118,11 @@ public class PermissionTemplateBackfillRunner {
   }
 
   /**
-   * A user evaluated before the backfill holds an empty {@code PermissionResult} in the {@code
-   * permissions} cache and would keep seeing 403s until the entry expired. Drop the cache whenever
-   * rows were added.
+   * A user evaluated before the backfill holds an empty permission snapshot and would keep seeing
+   * 403s until the entry expired. Drop the snapshots on every node whenever rows were added.
    */
   private void evictPermissionCache() {
-    Cache cache = cacheManager.getCache(PERMISSIONS_CACHE);
-    if (cache == null) {
-      log.warn(
-          "Cache '{}' not configured; stale permission results may persist.", PERMISSIONS_CACHE);
-      return;
-    }
-    cache.clear();
-    log.info("Cleared '{}' cache after permission template backfill.", PERMISSIONS_CACHE);
+    permissionInvalidationNotifier.invalidateAll();
+    log.info("Invalidated permission snapshots after permission template backfill.");
   }
 }
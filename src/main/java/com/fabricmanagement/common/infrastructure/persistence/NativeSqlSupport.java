@@ -0,0 +1,64 @@
+package com.fabricmanagement.common.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shared plumbing for the raw-SQL stores that read and write in set-based statements instead of
+ * through entities.
+ *
+ * <p>Those stores issue their statements through the JPA {@link EntityManager}, so they run on the
+ * caller's tenant-bound connection and transaction and RLS applies as usual; none of them may use
+ * the system pool. A set of rows is passed as one JSON array parameter ({@link #jsonRows}) and
+ * expanded server-side with {@code jsonb_to_recordset}, so a write costs one statement however
+ * many rows it carries. Column values of native result rows come back as JDBC types; {@link
+ * #toLocalDate} and {@link #toInstant} map them to {@code java.time}.
+ */
+@Component
+@RequiredArgsConstructor
+public class NativeSqlSupport {
+
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Encodes rows for a {@code jsonb_to_recordset} parameter.
+   *
+   * @param what what the rows are, for the error message
+   * @throws IllegalStateException if a row cannot be encoded
+   */
+  public String jsonRows(Collection<?> rows, String what) {
+    try {
+      return objectMapper.writeValueAsString(rows);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not encode " + what, e);
+    }
+  }
+
+  public static LocalDate toLocalDate(Object value) {
+    return switch (value) {
+      case null -> null;
+      case LocalDate localDate -> localDate;
+      case Date date -> date.toLocalDate();
+      default -> throw new IllegalStateException("Unexpected date type: " + value.getClass());
+    };
+  }
+
+  public static Instant toInstant(Object value) {
+    return switch (value) {
+      case null -> null;
+      case Instant instant -> instant;
+      case OffsetDateTime offsetDateTime -> offsetDateTime.toInstant();
+      case Timestamp timestamp -> timestamp.toInstant();
+      default -> throw new IllegalStateException("Unexpected timestamp type: " + value.getClass());
+    };
+  }
+}
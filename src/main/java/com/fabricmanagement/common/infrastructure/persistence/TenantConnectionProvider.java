@@ -1,14 +1,18 @@
 package com.fabricmanagement.common.infrastructure.persistence;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.Map;
 import javax.sql.DataSource;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.stereotype.Component;
 
@@ -16,23 +20,66 @@ import org.springframework.stereotype.Component;
  * Multi-Tenant Connection Provider (MTCP) that binds the current tenant ID to the PostgreSQL
  * session.
  *
- * <p>Uses {@code set_config('app.current_tenant', ?, false)} at the start of the connection usage,
- * and clears it to NULL when the connection is released back to the pool. The {@code false} flag
- * means the setting applies to the session, not just the current transaction, which ensures that
- * non-transactional reads (autocommit) are also isolated.
+ * <p>Uses {@code set_config('app.current_tenant', ?, false)} at the start of the connection usage.
+ * The {@code false} flag means the setting applies to the session, not just the current
+ * transaction, which ensures that non-transactional reads (autocommit) are also isolated.
+ *
+ * <p>Binding reuse: the provider remembers which tenant each physical pooled connection is bound
+ * to. A checkout for the tenant already bound skips {@code set_config}, and a release leaves the
+ * binding in place instead of clearing it to NULL, saving two round-trips per Hibernate session. A
+ * connection is only remembered when its binding is known to be committed — bound in autocommit
+ * mode and not re-bound since. {@link TenantSessionBinder} re-binds mid-transaction, where a
+ * rollback would revert the session variable, so it calls {@link #forgetBinding}; the connection's
+ * release then clears the binding as before and the next checkout binds unconditionally. Every
+ * other consumer of the primary pool (Flyway, JobRunr) works on tables without RLS, and {@link
+ * #getAnyConnection()} clears a remembered binding before handing the connection out.
+ *
+ * <p>Metrics: {@code tenant.connection.binding{outcome=bound|reused|cleared}}.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class TenantConnectionProvider
     implements MultiTenantConnectionProvider<String>, HibernatePropertiesCustomizer {
 
+  private static final String SET_TENANT_SQL = "SELECT set_config('app.current_tenant', ?, false)";
+
+  /** Remembered value of a connection whose binding was cleared. */
+  private static final String UNBOUND = "";
+
   private final DataSource dataSource;
+  private final boolean reuseBinding;
+
+  /** Physical connection → tenant it is bound to; weak keys compare by identity. */
+  private final Cache<Connection, String> boundTenants = Caffeine.newBuilder().weakKeys().build();
+
+  private final Counter bound;
+  private final Counter reused;
+  private final Counter cleared;
+
+  public TenantConnectionProvider(
+      DataSource dataSource,
+      MeterRegistry meterRegistry,
+      @Value("${application.tenant-connection.reuse-binding:true}") boolean reuseBinding) {
+    this.dataSource = dataSource;
+    this.reuseBinding = reuseBinding;
+    this.bound = bindingCounter(meterRegistry, "bound");
+    this.reused = bindingCounter(meterRegistry, "reused");
+    this.cleared = bindingCounter(meterRegistry, "cleared");
+  }
 
   @Override
   public Connection getAnyConnection() throws SQLException {
     // Used by Hibernate at startup (e.g., schema validation)
-    return dataSource.getConnection();
+    Connection connection = dataSource.getConnection();
+    if (reuseBinding && !isBoundTo(connection, UNBOUND)) {
+      try {
+        clearBinding(connection);
+      } catch (SQLException e) {
+        connection.close();
+        throw new SQLException("Could not clear tenant binding on connection", e);
+      }
+    }
+    return connection;
   }
 
   @Override
@@ -43,10 +90,17 @@ public class TenantConnectionProvider
   @Override
   public Connection getConnection(String tenantIdentifier) throws SQLException {
     Connection connection = dataSource.getConnection();
-    try (PreparedStatement stmt =
-        connection.prepareStatement("SELECT set_config('app.current_tenant', ?, false)")) {
-      stmt.setString(1, tenantIdentifier);
-      stmt.execute();
+    try {
+      Connection physical = physical(connection);
+      if (reuseBinding && tenantIdentifier.equals(boundTenants.getIfPresent(physical))) {
+        reused.increment();
+        log.trace("Reused tenant binding of connection: {}", tenantIdentifier);
+        return connection;
+      }
+      boundTenants.invalidate(physical);
+      setTenant(connection, tenantIdentifier);
+      remember(connection, physical, tenantIdentifier);
+      bound.increment();
       log.trace("Bound connection to tenant: {}", tenantIdentifier);
     } catch (SQLException e) {
       connection.close(); // Prevent connection leak on failure
@@ -58,11 +112,13 @@ public class TenantConnectionProvider
   @Override
   public void releaseConnection(String tenantIdentifier, Connection connection)
       throws SQLException {
-    try (PreparedStatement stmt =
-        connection.prepareStatement("SELECT set_config('app.current_tenant', ?, false)")) {
-      stmt.setString(1, null);
-      stmt.execute();
-      log.trace("Released connection from tenant: {}", tenantIdentifier);
+    try {
+      if (isBoundTo(connection, tenantIdentifier)) {
+        log.trace("Released connection keeping tenant binding: {}", tenantIdentifier);
+      } else {
+        clearBinding(connection);
+        log.trace("Released connection from tenant: {}", tenantIdentifier);
+      }
     } catch (SQLException e) {
       log.error(
           "Could not release tenant binding on connection, aborting connection to prevent leak", e);
@@ -74,7 +130,7 @@ public class TenantConnectionProvider
       // CR-6: Return after abort — do NOT fall through to close() on an aborted connection
       return;
     }
-    // Normal path: close the connection after successfully clearing tenant binding
+    // Normal path: close the connection after the tenant binding is known to be safe
     try {
       connection.close();
     } catch (SQLException closeEx) {
@@ -82,6 +138,15 @@ public class TenantConnectionProvider
     }
   }
 
+  /**
+   * Stops treating the connection's binding as known, after someone re-bound it while in use. A
+   * binding set inside a transaction is reverted by a rollback, so the connection's release clears
+   * it and the next checkout binds again.
+   */
+  public void forgetBinding(Connection connection) throws SQLException {
+    boundTenants.invalidate(physical(connection));
+  }
+
   @Override
   public boolean supportsAggressiveRelease() {
     // False ensures Hibernate holds onto the connection for the entire session.
@@ -103,4 +168,49 @@ public class TenantConnectionProvider
   public void customize(Map<String, Object> hibernateProperties) {
     hibernateProperties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, this);
   }
+
+  private void clearBinding(Connection connection) throws SQLException {
+    Connection physical = physical(connection);
+    boundTenants.invalidate(physical);
+    setTenant(connection, null);
+    remember(connection, physical, UNBOUND);
+    cleared.increment();
+  }
+
+  private boolean isBoundTo(Connection connection, String tenantIdentifier) throws SQLException {
+    return reuseBinding && tenantIdentifier.equals(boundTenants.getIfPresent(physical(connection)));
+  }
+
+  private static void setTenant(Connection connection, String tenantIdentifier)
+      throws SQLException {
+    try (PreparedStatement stmt = connection.prepareStatement(SET_TENANT_SQL)) {
+      stmt.setString(1, tenantIdentifier);
+      stmt.execute();
+    }
+  }
+
+  /**
+   * Remembers a binding only if it is already committed: in a transaction, a rollback would revert
+   * it behind the provider's back.
+   */
+  private void remember(Connection connection, Connection physical, String tenantIdentifier)
+      throws SQLException {
+    if (reuseBinding && connection.getAutoCommit()) {
+      boundTenants.put(physical, tenantIdentifier);
+    }
+  }
+
+  /** The pooled proxy changes per checkout; the driver connection underneath does not. */
+  private static Connection physical(Connection connection) throws SQLException {
+    return connection.isWrapperFor(Connection.class)
+        ? connection.unwrap(Connection.class)
+        : connection;
+  }
+
+  private static Counter bindingCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("tenant.connection.binding")
+        .description("Tenant bindings of primary pool connections by outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
 }
@@ -3,7 +3,9 @@ package com.fabricmanagement.common.infrastructure.persistence;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.UUID;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
 import org.springframework.stereotype.Component;
 
 /**
@@ -23,12 +25,16 @@ import org.springframework.stereotype.Component;
  * <p>Calling {@link #bindToCurrentSession(UUID)} right after such a switch runs {@code set_config}
  * on the same transaction-bound connection, keeping the Java {@link TenantContext} and the DB
  * session variable in sync for the remainder of the transaction. The connection is still cleared
- * back to {@code NULL} on release by {@link TenantConnectionProvider}.
+ * back to {@code NULL} on release by {@link TenantConnectionProvider}, which stops treating the
+ * connection's binding as reusable once it has been re-bound here.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class TenantSessionBinder {
 
+  private final TenantConnectionProvider tenantConnectionProvider;
+
   @PersistenceContext private EntityManager entityManager;
 
   /**
@@ -41,6 +47,7 @@ public class TenantSessionBinder {
         .createNativeQuery("SELECT set_config('app.current_tenant', ?1, false)")
         .setParameter(1, tenantId.toString())
         .getSingleResult();
+    entityManager.unwrap(Session.class).doWork(tenantConnectionProvider::forgetBinding);
     log.debug("Re-bound DB session to tenant {} mid-transaction", tenantId);
   }
 }
@@ -1,13 +1,10 @@
 package com.fabricmanagement.common.infrastructure.security;
 
-import com.fabricmanagement.platform.auth.app.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
@@ -25,6 +22,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * Spring Security's {@link SecurityContextHolder} with an authenticated principal and the user's
  * roles as {@link SimpleGrantedAuthority} objects.
  *
+ * <p>Verification goes through {@link VerifiedTokenCache}, so repeated requests with the same
+ * token reuse the verified claims, user context and authorities until the token expires. The
+ * verified entry is left on the request for {@code JwtContextInterceptor}.
+ *
  * <p>Without this filter, {@code @PreAuthorize} annotations see every request as anonymous, causing
  * {@code AccessDeniedException} even when a valid JWT is present.
  *
@@ -49,7 +50,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-  private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokenCache;
 
   @Override
   protected void doFilterInternal(
@@ -69,12 +70,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     String token = JwtTokenExtractor.extract(request);
-    if (token == null || !jwtService.validateToken(token)) {
+    if (token == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    VerifiedTokenCache.Entry verified = verifiedTokenCache.verify(token).orElse(null);
+    if (verified == null) {
       filterChain.doFilter(request, response);
       return;
     }
+    request.setAttribute(VerifiedTokenCache.REQUEST_ATTRIBUTE, verified);
 
-    if (jwtService.isPreAuthToken(token)) {
+    if (verified.preAuth()) {
       log.warn(
           "Attempt to use MFA pre-auth token as an access token for path: {}",
           request.getRequestURI());
@@ -82,84 +90,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       return;
     }
 
-    try {
-      // Single JWT parse for all claims (CR2-5)
-      JwtService.AuthTokenClaims tokenClaims = jwtService.extractAuthContext(token);
-
-      if (tokenClaims.userId() == null) {
-        log.warn("JWT missing user_id claim for path: {}", request.getRequestURI());
-        filterChain.doFilter(request, response);
-        return;
-      }
-
-      List<SimpleGrantedAuthority> authorities =
-          buildAuthorities(tokenClaims.roleCode(), tokenClaims.userType());
-
-      // Build the user context so downstream security checks (e.g. PermissionEvaluator)
-      // can evaluate role + department without additional DB calls.
-      AuthenticatedUserContext userContext =
-          new AuthenticatedUserContext(
-              tokenClaims.userId(),
-              tokenClaims.roleCode(),
-              tokenClaims.departmentCodes(),
-              tokenClaims.primaryDepartment(),
-              tokenClaims.tenantId(),
-              tokenClaims.isPlayground(),
-              tokenClaims.guestId());
-
-      UsernamePasswordAuthenticationToken authentication =
-          new UsernamePasswordAuthenticationToken(userContext, null, authorities);
-      authentication.setDetails(userContext);
-
-      // Expose partner_id on the request so service/AOP layers can enforce isolation
-      if ("PARTNER".equals(tokenClaims.userType()) && tokenClaims.partnerId() != null) {
-        request.setAttribute("partnerId", tokenClaims.partnerId());
-      }
-
-      SecurityContextHolder.getContext().setAuthentication(authentication);
+    AuthenticatedUserContext userContext = verified.userContext();
+    if (userContext == null) {
+      log.warn("JWT missing user_id claim for path: {}", request.getRequestURI());
+      filterChain.doFilter(request, response);
+      return;
+    }
 
-      log.debug(
-          "JWT authentication set: userId={}, userType={}, roles={}, departments={}, path={}",
-          tokenClaims.userId(),
-          tokenClaims.userType(),
-          authorities,
-          tokenClaims.departmentCodes(),
-          request.getRequestURI());
+    // The user context lets downstream security checks (e.g. PermissionEvaluator)
+    // evaluate role + department without additional DB calls.
+    UsernamePasswordAuthenticationToken authentication =
+        new UsernamePasswordAuthenticationToken(userContext, null, verified.authorities());
+    authentication.setDetails(userContext);
 
-    } catch (Exception e) {
-      log.warn(
-          "Failed to set JWT authentication for path {}: {}",
-          request.getRequestURI(),
-          e.getMessage());
+    // Expose partner_id on the request so service/AOP layers can enforce isolation
+    if ("PARTNER".equals(verified.userType()) && verified.partnerId() != null) {
+      request.setAttribute("partnerId", verified.partnerId());
     }
 
-    filterChain.doFilter(request, response);
-  }
+    SecurityContextHolder.getContext().setAuthentication(authentication);
 
-  /**
-   * Build Spring Security authority list from role code and user type.
-   *
-   * <ul>
-   *   <li>{@code ROLE_<code>} — for {@code hasRole()} checks
-   *   <li>{@code <code>} — for {@code hasAuthority()} checks
-   *   <li>{@code ROLE_PARTNER_USER} — added for all partner tokens regardless of role_code
-   * </ul>
-   */
-  private List<SimpleGrantedAuthority> buildAuthorities(String roleCode, String userType) {
-    Stream<SimpleGrantedAuthority> partnerAuthorities =
-        "PARTNER".equals(userType)
-            ? Stream.of(
-                new SimpleGrantedAuthority("ROLE_PARTNER_USER"),
-                new SimpleGrantedAuthority("PARTNER_USER"))
-            : Stream.empty();
+    log.debug(
+        "JWT authentication set: userId={}, userType={}, roles={}, departments={}, path={}",
+        userContext.userId(),
+        verified.userType(),
+        verified.authorities(),
+        userContext.departmentCodes(),
+        request.getRequestURI());
 
-    Stream<SimpleGrantedAuthority> roleAuthorities =
-        roleCode == null
-            ? Stream.empty()
-            : Stream.of(
-                new SimpleGrantedAuthority("ROLE_" + roleCode.toUpperCase()),
-                new SimpleGrantedAuthority(roleCode.toUpperCase()));
-
-    return Stream.concat(partnerAuthorities, roleAuthorities).toList();
+    filterChain.doFilter(request, response);
   }
 }
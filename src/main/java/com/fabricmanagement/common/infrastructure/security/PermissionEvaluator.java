@@ -2,10 +2,10 @@ package com.fabricmanagement.common.infrastructure.security;
 
 import com.fabricmanagement.common.infrastructure.security.dto.PermissionResult;
 import com.fabricmanagement.platform.user.domain.DataScope;
-import com.fabricmanagement.platform.user.domain.PermissionOverride;
 import com.fabricmanagement.platform.user.domain.PermissionTemplate;
 import com.fabricmanagement.platform.user.infra.repository.PermissionOverrideRepository;
 import com.fabricmanagement.platform.user.infra.repository.PermissionTemplateRepository;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,19 +19,23 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class PermissionEvaluator {
 
+  private static final PermissionResult NO_PERMISSIONS = new PermissionResult(Map.of(), false);
+  private static final PermissionResult SUPER_ADMIN = new PermissionResult(Map.of(), true);
+
   private final PermissionTemplateRepository templateRepo;
   private final PermissionOverrideRepository overrideRepo;
   private final com.fabricmanagement.platform.organization.infra.repository.DepartmentRepository
       departmentRepository;
+  private final PermissionSnapshotCache snapshotCache;
 
   /**
    * Calculates the effective permissions for a user via logic precedence. 1. ADMIN/PLATFORM_ADMIN
    * bypass 2. Per-Dept hierarchical retrieval with tenant overriding system default 3. Cross-Dept
    * merging (escalating scope) 4. User-Specific overrides applied last
+   *
+   * <p>Steps 2–3 depend only on (tenant, role, departments) and are served from a shared snapshot
+   * in {@link PermissionSnapshotCache}; step 4 is layered on per user.
    */
-  @org.springframework.cache.annotation.Cacheable(
-      value = "permissions",
-      key = "#tenantId + '_' + #userId")
   public PermissionResult evaluate(
       UUID tenantId, String roleCode, List<String> departmentCodes, UUID userId) {
     log.debug(
@@ -40,14 +44,52 @@ public class PermissionEvaluator {
         roleCode,
         departmentCodes);
     if (roleCode == null) {
-      return new PermissionResult(Map.of(), false);
+      return NO_PERMISSIONS;
     }
 
     // Fast-path: Super user bypasses all complex calculations
     if ("ADMIN".equals(roleCode) || "PLATFORM_ADMIN".equals(roleCode)) {
-      return new PermissionResult(Map.of(), true);
+      return SUPER_ADMIN;
+    }
+
+    PermissionResult snapshot =
+        snapshotCache.snapshot(
+            tenantId,
+            roleCode,
+            departmentCodes,
+            () -> compileSnapshot(tenantId, roleCode, departmentCodes));
+
+    if (userId == null || tenantId == null) {
+      return snapshot;
+    }
+    Instant now = Instant.now();
+    List<PermissionSnapshotCache.OverrideGrant> overrides =
+        snapshotCache.overrides(tenantId, userId, () -> loadOverrides(tenantId, userId)).stream()
+            .filter(override -> !override.isExpired(now))
+            .toList();
+    if (overrides.isEmpty()) {
+      return snapshot;
+    }
+
+    // Apply User Overrides
+    Map<String, Map<String, DataScope>> evaluatedPermissions = new HashMap<>();
+    snapshot
+        .permissions()
+        .forEach((resource, actions) -> evaluatedPermissions.put(resource, new HashMap<>(actions)));
+    log.debug("Applied {} overrides for user={}", overrides.size(), userId);
+    for (PermissionSnapshotCache.OverrideGrant override : overrides) {
+      if (override.scope() == null) {
+        revoke(evaluatedPermissions, override.resource(), override.action());
+      } else {
+        forceSet(evaluatedPermissions, override.resource(), override.action(), override.scope());
+      }
     }
+    return new PermissionResult(evaluatedPermissions, false);
+  }
 
+  /** Compiles the template grants of a role and department set into an immutable snapshot. */
+  private PermissionResult compileSnapshot(
+      UUID tenantId, String roleCode, List<String> departmentCodes) {
     Map<String, Map<String, DataScope>> evaluatedPermissions = new HashMap<>();
 
     List<String> userDepts =
@@ -149,31 +191,26 @@ public class PermissionEvaluator {
       }
     }
 
-    // Apply User Overrides
-    if (userId != null && tenantId != null) {
-      List<PermissionOverride> overrides = overrideRepo.findActiveOverrides(tenantId, userId);
-      log.debug("Applied {} overrides for user={}", overrides.size(), userId);
-      for (PermissionOverride override : overrides) {
-        if (override.getDataScope() == null) {
-          revoke(evaluatedPermissions, override.getResource(), override.getAction());
-        } else {
-          forceSet(
-              evaluatedPermissions,
-              override.getResource(),
-              override.getAction(),
-              override.getDataScope());
-        }
-      }
-    }
-
-    PermissionResult result = new PermissionResult(evaluatedPermissions, false);
+    Map<String, Map<String, DataScope>> compiled = new HashMap<>();
+    evaluatedPermissions.forEach((resource, actions) -> compiled.put(resource, Map.copyOf(actions)));
+    PermissionResult result = new PermissionResult(Map.copyOf(compiled), false);
     log.debug(
-        "Final permission result: {} entries, superAdmin={}",
-        evaluatedPermissions.size(),
-        result.isSuperAdmin());
+        "Compiled permission snapshot: role={}, {} entries", roleCode, evaluatedPermissions.size());
     return result;
   }
 
+  private List<PermissionSnapshotCache.OverrideGrant> loadOverrides(UUID tenantId, UUID userId) {
+    return overrideRepo.findActiveOverrides(tenantId, userId).stream()
+        .map(
+            override ->
+                new PermissionSnapshotCache.OverrideGrant(
+                    override.getResource(),
+                    override.getAction(),
+                    override.getDataScope(),
+                    override.getExpiresAt()))
+        .toList();
+  }
+
   private void mergeHigherScope(
       Map<String, Map<String, DataScope>> perms, String resource, String action, DataScope scope) {
     perms.putIfAbsent(resource, new HashMap<>());
@@ -0,0 +1,127 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import com.fabricmanagement.platform.user.domain.DataScope;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.expression.AccessException;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.ParserContext;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.SpelNodeImpl;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.expression.SecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Parses method-security expressions, resolving {@code @auth} permission checks once.
+ *
+ * <p>Spring Security parses each {@code @PreAuthorize} expression once per method and evaluates
+ * it on every call. An expression that is exactly {@code @auth.can(authentication, 'r', 'a')} or
+ * {@code @auth.hasScope(authentication, 'r', 'a', 's')} is resolved here: the resource and action
+ * are interned to a {@link PermissionKeys.Permission} and the scope parsed, so a call is the
+ * evaluator's id-indexed check without name lookups or SpEL method resolution. Every other
+ * expression, including ones that combine such a check with anything else, is left to SpEL.
+ */
+final class PermissionExpressionParser extends SpelExpressionParser {
+
+  private static final SpelParserConfiguration CONFIGURATION = new SpelParserConfiguration();
+
+  private static final String BEAN = "auth";
+
+  private static final Pattern CAN =
+      Pattern.compile(
+          "@auth\\.can\\(\\s*authentication\\s*,\\s*'([^']*)'\\s*,\\s*'([^']*)'\\s*\\)");
+
+  private static final Pattern HAS_SCOPE =
+      Pattern.compile(
+          "@auth\\.hasScope\\(\\s*authentication\\s*,\\s*'([^']*)'\\s*,\\s*'([^']*)'\\s*,"
+              + "\\s*'([^']*)'\\s*\\)");
+
+  PermissionExpressionParser() {
+    super(CONFIGURATION);
+  }
+
+  @Override
+  protected SpelExpression doParseExpression(String expressionString, ParserContext context) {
+    SpelExpression parsed = super.doParseExpression(expressionString, context);
+    String expression = expressionString.strip();
+    Matcher can = CAN.matcher(expression);
+    if (can.matches()) {
+      return new PermissionCheck(
+          parsed, PermissionKeys.Permission.of(can.group(1), can.group(2)), null);
+    }
+    Matcher hasScope = HAS_SCOPE.matcher(expression);
+    if (hasScope.matches()) {
+      return new PermissionCheck(
+          parsed,
+          PermissionKeys.Permission.of(hasScope.group(1), hasScope.group(2)),
+          SpELPermissionEvaluator.scope(hasScope.group(3)));
+    }
+    return parsed;
+  }
+
+  /**
+   * A parsed {@code @auth} check. Evaluated directly when the root object is a security expression
+   * root and {@code @auth} is the permission evaluator; otherwise as the SpEL it was parsed from.
+   */
+  private static final class PermissionCheck extends SpelExpression {
+
+    private final PermissionKeys.Permission permission;
+
+    /** The required scope of a {@code hasScope} check; null for {@code can}. */
+    private final DataScope requiredScope;
+
+    PermissionCheck(
+        SpelExpression parsed, PermissionKeys.Permission permission, DataScope requiredScope) {
+      super(parsed.getExpressionString(), (SpelNodeImpl) parsed.getAST(), CONFIGURATION);
+      this.permission = permission;
+      this.requiredScope = requiredScope;
+    }
+
+    @Override
+    public Object getValue(EvaluationContext context) {
+      Boolean granted = check(context);
+      return granted != null ? granted : super.getValue(context);
+    }
+
+    @Override
+    public <T> T getValue(EvaluationContext context, Class<T> expectedResultType) {
+      if (expectedResultType == Boolean.class || expectedResultType == Object.class) {
+        Boolean granted = check(context);
+        if (granted != null) {
+          return expectedResultType.cast(granted);
+        }
+      }
+      return super.getValue(context, expectedResultType);
+    }
+
+    /** The check's outcome, or null if the context does not allow the direct call. */
+    private Boolean check(EvaluationContext context) {
+      if (!(context.getRootObject().getValue() instanceof SecurityExpressionOperations root)
+          || !(evaluator(context) instanceof SpELPermissionEvaluator evaluator)) {
+        return null;
+      }
+      Authentication authentication = root.getAuthentication();
+      return requiredScope == null
+          ? evaluator.can(authentication, permission)
+          : evaluator.hasScope(authentication, permission, requiredScope);
+    }
+
+    private static Object evaluator(EvaluationContext context) {
+      BeanResolver beanResolver = context.getBeanResolver();
+      if (beanResolver == null) {
+        return null;
+      }
+      try {
+        return beanResolver.resolve(context, BEAN);
+      } catch (AccessException e) {
+        throw new SpelEvaluationException(
+            e, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION, BEAN, e.getMessage());
+      }
+    }
+  }
+}
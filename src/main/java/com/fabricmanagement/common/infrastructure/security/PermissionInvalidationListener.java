@@ -0,0 +1,120 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies permission invalidations broadcast by {@link PermissionInvalidationNotifier} on other
+ * nodes.
+ *
+ * <p>Holds one dedicated connection outside the Hikari pool (a pooled connection would be recycled
+ * by {@code maxLifetime} and silently drop the {@code LISTEN}). Whenever the connection is
+ * (re)established the whole local cache is dropped, since notifications sent while disconnected are
+ * lost.
+ */
+@Component
+@Slf4j
+public class PermissionInvalidationListener implements SmartLifecycle {
+
+  private static final long RECONNECT_DELAY_MS = 5_000;
+
+  private final PermissionSnapshotCache snapshotCache;
+  private final DataSourceProperties dataSourceProperties;
+  private final boolean enabled;
+  private final int pollTimeoutMs;
+
+  private volatile boolean running;
+  private Thread worker;
+
+  public PermissionInvalidationListener(
+      PermissionSnapshotCache snapshotCache,
+      DataSourceProperties dataSourceProperties,
+      @Value("${application.permission-cache.listen-enabled:true}") boolean enabled,
+      @Value("${application.permission-cache.poll-timeout-ms:500}") int pollTimeoutMs) {
+    this.snapshotCache = snapshotCache;
+    this.dataSourceProperties = dataSourceProperties;
+    this.enabled = enabled;
+    this.pollTimeoutMs = pollTimeoutMs;
+  }
+
+  @Override
+  public void start() {
+    if (!enabled) {
+      log.info("Permission invalidation listener disabled; relying on cache TTL across nodes.");
+      return;
+    }
+    running = true;
+    worker = Thread.ofPlatform().name("permission-invalidation").daemon().start(this::listen);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (worker != null) {
+      worker.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection =
+              DriverManager.getConnection(
+                  dataSourceProperties.determineUrl(),
+                  dataSourceProperties.determineUsername(),
+                  dataSourceProperties.determinePassword());
+          Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + PermissionInvalidationNotifier.CHANNEL);
+        snapshotCache.invalidateAll();
+        log.info("Listening for permission invalidations");
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              apply(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Permission invalidation listener disconnected; retrying: {}", e.getMessage());
+        try {
+          Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void apply(String payload) {
+    if (PermissionInvalidationNotifier.ALL_TENANTS.equals(payload)) {
+      snapshotCache.invalidateAll();
+      return;
+    }
+    try {
+      snapshotCache.invalidateTenant(UUID.fromString(payload));
+    } catch (IllegalArgumentException e) {
+      log.warn("Ignoring malformed permission invalidation payload: {}", payload);
+    }
+  }
+}
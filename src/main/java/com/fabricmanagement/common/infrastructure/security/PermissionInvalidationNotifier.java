@@ -0,0 +1,72 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Broadcasts permission changes to every node through Postgres {@code NOTIFY}.
+ *
+ * <p>Called by whatever writes permission templates or overrides. The broadcast is deferred until
+ * the writing transaction commits, so no node can reload and re-cache the old grants between the
+ * invalidation and the commit. The local cache is invalidated directly; other nodes pick the
+ * message up in {@link PermissionInvalidationListener}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionInvalidationNotifier {
+
+  static final String CHANNEL = "permission_invalidation";
+
+  /** Payload that invalidates every tenant. */
+  static final String ALL_TENANTS = "*";
+
+  private final PermissionSnapshotCache snapshotCache;
+  private final JdbcTemplate jdbcTemplate;
+
+  /** Invalidates the tenant's cached permissions on every node once the transaction commits. */
+  public void invalidateTenant(UUID tenantId) {
+    afterCommit(
+        () -> {
+          snapshotCache.invalidateTenant(tenantId);
+          publish(tenantId != null ? tenantId.toString() : ALL_TENANTS);
+        });
+  }
+
+  /** Invalidates all cached permissions on every node once the transaction commits. */
+  public void invalidateAll() {
+    afterCommit(
+        () -> {
+          snapshotCache.invalidateAll();
+          publish(ALL_TENANTS);
+        });
+  }
+
+  private void publish(String payload) {
+    try {
+      jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    } catch (RuntimeException e) {
+      // Other nodes fall back to the cache TTL for this change.
+      log.error("Failed to broadcast permission invalidation: payload={}", payload, e);
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
@@ -0,0 +1,71 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dense integer ids for permission resources and actions.
+ *
+ * <p>Everything in {@link PermissionRegistry} is interned when the class loads. Names that only
+ * exist in stored templates or overrides are interned the first time a {@code PermissionResult}
+ * is compiled with them. Ids are never reused, so a compiled result stays valid for the lifetime
+ * of the JVM, and so does a {@link Permission} resolved when an expression is parsed.
+ */
+public final class PermissionKeys {
+
+  private static final Interner RESOURCES = new Interner();
+  private static final Interner ACTIONS = new Interner();
+
+  static {
+    PermissionRegistry.VALID_RESOURCES.stream().sorted().forEach(RESOURCES::intern);
+    PermissionRegistry.VALID_ACTIONS.stream().sorted().forEach(ACTIONS::intern);
+  }
+
+  private PermissionKeys() {
+    // Utility class
+  }
+
+  /** Returns the id of {@code resource}, or {@code -1} if no permission has ever used it. */
+  public static int resourceId(String resource) {
+    return RESOURCES.lookup(resource);
+  }
+
+  /** Returns the id of {@code action}, or {@code -1} if no permission has ever used it. */
+  public static int actionId(String action) {
+    return ACTIONS.lookup(action);
+  }
+
+  public static int internResource(String resource) {
+    return RESOURCES.intern(resource);
+  }
+
+  public static int internAction(String action) {
+    return ACTIONS.intern(action);
+  }
+
+  /** A resource/action pair resolved to its ids, for checks whose names are fixed in advance. */
+  public record Permission(int resourceId, int actionId) {
+
+    public static Permission of(String resource, String action) {
+      return new Permission(internResource(resource), internAction(action));
+    }
+  }
+
+  private static final class Interner {
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    int lookup(String name) {
+      if (name == null) {
+        return -1;
+      }
+      Integer id = ids.get(name);
+      return id != null ? id : -1;
+    }
+
+    int intern(String name) {
+      return ids.computeIfAbsent(name, n -> next.getAndIncrement());
+    }
+  }
+}
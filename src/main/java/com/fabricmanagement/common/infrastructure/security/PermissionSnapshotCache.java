@@ -0,0 +1,131 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import com.fabricmanagement.common.infrastructure.security.dto.PermissionResult;
+import com.fabricmanagement.platform.user.domain.DataScope;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node-local cache behind {@link PermissionEvaluator}, in two tiers:
+ *
+ * <ul>
+ *   <li><b>Snapshots</b> — the compiled template grants of a (tenant, role, department set).
+ *       Shared by every user with that role and those departments.
+ *   <li><b>Overrides</b> — the user-specific grants and revocations layered on top.
+ * </ul>
+ *
+ * <p>Every key carries the tenant's generation. {@link #invalidateTenant(UUID)} bumps it, so all
+ * of the tenant's entries become unreachable at once and age out on their own; a load that started
+ * before the bump is stored under the old generation and never served. This is what lets entries
+ * live for hours: revocation does not wait for the TTL but for {@link
+ * PermissionInvalidationNotifier} to reach every node.
+ */
+@Component
+@Slf4j
+public class PermissionSnapshotCache {
+
+  private final Cache<SnapshotKey, PermissionResult> snapshots;
+  private final Cache<OverrideKey, List<OverrideGrant>> overrides;
+  private final ConcurrentHashMap<UUID, AtomicLong> generationByTenant = new ConcurrentHashMap<>();
+  private final AtomicLong globalGeneration = new AtomicLong();
+
+  public PermissionSnapshotCache(
+      @Value("${application.permission-cache.expire-after-write:PT4H}") Duration expireAfterWrite,
+      @Value("${application.permission-cache.maximum-size:20000}") long maximumSize) {
+    this.snapshots =
+        Caffeine.newBuilder().expireAfterWrite(expireAfterWrite).maximumSize(maximumSize).build();
+    this.overrides =
+        Caffeine.newBuilder().expireAfterWrite(expireAfterWrite).maximumSize(maximumSize).build();
+  }
+
+  /** Returns the compiled grants of the role and department set, loading them on a miss. */
+  public PermissionResult snapshot(
+      UUID tenantId,
+      String roleCode,
+      List<String> departmentCodes,
+      Supplier<PermissionResult> loader) {
+    SnapshotKey key =
+        new SnapshotKey(
+            tenantId,
+            globalGeneration.get(),
+            tenantGeneration(tenantId),
+            roleCode,
+            normalize(departmentCodes));
+    return snapshots.get(key, k -> loader.get());
+  }
+
+  /** Returns the user's override grants, loading them on a miss. */
+  public List<OverrideGrant> overrides(
+      UUID tenantId, UUID userId, Supplier<List<OverrideGrant>> loader) {
+    OverrideKey key =
+        new OverrideKey(tenantId, globalGeneration.get(), tenantGeneration(tenantId), userId);
+    return overrides.get(key, k -> List.copyOf(loader.get()));
+  }
+
+  /** Drops every snapshot and override of the tenant on this node. */
+  public void invalidateTenant(UUID tenantId) {
+    if (tenantId == null) {
+      invalidateAll();
+      return;
+    }
+    generationByTenant.computeIfAbsent(tenantId, id -> new AtomicLong()).incrementAndGet();
+    log.debug("Permission cache invalidated: tenantId={}", tenantId);
+  }
+
+  /** Drops every snapshot and override on this node. */
+  public void invalidateAll() {
+    globalGeneration.incrementAndGet();
+    snapshots.invalidateAll();
+    overrides.invalidateAll();
+    log.debug("Permission cache invalidated for all tenants");
+  }
+
+  private long tenantGeneration(UUID tenantId) {
+    if (tenantId == null) {
+      return 0L;
+    }
+    AtomicLong generation = generationByTenant.get(tenantId);
+    return generation != null ? generation.get() : 0L;
+  }
+
+  /** Order and duplicates of the department list do not change the evaluation. */
+  private static List<String> normalize(List<String> departmentCodes) {
+    if (departmentCodes == null || departmentCodes.isEmpty()) {
+      return List.of();
+    }
+    return departmentCodes.stream()
+        .filter(Objects::nonNull)
+        .distinct()
+        .sorted()
+        .toList();
+  }
+
+  /** A user override: {@code scope == null} revokes the action. */
+  public record OverrideGrant(String resource, String action, DataScope scope, Instant expiresAt) {
+
+    boolean isExpired(Instant now) {
+      return expiresAt != null && !expiresAt.isAfter(now);
+    }
+  }
+
+  private record SnapshotKey(
+      UUID tenantId,
+      long globalGeneration,
+      long tenantGeneration,
+      String roleCode,
+      List<String> departmentCodes) {}
+
+  private record OverrideKey(
+      UUID tenantId, long globalGeneration, long tenantGeneration, UUID userId) {}
+}
@@ -10,6 +10,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -48,6 +50,18 @@ public class SecurityConfig {
     return new BCryptPasswordEncoder();
   }
 
+  /**
+   * Method-security expressions parsed by {@link PermissionExpressionParser}, so the {@code
+   * @auth.can} checks on controllers resolve their resource and action once per method. Static:
+   * the handler is needed while the method-security infrastructure is being built.
+   */
+  @Bean
+  static MethodSecurityExpressionHandler methodSecurityExpressionHandler() {
+    DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler();
+    handler.setExpressionParser(new PermissionExpressionParser());
+    return handler;
+  }
+
   // ── Partner Portal Filter Chains (Order 1 — evaluated before main chains)
   // ────────────────────
 
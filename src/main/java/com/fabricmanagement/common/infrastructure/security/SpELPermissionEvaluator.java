@@ -1,33 +1,48 @@
 package com.fabricmanagement.common.infrastructure.security;
 
 import com.fabricmanagement.common.infrastructure.security.dto.PermissionResult;
+import com.fabricmanagement.platform.user.domain.DataScope;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+/**
+ * The {@code @auth} bean of {@code @PreAuthorize} expressions. Expressions that are a single
+ * {@code can} or {@code hasScope} call with literal arguments are resolved once when parsed
+ * ({@link PermissionExpressionParser}) and land on the overloads taking a {@link
+ * PermissionKeys.Permission}; any other expression calls the string overloads through SpEL.
+ */
 @Component("auth")
 @RequiredArgsConstructor
 public class SpELPermissionEvaluator {
 
+  /**
+   * Scope names as written in {@code @PreAuthorize} expressions. SpEL passes the same literals on
+   * every call, so each spelling is upper-cased and parsed once.
+   */
+  private static final Map<String, DataScope> SCOPE_BY_NAME = new ConcurrentHashMap<>();
+
+  static {
+    Arrays.stream(DataScope.values()).forEach(scope -> SCOPE_BY_NAME.put(scope.name(), scope));
+  }
+
   private final PermissionEvaluator permissionEvaluator;
   private final AuthenticatedUserContextResolver contextResolver;
 
   /** Used in SpEL expressions: @PreAuthorize("@auth.can(authentication, 'SALES', 'WRITE')") */
   public boolean can(Authentication authentication, String resource, String action) {
-    if (authentication == null || !authentication.isAuthenticated()) {
-      return false;
-    }
-
-    AuthenticatedUserContext ctx = contextResolver.resolve(authentication).orElse(null);
-    if (ctx == null) {
-      return false;
-    }
-
-    PermissionResult result =
-        permissionEvaluator.evaluate(
-            ctx.tenantId(), ctx.roleCode(), ctx.departmentCodes(), ctx.userId());
+    PermissionResult result = evaluate(authentication);
+    return result != null && result.can(resource, action);
+  }
 
-    return result.can(resource, action);
+  /** {@link #can(Authentication, String, String)} with the names resolved in advance. */
+  public boolean can(Authentication authentication, PermissionKeys.Permission permission) {
+    PermissionResult result = evaluate(authentication);
+    return result != null && result.can(permission);
   }
 
   /**
@@ -36,28 +51,43 @@ public class SpELPermissionEvaluator {
    */
   public boolean hasScope(
       Authentication authentication, String resource, String action, String requiredScope) {
-    if (authentication == null || !authentication.isAuthenticated()) {
+    PermissionResult result = evaluate(authentication);
+    if (result == null) {
       return false;
     }
+    DataScope userScope = result.scopeOf(resource, action);
+    return userScope != null && userScope.compareTo(scope(requiredScope)) >= 0;
+  }
 
-    AuthenticatedUserContext ctx = contextResolver.resolve(authentication).orElse(null);
-    if (ctx == null) {
+  /** {@link #hasScope(Authentication, String, String, String)} with the names resolved. */
+  public boolean hasScope(
+      Authentication authentication, PermissionKeys.Permission permission, DataScope required) {
+    PermissionResult result = evaluate(authentication);
+    if (result == null) {
       return false;
     }
+    DataScope userScope = result.scopeOf(permission);
+    return userScope != null && userScope.compareTo(required) >= 0;
+  }
 
-    PermissionResult result =
-        permissionEvaluator.evaluate(
-            ctx.tenantId(), ctx.roleCode(), ctx.departmentCodes(), ctx.userId());
+  /** Parses a scope name as written in an expression, in any case. */
+  static DataScope scope(String name) {
+    return SCOPE_BY_NAME.computeIfAbsent(
+        name, n -> DataScope.valueOf(n.toUpperCase(Locale.ROOT)));
+  }
 
-    com.fabricmanagement.platform.user.domain.DataScope userScope =
-        result.scopeOf(resource, action);
-    if (userScope == null) {
-      return false;
+  /** The caller's permissions, or null if the caller is not an authenticated user. */
+  private PermissionResult evaluate(Authentication authentication) {
+    if (authentication == null || !authentication.isAuthenticated()) {
+      return null;
     }
 
-    com.fabricmanagement.platform.user.domain.DataScope reqScope =
-        com.fabricmanagement.platform.user.domain.DataScope.valueOf(requiredScope.toUpperCase());
+    AuthenticatedUserContext ctx = contextResolver.resolve(authentication).orElse(null);
+    if (ctx == null) {
+      return null;
+    }
 
-    return userScope.compareTo(reqScope) >= 0;
+    return permissionEvaluator.evaluate(
+        ctx.tenantId(), ctx.roleCode(), ctx.departmentCodes(), ctx.userId());
   }
 }
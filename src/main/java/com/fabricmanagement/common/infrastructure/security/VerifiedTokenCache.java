@@ -0,0 +1,217 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import com.fabricmanagement.platform.auth.app.JwtService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of verified JWTs for {@link JwtAuthenticationFilter}.
+ *
+ * <p>An SPA page load fires dozens of API calls with the same access token. The first call verifies
+ * the HMAC signature and builds the {@link AuthenticatedUserContext} and authority list; later
+ * calls find the result here by SHA-256 digest of the token and skip verification. Each entry is
+ * evicted at the token's {@code exp} and is checked against it again on read. Tokens without exp
+ * are not cached.
+ *
+ * <p>{@link JwtAuthenticationFilter} leaves the entry on the request under {@link
+ * #REQUEST_ATTRIBUTE}, so later request-scoped readers of the token take its claims from there
+ * instead of parsing the token again.
+ *
+ * <p>Metrics: {@code cache.*{cache=jwtVerifiedTokens}} (hit rate, evictions) and the {@code
+ * security.jwt.verification} timer for cache misses.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+  /** Request attribute holding the {@link Entry} of the request's token. */
+  public static final String REQUEST_ATTRIBUTE = VerifiedTokenCache.class.getName() + ".ENTRY";
+
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(VerifiedTokenCache::newDigest);
+
+  /** Authority lists are shared by every token with the same user type and role. */
+  private static final ConcurrentHashMap<String, List<SimpleGrantedAuthority>> AUTHORITIES =
+      new ConcurrentHashMap<>();
+
+  private final JwtService jwtService;
+  private final Clock clock;
+  private final Cache<ByteBuffer, Entry> cache;
+  private final Timer verificationTimer;
+
+  public VerifiedTokenCache(
+      JwtService jwtService,
+      Clock clock,
+      MeterRegistry meterRegistry,
+      @Value("${application.jwt.verified-token-cache-size:50000}") long maximumSize) {
+    this.jwtService = jwtService;
+    this.clock = clock;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+    this.verificationTimer =
+        Timer.builder("security.jwt.verification")
+            .description("JWT signature verification and claim extraction on cache miss")
+            .register(meterRegistry);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtVerifiedTokens");
+  }
+
+  /**
+   * Returns the verified token, from cache when possible.
+   *
+   * @return empty if the token is malformed, tampered with or expired
+   */
+  public Optional<Entry> verify(String token) {
+    ByteBuffer key = digest(token);
+    Instant now = clock.instant();
+    Entry cached = cache.getIfPresent(key);
+    if (cached != null && cached.expiresAt().isAfter(now)) {
+      return Optional.of(cached);
+    }
+
+    JwtService.VerifiedToken verified;
+    Timer.Sample sample = Timer.start();
+    try {
+      verified = jwtService.verify(token);
+    } catch (JwtException | IllegalArgumentException e) {
+      log.trace("Invalid JWT token: {}", e.getMessage());
+      return Optional.empty();
+    } finally {
+      sample.stop(verificationTimer);
+    }
+
+    Entry entry = toEntry(verified);
+    if (entry.expiresAt() != null && entry.expiresAt().isAfter(now)) {
+      cache.put(key, entry);
+    }
+    return Optional.of(entry);
+  }
+
+  private static Entry toEntry(JwtService.VerifiedToken verified) {
+    JwtService.AuthTokenClaims claims = verified.claims();
+    AuthenticatedUserContext context =
+        claims.userId() == null
+            ? null
+            : new AuthenticatedUserContext(
+                claims.userId(),
+                claims.roleCode(),
+                claims.departmentCodes(),
+                claims.primaryDepartment(),
+                claims.tenantId(),
+                claims.isPlayground(),
+                claims.guestId());
+    return new Entry(
+        claims,
+        context,
+        authorities(claims.roleCode(), claims.userType()),
+        claims.userType(),
+        claims.partnerId(),
+        verified.preAuth(),
+        verified.tenantUid(),
+        verified.expiresAt());
+  }
+
+  /**
+   * Build Spring Security authority list from role code and user type.
+   *
+   * <ul>
+   *   <li>{@code ROLE_<code>} — for {@code hasRole()} checks
+   *   <li>{@code <code>} — for {@code hasAuthority()} checks
+   *   <li>{@code ROLE_PARTNER_USER} — added for all partner tokens regardless of role_code
+   * </ul>
+   */
+  static List<SimpleGrantedAuthority> authorities(String roleCode, String userType) {
+    boolean partner = "PARTNER".equals(userType);
+    String key = (partner ? "P|" : "U|") + (roleCode == null ? "" : roleCode.toUpperCase());
+    return AUTHORITIES.computeIfAbsent(key, ignored -> buildAuthorities(roleCode, partner));
+  }
+
+  private static List<SimpleGrantedAuthority> buildAuthorities(String roleCode, boolean partner) {
+    Stream<SimpleGrantedAuthority> partnerAuthorities =
+        partner
+            ? Stream.of(
+                new SimpleGrantedAuthority("ROLE_PARTNER_USER"),
+                new SimpleGrantedAuthority("PARTNER_USER"))
+            : Stream.empty();
+
+    Stream<SimpleGrantedAuthority> roleAuthorities =
+        roleCode == null
+            ? Stream.empty()
+            : Stream.of(
+                new SimpleGrantedAuthority("ROLE_" + roleCode.toUpperCase()),
+                new SimpleGrantedAuthority(roleCode.toUpperCase()));
+
+    return Stream.concat(partnerAuthorities, roleAuthorities).toList();
+  }
+
+  private static ByteBuffer digest(String token) {
+    return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * A verified token. {@code userContext} is null when the token carries no {@code user_id}.
+   * {@code tenantUid} is null when the token has no {@code tenant_uid} claim. {@code expiresAt} is
+   * null for tokens without exp.
+   */
+  public record Entry(
+      JwtService.AuthTokenClaims claims,
+      AuthenticatedUserContext userContext,
+      List<SimpleGrantedAuthority> authorities,
+      String userType,
+      UUID partnerId,
+      boolean preAuth,
+      String tenantUid,
+      Instant expiresAt) {}
+
+  private final class UntilTokenExpiry implements Expiry<ByteBuffer, Entry> {
+
+    @Override
+    public long expireAfterCreate(ByteBuffer key, Entry entry, long currentTime) {
+      return Math.max(0, Duration.between(clock.instant(), entry.expiresAt()).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, entry, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        ByteBuffer key, Entry entry, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,32 +1,73 @@
 package com.fabricmanagement.common.infrastructure.security.dto;
 
+import com.fabricmanagement.common.infrastructure.security.PermissionKeys;
 import com.fabricmanagement.platform.user.domain.DataScope;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Note: When isSuperAdmin is true, the permissions map may be empty. Always use can() and scopeOf()
  * methods instead of directly accessing the map. can() and scopeOf() handle the superAdmin case
  * automatically.
+ *
+ * <p>The map is compiled on construction into a table indexed by {@link PermissionKeys} ids, so
+ * {@code can()} and {@code scopeOf()} are two id lookups and an array read, without allocating;
+ * given a {@link PermissionKeys.Permission} resolved in advance they are the array read alone.
+ * The map must not be modified after it has been handed to the constructor.
  */
-public record PermissionResult(
-    Map<String, Map<String, DataScope>> permissions, boolean isSuperAdmin) {
+public final class PermissionResult {
+
+  private static final DataScope[] SCOPES = DataScope.values();
+  private static final byte[][] NO_GRANTS = new byte[0][];
+
+  private final Map<String, Map<String, DataScope>> permissions;
+  private final boolean isSuperAdmin;
+
+  /** {@code [resourceId][actionId]} → scope ordinal + 1; 0 means not granted. */
+  private final byte[][] scopeTable;
+
+  public PermissionResult(Map<String, Map<String, DataScope>> permissions, boolean isSuperAdmin) {
+    this.permissions = permissions;
+    this.isSuperAdmin = isSuperAdmin;
+    this.scopeTable = compile(permissions);
+  }
+
+  public Map<String, Map<String, DataScope>> permissions() {
+    return permissions;
+  }
+
+  public boolean isSuperAdmin() {
+    return isSuperAdmin;
+  }
 
   public boolean can(String resource, String action) {
     if (isSuperAdmin) {
       return true;
     }
-    return permissions.containsKey(resource) && permissions.get(resource).containsKey(action);
+    return scopeCode(PermissionKeys.resourceId(resource), PermissionKeys.actionId(action)) != 0;
   }
 
   public DataScope scopeOf(String resource, String action) {
     if (isSuperAdmin) {
       return DataScope.GLOBAL;
     }
-    if (!permissions.containsKey(resource)) {
-      return null;
+    int code = scopeCode(PermissionKeys.resourceId(resource), PermissionKeys.actionId(action));
+    return code == 0 ? null : SCOPES[code - 1];
+  }
+
+  /** {@link #can(String, String)} for a pair resolved in advance; no name lookup. */
+  public boolean can(PermissionKeys.Permission permission) {
+    return isSuperAdmin || scopeCode(permission.resourceId(), permission.actionId()) != 0;
+  }
+
+  /** {@link #scopeOf(String, String)} for a pair resolved in advance; no name lookup. */
+  public DataScope scopeOf(PermissionKeys.Permission permission) {
+    if (isSuperAdmin) {
+      return DataScope.GLOBAL;
     }
-    return permissions.get(resource).get(action);
+    int code = scopeCode(permission.resourceId(), permission.actionId());
+    return code == 0 ? null : SCOPES[code - 1];
   }
 
   public List<EffectivePermission> toList() {
@@ -40,4 +81,59 @@ public record PermissionResult(
                     .map(a -> new EffectivePermission(r.getKey(), a.getKey(), a.getValue())))
         .toList();
   }
+
+  private int scopeCode(int resourceId, int actionId) {
+    if (resourceId < 0 || actionId < 0 || resourceId >= scopeTable.length) {
+      return 0;
+    }
+    byte[] actions = scopeTable[resourceId];
+    return actions == null || actionId >= actions.length ? 0 : actions[actionId];
+  }
+
+  private static byte[][] compile(Map<String, Map<String, DataScope>> permissions) {
+    if (permissions == null || permissions.isEmpty()) {
+      return NO_GRANTS;
+    }
+    int maxResourceId = -1;
+    for (String resource : permissions.keySet()) {
+      maxResourceId = Math.max(maxResourceId, PermissionKeys.internResource(resource));
+    }
+    byte[][] table = new byte[maxResourceId + 1][];
+    for (Map.Entry<String, Map<String, DataScope>> resource : permissions.entrySet()) {
+      Map<String, DataScope> actions = resource.getValue();
+      if (actions == null || actions.isEmpty()) {
+        continue;
+      }
+      int maxActionId = -1;
+      for (String action : actions.keySet()) {
+        maxActionId = Math.max(maxActionId, PermissionKeys.internAction(action));
+      }
+      byte[] row = new byte[maxActionId + 1];
+      for (Map.Entry<String, DataScope> action : actions.entrySet()) {
+        if (action.getValue() != null) {
+          row[PermissionKeys.actionId(action.getKey())] = (byte) (action.getValue().ordinal() + 1);
+        }
+      }
+      table[PermissionKeys.resourceId(resource.getKey())] = row;
+    }
+    return table;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o
+        || o instanceof PermissionResult other
+            && isSuperAdmin == other.isSuperAdmin
+            && Objects.equals(permissions, other.permissions);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(permissions, isSuperAdmin);
+  }
+
+  @Override
+  public String toString() {
+    return "PermissionResult[permissions=" + permissions + ", isSuperAdmin=" + isSuperAdmin + "]";
+  }
 }
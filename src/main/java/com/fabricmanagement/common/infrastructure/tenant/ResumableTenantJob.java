@@ -0,0 +1,18 @@
+package com.fabricmanagement.common.infrastructure.tenant;
+
+/**
+ * A scheduled job run through {@link TenantFanOutExecutor} with a run key, which {@link
+ * TenantFanOutRecoveryJob} restarts if its current run was interrupted. Restarting skips the
+ * tenants the interrupted run already checkpointed.
+ */
+public interface ResumableTenantJob {
+
+  /** Lease name the job passes to {@link TenantFanOutExecutor#run}. */
+  String jobName();
+
+  /** Run key of the run that is due now, e.g. today's date for a daily job. */
+  String runKey();
+
+  /** Runs the job again for its current run key. */
+  void resume();
+}
@@ -0,0 +1,286 @@
+package com.fabricmanagement.common.infrastructure.tenant;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs a scheduled job once per active tenant, in parallel, on one replica of the cluster.
+ *
+ * <ul>
+ *   <li><b>Lease:</b> a run first takes the job's lease in {@link TenantJobLeaseStore}; a replica
+ *       that finds it held skips the run. A heartbeat renews the lease every third of {@code
+ *       lease-duration} for as long as the run lasts, including time tenants spend waiting for a
+ *       permit, so a live run is never mistaken for an interrupted one. A run with a run key
+ *       releases the lease when it ends; a run without one (an interval job) keeps it for another
+ *       {@code lease-duration}, so replicas whose schedule fires a little later skip that slot
+ *       instead of running it again. The replica holding it takes it again at its next slot.
+ *   <li><b>Parallelism:</b> each tenant runs on its own virtual thread inside {@link
+ *       TenantContext#executeInTenantContext}. A semaphore shared by all jobs caps concurrent
+ *       tenants at {@code max-parallelism}, and never above half the primary pool, so request
+ *       traffic keeps its connections.
+ *   <li><b>Timeout:</b> a tenant still running after {@code tenant-timeout} is interrupted and
+ *       counted as timed out; its permit is only returned once it actually stops.
+ *   <li><b>Checkpoints:</b> with a run key (e.g. the business date), every completed tenant is
+ *       recorded and a later run with the same key skips it, so an interrupted run resumes where it
+ *       stopped (see {@link TenantFanOutRecoveryJob}).
+ * </ul>
+ *
+ * <p>A failing or timed-out tenant never stops the others. Metrics: {@code tenant.fanout.tenant}
+ * timer tagged by job and outcome ({@code success}, {@code failure}, {@code timeout}) and {@code
+ * tenant.fanout.run.skipped} for runs skipped because another replica holds the lease.
+ */
+@Component
+@Slf4j
+public class TenantFanOutExecutor {
+
+  private final TenantQueryPort tenantQueryPort;
+  private final TenantJobLeaseStore leaseStore;
+  private final MeterRegistry meterRegistry;
+  private final Semaphore permits;
+  private final Duration tenantTimeout;
+  private final Duration leaseDuration;
+  private final String holder;
+
+  public TenantFanOutExecutor(
+      TenantQueryPort tenantQueryPort,
+      TenantJobLeaseStore leaseStore,
+      MeterRegistry meterRegistry,
+      DataSource dataSource,
+      @Value("${application.tenant-fan-out.max-parallelism:8}") int maxParallelism,
+      @Value("${application.tenant-fan-out.tenant-timeout:PT5M}") Duration tenantTimeout,
+      @Value("${application.tenant-fan-out.lease-duration:PT10M}") Duration leaseDuration) {
+    this.tenantQueryPort = tenantQueryPort;
+    this.leaseStore = leaseStore;
+    this.meterRegistry = meterRegistry;
+    this.permits = new Semaphore(parallelism(maxParallelism, dataSource));
+    this.tenantTimeout = tenantTimeout;
+    this.leaseDuration = leaseDuration;
+    this.holder = TenantFanOutExecutor.class.getSimpleName() + "-" + UUID.randomUUID();
+  }
+
+  /**
+   * Runs {@code task} for every active tenant, with the tenant's context (ID and UID) bound.
+   *
+   * @param jobName lease and metric name, unique per job
+   * @param runKey identifies the logical run for checkpoints; null runs every tenant every time
+   * @return the run's outcome; {@link Result#leaseHeld()} is false if another replica is running
+   *     the job
+   */
+  public Result run(String jobName, String runKey, Consumer<TenantReference> task) {
+    if (!leaseStore.tryAcquire(jobName, runKey, holder, leaseDuration)) {
+      Counter.builder("tenant.fanout.run.skipped")
+          .description("Fan-out runs skipped because another replica holds the job lease")
+          .tag("job", jobName)
+          .register(meterRegistry)
+          .increment();
+      log.info("Tenant fan-out skipped, lease held elsewhere: job={}", jobName);
+      return new Result(false, 0, 0, 0, 0, 0);
+    }
+
+    AtomicBoolean leaseLost = new AtomicBoolean();
+    Thread heartbeat =
+        Thread.ofVirtual()
+            .name("fan-out-lease-" + jobName)
+            .start(() -> renewLease(jobName, leaseLost));
+    try {
+      List<TenantReference> tenants = tenantQueryPort.findAllActiveTenants();
+      Set<UUID> completed =
+          runKey != null ? leaseStore.findCompletedTenants(jobName, runKey) : Set.of();
+      Tally tally = new Tally();
+
+      try (ExecutorService supervisors = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (TenantReference tenant : tenants) {
+          if (completed.contains(tenant.id())) {
+            tally.resumed.incrementAndGet();
+            continue;
+          }
+          supervisors.execute(() -> runTenant(jobName, runKey, tenant, task, tally, leaseLost));
+        }
+      }
+
+      Result result =
+          new Result(
+              true,
+              tenants.size(),
+              tally.succeeded.get(),
+              tally.resumed.get(),
+              tally.failed.get(),
+              tally.timedOut.get());
+      log.info(
+          "Tenant fan-out completed: job={}, runKey={}, tenants={}, succeeded={}, resumed={}, "
+              + "failed={}, timedOut={}",
+          jobName,
+          runKey,
+          result.tenants(),
+          result.succeeded(),
+          result.resumed(),
+          result.failed(),
+          result.timedOut());
+      return result;
+    } finally {
+      heartbeat.interrupt();
+      leaseStore.release(jobName, holder, runKey != null ? Duration.ZERO : leaseDuration);
+    }
+  }
+
+  /**
+   * Renews the lease until interrupted. A failed renewal is retried at the next beat; a lease found
+   * taken over stops the run from starting further tenants.
+   */
+  private void renewLease(String jobName, AtomicBoolean leaseLost) {
+    Duration interval = leaseDuration.dividedBy(3);
+    while (true) {
+      try {
+        Thread.sleep(interval);
+      } catch (InterruptedException e) {
+        return;
+      }
+      try {
+        if (!leaseStore.renew(jobName, holder, leaseDuration)) {
+          if (leaseLost.compareAndSet(false, true)) {
+            log.error("Tenant fan-out lost its lease, stopping: job={}", jobName);
+          }
+          return;
+        }
+      } catch (RuntimeException e) {
+        log.warn("Tenant fan-out lease renewal failed, retrying: job={}", jobName, e);
+      }
+    }
+  }
+
+  private void runTenant(
+      String jobName,
+      String runKey,
+      TenantReference tenant,
+      Consumer<TenantReference> task,
+      Tally tally,
+      AtomicBoolean leaseLost) {
+    permits.acquireUninterruptibly();
+    if (leaseLost.get()) {
+      permits.release();
+      return;
+    }
+
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread worker =
+        Thread.ofVirtual()
+            .name("fan-out-" + jobName + "-" + tenant.uid())
+            .unstarted(
+                () -> {
+                  try {
+                    TenantContext.executeInTenantContext(
+                        tenant.id(),
+                        () -> {
+                          TenantContext.setCurrentTenantUid(tenant.uid());
+                          task.accept(tenant);
+                        });
+                  } catch (Throwable e) {
+                    error.set(e);
+                  }
+                });
+
+    Timer.Sample sample = Timer.start(meterRegistry);
+    worker.start();
+    String outcome;
+    try {
+      if (!worker.join(tenantTimeout)) {
+        worker.interrupt();
+        outcome = "timeout";
+        tally.timedOut.incrementAndGet();
+        log.error(
+            "Tenant fan-out timed out: job={}, tenant={}, timeout={}",
+            jobName,
+            tenant.uid(),
+            tenantTimeout);
+      } else if (error.get() != null) {
+        outcome = "failure";
+        tally.failed.incrementAndGet();
+        log.error(
+            "Tenant fan-out failed: job={}, tenant={}: {}",
+            jobName,
+            tenant.uid(),
+            error.get().getMessage(),
+            error.get());
+      } else {
+        outcome = "success";
+        tally.succeeded.incrementAndGet();
+        if (runKey != null) {
+          leaseStore.markCompleted(jobName, runKey, tenant.id());
+        }
+      }
+    } catch (InterruptedException e) {
+      worker.interrupt();
+      Thread.currentThread().interrupt();
+      releaseWhenStopped(worker);
+      return;
+    }
+    sample.stop(
+        Timer.builder("tenant.fanout.tenant")
+            .description("Time one tenant took in a fan-out job")
+            .tag("job", jobName)
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+    releaseWhenStopped(worker);
+  }
+
+  /** Returns the worker's permit once it has stopped; a timed-out worker may still be running. */
+  private void releaseWhenStopped(Thread worker) {
+    if (!worker.isAlive()) {
+      permits.release();
+      return;
+    }
+    Thread.ofVirtual()
+        .start(
+            () -> {
+              boolean interrupted = false;
+              while (worker.isAlive()) {
+                try {
+                  worker.join();
+                } catch (InterruptedException e) {
+                  interrupted = true;
+                }
+              }
+              permits.release();
+              if (interrupted) {
+                Thread.currentThread().interrupt();
+              }
+            });
+  }
+
+  private static int parallelism(int maxParallelism, DataSource dataSource) {
+    int parallelism = Math.max(1, maxParallelism);
+    if (dataSource instanceof HikariDataSource hikari) {
+      parallelism = Math.min(parallelism, Math.max(1, hikari.getMaximumPoolSize() / 2));
+    }
+    return parallelism;
+  }
+
+  /** Outcome of one fan-out run. {@code resumed} tenants were completed by an earlier run. */
+  public record Result(
+      boolean leaseHeld, int tenants, int succeeded, int resumed, int failed, int timedOut) {}
+
+  private static final class Tally {
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger resumed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger timedOut = new AtomicInteger();
+  }
+}
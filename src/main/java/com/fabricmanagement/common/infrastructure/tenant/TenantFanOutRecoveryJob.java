@@ -0,0 +1,65 @@
+package com.fabricmanagement.common.infrastructure.tenant;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resumes fan-out runs whose replica died mid-run: a run whose lease expired without being released
+ * is restarted, and the restart skips every tenant the crashed run had already checkpointed. Only
+ * the run currently due is resumed — a run from an earlier day is superseded by the next regular
+ * run rather than replayed.
+ *
+ * <p>Also purges checkpoints older than {@code checkpoint-retention}.
+ */
+@Component
+@Slf4j
+public class TenantFanOutRecoveryJob {
+
+  private final List<ResumableTenantJob> jobs;
+  private final TenantJobLeaseStore leaseStore;
+  private final Clock clock;
+  private final Duration checkpointRetention;
+
+  public TenantFanOutRecoveryJob(
+      List<ResumableTenantJob> jobs,
+      TenantJobLeaseStore leaseStore,
+      Clock clock,
+      @Value("${application.tenant-fan-out.checkpoint-retention:P14D}")
+          Duration checkpointRetention) {
+    this.jobs = jobs;
+    this.leaseStore = leaseStore;
+    this.clock = clock;
+    this.checkpointRetention = checkpointRetention;
+  }
+
+  @Scheduled(fixedDelayString = "${application.tenant-fan-out.recovery-interval-ms:300000}")
+  public void resumeInterruptedRuns() {
+    for (ResumableTenantJob job : jobs) {
+      String runKey = job.runKey();
+      try {
+        if (leaseStore.isInterrupted(job.jobName(), runKey)) {
+          log.warn("Resuming interrupted tenant fan-out: job={}, runKey={}", job.jobName(), runKey);
+          job.resume();
+        }
+      } catch (Exception e) {
+        log.error(
+            "Failed to resume tenant fan-out: job={}, runKey={}: {}",
+            job.jobName(),
+            runKey,
+            e.getMessage(),
+            e);
+      }
+    }
+
+    int purged = leaseStore.purgeCheckpointsBefore(Instant.now(clock).minus(checkpointRetention));
+    if (purged > 0) {
+      log.info("Purged {} tenant fan-out checkpoints", purged);
+    }
+  }
+}
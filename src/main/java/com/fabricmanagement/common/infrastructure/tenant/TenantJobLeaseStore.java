@@ -0,0 +1,136 @@
+package com.fabricmanagement.common.infrastructure.tenant;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide leases and per-tenant checkpoints of the jobs run by {@link TenantFanOutExecutor}.
+ *
+ * <p>One lease row per job: a replica owns the job while {@code leased_until} is in the future. A
+ * finished run may keep its lease for a while ({@link #release}); until it expires only the same
+ * holder can take it again. A run is interrupted when its lease expired with {@code finished_at}
+ * unset. Checkpoints record which tenants a run (job + run key) has already
+ * completed. Both tables are scheduler bookkeeping without RLS and are written on the system pool.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantJobLeaseStore {
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Takes the job's lease unless another holder's is unexpired; the holder of a finished run may
+   * take its own lease back before it expires.
+   */
+  public boolean tryAcquire(String jobName, String runKey, String holder, Duration leaseDuration) {
+    return jdbcTemplate.update(
+            """
+            INSERT INTO public.scheduled_job_lease
+                (job_name, run_key, holder, leased_until, started_at, finished_at)
+            VALUES (?, ?, ?, now() + ? * interval '1 millisecond', now(), NULL)
+            ON CONFLICT (job_name) DO UPDATE
+                SET run_key = EXCLUDED.run_key,
+                    holder = EXCLUDED.holder,
+                    leased_until = EXCLUDED.leased_until,
+                    started_at = EXCLUDED.started_at,
+                    finished_at = NULL
+                WHERE scheduled_job_lease.leased_until <= now()
+                   OR (scheduled_job_lease.finished_at IS NOT NULL
+                       AND scheduled_job_lease.holder = EXCLUDED.holder)
+            """,
+            jobName,
+            runKey,
+            holder,
+            leaseDuration.toMillis())
+        == 1;
+  }
+
+  /**
+   * Extends a held lease.
+   *
+   * @return false if the lease has been taken over
+   */
+  public boolean renew(String jobName, String holder, Duration leaseDuration) {
+    return jdbcTemplate.update(
+            """
+            UPDATE public.scheduled_job_lease
+            SET leased_until = now() + ? * interval '1 millisecond'
+            WHERE job_name = ? AND holder = ? AND finished_at IS NULL
+            """,
+            leaseDuration.toMillis(),
+            jobName,
+            holder)
+        == 1;
+  }
+
+  /**
+   * Marks the run finished.
+   *
+   * @param holdFor how long other holders stay locked out; zero frees the lease at once
+   */
+  public void release(String jobName, String holder, Duration holdFor) {
+    jdbcTemplate.update(
+        """
+        UPDATE public.scheduled_job_lease
+        SET finished_at = now(), leased_until = now() + ? * interval '1 millisecond'
+        WHERE job_name = ? AND holder = ? AND finished_at IS NULL
+        """,
+        holdFor.toMillis(),
+        jobName,
+        holder);
+  }
+
+  /** True if a run with this key started, never finished and its holder stopped renewing. */
+  public boolean isInterrupted(String jobName, String runKey) {
+    Integer count =
+        jdbcTemplate.queryForObject(
+            """
+            SELECT count(*)
+            FROM public.scheduled_job_lease
+            WHERE job_name = ? AND run_key = ? AND finished_at IS NULL AND leased_until < now()
+            """,
+            Integer.class,
+            jobName,
+            runKey);
+    return count != null && count > 0;
+  }
+
+  public Set<UUID> findCompletedTenants(String jobName, String runKey) {
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            """
+            SELECT tenant_id
+            FROM public.scheduled_job_tenant_checkpoint
+            WHERE job_name = ? AND run_key = ?
+            """,
+            UUID.class,
+            jobName,
+            runKey));
+  }
+
+  public void markCompleted(String jobName, String runKey, UUID tenantId) {
+    jdbcTemplate.update(
+        """
+        INSERT INTO public.scheduled_job_tenant_checkpoint (job_name, run_key, tenant_id)
+        VALUES (?, ?, ?)
+        ON CONFLICT DO NOTHING
+        """,
+        jobName,
+        runKey,
+        tenantId);
+  }
+
+  /** Deletes checkpoints completed before the cutoff; returns the number removed. */
+  public int purgeCheckpointsBefore(Instant cutoff) {
+    return jdbcTemplate.update(
+        "DELETE FROM public.scheduled_job_tenant_checkpoint WHERE completed_at < ?",
+        Timestamp.from(cutoff));
+  }
+}
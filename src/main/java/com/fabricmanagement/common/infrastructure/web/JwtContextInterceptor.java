@@ -1,7 +1,9 @@
 package com.fabricmanagement.common.infrastructure.web;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.security.JwtAuthenticationFilter;
 import com.fabricmanagement.common.infrastructure.security.JwtTokenExtractor;
+import com.fabricmanagement.common.infrastructure.security.VerifiedTokenCache;
 import com.fabricmanagement.common.infrastructure.tenant.TenantQueryPort;
 import com.fabricmanagement.common.infrastructure.tenant.TrialLifecyclePort;
 import com.fabricmanagement.platform.auth.app.JwtService;
@@ -36,8 +38,9 @@ import org.springframework.web.servlet.HandlerInterceptor;
  *
  * <ol>
  *   <li>Extracts JWT token from Authorization header
- *   <li>Validates token using JwtService
- *   <li>Extracts tenantId and userId from token claims
+ *   <li>Takes the verified claims left by {@link JwtAuthenticationFilter}, or verifies the token
+ *       through {@link VerifiedTokenCache} when the filter did not run
+ *   <li>Extracts tenantId, userId and tenant UID from those claims
  *   <li>Sets TenantContext for the request thread
  *   <li>Clears TenantContext after request completion
  * </ol>
@@ -58,7 +61,7 @@ public class JwtContextInterceptor implements HandlerInterceptor {
   private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
   private static final String[] OPTIONAL_TENANT_PATHS = {"/api/v1/common/company-types/**"};
 
-  private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokenCache;
   private final TenantQueryPort tenantQueryPort;
   private final Optional<TrialLifecyclePort> trialLifecyclePort;
 
@@ -73,11 +76,11 @@ public class JwtContextInterceptor implements HandlerInterceptor {
       return true;
     }
 
-    String token = JwtTokenExtractor.extract(request);
+    VerifiedTokenCache.Entry verified = verifiedToken(request);
 
-    if (token != null && jwtService.validateToken(token)) {
+    if (verified != null) {
       try {
-        JwtService.AuthTokenClaims authContext = jwtService.extractAuthContext(token);
+        JwtService.AuthTokenClaims authContext = verified.claims();
         UUID userId = authContext.userId();
         UUID tenantId = authContext.tenantId();
         if (userId == null || tenantId == null) {
@@ -93,25 +96,22 @@ public class JwtContextInterceptor implements HandlerInterceptor {
         }
 
         // Load tenant UID from JWT token (no DB query needed)
-        // ⚠️ Performance: JWT already contains tenant_uid claim, no need for DB query
-        try {
-          String tenantUidFromJwt = jwtService.getTenantUidFromToken(token);
-          if (tenantUidFromJwt != null) {
-            // After Faz 3: tenant_uid is stored directly, no need to extract from company UID
-            // Backward compat: Handle old tokens with Company UID format
-            String tenantUid = tenantUidFromJwt;
-            if (tenantUidFromJwt.contains("-COMP-")) {
-              String[] parts = tenantUidFromJwt.split("-COMP-");
-              tenantUid = parts[0]; // First part is tenant UID
-              log.debug(
-                  "Extracted tenant UID from legacy JWT format: {} → {}",
-                  tenantUidFromJwt,
-                  tenantUid);
-            }
-            TenantContext.setCurrentTenantUid(tenantUid);
-            log.trace("Tenant UID set from JWT: {} for tenantId={}", tenantUid, tenantId);
+        String tenantUidFromJwt = verified.tenantUid();
+        if (tenantUidFromJwt != null) {
+          // After Faz 3: tenant_uid is stored directly, no need to extract from company UID
+          // Backward compat: Handle old tokens with Company UID format
+          String tenantUid = tenantUidFromJwt;
+          if (tenantUidFromJwt.contains("-COMP-")) {
+            String[] parts = tenantUidFromJwt.split("-COMP-");
+            tenantUid = parts[0]; // First part is tenant UID
+            log.debug(
+                "Extracted tenant UID from legacy JWT format: {} → {}",
+                tenantUidFromJwt,
+                tenantUid);
           }
-        } catch (Exception e) {
+          TenantContext.setCurrentTenantUid(tenantUid);
+          log.trace("Tenant UID set from JWT: {} for tenantId={}", tenantUid, tenantId);
+        } else {
           // Fallback: Load from DB if JWT claim missing (backward compatibility)
           // Uses TenantQueryPort (BYPASSRLS) — tenant context not set yet
           log.debug("Tenant UID not in JWT, loading from Tenant table: tenantId={}", tenantId);
@@ -171,6 +171,20 @@ public class JwtContextInterceptor implements HandlerInterceptor {
     log.trace("TenantContext cleared for path: {}", request.getRequestURI());
   }
 
+  /**
+   * The request's verified token: the entry {@link JwtAuthenticationFilter} left on the request,
+   * or else the {@link VerifiedTokenCache} lookup. Null when there is no valid token.
+   */
+  @Nullable
+  private VerifiedTokenCache.Entry verifiedToken(HttpServletRequest request) {
+    if (request.getAttribute(VerifiedTokenCache.REQUEST_ATTRIBUTE)
+        instanceof VerifiedTokenCache.Entry entry) {
+      return entry;
+    }
+    String token = JwtTokenExtractor.extract(request);
+    return token == null ? null : verifiedTokenCache.verify(token).orElse(null);
+  }
+
   private boolean isOptionalTenantRequest(HttpServletRequest request) {
     if (!"GET".equalsIgnoreCase(request.getMethod())) {
       return false;
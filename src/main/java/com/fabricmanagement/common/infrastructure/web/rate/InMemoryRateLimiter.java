@@ -0,0 +1,88 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-JVM {@link RateLimiter}. Each key holds three primitives (window start, current and previous
+ * count), so a request allocates nothing once its key is known. Limits are per replica: with N
+ * replicas the effective limit is N times the configured one. Use the Postgres store when that
+ * matters.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "application.rate-limit",
+    name = "store",
+    havingValue = "memory",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryRateLimiter implements RateLimiter {
+
+  private final ConcurrentHashMap<String, Counter> counterByKey = new ConcurrentHashMap<>();
+  private final Clock clock;
+
+  @Override
+  public boolean tryAcquire(String key, int maxRequests, int windowSeconds) {
+    long windowMillis = windowSeconds * 1000L;
+    Counter counter = counterByKey.computeIfAbsent(key, k -> new Counter(windowMillis));
+    return counter.tryAcquire(clock.millis(), maxRequests);
+  }
+
+  /** Drops counters that have been idle for two full windows. */
+  @Scheduled(fixedRate = 300_000)
+  public void evictIdleCounters() {
+    long now = clock.millis();
+    int before = counterByKey.size();
+    counterByKey.values().removeIf(counter -> counter.isIdle(now));
+    int removed = before - counterByKey.size();
+    if (removed > 0) {
+      log.debug("Rate limit cleanup: evicted {} idle counters", removed);
+    }
+  }
+
+  int size() {
+    return counterByKey.size();
+  }
+
+  private static final class Counter {
+
+    private final long windowMillis;
+    private long windowStart;
+    private int currentCount;
+    private int previousCount;
+
+    private Counter(long windowMillis) {
+      this.windowMillis = windowMillis;
+    }
+
+    synchronized boolean tryAcquire(long now, int maxRequests) {
+      roll(now);
+      double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+      if (previousCount * previousWeight + currentCount >= maxRequests) {
+        return false;
+      }
+      currentCount++;
+      return true;
+    }
+
+    synchronized boolean isIdle(long now) {
+      return now - windowStart >= 2 * windowMillis;
+    }
+
+    private void roll(long now) {
+      long start = now - Math.floorMod(now, windowMillis);
+      if (start == windowStart) {
+        return;
+      }
+      previousCount = start - windowStart == windowMillis ? currentCount : 0;
+      currentCount = 0;
+      windowStart = start;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Clock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide {@link RateLimiter} backed by {@code common_infrastructure.rate_limit_window}.
+ *
+ * <p>One upsert per request increments the current window's counter and returns it together with
+ * the previous window's count. The counter is bumped before the decision, so a client that keeps
+ * calling past its limit stays blocked until it backs off. Limit keys are principal names, not
+ * tenant data, so the table lives outside RLS.
+ *
+ * <p>The upsert runs on a pool of its own ({@code rate-limit-pool}, {@code
+ * application.rate-limit.pool-size} connections per node, default 2) as the {@code fabric_app}
+ * role, so a burst of limited requests cannot starve the three-connection system pool that the
+ * notification claim and WebSocket relay depend on. The upsert is a single autocommit statement,
+ * so a connection is held for one round trip only; two connections cover several thousand checks
+ * a second. When the pool is exhausted for longer than its 250 ms connection timeout the check
+ * fails open like any other store error.
+ *
+ * <p>A node-local {@link InMemoryRateLimiter} is consulted first: this node's own count is a lower
+ * bound of the cluster-wide one, so a key it already rejects is rejected without a round trip.
+ * Only requests that pass locally reach the database.
+ *
+ * <p>Fails open: a database error is logged and the request is allowed, since the endpoint behind
+ * the limit would hit the same database anyway.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.rate-limit", name = "store", havingValue = "postgres")
+@Slf4j
+public class PostgresRateLimiter implements RateLimiter {
+
+  private static final String INCREMENT_SQL =
+      """
+      INSERT INTO common_infrastructure.rate_limit_window
+             (limit_key, window_start, request_count, expires_at)
+      VALUES (?, ?, 1, ?)
+      ON CONFLICT (limit_key, window_start)
+      DO UPDATE SET request_count = rate_limit_window.request_count + 1
+      RETURNING request_count,
+                (SELECT p.request_count
+                 FROM common_infrastructure.rate_limit_window p
+                 WHERE p.limit_key = ? AND p.window_start = ?) AS previous_count
+      """;
+
+  private final HikariDataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final Clock clock;
+  private final InMemoryRateLimiter localLimiter;
+
+  @Autowired
+  public PostgresRateLimiter(
+      DataSourceProperties dataSourceProperties,
+      Clock clock,
+      @Value("${application.rate-limit.pool-size:2}") int poolSize) {
+    this.dataSource = rateLimitPool(dataSourceProperties, poolSize);
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.clock = clock;
+    this.localLimiter = new InMemoryRateLimiter(clock);
+  }
+
+  /** Runs on a caller-supplied template; the caller owns its connections. */
+  PostgresRateLimiter(JdbcTemplate jdbcTemplate, Clock clock) {
+    this.dataSource = null;
+    this.jdbcTemplate = jdbcTemplate;
+    this.clock = clock;
+    this.localLimiter = new InMemoryRateLimiter(clock);
+  }
+
+  private static HikariDataSource rateLimitPool(DataSourceProperties properties, int poolSize) {
+    HikariDataSource ds = new HikariDataSource();
+    ds.setJdbcUrl(properties.determineUrl());
+    ds.setUsername(properties.determineUsername());
+    ds.setPassword(properties.determinePassword());
+    ds.setMaximumPoolSize(poolSize);
+    ds.setMinimumIdle(1);
+    ds.setPoolName("rate-limit-pool");
+    ds.setConnectionTimeout(250);
+    ds.setIdleTimeout(300_000);
+    ds.setMaxLifetime(900_000);
+    return ds;
+  }
+
+  @Override
+  public boolean tryAcquire(String key, int maxRequests, int windowSeconds) {
+    if (!localLimiter.tryAcquire(key, maxRequests, windowSeconds)) {
+      return false;
+    }
+    long windowMillis = windowSeconds * 1000L;
+    long now = clock.millis();
+    long start = now - Math.floorMod(now, windowMillis);
+    Timestamp windowStart = new Timestamp(start);
+    try {
+      Double estimated =
+          jdbcTemplate.queryForObject(
+              INCREMENT_SQL,
+              (rs, rowNum) -> {
+                double previousWeight = 1.0 - (double) (now - start) / windowMillis;
+                return rs.getInt("previous_count") * previousWeight + rs.getInt("request_count");
+              },
+              key,
+              windowStart,
+              new Timestamp(start + 2 * windowMillis),
+              key,
+              new Timestamp(start - windowMillis));
+      // The upsert already counted this request.
+      return estimated == null || estimated <= maxRequests;
+    } catch (RuntimeException e) {
+      log.warn("Rate limit store unavailable, allowing request: key={}", key, e);
+      return true;
+    }
+  }
+
+  /** Deletes windows that can no longer contribute to any sliding window. */
+  @Scheduled(fixedRate = 300_000)
+  public void purgeExpiredWindows() {
+    localLimiter.evictIdleCounters();
+    int removed =
+        jdbcTemplate.update(
+            "DELETE FROM common_infrastructure.rate_limit_window WHERE expires_at < now()");
+    if (removed > 0) {
+      log.debug("Rate limit cleanup: purged {} expired windows", removed);
+    }
+  }
+
+  @PreDestroy
+  void closePool() {
+    if (dataSource != null) {
+      dataSource.close();
+    }
+  }
+}
@@ -1,14 +1,11 @@
 package com.fabricmanagement.common.infrastructure.web.rate;
 
 import com.fabricmanagement.common.infrastructure.web.exception.TooManyRequestsException;
-import java.time.Instant;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -17,72 +14,39 @@ import org.springframework.stereotype.Component;
  * Aspect that enforces {@link RateLimited} on controller methods.
  *
  * <p>Uses per-principal (user) key. Unauthenticated requests are not rate-limited (handled by
- * auth). Throws {@link TooManyRequestsException} when limit exceeded (mapped to 429).
+ * auth). Throws {@link TooManyRequestsException} when limit exceeded (mapped to 429). Counting is
+ * delegated to the configured {@link RateLimiter}; endpoints with the same window share one budget
+ * per principal.
  */
 @Aspect
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class RateLimitAspect {
 
-  private static final class Window {
-    final Object lock = new Object();
-    final CopyOnWriteArrayList<Instant> timestamps = new CopyOnWriteArrayList<>();
-  }
-
-  private final ConcurrentHashMap<String, Window> windowByKey = new ConcurrentHashMap<>();
+  private final RateLimiter rateLimiter;
 
   @Around("@annotation(rateLimited)")
   public Object enforce(ProceedingJoinPoint joinPoint, RateLimited rateLimited) throws Throwable {
-    String key = rateLimitKey();
+    String key = rateLimitKey(rateLimited.windowSeconds());
     if (key == null) {
       return joinPoint.proceed();
     }
 
-    int maxRequests = rateLimited.requests();
-    int windowSeconds = rateLimited.windowSeconds();
-    Instant since = Instant.now().minusSeconds(windowSeconds);
-
-    Window window = windowByKey.computeIfAbsent(key, k -> new Window());
-
-    synchronized (window.lock) {
-      window.timestamps.removeIf(t -> t.isBefore(since));
-      if (window.timestamps.size() >= maxRequests) {
-        log.warn("Rate limit exceeded: key={}, requests={}", key, window.timestamps.size());
-        throw new TooManyRequestsException("Too many requests. Try again later.");
-      }
-      window.timestamps.add(Instant.now());
+    if (!rateLimiter.tryAcquire(key, rateLimited.requests(), rateLimited.windowSeconds())) {
+      log.warn("Rate limit exceeded: key={}, limit={}", key, rateLimited.requests());
+      throw new TooManyRequestsException("Too many requests. Try again later.");
     }
 
     return joinPoint.proceed();
   }
 
-  private static String rateLimitKey() {
+  private static String rateLimitKey(int windowSeconds) {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     if (auth == null || !auth.isAuthenticated() || auth.getPrincipal() == null) {
       return null;
     }
     String name = auth.getName();
-    return "rate:" + (name != null ? name : "anonymous");
-  }
-
-  @Scheduled(fixedRate = 300_000)
-  public void evictStaleEntries() {
-    Instant threshold = Instant.now().minusSeconds(300);
-    int removed =
-        (int)
-            windowByKey.entrySet().stream()
-                .filter(
-                    entry -> {
-                      Window w = entry.getValue();
-                      synchronized (w.lock) {
-                        w.timestamps.removeIf(t -> t.isBefore(threshold));
-                        return w.timestamps.isEmpty();
-                      }
-                    })
-                .peek(entry -> windowByKey.remove(entry.getKey()))
-                .count();
-    if (removed > 0) {
-      log.debug("Rate limit cleanup: evicted {} stale entries", removed);
-    }
+    return "rate:" + (name != null ? name : "anonymous") + ":" + windowSeconds;
   }
 }
@@ -0,0 +1,21 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+/**
+ * Engine behind {@link RateLimitAspect}.
+ *
+ * <p>Implementations use a sliding-window counter: the count of the current fixed window plus the
+ * previous window's count weighted by how much of it still overlaps the sliding window. Selected
+ * with {@code application.rate-limit.store} ({@code memory} or {@code postgres}).
+ */
+public interface RateLimiter {
+
+  /**
+   * Records a request for {@code key} if it fits the limit.
+   *
+   * @param key limit key (principal plus window)
+   * @param maxRequests max requests allowed in any {@code windowSeconds} span
+   * @param windowSeconds window length in seconds
+   * @return {@code true} if the request is allowed, {@code false} if the limit is exhausted
+   */
+  boolean tryAcquire(String key, int maxRequests, int windowSeconds);
+}
@@ -0,0 +1,41 @@
+package com.fabricmanagement.common.infrastructure.websocket;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node {@link WebSocketRelay}: hands messages straight to this node's broker. Fine for one
+ * replica and for tests; with more replicas use the Postgres relay.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "application.websocket",
+    name = "relay",
+    havingValue = "in-process",
+    matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessWebSocketRelay implements WebSocketRelay {
+
+  private final SimpMessagingTemplate messagingTemplate;
+
+  @Override
+  public void sendToUser(String user, String destination, Object payload) {
+    messagingTemplate.convertAndSendToUser(user, destination, payload);
+  }
+
+  @Override
+  public void send(String destination, Object payload) {
+    messagingTemplate.convertAndSend(destination, payload);
+  }
+
+  /** Delivers to this node's sessions; {@code user} null means a plain destination. */
+  void deliver(String user, String destination, Object payload) {
+    if (user != null) {
+      sendToUser(user, destination, payload);
+    } else {
+      send(destination, payload);
+    }
+  }
+}
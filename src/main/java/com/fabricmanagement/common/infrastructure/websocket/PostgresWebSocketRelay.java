@@ -0,0 +1,362 @@
+package com.fabricmanagement.common.infrastructure.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide {@link WebSocketRelay} over Postgres {@code LISTEN/NOTIFY}.
+ *
+ * <p>A message is delivered to this node's sessions at once and queued for the other nodes.
+ * Callers return immediately. A single flusher thread drains the bounded buffer and packs as many
+ * waiting messages as fit into one {@code NOTIFY} payload (Postgres caps it just under 8000
+ * bytes), so a burst costs a handful of notifications rather than one per message.
+ *
+ * <p>Each node holds two dedicated connections outside the Hikari pools, as {@code
+ * PermissionInvalidationListener} does: the flusher sends its {@code NOTIFY}s on one, so relaying
+ * never waits for or ties up a pooled connection, and the listener {@code LISTEN}s on the other,
+ * skips its own envelopes and delivers the rest to its local sessions. A failed {@code NOTIFY} is
+ * retried once on a fresh connection.
+ *
+ * <p>Dropped, never blocked: a full buffer, a message too large for one payload, a failed {@code
+ * NOTIFY} or a malformed envelope is logged and counted in {@code websocket.relay.dropped} by
+ * reason. {@code websocket.relay.latency} is the time from publish on one node to delivery on
+ * another.
+ */
+@Component
+@ConditionalOnProperty(prefix = "application.websocket", name = "relay", havingValue = "postgres")
+@Slf4j
+public class PostgresWebSocketRelay implements WebSocketRelay, SmartLifecycle {
+
+  static final String CHANNEL = "websocket_relay";
+
+  /** Postgres rejects {@code NOTIFY} payloads of 8000 bytes or more. */
+  private static final int NOTIFY_LIMIT_BYTES = 7_999;
+
+  private static final long RECONNECT_DELAY_MS = 5_000;
+
+  private final InProcessWebSocketRelay local;
+  private final DataSourceProperties dataSourceProperties;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+  private final BlockingQueue<Pending> buffer;
+  private final Duration flushInterval;
+  private final int pollTimeoutMs;
+
+  private final String nodeId = UUID.randomUUID().toString();
+  private final String envelopePrefix = "{\"node\":\"" + nodeId + "\",\"messages\":[";
+  private final int maxMessageBytes = NOTIFY_LIMIT_BYTES - envelopePrefix.length() - 2;
+
+  private final Counter relayedCounter;
+  private final DistributionSummary batchSummary;
+  private final Timer latencyTimer;
+
+  private volatile boolean running;
+  private volatile boolean listening;
+  private Thread flusher;
+  private Thread listener;
+
+  /** Used by the flusher thread only; opened on first use and after a failure. */
+  private Connection notifyConnection;
+
+  public PostgresWebSocketRelay(
+      SimpMessagingTemplate messagingTemplate,
+      DataSourceProperties dataSourceProperties,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${application.websocket.relay-buffer-capacity:10000}") int bufferCapacity,
+      @Value("${application.websocket.relay-flush-interval:PT0.02S}") Duration flushInterval,
+      @Value("${application.websocket.relay-poll-timeout-ms:500}") int pollTimeoutMs) {
+    this.local = new InProcessWebSocketRelay(messagingTemplate);
+    this.dataSourceProperties = dataSourceProperties;
+    this.objectMapper = objectMapper;
+    this.meterRegistry = meterRegistry;
+    this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    this.flushInterval = flushInterval;
+    this.pollTimeoutMs = pollTimeoutMs;
+
+    this.relayedCounter =
+        Counter.builder("websocket.relay.relayed")
+            .description("Messages sent to the other nodes")
+            .register(meterRegistry);
+    this.batchSummary =
+        DistributionSummary.builder("websocket.relay.batch.size")
+            .description("Messages packed into one NOTIFY payload")
+            .register(meterRegistry);
+    this.latencyTimer =
+        Timer.builder("websocket.relay.latency")
+            .description("Time from publish on one node to delivery on another")
+            .register(meterRegistry);
+    Gauge.builder("websocket.relay.buffer.depth", buffer, BlockingQueue::size)
+        .description("Messages waiting to be sent to the other nodes")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void sendToUser(String user, String destination, Object payload) {
+    local.sendToUser(user, destination, payload);
+    relay(user, destination, payload);
+  }
+
+  @Override
+  public void send(String destination, Object payload) {
+    local.send(destination, payload);
+    relay(null, destination, payload);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    flusher = Thread.ofPlatform().name("websocket-relay-flusher").daemon().start(this::flushLoop);
+    listener = Thread.ofPlatform().name("websocket-relay-listener").daemon().start(this::listen);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (flusher != null) {
+      flusher.interrupt();
+    }
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Whether the listener connection is up; messages sent to this node meanwhile are lost. */
+  boolean isListening() {
+    return listening;
+  }
+
+  private void relay(String user, String destination, Object payload) {
+    if (!running) {
+      return;
+    }
+    String json;
+    try {
+      JsonNode tree = objectMapper.valueToTree(payload);
+      json =
+          objectMapper.writeValueAsString(
+              new RelayedMessage(user, destination, tree, System.currentTimeMillis()));
+    } catch (JsonProcessingException | IllegalArgumentException e) {
+      drop("serialization", 1);
+      log.warn(
+          "WebSocket relay could not serialize message for {}: {}", destination, e.getMessage());
+      return;
+    }
+    int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+    if (bytes > maxMessageBytes) {
+      drop("oversize", 1);
+      log.warn("WebSocket relay message for {} too large to relay: {} bytes", destination, bytes);
+      return;
+    }
+    if (!buffer.offer(new Pending(json, bytes))) {
+      drop("buffer_full", 1);
+      log.warn("WebSocket relay buffer full, dropped message for {}", destination);
+    }
+  }
+
+  private void flushLoop() {
+    List<Pending> batch = new ArrayList<>();
+    try {
+      while (running) {
+        try {
+          Pending first = buffer.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+          if (first == null) {
+            continue;
+          }
+          batch.add(first);
+          buffer.drainTo(batch);
+          publish(batch);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        } finally {
+          batch.clear();
+        }
+      }
+    } finally {
+      closeNotifyConnection();
+    }
+  }
+
+  /** Packs the batch into as few payloads as the {@code NOTIFY} size limit allows. */
+  private void publish(List<Pending> batch) {
+    StringBuilder envelope = new StringBuilder(NOTIFY_LIMIT_BYTES).append(envelopePrefix);
+    int bytes = envelopePrefix.length() + 2;
+    int count = 0;
+    for (Pending message : batch) {
+      if (count > 0 && bytes + 1 + message.bytes() > NOTIFY_LIMIT_BYTES) {
+        notifyNodes(envelope.append("]}").toString(), count);
+        envelope.setLength(0);
+        envelope.append(envelopePrefix);
+        bytes = envelopePrefix.length() + 2;
+        count = 0;
+      }
+      if (count > 0) {
+        envelope.append(',');
+        bytes++;
+      }
+      envelope.append(message.json());
+      bytes += message.bytes();
+      count++;
+    }
+    if (count > 0) {
+      notifyNodes(envelope.append("]}").toString(), count);
+    }
+  }
+
+  private void notifyNodes(String payload, int count) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        if (notifyConnection == null) {
+          notifyConnection = connect();
+        }
+        try (PreparedStatement statement =
+            notifyConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+          statement.setString(1, CHANNEL);
+          statement.setString(2, payload);
+          statement.execute();
+        }
+        relayedCounter.increment(count);
+        batchSummary.record(count);
+        return;
+      } catch (SQLException e) {
+        // A connection broken since the last NOTIFY only shows up now
+        closeNotifyConnection();
+        if (attempt == 2) {
+          drop("notify_failed", count);
+          log.error("WebSocket relay failed to notify other nodes of {} message(s)", count, e);
+          return;
+        }
+      }
+    }
+  }
+
+  private void closeNotifyConnection() {
+    if (notifyConnection == null) {
+      return;
+    }
+    try {
+      notifyConnection.close();
+    } catch (SQLException e) {
+      log.debug("Closing the WebSocket relay notify connection failed: {}", e.getMessage());
+    }
+    notifyConnection = null;
+  }
+
+  private Connection connect() throws SQLException {
+    return DriverManager.getConnection(
+        dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword());
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = connect();
+          Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + CHANNEL);
+        listening = true;
+        log.info("Listening for relayed WebSocket messages: node={}", nodeId);
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              receive(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        listening = false;
+        if (!running) {
+          return;
+        }
+        log.warn("WebSocket relay listener disconnected; retrying: {}", e.getMessage());
+        try {
+          Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+    listening = false;
+  }
+
+  private void receive(String payload) {
+    Envelope envelope;
+    try {
+      envelope = objectMapper.readValue(payload, Envelope.class);
+    } catch (JsonProcessingException e) {
+      drop("malformed", 1);
+      log.warn("Ignoring malformed WebSocket relay payload: {}", e.getMessage());
+      return;
+    }
+    if (nodeId.equals(envelope.node()) || envelope.messages() == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    for (RelayedMessage message : envelope.messages()) {
+      try {
+        local.deliver(message.user(), message.destination(), message.payload());
+        latencyTimer.record(Math.max(0, now - message.publishedAt()), TimeUnit.MILLISECONDS);
+      } catch (RuntimeException e) {
+        drop("delivery_failed", 1);
+        log.warn(
+            "WebSocket relay could not deliver message for {}: {}",
+            message.destination(),
+            e.getMessage());
+      }
+    }
+  }
+
+  private void drop(String reason, int count) {
+    Counter.builder("websocket.relay.dropped")
+        .description("Messages not relayed to or not delivered from other nodes")
+        .tag("reason", reason)
+        .register(meterRegistry)
+        .increment(count);
+  }
+
+  private record Pending(String json, int bytes) {}
+
+  /** One relayed message; {@code user} null means a plain destination. */
+  record RelayedMessage(String user, String destination, JsonNode payload, long publishedAt) {}
+
+  /** What one {@code NOTIFY} carries: the publishing node and its batched messages. */
+  record Envelope(String node, List<RelayedMessage> messages) {}
+}
@@ -0,0 +1,30 @@
+package com.fabricmanagement.common.infrastructure.websocket;
+
+/**
+ * Sends STOMP messages to the sessions connected to every node, not just this one.
+ *
+ * <p>The simple broker only knows the sessions of its own JVM, so a message published on node A
+ * never reaches a user connected to node B. Implementations deliver to the local sessions and
+ * relay the message to the other nodes, which deliver it to theirs. Selected with {@code
+ * application.websocket.relay} ({@code in-process} or {@code postgres}).
+ *
+ * <p>Cross-node delivery is best effort, like the broker itself: a node that is down or
+ * reconnecting misses what was sent meanwhile. Every drop is counted in {@code
+ * websocket.relay.dropped}.
+ *
+ * <p>Cross-node messages are small: the {@code postgres} relay carries each one in a {@code NOTIFY}
+ * payload, which Postgres caps just under 8000 bytes including the envelope. A larger message still
+ * reaches this node's sessions but no other node's, and is counted as {@code oversize}. Send an
+ * identifier and let clients fetch anything bigger over REST.
+ */
+public interface WebSocketRelay {
+
+  /**
+   * Sends to every session of {@code user} (a Spring user destination, e.g. {@code
+   * /queue/notifications}).
+   */
+  void sendToUser(String user, String destination, Object payload);
+
+  /** Sends to every subscriber of {@code destination} (e.g. {@code /topic/board/{id}}). */
+  void send(String destination, Object payload);
+}
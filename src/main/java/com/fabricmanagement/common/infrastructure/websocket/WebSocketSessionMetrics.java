@@ -0,0 +1,59 @@
+package com.fabricmanagement.common.infrastructure.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * Counts this node's WebSocket sessions and the slow consumers evicted from them.
+ *
+ * <p>Each session's outbound messages go through a buffer bounded by {@code
+ * application.websocket.send-buffer-size-limit} and {@code send-time-limit}. A client that cannot
+ * keep up exceeds them and is disconnected with {@link CloseStatus#SESSION_NOT_RELIABLE}; the
+ * messages still buffered for it are lost. Those closes are counted in {@code
+ * websocket.sessions.evicted}.
+ */
+@Component
+public class WebSocketSessionMetrics implements WebSocketHandlerDecoratorFactory {
+
+  private final AtomicInteger activeSessions = new AtomicInteger();
+  private final Counter evictedCounter;
+
+  public WebSocketSessionMetrics(MeterRegistry meterRegistry) {
+    Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+        .description("WebSocket sessions connected to this node")
+        .register(meterRegistry);
+    this.evictedCounter =
+        Counter.builder("websocket.sessions.evicted")
+            .description("Sessions closed because their outbound buffer overflowed")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public WebSocketHandler decorate(WebSocketHandler handler) {
+    return new WebSocketHandlerDecorator(handler) {
+      @Override
+      public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        activeSessions.incrementAndGet();
+        super.afterConnectionEstablished(session);
+      }
+
+      @Override
+      public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus)
+          throws Exception {
+        activeSessions.decrementAndGet();
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(closeStatus)) {
+          evictedCounter.increment();
+        }
+        super.afterConnectionClosed(session, closeStatus);
+      }
+    };
+  }
+}
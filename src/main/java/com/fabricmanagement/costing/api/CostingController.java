@@ -3,12 +3,15 @@ package com.fabricmanagement.costing.api;
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.web.ApiResponse;
 import com.fabricmanagement.costing.app.CostCalculationService;
+import com.fabricmanagement.costing.app.CostCalculationService.CostTarget;
+import com.fabricmanagement.costing.app.CostSimulationService;
 import com.fabricmanagement.costing.app.PriceListService;
 import com.fabricmanagement.costing.domain.calculation.CostCalculation;
 import com.fabricmanagement.costing.domain.price.PriceList;
 import com.fabricmanagement.costing.dto.*;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +30,8 @@ import org.springframework.web.bind.annotation.*;
  *   <li>POST /api/costing/calculations/estimated — Compute ESTIMATED cost for a Quote
  *   <li>POST /api/costing/calculations/planned — Compute PLANNED cost for a WorkOrder
  *   <li>POST /api/costing/calculations/actual — Compute ACTUAL cost for a Batch
+ *   <li>POST /api/costing/calculations/recalculate — Re-cost many entities of one stage
+ *   <li>POST /api/costing/simulations — What-if costing against a draft price list or FX rates
  *   <li>POST /api/costing/price-lists — Create price list
  *   <li>GET /api/costing/price-lists — List price lists for a module
  *   <li>DELETE /api/costing/price-lists/{priceListId} — Deactivate price list
@@ -40,6 +45,7 @@ import org.springframework.web.bind.annotation.*;
 public class CostingController {
 
   private final CostCalculationService costCalculationService;
+  private final CostSimulationService costSimulationService;
   private final PriceListService priceListService;
 
   // ============================================================
@@ -97,6 +103,47 @@ public class CostingController {
         .body(ApiResponse.success(CostCalculationResponse.from(calc)));
   }
 
+  /**
+   * Re-costs many entities of one module and stage in one pass, e.g. all open work orders after a
+   * price list change.
+   */
+  @PreAuthorize("@auth.can(authentication, 'costing', 'write')")
+  @PostMapping("/calculations/recalculate")
+  public ResponseEntity<ApiResponse<CostRecalculationResponse>> recalculate(
+      @Valid @RequestBody RecalculateCostsRequest req) {
+    UUID tenantId = TenantContext.requireTenantId();
+    List<CostCalculation> calcs =
+        costCalculationService.recalculate(
+            tenantId,
+            req.moduleType(),
+            req.stage(),
+            toTargets(req.targets()),
+            req.rateDate() != null ? req.rateDate() : LocalDate.now());
+    return ResponseEntity.ok(ApiResponse.success(CostRecalculationResponse.from(calcs)));
+  }
+
+  /**
+   * What-if costing: re-costs the targets against a draft price list and/or overridden exchange
+   * rates and compares them with their active calculations. Nothing is written.
+   */
+  @PreAuthorize("@auth.can(authentication, 'costing', 'read')")
+  @PostMapping("/simulations")
+  public ResponseEntity<ApiResponse<CostSimulationResponse>> simulate(
+      @Valid @RequestBody SimulateCostsRequest req) {
+    UUID tenantId = TenantContext.requireTenantId();
+    var scenario =
+        new CostSimulationService.Scenario(
+            req.moduleType(),
+            req.entityType(),
+            req.stages(),
+            req.priceListId(),
+            req.exchangeRates(),
+            req.rateDate() != null ? req.rateDate() : LocalDate.now());
+    return ResponseEntity.ok(
+        ApiResponse.success(
+            costSimulationService.simulate(tenantId, scenario, toTargets(req.targets()))));
+  }
+
   /**
    * Full cost report for a WorkOrder: PLANNED vs ACTUAL with per-product breakdown.
    *
@@ -154,4 +201,10 @@ public class CostingController {
     priceListService.deactivatePriceList(priceListId);
     return ResponseEntity.ok(ApiResponse.success(null));
   }
+
+  private static List<CostTarget> toTargets(List<CostTargetRequest> targets) {
+    return targets.stream()
+        .map(t -> new CostTarget(t.entityId(), t.productId(), t.quantityKg(), t.tradingPartnerId()))
+        .toList();
+  }
 }
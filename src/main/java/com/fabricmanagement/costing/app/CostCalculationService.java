@@ -2,30 +2,26 @@ package com.fabricmanagement.costing.app;
 
 import com.fabricmanagement.common.domain.vo.ConvertedMoney;
 import com.fabricmanagement.common.infrastructure.events.DomainEventPublisher;
-import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
 import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
 import com.fabricmanagement.costing.app.port.TenantCostingSettingsPort;
 import com.fabricmanagement.costing.app.port.WorkOrderPlanningUpdatePort;
 import com.fabricmanagement.costing.domain.calculation.*;
 import com.fabricmanagement.costing.domain.event.CostVarianceDetectedEvent;
 import com.fabricmanagement.costing.domain.exception.CostingDomainException;
-import com.fabricmanagement.costing.domain.exception.PriceListNotFoundException;
-import com.fabricmanagement.costing.domain.item.CalculationBase;
-import com.fabricmanagement.costing.domain.item.CostItem;
-import com.fabricmanagement.costing.domain.price.PriceList;
 import com.fabricmanagement.costing.domain.price.PriceListItem;
-import com.fabricmanagement.costing.domain.template.CostTemplate;
-import com.fabricmanagement.costing.domain.template.CostTemplateItem;
 import com.fabricmanagement.costing.dto.WorkOrderCostReportResponse;
 import com.fabricmanagement.costing.infra.repository.*;
 import com.fabricmanagement.production.execution.workorder.app.port.ConsumptionCostInput;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,26 +37,25 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>Variance detection: when a new stage total deviates from the previous stage total by more than
  * the tenant-configured variance threshold (see {@link TenantCostingSettingsPort}), a {@link
  * CostVarianceDetectedEvent} is published.
+ *
+ * <p>Price list, template and cost items are compiled into a {@link CostPlan} once per call; {@link
+ * #recalculate} applies one plan to many entities.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CostCalculationService {
 
-  private final CostItemRepository costItemRepo;
-  private final CostTemplateRepository costTemplateRepo;
+  private final CostPlanCompiler costPlanCompiler;
   private final PriceListRepository priceListRepo;
-  private final PriceListItemRepository priceListItemRepo;
   private final CostCalculationRepository costCalcRepo;
   private final TenantCostingSettingsPort tenantCostingSettingsPort;
   private final DomainEventPublisher eventPublisher;
   private final Optional<WorkOrderPlanningUpdatePort> workOrderPlanningUpdatePort;
-  private final ExchangeRateService exchangeRateService;
-  private final TenantReportingCurrencyPort tenantReportingCurrencyPort;
 
-  private String getTargetCurrency(UUID tenantId) {
-    return tenantReportingCurrencyPort.getReportingCurrency(tenantId);
-  }
+  /** One entity to (re-)cost: what it is, what it produces and how much. */
+  public record CostTarget(
+      UUID entityId, UUID productId, BigDecimal quantityKg, UUID tradingPartnerId) {}
 
   // ============================================================
   // PUBLIC API
@@ -223,6 +218,86 @@ public class CostCalculationService {
         rateDate);
   }
 
+  /**
+   * Re-costs many entities of one module and stage in one pass — e.g. every open work order after
+   * a price list change.
+   *
+   * <p>The cost plan is compiled once for all targets. The active calculations being replaced and
+   * the previous-stage calculations used for variance detection are each loaded in one query, and
+   * the new calculations are written with {@code saveAll} so Hibernate batches the inserts. Each
+   * target gets exactly what the single-entity method for its stage would produce, including the
+   * planned-cost update for work orders and variance events.
+   *
+   * @param stage ESTIMATED re-costs quotes, PLANNED work orders and ACTUAL batches, as in the
+   *     single-entity methods
+   * @param targets the entities to re-cost; an entity may appear only once
+   * @return the saved calculations, in target order
+   */
+  @Transactional
+  public List<CostCalculation> recalculate(
+      UUID tenantId,
+      String moduleType,
+      CostStage stage,
+      List<CostTarget> targets,
+      LocalDate rateDate) {
+    if (targets.isEmpty()) {
+      return List.of();
+    }
+    Set<UUID> entityIds = new HashSet<>();
+    for (CostTarget target : targets) {
+      if (!entityIds.add(target.entityId())) {
+        throw new CostingDomainException(
+            "Entity " + target.entityId() + " appears more than once in the recalculation");
+      }
+    }
+    CostEntityType entityType = entityTypeOf(stage);
+
+    CostPlan plan = costPlanCompiler.compile(tenantId, moduleType, rateDate);
+
+    // Soft-delete the calculations being replaced, as compute() does one at a time
+    List<CostCalculation> replaced =
+        costCalcRepo.findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(
+            tenantId, entityType, stage, entityIds);
+    replaced.forEach(CostCalculation::delete);
+    costCalcRepo.saveAll(replaced);
+
+    List<CostCalculation> saved =
+        costCalcRepo.saveAll(
+            targets.stream().map(t -> plan.evaluate(entityType, stage, t, null)).toList());
+    log.info(
+        "CostCalculations recalculated: entityType={} stage={} count={} replaced={}",
+        entityType,
+        stage,
+        saved.size(),
+        replaced.size());
+
+    if (stage == CostStage.PLANNED) {
+      workOrderPlanningUpdatePort.ifPresent(
+          port ->
+              saved.forEach(
+                  calc ->
+                      port.updatePlannedCost(
+                          tenantId, calc.getEntityId(), calc.getTotalCost(), calc.getCurrency())));
+    }
+
+    CostStage previousStage = previousStageOf(stage);
+    if (previousStage != null) {
+      Map<UUID, CostCalculation> previousByEntity =
+          costCalcRepo
+              .findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(
+                  tenantId, entityType, previousStage, entityIds)
+              .stream()
+              .collect(Collectors.toMap(CostCalculation::getEntityId, Function.identity()));
+      for (CostCalculation current : saved) {
+        CostCalculation previous = previousByEntity.get(current.getEntityId());
+        if (current.isComplete() && previous != null) {
+          publishVarianceIfExceeded(tenantId, current, previous, previousStage);
+        }
+      }
+    }
+    return saved;
+  }
+
   /**
    * Sprint 6: Compute ACTUAL cost for a WorkOrder using per-consumption product prices.
    *
@@ -282,233 +357,31 @@ public class CostCalculationService {
               costCalcRepo.save(existing);
             });
 
-    // PriceList per moduleType — single DB query per unique moduleType (Cache)
-    Map<String, Optional<PriceList>> priceListCache =
+    // 2. Compile the output module's plan (LABOR, OVERHEAD, etc. and the template itself)
+    CostPlan plan = costPlanCompiler.compile(tenantId, outputModuleType, rateDate);
+
+    // PriceList per moduleType — loaded once per unique moduleType (Cache)
+    Map<String, Optional<PriceIndex>> consumptionPrices =
         consumptions.stream()
             .map(c -> c.moduleType().name())
             .distinct()
             .collect(
                 Collectors.toMap(
-                    mt -> mt, mt -> priceListRepo.findActiveForModule(tenantId, mt, rateDate)));
-
-    // 2. Resolve PriceList and Template for the output module (used for LABOR, OVERHEAD, etc.)
-    PriceList outputPriceList =
-        priceListRepo
-            .findActiveForModule(tenantId, outputModuleType, rateDate)
-            .orElseThrow(() -> new PriceListNotFoundException(outputModuleType));
-
-    CostTemplate template =
-        costTemplateRepo
-            .findDefault(tenantId, outputModuleType)
-            .orElseThrow(
-                () ->
-                    new CostingDomainException(
-                        "No default cost template for module: " + outputModuleType));
-
-    String targetCurrency = getTargetCurrency(tenantId);
-
-    // 3. Create calculation shell
+                    mt -> mt,
+                    mt ->
+                        priceListRepo
+                            .findActiveForModule(tenantId, mt, rateDate)
+                            .map(pl -> costPlanCompiler.priceIndex(pl.getId()))));
+
+    // 3. Evaluate — RAW_PRODUCT gets one line per consumption record
+    CostTarget output =
+        new CostTarget(workOrderId, outputProductId, actualOutputQty, tradingPartnerId);
     CostCalculation calc =
-        CostCalculation.create(
-            tenantId,
+        plan.evaluate(
             CostEntityType.WORK_ORDER,
-            workOrderId,
-            outputModuleType,
             CostStage.ACTUAL,
-            targetCurrency);
-    calc.setCostTemplateId(template.getId());
-
-    List<CostItem> relevantItems = costItemRepo.findActiveForModule(outputModuleType);
-
-    // Pass 1: Quantity-based (PER_KG, PER_HOUR, PER_UNIT) and FIXED items
-    for (CostTemplateItem templateItem : template.getItems()) {
-      if (!templateItem.isIncluded()) continue;
-
-      Optional<CostItem> costItemOpt =
-          relevantItems.stream()
-              .filter(ci -> ci.getCode().equals(templateItem.costItemCode()))
-              .findFirst();
-      if (costItemOpt.isEmpty()) {
-        log.warn("CostItem '{}' in template not found — skipping", templateItem.costItemCode());
-        calc.recordMissing(templateItem.costItemCode(), null, "CostItem not found for module");
-        continue;
-      }
-      CostItem costItem = costItemOpt.get();
-
-      if (costItem.getCalculationBase() == CalculationBase.PERCENTAGE) {
-        continue; // Processed in Pass 2
-      }
-
-      if ("RAW_PRODUCT".equals(costItem.getCode())) {
-        // ── Multi-product path: one line per consumption record ──
-        for (ConsumptionCostInput consumption : consumptions) {
-
-          PriceList consumptionPriceList =
-              priceListCache
-                  .getOrDefault(consumption.moduleType().name(), Optional.empty())
-                  .orElse(null);
-
-          if (consumptionPriceList == null) {
-            log.warn(
-                "No active price list for module '{}' — raw product cost skipped for productId {}",
-                consumption.moduleType().name(),
-                consumption.productId());
-            calc.recordMissing(
-                "RAW_PRODUCT",
-                consumption.productId(),
-                "No active price list for module " + consumption.moduleType().name());
-            continue;
-          }
-
-          Optional<PriceListItem> priceItemOpt =
-              priceListItemRepo.findBest(
-                  consumptionPriceList.getId(),
-                  "RAW_PRODUCT",
-                  consumption.productId(),
-                  tradingPartnerId);
-          if (priceItemOpt.isEmpty()) {
-            log.debug(
-                "No RAW_PRODUCT price for productId {} — skipping line", consumption.productId());
-            calc.recordMissing(
-                "RAW_PRODUCT", consumption.productId(), "No RAW_PRODUCT price for product");
-            continue;
-          }
-
-          PriceListItem priceItem = priceItemOpt.get();
-          BigDecimal unitPrice = priceItem.resolveUnitPrice(consumption.consumedWeight());
-          BigDecimal lineTotal =
-              unitPrice
-                  .multiply(consumption.consumedWeight())
-                  .setScale(4, java.math.RoundingMode.HALF_UP);
-
-          CostCalculationLine line = new CostCalculationLine();
-          line.setTenantId(tenantId);
-          line.setCostItemCode("RAW_PRODUCT");
-          line.setQty(consumption.consumedWeight());
-          line.setUnit(consumption.unit());
-          line.setUnitPrice(unitPrice);
-          line.setCurrency(priceItem.getCurrency());
-          line.setVolumeDiscountApplied(!unitPrice.equals(priceItem.getUnitPrice()));
-          line.setProductId(consumption.productId());
-
-          ConvertedMoney convertedTotal =
-              exchangeRateService.convert(
-                  lineTotal, priceItem.getCurrency(), targetCurrency, rateDate);
-          line.setConvertedTotal(convertedTotal);
-          line.setTotalInBaseCurrency(convertedTotal.getConvertedAmount());
-
-          calc.addLine(line);
-        }
-      } else {
-        // ── Standard path: output product + output qty (LABOR, MACHINE, OVERHEAD vb.) ──
-        Optional<PriceListItem> priceItemOpt =
-            priceListItemRepo.findBest(
-                outputPriceList.getId(), costItem.getCode(), outputProductId, tradingPartnerId);
-        if (priceItemOpt.isEmpty()) {
-          log.debug("No price for '{}' in output price list — skipping", costItem.getCode());
-          calc.recordMissing(costItem.getCode(), null, "No price found in price list");
-          continue;
-        }
-
-        PriceListItem priceItem = priceItemOpt.get();
-        BigDecimal effectiveUnitPrice = priceItem.resolveUnitPrice(actualOutputQty);
-        boolean volumeDiscountApplied = !effectiveUnitPrice.equals(priceItem.getUnitPrice());
-
-        // For Pass 1 items, currentTotal is irrelevant except as a dummy.
-        BigDecimal lineTotal =
-            computeLineTotal(
-                costItem,
-                effectiveUnitPrice,
-                actualOutputQty,
-                templateItem.weight(),
-                BigDecimal.ZERO);
-
-        String unit =
-            switch (costItem.getCalculationBase()) {
-              case PER_KG -> "KG";
-              case PER_HOUR -> "HOUR";
-              case PER_UNIT -> "UNIT";
-              case PERCENTAGE, FIXED -> null;
-            };
-
-        CostCalculationLine line = new CostCalculationLine();
-        line.setTenantId(tenantId);
-        line.setCostItemCode(costItem.getCode());
-        line.setQty(actualOutputQty);
-        line.setUnit(unit);
-        line.setUnitPrice(effectiveUnitPrice);
-        line.setCurrency(priceItem.getCurrency());
-        line.setVolumeDiscountApplied(volumeDiscountApplied);
-
-        // PERCENTAGE/FIXED: lineTotal derived from running total (already targetCurrency)
-        ConvertedMoney convertedTotal;
-        if (costItem.getCalculationBase() == CalculationBase.FIXED) {
-          convertedTotal = ConvertedMoney.sameUnit(lineTotal, targetCurrency);
-        } else {
-          convertedTotal =
-              exchangeRateService.convert(
-                  lineTotal, priceItem.getCurrency(), targetCurrency, rateDate);
-        }
-        line.setConvertedTotal(convertedTotal);
-        line.setTotalInBaseCurrency(convertedTotal.getConvertedAmount());
-
-        calc.addLine(line);
-      }
-    }
-
-    // Pass 2: PERCENTAGE items
-    BigDecimal pass1Total = calc.getTotalCost(); // Deterministic base for percentages
-
-    for (CostTemplateItem templateItem : template.getItems()) {
-      if (!templateItem.isIncluded()) continue;
-
-      Optional<CostItem> costItemOpt =
-          relevantItems.stream()
-              .filter(ci -> ci.getCode().equals(templateItem.costItemCode()))
-              .findFirst();
-      if (costItemOpt.isEmpty()) continue; // Already logged in Pass 1
-
-      CostItem costItem = costItemOpt.get();
-      if (costItem.getCalculationBase() != CalculationBase.PERCENTAGE) {
-        continue; // Handled in Pass 1
-      }
-
-      // Percentage items only apply to the standard path (never RAW_PRODUCT blending)
-      Optional<PriceListItem> priceItemOpt =
-          priceListItemRepo.findBest(
-              outputPriceList.getId(), costItem.getCode(), outputProductId, tradingPartnerId);
-      if (priceItemOpt.isEmpty()) {
-        log.debug(
-            "No percentage rate for '{}' in output price list — skipping", costItem.getCode());
-        calc.recordMissing(costItem.getCode(), null, "No price found in price list");
-        continue;
-      }
-
-      PriceListItem priceItem = priceItemOpt.get();
-      BigDecimal effectiveUnitPrice = priceItem.resolveUnitPrice(actualOutputQty);
-      boolean volumeDiscountApplied = !effectiveUnitPrice.equals(priceItem.getUnitPrice());
-
-      // Line total uses pass1Total as its base
-      BigDecimal lineTotal =
-          computeLineTotal(
-              costItem, effectiveUnitPrice, actualOutputQty, templateItem.weight(), pass1Total);
-
-      CostCalculationLine line = new CostCalculationLine();
-      line.setTenantId(tenantId);
-      line.setCostItemCode(costItem.getCode());
-      line.setQty(actualOutputQty);
-      line.setUnit(null);
-      line.setUnitPrice(effectiveUnitPrice);
-      line.setCurrency(priceItem.getCurrency());
-      line.setVolumeDiscountApplied(volumeDiscountApplied);
-
-      // PERCENTAGE is already in targetCurrency because it was calculated from pass1Total
-      ConvertedMoney convertedTotal = ConvertedMoney.sameUnit(lineTotal, targetCurrency);
-      line.setConvertedTotal(convertedTotal);
-      line.setTotalInBaseCurrency(convertedTotal.getConvertedAmount());
-
-      calc.addLine(line);
-    }
+            output,
+            c -> addRawProductLines(c, plan, consumptions, consumptionPrices, tradingPartnerId));
 
     var saved = costCalcRepo.save(calc);
     log.info(
@@ -574,213 +447,90 @@ public class CostCalculationService {
               costCalcRepo.save(existing);
             });
 
-    // 2. Resolve price list
-    PriceList priceList =
-        priceListRepo
-            .findActiveForModule(tenantId, moduleType, rateDate)
-            .orElseThrow(() -> new PriceListNotFoundException(moduleType));
-
-    // 3. Resolve cost template
-    CostTemplate template =
-        costTemplateRepo
-            .findDefault(tenantId, moduleType)
-            .orElseThrow(
-                () ->
-                    new CostingDomainException(
-                        "No default cost template configured for module: "
-                            + moduleType
-                            + " (tenantId="
-                            + tenantId
-                            + ")"));
-
-    String targetCurrency = getTargetCurrency(tenantId);
-
-    // 4. Build calculation
-    var calc =
-        CostCalculation.create(tenantId, entityType, entityId, moduleType, stage, targetCurrency);
-    calc.setCostTemplateId(template.getId());
-
-    List<CostItem> relevantItems = costItemRepo.findActiveForModule(moduleType);
-
-    // Pass 1: Quantity-based (PER_KG, PER_HOUR, PER_UNIT) and FIXED items
-    for (CostTemplateItem templateItem : template.getItems()) {
-      if (!templateItem.isIncluded()) continue;
-
-      Optional<CostItem> costItemOpt =
-          relevantItems.stream()
-              .filter(ci -> ci.getCode().equals(templateItem.costItemCode()))
-              .findFirst();
-      if (costItemOpt.isEmpty()) {
-        log.warn("CostItem '{}' in template not found — skipping", templateItem.costItemCode());
-        calc.recordMissing(templateItem.costItemCode(), null, "CostItem not found for module");
-        continue;
-      }
-
-      CostItem costItem = costItemOpt.get();
-      if (costItem.getCalculationBase() == CalculationBase.PERCENTAGE) {
-        continue; // Processed in Pass 2
-      }
+    // 2. Compile price list, cost template and cost items into a plan
+    CostPlan plan = costPlanCompiler.compile(tenantId, moduleType, rateDate);
 
-      Optional<PriceListItem> priceItemOpt =
-          priceListItemRepo.findBest(
-              priceList.getId(), costItem.getCode(), productId, tradingPartnerId);
-
-      if (priceItemOpt.isEmpty()) {
-        log.debug(
-            "No price found for cost item '{}' in price list {} — skipping",
-            costItem.getCode(),
-            priceList.getId());
-        calc.recordMissing(costItem.getCode(), null, "No price found in price list");
-        continue;
-      }
-
-      PriceListItem priceItem = priceItemOpt.get();
-      BigDecimal effectiveUnitPrice = priceItem.resolveUnitPrice(quantityKg);
-      boolean volumeDiscountApplied = !effectiveUnitPrice.equals(priceItem.getUnitPrice());
-
-      // Calculate line total. For Pass 1 items, currentTotal is irrelevant except as a dummy.
-      BigDecimal lineTotal =
-          computeLineTotal(
-              costItem, effectiveUnitPrice, quantityKg, templateItem.weight(), BigDecimal.ZERO);
-
-      // Unit is derived from CalculationBase — not hardcoded
-      String unit =
-          switch (costItem.getCalculationBase()) {
-            case PER_KG -> "KG";
-            case PER_HOUR -> "HOUR";
-            case PER_UNIT -> "UNIT";
-            // PERCENTAGE and FIXED lines have no meaningful quantity unit
-            case PERCENTAGE, FIXED -> null;
-          };
-
-      CostCalculationLine line = new CostCalculationLine();
-      line.setTenantId(tenantId);
-      line.setCostItemCode(costItem.getCode());
-      line.setQty(quantityKg);
-      line.setUnit(unit);
-      line.setUnitPrice(effectiveUnitPrice);
-      line.setCurrency(priceItem.getCurrency());
-      line.setVolumeDiscountApplied(volumeDiscountApplied);
-
-      ConvertedMoney convertedTotal;
-      if (costItem.getCalculationBase() == CalculationBase.FIXED) {
-        convertedTotal = ConvertedMoney.sameUnit(lineTotal, targetCurrency);
-      } else {
-        convertedTotal =
-            exchangeRateService.convert(
-                lineTotal, priceItem.getCurrency(), targetCurrency, rateDate);
-      }
-      line.setConvertedTotal(convertedTotal);
-      line.setTotalInBaseCurrency(convertedTotal.getConvertedAmount());
-
-      calc.addLine(line);
-    }
+    // 3. Build calculation
+    CostCalculation calc =
+        plan.evaluate(
+            entityType,
+            stage,
+            new CostTarget(entityId, productId, quantityKg, tradingPartnerId),
+            null);
 
-    // Pass 2: PERCENTAGE items
-    BigDecimal pass1Total = calc.getTotalCost(); // Deterministic base for percentages
+    var saved = costCalcRepo.save(calc);
+    log.info(
+        "CostCalculation saved: entityType={} entityId={} stage={} totalCost={}",
+        entityType,
+        entityId,
+        stage,
+        saved.getTotalCost());
 
-    for (CostTemplateItem templateItem : template.getItems()) {
-      if (!templateItem.isIncluded()) continue;
+    // 4. Variance detection
+    detectAndPublishVariance(tenantId, saved, entityType, entityId);
 
-      Optional<CostItem> costItemOpt =
-          relevantItems.stream()
-              .filter(ci -> ci.getCode().equals(templateItem.costItemCode()))
-              .findFirst();
-      if (costItemOpt.isEmpty()) continue; // Already logged in Pass 1
+    return saved;
+  }
 
-      CostItem costItem = costItemOpt.get();
-      if (costItem.getCalculationBase() != CalculationBase.PERCENTAGE) {
-        continue; // Handled in Pass 1
+  /**
+   * Sprint 6 blending: one RAW_PRODUCT line per consumption, priced from the price list of the
+   * consumed product's module rather than the output module's.
+   */
+  private void addRawProductLines(
+      CostCalculation calc,
+      CostPlan plan,
+      List<ConsumptionCostInput> consumptions,
+      Map<String, Optional<PriceIndex>> consumptionPrices,
+      UUID tradingPartnerId) {
+    for (ConsumptionCostInput consumption : consumptions) {
+      PriceIndex consumptionPriceList =
+          consumptionPrices
+              .getOrDefault(consumption.moduleType().name(), Optional.empty())
+              .orElse(null);
+
+      if (consumptionPriceList == null) {
+        log.warn(
+            "No active price list for module '{}' — raw product cost skipped for productId {}",
+            consumption.moduleType().name(),
+            consumption.productId());
+        calc.recordMissing(
+            CostPlan.RAW_PRODUCT,
+            consumption.productId(),
+            "No active price list for module " + consumption.moduleType().name());
+        continue;
       }
 
       Optional<PriceListItem> priceItemOpt =
-          priceListItemRepo.findBest(
-              priceList.getId(), costItem.getCode(), productId, tradingPartnerId);
-
+          consumptionPriceList.findBest(
+              CostPlan.RAW_PRODUCT, consumption.productId(), tradingPartnerId);
       if (priceItemOpt.isEmpty()) {
-        log.debug(
-            "No percentage rate found for cost item '{}' in price list {} — skipping",
-            costItem.getCode(),
-            priceList.getId());
-        calc.recordMissing(costItem.getCode(), null, "No price found in price list");
+        log.debug("No RAW_PRODUCT price for productId {} — skipping line", consumption.productId());
+        calc.recordMissing(
+            CostPlan.RAW_PRODUCT, consumption.productId(), "No RAW_PRODUCT price for product");
         continue;
       }
 
       PriceListItem priceItem = priceItemOpt.get();
-      BigDecimal effectiveUnitPrice = priceItem.resolveUnitPrice(quantityKg);
-      boolean volumeDiscountApplied = !effectiveUnitPrice.equals(priceItem.getUnitPrice());
-
-      // Line total uses pass1Total as its base
+      BigDecimal unitPrice = priceItem.resolveUnitPrice(consumption.consumedWeight());
       BigDecimal lineTotal =
-          computeLineTotal(
-              costItem, effectiveUnitPrice, quantityKg, templateItem.weight(), pass1Total);
+          unitPrice.multiply(consumption.consumedWeight()).setScale(4, RoundingMode.HALF_UP);
 
       CostCalculationLine line = new CostCalculationLine();
-      line.setTenantId(tenantId);
-      line.setCostItemCode(costItem.getCode());
-      line.setQty(quantityKg);
-      line.setUnit(null);
-      line.setUnitPrice(effectiveUnitPrice);
+      line.setTenantId(calc.getTenantId());
+      line.setCostItemCode(CostPlan.RAW_PRODUCT);
+      line.setQty(consumption.consumedWeight());
+      line.setUnit(consumption.unit());
+      line.setUnitPrice(unitPrice);
       line.setCurrency(priceItem.getCurrency());
-      line.setVolumeDiscountApplied(volumeDiscountApplied);
+      line.setVolumeDiscountApplied(!unitPrice.equals(priceItem.getUnitPrice()));
+      line.setProductId(consumption.productId());
 
-      // PERCENTAGE is already in targetCurrency because it was calculated from pass1Total
-      ConvertedMoney convertedTotal = ConvertedMoney.sameUnit(lineTotal, targetCurrency);
+      ConvertedMoney convertedTotal = plan.convert(lineTotal, priceItem.getCurrency());
       line.setConvertedTotal(convertedTotal);
       line.setTotalInBaseCurrency(convertedTotal.getConvertedAmount());
 
       calc.addLine(line);
     }
-
-    var saved = costCalcRepo.save(calc);
-    log.info(
-        "CostCalculation saved: entityType={} entityId={} stage={} totalCost={}",
-        entityType,
-        entityId,
-        stage,
-        saved.getTotalCost());
-
-    // 5. Variance detection
-    detectAndPublishVariance(tenantId, saved, entityType, entityId);
-
-    return saved;
-  }
-
-  /**
-   * Two-pass computation:
-   *
-   * <ol>
-   *   <li>Pass 1 — quantity-based (PER_KG, PER_HOUR, PER_UNIT) and FIXED items
-   *   <li>Pass 2 — PERCENTAGE items; base = sum of all pass-1 line totals
-   * </ol>
-   *
-   * <p>The percentage base <b>includes fixed costs</b> — i.e. overhead is computed on top of both
-   * variable and fixed production costs. This is an intentional business decision: a 12% overhead
-   * on a 1000 TRY batch includes the 50 TRY packaging (FIXED) in its base.
-   *
-   * <p>PERCENTAGE-on-PERCENTAGE is not supported. All PERCENTAGE items compute against the same
-   * deterministic base (pass-1 total), making the result independent of template item order.
-   */
-  private BigDecimal computeLineTotal(
-      CostItem item,
-      BigDecimal unitPrice,
-      BigDecimal quantity,
-      BigDecimal templateWeight,
-      BigDecimal currentTotal) {
-    return switch (item.getCalculationBase()) {
-      case PER_KG, PER_HOUR, PER_UNIT -> {
-        BigDecimal base = unitPrice.multiply(quantity);
-        yield templateWeight != null
-            ? base.multiply(templateWeight).setScale(4, RoundingMode.HALF_UP)
-            : base.setScale(4, RoundingMode.HALF_UP);
-      }
-      case PERCENTAGE -> {
-        // Percentage = rate × current running total (overhead applied to what came before)
-        BigDecimal rate = templateWeight != null ? templateWeight : unitPrice;
-        yield currentTotal.multiply(rate).setScale(4, RoundingMode.HALF_UP);
-      }
-      case FIXED -> unitPrice.setScale(4, RoundingMode.HALF_UP);
-    };
   }
 
   private void detectAndPublishVariance(
@@ -798,50 +548,63 @@ public class CostCalculationService {
     costCalcRepo
         .findActiveByEntityTypeAndEntityIdAndStage(entityType, entityId, previousStage)
         .ifPresent(
-            previous -> {
-              // R1: Previous stage also must be complete
-              if (!previous.isComplete()) {
-                log.info("Variance skip: previous stage is incomplete (entityId={})", entityId);
-                return;
-              }
-
-              // Guard: comparing costs in different currencies is meaningless
-              if (!current.getCurrency().equals(previous.getCurrency())) {
-                log.warn(
-                    "Variance skip: currency mismatch {} vs {} for entityId={}",
-                    current.getCurrency(),
-                    previous.getCurrency(),
-                    entityId);
-                return;
-              }
-
-              BigDecimal threshold = tenantCostingSettingsPort.getVarianceThreshold(tenantId);
-              BigDecimal ratioSigned = current.varianceRatioVs(previous.getTotalCost());
-              BigDecimal ratioAbs = ratioSigned.abs();
-              if (ratioAbs.compareTo(threshold) > 0) {
-                var event =
-                    CostVarianceDetectedEvent.builder()
-                        .tenantId(tenantId)
-                        .costCalculationId(current.getId())
-                        .entityType(entityType)
-                        .entityId(entityId)
-                        .currentStage(current.getStage())
-                        .previousStage(previousStage)
-                        .previousTotal(previous.getTotalCost())
-                        .currentTotal(current.getTotalCost())
-                        .varianceRatio(ratioSigned) // signed: + overrun, - saving
-                        .currency(current.getCurrency())
-                        .build();
-                eventPublisher.publish(event);
-                log.warn(
-                    "CostVarianceDetected: entityType={} entityId={} ratio={} ({} → {})",
-                    entityType,
-                    entityId,
-                    ratioAbs,
-                    previous.getTotalCost(),
-                    current.getTotalCost());
-              }
-            });
+            previous -> publishVarianceIfExceeded(tenantId, current, previous, previousStage));
+  }
+
+  private void publishVarianceIfExceeded(
+      UUID tenantId, CostCalculation current, CostCalculation previous, CostStage previousStage) {
+    UUID entityId = current.getEntityId();
+
+    // R1: Previous stage also must be complete
+    if (!previous.isComplete()) {
+      log.info("Variance skip: previous stage is incomplete (entityId={})", entityId);
+      return;
+    }
+
+    // Guard: comparing costs in different currencies is meaningless
+    if (!current.getCurrency().equals(previous.getCurrency())) {
+      log.warn(
+          "Variance skip: currency mismatch {} vs {} for entityId={}",
+          current.getCurrency(),
+          previous.getCurrency(),
+          entityId);
+      return;
+    }
+
+    BigDecimal threshold = tenantCostingSettingsPort.getVarianceThreshold(tenantId);
+    BigDecimal ratioSigned = current.varianceRatioVs(previous.getTotalCost());
+    BigDecimal ratioAbs = ratioSigned.abs();
+    if (ratioAbs.compareTo(threshold) > 0) {
+      var event =
+          CostVarianceDetectedEvent.builder()
+              .tenantId(tenantId)
+              .costCalculationId(current.getId())
+              .entityType(current.getEntityType())
+              .entityId(entityId)
+              .currentStage(current.getStage())
+              .previousStage(previousStage)
+              .previousTotal(previous.getTotalCost())
+              .currentTotal(current.getTotalCost())
+              .varianceRatio(ratioSigned) // signed: + overrun, - saving
+              .currency(current.getCurrency())
+              .build();
+      eventPublisher.publish(event);
+      log.warn(
+          "CostVarianceDetected: entityType={} entityId={} ratio={} ({} → {})",
+          current.getEntityType(),
+          entityId,
+          ratioAbs,
+          previous.getTotalCost(),
+          current.getTotalCost());
+    }
+  }
+
+  private CostEntityType entityTypeOf(CostStage stage) {
+    return switch (stage) {
+      case ESTIMATED -> CostEntityType.QUOTE;
+      case PLANNED -> CostEntityType.WORK_ORDER;
+      case ACTUAL -> CostEntityType.BATCH;
+    };
   }
 
   private CostStage previousStageOf(CostStage stage) {
@@ -0,0 +1,255 @@
+package com.fabricmanagement.costing.app;
+
+import com.fabricmanagement.common.domain.vo.ConvertedMoney;
+import com.fabricmanagement.costing.app.CostCalculationService.CostTarget;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.costing.domain.calculation.CostCalculation;
+import com.fabricmanagement.costing.domain.calculation.CostCalculationLine;
+import com.fabricmanagement.costing.domain.calculation.CostEntityType;
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import com.fabricmanagement.costing.domain.item.CalculationBase;
+import com.fabricmanagement.costing.domain.item.CostItem;
+import com.fabricmanagement.costing.domain.price.PriceListItem;
+import com.fabricmanagement.costing.domain.template.CostTemplate;
+import com.fabricmanagement.costing.domain.template.CostTemplateItem;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A cost template compiled against one of the tenant's price lists, the module cost items and a
+ * rate date — everything {@link CostCalculationService} used to re-resolve for every entity.
+ *
+ * <p>Compiling splits the included template items into the two passes up front (cost items
+ * indexed by code, missing ones noted once), and prices come from a {@link PriceIndex} loaded in
+ * one query. Evaluating the plan for an entity then runs entirely in memory except for the first
+ * conversion of each foreign currency.
+ *
+ * <p>A plan lives for one calculation call — a single entity, one bulk recalculation or one
+ * simulation — so it never outlives a price list, template or exchange rate change. {@link
+ * #evaluate} may run on several threads at once if the plan's converter allows it.
+ */
+@Slf4j
+final class CostPlan {
+
+  static final String RAW_PRODUCT = "RAW_PRODUCT";
+
+  private final UUID tenantId;
+  private final String moduleType;
+  private final UUID templateId;
+  private final PriceIndex prices;
+  private final String targetCurrency;
+  private final ExchangeRateService.Converter converter;
+
+  /** Quantity-based and FIXED items plus unknown codes, in template order. */
+  private final List<Step> quantitySteps;
+
+  /** PERCENTAGE items, applied to the pass-1 total. */
+  private final List<Step> percentageSteps;
+
+  private CostPlan(
+      UUID tenantId,
+      String moduleType,
+      UUID templateId,
+      PriceIndex prices,
+      String targetCurrency,
+      ExchangeRateService.Converter converter,
+      List<Step> quantitySteps,
+      List<Step> percentageSteps) {
+    this.tenantId = tenantId;
+    this.moduleType = moduleType;
+    this.templateId = templateId;
+    this.prices = prices;
+    this.targetCurrency = targetCurrency;
+    this.converter = converter;
+    this.quantitySteps = quantitySteps;
+    this.percentageSteps = percentageSteps;
+  }
+
+  static CostPlan compile(
+      UUID tenantId,
+      String moduleType,
+      CostTemplate template,
+      List<CostItem> moduleCostItems,
+      PriceIndex prices,
+      String targetCurrency,
+      ExchangeRateService.Converter converter) {
+    // First item per code wins, as with the former findFirst over the displayOrder-sorted list
+    Map<String, CostItem> costItemsByCode = new HashMap<>();
+    moduleCostItems.forEach(item -> costItemsByCode.putIfAbsent(item.getCode(), item));
+
+    List<Step> quantitySteps = new ArrayList<>();
+    List<Step> percentageSteps = new ArrayList<>();
+    for (CostTemplateItem templateItem : template.getItems()) {
+      if (!templateItem.isIncluded()) continue;
+
+      CostItem costItem = costItemsByCode.get(templateItem.costItemCode());
+      if (costItem == null) {
+        log.warn("CostItem '{}' in template not found — skipping", templateItem.costItemCode());
+        quantitySteps.add(new Step(templateItem.costItemCode(), null, templateItem.weight()));
+      } else if (costItem.getCalculationBase() == CalculationBase.PERCENTAGE) {
+        percentageSteps.add(new Step(costItem.getCode(), costItem, templateItem.weight()));
+      } else {
+        quantitySteps.add(new Step(costItem.getCode(), costItem, templateItem.weight()));
+      }
+    }
+    return new CostPlan(
+        tenantId,
+        moduleType,
+        template.getId(),
+        prices,
+        targetCurrency,
+        converter,
+        List.copyOf(quantitySteps),
+        List.copyOf(percentageSteps));
+  }
+
+  String targetCurrency() {
+    return targetCurrency;
+  }
+
+  ConvertedMoney convert(BigDecimal amount, String currency) {
+    return converter.convert(amount, currency);
+  }
+
+  /**
+   * Builds the (unsaved) calculation for one entity.
+   *
+   * @param rawProductLines when non-null, prices the RAW_PRODUCT item instead of the target's
+   *     product — used for work orders costed from their consumptions
+   */
+  CostCalculation evaluate(
+      CostEntityType entityType,
+      CostStage stage,
+      CostTarget target,
+      RawProductLines rawProductLines) {
+    var calc =
+        CostCalculation.create(
+            tenantId, entityType, target.entityId(), moduleType, stage, targetCurrency);
+    calc.setCostTemplateId(templateId);
+
+    // Pass 1: Quantity-based (PER_KG, PER_HOUR, PER_UNIT) and FIXED items
+    for (Step step : quantitySteps) {
+      if (step.costItem() == null) {
+        calc.recordMissing(step.costItemCode(), null, "CostItem not found for module");
+        continue;
+      }
+      if (rawProductLines != null && RAW_PRODUCT.equals(step.costItemCode())) {
+        rawProductLines.addTo(calc);
+        continue;
+      }
+      addLine(calc, step, target, BigDecimal.ZERO);
+    }
+
+    // Pass 2: PERCENTAGE items
+    BigDecimal pass1Total = calc.getTotalCost(); // Deterministic base for percentages
+    for (Step step : percentageSteps) {
+      addLine(calc, step, target, pass1Total);
+    }
+    return calc;
+  }
+
+  private void addLine(CostCalculation calc, Step step, CostTarget target, BigDecimal pass1Total) {
+    CostItem costItem = step.costItem();
+    Optional<PriceListItem> priceItemOpt =
+        prices.findBest(step.costItemCode(), target.productId(), target.tradingPartnerId());
+    if (priceItemOpt.isEmpty()) {
+      log.debug(
+          "No price found for cost item '{}' in price list {} — skipping",
+          step.costItemCode(),
+          prices.priceListId());
+      calc.recordMissing(step.costItemCode(), null, "No price found in price list");
+      return;
+    }
+
+    PriceListItem priceItem = priceItemOpt.get();
+    BigDecimal quantity = target.quantityKg();
+    BigDecimal effectiveUnitPrice = priceItem.resolveUnitPrice(quantity);
+    boolean volumeDiscountApplied = !effectiveUnitPrice.equals(priceItem.getUnitPrice());
+
+    // For Pass 1 items pass1Total is ZERO and irrelevant; Pass 2 items use it as their base.
+    BigDecimal lineTotal =
+        computeLineTotal(costItem, effectiveUnitPrice, quantity, step.weight(), pass1Total);
+
+    // Unit is derived from CalculationBase — not hardcoded
+    String unit =
+        switch (costItem.getCalculationBase()) {
+          case PER_KG -> "KG";
+          case PER_HOUR -> "HOUR";
+          case PER_UNIT -> "UNIT";
+          // PERCENTAGE and FIXED lines have no meaningful quantity unit
+          case PERCENTAGE, FIXED -> null;
+        };
+
+    CostCalculationLine line = new CostCalculationLine();
+    line.setTenantId(tenantId);
+    line.setCostItemCode(costItem.getCode());
+    line.setQty(quantity);
+    line.setUnit(unit);
+    line.setUnitPrice(effectiveUnitPrice);
+    line.setCurrency(priceItem.getCurrency());
+    line.setVolumeDiscountApplied(volumeDiscountApplied);
+
+    // FIXED and PERCENTAGE totals are already in the target currency
+    ConvertedMoney convertedTotal =
+        unit != null
+            ? converter.convert(lineTotal, priceItem.getCurrency())
+            : ConvertedMoney.sameUnit(lineTotal, targetCurrency);
+    line.setConvertedTotal(convertedTotal);
+    line.setTotalInBaseCurrency(convertedTotal.getConvertedAmount());
+
+    calc.addLine(line);
+  }
+
+  /**
+   * Two-pass computation:
+   *
+   * <ol>
+   *   <li>Pass 1 — quantity-based (PER_KG, PER_HOUR, PER_UNIT) and FIXED items
+   *   <li>Pass 2 — PERCENTAGE items; base = sum of all pass-1 line totals
+   * </ol>
+   *
+   * <p>The percentage base <b>includes fixed costs</b> — i.e. overhead is computed on top of both
+   * variable and fixed production costs. This is an intentional business decision: a 12% overhead
+   * on a 1000 TRY batch includes the 50 TRY packaging (FIXED) in its base.
+   *
+   * <p>PERCENTAGE-on-PERCENTAGE is not supported. All PERCENTAGE items compute against the same
+   * deterministic base (pass-1 total), making the result independent of template item order.
+   */
+  private static BigDecimal computeLineTotal(
+      CostItem item,
+      BigDecimal unitPrice,
+      BigDecimal quantity,
+      BigDecimal templateWeight,
+      BigDecimal currentTotal) {
+    return switch (item.getCalculationBase()) {
+      case PER_KG, PER_HOUR, PER_UNIT -> {
+        BigDecimal base = unitPrice.multiply(quantity);
+        yield templateWeight != null
+            ? base.multiply(templateWeight).setScale(4, RoundingMode.HALF_UP)
+            : base.setScale(4, RoundingMode.HALF_UP);
+      }
+      case PERCENTAGE -> {
+        // Percentage = rate × current running total (overhead applied to what came before)
+        BigDecimal rate = templateWeight != null ? templateWeight : unitPrice;
+        yield currentTotal.multiply(rate).setScale(4, RoundingMode.HALF_UP);
+      }
+      case FIXED -> unitPrice.setScale(4, RoundingMode.HALF_UP);
+    };
+  }
+
+  /** One included template item; {@code costItem} is null when the module has no such item. */
+  private record Step(String costItemCode, CostItem costItem, BigDecimal weight) {}
+
+  /** Adds the RAW_PRODUCT lines of a calculation in place of the standard single line. */
+  @FunctionalInterface
+  interface RawProductLines {
+    void addTo(CostCalculation calc);
+  }
+}
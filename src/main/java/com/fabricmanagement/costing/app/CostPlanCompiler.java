@@ -0,0 +1,97 @@
+package com.fabricmanagement.costing.app;
+
+import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.costing.domain.exception.CostingDomainException;
+import com.fabricmanagement.costing.domain.exception.PriceListNotFoundException;
+import com.fabricmanagement.costing.domain.price.PriceList;
+import com.fabricmanagement.costing.domain.template.CostTemplate;
+import com.fabricmanagement.costing.infra.repository.CostItemRepository;
+import com.fabricmanagement.costing.infra.repository.CostTemplateRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListItemRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListRepository;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads what a {@link CostPlan} needs — active price list, default template, module cost items and
+ * the price list's items — in a fixed number of queries, however many entities the plan is later
+ * evaluated for. Must be called inside the caller's transaction.
+ */
+@Component
+@RequiredArgsConstructor
+class CostPlanCompiler {
+
+  private final CostItemRepository costItemRepo;
+  private final CostTemplateRepository costTemplateRepo;
+  private final PriceListRepository priceListRepo;
+  private final PriceListItemRepository priceListItemRepo;
+  private final ExchangeRateService exchangeRateService;
+  private final TenantReportingCurrencyPort tenantReportingCurrencyPort;
+
+  /**
+   * @throws PriceListNotFoundException when the module has no price list active on {@code rateDate}
+   * @throws CostingDomainException when the tenant has no default template for the module
+   */
+  CostPlan compile(UUID tenantId, String moduleType, LocalDate rateDate) {
+    PriceList priceList = activePriceList(tenantId, moduleType, rateDate);
+    String targetCurrency = targetCurrency(tenantId);
+    return compile(
+        tenantId,
+        moduleType,
+        priceIndex(priceList.getId()),
+        targetCurrency,
+        exchangeRateService.converter(tenantId, targetCurrency, rateDate));
+  }
+
+  /**
+   * Compiles the tenant's default template for the module against the given prices and converter,
+   * for callers that choose those themselves (e.g. a simulation against a draft price list).
+   *
+   * @throws CostingDomainException when the tenant has no default template for the module
+   */
+  CostPlan compile(
+      UUID tenantId,
+      String moduleType,
+      PriceIndex prices,
+      String targetCurrency,
+      ExchangeRateService.Converter converter) {
+    CostTemplate template =
+        costTemplateRepo
+            .findDefault(tenantId, moduleType)
+            .orElseThrow(
+                () ->
+                    new CostingDomainException(
+                        "No default cost template configured for module: "
+                            + moduleType
+                            + " (tenantId="
+                            + tenantId
+                            + ")"));
+
+    return CostPlan.compile(
+        tenantId,
+        moduleType,
+        template,
+        costItemRepo.findActiveForModule(moduleType),
+        prices,
+        targetCurrency,
+        converter);
+  }
+
+  PriceList activePriceList(UUID tenantId, String moduleType, LocalDate rateDate) {
+    return priceListRepo
+        .findActiveForModule(tenantId, moduleType, rateDate)
+        .orElseThrow(() -> new PriceListNotFoundException(moduleType));
+  }
+
+  String targetCurrency(UUID tenantId) {
+    return tenantReportingCurrencyPort.getReportingCurrency(tenantId);
+  }
+
+  /** The active items of a price list, loaded in one query. */
+  PriceIndex priceIndex(UUID priceListId) {
+    return new PriceIndex(priceListId, priceListItemRepo.findActiveWithBreaks(priceListId));
+  }
+}
@@ -0,0 +1,298 @@
+package com.fabricmanagement.costing.app;
+
+import com.fabricmanagement.common.domain.vo.ConvertedMoney;
+import com.fabricmanagement.costing.app.CostCalculationService.CostTarget;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.costing.domain.calculation.CostCalculation;
+import com.fabricmanagement.costing.domain.calculation.CostEntityType;
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import com.fabricmanagement.costing.domain.exception.CostingDomainException;
+import com.fabricmanagement.costing.domain.exception.ExchangeRateRequiredException;
+import com.fabricmanagement.costing.domain.exception.PriceListNotFoundException;
+import com.fabricmanagement.costing.domain.price.PriceList;
+import com.fabricmanagement.costing.dto.CostSimulationResponse;
+import com.fabricmanagement.costing.dto.CostSimulationResponse.Row;
+import com.fabricmanagement.costing.dto.CostSimulationResponse.StageSummary;
+import com.fabricmanagement.costing.infra.repository.CostCalculationRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * What-if costing: re-costs a set of entities (or bare products) against a draft price list and/or
+ * overridden exchange rates and compares the result with their active calculations, without
+ * writing anything.
+ *
+ * <p>The scenario is compiled into one {@link CostPlan}. Every exchange rate the price list can
+ * need is resolved before evaluation starts, so the plan is pure in-memory work and the targets
+ * are split across {@code costing.simulation.parallelism} virtual threads, as pay runs split
+ * their chunks. Simulated calculations are never handed to the persistence context.
+ *
+ * <p>The ACTUAL stage of a work order is costed from its consumptions (one RAW_PRODUCT line per
+ * consumption, each priced from its own module's price list), which a scenario does not cover, so
+ * simulating it is refused rather than answered with a plan-based figure.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CostSimulationService {
+
+  private final CostPlanCompiler costPlanCompiler;
+  private final PriceListRepository priceListRepo;
+  private final CostCalculationRepository costCalcRepo;
+  private final ExchangeRateService exchangeRateService;
+
+  @Value("${costing.simulation.parallelism:4}")
+  private int parallelism = 4;
+
+  @Value("${costing.simulation.max-targets:5000}")
+  private int maxTargets = 5000;
+
+  /**
+   * What to simulate.
+   *
+   * @param entityType the type of the targets' active calculations to compare with
+   * @param priceListId a price list of the module to use instead of the active one, or null
+   * @param exchangeRates rate from each listed currency to the reporting currency, replacing the
+   *     stored rate; other currencies use the stored rates at {@code rateDate}
+   */
+  public record Scenario(
+      String moduleType,
+      CostEntityType entityType,
+      Set<CostStage> stages,
+      UUID priceListId,
+      Map<String, BigDecimal> exchangeRates,
+      LocalDate rateDate) {}
+
+  @Transactional(readOnly = true)
+  public CostSimulationResponse simulate(
+      UUID tenantId, Scenario scenario, List<CostTarget> targets) {
+    if (targets.size() > maxTargets) {
+      throw new CostingDomainException(
+          "A simulation covers at most " + maxTargets + " targets, got " + targets.size());
+    }
+    Set<UUID> entityIds = new HashSet<>();
+    for (CostTarget target : targets) {
+      if (!entityIds.add(target.entityId())) {
+        throw new CostingDomainException(
+            "Entity " + target.entityId() + " appears more than once in the simulation");
+      }
+    }
+    if (scenario.entityType() == CostEntityType.WORK_ORDER
+        && scenario.stages().contains(CostStage.ACTUAL)) {
+      throw new CostingDomainException(
+          "ACTUAL work order costs are computed from consumptions and cannot be simulated");
+    }
+
+    PriceList priceList = priceList(tenantId, scenario);
+    PriceIndex prices = costPlanCompiler.priceIndex(priceList.getId());
+    String targetCurrency = costPlanCompiler.targetCurrency(tenantId);
+    CostPlan plan =
+        costPlanCompiler.compile(
+            tenantId,
+            scenario.moduleType(),
+            prices,
+            targetCurrency,
+            fixedRates(tenantId, prices.currencies(), targetCurrency, scenario));
+
+    List<CostStage> stages = scenario.stages().stream().sorted().toList();
+    Map<CostStage, List<CostCalculation>> simulated = evaluate(plan, scenario, stages, targets);
+
+    List<StageSummary> summaries = new ArrayList<>(stages.size());
+    List<Row> rows = new ArrayList<>(targets.size() * stages.size());
+    for (CostStage stage : stages) {
+      Map<UUID, CostCalculation> current =
+          costCalcRepo
+              .findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(
+                  tenantId, scenario.entityType(), stage, entityIds)
+              .stream()
+              .collect(Collectors.toMap(CostCalculation::getEntityId, Function.identity()));
+      summaries.add(compare(stage, simulated.get(stage), current, rows));
+    }
+
+    log.info(
+        "Cost simulation: module={} priceList={} targets={} stages={}",
+        scenario.moduleType(),
+        priceList.getId(),
+        targets.size(),
+        stages);
+    return new CostSimulationResponse(priceList.getId(), targetCurrency, summaries, rows);
+  }
+
+  private PriceList priceList(UUID tenantId, Scenario scenario) {
+    if (scenario.priceListId() == null) {
+      return costPlanCompiler.activePriceList(
+          tenantId, scenario.moduleType(), scenario.rateDate());
+    }
+    PriceList priceList =
+        priceListRepo
+            .findById(scenario.priceListId())
+            .orElseThrow(() -> new PriceListNotFoundException(scenario.priceListId()));
+    if (!scenario.moduleType().equals(priceList.getModuleType())) {
+      throw new CostingDomainException(
+          "Price list "
+              + priceList.getId()
+              + " belongs to module "
+              + priceList.getModuleType()
+              + ", not "
+              + scenario.moduleType());
+    }
+    return priceList;
+  }
+
+  /**
+   * A converter over rates resolved up front — the scenario's overrides first, then the stored
+   * rates — so evaluation never touches the database and can run on worker threads. A currency
+   * without a rate fails the lines that need it, as a live calculation would.
+   */
+  private ExchangeRateService.Converter fixedRates(
+      UUID tenantId, Set<String> currencies, String targetCurrency, Scenario scenario) {
+    Map<String, BigDecimal> overrides = new HashMap<>();
+    if (scenario.exchangeRates() != null) {
+      scenario
+          .exchangeRates()
+          .forEach((currency, rate) -> overrides.put(currency.toUpperCase(Locale.ROOT), rate));
+    }
+    Map<String, Optional<BigDecimal>> rates = new HashMap<>();
+    for (String currency : currencies) {
+      String code = currency.toUpperCase(Locale.ROOT);
+      if (!currency.equalsIgnoreCase(targetCurrency) && !rates.containsKey(code)) {
+        rates.put(
+            code,
+            Optional.ofNullable(overrides.get(code))
+                .or(
+                    () ->
+                        exchangeRateService.getRate(
+                            tenantId, currency, targetCurrency, scenario.rateDate())));
+      }
+    }
+
+    return (amount, currency) -> {
+      if (currency.equalsIgnoreCase(targetCurrency)) {
+        return ConvertedMoney.sameUnit(amount, currency);
+      }
+      BigDecimal rate =
+          rates
+              .getOrDefault(currency.toUpperCase(Locale.ROOT), Optional.empty())
+              .orElseThrow(
+                  () ->
+                      new ExchangeRateRequiredException(
+                          currency, targetCurrency, scenario.rateDate()));
+      return ConvertedMoney.of(
+          amount,
+          currency,
+          amount.multiply(rate).setScale(4, RoundingMode.HALF_UP),
+          targetCurrency,
+          rate,
+          scenario.rateDate());
+    };
+  }
+
+  /** Evaluates every stage for every target, slices of targets in parallel; keeps target order. */
+  private Map<CostStage, List<CostCalculation>> evaluate(
+      CostPlan plan, Scenario scenario, List<CostStage> stages, List<CostTarget> targets) {
+    int workers = Math.max(1, Math.min(parallelism, targets.size()));
+    int sliceSize = (targets.size() + workers - 1) / workers;
+    List<Future<Map<CostStage, List<CostCalculation>>>> futures = new ArrayList<>(workers);
+    try (ExecutorService executor =
+        Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("cost-sim-", 0).factory())) {
+      for (int from = 0; from < targets.size(); from += sliceSize) {
+        List<CostTarget> slice = targets.subList(from, Math.min(from + sliceSize, targets.size()));
+        futures.add(
+            executor.submit(
+                () -> {
+                  Map<CostStage, List<CostCalculation>> results = new EnumMap<>(CostStage.class);
+                  for (CostStage stage : stages) {
+                    results.put(
+                        stage,
+                        slice.stream()
+                            .map(t -> plan.evaluate(scenario.entityType(), stage, t, null))
+                            .toList());
+                  }
+                  return results;
+                }));
+      }
+    }
+
+    Map<CostStage, List<CostCalculation>> merged = new EnumMap<>(CostStage.class);
+    stages.forEach(stage -> merged.put(stage, new ArrayList<>(targets.size())));
+    for (Future<Map<CostStage, List<CostCalculation>>> future : futures) {
+      Map<CostStage, List<CostCalculation>> results = join(future);
+      stages.forEach(stage -> merged.get(stage).addAll(results.get(stage)));
+    }
+    return merged;
+  }
+
+  private static <T> T join(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Cost simulation interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Cost simulation failed", e.getCause());
+    }
+  }
+
+  private static StageSummary compare(
+      CostStage stage,
+      List<CostCalculation> simulated,
+      Map<UUID, CostCalculation> current,
+      List<Row> rows) {
+    int compared = 0;
+    BigDecimal simulatedTotal = BigDecimal.ZERO;
+    BigDecimal currentTotal = BigDecimal.ZERO;
+    for (CostCalculation calc : simulated) {
+      CostCalculation existing = current.get(calc.getEntityId());
+      // Comparing costs in different currencies is meaningless
+      boolean comparable = existing != null && existing.getCurrency().equals(calc.getCurrency());
+      if (comparable) {
+        compared++;
+        simulatedTotal = simulatedTotal.add(calc.getTotalCost());
+        currentTotal = currentTotal.add(existing.getTotalCost());
+      }
+      rows.add(
+          new Row(
+              calc.getEntityId(),
+              stage,
+              calc.getTotalCost(),
+              calc.isComplete(),
+              calc.getMissingItems(),
+              comparable ? existing.getTotalCost() : null,
+              comparable ? calc.getTotalCost().subtract(existing.getTotalCost()) : null,
+              comparable ? calc.varianceRatioVs(existing.getTotalCost()) : null));
+    }
+    return new StageSummary(
+        stage,
+        simulated.size(),
+        compared,
+        simulatedTotal,
+        currentTotal,
+        simulatedTotal.subtract(currentTotal));
+  }
+}
@@ -0,0 +1,75 @@
+package com.fabricmanagement.costing.app;
+
+import com.fabricmanagement.costing.domain.price.PriceListItem;
+import com.fabricmanagement.costing.infra.repository.PriceListItemRepository;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * The active items of one price list, loaded once and resolved in memory with the same 4-level
+ * priority as {@link PriceListItemRepository#findBest}: supplier + product, supplier, product,
+ * catch-all.
+ *
+ * <p>Resolutions are memoized per (cost item, product, trading partner), so re-costing many
+ * entities of the same product only walks the candidates once. Lookups may run concurrently; the
+ * loaded items are only read.
+ */
+final class PriceIndex {
+
+  /** Supplier-specific rows first, then product-specific rows — the findBest ORDER BY. */
+  private static final Comparator<PriceListItem> MOST_SPECIFIC_FIRST =
+      Comparator.comparingInt((PriceListItem item) -> item.getTradingPartnerId() != null ? 0 : 1)
+          .thenComparingInt(item -> item.getProductId() != null ? 0 : 1);
+
+  private final UUID priceListId;
+  private final Map<String, List<PriceListItem>> candidatesByCode;
+  private final Map<Key, Optional<PriceListItem>> resolved = new ConcurrentHashMap<>();
+
+  PriceIndex(UUID priceListId, List<PriceListItem> items) {
+    this.priceListId = priceListId;
+    this.candidatesByCode =
+        items.stream()
+            .collect(
+                Collectors.groupingBy(
+                    PriceListItem::getCostItemCode,
+                    Collectors.collectingAndThen(
+                        Collectors.toList(),
+                        list -> list.stream().sorted(MOST_SPECIFIC_FIRST).toList())));
+  }
+
+  UUID priceListId() {
+    return priceListId;
+  }
+
+  /** The currencies prices in this list are quoted in. */
+  Set<String> currencies() {
+    return candidatesByCode.values().stream()
+        .flatMap(List::stream)
+        .map(PriceListItem::getCurrency)
+        .collect(Collectors.toSet());
+  }
+
+  Optional<PriceListItem> findBest(String costItemCode, UUID productId, UUID tradingPartnerId) {
+    return resolved.computeIfAbsent(
+        new Key(costItemCode, productId, tradingPartnerId),
+        key ->
+            candidatesByCode.getOrDefault(costItemCode, List.of()).stream()
+                .filter(item -> matches(item.getProductId(), productId))
+                .filter(item -> matches(item.getTradingPartnerId(), tradingPartnerId))
+                .findFirst());
+  }
+
+  /** A null on either side matches: no filter requested, or a row that applies to all. */
+  private static boolean matches(UUID rowValue, UUID requested) {
+    return requested == null || rowValue == null || Objects.equals(rowValue, requested);
+  }
+
+  private record Key(String costItemCode, UUID productId, UUID tradingPartnerId) {}
+}
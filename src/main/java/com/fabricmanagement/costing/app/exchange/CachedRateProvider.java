@@ -1,8 +1,6 @@
 package com.fabricmanagement.costing.app.exchange;
 
-import com.fabricmanagement.costing.domain.exchange.ExchangeRateCache;
 import com.fabricmanagement.costing.domain.exchange.ExchangeRateProvider;
-import com.fabricmanagement.costing.infra.repository.ExchangeRateCacheRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Optional;
@@ -11,13 +9,16 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
-/** Serves any active cached rate regardless of source. MANUAL entries win by insert-precedence. */
+/**
+ * Serves any active cached rate regardless of source. MANUAL entries win by insert-precedence.
+ * Reads the pair's in-memory {@link ExchangeRateCurve}, not the table.
+ */
 @Component
 @Order(10)
 @RequiredArgsConstructor
 public class CachedRateProvider implements ExchangeRateProvider {
 
-  private final ExchangeRateCacheRepository cacheRepo;
+  private final ExchangeRateCurveCache curveCache;
 
   @Override
   public Optional<BigDecimal> getRate(UUID tenantId, String from, String to, LocalDate date) {
@@ -27,9 +28,6 @@ public class CachedRateProvider implements ExchangeRateProvider {
     }
 
     // Exact date only
-    return cacheRepo
-        .findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateAndIsActiveTrue(
-            tenantId, from, to, date)
-        .map(ExchangeRateCache::getRate);
+    return curveCache.curve(tenantId, from, to).rateOn(date);
   }
 }
@@ -0,0 +1,75 @@
+package com.fabricmanagement.costing.app.exchange;
+
+import com.fabricmanagement.costing.domain.exchange.ExchangeRateCache;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Every active cached rate of one (tenant, base, target) pair, sorted by date.
+ *
+ * <p>Immutable; lookups are a binary search over the epoch days, so a conversion never touches the
+ * database once the curve is loaded.
+ */
+public final class ExchangeRateCurve {
+
+  static final ExchangeRateCurve EMPTY = new ExchangeRateCurve(new long[0], new BigDecimal[0]);
+
+  private final long[] epochDays;
+  private final BigDecimal[] rates;
+
+  private ExchangeRateCurve(long[] epochDays, BigDecimal[] rates) {
+    this.epochDays = epochDays;
+    this.rates = rates;
+  }
+
+  /**
+   * Builds a curve from rows ordered by rate date. If a date occurs twice the first row wins, which
+   * mirrors the insert precedence of the exact-date repository lookup.
+   */
+  static ExchangeRateCurve of(List<ExchangeRateCache> rows) {
+    if (rows.isEmpty()) {
+      return EMPTY;
+    }
+    long[] days = new long[rows.size()];
+    BigDecimal[] values = new BigDecimal[rows.size()];
+    int size = 0;
+    for (ExchangeRateCache row : rows) {
+      long day = row.getRateDate().toEpochDay();
+      if (size > 0 && days[size - 1] >= day) {
+        continue;
+      }
+      days[size] = day;
+      values[size] = row.getRate();
+      size++;
+    }
+    return new ExchangeRateCurve(Arrays.copyOf(days, size), Arrays.copyOf(values, size));
+  }
+
+  /** The rate published for exactly {@code date}. */
+  public Optional<BigDecimal> rateOn(LocalDate date) {
+    int index = Arrays.binarySearch(epochDays, date.toEpochDay());
+    return index >= 0 ? Optional.of(rates[index]) : Optional.empty();
+  }
+
+  /** The most recent point on or before {@code date}, but not earlier than {@code cutoff}. */
+  public Optional<Point> floor(LocalDate date, LocalDate cutoff) {
+    int index = Arrays.binarySearch(epochDays, date.toEpochDay());
+    if (index < 0) {
+      index = -index - 2;
+    }
+    if (index < 0 || epochDays[index] < cutoff.toEpochDay()) {
+      return Optional.empty();
+    }
+    return Optional.of(new Point(LocalDate.ofEpochDay(epochDays[index]), rates[index]));
+  }
+
+  public int size() {
+    return epochDays.length;
+  }
+
+  /** One published rate. */
+  public record Point(LocalDate rateDate, BigDecimal rate) {}
+}
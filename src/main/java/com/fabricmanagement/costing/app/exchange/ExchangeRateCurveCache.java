@@ -0,0 +1,86 @@
+package com.fabricmanagement.costing.app.exchange;
+
+import com.fabricmanagement.costing.infra.repository.ExchangeRateCacheRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Node-local cache of {@link ExchangeRateCurve}s, one per (tenant, base, target) pair.
+ *
+ * <p>A curve is loaded with a single query the first time its pair is asked for; pairs without any
+ * rate are cached as an empty curve, so repeated misses stay in memory too. Writers on this node
+ * call {@link #invalidate} and the next lookup reloads. Writes made by other nodes become visible
+ * after {@code expire-after-write}.
+ */
+@Component
+@Slf4j
+public class ExchangeRateCurveCache {
+
+  private final ExchangeRateCacheRepository cacheRepo;
+  private final Cache<CurveKey, ExchangeRateCurve> curves;
+
+  public ExchangeRateCurveCache(
+      ExchangeRateCacheRepository cacheRepo,
+      MeterRegistry meterRegistry,
+      @Value("${costing.fx.curve-cache.expire-after-write:PT10M}") Duration expireAfterWrite,
+      @Value("${costing.fx.curve-cache.maximum-size:5000}") long maximumSize) {
+    this.cacheRepo = cacheRepo;
+    this.curves =
+        Caffeine.newBuilder()
+            .expireAfterWrite(expireAfterWrite)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, curves, "fxRateCurves");
+  }
+
+  /** Returns the pair's curve, loading it on a miss. */
+  public ExchangeRateCurve curve(UUID tenantId, String from, String to) {
+    return curves.get(new CurveKey(tenantId, from, to), this::load);
+  }
+
+  /**
+   * Drops the pair's curve once the current transaction completes, or right away outside one.
+   * Runs on rollback as well, since a curve may have been loaded from the transaction's own
+   * uncommitted rows.
+   */
+  public void invalidate(UUID tenantId, String from, String to) {
+    CurveKey key = new CurveKey(tenantId, from, to);
+    curves.invalidate(key);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              curves.invalidate(key);
+            }
+          });
+    }
+  }
+
+  private ExchangeRateCurve load(CurveKey key) {
+    ExchangeRateCurve curve =
+        ExchangeRateCurve.of(
+            cacheRepo
+                .findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+                    key.tenantId(), key.from(), key.to()));
+    log.debug(
+        "Loaded FX rate curve: tenantId={}, pair={}/{}, points={}",
+        key.tenantId(),
+        key.from(),
+        key.to(),
+        curve.size());
+    return curve;
+  }
+
+  private record CurveKey(UUID tenantId, String from, String to) {}
+}
@@ -10,7 +10,9 @@ import com.fabricmanagement.costing.infra.repository.ExchangeRateCacheRepository
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ public class ExchangeRateService {
 
   private final List<ExchangeRateProvider> rateProviders;
   private final ExchangeRateCacheRepository cacheRepo;
+  private final ExchangeRateCurveCache curveCache;
 
   @Value("${costing.fx.max-stale-days:7}")
   private int maxStaleDays = 7;
@@ -70,26 +73,28 @@ public class ExchangeRateService {
     for (ExchangeRateProvider provider : rateProviders) {
       Optional<BigDecimal> rate = provider.getRate(tenantId, from, to, date);
       if (rate.isPresent()) {
+        if (!(provider instanceof CachedRateProvider)) {
+          // External providers persist what they fetch; let the curve pick it up.
+          curveCache.invalidate(tenantId, from, to);
+        }
         return Optional.of(new RateResult(rate.get(), date));
       }
     }
 
-    // 2. Generic stale-rate fallback (cache lookup)
+    // 2. Generic stale-rate fallback (nearest earlier point of the cached curve)
     LocalDate cutoff = date.minusDays(maxStaleDays);
-    Optional<ExchangeRateCache> staleCache =
-        cacheRepo
-            .findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateBetweenAndIsActiveTrueOrderByRateDateDesc(
-                tenantId, from, to, cutoff, date);
+    Optional<ExchangeRateCurve.Point> stale =
+        curveCache.curve(tenantId, from, to).floor(date, cutoff);
 
-    if (staleCache.isPresent()) {
-      ExchangeRateCache cache = staleCache.get();
+    if (stale.isPresent()) {
+      ExchangeRateCurve.Point point = stale.get();
       log.info(
           "Serving stale rate for {}/{} — requested {} but using {} rate",
           from,
           to,
           date,
-          cache.getRateDate());
-      return Optional.of(new RateResult(cache.getRate(), cache.getRateDate()));
+          point.rateDate());
+      return Optional.of(new RateResult(point.rate(), point.rateDate()));
     }
 
     return Optional.empty();
@@ -122,6 +127,39 @@ public class ExchangeRateService {
             .orElseThrow(
                 () -> new ExchangeRateRequiredException(originalCurrency, targetCurrency, date));
 
+    return toConvertedMoney(originalAmount, originalCurrency, targetCurrency, result);
+  }
+
+  /**
+   * {@link #convert} bound to one tenant, target currency and date, for callers that convert many
+   * lines in a row (a compiled cost plan applied to a batch of entities). Each source currency is
+   * resolved once per converter; a missing rate still throws {@link
+   * ExchangeRateRequiredException} on every use.
+   */
+  public Converter converter(UUID tenantId, String targetCurrency, LocalDate date) {
+    Map<String, Optional<RateResult>> rates = new HashMap<>();
+    return (amount, currency) -> {
+      if (currency.equalsIgnoreCase(targetCurrency)) {
+        return ConvertedMoney.sameUnit(amount, currency);
+      }
+      RateResult result =
+          rates
+              .computeIfAbsent(
+                  currency, source -> getRateWithDate(tenantId, source, targetCurrency, date))
+              .orElseThrow(
+                  () -> new ExchangeRateRequiredException(currency, targetCurrency, date));
+      return toConvertedMoney(amount, currency, targetCurrency, result);
+    };
+  }
+
+  /** Converts an amount in the given currency; see {@link #converter}. */
+  @FunctionalInterface
+  public interface Converter {
+    ConvertedMoney convert(BigDecimal amount, String currency);
+  }
+
+  private static ConvertedMoney toConvertedMoney(
+      BigDecimal originalAmount, String originalCurrency, String targetCurrency, RateResult result) {
     BigDecimal rate = result.rate();
     BigDecimal convertedAmount = originalAmount.multiply(rate).setScale(4, RoundingMode.HALF_UP);
 
@@ -160,6 +198,7 @@ public class ExchangeRateService {
       BigDecimal rate,
       LocalDate date,
       ExchangeRateSource source) {
+    curveCache.invalidate(tenantId, base, target);
     ExchangeRateCache existing =
         cacheRepo
             .findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateAndIsActiveTrue(
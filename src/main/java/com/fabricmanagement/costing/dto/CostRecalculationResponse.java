@@ -0,0 +1,16 @@
+package com.fabricmanagement.costing.dto;
+
+import com.fabricmanagement.costing.domain.calculation.CostCalculation;
+import java.util.List;
+
+/** Result of a bulk recalculation: one calculation per target, in request order. */
+public record CostRecalculationResponse(
+    int recalculated, int incomplete, List<CostCalculationResponse> calculations) {
+
+  public static CostRecalculationResponse from(List<CostCalculation> calcs) {
+    return new CostRecalculationResponse(
+        calcs.size(),
+        (int) calcs.stream().filter(calc -> !calc.isComplete()).count(),
+        calcs.stream().map(CostCalculationResponse::from).toList());
+  }
+}
@@ -0,0 +1,37 @@
+package com.fabricmanagement.costing.dto;
+
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import com.fabricmanagement.costing.domain.calculation.MissingCostItemEntry;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a what-if cost simulation: one row per (target, stage) and a summary per stage. The
+ * {@code current*} and variance fields are omitted where the entity has no active calculation for
+ * that stage.
+ */
+public record CostSimulationResponse(
+    UUID priceListId, String currency, List<StageSummary> stages, List<Row> rows) {
+
+  /** Totals of one stage over the targets that have an active calculation to compare with. */
+  public record StageSummary(
+      CostStage stage,
+      int simulated,
+      int compared,
+      BigDecimal simulatedTotal,
+      BigDecimal currentTotal,
+      BigDecimal difference) {}
+
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Row(
+      UUID entityId,
+      CostStage stage,
+      BigDecimal simulatedCost,
+      boolean complete,
+      List<MissingCostItemEntry> missingItems,
+      BigDecimal currentCost,
+      BigDecimal difference,
+      BigDecimal varianceRatio) {}
+}
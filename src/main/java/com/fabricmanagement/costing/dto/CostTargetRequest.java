@@ -0,0 +1,13 @@
+package com.fabricmanagement.costing.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** One entity (or product) to cost in a bulk recalculation or simulation. */
+public record CostTargetRequest(
+    @NotNull UUID entityId,
+    @NotNull UUID productId,
+    @NotNull @Positive BigDecimal quantityKg,
+    UUID tradingPartnerId) {}
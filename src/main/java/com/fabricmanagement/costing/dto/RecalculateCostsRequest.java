@@ -0,0 +1,21 @@
+package com.fabricmanagement.costing.dto;
+
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request DTO for re-costing many entities of one module and stage in one pass. The stage decides
+ * the entity type: ESTIMATED → quotes, PLANNED → work orders, ACTUAL → batches.
+ */
+public record RecalculateCostsRequest(
+    @NotBlank String moduleType,
+    @NotNull CostStage stage,
+    /** Price list and exchange rate date; today when omitted. */
+    LocalDate rateDate,
+    @NotEmpty @Size(max = 1000) @Valid List<CostTargetRequest> targets) {}
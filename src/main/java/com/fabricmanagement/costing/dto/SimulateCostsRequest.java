@@ -0,0 +1,32 @@
+package com.fabricmanagement.costing.dto;
+
+import com.fabricmanagement.costing.domain.calculation.CostEntityType;
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Request DTO for a what-if cost simulation. Nothing is written; results are compared with the
+ * active calculations of {@code entityType} for each requested stage.
+ */
+public record SimulateCostsRequest(
+    @NotBlank String moduleType,
+    @NotNull CostEntityType entityType,
+    /** Stages to simulate; ACTUAL is refused for work orders (costed from consumptions). */
+    @NotEmpty Set<CostStage> stages,
+    /** Draft (e.g. inactive or not yet valid) price list to simulate; the active one when null. */
+    UUID priceListId,
+    /** Rate from each currency to the reporting currency, overriding the stored rates. */
+    Map<String, @NotNull @Positive BigDecimal> exchangeRates,
+    /** Exchange rate date (and active price list date); today when omitted. */
+    LocalDate rateDate,
+    @NotEmpty @Valid List<CostTargetRequest> targets) {}
@@ -2,6 +2,7 @@ package com.fabricmanagement.costing.infra.repository;
 
 import com.fabricmanagement.costing.domain.exchange.ExchangeRateCache;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,12 +16,8 @@ public interface ExchangeRateCacheRepository extends JpaRepository<ExchangeRateC
       findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateAndIsActiveTrue(
           UUID tenantId, String baseCurrency, String targetCurrency, LocalDate rateDate);
 
-  /** Nearest previous date within bounded range [cutoffDate, rateDate] — DB-level efficient */
-  Optional<ExchangeRateCache>
-      findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateBetweenAndIsActiveTrueOrderByRateDateDesc(
-          UUID tenantId,
-          String baseCurrency,
-          String targetCurrency,
-          LocalDate cutoffDate,
-          LocalDate rateDate);
+  /** Every active rate of the pair, oldest first — loads an in-memory rate curve */
+  List<ExchangeRateCache>
+      findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+          UUID tenantId, String baseCurrency, String targetCurrency);
 }
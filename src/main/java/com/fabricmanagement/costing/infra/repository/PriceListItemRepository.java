@@ -1,6 +1,7 @@
 package com.fabricmanagement.costing.infra.repository;
 
 import com.fabricmanagement.costing.domain.price.PriceListItem;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -52,4 +53,17 @@ public interface PriceListItemRepository extends JpaRepository<PriceListItem, UU
       @Param("costItemCode") String costItemCode,
       @Param("productId") UUID productId,
       @Param("tradingPartnerId") UUID tradingPartnerId);
+
+  /**
+   * All active items of a price list with their volume breaks, for resolving many lookups against
+   * the same list in memory ({@code PriceIndex} applies the {@link #findBest} priority).
+   */
+  @Query(
+      """
+      SELECT DISTINCT pli FROM PriceListItem pli
+      LEFT JOIN FETCH pli.volumeBreaks
+      WHERE pli.priceListId = :priceListId
+        AND pli.isActive = true
+      """)
+  List<PriceListItem> findActiveWithBreaks(@Param("priceListId") UUID priceListId);
 }
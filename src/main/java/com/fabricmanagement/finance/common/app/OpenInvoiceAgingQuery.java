@@ -0,0 +1,405 @@
+package com.fabricmanagement.finance.common.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.finance.invoice.app.InvoiceSide;
+import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates a tenant's open receivables or payables per trading partner inside the database.
+ *
+ * <p>Every open invoice is signed (credit notes are contra), converted to the reporting currency
+ * and bucketed by days overdue in one grouped query, so a page of partners costs one round-trip
+ * however many invoices stand behind it. Rates are resolved once per document currency through
+ * {@link ExchangeRateService} and joined in as a small rate table.
+ *
+ * <p>The figures match {@link OpenInvoiceAmountService} invoice by invoice: each converted amount
+ * is rounded to four decimals before it is summed, and a missing rate falls back to the invoice's
+ * issue rate, then to the document amount.
+ */
+@Component
+@RequiredArgsConstructor
+public class OpenInvoiceAgingQuery {
+
+  private static final int REPORTING_SCALE = 4;
+
+  private static final String OPEN_INVOICES =
+      """
+      i.tenant_id = :tenantId
+        AND (i.invoice_type IN (:sideTypes)
+             OR (i.invoice_type = 'CREDIT_NOTE'
+                 AND i.original_invoice_id IN (
+                     SELECT o.id
+                     FROM finance.finance_invoice o
+                     WHERE o.tenant_id = :tenantId
+                       AND o.invoice_type IN (:sideTypes))))
+        AND i.status NOT IN (:excludedStatuses)
+        AND i.payment_status <> 'PAID'
+        AND i.amount_due > 0
+      """;
+
+  private static final String LINES =
+      """
+      WITH fx AS (
+          SELECT r.currency, r.rate
+          FROM jsonb_to_recordset(CAST(:rates AS jsonb)) AS r(currency varchar, rate numeric)
+      ),
+      lines AS (
+          SELECT i.trading_partner_id AS partner_id,
+                 i.currency,
+                 i.invoice_type IN (:sideTypes) AS aging_eligible,
+                 i.invoice_type = 'CREDIT_NOTE' AS credit_note,
+                 i.status = 'DISPUTED' AS disputed,
+                 i.due_date,
+                 CASE WHEN i.due_date < CAST(:asOfDate AS date)
+                      THEN CAST(:asOfDate AS date) - i.due_date
+                      ELSE 0 END AS days_overdue,
+                 CASE WHEN i.invoice_type = 'CREDIT_NOTE' THEN -1 ELSE 1 END AS sign,
+                 ROUND(ABS(i.amount_due), 4) AS document_amount,
+                 fx.rate IS NOT NULL OR UPPER(i.currency) = UPPER(:reportingCurrency) AS rated,
+                 CASE
+                     WHEN UPPER(i.currency) = UPPER(:reportingCurrency)
+                         THEN ROUND(ABS(i.amount_due), 4)
+                     WHEN fx.rate IS NOT NULL
+                         THEN ROUND(ABS(i.amount_due) * fx.rate, 4)
+                     WHEN i.issue_exchange_rate IS NOT NULL
+                         THEN ROUND(ABS(i.amount_due) * i.issue_exchange_rate, 4)
+                     ELSE ROUND(ABS(i.amount_due), 4)
+                 END AS reporting_amount
+          FROM finance.finance_invoice i
+          LEFT JOIN fx ON fx.currency = i.currency
+          WHERE %s
+            %s
+      )
+      """
+          .formatted(OPEN_INVOICES, "%s");
+
+  private static final String PARTNERS =
+      LINES
+          + """
+          , partners AS (
+              SELECT partner_id,
+                     SUM(sign * reporting_amount) AS outstanding,
+                     SUM(CASE WHEN aging_eligible AND days_overdue > 0
+                              THEN sign * reporting_amount ELSE 0 END) AS overdue,
+                     SUM(CASE WHEN credit_note THEN reporting_amount ELSE 0 END) AS unapplied,
+                     SUM(CASE WHEN aging_eligible AND days_overdue = 0
+                              THEN sign * reporting_amount ELSE 0 END) AS aging_current,
+                     SUM(CASE WHEN aging_eligible AND days_overdue BETWEEN 1 AND 30
+                              THEN sign * reporting_amount ELSE 0 END) AS aging_1_30,
+                     SUM(CASE WHEN aging_eligible AND days_overdue BETWEEN 31 AND 60
+                              THEN sign * reporting_amount ELSE 0 END) AS aging_31_60,
+                     SUM(CASE WHEN aging_eligible AND days_overdue BETWEEN 61 AND 90
+                              THEN sign * reporting_amount ELSE 0 END) AS aging_61_90,
+                     SUM(CASE WHEN aging_eligible AND days_overdue > 90
+                              THEN sign * reporting_amount ELSE 0 END) AS aging_90_plus,
+                     BOOL_OR(disputed) AS has_dispute,
+                     BOOL_OR(aging_eligible AND days_overdue >= 61) AS severe_overdue,
+                     MAX(CASE WHEN aging_eligible
+                                   AND due_date BETWEEN CAST(:asOfDate AS date)
+                                                    AND CAST(:asOfDate AS date) + 7
+                              THEN sign * reporting_amount END) AS largest_due_within_week
+              FROM lines
+              GROUP BY partner_id
+          )
+          SELECT partner_id, outstanding, overdue, unapplied, aging_current, aging_1_30,
+                 aging_31_60, aging_61_90, aging_90_plus, has_dispute, severe_overdue,
+                 largest_due_within_week,
+                 SUM(outstanding) OVER () AS total_outstanding,
+                 COUNT(*) OVER () AS partner_count
+          FROM partners
+          ORDER BY %s
+          """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final ExchangeRateService exchangeRateService;
+  private final NativeSqlSupport nativeSql;
+
+  /**
+   * Fixes the tenant, side, reporting currency and date of a report and resolves the reporting
+   * rate of every document currency that occurs among the open invoices.
+   */
+  @SuppressWarnings("unchecked")
+  public Scope scope(
+      UUID tenantId, InvoiceSide side, String reportingCurrency, LocalDate asOfDate) {
+    Scope unrated = new Scope(tenantId, side, reportingCurrency, asOfDate, "[]");
+    List<String> currencies =
+        bind(
+                entityManager.createNativeQuery(
+                    "SELECT DISTINCT i.currency FROM finance.finance_invoice i WHERE "
+                        + OPEN_INVOICES),
+                unrated,
+                false)
+            .getResultList();
+
+    List<Map<String, Object>> rates = new ArrayList<>();
+    for (String currency : currencies) {
+      if (currency == null || currency.equalsIgnoreCase(reportingCurrency)) {
+        continue;
+      }
+      exchangeRateService
+          .getRate(tenantId, currency, reportingCurrency, asOfDate)
+          .ifPresent(rate -> rates.add(Map.of("currency", currency, "rate", rate)));
+    }
+    return new Scope(
+        tenantId,
+        side,
+        reportingCurrency,
+        asOfDate,
+        nativeSql.jsonRows(rates, "reporting rates"));
+  }
+
+  /**
+   * Returns one page of partners in the given order. With a null {@code limit} every partner is
+   * returned. Ties are broken by partner id.
+   */
+  public PartnerPage partners(Scope scope, List<Order> orders, int offset, Integer limit) {
+    return page(scope, orders, offset, limit, null);
+  }
+
+  /**
+   * Returns the given partners only, in partner id order. Partners without open items are absent,
+   * and the page's total outstanding and partner count cover the given partners alone.
+   */
+  public PartnerPage partners(Scope scope, Collection<UUID> partnerIds) {
+    if (partnerIds.isEmpty()) {
+      return new PartnerPage(List.of(), zero(), 0);
+    }
+    return page(scope, List.of(), 0, null, partnerIds);
+  }
+
+  @SuppressWarnings("unchecked")
+  private PartnerPage page(
+      Scope scope, List<Order> orders, int offset, Integer limit, Collection<UUID> partnerIds) {
+    String orderBy =
+        orders.stream()
+                .map(order -> order.key().column + (order.descending() ? " DESC" : " ASC"))
+                .collect(Collectors.joining(", "))
+            + (orders.isEmpty() ? "" : ", ")
+            + "partner_id";
+    String sql =
+        PARTNERS.formatted(
+            partnerIds == null ? "" : "AND i.trading_partner_id IN (:partnerIds)", orderBy);
+    if (limit != null) {
+      sql += " LIMIT :limit OFFSET :offset";
+    }
+    Query query = bind(entityManager.createNativeQuery(sql), scope, true);
+    if (limit != null) {
+      query.setParameter("limit", limit).setParameter("offset", offset);
+    }
+    if (partnerIds != null) {
+      query.setParameter("partnerIds", partnerIds);
+    }
+    List<Object[]> rows = query.getResultList();
+    if (rows.isEmpty()) {
+      return new PartnerPage(List.of(), zero(), offset > 0 ? countPartners(scope) : 0);
+    }
+
+    List<PartnerAging> partners = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      Map<AgingBucket, BigDecimal> aging = new EnumMap<>(AgingBucket.class);
+      aging.put(AgingBucket.CURRENT, scaled(row[4]));
+      aging.put(AgingBucket.DAYS_1_30, scaled(row[5]));
+      aging.put(AgingBucket.DAYS_31_60, scaled(row[6]));
+      aging.put(AgingBucket.DAYS_61_90, scaled(row[7]));
+      aging.put(AgingBucket.DAYS_90_PLUS, scaled(row[8]));
+      partners.add(
+          new PartnerAging(
+              (UUID) row[0],
+              scaled(row[1]),
+              scaled(row[2]),
+              scaled(row[3]),
+              aging,
+              Boolean.TRUE.equals(row[9]),
+              Boolean.TRUE.equals(row[10]),
+              row[11] == null ? null : scaled(row[11])));
+    }
+    Object[] first = rows.get(0);
+    return new PartnerPage(partners, scaled(first[12]), ((Number) first[13]).longValue());
+  }
+
+  /**
+   * Returns the signed document and reporting totals per document currency of each partner,
+   * currencies in natural order.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<UUID, Map<String, CurrencyTotals>> currencyBreakdown(
+      Scope scope, Collection<UUID> partnerIds) {
+    if (partnerIds.isEmpty()) {
+      return Map.of();
+    }
+    String sql =
+        LINES.formatted("AND i.trading_partner_id IN (:partnerIds)")
+            + """
+            SELECT partner_id,
+                   currency,
+                   SUM(sign * document_amount),
+                   SUM(sign * reporting_amount)
+            FROM lines
+            GROUP BY partner_id, currency
+            """;
+    List<Object[]> rows =
+        bind(entityManager.createNativeQuery(sql), scope, true)
+            .setParameter("partnerIds", partnerIds)
+            .getResultList();
+
+    Map<UUID, Map<String, CurrencyTotals>> breakdown = new LinkedHashMap<>();
+    for (Object[] row : rows) {
+      breakdown
+          .computeIfAbsent((UUID) row[0], ignored -> new TreeMap<>())
+          .put((String) row[1], new CurrencyTotals(scaled(row[2]), scaled(row[3])));
+    }
+    return breakdown;
+  }
+
+  /**
+   * Returns the signed document and reporting totals per document currency across all partners,
+   * currencies in natural order. {@code rated} is false for a currency without a reporting rate
+   * on the scope's date, whose items fell back to their issue rate or document amount.
+   */
+  @SuppressWarnings("unchecked")
+  public List<CurrencySummary> currencyTotals(Scope scope) {
+    String sql =
+        LINES.formatted("")
+            + """
+            SELECT currency,
+                   SUM(sign * document_amount),
+                   SUM(sign * reporting_amount),
+                   BOOL_AND(rated)
+            FROM lines
+            GROUP BY currency
+            ORDER BY currency
+            """;
+    List<Object[]> rows = bind(entityManager.createNativeQuery(sql), scope, true).getResultList();
+    return rows.stream()
+        .map(
+            row ->
+                new CurrencySummary(
+                    (String) row[0], scaled(row[1]), scaled(row[2]), Boolean.TRUE.equals(row[3])))
+        .toList();
+  }
+
+  private long countPartners(Scope scope) {
+    return ((Number)
+            bind(
+                    entityManager.createNativeQuery(
+                        "SELECT COUNT(DISTINCT i.trading_partner_id) "
+                            + "FROM finance.finance_invoice i WHERE "
+                            + OPEN_INVOICES),
+                    scope,
+                    false)
+                .getSingleResult())
+        .longValue();
+  }
+
+  private static Query bind(Query query, Scope scope, boolean withLines) {
+    query
+        .setParameter("tenantId", scope.tenantId())
+        .setParameter("sideTypes", sideTypes(scope.side()))
+        .setParameter(
+            "excludedStatuses",
+            InvoiceStatus.EXCLUDED_FROM_ISSUED_REVENUE.stream().map(Enum::name).toList());
+    if (withLines) {
+      query
+          .setParameter("rates", scope.ratesJson())
+          .setParameter("asOfDate", scope.asOfDate())
+          .setParameter("reportingCurrency", scope.reportingCurrency());
+    }
+    return query;
+  }
+
+  private static List<String> sideTypes(InvoiceSide side) {
+    return switch (side) {
+      case ACCOUNTS_RECEIVABLE -> List.of(InvoiceType.SALES.name(), InvoiceType.DEBIT_NOTE.name());
+      case ACCOUNTS_PAYABLE -> List.of(InvoiceType.PURCHASE.name());
+    };
+  }
+
+  private static BigDecimal scaled(Object value) {
+    if (value == null) {
+      return zero();
+    }
+    return ((BigDecimal) value).setScale(REPORTING_SCALE, RoundingMode.HALF_UP);
+  }
+
+  private static BigDecimal zero() {
+    return BigDecimal.ZERO.setScale(REPORTING_SCALE, RoundingMode.HALF_UP);
+  }
+
+  /** Aging buckets by days past due; credit notes are never aged. */
+  public enum AgingBucket {
+    CURRENT,
+    DAYS_1_30,
+    DAYS_31_60,
+    DAYS_61_90,
+    DAYS_90_PLUS
+  }
+
+  /** Partner-level columns that can be ordered in the database. */
+  public enum SortKey {
+    OUTSTANDING("outstanding"),
+    OVERDUE_EXPOSURE("overdue"),
+    CONCENTRATION("GREATEST(outstanding, 0)");
+
+    private final String column;
+
+    SortKey(String column) {
+      this.column = column;
+    }
+  }
+
+  public record Order(SortKey key, boolean descending) {}
+
+  /**
+   * A report's fixed inputs, with the reporting rates as a {@link NativeSqlSupport#jsonRows} array
+   * of {@code currency} / {@code rate} records.
+   */
+  public record Scope(
+      UUID tenantId,
+      InvoiceSide side,
+      String reportingCurrency,
+      LocalDate asOfDate,
+      String ratesJson) {}
+
+  /**
+   * One partner's open items in the reporting currency. {@code largestDueWithinWeek} is the
+   * largest aged item falling due in the next seven days, null if there is none.
+   */
+  public record PartnerAging(
+      UUID partnerId,
+      BigDecimal outstanding,
+      BigDecimal overdueExposure,
+      BigDecimal unappliedCredits,
+      Map<AgingBucket, BigDecimal> aging,
+      boolean hasDispute,
+      boolean severeOverdue,
+      BigDecimal largestDueWithinWeek) {}
+
+  /** A page of partners plus the tenant-wide net outstanding and partner count. */
+  public record PartnerPage(
+      List<PartnerAging> partners, BigDecimal totalOutstanding, long partnerCount) {}
+
+  public record CurrencyTotals(BigDecimal documentAmount, BigDecimal reportingAmount) {}
+
+  public record CurrencySummary(
+      String currency, BigDecimal documentAmount, BigDecimal reportingAmount, boolean rated) {}
+}
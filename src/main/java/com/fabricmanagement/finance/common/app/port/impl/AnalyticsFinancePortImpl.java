@@ -12,6 +12,7 @@ import com.fabricmanagement.finance.invoice.domain.Invoice;
 import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceType;
 import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
 import com.fabricmanagement.finance.payables.app.PayablesInsightService;
 import com.fabricmanagement.finance.payables.dto.DpoDto;
 import com.fabricmanagement.finance.receivables.app.ReceivablesInsightService;
@@ -38,6 +39,7 @@ public class AnalyticsFinancePortImpl implements AnalyticsFinancePort {
   private final InvoiceSideResolver invoiceSideResolver;
   private final ReceivablesInsightService receivablesInsightService;
   private final PayablesInsightService payablesInsightService;
+  private final MetricSnapshotQueryService metricSnapshotQueryService;
   private final Clock clock;
 
   @Override
@@ -86,13 +88,18 @@ public class AnalyticsFinancePortImpl implements AnalyticsFinancePort {
   @Override
   @Transactional(readOnly = true)
   public DsoDto getDso(UUID tenantId, LocalDate asOfDate, String reportingCurrency) {
-    return receivablesInsightService.computeDso(tenantId, asOfDate, reportingCurrency);
+    return metricSnapshotQueryService
+        .findDso(tenantId, asOfDate, reportingCurrency)
+        .orElseGet(
+            () -> receivablesInsightService.computeDso(tenantId, asOfDate, reportingCurrency));
   }
 
   @Override
   @Transactional(readOnly = true)
   public DpoDto getDpo(UUID tenantId, LocalDate asOfDate, String reportingCurrency) {
-    return payablesInsightService.computeDpo(tenantId, asOfDate, reportingCurrency);
+    return metricSnapshotQueryService
+        .findDpo(tenantId, asOfDate, reportingCurrency)
+        .orElseGet(() -> payablesInsightService.computeDpo(tenantId, asOfDate, reportingCurrency));
   }
 
   private AnalyticsRevenueRecordDto processInvoice(
@@ -1,10 +1,11 @@
 package com.fabricmanagement.finance.invoice.app.scheduler;
 
-import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
-import com.fabricmanagement.common.infrastructure.tenant.TenantQueryPort;
-import com.fabricmanagement.common.infrastructure.tenant.TenantReference;
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
 import com.fabricmanagement.finance.invoice.app.InvoiceService;
-import java.util.List;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,37 +14,46 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class InvoiceOverdueNotificationJob {
+public class InvoiceOverdueNotificationJob implements ResumableTenantJob {
+
+  private static final String JOB_NAME = "invoice-overdue-notification";
 
   private final InvoiceService invoiceService;
-  private final TenantQueryPort tenantQueryPort;
+  private final TenantFanOutExecutor fanOutExecutor;
+  private final Clock clock;
 
   @Scheduled(cron = "0 0 2 * * *")
   public void notifyOverdueInvoicesForAllTenants() {
     log.info("Starting overdue invoice notification scan for all tenants");
 
-    List<TenantReference> activeTenants = tenantQueryPort.findAllActiveTenants();
-    int totalMarked = 0;
-
-    for (TenantReference tenant : activeTenants) {
-      try {
-        int marked =
-            TenantContext.executeInTenantContext(
-                tenant.id(),
-                () -> {
-                  TenantContext.setCurrentTenantUid(tenant.uid());
-                  return invoiceService.notifyOverdueInvoices(tenant.id());
-                });
-        totalMarked += marked;
-      } catch (Exception e) {
-        log.error(
-            "Failed to notify overdue invoices for tenant {}: {}", tenant.uid(), e.getMessage());
-      }
+    AtomicInteger totalMarked = new AtomicInteger();
+    TenantFanOutExecutor.Result result =
+        fanOutExecutor.run(
+            JOB_NAME,
+            runKey(),
+            tenant -> totalMarked.addAndGet(invoiceService.notifyOverdueInvoices(tenant.id())));
+
+    if (result.leaseHeld()) {
+      log.info(
+          "Overdue invoice notification scan completed. Processed {} tenants, notified {} "
+              + "invoices.",
+          result.tenants(),
+          totalMarked.get());
     }
+  }
+
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
+
+  @Override
+  public String runKey() {
+    return LocalDate.now(clock).toString();
+  }
 
-    log.info(
-        "Overdue invoice notification scan completed. Processed {} tenants, notified {} invoices.",
-        activeTenants.size(),
-        totalMarked);
+  @Override
+  public void resume() {
+    notifyOverdueInvoicesForAllTenants();
   }
 }
@@ -0,0 +1,55 @@
+package com.fabricmanagement.finance.metrics.api.controller;
+
+import com.fabricmanagement.common.infrastructure.web.ApiResponse;
+import com.fabricmanagement.common.infrastructure.web.PagedResponse;
+import com.fabricmanagement.finance.invoice.app.InvoiceSide;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
+import com.fabricmanagement.finance.metrics.dto.LedgerMetricSnapshotDto;
+import com.fabricmanagement.finance.metrics.dto.PartnerMetricSnapshotDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/finance/metric-snapshots")
+@RequiredArgsConstructor
+@Tag(name = "Finance Metric Snapshots", description = "Daily AR/AP metric history")
+public class MetricSnapshotController {
+
+  private final MetricSnapshotQueryService metricSnapshotQueryService;
+
+  @GetMapping("/ledger")
+  @PreAuthorize("@auth.can(authentication, 'finance', 'read')")
+  @Operation(summary = "Get the daily ledger metric trend of one side")
+  public ResponseEntity<ApiResponse<List<LedgerMetricSnapshotDto>>> getLedger(
+      @RequestParam InvoiceSide side,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+    return ResponseEntity.ok(
+        ApiResponse.success(metricSnapshotQueryService.getLedger(side, from, to)));
+  }
+
+  @GetMapping("/partners")
+  @PreAuthorize("@auth.can(authentication, 'finance', 'read')")
+  @Operation(summary = "List snapshotted per-partner metrics of one day")
+  public ResponseEntity<ApiResponse<PagedResponse<PartnerMetricSnapshotDto>>> getPartners(
+      @RequestParam InvoiceSide side,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate asOfDate,
+      @PageableDefault(size = 20) Pageable pageable) {
+    return ResponseEntity.ok(
+        ApiResponse.success(
+            PagedResponse.from(metricSnapshotQueryService.getPartners(side, asOfDate, pageable))));
+  }
+}
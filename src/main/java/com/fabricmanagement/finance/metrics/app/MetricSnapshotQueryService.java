@@ -0,0 +1,148 @@
+package com.fabricmanagement.finance.metrics.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.invoice.app.InvoiceSide;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.LedgerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerRow;
+import com.fabricmanagement.finance.metrics.dto.LedgerMetricSnapshotDto;
+import com.fabricmanagement.finance.metrics.dto.PartnerMetricSnapshotDto;
+import com.fabricmanagement.finance.payables.dto.DpoDto;
+import com.fabricmanagement.finance.receivables.dto.DsoDto;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads the daily receivable and payable metric snapshot written by {@link
+ * PartnerMetricSnapshotService}.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MetricSnapshotQueryService {
+
+  private final MetricSnapshotStore store;
+  private final Clock clock;
+
+  /** Ledger trend of one side over the inclusive date range, oldest first. */
+  public List<LedgerMetricSnapshotDto> getLedger(InvoiceSide side, LocalDate from, LocalDate to) {
+    UUID tenantId = TenantContext.requireTenantId();
+    return store.findLedgers(tenantId, side, from, to).stream()
+        .map(MetricSnapshotQueryService::toDto)
+        .toList();
+  }
+
+  /** Partner rows of one side for the given day (today when null), largest outstanding first. */
+  public Page<PartnerMetricSnapshotDto> getPartners(
+      InvoiceSide side, LocalDate asOfDate, Pageable pageable) {
+    UUID tenantId = TenantContext.requireTenantId();
+    LocalDate day = asOfDate != null ? asOfDate : LocalDate.now(clock);
+    long total = store.findLedger(tenantId, side, day).map(LedgerRow::partnerCount).orElse(0);
+    if (total == 0) {
+      return Page.empty(pageable);
+    }
+    List<PartnerMetricSnapshotDto> content =
+        store
+            .findPartners(tenantId, side, day, (int) pageable.getOffset(), pageable.getPageSize())
+            .stream()
+            .map(MetricSnapshotQueryService::toDto)
+            .toList();
+    return new PageImpl<>(content, pageable, total);
+  }
+
+  /** Snapshotted DSO of the day, if the day was snapshotted in the requested currency. */
+  public Optional<DsoDto> findDso(UUID tenantId, LocalDate asOfDate, String reportingCurrency) {
+    return findLedger(tenantId, InvoiceSide.ACCOUNTS_RECEIVABLE, asOfDate, reportingCurrency)
+        .map(
+            row ->
+                new DsoDto(
+                    row.windowDays(),
+                    row.daysOutstanding(),
+                    row.totalOutstanding(),
+                    row.windowVolume(),
+                    row.daysOutstandingStatus()));
+  }
+
+  /** Snapshotted DPO of the day, if the day was snapshotted in the requested currency. */
+  public Optional<DpoDto> findDpo(UUID tenantId, LocalDate asOfDate, String reportingCurrency) {
+    return findLedger(tenantId, InvoiceSide.ACCOUNTS_PAYABLE, asOfDate, reportingCurrency)
+        .map(
+            row ->
+                new DpoDto(
+                    row.windowDays(),
+                    row.daysOutstanding(),
+                    row.totalOutstanding(),
+                    row.windowVolume(),
+                    row.daysOutstandingStatus()));
+  }
+
+  /**
+   * The day's snapshot of one side as an insight summary needs it: the ledger row, the aging
+   * totals and the {@code limit} partners with the largest net outstanding. Empty unless the day
+   * was snapshotted in the requested currency.
+   */
+  public Optional<SummarySnapshot> findSummary(
+      UUID tenantId,
+      InvoiceSide side,
+      LocalDate asOfDate,
+      String reportingCurrency,
+      int limit) {
+    return findLedger(tenantId, side, asOfDate, reportingCurrency)
+        .map(
+            ledger ->
+                new SummarySnapshot(
+                    ledger,
+                    store.sumAging(tenantId, side, asOfDate),
+                    store.findPartners(tenantId, side, asOfDate, 0, limit)));
+  }
+
+  private Optional<LedgerRow> findLedger(
+      UUID tenantId, InvoiceSide side, LocalDate asOfDate, String reportingCurrency) {
+    return store
+        .findLedger(tenantId, side, asOfDate)
+        .filter(row -> row.reportingCurrency().equals(reportingCurrency));
+  }
+
+  /** One side's snapshot for a summary; {@code largestPartners} by net outstanding, descending. */
+  public record SummarySnapshot(
+      LedgerRow ledger, Map<AgingBucket, BigDecimal> aging, List<PartnerRow> largestPartners) {}
+
+  private static LedgerMetricSnapshotDto toDto(LedgerRow row) {
+    return new LedgerMetricSnapshotDto(
+        row.asOfDate(),
+        row.reportingCurrency(),
+        row.totalOutstanding(),
+        row.overdueExposure(),
+        row.partnerCount(),
+        row.windowDays(),
+        row.daysOutstanding(),
+        row.windowVolume(),
+        row.daysOutstandingStatus());
+  }
+
+  private static PartnerMetricSnapshotDto toDto(PartnerRow row) {
+    return new PartnerMetricSnapshotDto(
+        row.tradingPartnerId(),
+        row.outstanding(),
+        row.overdueExposure(),
+        row.unappliedCredits(),
+        row.agingCurrent(),
+        row.aging1To30(),
+        row.aging31To60(),
+        row.aging61To90(),
+        row.aging90Plus(),
+        row.hasDispute(),
+        row.averageDaysLate());
+  }
+}
@@ -0,0 +1,340 @@
+package com.fabricmanagement.finance.metrics.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.invoice.app.InvoiceSide;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL access to {@code finance.finance_partner_metric_snapshot} and {@code
+ * finance.finance_ledger_metric_snapshot}.
+ *
+ * <p>Partner rows are written in one statement per refresh ({@link NativeSqlSupport}); both tables
+ * are written with upserts, so two refreshes of the same partner racing each other settle on the
+ * later one instead of failing.
+ */
+@Component
+@RequiredArgsConstructor
+public class MetricSnapshotStore {
+
+  private static final String PARTNER_COLUMNS =
+      """
+      trading_partner_id, outstanding, overdue_exposure, unapplied_credits, aging_current,
+      aging_1_30, aging_31_60, aging_61_90, aging_90_plus, has_dispute, average_days_late
+      """;
+
+  private static final String LEDGER_COLUMNS =
+      """
+      as_of_date, reporting_currency, total_outstanding, overdue_exposure, partner_count,
+      window_days, days_outstanding, window_volume, days_outstanding_status
+      """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final NativeSqlSupport nativeSql;
+
+  /**
+   * Replaces the partner rows of one day and side. With null {@code partnerIds} every row of the
+   * day is replaced; otherwise only the given partners' rows are, and a given partner missing from
+   * {@code rows} is left without a row.
+   */
+  public void replacePartners(
+      UUID tenantId,
+      InvoiceSide side,
+      LocalDate asOfDate,
+      Collection<UUID> partnerIds,
+      List<PartnerRow> rows) {
+    if (partnerIds != null && partnerIds.isEmpty()) {
+      return;
+    }
+    Query delete =
+        entityManager.createNativeQuery(
+            """
+            DELETE FROM finance.finance_partner_metric_snapshot
+            WHERE tenant_id = :tenantId
+              AND side = :side
+              AND as_of_date = :asOfDate
+              %s
+            """
+                .formatted(partnerIds == null ? "" : "AND trading_partner_id IN (:partnerIds)"));
+    bindDay(delete, tenantId, side, asOfDate);
+    if (partnerIds != null) {
+      delete.setParameter("partnerIds", partnerIds);
+    }
+    delete.executeUpdate();
+
+    if (rows.isEmpty()) {
+      return;
+    }
+    Query insert =
+        entityManager
+            .createNativeQuery(
+                """
+                INSERT INTO finance.finance_partner_metric_snapshot (
+                    tenant_id, side, as_of_date, %s, refreshed_at)
+                SELECT CAST(:tenantId AS uuid), :side, CAST(:asOfDate AS date), r.*, now()
+                FROM jsonb_to_recordset(CAST(:rows AS jsonb)) AS r(
+                    trading_partner_id uuid, outstanding numeric, overdue_exposure numeric,
+                    unapplied_credits numeric, aging_current numeric, aging_1_30 numeric,
+                    aging_31_60 numeric, aging_61_90 numeric, aging_90_plus numeric,
+                    has_dispute boolean, average_days_late numeric)
+                ON CONFLICT (tenant_id, side, as_of_date, trading_partner_id) DO UPDATE
+                SET outstanding = EXCLUDED.outstanding,
+                    overdue_exposure = EXCLUDED.overdue_exposure,
+                    unapplied_credits = EXCLUDED.unapplied_credits,
+                    aging_current = EXCLUDED.aging_current,
+                    aging_1_30 = EXCLUDED.aging_1_30,
+                    aging_31_60 = EXCLUDED.aging_31_60,
+                    aging_61_90 = EXCLUDED.aging_61_90,
+                    aging_90_plus = EXCLUDED.aging_90_plus,
+                    has_dispute = EXCLUDED.has_dispute,
+                    average_days_late = EXCLUDED.average_days_late,
+                    refreshed_at = EXCLUDED.refreshed_at
+                """
+                    .formatted(PARTNER_COLUMNS))
+            .setParameter("rows", toJson(rows));
+    bindDay(insert, tenantId, side, asOfDate);
+    insert.executeUpdate();
+  }
+
+  /** Writes the ledger row of one day and side, replacing an earlier one. */
+  public void upsertLedger(UUID tenantId, InvoiceSide side, LedgerRow row) {
+    entityManager
+        .createNativeQuery(
+            """
+            INSERT INTO finance.finance_ledger_metric_snapshot (
+                tenant_id, side, %s, refreshed_at)
+            VALUES (:tenantId, :side, :asOfDate, :reportingCurrency, :totalOutstanding,
+                    :overdueExposure, :partnerCount, :windowDays, CAST(:daysOutstanding AS numeric),
+                    :windowVolume, :status, now())
+            ON CONFLICT (tenant_id, side, as_of_date) DO UPDATE
+            SET reporting_currency = EXCLUDED.reporting_currency,
+                total_outstanding = EXCLUDED.total_outstanding,
+                overdue_exposure = EXCLUDED.overdue_exposure,
+                partner_count = EXCLUDED.partner_count,
+                window_days = EXCLUDED.window_days,
+                days_outstanding = EXCLUDED.days_outstanding,
+                window_volume = EXCLUDED.window_volume,
+                days_outstanding_status = EXCLUDED.days_outstanding_status,
+                refreshed_at = EXCLUDED.refreshed_at
+            """
+                .formatted(LEDGER_COLUMNS))
+        .setParameter("tenantId", tenantId)
+        .setParameter("side", side.name())
+        .setParameter("asOfDate", row.asOfDate())
+        .setParameter("reportingCurrency", row.reportingCurrency())
+        .setParameter("totalOutstanding", row.totalOutstanding())
+        .setParameter("overdueExposure", row.overdueExposure())
+        .setParameter("partnerCount", row.partnerCount())
+        .setParameter("windowDays", row.windowDays())
+        .setParameter("daysOutstanding", row.daysOutstanding())
+        .setParameter("windowVolume", row.windowVolume())
+        .setParameter("status", row.daysOutstandingStatus())
+        .executeUpdate();
+  }
+
+  /** Sums the partner rows of one day and side: net outstanding, overdue exposure, row count. */
+  public PartnerTotals sumPartners(UUID tenantId, InvoiceSide side, LocalDate asOfDate) {
+    Query query =
+        entityManager.createNativeQuery(
+            """
+            SELECT COALESCE(SUM(outstanding), 0), COALESCE(SUM(overdue_exposure), 0), COUNT(*)
+            FROM finance.finance_partner_metric_snapshot
+            WHERE tenant_id = :tenantId
+              AND side = :side
+              AND as_of_date = :asOfDate
+            """);
+    Object[] row = (Object[]) bindDay(query, tenantId, side, asOfDate).getSingleResult();
+    return new PartnerTotals(
+        (BigDecimal) row[0], (BigDecimal) row[1], ((Number) row[2]).intValue());
+  }
+
+  /** Sums each aging bucket over the partner rows of one day and side. */
+  public Map<AgingBucket, BigDecimal> sumAging(
+      UUID tenantId, InvoiceSide side, LocalDate asOfDate) {
+    Query query =
+        entityManager.createNativeQuery(
+            """
+            SELECT COALESCE(SUM(aging_current), 0), COALESCE(SUM(aging_1_30), 0),
+                   COALESCE(SUM(aging_31_60), 0), COALESCE(SUM(aging_61_90), 0),
+                   COALESCE(SUM(aging_90_plus), 0)
+            FROM finance.finance_partner_metric_snapshot
+            WHERE tenant_id = :tenantId
+              AND side = :side
+              AND as_of_date = :asOfDate
+            """);
+    Object[] row = (Object[]) bindDay(query, tenantId, side, asOfDate).getSingleResult();
+    Map<AgingBucket, BigDecimal> aging = new EnumMap<>(AgingBucket.class);
+    AgingBucket[] buckets = AgingBucket.values();
+    for (int i = 0; i < buckets.length; i++) {
+      aging.put(buckets[i], (BigDecimal) row[i]);
+    }
+    return aging;
+  }
+
+  public boolean hasLedger(UUID tenantId, InvoiceSide side, LocalDate asOfDate) {
+    Query query =
+        entityManager.createNativeQuery(
+            """
+            SELECT COUNT(*)
+            FROM finance.finance_ledger_metric_snapshot
+            WHERE tenant_id = :tenantId
+              AND side = :side
+              AND as_of_date = :asOfDate
+            """);
+    return ((Number) bindDay(query, tenantId, side, asOfDate).getSingleResult()).longValue() > 0;
+  }
+
+  public Optional<LedgerRow> findLedger(UUID tenantId, InvoiceSide side, LocalDate asOfDate) {
+    return findLedgers(tenantId, side, asOfDate, asOfDate).stream().findFirst();
+  }
+
+  /** Ledger rows of the inclusive date range, oldest first. */
+  @SuppressWarnings("unchecked")
+  public List<LedgerRow> findLedgers(
+      UUID tenantId, InvoiceSide side, LocalDate fromDate, LocalDate toDate) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT %s
+                FROM finance.finance_ledger_metric_snapshot
+                WHERE tenant_id = :tenantId
+                  AND side = :side
+                  AND as_of_date BETWEEN :fromDate AND :toDate
+                ORDER BY as_of_date
+                """
+                    .formatted(LEDGER_COLUMNS))
+            .setParameter("tenantId", tenantId)
+            .setParameter("side", side.name())
+            .setParameter("fromDate", fromDate)
+            .setParameter("toDate", toDate)
+            .getResultList();
+    return rows.stream()
+        .map(
+            r ->
+                new LedgerRow(
+                    NativeSqlSupport.toLocalDate(r[0]),
+                    (String) r[1],
+                    (BigDecimal) r[2],
+                    (BigDecimal) r[3],
+                    ((Number) r[4]).intValue(),
+                    ((Number) r[5]).intValue(),
+                    (BigDecimal) r[6],
+                    (BigDecimal) r[7],
+                    (String) r[8]))
+        .toList();
+  }
+
+  /** One page of the day's partner rows, largest net outstanding first. */
+  @SuppressWarnings("unchecked")
+  public List<PartnerRow> findPartners(
+      UUID tenantId, InvoiceSide side, LocalDate asOfDate, int offset, int limit) {
+    Query query =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT %s
+                FROM finance.finance_partner_metric_snapshot
+                WHERE tenant_id = :tenantId
+                  AND side = :side
+                  AND as_of_date = :asOfDate
+                ORDER BY outstanding DESC, trading_partner_id
+                LIMIT :limit OFFSET :offset
+                """
+                    .formatted(PARTNER_COLUMNS))
+            .setParameter("limit", limit)
+            .setParameter("offset", offset);
+    List<Object[]> rows = bindDay(query, tenantId, side, asOfDate).getResultList();
+    return rows.stream()
+        .map(
+            r ->
+                new PartnerRow(
+                    (UUID) r[0],
+                    (BigDecimal) r[1],
+                    (BigDecimal) r[2],
+                    (BigDecimal) r[3],
+                    (BigDecimal) r[4],
+                    (BigDecimal) r[5],
+                    (BigDecimal) r[6],
+                    (BigDecimal) r[7],
+                    (BigDecimal) r[8],
+                    Boolean.TRUE.equals(r[9]),
+                    (BigDecimal) r[10]))
+        .toList();
+  }
+
+  private static Query bindDay(Query query, UUID tenantId, InvoiceSide side, LocalDate asOfDate) {
+    return query
+        .setParameter("tenantId", tenantId)
+        .setParameter("side", side.name())
+        .setParameter("asOfDate", asOfDate);
+  }
+
+  private String toJson(List<PartnerRow> rows) {
+    List<Map<String, Object>> records =
+        rows.stream()
+            .map(
+                row -> {
+                  Map<String, Object> record = new LinkedHashMap<>();
+                  record.put("trading_partner_id", row.tradingPartnerId());
+                  record.put("outstanding", row.outstanding());
+                  record.put("overdue_exposure", row.overdueExposure());
+                  record.put("unapplied_credits", row.unappliedCredits());
+                  record.put("aging_current", row.agingCurrent());
+                  record.put("aging_1_30", row.aging1To30());
+                  record.put("aging_31_60", row.aging31To60());
+                  record.put("aging_61_90", row.aging61To90());
+                  record.put("aging_90_plus", row.aging90Plus());
+                  record.put("has_dispute", row.hasDispute());
+                  record.put("average_days_late", row.averageDaysLate());
+                  return record;
+                })
+            .toList();
+    return nativeSql.jsonRows(records, "partner metric rows");
+  }
+
+  /** One partner's figures on one day, in the reporting currency. */
+  public record PartnerRow(
+      UUID tradingPartnerId,
+      BigDecimal outstanding,
+      BigDecimal overdueExposure,
+      BigDecimal unappliedCredits,
+      BigDecimal agingCurrent,
+      BigDecimal aging1To30,
+      BigDecimal aging31To60,
+      BigDecimal aging61To90,
+      BigDecimal aging90Plus,
+      boolean hasDispute,
+      BigDecimal averageDaysLate) {}
+
+  /**
+   * One side's totals on one day. {@code windowVolume} is the DSO credit sales or DPO purchases
+   * denominator; {@code daysOutstanding} is null when it is zero.
+   */
+  public record LedgerRow(
+      LocalDate asOfDate,
+      String reportingCurrency,
+      BigDecimal totalOutstanding,
+      BigDecimal overdueExposure,
+      int partnerCount,
+      int windowDays,
+      BigDecimal daysOutstanding,
+      BigDecimal windowVolume,
+      String daysOutstandingStatus) {}
+
+  public record PartnerTotals(BigDecimal outstanding, BigDecimal overdueExposure, int count) {}
+}
@@ -0,0 +1,63 @@
+package com.fabricmanagement.finance.metrics.app;
+
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
+import java.time.Clock;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job: writes the day's receivable and payable metric snapshot for every active tenant.
+ *
+ * <p>Runs after the overdue invoice scan, so aging reflects the day's status changes. Intraday
+ * changes are picked up per partner by {@link
+ * com.fabricmanagement.finance.metrics.app.listener.PartnerMetricSnapshotEventListener}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerMetricSnapshotJob implements ResumableTenantJob {
+
+  private static final String JOB_NAME = "finance-metric-snapshot";
+
+  private final TenantFanOutExecutor fanOutExecutor;
+  private final PartnerMetricSnapshotService snapshotService;
+  private final Clock clock;
+
+  /** Runs nightly at 2:30 AM by default; override with application.finance-metric-snapshot.cron */
+  @Scheduled(cron = "${application.finance-metric-snapshot.cron:0 30 2 * * ?}")
+  public void snapshotAllTenants() {
+    LocalDate asOfDate = LocalDate.now(clock);
+    TenantFanOutExecutor.Result result =
+        fanOutExecutor.run(
+            JOB_NAME,
+            asOfDate.toString(),
+            tenant -> snapshotService.refreshTenant(tenant.id(), asOfDate));
+
+    if (result.leaseHeld()) {
+      log.info(
+          "Metric snapshot completed: asOfDate={}, tenants={}, failed={}",
+          asOfDate,
+          result.tenants(),
+          result.failed() + result.timedOut());
+    }
+  }
+
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
+
+  @Override
+  public String runKey() {
+    return LocalDate.now(clock).toString();
+  }
+
+  @Override
+  public void resume() {
+    snapshotAllTenants();
+  }
+}
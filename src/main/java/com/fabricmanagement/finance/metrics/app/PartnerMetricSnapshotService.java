@@ -0,0 +1,168 @@
+package com.fabricmanagement.finance.metrics.app;
+
+import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerAging;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerPage;
+import com.fabricmanagement.finance.invoice.app.InvoiceSide;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.LedgerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerTotals;
+import com.fabricmanagement.finance.payables.app.PayablesInsightService;
+import com.fabricmanagement.finance.payables.dto.DpoDto;
+import com.fabricmanagement.finance.receivables.app.ReceivablesInsightService;
+import com.fabricmanagement.finance.receivables.dto.DsoDto;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the daily receivable and payable metric snapshot of a tenant.
+ *
+ * <p>Partner figures come from {@link OpenInvoiceAgingQuery} (one grouped query per side) and the
+ * payment-behaviour scan; DSO and DPO reuse the insight services' formulas over the snapshot's own
+ * net outstanding. A full refresh replaces the whole day; a partner refresh replaces only the given
+ * partners' rows and re-derives the ledger row from the stored partner rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerMetricSnapshotService {
+
+  private final OpenInvoiceAgingQuery agingQuery;
+  private final MetricSnapshotStore store;
+  private final ReceivablesInsightService receivablesInsightService;
+  private final PayablesInsightService payablesInsightService;
+  private final TenantReportingCurrencyPort reportingCurrencyPort;
+
+  /** Rebuilds both sides of the tenant's snapshot for the given day. */
+  @Transactional
+  public void refreshTenant(UUID tenantId, LocalDate asOfDate) {
+    for (InvoiceSide side : InvoiceSide.values()) {
+      refreshSide(tenantId, side, asOfDate, null);
+    }
+  }
+
+  /**
+   * Recomputes the given partners on both sides of the day's snapshot. A side without a snapshot
+   * for the day yet is built in full instead, so a day never holds a partial set of partners.
+   */
+  @Transactional
+  public void refreshPartners(UUID tenantId, LocalDate asOfDate, Collection<UUID> partnerIds) {
+    if (partnerIds.isEmpty()) {
+      return;
+    }
+    for (InvoiceSide side : InvoiceSide.values()) {
+      boolean incremental = store.hasLedger(tenantId, side, asOfDate);
+      refreshSide(tenantId, side, asOfDate, incremental ? partnerIds : null);
+    }
+  }
+
+  private void refreshSide(
+      UUID tenantId, InvoiceSide side, LocalDate asOfDate, Collection<UUID> partnerIds) {
+    String reportingCurrency = reportingCurrencyPort.getReportingCurrency(tenantId);
+    OpenInvoiceAgingQuery.Scope scope =
+        agingQuery.scope(tenantId, side, reportingCurrency, asOfDate);
+    PartnerPage page =
+        partnerIds == null
+            ? agingQuery.partners(scope, List.of(), 0, null)
+            : agingQuery.partners(scope, partnerIds);
+    Map<UUID, BigDecimal> averageDaysLate = averageDaysLate(tenantId, side, asOfDate, partnerIds);
+
+    List<PartnerRow> rows =
+        page.partners().stream()
+            .map(partner -> toRow(partner, averageDaysLate.get(partner.partnerId())))
+            .toList();
+    store.replacePartners(tenantId, side, asOfDate, partnerIds, rows);
+
+    PartnerTotals totals = store.sumPartners(tenantId, side, asOfDate);
+    store.upsertLedger(
+        tenantId, side, ledgerRow(tenantId, side, asOfDate, reportingCurrency, totals));
+
+    log.debug(
+        "Refreshed metric snapshot: tenantId={}, side={}, asOfDate={}, partners={}, scope={}",
+        tenantId,
+        side,
+        asOfDate,
+        rows.size(),
+        partnerIds == null ? "full" : partnerIds.size());
+  }
+
+  private Map<UUID, BigDecimal> averageDaysLate(
+      UUID tenantId, InvoiceSide side, LocalDate asOfDate, Collection<UUID> partnerIds) {
+    return switch (side) {
+      case ACCOUNTS_RECEIVABLE ->
+          partnerIds == null
+              ? receivablesInsightService.averageDaysLate(tenantId, asOfDate)
+              : receivablesInsightService.averageDaysLate(tenantId, asOfDate, partnerIds);
+      case ACCOUNTS_PAYABLE ->
+          partnerIds == null
+              ? payablesInsightService.averageDaysLate(tenantId, asOfDate)
+              : payablesInsightService.averageDaysLate(tenantId, asOfDate, partnerIds);
+    };
+  }
+
+  private LedgerRow ledgerRow(
+      UUID tenantId,
+      InvoiceSide side,
+      LocalDate asOfDate,
+      String reportingCurrency,
+      PartnerTotals totals) {
+    return switch (side) {
+      case ACCOUNTS_RECEIVABLE -> {
+        DsoDto dso =
+            receivablesInsightService.computeDso(
+                tenantId, asOfDate, reportingCurrency, totals.outstanding());
+        yield new LedgerRow(
+            asOfDate,
+            reportingCurrency,
+            totals.outstanding(),
+            totals.overdueExposure(),
+            totals.count(),
+            dso.windowDays(),
+            dso.daysSalesOutstanding(),
+            dso.creditSales(),
+            dso.status());
+      }
+      case ACCOUNTS_PAYABLE -> {
+        DpoDto dpo =
+            payablesInsightService.computeDpo(
+                tenantId, asOfDate, reportingCurrency, totals.outstanding());
+        yield new LedgerRow(
+            asOfDate,
+            reportingCurrency,
+            totals.outstanding(),
+            totals.overdueExposure(),
+            totals.count(),
+            dpo.windowDays(),
+            dpo.daysPayableOutstanding(),
+            dpo.purchases(),
+            dpo.status());
+      }
+    };
+  }
+
+  private static PartnerRow toRow(PartnerAging partner, BigDecimal averageDaysLate) {
+    Map<AgingBucket, BigDecimal> aging = partner.aging();
+    return new PartnerRow(
+        partner.partnerId(),
+        partner.outstanding(),
+        partner.overdueExposure(),
+        partner.unappliedCredits(),
+        aging.get(AgingBucket.CURRENT),
+        aging.get(AgingBucket.DAYS_1_30),
+        aging.get(AgingBucket.DAYS_31_60),
+        aging.get(AgingBucket.DAYS_61_90),
+        aging.get(AgingBucket.DAYS_90_PLUS),
+        partner.hasDispute(),
+        averageDaysLate);
+  }
+}
@@ -0,0 +1,114 @@
+package com.fabricmanagement.finance.metrics.app.listener;
+
+import com.fabricmanagement.finance.invoice.domain.Invoice;
+import com.fabricmanagement.finance.invoice.domain.event.CreditNoteAppliedEvent;
+import com.fabricmanagement.finance.invoice.domain.event.CreditNoteReversedEvent;
+import com.fabricmanagement.finance.invoice.domain.event.InvoiceCancelledEvent;
+import com.fabricmanagement.finance.invoice.domain.event.InvoiceDisputedEvent;
+import com.fabricmanagement.finance.invoice.domain.event.InvoiceIssuedEvent;
+import com.fabricmanagement.finance.invoice.domain.event.InvoiceSentEvent;
+import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.PartnerMetricSnapshotService;
+import com.fabricmanagement.finance.payment.domain.event.PaymentAllocatedEvent;
+import com.fabricmanagement.finance.payment.domain.event.PaymentVoidedEvent;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps today's metric snapshot current between nightly runs: every event that changes an open
+ * invoice's amount, status or allocation recomputes just the trading partners behind it.
+ *
+ * <p>A refresh recomputes from the invoices themselves, so redelivered events are harmless and no
+ * idempotency record is kept.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartnerMetricSnapshotEventListener {
+
+  private final PartnerMetricSnapshotService snapshotService;
+  private final InvoiceRepository invoiceRepository;
+  private final Clock clock;
+
+  @Value("${application.finance-metric-snapshot.incremental-enabled:true}")
+  private boolean incrementalEnabled;
+
+  @ApplicationModuleListener
+  public void onInvoiceIssued(InvoiceIssuedEvent event) {
+    refreshInvoices(event.getTenantId(), Collections.singleton(event.getInvoiceId()));
+  }
+
+  @ApplicationModuleListener
+  public void onInvoiceSent(InvoiceSentEvent event) {
+    refreshPartners(event.getTenantId(), Collections.singleton(event.getTradingPartnerId()));
+  }
+
+  @ApplicationModuleListener
+  public void onInvoiceDisputed(InvoiceDisputedEvent event) {
+    refreshPartners(event.getTenantId(), Collections.singleton(event.getTradingPartnerId()));
+  }
+
+  @ApplicationModuleListener
+  public void onInvoiceCancelled(InvoiceCancelledEvent event) {
+    refreshInvoices(event.getTenantId(), Collections.singleton(event.getInvoiceId()));
+  }
+
+  @ApplicationModuleListener
+  public void onCreditNoteApplied(CreditNoteAppliedEvent event) {
+    refreshInvoices(
+        event.getTenantId(), Arrays.asList(event.getCreditNoteId(), event.getTargetInvoiceId()));
+  }
+
+  @ApplicationModuleListener
+  public void onCreditNoteReversed(CreditNoteReversedEvent event) {
+    refreshInvoices(
+        event.getTenantId(), Arrays.asList(event.getCreditNoteId(), event.getTargetInvoiceId()));
+  }
+
+  @ApplicationModuleListener
+  public void onPaymentAllocated(PaymentAllocatedEvent event) {
+    refreshInvoices(event.getTenantId(), Collections.singleton(event.getInvoiceId()));
+  }
+
+  @ApplicationModuleListener
+  public void onPaymentVoided(PaymentVoidedEvent event) {
+    if (event.getAffectedInvoiceIds() != null) {
+      refreshInvoices(event.getTenantId(), event.getAffectedInvoiceIds());
+    }
+  }
+
+  private void refreshInvoices(UUID tenantId, Collection<UUID> invoiceIds) {
+    if (!incrementalEnabled) {
+      return;
+    }
+    refreshPartners(
+        tenantId,
+        invoiceRepository
+            .findAllById(invoiceIds.stream().filter(Objects::nonNull).toList())
+            .stream()
+            .map(Invoice::getTradingPartnerId)
+            .toList());
+  }
+
+  private void refreshPartners(UUID tenantId, Collection<UUID> partnerIds) {
+    Set<UUID> distinct = partnerIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    if (!incrementalEnabled || distinct.isEmpty()) {
+      return;
+    }
+    log.debug(
+        "Refreshing metric snapshot for partners: tenantId={}, partners={}", tenantId, distinct);
+    snapshotService.refreshPartners(tenantId, LocalDate.now(clock), distinct);
+  }
+}
@@ -0,0 +1,25 @@
+package com.fabricmanagement.finance.metrics.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Daily receivables or payables ledger metrics snapshot")
+public record LedgerMetricSnapshotDto(
+    @Schema(description = "Snapshot date", example = "2026-08-05") LocalDate asOfDate,
+    @Schema(description = "Tenant reporting currency", example = "EUR") String reportingCurrency,
+    @Schema(description = "Net outstanding in reporting currency", example = "100000.0000")
+        BigDecimal totalOutstanding,
+    @Schema(description = "Overdue exposure in reporting currency", example = "25000.0000")
+        BigDecimal overdueExposure,
+    @Schema(description = "Trading partners with open items", example = "42") int partnerCount,
+    @Schema(description = "Trailing DSO/DPO window in days", example = "90") int windowDays,
+    @Schema(
+            description = "DSO or DPO value, or null when there is no window volume",
+            example = "42.5000")
+        BigDecimal daysOutstanding,
+    @Schema(
+            description = "Credit sales or purchases over the window in reporting currency",
+            example = "211765.0000")
+        BigDecimal windowVolume,
+    @Schema(description = "DSO/DPO status", example = "OK") String daysOutstandingStatus) {}
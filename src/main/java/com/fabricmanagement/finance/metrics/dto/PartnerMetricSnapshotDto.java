@@ -0,0 +1,25 @@
+package com.fabricmanagement.finance.metrics.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Schema(description = "Daily per-partner receivables or payables metrics snapshot")
+public record PartnerMetricSnapshotDto(
+    @Schema(description = "Trading partner ID") UUID tradingPartnerId,
+    @Schema(description = "Net outstanding in reporting currency", example = "12500.0000")
+        BigDecimal outstanding,
+    @Schema(description = "Overdue exposure in reporting currency", example = "3000.0000")
+        BigDecimal overdueExposure,
+    @Schema(description = "Unapplied credits in reporting currency", example = "250.0000")
+        BigDecimal unappliedCredits,
+    @Schema(description = "Not yet due", example = "9500.0000") BigDecimal agingCurrent,
+    @Schema(description = "1-30 days overdue", example = "2000.0000") BigDecimal aging1To30,
+    @Schema(description = "31-60 days overdue", example = "1000.0000") BigDecimal aging31To60,
+    @Schema(description = "61-90 days overdue", example = "0.0000") BigDecimal aging61To90,
+    @Schema(description = "Over 90 days overdue", example = "0.0000") BigDecimal aging90Plus,
+    @Schema(description = "Whether any open item is disputed") boolean hasDispute,
+    @Schema(
+            description = "Average days late over the payment-behaviour window",
+            example = "6.5000")
+        BigDecimal averageDaysLate) {}
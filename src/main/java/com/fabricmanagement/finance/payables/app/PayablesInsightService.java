@@ -2,6 +2,13 @@ package com.fabricmanagement.finance.payables.app;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.CurrencySummary;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.CurrencyTotals;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerAging;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerPage;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.SortKey;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService.ConvertedAmount;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService.OpenAmountResult;
@@ -11,6 +18,10 @@ import com.fabricmanagement.finance.invoice.domain.Invoice;
 import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceType;
 import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService.SummarySnapshot;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.LedgerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerRow;
 import com.fabricmanagement.finance.payables.dto.DpoDto;
 import com.fabricmanagement.finance.payables.dto.PayablesAgingBucketDto;
 import com.fabricmanagement.finance.payables.dto.PayablesConcentrationDto;
@@ -29,6 +40,7 @@ import java.time.Clock;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -64,14 +76,92 @@ public class PayablesInsightService {
   private final TenantReportingCurrencyPort reportingCurrencyPort;
   private final OpenInvoiceAmountService openInvoiceAmountService;
   private final TradingPartnerResolver tradingPartnerResolver;
+  private final OpenInvoiceAgingQuery agingQuery;
+  private final MetricSnapshotQueryService metricSnapshotQueryService;
   private final Clock clock;
 
+  /**
+   * Today's payables summary, served from the metric snapshot when today has one in the tenant's
+   * reporting currency and computed invoice by invoice otherwise. The snapshot carries no
+   * per-invoice FX warnings; its summary warns once per document currency without a rate instead.
+   */
   public PayablesSummaryDto getSummary(Integer topN) {
     UUID tenantId = TenantContext.requireTenantId();
     LocalDate asOfDate = LocalDate.now(clock);
+    int concentrationLimit = topN == null || topN <= 0 ? 5 : topN;
+    return metricSnapshotQueryService
+        .findSummary(
+            tenantId,
+            InvoiceSide.ACCOUNTS_PAYABLE,
+            asOfDate,
+            reportingCurrencyPort.getReportingCurrency(tenantId),
+            concentrationLimit)
+        .map(snapshot -> snapshotSummary(tenantId, asOfDate, snapshot))
+        .orElseGet(() -> liveSummary(tenantId, asOfDate, concentrationLimit));
+  }
+
+  private PayablesSummaryDto snapshotSummary(
+      UUID tenantId, LocalDate asOfDate, SummarySnapshot snapshot) {
+    LedgerRow ledger = snapshot.ledger();
+    List<PayablesWarningDto> warnings = new ArrayList<>();
+    Map<String, CurrencyAccumulator> currencyTotals = new HashMap<>();
+    OpenInvoiceAgingQuery.Scope scope =
+        agingQuery.scope(
+            tenantId, InvoiceSide.ACCOUNTS_PAYABLE, ledger.reportingCurrency(), asOfDate);
+    for (CurrencySummary currency : agingQuery.currencyTotals(scope)) {
+      currencyTotals
+          .computeIfAbsent(currency.currency(), ignored -> new CurrencyAccumulator())
+          .add(currency.documentAmount(), currency.reportingAmount());
+      if (!currency.rated()) {
+        warnings.add(
+            new PayablesWarningDto(
+                "MISSING_RATE",
+                null,
+                "Missing %s->%s rate for %s; using issue rates or document amounts"
+                    .formatted(currency.currency(), ledger.reportingCurrency(), asOfDate)));
+      }
+    }
+
+    List<PartnerRow> largest =
+        snapshot.largestPartners().stream()
+            .filter(partner -> partner.outstanding().compareTo(BigDecimal.ZERO) > 0)
+            .toList();
+    List<UUID> partnerIds = largest.stream().map(PartnerRow::tradingPartnerId).toList();
+    Map<UUID, String> names =
+        partnerIds.isEmpty()
+            ? Map.of()
+            : tradingPartnerResolver.resolveDisplayNames(tenantId, new ArrayList<>(partnerIds));
+
+    return new PayablesSummaryDto(
+        asOfDate,
+        ledger.reportingCurrency(),
+        ledger.totalOutstanding(),
+        ledger.overdueExposure(),
+        percentage(ledger.overdueExposure(), ledger.totalOutstanding()),
+        agingDtos(snapshot.aging()),
+        currencyDtos(currencyTotals),
+        largest.stream()
+            .map(
+                partner ->
+                    new PayablesConcentrationDto(
+                        partner.tradingPartnerId(),
+                        names.getOrDefault(partner.tradingPartnerId(), "Unknown partner"),
+                        partner.outstanding(),
+                        percentage(partner.outstanding(), ledger.totalOutstanding())))
+            .toList(),
+        new DpoDto(
+            ledger.windowDays(),
+            ledger.daysOutstanding(),
+            ledger.totalOutstanding(),
+            ledger.windowVolume(),
+            ledger.daysOutstandingStatus()),
+        warnings);
+  }
+
+  private PayablesSummaryDto liveSummary(
+      UUID tenantId, LocalDate asOfDate, int concentrationLimit) {
     PayablesModel model = buildModel(tenantId, asOfDate);
     List<PayablesSupplierDto> suppliers = buildSuppliers(tenantId, model);
-    int concentrationLimit = topN == null || topN <= 0 ? 5 : topN;
 
     return new PayablesSummaryDto(
         asOfDate,
@@ -102,10 +192,29 @@ public class PayablesInsightService {
         model.warnings());
   }
 
+  /**
+   * Pages suppliers from {@link OpenInvoiceAgingQuery}. Ordering by outstanding, overdue exposure
+   * or concentration runs in the database; ordering by name or lateness needs resolved names and
+   * payment history, so those sorts aggregate every supplier first and order them here.
+   */
   public Page<PayablesSupplierDto> getSuppliers(Pageable pageable) {
     UUID tenantId = TenantContext.requireTenantId();
-    PayablesModel model = buildModel(tenantId, LocalDate.now(clock));
-    List<PayablesSupplierDto> suppliers = sortSuppliers(buildSuppliers(tenantId, model), pageable);
+    OpenInvoiceAgingQuery.Scope scope =
+        agingQuery.scope(
+            tenantId,
+            InvoiceSide.ACCOUNTS_PAYABLE,
+            reportingCurrencyPort.getReportingCurrency(tenantId),
+            LocalDate.now(clock));
+
+    List<OpenInvoiceAgingQuery.Order> orders = databaseOrders(pageable.getSort());
+    if (orders != null) {
+      PartnerPage page =
+          agingQuery.partners(scope, orders, (int) pageable.getOffset(), pageable.getPageSize());
+      return new PageImpl<>(suppliers(scope, page), pageable, page.partnerCount());
+    }
+
+    List<PayablesSupplierDto> suppliers =
+        sortSuppliers(suppliers(scope, agingQuery.partners(scope, List.of(), 0, null)), pageable);
     int fromIndex = Math.min((int) pageable.getOffset(), suppliers.size());
     int toIndex = Math.min(fromIndex + pageable.getPageSize(), suppliers.size());
     return new PageImpl<>(suppliers.subList(fromIndex, toIndex), pageable, suppliers.size());
@@ -121,6 +230,23 @@ public class PayablesInsightService {
         tenantId, asOfDate, reportingCurrency, model.totalOutstanding(), model.warnings());
   }
 
+  /**
+   * Computes DPO over an already known net AP, as aggregated by {@link OpenInvoiceAgingQuery}, so
+   * only the purchases window is read.
+   */
+  public DpoDto computeDpo(
+      UUID tenantId, LocalDate asOfDate, String reportingCurrency, BigDecimal netAccountsPayable) {
+    return buildDpo(tenantId, asOfDate, reportingCurrency, netAccountsPayable, new ArrayList<>());
+  }
+
+  /**
+   * Supplier rollup computed invoice by invoice in memory — the pipeline behind {@link
+   * #getSummary}, and the reference the database aggregation is held to.
+   */
+  List<PayablesSupplierDto> computeSuppliers(UUID tenantId, LocalDate asOfDate) {
+    return buildSuppliers(tenantId, buildModel(tenantId, asOfDate));
+  }
+
   private PayablesModel buildModel(UUID tenantId, LocalDate asOfDate) {
     String reportingCurrency = reportingCurrencyPort.getReportingCurrency(tenantId);
     List<PayablesWarningDto> warnings = new ArrayList<>();
@@ -265,31 +391,115 @@ public class PayablesInsightService {
                   agingDtos(aging),
                   currencyDtos(currencyTotals),
                   riskFlags(
-                      lines, outstanding, overdue, model.asOfDate(), model.totalOutstanding()));
+                      largestDueWithinWeek(lines, model.asOfDate()),
+                      outstanding,
+                      overdue,
+                      model.totalOutstanding()));
             })
         .toList();
   }
 
-  private Map<UUID, BigDecimal> averageDaysLate(UUID tenantId, LocalDate asOfDate) {
+  private List<PayablesSupplierDto> suppliers(OpenInvoiceAgingQuery.Scope scope, PartnerPage page) {
+    if (page.partners().isEmpty()) {
+      return List.of();
+    }
+    List<UUID> partnerIds = page.partners().stream().map(PartnerAging::partnerId).toList();
+    Map<UUID, String> names =
+        tradingPartnerResolver.resolveDisplayNames(scope.tenantId(), new ArrayList<>(partnerIds));
+    Map<UUID, BigDecimal> averageDaysLate = averageDaysLate(scope.tenantId(), scope.asOfDate());
+    Map<UUID, Map<String, CurrencyTotals>> currencies =
+        agingQuery.currencyBreakdown(scope, partnerIds);
+
+    return page.partners().stream()
+        .map(
+            partner -> {
+              BigDecimal avgLate =
+                  averageDaysLate
+                      .getOrDefault(partner.partnerId(), BigDecimal.ZERO)
+                      .setScale(PERCENT_SCALE, RoundingMode.HALF_UP);
+              Map<String, CurrencyAccumulator> currencyTotals = new HashMap<>();
+              currencies
+                  .getOrDefault(partner.partnerId(), Map.of())
+                  .forEach(
+                      (currency, totals) ->
+                          currencyTotals
+                              .computeIfAbsent(currency, ignored -> new CurrencyAccumulator())
+                              .add(totals.documentAmount(), totals.reportingAmount()));
+              return new PayablesSupplierDto(
+                  partner.partnerId(),
+                  names.getOrDefault(partner.partnerId(), "Unknown partner"),
+                  partner.outstanding(),
+                  partner.unappliedCredits(),
+                  partner.overdueExposure(),
+                  percentage(partner.outstanding().max(BigDecimal.ZERO), page.totalOutstanding()),
+                  partner.hasDispute(),
+                  avgLate,
+                  agingDtos(partner.aging()),
+                  currencyDtos(currencyTotals),
+                  riskFlags(
+                      partner.largestDueWithinWeek(),
+                      partner.outstanding(),
+                      partner.overdueExposure(),
+                      page.totalOutstanding()));
+            })
+        .toList();
+  }
+
+  /** The largest aged item falling due within the next seven days, or null. */
+  private BigDecimal largestDueWithinWeek(List<PayableLine> lines, LocalDate asOfDate) {
+    return lines.stream()
+        .filter(PayableLine::agingEligible)
+        .filter(
+            line -> {
+              long daysToDue = asOfDate.until(line.invoice().getDueDate(), ChronoUnit.DAYS);
+              return daysToDue >= 0 && daysToDue <= 7;
+            })
+        .map(PayableLine::signedReportingAmount)
+        .max(Comparator.naturalOrder())
+        .orElse(null);
+  }
+
+  /** Average late days per supplier over the trailing payment-behaviour window. */
+  public Map<UUID, BigDecimal> averageDaysLate(UUID tenantId, LocalDate asOfDate) {
+    LocalDate fromDate = asOfDate.minusDays(PAYMENT_BEHAVIOR_WINDOW_DAYS);
+    return averageDaysLate(
+        paymentAllocationRepository.findPaymentTimingRows(
+            tenantId, PaymentDirection.OUTBOUND, PaymentStatus.VOIDED, fromDate, asOfDate));
+  }
+
+  /** Average late days of the given suppliers only; suppliers without payments are absent. */
+  public Map<UUID, BigDecimal> averageDaysLate(
+      UUID tenantId, LocalDate asOfDate, Collection<UUID> partnerIds) {
+    if (partnerIds.isEmpty()) {
+      return Map.of();
+    }
     LocalDate fromDate = asOfDate.minusDays(PAYMENT_BEHAVIOR_WINDOW_DAYS);
+    return averageDaysLate(
+        paymentAllocationRepository.findPaymentTimingRowsForPartners(
+            tenantId,
+            PaymentDirection.OUTBOUND,
+            PaymentStatus.VOIDED,
+            fromDate,
+            asOfDate,
+            partnerIds));
+  }
+
+  private static Map<UUID, BigDecimal> averageDaysLate(List<Object[]> timingRows) {
     record LateDays(long total, long count) {
       LateDays add(long days) {
         return new LateDays(total + days, count + 1);
       }
     }
     Map<UUID, LateDays> totals = new HashMap<>();
-    paymentAllocationRepository
-        .findPaymentTimingRows(
-            tenantId, PaymentDirection.OUTBOUND, PaymentStatus.VOIDED, fromDate, asOfDate)
-        .forEach(
-            row -> {
-              UUID partnerId = (UUID) row[0];
-              LocalDate dueDate = (LocalDate) row[1];
-              LocalDate paymentDate = (LocalDate) row[2];
-              long daysLate = Math.max(0, ChronoUnit.DAYS.between(dueDate, paymentDate));
-              totals.merge(
-                  partnerId, new LateDays(daysLate, 1), (left, right) -> left.add(right.total()));
-            });
+    timingRows.forEach(
+        row -> {
+          UUID partnerId = (UUID) row[0];
+          LocalDate dueDate = (LocalDate) row[1];
+          LocalDate paymentDate = (LocalDate) row[2];
+          long daysLate = Math.max(0, ChronoUnit.DAYS.between(dueDate, paymentDate));
+          totals.merge(
+              partnerId, new LateDays(daysLate, 1), (left, right) -> left.add(right.total()));
+        });
     return totals.entrySet().stream()
         .collect(
             Collectors.toMap(
@@ -346,10 +556,9 @@ public class PayablesInsightService {
   }
 
   private List<PayablesRiskFlagDto> riskFlags(
-      List<PayableLine> lines,
+      BigDecimal largestDueWithinWeek,
       BigDecimal outstanding,
       BigDecimal overdue,
-      LocalDate asOfDate,
       BigDecimal totalOutstanding) {
     List<PayablesRiskFlagDto> flags = new ArrayList<>();
 
@@ -366,19 +575,10 @@ public class PayablesInsightService {
     }
 
     boolean hasLargeUpcomingOutflow =
-        lines.stream()
-            .filter(PayableLine::agingEligible)
-            .anyMatch(
-                line -> {
-                  long daysToDue = asOfDate.until(line.invoice().getDueDate(), ChronoUnit.DAYS);
-                  if (daysToDue >= 0 && daysToDue <= 7) {
-                    return percentage(
-                                line.signedReportingAmount().max(BigDecimal.ZERO), totalOutstanding)
-                            .compareTo(HIGH_CONCENTRATION_PERCENT)
-                        >= 0;
-                  }
-                  return false;
-                });
+        largestDueWithinWeek != null
+            && percentage(largestDueWithinWeek.max(BigDecimal.ZERO), totalOutstanding)
+                    .compareTo(HIGH_CONCENTRATION_PERCENT)
+                >= 0;
 
     if (hasLargeUpcomingOutflow) {
       flags.add(
@@ -406,6 +606,31 @@ public class PayablesInsightService {
     return suppliers.stream().sorted(comparator).toList();
   }
 
+  /**
+   * Maps the requested sort to database orders, or returns null when it names a property only
+   * known after aggregation (trading partner name, average days late).
+   */
+  private List<OpenInvoiceAgingQuery.Order> databaseOrders(Sort sort) {
+    List<OpenInvoiceAgingQuery.Order> orders = new ArrayList<>();
+    for (Sort.Order order : sort) {
+      SortKey key =
+          switch (order.getProperty()) {
+            case "tradingPartnerName", "averageDaysLate" -> null;
+            case "overdueExposure" -> SortKey.OVERDUE_EXPOSURE;
+            case "concentrationPercent" -> SortKey.CONCENTRATION;
+            default -> SortKey.OUTSTANDING;
+          };
+      if (key == null) {
+        return null;
+      }
+      orders.add(new OpenInvoiceAgingQuery.Order(key, order.isDescending()));
+    }
+    if (orders.isEmpty()) {
+      orders.add(new OpenInvoiceAgingQuery.Order(SortKey.OUTSTANDING, true));
+    }
+    return orders;
+  }
+
   private Comparator<PayablesSupplierDto> comparatorFor(String property) {
     return switch (property) {
       case "tradingPartnerName" -> Comparator.comparing(PayablesSupplierDto::tradingPartnerName);
@@ -486,14 +711,6 @@ public class PayablesInsightService {
         .divide(denominator, PERCENT_SCALE, RoundingMode.HALF_UP);
   }
 
-  private enum AgingBucket {
-    CURRENT,
-    DAYS_1_30,
-    DAYS_31_60,
-    DAYS_61_90,
-    DAYS_90_PLUS
-  }
-
   private record PayableLine(
       Invoice invoice,
       BigDecimal signedDocumentAmount,
@@ -4,6 +4,7 @@ import com.fabricmanagement.finance.payment.domain.PaymentAllocation;
 import com.fabricmanagement.finance.payment.domain.PaymentDirection;
 import com.fabricmanagement.finance.payment.domain.PaymentStatus;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,4 +36,23 @@ public interface PaymentAllocationRepository extends JpaRepository<PaymentAlloca
       @Param("voidedStatus") PaymentStatus voidedStatus,
       @Param("fromDate") LocalDate fromDate,
       @Param("toDate") LocalDate toDate);
+
+  @Query(
+      "SELECT i.tradingPartnerId, i.dueDate, p.paymentDate "
+          + "FROM PaymentAllocation a "
+          + "JOIN Payment p ON p.id = a.paymentId AND p.tenantId = a.tenantId "
+          + "JOIN Invoice i ON i.id = a.invoiceId AND i.tenantId = a.tenantId "
+          + "WHERE a.tenantId = :tenantId "
+          + "AND a.isActive = true "
+          + "AND p.status <> :voidedStatus "
+          + "AND p.direction = :direction "
+          + "AND p.paymentDate BETWEEN :fromDate AND :toDate "
+          + "AND i.tradingPartnerId IN :partnerIds")
+  List<Object[]> findPaymentTimingRowsForPartners(
+      @Param("tenantId") UUID tenantId,
+      @Param("direction") PaymentDirection direction,
+      @Param("voidedStatus") PaymentStatus voidedStatus,
+      @Param("fromDate") LocalDate fromDate,
+      @Param("toDate") LocalDate toDate,
+      @Param("partnerIds") Collection<UUID> partnerIds);
 }
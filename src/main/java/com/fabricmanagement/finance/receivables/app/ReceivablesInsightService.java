@@ -2,6 +2,13 @@ package com.fabricmanagement.finance.receivables.app;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.CurrencySummary;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.CurrencyTotals;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerAging;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerPage;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.SortKey;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService.ConvertedAmount;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService.OpenAmountResult;
@@ -11,6 +18,10 @@ import com.fabricmanagement.finance.invoice.domain.Invoice;
 import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceType;
 import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService.SummarySnapshot;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.LedgerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerRow;
 import com.fabricmanagement.finance.payment.domain.PaymentDirection;
 import com.fabricmanagement.finance.payment.domain.PaymentStatus;
 import com.fabricmanagement.finance.payment.infra.repository.PaymentAllocationRepository;
@@ -29,6 +40,7 @@ import java.time.Clock;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -64,14 +76,92 @@ public class ReceivablesInsightService {
   private final TenantReportingCurrencyPort reportingCurrencyPort;
   private final OpenInvoiceAmountService openInvoiceAmountService;
   private final TradingPartnerResolver tradingPartnerResolver;
+  private final OpenInvoiceAgingQuery agingQuery;
+  private final MetricSnapshotQueryService metricSnapshotQueryService;
   private final Clock clock;
 
+  /**
+   * Today's receivables summary, served from the metric snapshot when today has one in the
+   * tenant's reporting currency and computed invoice by invoice otherwise. The snapshot carries no
+   * per-invoice FX warnings; its summary warns once per document currency without a rate instead.
+   */
   public ReceivablesSummaryDto getSummary(Integer topN) {
     UUID tenantId = TenantContext.requireTenantId();
     LocalDate asOfDate = LocalDate.now(clock);
+    int concentrationLimit = topN == null || topN <= 0 ? 5 : topN;
+    return metricSnapshotQueryService
+        .findSummary(
+            tenantId,
+            InvoiceSide.ACCOUNTS_RECEIVABLE,
+            asOfDate,
+            reportingCurrencyPort.getReportingCurrency(tenantId),
+            concentrationLimit)
+        .map(snapshot -> snapshotSummary(tenantId, asOfDate, snapshot))
+        .orElseGet(() -> liveSummary(tenantId, asOfDate, concentrationLimit));
+  }
+
+  private ReceivablesSummaryDto snapshotSummary(
+      UUID tenantId, LocalDate asOfDate, SummarySnapshot snapshot) {
+    LedgerRow ledger = snapshot.ledger();
+    List<ReceivablesWarningDto> warnings = new ArrayList<>();
+    Map<String, CurrencyAccumulator> currencyTotals = new HashMap<>();
+    OpenInvoiceAgingQuery.Scope scope =
+        agingQuery.scope(
+            tenantId, InvoiceSide.ACCOUNTS_RECEIVABLE, ledger.reportingCurrency(), asOfDate);
+    for (CurrencySummary currency : agingQuery.currencyTotals(scope)) {
+      currencyTotals
+          .computeIfAbsent(currency.currency(), ignored -> new CurrencyAccumulator())
+          .add(currency.documentAmount(), currency.reportingAmount());
+      if (!currency.rated()) {
+        warnings.add(
+            new ReceivablesWarningDto(
+                "MISSING_RATE",
+                null,
+                "Missing %s->%s rate for %s; using issue rates or document amounts"
+                    .formatted(currency.currency(), ledger.reportingCurrency(), asOfDate)));
+      }
+    }
+
+    List<PartnerRow> largest =
+        snapshot.largestPartners().stream()
+            .filter(partner -> partner.outstanding().compareTo(BigDecimal.ZERO) > 0)
+            .toList();
+    List<UUID> partnerIds = largest.stream().map(PartnerRow::tradingPartnerId).toList();
+    Map<UUID, String> names =
+        partnerIds.isEmpty()
+            ? Map.of()
+            : tradingPartnerResolver.resolveDisplayNames(tenantId, new ArrayList<>(partnerIds));
+
+    return new ReceivablesSummaryDto(
+        asOfDate,
+        ledger.reportingCurrency(),
+        ledger.totalOutstanding(),
+        ledger.overdueExposure(),
+        percentage(ledger.overdueExposure(), ledger.totalOutstanding()),
+        agingDtos(snapshot.aging()),
+        currencyDtos(currencyTotals),
+        largest.stream()
+            .map(
+                partner ->
+                    new ReceivablesConcentrationDto(
+                        partner.tradingPartnerId(),
+                        names.getOrDefault(partner.tradingPartnerId(), "Unknown partner"),
+                        partner.outstanding(),
+                        percentage(partner.outstanding(), ledger.totalOutstanding())))
+            .toList(),
+        new DsoDto(
+            ledger.windowDays(),
+            ledger.daysOutstanding(),
+            ledger.totalOutstanding(),
+            ledger.windowVolume(),
+            ledger.daysOutstandingStatus()),
+        warnings);
+  }
+
+  private ReceivablesSummaryDto liveSummary(
+      UUID tenantId, LocalDate asOfDate, int concentrationLimit) {
     ReceivablesModel model = buildModel(tenantId, asOfDate);
     List<ReceivablesCustomerDto> customers = buildCustomers(tenantId, model);
-    int concentrationLimit = topN == null || topN <= 0 ? 5 : topN;
 
     return new ReceivablesSummaryDto(
         asOfDate,
@@ -102,11 +192,29 @@ public class ReceivablesInsightService {
         model.warnings());
   }
 
+  /**
+   * Pages customers from {@link OpenInvoiceAgingQuery}. Ordering by outstanding, overdue exposure
+   * or concentration runs in the database; ordering by name or lateness needs resolved names and
+   * payment history, so those sorts aggregate every customer first and order them here.
+   */
   public Page<ReceivablesCustomerDto> getCustomers(Pageable pageable) {
     UUID tenantId = TenantContext.requireTenantId();
-    ReceivablesModel model = buildModel(tenantId, LocalDate.now(clock));
+    OpenInvoiceAgingQuery.Scope scope =
+        agingQuery.scope(
+            tenantId,
+            InvoiceSide.ACCOUNTS_RECEIVABLE,
+            reportingCurrencyPort.getReportingCurrency(tenantId),
+            LocalDate.now(clock));
+
+    List<OpenInvoiceAgingQuery.Order> orders = databaseOrders(pageable.getSort());
+    if (orders != null) {
+      PartnerPage page =
+          agingQuery.partners(scope, orders, (int) pageable.getOffset(), pageable.getPageSize());
+      return new PageImpl<>(customers(scope, page), pageable, page.partnerCount());
+    }
+
     List<ReceivablesCustomerDto> customers =
-        sortCustomers(buildCustomers(tenantId, model), pageable);
+        sortCustomers(customers(scope, agingQuery.partners(scope, List.of(), 0, null)), pageable);
     int fromIndex = Math.min((int) pageable.getOffset(), customers.size());
     int toIndex = Math.min(fromIndex + pageable.getPageSize(), customers.size());
     return new PageImpl<>(customers.subList(fromIndex, toIndex), pageable, customers.size());
@@ -122,6 +230,27 @@ public class ReceivablesInsightService {
         tenantId, asOfDate, reportingCurrency, model.totalOutstanding(), model.warnings());
   }
 
+  /**
+   * Computes DSO over an already known net AR, as aggregated by {@link OpenInvoiceAgingQuery}, so
+   * only the credit sales window is read.
+   */
+  public DsoDto computeDso(
+      UUID tenantId,
+      LocalDate asOfDate,
+      String reportingCurrency,
+      BigDecimal netAccountsReceivable) {
+    return buildDso(
+        tenantId, asOfDate, reportingCurrency, netAccountsReceivable, new ArrayList<>());
+  }
+
+  /**
+   * Customer rollup computed invoice by invoice in memory — the pipeline behind {@link
+   * #getSummary}, and the reference the database aggregation is held to.
+   */
+  List<ReceivablesCustomerDto> computeCustomers(UUID tenantId, LocalDate asOfDate) {
+    return buildCustomers(tenantId, buildModel(tenantId, asOfDate));
+  }
+
   private ReceivablesModel buildModel(UUID tenantId, LocalDate asOfDate) {
     String reportingCurrency = reportingCurrencyPort.getReportingCurrency(tenantId);
     List<ReceivablesWarningDto> warnings = new ArrayList<>();
@@ -270,36 +399,106 @@ public class ReceivablesInsightService {
                   agingDtos(aging),
                   currencyDtos(currencyTotals),
                   riskFlags(
-                      lines,
+                      lines.stream()
+                          .filter(ReceivableLine::agingEligible)
+                          .anyMatch(line -> line.invoice().getDaysOverdue(model.asOfDate()) >= 61),
                       outstanding,
                       overdue,
                       avgLate,
-                      model.asOfDate(),
                       model.totalOutstanding()));
             })
         .toList();
   }
 
-  private Map<UUID, BigDecimal> averageDaysLate(UUID tenantId, LocalDate asOfDate) {
+  private List<ReceivablesCustomerDto> customers(
+      OpenInvoiceAgingQuery.Scope scope, PartnerPage page) {
+    if (page.partners().isEmpty()) {
+      return List.of();
+    }
+    List<UUID> partnerIds = page.partners().stream().map(PartnerAging::partnerId).toList();
+    Map<UUID, String> names =
+        tradingPartnerResolver.resolveDisplayNames(scope.tenantId(), new ArrayList<>(partnerIds));
+    Map<UUID, BigDecimal> averageDaysLate = averageDaysLate(scope.tenantId(), scope.asOfDate());
+    Map<UUID, Map<String, CurrencyTotals>> currencies =
+        agingQuery.currencyBreakdown(scope, partnerIds);
+
+    return page.partners().stream()
+        .map(
+            partner -> {
+              BigDecimal avgLate =
+                  averageDaysLate
+                      .getOrDefault(partner.partnerId(), BigDecimal.ZERO)
+                      .setScale(PERCENT_SCALE, RoundingMode.HALF_UP);
+              Map<String, CurrencyAccumulator> currencyTotals = new HashMap<>();
+              currencies
+                  .getOrDefault(partner.partnerId(), Map.of())
+                  .forEach(
+                      (currency, totals) ->
+                          currencyTotals
+                              .computeIfAbsent(currency, ignored -> new CurrencyAccumulator())
+                              .add(totals.documentAmount(), totals.reportingAmount()));
+              return new ReceivablesCustomerDto(
+                  partner.partnerId(),
+                  names.getOrDefault(partner.partnerId(), "Unknown partner"),
+                  partner.outstanding(),
+                  partner.unappliedCredits(),
+                  partner.overdueExposure(),
+                  percentage(partner.outstanding().max(BigDecimal.ZERO), page.totalOutstanding()),
+                  partner.hasDispute(),
+                  avgLate,
+                  agingDtos(partner.aging()),
+                  currencyDtos(currencyTotals),
+                  riskFlags(
+                      partner.severeOverdue(),
+                      partner.outstanding(),
+                      partner.overdueExposure(),
+                      avgLate,
+                      page.totalOutstanding()));
+            })
+        .toList();
+  }
+
+  /** Average late days per customer over the trailing payment-behaviour window. */
+  public Map<UUID, BigDecimal> averageDaysLate(UUID tenantId, LocalDate asOfDate) {
+    LocalDate fromDate = asOfDate.minusDays(PAYMENT_BEHAVIOR_WINDOW_DAYS);
+    return averageDaysLate(
+        paymentAllocationRepository.findPaymentTimingRows(
+            tenantId, PaymentDirection.INBOUND, PaymentStatus.VOIDED, fromDate, asOfDate));
+  }
+
+  /** Average late days of the given customers only; customers without payments are absent. */
+  public Map<UUID, BigDecimal> averageDaysLate(
+      UUID tenantId, LocalDate asOfDate, Collection<UUID> partnerIds) {
+    if (partnerIds.isEmpty()) {
+      return Map.of();
+    }
     LocalDate fromDate = asOfDate.minusDays(PAYMENT_BEHAVIOR_WINDOW_DAYS);
+    return averageDaysLate(
+        paymentAllocationRepository.findPaymentTimingRowsForPartners(
+            tenantId,
+            PaymentDirection.INBOUND,
+            PaymentStatus.VOIDED,
+            fromDate,
+            asOfDate,
+            partnerIds));
+  }
+
+  private static Map<UUID, BigDecimal> averageDaysLate(List<Object[]> timingRows) {
     record LateDays(long total, long count) {
       LateDays add(long days) {
         return new LateDays(total + days, count + 1);
       }
     }
     Map<UUID, LateDays> totals = new HashMap<>();
-    paymentAllocationRepository
-        .findPaymentTimingRows(
-            tenantId, PaymentDirection.INBOUND, PaymentStatus.VOIDED, fromDate, asOfDate)
-        .forEach(
-            row -> {
-              UUID partnerId = (UUID) row[0];
-              LocalDate dueDate = (LocalDate) row[1];
-              LocalDate paymentDate = (LocalDate) row[2];
-              long daysLate = Math.max(0, ChronoUnit.DAYS.between(dueDate, paymentDate));
-              totals.merge(
-                  partnerId, new LateDays(daysLate, 1), (left, right) -> left.add(right.total()));
-            });
+    timingRows.forEach(
+        row -> {
+          UUID partnerId = (UUID) row[0];
+          LocalDate dueDate = (LocalDate) row[1];
+          LocalDate paymentDate = (LocalDate) row[2];
+          long daysLate = Math.max(0, ChronoUnit.DAYS.between(dueDate, paymentDate));
+          totals.merge(
+              partnerId, new LateDays(daysLate, 1), (left, right) -> left.add(right.total()));
+        });
     return totals.entrySet().stream()
         .collect(
             Collectors.toMap(
@@ -359,20 +558,15 @@ public class ReceivablesInsightService {
   }
 
   private List<ReceivablesRiskFlagDto> riskFlags(
-      List<ReceivableLine> lines,
+      boolean severeOverdue,
       BigDecimal outstanding,
       BigDecimal overdue,
       BigDecimal averageDaysLate,
-      LocalDate asOfDate,
       BigDecimal totalOutstanding) {
     List<ReceivablesRiskFlagDto> flags = new ArrayList<>();
     if (overdue.compareTo(BigDecimal.ZERO) > 0) {
       flags.add(new ReceivablesRiskFlagDto("OVERDUE_BALANCE", "Customer has overdue receivables"));
     }
-    boolean severeOverdue =
-        lines.stream()
-            .filter(ReceivableLine::agingEligible)
-            .anyMatch(line -> line.invoice().getDaysOverdue(asOfDate) >= 61);
     if (severeOverdue) {
       flags.add(
           new ReceivablesRiskFlagDto("SEVERE_OVERDUE", "Customer has receivables 61+ days late"));
@@ -408,6 +602,31 @@ public class ReceivablesInsightService {
     return customers.stream().sorted(comparator).toList();
   }
 
+  /**
+   * Maps the requested sort to database orders, or returns null when it names a property only
+   * known after aggregation (trading partner name, average days late).
+   */
+  private List<OpenInvoiceAgingQuery.Order> databaseOrders(Sort sort) {
+    List<OpenInvoiceAgingQuery.Order> orders = new ArrayList<>();
+    for (Sort.Order order : sort) {
+      SortKey key =
+          switch (order.getProperty()) {
+            case "tradingPartnerName", "averageDaysLate" -> null;
+            case "overdueExposure" -> SortKey.OVERDUE_EXPOSURE;
+            case "concentrationPercent" -> SortKey.CONCENTRATION;
+            default -> SortKey.OUTSTANDING;
+          };
+      if (key == null) {
+        return null;
+      }
+      orders.add(new OpenInvoiceAgingQuery.Order(key, order.isDescending()));
+    }
+    if (orders.isEmpty()) {
+      orders.add(new OpenInvoiceAgingQuery.Order(SortKey.OUTSTANDING, true));
+    }
+    return orders;
+  }
+
   private Comparator<ReceivablesCustomerDto> comparatorFor(String property) {
     return switch (property) {
       case "tradingPartnerName" -> Comparator.comparing(ReceivablesCustomerDto::tradingPartnerName);
@@ -488,14 +707,6 @@ public class ReceivablesInsightService {
         .divide(denominator, PERCENT_SCALE, RoundingMode.HALF_UP);
   }
 
-  private enum AgingBucket {
-    CURRENT,
-    DAYS_1_30,
-    DAYS_31_60,
-    DAYS_61_90,
-    DAYS_90_PLUS
-  }
-
   private record ReceivableLine(
       Invoice invoice,
       BigDecimal signedDocumentAmount,
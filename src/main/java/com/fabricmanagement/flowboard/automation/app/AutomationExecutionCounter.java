@@ -0,0 +1,124 @@
+package com.fabricmanagement.flowboard.automation.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.flowboard.automation.domain.AutomationRule;
+import com.fabricmanagement.flowboard.automation.infra.repository.AutomationRuleRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Kural çalıştırma sayaçlarını bellekte biriktirir ve toplu yazar.
+ *
+ * <p>Her çalıştırmada kuralı kaydetmek yerine kural başına artış ve son çalıştırma zamanı
+ * tutulur; {@code execution-flush-interval} aralıklarla tenant başına tek transaction'da {@code
+ * UPDATE ... SET execution_count = execution_count + n} olarak yazılır. Yazım başarısız olursa
+ * artışlar bir sonraki tura geri konur; kapanışta kalanlar yazılır.
+ *
+ * <p>Çalıştırma, değerlendirmeyi yapan transaction commit edildikten sonra sayılır; geri alınan
+ * bir değerlendirmenin aksiyonları da geri alındığından sayaca ve limite işlenmez.
+ *
+ * <p>Scheduler thread'inin tenant'ı yoktur; her tenant'ın yazımı kendi {@link TenantContext}'inde,
+ * RLS altında çalışır.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AutomationExecutionCounter {
+
+  private final AutomationRuleRepository ruleRepo;
+  private final TransactionTemplate transactionTemplate;
+
+  private final ConcurrentHashMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+  /**
+   * Çalıştırmayı commit sonrasında derlenmiş kurala (limit kontrolü) ve yazılacak artışlara işler;
+   * transaction yoksa hemen işler.
+   */
+  void record(CompiledAutomationRule compiled) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      count(compiled);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            count(compiled);
+          }
+        });
+  }
+
+  private void count(CompiledAutomationRule compiled) {
+    compiled.markExecuted();
+    AutomationRule rule = compiled.rule();
+    pending.merge(rule.getId(), new Pending(rule.getTenantId(), 1, Instant.now()), Pending::plus);
+  }
+
+  @Scheduled(fixedDelayString = "${application.automation.execution-flush-interval:PT5S}")
+  public void flush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    Map<UUID, List<Map.Entry<UUID, Pending>>> byTenant = new HashMap<>();
+    for (UUID ruleId : pending.keySet()) {
+      Pending executions = pending.remove(ruleId);
+      if (executions != null) {
+        byTenant
+            .computeIfAbsent(executions.tenantId(), t -> new ArrayList<>())
+            .add(Map.entry(ruleId, executions));
+      }
+    }
+    byTenant.forEach(this::write);
+  }
+
+  @PreDestroy
+  void flushOnShutdown() {
+    flush();
+  }
+
+  private void write(UUID tenantId, List<Map.Entry<UUID, Pending>> entries) {
+    try {
+      TenantContext.executeInTenantContext(
+          tenantId,
+          () ->
+              transactionTemplate.executeWithoutResult(
+                  status ->
+                      entries.forEach(
+                          e ->
+                              ruleRepo.addExecutions(
+                                  e.getKey(),
+                                  tenantId,
+                                  e.getValue().executions(),
+                                  e.getValue().lastExecutedAt()))));
+    } catch (RuntimeException ex) {
+      entries.forEach(e -> pending.merge(e.getKey(), e.getValue(), Pending::plus));
+      log.warn(
+          "AutomationExecutionCounter: flush failed for tenant={} rules={} — will retry: {}",
+          tenantId,
+          entries.size(),
+          ex.getMessage());
+    }
+  }
+
+  private record Pending(UUID tenantId, long executions, Instant lastExecutedAt) {
+
+    Pending plus(Pending other) {
+      Instant latest =
+          lastExecutedAt.isAfter(other.lastExecutedAt) ? lastExecutedAt : other.lastExecutedAt;
+      return new Pending(tenantId, executions + other.executions, latest);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.fabricmanagement.flowboard.automation.app;
+
+import com.fabricmanagement.flowboard.automation.domain.AutomationTriggerType;
+import com.fabricmanagement.flowboard.automation.infra.repository.AutomationRuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Node-local, (tenant, board, trigger) başına derlenmiş otomasyon kuralı index'i.
+ *
+ * <p>Bir anahtarın aktif kuralları (board'a özel + global) ilk task event'inde tek sorguyla
+ * yüklenir ve {@link CompiledAutomationRule} olarak derlenir; sonraki event'ler sorgu ve JSON
+ * parse olmadan değerlendirilir. Sıra sorgudaki gibi {@code createdAt ASC}'dir.
+ *
+ * <p>Bu node'daki kural yazıları ({@link AutomationRuleService}) {@link #invalidateTenant}
+ * çağırır; diğer node'ların yazıları {@code expire-after-write} sonunda görünür. Sorgu tenant'a
+ * bağlı bağlantıda çalışır, RLS her zamanki gibi uygulanır.
+ */
+@Component
+@Slf4j
+public class AutomationRuleIndex {
+
+  private final AutomationRuleRepository ruleRepo;
+  private final ObjectMapper objectMapper;
+  private final Cache<Key, List<CompiledAutomationRule>> rules;
+
+  public AutomationRuleIndex(
+      AutomationRuleRepository ruleRepo,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${application.automation.rule-index.expire-after-write:PT1M}")
+          Duration expireAfterWrite,
+      @Value("${application.automation.rule-index.maximum-size:10000}") long maximumSize) {
+    this.ruleRepo = ruleRepo;
+    this.objectMapper = objectMapper;
+    this.rules =
+        Caffeine.newBuilder()
+            .expireAfterWrite(expireAfterWrite)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, rules, "automationRuleIndex");
+  }
+
+  /** Board'a özel + global aktif kurallar, derlenmiş halde. */
+  List<CompiledAutomationRule> rules(
+      UUID tenantId, UUID boardId, AutomationTriggerType triggerType) {
+    return rules.get(new Key(tenantId, boardId, triggerType), this::load);
+  }
+
+  /**
+   * Tenant'ın tüm anahtarlarını hemen ve mevcut transaction bittiğinde (rollback dahil) düşürür.
+   * Global bir kural veya board değişikliği birden fazla board'u etkilediğinden tenant'ın tamamı
+   * düşürülür.
+   */
+  public void invalidateTenant(UUID tenantId) {
+    evict(tenantId);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              evict(tenantId);
+            }
+          });
+    }
+  }
+
+  private void evict(UUID tenantId) {
+    rules.asMap().keySet().removeIf(key -> key.tenantId().equals(tenantId));
+  }
+
+  private List<CompiledAutomationRule> load(Key key) {
+    List<CompiledAutomationRule> compiled =
+        ruleRepo
+            .findActiveByTenantAndTriggerTypeAndBoard(
+                key.tenantId(), key.triggerType(), key.boardId())
+            .stream()
+            .map(rule -> CompiledAutomationRule.compile(rule, objectMapper))
+            .toList();
+    log.debug(
+        "Compiled automation rules: tenantId={}, boardId={}, trigger={}, rules={}",
+        key.tenantId(),
+        key.boardId(),
+        key.triggerType(),
+        compiled.size());
+    return compiled;
+  }
+
+  private record Key(UUID tenantId, UUID boardId, AutomationTriggerType triggerType) {}
+}
@@ -25,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class AutomationRuleService {
 
   private final AutomationRuleRepository ruleRepository;
+  private final AutomationRuleIndex ruleIndex;
   private final ObjectMapper objectMapper;
 
   @Transactional(readOnly = true)
@@ -54,6 +55,7 @@ public class AutomationRuleService {
             userCtx.userId());
 
     AutomationRule saved = ruleRepository.save(rule);
+    ruleIndex.invalidateTenant(saved.getTenantId());
     return AutomationRuleResponse.from(saved, objectMapper);
   }
 
@@ -75,6 +77,7 @@ public class AutomationRuleService {
         request.boardId());
 
     AutomationRule saved = ruleRepository.save(rule);
+    ruleIndex.invalidateTenant(saved.getTenantId());
     return AutomationRuleResponse.from(saved, objectMapper);
   }
 
@@ -87,6 +90,7 @@ public class AutomationRuleService {
 
     rule.toggleActive(active);
     AutomationRule saved = ruleRepository.save(rule);
+    ruleIndex.invalidateTenant(saved.getTenantId());
     return AutomationRuleResponse.from(saved, objectMapper);
   }
 
@@ -99,6 +103,7 @@ public class AutomationRuleService {
 
     rule.delete();
     ruleRepository.save(rule);
+    ruleIndex.invalidateTenant(rule.getTenantId());
   }
 
   private String toJson(Map<String, Object> map) {
@@ -0,0 +1,158 @@
+package com.fabricmanagement.flowboard.automation.app;
+
+import com.fabricmanagement.flowboard.automation.domain.AutomationRule;
+import com.fabricmanagement.flowboard.automation.domain.AutomationTriggerType;
+import com.fabricmanagement.flowboard.task.domain.Task;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bir {@link AutomationRule}'un derlenmiş hali — triggerConfig ve conditionConfig JSON'ları bir kez
+ * parse edilir, değerlendirme sadece string karşılaştırmalarına iner.
+ *
+ * <p>Eşleşme kuralları eski parse-her-seferinde davranışıyla aynıdır: boş config her zaman
+ * eşleşir, parse edilemeyen config kuralı engellemez (hata derleme anında bir kez loglanır).
+ *
+ * <p>{@link #rule()} index'te paylaşılan, salt okunur bir entity'dir; üzerinde değişiklik
+ * yapılmaz. Çalıştırma sayısı {@link #markExecuted()} ile burada, veritabanına ise {@link
+ * AutomationExecutionCounter} ile toplu yazılır.
+ */
+@Slf4j
+final class CompiledAutomationRule {
+
+  private final AutomationRule rule;
+  private final String fromStatus;
+  private final String toStatus;
+  private final Predicate<Task> condition;
+  private final AtomicLong executionCount;
+
+  private CompiledAutomationRule(
+      AutomationRule rule, String fromStatus, String toStatus, Predicate<Task> condition) {
+    this.rule = rule;
+    this.fromStatus = fromStatus;
+    this.toStatus = toStatus;
+    this.condition = condition;
+    this.executionCount = new AtomicLong(rule.getExecutionCount());
+  }
+
+  static CompiledAutomationRule compile(AutomationRule rule, ObjectMapper objectMapper) {
+    String fromStatus = null;
+    String toStatus = null;
+    JsonNode trigger = parse(rule.getTriggerConfig(), rule, "triggerConfig", objectMapper);
+    if (trigger != null && rule.getTriggerType() == AutomationTriggerType.STATUS_CHANGED) {
+      fromStatus = textOrNull(trigger, "fromStatus");
+      toStatus = textOrNull(trigger, "toStatus");
+    }
+    // LABEL_ADDED: labelName kontrolü — event payload'dan gelecek (Faz 8.3)
+    // DEADLINE_APPROACHING: hoursBeforeDeadline — scheduler tarafından tetiklenir (Faz 8.4)
+
+    JsonNode conditionNode =
+        parse(rule.getConditionConfig(), rule, "conditionConfig", objectMapper);
+    Predicate<Task> condition =
+        conditionNode == null ? task -> true : compileCondition(conditionNode);
+    return new CompiledAutomationRule(rule, fromStatus, toStatus, condition);
+  }
+
+  AutomationRule rule() {
+    return rule;
+  }
+
+  /** STATUS_CHANGED için fromStatus/toStatus kontrolü; bilinmeyen (null) status engellemez. */
+  boolean triggerMatches(String oldStatus, String newStatus) {
+    if (fromStatus != null && oldStatus != null && !fromStatus.equals(oldStatus)) {
+      return false;
+    }
+    return toStatus == null || newStatus == null || toStatus.equals(newStatus);
+  }
+
+  boolean conditionMatches(Task task) {
+    return condition.test(task);
+  }
+
+  /** Yüklendiği andaki veritabanı sayısı + bu node'da o zamandan beri yapılan çalıştırmalar. */
+  long executionCount() {
+    return executionCount.get();
+  }
+
+  void markExecuted() {
+    executionCount.incrementAndGet();
+  }
+
+  /**
+   * Desteklenen koşullar (hepsi AND):
+   *
+   * <ul>
+   *   <li>{@code {"taskType": "QUALITY"}} — task tipi kontrolü
+   *   <li>{@code {"estimatedHoursGte": 8}} — tahmini süre kontrolü
+   *   <li>{@code {"priority": ["HIGH", "CRITICAL"]}} — öncelik kontrolü (string veya array)
+   * </ul>
+   */
+  private static Predicate<Task> compileCondition(JsonNode node) {
+    List<Predicate<Task>> checks = new ArrayList<>(3);
+
+    if (node.has("taskType")) {
+      String expected = node.path("taskType").asText(null);
+      if (expected != null) {
+        checks.add(task -> task.getTaskType().name().equals(expected));
+      }
+    }
+
+    if (node.has("estimatedHoursGte")) {
+      double threshold = node.path("estimatedHoursGte").asDouble(0);
+      checks.add(
+          task ->
+              task.getEstimatedHours() != null
+                  && task.getEstimatedHours().doubleValue() >= threshold);
+    }
+
+    if (node.has("priority")) {
+      JsonNode priorityNode = node.path("priority");
+      Set<String> allowed = new HashSet<>();
+      if (priorityNode.isArray()) {
+        priorityNode.forEach(p -> allowed.add(p.asText()));
+      } else {
+        allowed.add(priorityNode.asText());
+      }
+      checks.add(task -> allowed.contains(task.getPriority().name()));
+    }
+
+    return switch (checks.size()) {
+      case 0 -> task -> true;
+      case 1 -> checks.getFirst();
+      default -> checks.stream().reduce(Predicate::and).orElseThrow();
+    };
+  }
+
+  /** Boş config veya parse hatası için null döner; hata loglanır. */
+  private static JsonNode parse(
+      String json, AutomationRule rule, String field, ObjectMapper objectMapper) {
+    if (json == null || json.isBlank() || json.equals("{}")) {
+      return null;
+    }
+    try {
+      return objectMapper.readTree(json);
+    } catch (Exception e) {
+      log.error(
+          "AutomationEngine: failed to parse {} for rule='{}' — value='{}' error={}",
+          field,
+          rule.getName(),
+          json,
+          e.getMessage());
+      return null;
+    }
+  }
+
+  /** JsonNode'dan string değer okur; eksik veya null node için null döner. */
+  private static String textOrNull(JsonNode node, String key) {
+    JsonNode child = node.path(key);
+    if (child.isMissingNode() || child.isNull()) return null;
+    return child.asText();
+  }
+}
@@ -53,7 +53,7 @@ public class AutomationRule extends BaseEntity {
   @Column(name = "is_active", nullable = false)
   private boolean isActive = true;
 
-  /** Kaç kez çalıştı. */
+  /** Kaç kez çalıştı — app katmanında biriktirilip toplu artırılır. */
   @Column(name = "execution_count", nullable = false)
   private long executionCount = 0;
 
@@ -95,12 +95,6 @@ public class AutomationRule extends BaseEntity {
   // DOMAIN METHODS
   // =========================================================================
 
-  /** Çalıştırma kaydı günceller. */
-  public void markExecuted() {
-    this.executionCount++;
-    this.lastExecutedAt = Instant.now();
-  }
-
   public void deactivate() {
     this.isActive = false;
   }
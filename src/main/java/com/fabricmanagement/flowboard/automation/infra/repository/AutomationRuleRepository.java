@@ -2,9 +2,11 @@ package com.fabricmanagement.flowboard.automation.infra.repository;
 
 import com.fabricmanagement.flowboard.automation.domain.AutomationRule;
 import com.fabricmanagement.flowboard.automation.domain.AutomationTriggerType;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -51,4 +53,25 @@ public interface AutomationRuleRepository extends JpaRepository<AutomationRule,
 
   /** Tüm aktif kurallar (admin UI için). */
   List<AutomationRule> findAllByIsActiveTrueOrderByCreatedAtAsc();
+
+  /**
+   * Toplu çalıştırma sayacı yazımı — entity yüklemeden sayacı artırır. lastExecutedAt geri
+   * gitmez (başka bir node daha yeni bir zaman yazmış olabilir).
+   */
+  @Modifying
+  @Query(
+      """
+      UPDATE AutomationRule r
+      SET r.executionCount = r.executionCount + :executions,
+          r.lastExecutedAt = CASE
+              WHEN r.lastExecutedAt IS NULL OR r.lastExecutedAt < :executedAt THEN :executedAt
+              ELSE r.lastExecutedAt
+          END
+      WHERE r.id = :id AND r.tenantId = :tenantId
+      """)
+  int addExecutions(
+      @Param("id") UUID id,
+      @Param("tenantId") UUID tenantId,
+      @Param("executions") long executions,
+      @Param("executedAt") Instant executedAt);
 }
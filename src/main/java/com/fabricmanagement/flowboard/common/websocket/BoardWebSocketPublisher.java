@@ -1,17 +1,18 @@
 package com.fabricmanagement.flowboard.common.websocket;
 
+import com.fabricmanagement.common.infrastructure.websocket.WebSocketRelay;
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
 /**
  * FlowBoard board güncellemelerini WebSocket üzerinden yayınlar.
  *
- * <p>Faz 7'de kurulan {@link SimpMessagingTemplate} (STOMP) altyapısını kullanır.
+ * <p>Faz 7'de kurulan STOMP altyapısını {@link WebSocketRelay} üzerinden kullanır; board'u izleyen
+ * client hangi node'a bağlı olursa olsun güncellemeyi alır.
  *
  * <p>Kanal: {@code /topic/board/{boardId}}
  *
@@ -24,7 +25,7 @@ public class BoardWebSocketPublisher {
 
   private static final String BOARD_TOPIC_PREFIX = "/topic/board/";
 
-  private final SimpMessagingTemplate messagingTemplate;
+  private final WebSocketRelay webSocketRelay;
 
   /**
    * Board kanalına event yayınlar.
@@ -39,7 +40,7 @@ public class BoardWebSocketPublisher {
     var message =
         new BoardWebSocketMessage(UUID.randomUUID(), eventType, boardId, payload, Instant.now());
     try {
-      messagingTemplate.convertAndSend(destination, message);
+      webSocketRelay.send(destination, message);
       log.debug("WS published: board={} event={}", boardId, eventType);
     } catch (Exception e) {
       // WebSocket hatası task işlemini engellemez — sadece loglanır
@@ -13,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -36,4 +37,13 @@ public class PerformanceController {
             .toList();
     return ResponseEntity.ok(ApiResponse.success(result));
   }
+
+  @PostMapping("/backfill")
+  @PreAuthorize("@auth.can(authentication, 'flowboard', 'write')")
+  @Operation(summary = "Recompute weekly performance snapshots for a range of past weeks")
+  public ResponseEntity<ApiResponse<Integer>> backfill(
+      @RequestParam("from") @NotNull LocalDate from, @RequestParam("to") @NotNull LocalDate to) {
+    int written = performanceService.backfill(TenantContext.requireTenantId(), from, to);
+    return ResponseEntity.ok(ApiResponse.success(written));
+  }
 }
@@ -1,28 +1,131 @@
 package com.fabricmanagement.flowboard.dashboard.app;
 
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.flowboard.common.exception.FlowBoardDomainException;
+import com.fabricmanagement.flowboard.dashboard.app.UserPerformanceSnapshotStore.SnapshotRow;
+import com.fabricmanagement.flowboard.dashboard.app.UserPerformanceSnapshotStore.WeeklyTally;
+import com.fabricmanagement.flowboard.dashboard.domain.BadgeType;
 import com.fabricmanagement.flowboard.dashboard.domain.UserPerformanceSnapshot;
 import com.fabricmanagement.flowboard.dashboard.infra.repository.UserPerformanceSnapshotRepository;
+import com.fabricmanagement.platform.user.domain.SystemUser;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Performans snapshot servis katmanı. [O7 FIX] Controller doğrudan repository kullanmak yerine bu
  * servis aracılığıyla erişiyor.
+ *
+ * <p>Snapshot'lar tek bir gruplu sorgu ve tek bir toplu insert ile yazılır; puan ve rozetler
+ * bellekte hesaplanır. Haftalık job yalnızca eksik snapshot'ları ekler, backfill ise verilen hafta
+ * aralığını mevcut puanlama kurallarıyla yeniden hesaplayıp üzerine yazar.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PerformanceService {
 
+  static final int POINTS_PER_COMPLETED = 10;
+  static final int PENALTY_PER_OVERDUE = 5;
+  static final int SPEEDSTER_THRESHOLD = 100;
+
   private final UserPerformanceSnapshotRepository snapshotRepo;
+  private final UserPerformanceSnapshotStore snapshotStore;
+
+  @Value("${application.flowboard-performance.max-backfill-weeks:104}")
+  private int maxBackfillWeeks;
 
   @Transactional(readOnly = true)
   public List<UserPerformanceSnapshot> getLeaderboard(UUID tenantId, LocalDate date) {
     return snapshotRepo.getLeaderboard(tenantId, date);
   }
+
+  /**
+   * Writes the snapshots of every week from {@code firstWeek} to {@code lastWeek} (both week start
+   * dates, seven days apart) for the current tenant.
+   *
+   * @param replace true to overwrite existing snapshots, false to keep them
+   * @return the number of snapshots written
+   */
+  @Transactional
+  public int writeSnapshots(
+      UUID tenantId, LocalDate firstWeek, LocalDate lastWeek, boolean replace) {
+    List<SnapshotRow> rows =
+        snapshotStore.findWeeklyTallies(tenantId, firstWeek, lastWeek).stream()
+            .map(PerformanceService::score)
+            .toList();
+    UUID actorId = TenantContext.getCurrentUserId();
+    return snapshotStore.insertSnapshots(
+        tenantId,
+        TenantContext.getCurrentTenantUid(),
+        actorId != null ? actorId : SystemUser.ID,
+        rows,
+        replace);
+  }
+
+  /**
+   * Recomputes the weekly snapshots between the two dates with the current scoring rules, e.g.
+   * after a rule change. Both dates are moved back to the Sunday the weekly job snapshots from.
+   *
+   * @return the number of snapshots written
+   */
+  @Transactional
+  public int backfill(UUID tenantId, LocalDate from, LocalDate to) {
+    LocalDate firstWeek = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+    LocalDate lastWeek = to.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY));
+    if (lastWeek.isBefore(firstWeek)) {
+      throw new FlowBoardDomainException("Backfill range is empty: from=" + from + ", to=" + to);
+    }
+    long weeks = ChronoUnit.WEEKS.between(firstWeek, lastWeek) + 1;
+    if (weeks > maxBackfillWeeks) {
+      throw new FlowBoardDomainException(
+          "Backfill covers " + weeks + " weeks, at most " + maxBackfillWeeks + " are allowed");
+    }
+    int written = writeSnapshots(tenantId, firstWeek, lastWeek, true);
+    log.info(
+        "Performance snapshots backfilled: tenantId={}, weeks={}..{}, snapshots={}",
+        tenantId,
+        firstWeek,
+        lastWeek,
+        written);
+    return written;
+  }
+
+  /**
+   * Puan: tamamlanan başına {@value #POINTS_PER_COMPLETED}, geciken başına -{@value
+   * #PENALTY_PER_OVERDUE}. Rozetler sırayla değerlendirilir; ilk kazanılan topBadge olur.
+   */
+  static SnapshotRow score(WeeklyTally tally) {
+    int completed = tally.completedTasks();
+    int overdue = tally.overdueTasks();
+    int points = (completed * POINTS_PER_COMPLETED) - (overdue * PENALTY_PER_OVERDUE);
+
+    List<String> badges = new ArrayList<>();
+    BadgeType topBadge = null;
+
+    if (points > SPEEDSTER_THRESHOLD) {
+      badges.add(BadgeType.SPEEDSTER.name());
+      topBadge = BadgeType.SPEEDSTER;
+    }
+    if (completed >= 5 && overdue == 0) {
+      badges.add(BadgeType.QUALITY_CHAMPION.name());
+      if (topBadge == null) topBadge = BadgeType.QUALITY_CHAMPION;
+    }
+    if (completed >= 10 && overdue <= 1) {
+      badges.add(BadgeType.CONSISTENT_PERFORMER.name());
+      if (topBadge == null) topBadge = BadgeType.CONSISTENT_PERFORMER;
+    }
+
+    return new SnapshotRow(
+        tally.userId(), tally.snapshotDate(), completed, overdue, points, badges, topBadge);
+  }
 }
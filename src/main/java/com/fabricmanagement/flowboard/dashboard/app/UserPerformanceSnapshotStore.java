@@ -0,0 +1,185 @@
+package com.fabricmanagement.flowboard.dashboard.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.flowboard.dashboard.domain.BadgeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL access for the weekly performance snapshots in {@code
+ * flowboard.user_performance_snapshot}.
+ *
+ * <p>A tenant's weekly task figures are read in one grouped statement for any number of weeks, and
+ * the resulting snapshots are written in one statement ({@link NativeSqlSupport}), instead of three
+ * queries and one insert per assignee and week.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPerformanceSnapshotStore {
+
+  private static final String INSERT =
+      """
+      INSERT INTO flowboard.user_performance_snapshot (
+          id, tenant_id, uid, user_id, snapshot_date, completed_tasks, overdue_tasks,
+          total_estimated_hours, total_actual_hours, total_points, earned_badges, top_badge,
+          is_active, created_at, created_by, updated_at, updated_by, version)
+      SELECT gen_random_uuid(), CAST(:tenantId AS uuid),
+             :tenantUid || '-PERF-'
+                 || upper(substr(replace(CAST(gen_random_uuid() AS text), '-', ''), 1, 8)),
+             r.user_id, r.snapshot_date, r.completed_tasks, r.overdue_tasks, 0, 0,
+             r.total_points, r.earned_badges, r.top_badge,
+             TRUE, now(), CAST(:actorId AS uuid), now(), CAST(:actorId AS uuid), 0
+      FROM jsonb_to_recordset(CAST(:rows AS jsonb)) AS r(
+          user_id uuid, snapshot_date date, completed_tasks int, overdue_tasks int,
+          total_points int, earned_badges jsonb, top_badge text)
+      ON CONFLICT (tenant_id, user_id, snapshot_date) %s
+      """;
+
+  private static final String KEEP_EXISTING = "DO NOTHING";
+
+  private static final String REPLACE_EXISTING =
+      """
+      DO UPDATE
+      SET completed_tasks = EXCLUDED.completed_tasks,
+          overdue_tasks = EXCLUDED.overdue_tasks,
+          total_points = EXCLUDED.total_points,
+          earned_badges = EXCLUDED.earned_badges,
+          top_badge = EXCLUDED.top_badge,
+          updated_at = EXCLUDED.updated_at,
+          updated_by = EXCLUDED.updated_by,
+          version = flowboard.user_performance_snapshot.version + 1
+      """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final NativeSqlSupport nativeSql;
+
+  /**
+   * Counts, for every week starting on {@code firstWeek} and every seventh day after it up to
+   * {@code lastWeek}, the DONE tasks of each active assignee whose last update falls in the week,
+   * and how many of those were finished after their deadline. Every assignee gets a row for every
+   * week, with zeros for a week without completed tasks.
+   */
+  @SuppressWarnings("unchecked")
+  public List<WeeklyTally> findWeeklyTallies(
+      UUID tenantId, LocalDate firstWeek, LocalDate lastWeek) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                WITH weeks AS (
+                    SELECT CAST(w AS date) AS week_start
+                    FROM generate_series(
+                        CAST(:firstWeek AS date), CAST(:lastWeek AS date), interval '7 days') w
+                ),
+                assignees AS (
+                    SELECT DISTINCT ta.user_id
+                    FROM flowboard.task t
+                    JOIN flowboard.task_assignee ta ON ta.task_id = t.id
+                    WHERE t.tenant_id = :tenantId
+                      AND t.is_active = TRUE
+                      AND ta.is_active = TRUE
+                      AND ta.user_id IS NOT NULL
+                ),
+                done AS (
+                    SELECT t.id, ta.user_id, t.updated_at, t.deadline
+                    FROM flowboard.task t
+                    JOIN flowboard.task_assignee ta ON ta.task_id = t.id
+                    WHERE t.tenant_id = :tenantId
+                      AND ta.is_active = TRUE
+                      AND t.status = 'DONE'
+                      AND t.updated_at >= CAST(:firstWeek AS timestamp) AT TIME ZONE 'UTC'
+                      AND t.updated_at <= (CAST(:lastWeek AS timestamp) + interval '7 days')
+                          AT TIME ZONE 'UTC'
+                )
+                SELECT w.week_start, a.user_id,
+                       COUNT(DISTINCT d.id),
+                       COUNT(DISTINCT d.id) FILTER (
+                           WHERE d.deadline IS NOT NULL
+                             AND d.deadline < CAST(d.updated_at AS date))
+                FROM weeks w
+                CROSS JOIN assignees a
+                LEFT JOIN done d
+                  ON d.user_id = a.user_id
+                 AND d.updated_at BETWEEN CAST(w.week_start AS timestamp) AT TIME ZONE 'UTC'
+                                      AND (CAST(w.week_start AS timestamp) + interval '7 days')
+                                          AT TIME ZONE 'UTC'
+                GROUP BY w.week_start, a.user_id
+                ORDER BY w.week_start, a.user_id
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("firstWeek", firstWeek)
+            .setParameter("lastWeek", lastWeek)
+            .getResultList();
+    return rows.stream()
+        .map(
+            r ->
+                new WeeklyTally(
+                    NativeSqlSupport.toLocalDate(r[0]),
+                    (UUID) r[1],
+                    ((Number) r[2]).intValue(),
+                    ((Number) r[3]).intValue()))
+        .toList();
+  }
+
+  /**
+   * Writes the snapshots in one statement. With {@code replace} an existing snapshot of the same
+   * user and week takes the new figures; otherwise it is kept and the new row dropped.
+   *
+   * @return the number of rows inserted or replaced
+   */
+  public int insertSnapshots(
+      UUID tenantId, String tenantUid, UUID actorId, List<SnapshotRow> snapshots, boolean replace) {
+    if (snapshots.isEmpty()) {
+      return 0;
+    }
+    return entityManager
+        .createNativeQuery(INSERT.formatted(replace ? REPLACE_EXISTING : KEEP_EXISTING))
+        .setParameter("tenantId", tenantId)
+        .setParameter("tenantUid", tenantUid)
+        .setParameter("actorId", actorId)
+        .setParameter("rows", toJson(snapshots))
+        .executeUpdate();
+  }
+
+  private String toJson(List<SnapshotRow> snapshots) {
+    List<Map<String, Object>> records =
+        snapshots.stream()
+            .map(
+                snapshot -> {
+                  Map<String, Object> record = new LinkedHashMap<>();
+                  record.put("user_id", snapshot.userId());
+                  record.put("snapshot_date", snapshot.snapshotDate().toString());
+                  record.put("completed_tasks", snapshot.completedTasks());
+                  record.put("overdue_tasks", snapshot.overdueTasks());
+                  record.put("total_points", snapshot.totalPoints());
+                  record.put("earned_badges", snapshot.earnedBadges());
+                  record.put(
+                      "top_badge", snapshot.topBadge() != null ? snapshot.topBadge().name() : null);
+                  return record;
+                })
+            .toList();
+    return nativeSql.jsonRows(records, "performance snapshots");
+  }
+
+  /** One assignee's completed and late-completed task counts in one week. */
+  public record WeeklyTally(
+      LocalDate snapshotDate, UUID userId, int completedTasks, int overdueTasks) {}
+
+  /** One snapshot row to write; hour totals are not tracked yet and are written as zero. */
+  public record SnapshotRow(
+      UUID userId,
+      LocalDate snapshotDate,
+      int completedTasks,
+      int overdueTasks,
+      int totalPoints,
+      List<String> earnedBadges,
+      BadgeType topBadge) {}
+}
@@ -1,148 +1,72 @@
 package com.fabricmanagement.flowboard.dashboard.app.scheduler;
 
-import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
-import com.fabricmanagement.flowboard.dashboard.domain.BadgeType;
-import com.fabricmanagement.flowboard.dashboard.domain.UserPerformanceSnapshot;
-import com.fabricmanagement.flowboard.dashboard.infra.repository.UserPerformanceSnapshotRepository;
-import com.fabricmanagement.flowboard.task.infra.repository.TaskRepository;
-import com.fabricmanagement.platform.tenant.app.TenantSystemService;
-import com.fabricmanagement.platform.tenant.dto.TenantDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.math.BigDecimal;
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
+import com.fabricmanagement.flowboard.dashboard.app.PerformanceService;
 import java.time.Clock;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Geçen haftanın performans snapshot'larını her tenant için tek sorgu ve tek toplu insert ile
+ * yazar. Mevcut snapshot'lara dokunmaz; geçmiş haftaların yeniden hesabı için {@link
+ * PerformanceService#backfill}.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class FlowBoardPerformanceJob {
+public class FlowBoardPerformanceJob implements ResumableTenantJob {
 
-  private final UserPerformanceSnapshotRepository snapshotRepo;
-  private final TaskRepository taskRepo;
-  private final Clock clock;
-  private final TenantSystemService tenantService;
-  private final ObjectMapper objectMapper;
+  private static final String JOB_NAME = "flowboard-performance-snapshot";
 
-  private static final int POINTS_PER_COMPLETED = 10;
-  private static final int PENALTY_PER_OVERDUE = 5;
-  private static final int SPEEDSTER_THRESHOLD = 100;
+  private final PerformanceService performanceService;
+  private final Clock clock;
+  private final TenantFanOutExecutor fanOutExecutor;
 
   @Scheduled(cron = "0 0 0 * * SUN")
   public void runWeeklyPerformanceSnapshot() {
     log.info("Starting FlowBoardPerformanceJob...");
-    LocalDate snapshotDate = LocalDate.now(clock).minus(1, ChronoUnit.WEEKS);
-    Instant weekStart = snapshotDate.atStartOfDay().toInstant(ZoneOffset.UTC);
-    Instant weekEnd = weekStart.plus(7, ChronoUnit.DAYS);
-
-    List<TenantDto> activeTenants;
-    try {
-      activeTenants = tenantService.getAllActive();
-    } catch (Exception e) {
-      log.error("FlowBoardPerformanceJob: Failed to load tenants: {}", e.getMessage(), e);
-      return;
-    }
-
-    int totalSaved = 0;
-    int totalFailed = 0;
-
-    for (TenantDto tenant : activeTenants) {
-      try {
-        int[] counts =
-            TenantContext.executeInTenantContext(
-                tenant.getId(),
-                () -> processSnapshotsForTenant(tenant.getId(), snapshotDate, weekStart, weekEnd));
-        totalSaved += counts[0];
-        totalFailed += counts[1];
-      } catch (Exception e) {
-        log.error(
-            "FlowBoardPerformanceJob: Failed for tenant={}: {}", tenant.getId(), e.getMessage());
-      }
+    LocalDate snapshotDate = snapshotDate();
+
+    AtomicInteger totalSaved = new AtomicInteger();
+    TenantFanOutExecutor.Result result =
+        fanOutExecutor.run(
+            JOB_NAME,
+            snapshotDate.toString(),
+            tenant ->
+                totalSaved.addAndGet(
+                    performanceService.writeSnapshots(
+                        tenant.id(), snapshotDate, snapshotDate, false)));
+
+    if (result.leaseHeld()) {
+      log.info(
+          "FlowBoardPerformanceJob completed: saved={}, failedTenants={}",
+          totalSaved.get(),
+          result.failed() + result.timedOut());
     }
-
-    log.info("FlowBoardPerformanceJob completed: saved={}, failed={}", totalSaved, totalFailed);
   }
 
-  private int[] processSnapshotsForTenant(
-      UUID tenantId, LocalDate snapshotDate, Instant weekStart, Instant weekEnd) {
-    int saved = 0;
-    int failed = 0;
-
-    List<UUID> allUserIds = taskRepo.findDistinctAssigneeUserIds(tenantId);
-
-    for (UUID userId : allUserIds) {
-      try {
-        boolean alreadyExists =
-            snapshotRepo
-                .findByTenantIdAndUserIdAndSnapshotDateAndDeletedAtIsNull(
-                    tenantId, userId, snapshotDate)
-                .isPresent();
-        if (alreadyExists) {
-          log.debug(
-              "Snapshot already exists, skipping: tenantId={}, userId={}, date={}",
-              tenantId,
-              userId,
-              snapshotDate);
-          continue;
-        }
-
-        int completed = taskRepo.countCompletedTasksInPeriod(tenantId, userId, weekStart, weekEnd);
-        int overdue =
-            taskRepo.countOverdueCompletedTasksInPeriod(tenantId, userId, weekStart, weekEnd);
-        int points = (completed * POINTS_PER_COMPLETED) - (overdue * PENALTY_PER_OVERDUE);
-
-        List<String> badges = new ArrayList<>();
-        BadgeType topBadge = null;
-
-        if (points > SPEEDSTER_THRESHOLD) {
-          badges.add("SPEEDSTER");
-          topBadge = BadgeType.SPEEDSTER;
-        }
-        if (completed >= 5 && overdue == 0) {
-          badges.add("QUALITY_CHAMPION");
-          if (topBadge == null) topBadge = BadgeType.QUALITY_CHAMPION;
-        }
-        if (completed >= 10 && overdue <= 1) {
-          badges.add("CONSISTENT_PERFORMER");
-          if (topBadge == null) topBadge = BadgeType.CONSISTENT_PERFORMER;
-        }
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
 
-        String badgesJson;
-        try {
-          badgesJson = objectMapper.writeValueAsString(badges);
-        } catch (Exception e) {
-          badgesJson = "[]";
-        }
+  @Override
+  public String runKey() {
+    return snapshotDate().toString();
+  }
 
-        UserPerformanceSnapshot snapshot =
-            new UserPerformanceSnapshot(
-                tenantId,
-                userId,
-                snapshotDate,
-                completed,
-                overdue,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                points,
-                badgesJson,
-                topBadge);
+  @Override
+  public void resume() {
+    runWeeklyPerformanceSnapshot();
+  }
 
-        snapshotRepo.save(snapshot);
-        saved++;
-      } catch (Exception e) {
-        failed++;
-        log.error("FlowBoardPerformanceJob: Failed for userId={}: {}", userId, e.getMessage());
-      }
-    }
-    return new int[] {saved, failed};
+  private LocalDate snapshotDate() {
+    return LocalDate.now(clock).minus(1, ChronoUnit.WEEKS);
   }
 }
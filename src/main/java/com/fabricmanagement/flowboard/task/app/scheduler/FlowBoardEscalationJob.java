@@ -1,13 +1,12 @@
 package com.fabricmanagement.flowboard.task.app.scheduler;
 
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
 import com.fabricmanagement.flowboard.board.infra.repository.BoardRepository;
 import com.fabricmanagement.flowboard.board.infra.repository.BoardRepository.BoardManagerProjection;
 import com.fabricmanagement.flowboard.task.app.EscalationService;
 import com.fabricmanagement.flowboard.task.domain.EscalationType;
 import com.fabricmanagement.flowboard.task.domain.Task;
 import com.fabricmanagement.flowboard.task.infra.repository.TaskRepository;
-import com.fabricmanagement.platform.tenant.app.TenantSystemService;
-import com.fabricmanagement.platform.tenant.dto.TenantDto;
 import com.fabricmanagement.platform.user.domain.SystemUser;
 import java.time.Clock;
 import java.time.Instant;
@@ -40,12 +39,13 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class FlowBoardEscalationJob {
 
+  private static final String JOB_NAME = "flowboard-escalation";
   private static final int PAGE_SIZE = 100;
 
   private final TaskRepository taskRepo;
   private final EscalationService escalationService;
   private final Clock clock;
-  private final TenantSystemService tenantService;
+  private final TenantFanOutExecutor fanOutExecutor;
   private final BoardRepository boardRepository;
 
   @Scheduled(fixedRateString = "PT15M")
@@ -54,32 +54,38 @@ public class FlowBoardEscalationJob {
     LocalDate today = LocalDate.now(clock);
     Instant blockedThreshold = Instant.now(clock).minus(2, ChronoUnit.DAYS);
 
-    try {
-      List<TenantDto> activeTenants = tenantService.getAllActive();
-
-      for (TenantDto tenant : activeTenants) {
-        UUID tenantId = tenant.getId();
-        log.debug("Processing escalations for tenant: {}", tenantId);
-
-        try {
-          processDeadlinePassed(tenantId, today);
-        } catch (Exception e) {
-          log.error(
-              "Failed DEADLINE_PASSED escalation for tenant {}: {}", tenantId, e.getMessage(), e);
-        }
-
-        try {
-          processBlockedTooLong(tenantId, blockedThreshold);
-        } catch (Exception e) {
-          log.error(
-              "Failed BLOCKED_TOO_LONG escalation for tenant {}: {}", tenantId, e.getMessage(), e);
-        }
-      }
-    } catch (Exception e) {
-      log.error("FlowBoardEscalationJob: Critical failure: {}", e.getMessage(), e);
+    TenantFanOutExecutor.Result result =
+        fanOutExecutor.run(
+            JOB_NAME,
+            null,
+            tenant -> {
+              UUID tenantId = tenant.id();
+              log.debug("Processing escalations for tenant: {}", tenantId);
+
+              try {
+                processDeadlinePassed(tenantId, today);
+              } catch (Exception e) {
+                log.error(
+                    "Failed DEADLINE_PASSED escalation for tenant {}: {}",
+                    tenantId,
+                    e.getMessage(),
+                    e);
+              }
+
+              try {
+                processBlockedTooLong(tenantId, blockedThreshold);
+              } catch (Exception e) {
+                log.error(
+                    "Failed BLOCKED_TOO_LONG escalation for tenant {}: {}",
+                    tenantId,
+                    e.getMessage(),
+                    e);
+              }
+            });
+
+    if (result.leaseHeld()) {
+      log.info("FlowBoardEscalationJob completed.");
     }
-
-    log.info("FlowBoardEscalationJob completed.");
   }
 
   private void processDeadlinePassed(UUID tenantId, LocalDate today) {
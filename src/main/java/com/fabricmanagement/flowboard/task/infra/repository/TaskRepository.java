@@ -178,54 +178,6 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
   java.math.BigDecimal sumEstimatedHoursForUser(
       @Param("tenantId") UUID tenantId, @Param("userId") UUID userId);
 
-  // PerformanceJob icin: tenant'taki tum atanmis benzersiz kullanici ID'leri (TaskAssignee join)
-  @Query(
-      """
-      SELECT DISTINCT ta.userId FROM Task t
-      JOIN TaskAssignee ta ON ta.taskId = t.id
-      WHERE t.tenantId = :tenantId
-        AND t.isActive = true
-        AND ta.isActive = true
-        AND ta.userId IS NOT NULL
-      """)
-  List<UUID> findDistinctAssigneeUserIds(@Param("tenantId") UUID tenantId);
-
-  // PerformanceJob icin: donem icinde tamamlanan task sayisi (TaskAssignee join)
-  @Query(
-      """
-      SELECT COUNT(DISTINCT t) FROM Task t
-      JOIN TaskAssignee ta ON ta.taskId = t.id
-      WHERE t.tenantId = :tenantId
-        AND ta.userId = :userId
-        AND ta.isActive = true
-        AND t.status = com.fabricmanagement.flowboard.task.domain.TaskStatus.DONE
-        AND t.updatedAt BETWEEN :startDate AND :endDate
-      """)
-  int countCompletedTasksInPeriod(
-      @Param("tenantId") UUID tenantId,
-      @Param("userId") UUID userId,
-      @Param("startDate") java.time.Instant startDate,
-      @Param("endDate") java.time.Instant endDate);
-
-  // PerformanceJob icin: donem icinde gecikmiş tamamlanan task sayisi (TaskAssignee join)
-  @Query(
-      """
-      SELECT COUNT(DISTINCT t) FROM Task t
-      JOIN TaskAssignee ta ON ta.taskId = t.id
-      WHERE t.tenantId = :tenantId
-        AND ta.userId = :userId
-        AND ta.isActive = true
-        AND t.status = com.fabricmanagement.flowboard.task.domain.TaskStatus.DONE
-        AND t.deadline IS NOT NULL
-        AND t.deadline < CAST(t.updatedAt AS LocalDate)
-        AND t.updatedAt BETWEEN :startDate AND :endDate
-      """)
-  int countOverdueCompletedTasksInPeriod(
-      @Param("tenantId") UUID tenantId,
-      @Param("userId") UUID userId,
-      @Param("startDate") java.time.Instant startDate,
-      @Param("endDate") java.time.Instant endDate);
-
   // Dashboard: Task durum, öncelik ve gecikme gruplamalı anlık snapshot
   @Query(
       """
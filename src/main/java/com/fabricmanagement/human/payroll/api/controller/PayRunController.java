@@ -0,0 +1,31 @@
+package com.fabricmanagement.human.payroll.api.controller;
+
+import com.fabricmanagement.common.infrastructure.web.ApiResponse;
+import com.fabricmanagement.human.payroll.app.PayrollService;
+import com.fabricmanagement.human.payroll.dto.PayRunProgressDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/human/payroll/pay-runs")
+@RequiredArgsConstructor
+@Tag(name = "Payroll Pay Runs", description = "Pay run execution")
+public class PayRunController {
+
+  private final PayrollService payrollService;
+
+  @PreAuthorize("@auth.can(authentication, 'settings', 'read')")
+  @GetMapping("/{payRunId}/progress")
+  @Operation(summary = "Chunk and employee progress of a pay run's execution")
+  public ResponseEntity<ApiResponse<PayRunProgressDto>> getProgress(@PathVariable UUID payRunId) {
+    return ResponseEntity.ok(ApiResponse.success(payrollService.getProgress(payRunId)));
+  }
+}
@@ -0,0 +1,311 @@
+package com.fabricmanagement.human.payroll.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.human.payroll.domain.PayRunStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL access for chunked pay run execution: the chunk plan in {@code human.human_pay_run_chunk}
+ * and the payouts in {@code human.human_pay_run_payout}.
+ *
+ * <p>A chunk's payouts are written in one upsert ({@link NativeSqlSupport}) instead of a lookup and
+ * a save per employee.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayRunChunkStore {
+
+  private static final String COMPLETED = "COMPLETED";
+
+  private static final int MAX_ERROR_LENGTH = 2000;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final NativeSqlSupport nativeSql;
+
+  /**
+   * Claims the run for one execution by moving it to IN_PROGRESS, only from a status that may be
+   * executed. The run's row is locked first, so of two executions racing for the same run exactly
+   * one gets it; the other sees IN_PROGRESS and is refused until the first ends the run as FAILED
+   * or VALIDATED.
+   *
+   * @return the status the run had before the claim; empty if it is not claimable
+   */
+  public Optional<PayRunStatus> claimRun(UUID tenantId, UUID payRunId, UUID actorId) {
+    List<?> previous =
+        entityManager
+            .createNativeQuery(
+                """
+                UPDATE human.human_pay_run r
+                SET status = 'IN_PROGRESS',
+                    started_at = now(),
+                    updated_at = now(),
+                    updated_by = :actorId,
+                    version = r.version + 1
+                FROM (
+                    SELECT id, status
+                    FROM human.human_pay_run
+                    WHERE tenant_id = :tenantId
+                      AND id = :payRunId
+                    FOR UPDATE
+                ) previous
+                WHERE r.id = previous.id
+                  AND previous.status IN (:claimable)
+                RETURNING previous.status
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("payRunId", payRunId)
+            .setParameter("actorId", actorId)
+            .setParameter(
+                "claimable",
+                List.of(
+                    PayRunStatus.CREATED.name(),
+                    PayRunStatus.VALIDATED.name(),
+                    PayRunStatus.FAILED.name()))
+            .getResultList();
+    return previous.stream().findFirst().map(status -> PayRunStatus.valueOf((String) status));
+  }
+
+  /** The run's chunks in execution order; empty if the run has no plan yet. */
+  @SuppressWarnings("unchecked")
+  public List<Chunk> findChunks(UUID tenantId, UUID payRunId) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT chunk_index, array_to_string(employee_ids, ','), status
+                FROM human.human_pay_run_chunk
+                WHERE tenant_id = :tenantId
+                  AND pay_run_id = :payRunId
+                ORDER BY chunk_index
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("payRunId", payRunId)
+            .getResultList();
+    return rows.stream()
+        .map(
+            r ->
+                new Chunk(((Number) r[0]).intValue(), parseIds((String) r[1]), (String) r[2]))
+        .toList();
+  }
+
+  /** Replaces the run's plan with the given chunks, all pending. */
+  public void replacePlan(UUID tenantId, UUID payRunId, List<List<UUID>> chunks) {
+    entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM human.human_pay_run_chunk
+            WHERE tenant_id = :tenantId
+              AND pay_run_id = :payRunId
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("payRunId", payRunId)
+        .executeUpdate();
+    if (chunks.isEmpty()) {
+      return;
+    }
+
+    List<Map<String, Object>> records = new ArrayList<>(chunks.size());
+    for (int i = 0; i < chunks.size(); i++) {
+      Map<String, Object> record = new LinkedHashMap<>();
+      record.put("chunk_index", i);
+      record.put("employee_ids", chunks.get(i));
+      records.add(record);
+    }
+    entityManager
+        .createNativeQuery(
+            """
+            INSERT INTO human.human_pay_run_chunk (tenant_id, pay_run_id, chunk_index, employee_ids)
+            SELECT CAST(:tenantId AS uuid), CAST(:payRunId AS uuid), r.chunk_index,
+                   ARRAY(SELECT CAST(e AS uuid) FROM jsonb_array_elements_text(r.employee_ids) e)
+            FROM jsonb_to_recordset(CAST(:rows AS jsonb)) AS r(chunk_index int, employee_ids jsonb)
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("payRunId", payRunId)
+        .setParameter("rows", nativeSql.jsonRows(records, "pay run chunks"))
+        .executeUpdate();
+  }
+
+  /**
+   * Writes the net amounts of one chunk in a single statement. A new payout starts as PENDING; an
+   * existing one only takes the new amount and currency, so its payment state is kept.
+   */
+  public void upsertPayouts(
+      UUID tenantId,
+      String tenantUid,
+      UUID actorId,
+      UUID payRunId,
+      String currency,
+      Map<UUID, BigDecimal> netAmounts) {
+    if (netAmounts.isEmpty()) {
+      return;
+    }
+    List<Map<String, Object>> records =
+        netAmounts.entrySet().stream()
+            .map(
+                entry -> {
+                  Map<String, Object> record = new LinkedHashMap<>();
+                  record.put("employee_id", entry.getKey());
+                  record.put("net_amount", entry.getValue());
+                  return record;
+                })
+            .toList();
+    entityManager
+        .createNativeQuery(
+            """
+            INSERT INTO human.human_pay_run_payout (
+                id, tenant_id, uid, pay_run_id, employee_id, net_amount, currency, status,
+                created_at, created_by, updated_at, updated_by, is_active, version)
+            SELECT gen_random_uuid(), CAST(:tenantId AS uuid),
+                   :tenantUid || '-PPO-'
+                       || upper(substr(replace(CAST(gen_random_uuid() AS text), '-', ''), 1, 8)),
+                   CAST(:payRunId AS uuid), r.employee_id, r.net_amount, :currency, 'PENDING',
+                   now(), CAST(:actorId AS uuid), now(), CAST(:actorId AS uuid), TRUE, 0
+            FROM jsonb_to_recordset(CAST(:rows AS jsonb)) AS r(employee_id uuid, net_amount numeric)
+            ON CONFLICT (pay_run_id, employee_id) DO UPDATE
+            SET net_amount = EXCLUDED.net_amount,
+                currency = EXCLUDED.currency,
+                updated_at = EXCLUDED.updated_at,
+                updated_by = EXCLUDED.updated_by,
+                version = human.human_pay_run_payout.version + 1
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("tenantUid", tenantUid)
+        .setParameter("actorId", actorId)
+        .setParameter("payRunId", payRunId)
+        .setParameter("currency", currency)
+        .setParameter("rows", nativeSql.jsonRows(records, "pay run payouts"))
+        .executeUpdate();
+  }
+
+  /**
+   * Net amounts written for the employees of the run's completed chunks, so a resumed execution can
+   * report the chunks it did not run again.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<UUID, BigDecimal> findCompletedNetAmounts(UUID tenantId, UUID payRunId) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT p.employee_id, p.net_amount
+                FROM human.human_pay_run_chunk c
+                JOIN human.human_pay_run_payout p
+                  ON p.tenant_id = c.tenant_id
+                 AND p.pay_run_id = c.pay_run_id
+                 AND p.employee_id = ANY (c.employee_ids)
+                WHERE c.tenant_id = :tenantId
+                  AND c.pay_run_id = :payRunId
+                  AND c.status = 'COMPLETED'
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("payRunId", payRunId)
+            .getResultList();
+    Map<UUID, BigDecimal> netAmounts = new LinkedHashMap<>();
+    for (Object[] row : rows) {
+      netAmounts.put((UUID) row[0], (BigDecimal) row[1]);
+    }
+    return netAmounts;
+  }
+
+  public void markCompleted(UUID tenantId, UUID payRunId, int chunkIndex) {
+    entityManager
+        .createNativeQuery(
+            """
+            UPDATE human.human_pay_run_chunk
+            SET status = 'COMPLETED',
+                attempts = attempts + 1,
+                last_error = NULL,
+                completed_at = now()
+            WHERE tenant_id = :tenantId
+              AND pay_run_id = :payRunId
+              AND chunk_index = :chunkIndex
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("payRunId", payRunId)
+        .setParameter("chunkIndex", chunkIndex)
+        .executeUpdate();
+  }
+
+  public void markFailed(UUID tenantId, UUID payRunId, int chunkIndex, String error) {
+    String message = error != null ? error : "unknown error";
+    entityManager
+        .createNativeQuery(
+            """
+            UPDATE human.human_pay_run_chunk
+            SET status = 'FAILED',
+                attempts = attempts + 1,
+                last_error = :error
+            WHERE tenant_id = :tenantId
+              AND pay_run_id = :payRunId
+              AND chunk_index = :chunkIndex
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("payRunId", payRunId)
+        .setParameter("chunkIndex", chunkIndex)
+        .setParameter(
+            "error", message.substring(0, Math.min(message.length(), MAX_ERROR_LENGTH)))
+        .executeUpdate();
+  }
+
+  /** Chunk and employee counts of the run, by chunk status. */
+  public Progress findProgress(UUID tenantId, UUID payRunId) {
+    Object[] row =
+        (Object[])
+            entityManager
+                .createNativeQuery(
+                    """
+                    SELECT COUNT(*),
+                           COUNT(*) FILTER (WHERE status = 'COMPLETED'),
+                           COUNT(*) FILTER (WHERE status = 'FAILED'),
+                           COALESCE(SUM(cardinality(employee_ids)), 0),
+                           COALESCE(SUM(cardinality(employee_ids))
+                               FILTER (WHERE status = 'COMPLETED'), 0)
+                    FROM human.human_pay_run_chunk
+                    WHERE tenant_id = :tenantId
+                      AND pay_run_id = :payRunId
+                    """)
+                .setParameter("tenantId", tenantId)
+                .setParameter("payRunId", payRunId)
+                .getSingleResult();
+    return new Progress(
+        ((Number) row[0]).intValue(),
+        ((Number) row[1]).intValue(),
+        ((Number) row[2]).intValue(),
+        ((Number) row[3]).intValue(),
+        ((Number) row[4]).intValue());
+  }
+
+  private static List<UUID> parseIds(String ids) {
+    if (ids == null || ids.isEmpty()) {
+      return List.of();
+    }
+    return Arrays.stream(ids.split(",")).map(UUID::fromString).toList();
+  }
+
+  /** A slice of a pay run's employees, executed and committed as one unit. */
+  public record Chunk(int index, List<UUID> employeeIds, String status) {
+
+    public boolean isCompleted() {
+      return COMPLETED.equals(status);
+    }
+  }
+
+  public record Progress(
+      int totalChunks,
+      int completedChunks,
+      int failedChunks,
+      int totalEmployees,
+      int processedEmployees) {}
+}
@@ -4,43 +4,162 @@ import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.human.compliance.localization.app.HrPolicyPackResolver;
 import com.fabricmanagement.human.compliance.localization.app.HrPolicyPackService;
 import com.fabricmanagement.human.compliance.localization.app.ResolvedPolicyPack;
+import com.fabricmanagement.human.payroll.app.PayRunChunkStore.Chunk;
+import com.fabricmanagement.human.payroll.app.PayRunChunkStore.Progress;
 import com.fabricmanagement.human.payroll.domain.PayPeriod;
 import com.fabricmanagement.human.payroll.domain.PayRun;
-import com.fabricmanagement.human.payroll.domain.PayRunPayout;
-import com.fabricmanagement.human.payroll.infra.repository.PayRunPayoutRepository;
+import com.fabricmanagement.human.payroll.domain.PayRunStatus;
+import com.fabricmanagement.human.payroll.dto.PayRunProgressDto;
 import com.fabricmanagement.human.payroll.strategy.PayrollContext;
 import com.fabricmanagement.human.payroll.strategy.PayrollResult;
 import com.fabricmanagement.human.payroll.strategy.PayrollStrategy;
+import com.fabricmanagement.platform.user.domain.SystemUser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Executes pay runs through the country's {@link PayrollStrategy}.
+ *
+ * <p>The run's employees are split into chunks of {@code chunk-size}, and the chunks are executed
+ * by up to {@code parallelism} worker threads. Each chunk is one transaction: the strategy computes
+ * its employees, the payouts are written with one upsert and the chunk is marked completed. A
+ * failing chunk is recorded and the others still run; the run is then marked FAILED, and executing
+ * it again with the same employees runs only the chunks that did not complete.
+ *
+ * <p>An execution first claims the run ({@link PayRunChunkStore#claimRun}) and holds it as
+ * IN_PROGRESS until it ends the run as VALIDATED or FAILED, so a second execution of the same run
+ * is refused instead of computing and writing the same payouts alongside it. A run left IN_PROGRESS
+ * by an execution that died is set to FAILED through {@link PayRunService#updateStatus} and then
+ * resumes like any failed run.
+ *
+ * <p>The result of a resumed execution still covers every employee: the net amounts of chunks
+ * completed by an earlier execution are read back from their written payouts. Strategy metadata
+ * is not stored, so it covers only the chunks run in this execution; the EXECUTE audit entry names
+ * the chunks carried over.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PayrollService {
 
   private final PayRunService payRunService;
-  private final PayRunPayoutRepository payRunPayoutRepository;
+  private final PayRunChunkStore chunkStore;
   private final PayrollStrategyRegistry strategyRegistry;
   private final PayRunAuditService auditService;
   private final PayrollComplianceService payrollComplianceService;
   private final HrPolicyPackService hrPolicyPackService;
   private final HrPolicyPackResolver hrPolicyPackResolver;
   private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${application.payroll.chunk-size:500}")
+  private int chunkSize;
+
+  @Value("${application.payroll.parallelism:4}")
+  private int parallelism;
 
-  @Transactional
   public PayrollResult executePayRun(
       UUID payRunId, List<UUID> employeeIds, Map<String, Object> policyParameters) {
+    Execution execution =
+        transactionTemplate.execute(status -> prepare(payRunId, employeeIds, policyParameters));
+
+    List<Chunk> pending = execution.chunks().stream().filter(c -> !c.isCompleted()).toList();
+    if (pending.size() < execution.chunks().size()) {
+      log.info(
+          "Resuming pay run: id={}, completedChunks={}, pendingChunks={}",
+          payRunId,
+          execution.chunks().size() - pending.size(),
+          pending.size());
+    }
+
+    List<ChunkOutcome> outcomes;
+    try {
+      outcomes = runChunks(execution, pending);
+    } catch (RuntimeException e) {
+      payRunService.updateStatus(payRunId, PayRunStatus.FAILED, e.getMessage());
+      throw e;
+    }
+
+    Map<UUID, BigDecimal> netAmounts = new HashMap<>();
+    Map<UUID, Map<String, Object>> metadata = new HashMap<>();
+    List<Integer> failedChunks = new ArrayList<>();
+    for (ChunkOutcome outcome : outcomes) {
+      if (outcome.result() == null) {
+        failedChunks.add(outcome.chunkIndex());
+        continue;
+      }
+      netAmounts.putAll(outcome.result().netAmounts());
+      if (outcome.result().metadata() != null) {
+        metadata.putAll(outcome.result().metadata());
+      }
+    }
+
+    if (!failedChunks.isEmpty()) {
+      String note =
+          failedChunks.size()
+              + " of "
+              + execution.chunks().size()
+              + " chunks failed "
+              + failedChunks
+              + "; execute the run again to resume";
+      payRunService.updateStatus(payRunId, PayRunStatus.FAILED, note);
+      throw new IllegalStateException("Pay run " + payRunId + " failed: " + note);
+    }
+
+    List<Integer> carriedOver =
+        execution.chunks().stream().filter(Chunk::isCompleted).map(Chunk::index).toList();
+    return transactionTemplate.execute(
+        status -> {
+          if (!carriedOver.isEmpty()) {
+            chunkStore
+                .findCompletedNetAmounts(execution.tenantId(), payRunId)
+                .forEach(netAmounts::putIfAbsent);
+          }
+          PayrollResult result = new PayrollResult(netAmounts, metadata);
+          auditService.record(
+              payRunService.getPayRun(payRunId),
+              "EXECUTE",
+              "Payroll executed via strategy "
+                  + execution.strategy().getClass().getSimpleName()
+                  + " in "
+                  + execution.chunks().size()
+                  + " chunks"
+                  + (carriedOver.isEmpty()
+                      ? ""
+                      : ", " + carriedOver.size() + " carried over from an earlier execution"),
+              serializeMetadata(result, execution.resolvedPack(), carriedOver));
+          payRunService.updateStatus(payRunId, PayRunStatus.VALIDATED, null);
+          return result;
+        });
+  }
+
+  @Transactional(readOnly = true)
+  public PayRunProgressDto getProgress(UUID payRunId) {
+    PayRun payRun = payRunService.getPayRun(payRunId);
+    Progress progress = chunkStore.findProgress(TenantContext.requireTenantId(), payRunId);
+    return PayRunProgressDto.of(payRunId, payRun.getStatus(), progress);
+  }
+
+  private Execution prepare(
+      UUID payRunId, List<UUID> employeeIds, Map<String, Object> policyParameters) {
     PayRun payRun = payRunService.getPayRun(payRunId);
     PayPeriod period = payRun.getPayPeriod();
     payrollComplianceService.validatePayRun(payRun);
@@ -69,49 +188,135 @@ public class PayrollService {
             mergedParameters);
 
     PayrollStrategy strategy = strategyRegistry.resolve(period.getCountryCode());
-    PayrollResult result = strategy.execute(context);
-
-    result
-        .netAmounts()
-        .forEach(
-            (employeeId, netAmount) -> {
-              PayRunPayout payout =
-                  payRunPayoutRepository
-                      .findByPayRunAndEmployee(payRun, employeeId)
-                      .orElseGet(
-                          () -> {
-                            PayRunPayout newPayout =
-                                PayRunPayout.builder()
-                                    .payRun(payRun)
-                                    .employeeId(employeeId)
-                                    .netAmount(BigDecimal.ZERO)
-                                    .currency(resolveCurrency(mergedParameters))
-                                    .status("PENDING")
-                                    .build();
-                            newPayout.setTenantId(payRun.getTenantId());
-                            return newPayout;
-                          });
-              payout.setNetAmount(netAmount);
-              payout.setCurrency(resolveCurrency(mergedParameters));
-              payRunPayoutRepository.save(payout);
-            });
-
-    auditService.record(
-        payRun,
-        "EXECUTE",
-        "Payroll executed via strategy " + strategy.getClass().getSimpleName(),
-        serializeMetadata(result, resolvedPack));
-
-    payRunService.updateStatus(
-        payRunId, com.fabricmanagement.human.payroll.domain.PayRunStatus.VALIDATED, null);
-    return result;
+    UUID actorId = TenantContext.getCurrentUserId();
+    PayRunStatus previousStatus =
+        chunkStore
+            .claimRun(tenantId, payRunId, actorId != null ? actorId : SystemUser.ID)
+            .orElseThrow(
+                () ->
+                    new IllegalStateException(
+                        "Pay run "
+                            + payRunId
+                            + " is already being executed or can no longer be executed"));
+    List<Chunk> chunks = planChunks(tenantId, payRunId, previousStatus, employeeIds);
+    return new Execution(
+        tenantId, context, strategy, resolvedPack, resolveCurrency(mergedParameters), chunks);
+  }
+
+  /**
+   * Keeps the existing plan of a FAILED run over the same employees, so completed chunks are not
+   * executed again; otherwise plans the run afresh. {@code previousStatus} is the status the run
+   * had before this execution claimed it.
+   */
+  private List<Chunk> planChunks(
+      UUID tenantId, UUID payRunId, PayRunStatus previousStatus, List<UUID> employeeIds) {
+    if (previousStatus == PayRunStatus.FAILED) {
+      List<Chunk> existing = chunkStore.findChunks(tenantId, payRunId);
+      List<UUID> planned = existing.stream().flatMap(c -> c.employeeIds().stream()).toList();
+      if (!existing.isEmpty() && new HashSet<>(planned).equals(new HashSet<>(employeeIds))) {
+        return existing;
+      }
+    }
+
+    List<UUID> distinct = employeeIds.stream().distinct().toList();
+    int size = Math.max(1, chunkSize);
+    List<List<UUID>> slices = new ArrayList<>();
+    for (int from = 0; from < distinct.size(); from += size) {
+      slices.add(List.copyOf(distinct.subList(from, Math.min(from + size, distinct.size()))));
+    }
+    chunkStore.replacePlan(tenantId, payRunId, slices);
+    List<Chunk> chunks = new ArrayList<>(slices.size());
+    for (int i = 0; i < slices.size(); i++) {
+      chunks.add(new Chunk(i, slices.get(i), "PENDING"));
+    }
+    return chunks;
+  }
+
+  private List<ChunkOutcome> runChunks(Execution execution, List<Chunk> pending) {
+    if (pending.isEmpty()) {
+      return List.of();
+    }
+    TenantContext.TenantSnapshot caller = TenantContext.capture();
+    int workers = Math.max(1, Math.min(parallelism, pending.size()));
+    List<Future<ChunkOutcome>> futures = new ArrayList<>(pending.size());
+    try (ExecutorService executor =
+        Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("pay-run-", 0).factory())) {
+      for (Chunk chunk : pending) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  TenantContext.restore(caller);
+                  try {
+                    return runChunk(execution, chunk);
+                  } finally {
+                    TenantContext.clear();
+                  }
+                }));
+      }
+    }
+
+    List<ChunkOutcome> outcomes = new ArrayList<>(futures.size());
+    for (Future<ChunkOutcome> future : futures) {
+      try {
+        outcomes.add(future.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while executing pay run", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Pay run chunk worker failed", e.getCause());
+      }
+    }
+    return outcomes;
+  }
+
+  private ChunkOutcome runChunk(Execution execution, Chunk chunk) {
+    UUID payRunId = execution.context().payRunId();
+    UUID actorId = TenantContext.getCurrentUserId();
+    try {
+      PayrollResult result =
+          transactionTemplate.execute(
+              status -> {
+                PayrollResult chunkResult =
+                    execution
+                        .strategy()
+                        .execute(execution.context().forEmployees(chunk.employeeIds()));
+                chunkStore.upsertPayouts(
+                    execution.tenantId(),
+                    TenantContext.getCurrentTenantUid(),
+                    actorId != null ? actorId : SystemUser.ID,
+                    payRunId,
+                    execution.currency(),
+                    chunkResult.netAmounts());
+                chunkStore.markCompleted(execution.tenantId(), payRunId, chunk.index());
+                return chunkResult;
+              });
+      return new ChunkOutcome(chunk.index(), result);
+    } catch (RuntimeException e) {
+      log.error(
+          "Pay run chunk failed: payRunId={}, chunk={}, employees={}: {}",
+          payRunId,
+          chunk.index(),
+          chunk.employeeIds().size(),
+          e.getMessage(),
+          e);
+      transactionTemplate.executeWithoutResult(
+          status ->
+              chunkStore.markFailed(
+                  execution.tenantId(), payRunId, chunk.index(), e.getMessage()));
+      return new ChunkOutcome(chunk.index(), null);
+    }
   }
 
-  private String serializeMetadata(PayrollResult result, ResolvedPolicyPack resolvedPack) {
+  private String serializeMetadata(
+      PayrollResult result, ResolvedPolicyPack resolvedPack, List<Integer> carriedOverChunks) {
     Map<String, Object> metadata = new HashMap<>();
     if (result.metadata() != null) {
       metadata.put("strategyMetadata", result.metadata());
     }
+    if (!carriedOverChunks.isEmpty()) {
+      // Their strategy metadata was not stored and is missing from strategyMetadata.
+      metadata.put("carriedOverChunks", carriedOverChunks);
+    }
     metadata.put("policyPackCode", resolvedPack.packCode());
     metadata.put("policyPackVersion", resolvedPack.packVersion());
     metadata.put("policyPackLineage", resolvedPack.lineageCodes());
@@ -147,4 +352,15 @@ public class PayrollService {
       return new HashMap<>();
     }
   }
+
+  private record Execution(
+      UUID tenantId,
+      PayrollContext context,
+      PayrollStrategy strategy,
+      ResolvedPolicyPack resolvedPack,
+      String currency,
+      List<Chunk> chunks) {}
+
+  /** {@code result} is null when the chunk failed. */
+  private record ChunkOutcome(int chunkIndex, PayrollResult result) {}
 }
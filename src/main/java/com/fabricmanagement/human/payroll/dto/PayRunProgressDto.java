@@ -0,0 +1,31 @@
+package com.fabricmanagement.human.payroll.dto;
+
+import com.fabricmanagement.human.payroll.app.PayRunChunkStore.Progress;
+import com.fabricmanagement.human.payroll.domain.PayRunStatus;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PayRunProgressDto {
+  private UUID payRunId;
+  private PayRunStatus status;
+  private int totalChunks;
+  private int completedChunks;
+  private int failedChunks;
+  private int totalEmployees;
+  private int processedEmployees;
+
+  public static PayRunProgressDto of(UUID payRunId, PayRunStatus status, Progress progress) {
+    return PayRunProgressDto.builder()
+        .payRunId(payRunId)
+        .status(status)
+        .totalChunks(progress.totalChunks())
+        .completedChunks(progress.completedChunks())
+        .failedChunks(progress.failedChunks())
+        .totalEmployees(progress.totalEmployees())
+        .processedEmployees(progress.processedEmployees())
+        .build();
+  }
+}
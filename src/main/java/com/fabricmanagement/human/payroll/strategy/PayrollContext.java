@@ -14,4 +14,19 @@ public record PayrollContext(
     String policyPackCode,
     Integer policyPackVersion,
     List<UUID> employeeIds,
-    Map<String, Object> policyParameters) {}
+    Map<String, Object> policyParameters) {
+
+  /** The same run narrowed to a chunk of its employees. */
+  public PayrollContext forEmployees(List<UUID> chunk) {
+    return new PayrollContext(
+        tenantId,
+        payRunId,
+        countryCode,
+        periodStart,
+        periodEnd,
+        policyPackCode,
+        policyPackVersion,
+        chunk,
+        policyParameters);
+  }
+}
@@ -1,5 +1,13 @@
 package com.fabricmanagement.human.payroll.strategy;
 
+/**
+ * Country-specific payroll calculation.
+ *
+ * <p>A pay run is executed in chunks of employees on several threads, each chunk through {@link
+ * #execute} with {@link PayrollContext#forEmployees}. An implementation must therefore compute
+ * every employee from the context's policy parameters alone, independently of the other employees,
+ * and must not keep state between calls.
+ */
 public interface PayrollStrategy {
 
   boolean supports(String countryCode);
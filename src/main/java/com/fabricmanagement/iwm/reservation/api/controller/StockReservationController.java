@@ -2,6 +2,8 @@ package com.fabricmanagement.iwm.reservation.api.controller;
 
 import com.fabricmanagement.iwm.reservation.app.StockReservationService;
 import com.fabricmanagement.iwm.reservation.dto.CreateReservationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult;
 import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
 import com.fabricmanagement.iwm.reservation.dto.StockReservationResponse;
 import io.swagger.v3.oas.annotations.Operation;
@@ -40,6 +42,14 @@ public class StockReservationController {
     return ResponseEntity.ok(reservationService.getFifoSuggestions(productId, requiredQty));
   }
 
+  @Operation(summary = "Allocate Lots for Many Order Lines")
+  @PostMapping("/allocations")
+  @PreAuthorize("@auth.can(authentication, 'products', 'read')")
+  public ResponseEntity<LotAllocationResult> allocateLots(
+      @RequestBody @Valid LotAllocationRequest request) {
+    return ResponseEntity.ok(reservationService.allocateLots(request));
+  }
+
   @Operation(summary = "Create Reservation")
   @PostMapping
   @PreAuthorize("@auth.can(authentication, 'products', 'write')")
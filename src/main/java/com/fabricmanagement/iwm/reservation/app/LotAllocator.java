@@ -0,0 +1,108 @@
+package com.fabricmanagement.iwm.reservation.app;
+
+import com.fabricmanagement.iwm.reservation.domain.LotAllocationStrategy;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult.LineAllocation;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult.LotAllocation;
+import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Birden çok sipariş satırını, ürün bazında strateji sırasına dizilmiş ortak lot bakiyeleri
+ * üzerinde tek geçişte paylaştırır.
+ *
+ * <p>Satırlar verilen sırayla işlenir; her satır ürününün aday listesinde kalan miktarı en öndeki
+ * bakiyeden tüketir. Bir bakiye hiçbir zaman mevcut miktarından fazla dağıtılmaz, dolayısıyla
+ * sonuç çakışmasızdır ve aynı girdi için her zaman aynıdır. Saf bellek içi hesaplamadır.
+ */
+final class LotAllocator {
+
+  private LotAllocator() {}
+
+  /**
+   * @param candidatesByProduct ürün başına aday bakiyeler, strateji sırasında
+   */
+  static LotAllocationResult allocate(
+      LotAllocationStrategy strategy,
+      List<LotAllocationRequest.Line> lines,
+      Map<UUID, List<LotSuggestion>> candidatesByProduct) {
+    Map<UUID, Pool> pools = new HashMap<>();
+    List<LineAllocation> allocations = new ArrayList<>(lines.size());
+    boolean fullyAllocated = true;
+
+    for (LotAllocationRequest.Line line : lines) {
+      Pool pool =
+          pools.computeIfAbsent(
+              line.getProductId(),
+              productId -> new Pool(candidatesByProduct.getOrDefault(productId, List.of())));
+      List<LotAllocation> lots = new ArrayList<>();
+      BigDecimal needed = line.getQuantity();
+      while (needed.signum() > 0 && pool.hasNext()) {
+        LotSuggestion lot = pool.current();
+        BigDecimal taken = needed.min(pool.remaining());
+        pool.take(taken);
+        needed = needed.subtract(taken);
+        lots.add(
+            LotAllocation.builder()
+                .batchId(lot.getBatchId())
+                .lotNumber(lot.getLotNumber())
+                .locationId(lot.getLocationId())
+                .quantity(taken)
+                .build());
+      }
+      fullyAllocated &= needed.signum() == 0;
+      allocations.add(
+          LineAllocation.builder()
+              .lineId(line.getLineId())
+              .productId(line.getProductId())
+              .requestedQty(line.getQuantity())
+              .allocatedQty(line.getQuantity().subtract(needed))
+              .shortfallQty(needed)
+              .lots(lots)
+              .build());
+    }
+
+    return LotAllocationResult.builder()
+        .strategy(strategy)
+        .fullyAllocated(fullyAllocated)
+        .lines(allocations)
+        .build();
+  }
+
+  /** Bir ürünün aday bakiyeleri ve en öndeki bakiyeden kalan miktar. */
+  private static final class Pool {
+    private final List<LotSuggestion> lots;
+    private int index;
+    private BigDecimal remaining;
+
+    Pool(List<LotSuggestion> lots) {
+      this.lots = lots;
+      this.remaining = lots.isEmpty() ? BigDecimal.ZERO : lots.getFirst().getAvailableQty();
+    }
+
+    boolean hasNext() {
+      return index < lots.size();
+    }
+
+    LotSuggestion current() {
+      return lots.get(index);
+    }
+
+    BigDecimal remaining() {
+      return remaining;
+    }
+
+    void take(BigDecimal quantity) {
+      remaining = remaining.subtract(quantity);
+      if (remaining.signum() == 0 && ++index < lots.size()) {
+        remaining = lots.get(index).getAvailableQty();
+      }
+    }
+  }
+}
@@ -1,5 +1,8 @@
 package com.fabricmanagement.iwm.reservation.app;
 
+import com.fabricmanagement.iwm.reservation.domain.LotAllocationStrategy;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult;
 import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
 import java.math.BigDecimal;
 import java.util.List;
@@ -8,4 +11,15 @@ import java.util.UUID;
 public interface StockReservationEngine {
   /** FIFO tabanlı, istenilen miktar için stok önerisinde bulunur. */
   List<LotSuggestion> suggestLotsFifo(UUID tenantId, UUID productId, BigDecimal requiredQty);
+
+  /**
+   * Birden çok satırı tek seferde, ortak lotlar üzerinde çakışmasız tahsis eder. Satırlar verilen
+   * sırayla karşılanır; stok yetmeyen satırların eksik miktarı sonuçta raporlanır. Hiçbir şey
+   * kaydedilmez.
+   */
+  LotAllocationResult allocateLots(
+      UUID tenantId,
+      List<LotAllocationRequest.Line> lines,
+      LotAllocationStrategy strategy,
+      UUID originLocationId);
 }
@@ -1,23 +1,35 @@
 package com.fabricmanagement.iwm.reservation.app;
 
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
 import com.fabricmanagement.iwm.common.exception.IwmDomainException;
+import com.fabricmanagement.iwm.reservation.domain.LotAllocationStrategy;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult;
 import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 
 /**
- * FIFO bazlı stok lot önerici motor.
+ * FIFO/FEFO/en yakın lokasyon bazlı stok lot önerici ve tahsis motoru.
+ *
+ * <p>Aday bakiyeler tek sorguda, ürün başına kümülatif toplam (window function) ile seçilir: bir
+ * bakiye ancak kendisinden önceki bakiyeler talebi henüz karşılamıyorsa döner. Böylece binlerce
+ * bakiyesi olan bir üründe bile yalnızca gereken kadar satır veritabanından çıkar.
  *
  * <p><b>Şema Bağımlılık Notu (CR-10-02):</b> Bu sorgu {@code
  * production.production_execution_inventory_balance} ve {@code
@@ -29,7 +41,72 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class StockReservationEngineImpl implements StockReservationEngine {
 
+  /**
+   * {@code %1$s}: lokasyon mesafesi ifadesi, {@code %2$s}: ek filtre, {@code %3$s}: strateji
+   * sırası. Parametreler: talep JSON'u, tenantId.
+   */
+  private static final String CANDIDATES_SQL =
+      """
+      WITH req AS (
+          SELECT r.product_id, r.required_qty
+          FROM jsonb_to_recordset(CAST(? AS jsonb)) AS r(product_id uuid, required_qty numeric)
+      ),
+      available AS (
+          SELECT
+              ib.id AS balance_id,
+              b.product_id,
+              ib.batch_id,
+              b.batch_code AS lot_number,
+              ib.location_id,
+              (ib.quantity - ib.reserved_quantity - ib.consumed_quantity - ib.waste_quantity)
+                  AS available_qty,
+              COALESCE(b.production_date, b.created_at) AS prod_date,
+              b.expiry_date,
+              %1$s AS location_distance,
+              req.required_qty
+          FROM req
+          JOIN production.production_execution_batch b ON b.product_id = req.product_id
+          JOIN production.production_execution_inventory_balance ib ON ib.batch_id = b.id
+          WHERE ib.tenant_id = ?
+            AND ib.is_active = TRUE
+            AND b.is_active = TRUE
+            AND ib.deleted_at IS NULL
+            AND b.deleted_at IS NULL
+            AND (ib.quantity - ib.reserved_quantity - ib.consumed_quantity - ib.waste_quantity) > 0
+            %2$s
+      ),
+      ranked AS (
+          SELECT a.*,
+                 SUM(a.available_qty) OVER (
+                     PARTITION BY a.product_id ORDER BY %3$s ROWS UNBOUNDED PRECEDING)
+                     AS running_qty
+          FROM available a
+      )
+      SELECT product_id, batch_id, lot_number, location_id, available_qty, prod_date, expiry_date
+      FROM ranked
+      WHERE running_qty - available_qty < required_qty
+      ORDER BY product_id, %3$s
+      """;
+
+  /**
+   * Başlangıç lokasyonundan adayın lokasyonuna ortak atadan geçerek kaç seviye çıkılması
+   * gerektiği; {@code path} "/DEPO/BOLGE/RAF" biçimindedir. Lokasyonsuz bakiyeler en sona kalır.
+   * Parametreler: originLocationId, tenantId.
+   */
+  private static final String LOCATION_DISTANCE_SQL =
+      """
+      COALESCE((
+              SELECT cardinality(o.segs) - (
+                  SELECT count(*) FROM generate_subscripts(o.segs, 1) AS i
+                  WHERE o.segs[1:i] = string_to_array(l.path, '/')[1:i])
+              FROM iwm.warehouse_location l,
+                   (SELECT string_to_array(path, '/') AS segs
+                    FROM iwm.warehouse_location
+                    WHERE id = CAST(? AS uuid) AND tenant_id = CAST(? AS uuid)) o
+              WHERE l.id = ib.location_id), 2147483647)""";
+
   private final JdbcTemplate jdbcTemplate;
+  private final NativeSqlSupport nativeSql;
 
   @Override
   public List<LotSuggestion> suggestLotsFifo(
@@ -41,61 +118,14 @@ public class StockReservationEngineImpl implements StockReservationEngine {
       throw new IwmDomainException("tenantId and productId must not be null");
     }
 
-    String sql =
-        """
-        SELECT
-            ib.batch_id,
-            b.batch_code as lot_number,
-            ib.location_id,
-            (ib.quantity - ib.reserved_quantity - ib.consumed_quantity - ib.waste_quantity) as available_qty,
-            COALESCE(b.production_date, b.created_at) as prod_date
-        FROM production.production_execution_inventory_balance ib
-        JOIN production.production_execution_batch b ON ib.batch_id = b.id
-        WHERE b.product_id = ?
-          AND ib.tenant_id = ?
-          AND ib.is_active = TRUE
-          AND b.is_active = TRUE
-          AND ib.deleted_at IS NULL
-          AND b.deleted_at IS NULL
-          AND (ib.quantity - ib.reserved_quantity - ib.consumed_quantity - ib.waste_quantity) > 0
-        ORDER BY COALESCE(b.production_date, b.created_at) ASC
-        """;
-
-    List<LotSuggestion> allAvailable =
-        jdbcTemplate.query(
-            sql,
-            new RowMapper<LotSuggestion>() {
-              @Override
-              public LotSuggestion mapRow(ResultSet rs, int rowNum) throws SQLException {
-                java.sql.Timestamp prodTs = rs.getTimestamp("prod_date");
-                OffsetDateTime prodDate =
-                    prodTs != null ? prodTs.toInstant().atOffset(ZoneOffset.UTC) : null;
-                return LotSuggestion.builder()
-                    .batchId(UUID.fromString(rs.getString("batch_id")))
-                    .lotNumber(rs.getString("lot_number"))
-                    .locationId(
-                        rs.getString("location_id") != null
-                            ? UUID.fromString(rs.getString("location_id"))
-                            : null)
-                    .availableQty(rs.getBigDecimal("available_qty"))
-                    .productionDate(prodDate)
-                    .build();
-              }
-            },
-            productId,
-            tenantId);
-
-    List<LotSuggestion> suggestions = new ArrayList<>();
-    BigDecimal accumulated = BigDecimal.ZERO;
-
-    for (LotSuggestion lot : allAvailable) {
-      if (accumulated.compareTo(requiredQty) >= 0) {
-        break;
-      }
-      suggestions.add(lot);
-      accumulated = accumulated.add(lot.getAvailableQty());
-    }
+    List<LotSuggestion> suggestions =
+        findCandidates(tenantId, Map.of(productId, requiredQty), LotAllocationStrategy.FIFO, null)
+            .getOrDefault(productId, List.of());
 
+    BigDecimal accumulated =
+        suggestions.stream()
+            .map(LotSuggestion::getAvailableQty)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
     if (accumulated.compareTo(requiredQty) < 0) {
       log.warn(
           "Insufficient stock for product {}. Required: {}, Available: {}",
@@ -106,4 +136,112 @@ public class StockReservationEngineImpl implements StockReservationEngine {
 
     return suggestions;
   }
+
+  @Override
+  public LotAllocationResult allocateLots(
+      UUID tenantId,
+      List<LotAllocationRequest.Line> lines,
+      LotAllocationStrategy strategy,
+      UUID originLocationId) {
+    if (tenantId == null || strategy == null) {
+      throw new IwmDomainException("tenantId and strategy must not be null");
+    }
+    if (strategy == LotAllocationStrategy.CLOSEST_LOCATION && originLocationId == null) {
+      throw new IwmDomainException("originLocationId is required for CLOSEST_LOCATION");
+    }
+
+    Set<UUID> lineIds = new HashSet<>();
+    Map<UUID, BigDecimal> requiredByProduct = new LinkedHashMap<>();
+    for (LotAllocationRequest.Line line : lines) {
+      if (!lineIds.add(line.getLineId())) {
+        throw new IwmDomainException("Line " + line.getLineId() + " appears more than once");
+      }
+      if (line.getQuantity() == null || line.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
+        throw new IwmDomainException("Required quantity must be positive");
+      }
+      requiredByProduct.merge(line.getProductId(), line.getQuantity(), BigDecimal::add);
+    }
+    if (requiredByProduct.isEmpty()) {
+      return LotAllocator.allocate(strategy, lines, Map.of());
+    }
+
+    LotAllocationResult result =
+        LotAllocator.allocate(
+            strategy,
+            lines,
+            findCandidates(tenantId, requiredByProduct, strategy, originLocationId));
+    log.info(
+        "Allocated lots: strategy={}, lines={}, products={}, fullyAllocated={}",
+        strategy,
+        lines.size(),
+        requiredByProduct.size(),
+        result.isFullyAllocated());
+    return result;
+  }
+
+  /**
+   * Her ürün için, strateji sırasında, toplam talebi karşılamaya yetecek kadar aday bakiye. Stok
+   * yetmiyorsa ürünün bütün uygun bakiyeleri döner.
+   */
+  private Map<UUID, List<LotSuggestion>> findCandidates(
+      UUID tenantId,
+      Map<UUID, BigDecimal> requiredByProduct,
+      LotAllocationStrategy strategy,
+      UUID originLocationId) {
+    List<Object> params = new ArrayList<>();
+    params.add(toJson(requiredByProduct));
+    String distance = "0";
+    if (strategy == LotAllocationStrategy.CLOSEST_LOCATION) {
+      distance = LOCATION_DISTANCE_SQL;
+      params.add(originLocationId.toString());
+      params.add(tenantId.toString());
+    }
+    params.add(tenantId);
+    String filter =
+        strategy == LotAllocationStrategy.FEFO
+            ? "AND (b.expiry_date IS NULL OR b.expiry_date > now())"
+            : "";
+    String order =
+        switch (strategy) {
+          case FIFO -> "prod_date, balance_id";
+          case FEFO -> "expiry_date NULLS LAST, prod_date, balance_id";
+          case CLOSEST_LOCATION -> "location_distance, prod_date, balance_id";
+        };
+
+    Map<UUID, List<LotSuggestion>> candidates = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        CANDIDATES_SQL.formatted(distance, filter, order),
+        rs -> {
+          candidates
+              .computeIfAbsent(UUID.fromString(rs.getString("product_id")), p -> new ArrayList<>())
+              .add(mapLot(rs));
+        },
+        params.toArray());
+    return candidates;
+  }
+
+  private static LotSuggestion mapLot(ResultSet rs) throws SQLException {
+    return LotSuggestion.builder()
+        .batchId(UUID.fromString(rs.getString("batch_id")))
+        .lotNumber(rs.getString("lot_number"))
+        .locationId(
+            rs.getString("location_id") != null
+                ? UUID.fromString(rs.getString("location_id"))
+                : null)
+        .availableQty(rs.getBigDecimal("available_qty"))
+        .productionDate(toOffsetDateTime(rs.getTimestamp("prod_date")))
+        .expiryDate(toOffsetDateTime(rs.getTimestamp("expiry_date")))
+        .build();
+  }
+
+  private static OffsetDateTime toOffsetDateTime(Timestamp ts) {
+    return ts != null ? ts.toInstant().atOffset(ZoneOffset.UTC) : null;
+  }
+
+  private String toJson(Map<UUID, BigDecimal> requiredByProduct) {
+    List<Map<String, Object>> records = new ArrayList<>(requiredByProduct.size());
+    requiredByProduct.forEach(
+        (productId, qty) -> records.add(Map.of("product_id", productId, "required_qty", qty)));
+    return nativeSql.jsonRows(records, "lot requirements");
+  }
 }
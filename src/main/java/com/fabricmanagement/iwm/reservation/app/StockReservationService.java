@@ -6,6 +6,8 @@ import com.fabricmanagement.iwm.reservation.domain.StockReservation;
 import com.fabricmanagement.iwm.reservation.domain.event.ReservationConvertedEvent;
 import com.fabricmanagement.iwm.reservation.domain.event.ReservationCreatedEvent;
 import com.fabricmanagement.iwm.reservation.domain.event.ReservationReleasedEvent;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult;
 import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
 import com.fabricmanagement.iwm.reservation.dto.StockReservationResponse;
 import com.fabricmanagement.iwm.reservation.infra.repository.StockReservationRepository;
@@ -35,6 +37,13 @@ public class StockReservationService {
     return engine.suggestLotsFifo(tenantId, productId, requiredQty);
   }
 
+  @Transactional(readOnly = true)
+  public LotAllocationResult allocateLots(LotAllocationRequest request) {
+    UUID tenantId = TenantContext.requireTenantId();
+    return engine.allocateLots(
+        tenantId, request.getLines(), request.getStrategy(), request.getOriginLocationId());
+  }
+
   @Transactional
   public StockReservationResponse createReservation(
       UUID salesOrderLineId,
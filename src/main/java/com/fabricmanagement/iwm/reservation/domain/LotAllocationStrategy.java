@@ -0,0 +1,14 @@
+package com.fabricmanagement.iwm.reservation.domain;
+
+/**
+ * Lot tahsisinde hangi stok bakiyesinin önce kullanılacağını belirler. Eşitlikte her stratejide
+ * üretim tarihi, ardından bakiye kimliği sırası kullanılır; aynı stok için sonuç hep aynıdır.
+ */
+public enum LotAllocationStrategy {
+  /** İlk üretilen ilk çıkar. */
+  FIFO,
+  /** Son kullanma tarihi en yakın olan ilk çıkar; süresi geçmiş lotlar tahsis edilmez. */
+  FEFO,
+  /** Başlangıç lokasyonuna lokasyon ağacında en yakın bakiye ilk çıkar. */
+  CLOSEST_LOCATION
+}
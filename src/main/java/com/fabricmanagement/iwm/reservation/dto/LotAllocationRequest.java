@@ -0,0 +1,30 @@
+package com.fabricmanagement.iwm.reservation.dto;
+
+import com.fabricmanagement.iwm.reservation.domain.LotAllocationStrategy;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+
+@Data
+public class LotAllocationRequest {
+  @NotNull private LotAllocationStrategy strategy;
+
+  /** CLOSEST_LOCATION için zorunlu: mesafelerin ölçüldüğü lokasyon (ör. sevkiyat rampası). */
+  private UUID originLocationId;
+
+  /** Satırlar verilen sırayla tahsis edilir; öncelikli satırlar başa yazılmalıdır. */
+  @NotEmpty @Size(max = 1000) @Valid private List<Line> lines;
+
+  @Data
+  public static class Line {
+    @NotNull private UUID lineId;
+    @NotNull private UUID productId;
+    @NotNull @Positive private BigDecimal quantity;
+  }
+}
@@ -0,0 +1,36 @@
+package com.fabricmanagement.iwm.reservation.dto;
+
+import com.fabricmanagement.iwm.reservation.domain.LotAllocationStrategy;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LotAllocationResult {
+  private LotAllocationStrategy strategy;
+  private boolean fullyAllocated;
+  private List<LineAllocation> lines;
+
+  @Data
+  @Builder
+  public static class LineAllocation {
+    private UUID lineId;
+    private UUID productId;
+    private BigDecimal requestedQty;
+    private BigDecimal allocatedQty;
+    private BigDecimal shortfallQty;
+    private List<LotAllocation> lots;
+  }
+
+  @Data
+  @Builder
+  public static class LotAllocation {
+    private UUID batchId;
+    private String lotNumber;
+    private UUID locationId;
+    private BigDecimal quantity;
+  }
+}
@@ -14,4 +14,5 @@ public class LotSuggestion {
   private UUID locationId;
   private BigDecimal availableQty;
   private OffsetDateTime productionDate;
+  private OffsetDateTime expiryDate;
 }
@@ -0,0 +1,140 @@
+package com.fabricmanagement.notification.hub.app;
+
+import com.fabricmanagement.notification.hub.domain.*;
+import com.fabricmanagement.notification.hub.infra.repository.NotificationQueueRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bildirim birleştirme (coalescing) aşaması.
+ *
+ * <p>Toplu stok girişi gibi işlemler aynı alıcıya yüzlerce benzer bildirim üretir. Anahtar (alıcı,
+ * event tipi, kanal, referans tipi) başına bu patlamalar tek bir özet kaydında toplanır; özet
+ * sayaç ve referans listesi taşır ve {@code scheduledAt} gelince tek bildirim olarak gönderilir.
+ *
+ * <ul>
+ *   <li>INSTANT şablon: patlamanın ilk bildirimi hemen gider; şablonun {@code
+ *       groupingWindowMinutes} penceresi içinde gelenler pencere sonunda tek özet olarak gider.
+ *   <li>DIGEST şablon: ilk bildirim de bekletilir — EMAIL kanalında günlük özet saatine, diğer
+ *       kanallarda pencere sonuna kadar.
+ *   <li>CRITICAL ve SCHEDULED şablonlar birleştirilmez.
+ * </ul>
+ *
+ * <p>Aynı anahtar için eşzamanlı iki ilk bildirim ikisi de hemen gidebilir; birleştirme gürültüyü
+ * azaltmak içindir, tam tekillik garantisi vermez.
+ */
+@Component
+@Slf4j
+public class NotificationCoalescer {
+
+  private final NotificationQueueRepository queueRepo;
+  private final boolean enabled;
+  private final LocalTime dailyDigestAt;
+  private final ZoneId dailyDigestZone;
+
+  public NotificationCoalescer(
+      NotificationQueueRepository queueRepo,
+      @Value("${application.notification.coalescing.enabled:true}") boolean enabled,
+      @Value("${application.notification.coalescing.daily-digest-at:08:00}") String dailyDigestAt,
+      @Value("${application.notification.coalescing.daily-digest-zone:UTC}")
+          ZoneId dailyDigestZone) {
+    this.queueRepo = queueRepo;
+    this.enabled = enabled;
+    this.dailyDigestAt = LocalTime.parse(dailyDigestAt);
+    this.dailyDigestZone = dailyDigestZone;
+  }
+
+  /**
+   * Bildirimi açık bir özete katar veya yeni bir bekletilen özet açar.
+   *
+   * @return bildirim özet tarafından karşılandıysa {@code true}; {@code false} ise çağıran normal
+   *     (anında) kuyruk kaydını oluşturur
+   */
+  public boolean absorb(NotificationContext ctx, NotificationTemplate template, String locale) {
+    if (!enabled
+        || template.getImportance() == NotificationImportance.CRITICAL
+        || template.getDeliveryType() == NotificationDeliveryType.SCHEDULED) {
+      return false;
+    }
+    boolean digestTemplate = template.getDeliveryType() == NotificationDeliveryType.DIGEST;
+    boolean daily = digestTemplate && template.getChannel() == NotificationChannel.EMAIL;
+    Duration window = groupingWindow(template);
+    if (!daily && window.isZero()) {
+      return false;
+    }
+
+    Instant now = Instant.now();
+    String referenceType = ctx.referenceType() != null ? ctx.referenceType() : "";
+    var open =
+        queueRepo.findOpenDigestsForUpdate(
+            ctx.recipientId(), ctx.eventType(), template.getChannel(), referenceType, now);
+    if (!open.isEmpty()) {
+      NotificationQueue digest = open.getFirst();
+      digest.absorb(ctx.queuePayload(), ctx.referenceId());
+      queueRepo.save(digest);
+      log.debug(
+          "Coalesced notification: recipient={} event={} channel={} count={}",
+          ctx.recipientId(),
+          ctx.eventType(),
+          template.getChannel(),
+          digest.getDigestCount());
+      return true;
+    }
+
+    Instant sendAt;
+    if (daily) {
+      sendAt = nextDailyDigest(now, dailyDigestAt, dailyDigestZone);
+    } else if (digestTemplate
+        || queueRepo.existsQueuedSince(
+            ctx.recipientId(),
+            ctx.eventType(),
+            template.getChannel(),
+            referenceType,
+            now.minus(window))) {
+      sendAt = now.plus(window);
+    } else {
+      // Patlamanın ilk bildirimi — beklemeden gönderilir
+      return false;
+    }
+
+    queueRepo.save(
+        NotificationQueue.digest(
+            ctx.tenantId(),
+            ctx.recipientId(),
+            ctx.eventType(),
+            template.getChannel(),
+            template.getImportance(),
+            ctx.queuePayload(),
+            locale,
+            ctx.referenceType(),
+            ctx.referenceId(),
+            sendAt));
+    log.debug(
+        "Opened notification digest: recipient={} event={} channel={} sendAt={}",
+        ctx.recipientId(),
+        ctx.eventType(),
+        template.getChannel(),
+        sendAt);
+    return true;
+  }
+
+  private static Duration groupingWindow(NotificationTemplate template) {
+    Integer minutes = template.getGroupingWindowMinutes();
+    return minutes == null || minutes <= 0 ? Duration.ZERO : Duration.ofMinutes(minutes);
+  }
+
+  /** {@code now}'dan sonraki ilk günlük özet anı. */
+  static Instant nextDailyDigest(Instant now, LocalTime at, ZoneId zone) {
+    ZonedDateTime candidate = now.atZone(zone).with(at);
+    if (!candidate.toInstant().isAfter(now)) {
+      candidate = candidate.plusDays(1).with(at);
+    }
+    return candidate.toInstant();
+  }
+}
@@ -1,5 +1,6 @@
 package com.fabricmanagement.notification.hub.app;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -36,4 +37,22 @@ public record NotificationContext(
     return new NotificationContext(
         tenantId, recipientId, eventType, payload, referenceId, referenceType);
   }
+
+  /**
+   * Kuyruğa yazılacak payload: şablon parametrelerine referans bilgisi eklenir (log kaydı
+   * {@code referenceId}/{@code referenceType}'ı buradan okur).
+   */
+  public Map<String, String> queuePayload() {
+    if (referenceId == null && referenceType == null) {
+      return payload;
+    }
+    Map<String, String> merged = payload != null ? new HashMap<>(payload) : new HashMap<>();
+    if (referenceId != null) {
+      merged.putIfAbsent("referenceId", referenceId.toString());
+    }
+    if (referenceType != null) {
+      merged.putIfAbsent("referenceType", referenceType);
+    }
+    return merged;
+  }
 }
@@ -17,7 +17,8 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>Akış: Event → Template bul → Tercih kontrolü → Locale çöz → Render → Queue → Log
  *
  * <p>CRITICAL eventler: tercih yok sayılır, anında tüm kanallar. HIGH / NORMAL eventler: kullanıcı
- * tercihine göre kanal.
+ * tercihine göre kanal; aynı türden bildirim patlamaları {@link NotificationCoalescer} ile tek
+ * özette toplanır.
  */
 @Service
 @RequiredArgsConstructor
@@ -29,6 +30,7 @@ public class NotificationHubService {
   private final NotificationLogRepository logRepo;
   private final UserNotificationPreferenceRepository prefRepo;
   private final TranslationService translationService;
+  private final NotificationCoalescer coalescer;
 
   /**
    * Bir alıcı için bildirim oluşturur ve kuyruğa ekler.
@@ -145,6 +147,10 @@ public class NotificationHubService {
   }
 
   private void enqueue(NotificationContext ctx, NotificationTemplate template, String locale) {
+    if (coalescer.absorb(ctx, template, locale)) {
+      return;
+    }
+
     var queue =
         NotificationQueue.create(
             ctx.tenantId(),
@@ -153,8 +159,9 @@ public class NotificationHubService {
             template.getChannel(),
             template.getImportance(),
             template.getDeliveryType(),
-            ctx.payload(),
-            locale);
+            ctx.queuePayload(),
+            locale,
+            ctx.referenceType());
     queueRepo.save(queue);
 
     log.debug(
@@ -6,23 +6,36 @@ import com.fabricmanagement.notification.hub.infra.repository.*;
 import com.fabricmanagement.notification.hub.infra.websocket.InAppNotificationSender;
 import com.fabricmanagement.notification.i18n.app.TranslationService;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Tek bir bildirim kuyruğu kaydını işleyen servis.
+ * Bildirim kuyruğu kayıtlarını işleyen servis.
  *
  * <p>Scheduler'dan ayrılmıştır — böylece {@code @Transactional} Spring AOP proxy üzerinden doğru
  * çalışır (self-invocation sorunu yok).
  *
+ * <p>Toplu akış ({@link NotificationQueueProcessor}): claim edilmiş kayıtlar {@link
+ * #prepareBatch} ile tek transaction'da render edilir, {@link #deliver} ile transaction dışında
+ * paralel gönderilir, sonuçlar {@link #completeBatch} ile tek transaction'da yazılır. EMAIL
+ * transaction dışında gönderilmez: outbox satırı {@link #completeBatch} içinde, SENT ile aynı
+ * transaction'da yazılır; böylece commit edilmemiş bir SENT için email kuyruğa girmez, tekrar
+ * denenen bir kayıt için de ikinci kez girmez.
+ *
  * <p>Kanal gönderim:
  *
  * <ul>
- *   <li>IN_APP → WebSocket (SimpMessagingTemplate)
+ *   <li>IN_APP → WebSocket (WebSocketRelay)
  *   <li>EMAIL → EmailOutboxService (Transactional Outbox pattern)
  *   <li>PUSH → Stub (FCM/APNs — Faz 7 devamı)
  * </ul>
@@ -32,6 +45,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class NotificationItemProcessor {
 
+  /** Özet gövdesinin sonuna eklenen "{count} bildirim birleştirildi" satırı. */
+  static final String DIGEST_SUMMARY_KEY = "notification.digest.summary";
+
   private final NotificationQueueRepository queueRepo;
   private final NotificationLogRepository logRepo;
   private final NotificationTemplateRepository templateRepo;
@@ -58,138 +74,198 @@ public class NotificationItemProcessor {
   }
 
   /**
-   * Tek bir kuyruktaki bildirimi işler.
-   *
-   * <p>Akış: PENDING → PROCESSING → translate → send → log → SENT. Hata olursa: retryCount++ → 3'te
-   * FAILED.
-   *
-   * <p>{@code queueId} üzerinden satır kilidi ile yeniden yüklenir; scheduler veya çoklu instance
-   * ortamında aynı kayıt için optimistic locking hatası riski azalır.
+   * Claim edilmiş (PROCESSING) kayıtları gönderime hazırlar: şablonlar tek sorguda yüklenir,
+   * başlık ve gövde çeviri kataloğundan render edilir. Şablonu bulunamayan veya render edilemeyen
+   * kayıtlar hata ile döner ve gönderilmez. Bu arada kurtarılmış (artık PROCESSING olmayan)
+   * kayıtlar atlanır.
    */
-  @Transactional
-  public void processItem(UUID queueId) {
-    NotificationQueue item = queueRepo.findByIdWithWriteLock(queueId).orElse(null);
-    if (item == null
-        || item.getStatus() != NotificationQueueStatus.PENDING
-        || item.getRetryCount() >= 3) {
-      return;
+  @Transactional(readOnly = true)
+  public List<PreparedNotification> prepareBatch(Collection<UUID> queueIds) {
+    List<NotificationQueue> items =
+        queueRepo.findAllById(queueIds).stream()
+            .filter(item -> item.getStatus() == NotificationQueueStatus.PROCESSING)
+            .toList();
+    if (items.isEmpty()) {
+      return List.of();
     }
 
-    item.markProcessing();
-    queueRepo.save(item);
+    Map<TemplateKey, NotificationTemplate> templates = new HashMap<>();
+    templateRepo
+        .findAllActiveByEventTypeIn(
+            items.stream().map(NotificationQueue::getEventType).collect(Collectors.toSet()))
+        .forEach(
+            template ->
+                templates.putIfAbsent(
+                    new TemplateKey(template.getEventType(), template.getChannel()), template));
 
-    try {
-      var templateOpt =
-          templateRepo.findByEventTypeAndChannel(item.getEventType(), item.getChannel());
-
-      if (templateOpt.isEmpty()) {
-        item.markFailed(
-            "Template not found: event=" + item.getEventType() + " channel=" + item.getChannel());
-        queueRepo.save(item);
-        return;
+    List<PreparedNotification> prepared = new ArrayList<>(items.size());
+    for (NotificationQueue item : items) {
+      var template = templates.get(new TemplateKey(item.getEventType(), item.getChannel()));
+      if (template == null) {
+        prepared.add(PreparedNotification.of(item, null, null, templateNotFound(item)));
+        continue;
       }
+      try {
+        prepared.add(render(item, template));
+      } catch (Exception ex) {
+        log.error(
+            "Notification render failed: queueId={} event={}",
+            item.getId(),
+            item.getEventType(),
+            ex);
+        prepared.add(PreparedNotification.of(item, null, null, truncate(ex.getMessage())));
+      }
+    }
+    return prepared;
+  }
 
-      var template = templateOpt.get();
+  /**
+   * Hazırlanmış bildirimi kanalına gönderir. Transaction açmaz; bildirimin tenant context'inde
+   * çağrılmalıdır. Hata fırlatırsa gönderim başarısız sayılır. EMAIL için bir şey yapmaz — outbox
+   * satırı {@link #completeBatch} içinde yazılır.
+   */
+  public void deliver(PreparedNotification notification) {
+    switch (notification.channel()) {
+      case IN_APP -> sendInApp(notification);
+      case EMAIL -> {}
+      case PUSH -> sendPush(notification);
+    }
+  }
 
-      String title =
-          translationService.translateAndRender(
-              item.getTenantId(), item.getLocale(), template.getTitleKey(), item.getPayload());
-      String body =
-          translationService.translateAndRender(
-              item.getTenantId(), item.getLocale(), template.getBodyKey(), item.getPayload());
+  /**
+   * Gönderim sonuçlarını tek transaction'da yazar: başarılılar için log kayıtları toplu eklenir ve
+   * kayıt SENT olur, başarısızlar retry sayacıyla PENDING'e (3'te FAILED) döner. Insert ve
+   * update'ler Hibernate JDBC batch'leriyle gider.
+   *
+   * <p>Başarılı EMAIL kayıtlarının outbox satırı burada yazılır. Outbox yazılamazsa transaction
+   * geri alınır; kayıtlar PROCESSING'de kalır ve stuck recovery ile yeniden denenir.
+   */
+  @Transactional
+  public void completeBatch(List<DeliveryOutcome> outcomes) {
+    List<UUID> queueIds =
+        outcomes.stream().map(outcome -> outcome.notification().queueId()).toList();
+    Map<UUID, NotificationQueue> items =
+        queueRepo.findAllById(queueIds).stream()
+            .collect(Collectors.toMap(NotificationQueue::getId, Function.identity()));
 
-      // Kanal bazlı gönderim
-      switch (item.getChannel()) {
-        case IN_APP -> sendInApp(item, title, body);
-        case EMAIL -> sendEmail(item, title, body);
-        case PUSH -> sendPush(item, title, body);
+    List<NotificationLog> logs = new ArrayList<>();
+    List<NotificationQueue> updated = new ArrayList<>(outcomes.size());
+    for (DeliveryOutcome outcome : outcomes) {
+      NotificationQueue item = items.get(outcome.notification().queueId());
+      if (item == null || item.getStatus() != NotificationQueueStatus.PROCESSING) {
+        continue;
       }
-
-      // Log kaydı
-      var notifLog =
-          NotificationLog.from(
-              item.getTenantId(),
-              item.getRecipientId(),
-              item.getEventType(),
-              item.getChannel(),
-              item.getImportance(),
-              title,
-              body,
-              item.getLocale(),
-              extractReferenceId(item),
-              extractReferenceType(item),
-              null);
-      logRepo.save(notifLog);
-
-      item.markSent();
-      queueRepo.save(item);
-
-    } catch (Exception ex) {
-      String errorMsg = ex.getMessage();
-      if (errorMsg != null && errorMsg.length() > 500) {
-        errorMsg = errorMsg.substring(0, 500) + "...";
+      if (outcome.error() == null) {
+        if (outcome.notification().channel() == NotificationChannel.EMAIL) {
+          sendEmail(outcome.notification());
+        }
+        logs.add(toLog(outcome.notification()));
+        item.markSent();
+      } else {
+        item.markFailed(outcome.error());
       }
+      updated.add(item);
+    }
+    logRepo.saveAll(logs);
+    queueRepo.saveAll(updated);
+  }
 
-      log.error(
-          "Notification send failed: recipient={} event={} channel={} attempt={}",
-          item.getRecipientId(),
-          item.getEventType(),
-          item.getChannel(),
-          item.getRetryCount() + 1,
-          ex);
-      item.markFailed(errorMsg);
-      queueRepo.save(item);
+  private PreparedNotification render(NotificationQueue item, NotificationTemplate template) {
+    String title =
+        translationService.translateAndRender(
+            item.getTenantId(), item.getLocale(), template.getTitleKey(), item.getPayload());
+    String body =
+        translationService.translateAndRender(
+            item.getTenantId(), item.getLocale(), template.getBodyKey(), item.getPayload());
+    if (item.isDigest()) {
+      body +=
+          "\n\n"
+              + translationService.translateAndRender(
+                  item.getTenantId(),
+                  item.getLocale(),
+                  DIGEST_SUMMARY_KEY,
+                  Map.of("count", String.valueOf(item.getDigestCount())));
     }
+    return PreparedNotification.of(item, title, body, null);
   }
 
   // ---- Kanal Gönderim ----
 
-  private void sendInApp(NotificationQueue item, String title, String body) {
-    inAppSender.send(
-        item.getRecipientId(),
-        Map.of(
-            "eventType",
-            item.getEventType(),
-            "importance",
-            item.getImportance().name(),
-            "title",
-            title,
-            "body",
-            body,
-            "queueId",
-            item.getId() != null ? item.getId().toString() : ""));
+  private void sendInApp(PreparedNotification notification) {
+    Map<String, Object> message = new HashMap<>();
+    message.put("eventType", notification.eventType());
+    message.put("importance", notification.importance().name());
+    message.put("title", notification.title());
+    message.put("body", notification.body());
+    message.put(
+        "queueId", notification.queueId() != null ? notification.queueId().toString() : "");
+    if (notification.digestCount() > 1) {
+      message.put("digestCount", notification.digestCount());
+      message.put(
+          NotificationQueue.REFERENCE_IDS_KEY,
+          notification.payload().getOrDefault(NotificationQueue.REFERENCE_IDS_KEY, ""));
+    }
+    inAppSender.send(notification.recipientId(), message);
   }
 
-  private void sendEmail(NotificationQueue item, String title, String body) {
+  private void sendEmail(PreparedNotification notification) {
     userQueryService
-        .findEmailByUserId(item.getRecipientId())
+        .findEmailByUserId(notification.recipientId())
         .ifPresentOrElse(
-            email -> emailSender.send(item.getTenantId(), email, title, body),
+            email ->
+                emailSender.send(
+                    notification.tenantId(), email, notification.title(), notification.body()),
             () ->
                 log.warn(
                     "EMAIL notification skipped — no email found for userId={}",
-                    item.getRecipientId()));
+                    notification.recipientId()));
   }
 
-  private void sendPush(NotificationQueue item, String title, String body) {
+  private void sendPush(PreparedNotification notification) {
     userQueryService
-        .findPushTokenByUserId(item.getRecipientId())
+        .findPushTokenByUserId(notification.recipientId())
         .ifPresentOrElse(
             token ->
                 log.info(
                     "PUSH notification stub — token={}*** title={}",
                     token.substring(0, Math.min(6, token.length())),
-                    title),
+                    notification.title()),
             () ->
                 log.debug(
                     "PUSH notification skipped — no push token for userId={}",
-                    item.getRecipientId()));
+                    notification.recipientId()));
   }
 
   // ---- Yardımcı ----
 
-  private UUID extractReferenceId(NotificationQueue item) {
-    String refId = item.getPayload().get("referenceId");
+  private NotificationLog toLog(PreparedNotification notification) {
+    return NotificationLog.from(
+        notification.tenantId(),
+        notification.recipientId(),
+        notification.eventType(),
+        notification.channel(),
+        notification.importance(),
+        notification.title(),
+        notification.body(),
+        notification.locale(),
+        extractReferenceId(notification.payload()),
+        notification.payload().get("referenceType"),
+        notification.digestCount() > 1 ? notification.queueId() : null);
+  }
+
+  private static String templateNotFound(NotificationQueue item) {
+    return "Template not found: event=" + item.getEventType() + " channel=" + item.getChannel();
+  }
+
+  static String truncate(String errorMsg) {
+    if (errorMsg != null && errorMsg.length() > 500) {
+      return errorMsg.substring(0, 500) + "...";
+    }
+    return errorMsg;
+  }
+
+  private static UUID extractReferenceId(Map<String, String> payload) {
+    String refId = payload.get("referenceId");
     if (refId == null) return null;
     try {
       return UUID.fromString(refId);
@@ -198,7 +274,48 @@ public class NotificationItemProcessor {
     }
   }
 
-  private String extractReferenceType(NotificationQueue item) {
-    return item.getPayload().get("referenceType");
+  private record TemplateKey(String eventType, NotificationChannel channel) {}
+
+  /**
+   * Gönderime hazır bildirim — transaction dışında kanal thread'lerine taşınır, bu yüzden entity
+   * değil değer taşır. {@code error} doluysa hazırlık başarısız olmuştur, gönderilmez. {@code
+   * queuedAt} gönderim zamanının geldiği an (özetlerde {@code scheduledAt}), {@code digestCount}
+   * 1'den büyükse kayıt bir özettir.
+   */
+  public record PreparedNotification(
+      UUID queueId,
+      UUID tenantId,
+      UUID recipientId,
+      String eventType,
+      NotificationChannel channel,
+      NotificationImportance importance,
+      String locale,
+      Map<String, String> payload,
+      Instant queuedAt,
+      int digestCount,
+      String title,
+      String body,
+      String error) {
+
+    static PreparedNotification of(
+        NotificationQueue item, String title, String body, String error) {
+      return new PreparedNotification(
+          item.getId(),
+          item.getTenantId(),
+          item.getRecipientId(),
+          item.getEventType(),
+          item.getChannel(),
+          item.getImportance(),
+          item.getLocale(),
+          item.getPayload(),
+          item.getScheduledAt() != null ? item.getScheduledAt() : item.getCreatedAt(),
+          item.getDigestCount(),
+          title,
+          body,
+          error);
+    }
   }
+
+  /** Bir gönderimin sonucu; {@code error} null ise başarılı. */
+  public record DeliveryOutcome(PreparedNotification notification, String error) {}
 }
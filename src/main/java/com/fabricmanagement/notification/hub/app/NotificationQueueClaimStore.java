@@ -0,0 +1,117 @@
+package com.fabricmanagement.notification.hub.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.SystemTransactionExecutor;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bildirim kuyruğunun tenant'lar arası okunması ve iş sahiplenme (claim) sorguları.
+ *
+ * <p>Scheduler thread'inde {@code app.current_tenant} set edilmez; kuyruk tablosu RLS altında
+ * olduğundan JPA ile yapılan bekleyen kayıt sorgusu her zaman boş döner. Bu yüzden sorgular {@link
+ * SystemTransactionExecutor} ({@code fabric_system}, BYPASSRLS) üzerinden çalışır; kayıtların
+ * kendisi daha sonra kendi tenant context'inde yüklenip güncellenir (bkz. EmailOutboxService).
+ */
+@Component
+@RequiredArgsConstructor
+class NotificationQueueClaimStore {
+
+  /**
+   * En eski PENDING kayıtları PROCESSING'e çeker ve döndürür. {@code SKIP LOCKED} sayesinde aynı
+   * anda claim eden replikalar birbirini beklemez ve aynı kaydı almaz. Zamanı gelmemiş özetler
+   * ({@code scheduled_at} ileride) beklemeye devam eder; metrik sorguları da onları saymaz.
+   */
+  private static final String CLAIM_SQL =
+      """
+      UPDATE notification.notification_queue q
+      SET status = 'PROCESSING',
+          updated_at = now(),
+          version = q.version + 1
+      FROM (
+          SELECT id
+          FROM notification.notification_queue
+          WHERE status = 'PENDING'
+            AND retry_count < 3
+            AND is_active = true
+            AND (scheduled_at IS NULL OR scheduled_at <= now())
+          ORDER BY created_at
+          LIMIT ?
+          FOR UPDATE SKIP LOCKED
+      ) claimed
+      WHERE q.id = claimed.id
+      RETURNING q.id, q.tenant_id, q.created_at
+      """;
+
+  private static final String STUCK_SQL =
+      """
+      SELECT id, tenant_id, created_at
+      FROM notification.notification_queue
+      WHERE status = 'PROCESSING'
+        AND updated_at < ?
+        AND is_active = true
+      """;
+
+  private static final String PENDING_COUNT_SQL =
+      """
+      SELECT count(*)
+      FROM notification.notification_queue
+      WHERE status = 'PENDING'
+        AND retry_count < 3
+        AND is_active = true
+        AND (scheduled_at IS NULL OR scheduled_at <= now())
+      """;
+
+  private static final String OLDEST_PENDING_AGE_SQL =
+      """
+      SELECT COALESCE(EXTRACT(EPOCH FROM now() - min(COALESCE(scheduled_at, created_at))), 0)
+      FROM notification.notification_queue
+      WHERE status = 'PENDING'
+        AND retry_count < 3
+        AND is_active = true
+        AND (scheduled_at IS NULL OR scheduled_at <= now())
+      """;
+
+  private static final RowMapper<QueuedNotification> QUEUED =
+      (rs, rowNum) ->
+          new QueuedNotification(
+              rs.getObject("id", UUID.class),
+              rs.getObject("tenant_id", UUID.class),
+              rs.getTimestamp("created_at").toInstant());
+
+  private final SystemTransactionExecutor systemTransactionExecutor;
+
+  /** En fazla {@code limit} kaydı claim eder, eskiden yeniye. */
+  List<QueuedNotification> claim(int limit) {
+    return systemTransactionExecutor.executeInTransaction(
+        jdbc -> jdbc.query(CLAIM_SQL, QUEUED, limit));
+  }
+
+  /** {@code threshold}'dan beri PROCESSING'de kalan kayıtlar. */
+  List<QueuedNotification> findStuck(Instant threshold) {
+    return systemTransactionExecutor.executeQuery(STUCK_SQL, QUEUED, Timestamp.from(threshold));
+  }
+
+  /** Gönderilmeyi bekleyen kayıt sayısı (metrik). */
+  long countPending() {
+    Long count =
+        systemTransactionExecutor.executeQueryForObject(
+            PENDING_COUNT_SQL, (rs, rowNum) -> rs.getLong(1));
+    return count == null ? 0L : count;
+  }
+
+  /** Gönderim zamanı gelmiş en eski kaydın bekleme süresi, saniye; kuyruk boşsa 0 (metrik). */
+  double oldestPendingAgeSeconds() {
+    Double age =
+        systemTransactionExecutor.executeQueryForObject(
+            OLDEST_PENDING_AGE_SQL, (rs, rowNum) -> rs.getDouble(1));
+    return age == null ? 0d : age;
+  }
+
+  /** Kuyruk kaydının kimliği — tenant context olmadan okunur. */
+  record QueuedNotification(UUID id, UUID tenantId, Instant createdAt) {}
+}
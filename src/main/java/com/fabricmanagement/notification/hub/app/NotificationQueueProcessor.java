@@ -1,82 +1,283 @@
 package com.fabricmanagement.notification.hub.app;
 
-import com.fabricmanagement.notification.hub.domain.NotificationQueue;
-import com.fabricmanagement.notification.hub.domain.NotificationQueueStatus;
-import com.fabricmanagement.notification.hub.infra.repository.NotificationQueueRepository;
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.notification.hub.app.NotificationItemProcessor.DeliveryOutcome;
+import com.fabricmanagement.notification.hub.app.NotificationItemProcessor.PreparedNotification;
+import com.fabricmanagement.notification.hub.app.NotificationQueueClaimStore.QueuedNotification;
+import com.fabricmanagement.notification.hub.domain.NotificationChannel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
  * Bildirim kuyruğu scheduler'ı.
  *
- * <p>Periyodik olarak PENDING kayıtları alır ve {@link NotificationItemProcessor} ile işler.
+ * <p>Her turda en eski PENDING kayıtlar {@code FOR UPDATE SKIP LOCKED} ile toplu claim edilir;
+ * replikalar aynı kuyruğu birbirini beklemeden paylaşır. Claim edilen kayıtlar tenant bazında
+ * {@link NotificationItemProcessor#prepareBatch} ile render edilir, IN_APP ve PUSH kanal başına
+ * sınırlı eşzamanlılıkla (virtual thread + semaphore) gönderilir ve sonuçlar {@link
+ * NotificationItemProcessor#completeBatch} ile toplu yazılır. EMAIL'in outbox satırı da {@link
+ * NotificationItemProcessor#completeBatch} içinde yazılır. Bir tenant'ın toplu yazımı başarısız
+ * olursa sonuçlar tek tek yazılır; böylece yazılamayan bir kayıt diğerlerini PROCESSING'de tutmaz.
  *
- * <p>Ayrıca 5+ dakikadır PROCESSING statüsünde kalan kayıtları kurtarır (stuck recovery).
+ * <p>Dolu bir batch kuyrukta daha iş olduğunu gösterir: scheduler beklemeden bir sonraki batch'i
+ * claim eder ({@code drain-budget} süresince). Kuyruk boşalınca normal poll aralığına döner.
  *
- * <p>İşleme mantığı ayrı bir {@code @Service}'te tutulur — böylece Spring AOP proxy üzerinden
- * {@code @Transactional} doğru çalışır.
+ * <p>Ayrıca 5+ dakikadır PROCESSING statüsünde kalan kayıtları kurtarır (stuck recovery).
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationQueueProcessor {
 
+  private final NotificationQueueClaimStore claimStore;
+  private final NotificationItemProcessor itemProcessor;
+  private final MeterRegistry meterRegistry;
+  private final Map<NotificationChannel, Semaphore> channelPermits =
+      new EnumMap<>(NotificationChannel.class);
+  private final Timer batchTimer;
+  private final AtomicLong pendingCount = new AtomicLong();
+  private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+
   @Value("${application.notification.queue.batch-size:50}")
   private int batchSize;
 
   @Value("${application.notification.queue.stuck-threshold-minutes:5}")
   private int stuckThresholdMinutes;
 
-  private final NotificationQueueRepository queueRepo;
-  private final NotificationItemProcessor itemProcessor;
+  @Value("${application.notification.queue.drain-budget:PT1M}")
+  private Duration drainBudget;
 
-  /** Ana kuyruk işleme döngüsü — her 10 saniyede bir çalışır. */
+  public NotificationQueueProcessor(
+      NotificationQueueClaimStore claimStore,
+      NotificationItemProcessor itemProcessor,
+      MeterRegistry meterRegistry,
+      @Value("${application.notification.queue.in-app-parallelism:16}") int inAppParallelism,
+      @Value("${application.notification.queue.push-parallelism:4}") int pushParallelism) {
+    this.claimStore = claimStore;
+    this.itemProcessor = itemProcessor;
+    this.meterRegistry = meterRegistry;
+    channelPermits.put(NotificationChannel.IN_APP, new Semaphore(inAppParallelism));
+    channelPermits.put(NotificationChannel.PUSH, new Semaphore(pushParallelism));
+
+    // Scrape başına sorgu atılmaz; değerler her poll turunun sonunda yenilenir
+    Gauge.builder("notification.queue.pending.count", pendingCount, AtomicLong::get)
+        .description("Number of notifications waiting to be dispatched")
+        .register(meterRegistry);
+    Gauge.builder(
+            "notification.queue.oldest.pending.age", oldestPendingAgeSeconds, AtomicLong::get)
+        .description("Age of the oldest notification waiting to be dispatched")
+        .baseUnit("seconds")
+        .register(meterRegistry);
+    batchTimer =
+        Timer.builder("notification.dispatch.batch.duration")
+            .description("Time to claim, render, send and record one batch")
+            .register(meterRegistry);
+  }
+
+  /** Ana kuyruk işleme döngüsü — varsayılan olarak her 10 saniyede bir çalışır. */
   @Scheduled(fixedDelayString = "${application.notification.queue.poll-interval-ms:10000}")
   public void processQueue() {
     // 1. Stuck recovery — PROCESSING'de takılı kalmış kayıtları kurtar
     recoverStuckItems();
 
-    // 2. PENDING kayıtları al ve işle
-    List<NotificationQueue> pending =
-        queueRepo.findPendingForProcessing(
-            NotificationQueueStatus.PENDING, PageRequest.of(0, batchSize));
+    // 2. Kuyruk boşalana (veya drain bütçesi bitene) kadar batch batch işle
+    long deadline = System.nanoTime() + drainBudget.toNanos();
+    int claimed;
+    do {
+      claimed = dispatchBatch();
+    } while (claimed >= batchSize && System.nanoTime() < deadline);
+
+    // 3. Kuyruk metriklerini yenile
+    refreshQueueGauges();
+  }
 
-    if (pending.isEmpty()) {
-      return;
+  /**
+   * Bir batch'i claim edip işler.
+   *
+   * @return claim edilen kayıt sayısı
+   */
+  int dispatchBatch() {
+    List<QueuedNotification> claimed = claimStore.claim(batchSize);
+    if (claimed.isEmpty()) {
+      return 0;
     }
+    Timer.Sample sample = Timer.start(meterRegistry);
+    log.info("Processing {} pending notification(s)", claimed.size());
+
+    Map<UUID, List<UUID>> idsByTenant =
+        claimed.stream()
+            .collect(
+                Collectors.groupingBy(
+                    QueuedNotification::tenantId,
+                    LinkedHashMap::new,
+                    Collectors.mapping(QueuedNotification::id, Collectors.toList())));
+
+    List<PreparedNotification> prepared = new ArrayList<>(claimed.size());
+    idsByTenant.forEach(
+        (tenantId, ids) -> {
+          try {
+            prepared.addAll(
+                TenantContext.executeInTenantContext(
+                    tenantId, () -> itemProcessor.prepareBatch(ids)));
+          } catch (Exception ex) {
+            // Kayıtlar PROCESSING'de kalır; stuck recovery retry sayacıyla geri alır
+            log.error(
+                "Failed to prepare {} notification(s) for tenantId={}: {}",
+                ids.size(),
+                tenantId,
+                ex.getMessage());
+          }
+        });
+
+    List<DeliveryOutcome> outcomes = deliverAll(prepared);
+
+    outcomes.stream()
+        .collect(
+            Collectors.groupingBy(
+                outcome -> outcome.notification().tenantId(),
+                LinkedHashMap::new,
+                Collectors.toList()))
+        .forEach(
+            (tenantId, tenantOutcomes) -> {
+              try {
+                complete(tenantId, tenantOutcomes);
+              } catch (Exception ex) {
+                log.warn(
+                    "Failed to record {} notification outcome(s) for tenantId={}: {}",
+                    tenantOutcomes.size(),
+                    tenantId,
+                    ex.getMessage());
+                tenantOutcomes.forEach(outcome -> completeOne(tenantId, outcome));
+              }
+            });
+
+    sample.stop(batchTimer);
+    return claimed.size();
+  }
 
-    log.info("Processing {} pending notification(s)", pending.size());
-
-    for (NotificationQueue item : pending) {
-      try {
-        itemProcessor.processItem(item.getId());
-      } catch (Exception ex) {
-        // itemProcessor kendi içinde hataları yönetiyor,
-        // ama beklenmedik bir hata olursa (ör: DB bağlantısı) diğer kayıtları engellemesin
-        log.error(
-            "Unexpected error processing notification queueId={}: {}",
-            item.getId(),
-            ex.getMessage());
+  private void complete(UUID tenantId, List<DeliveryOutcome> outcomes) {
+    TenantContext.executeInTenantContext(tenantId, () -> itemProcessor.completeBatch(outcomes));
+    outcomes.forEach(this::recordOutcome);
+  }
+
+  private void completeOne(UUID tenantId, DeliveryOutcome outcome) {
+    try {
+      complete(tenantId, List.of(outcome));
+    } catch (Exception ex) {
+      // Kayıt PROCESSING'de kalır; stuck recovery retry sayacıyla geri alır
+      log.error(
+          "Failed to record notification outcome queueId={} for tenantId={}: {}",
+          outcome.notification().queueId(),
+          tenantId,
+          ex.getMessage());
+    }
+  }
+
+  /**
+   * Hazır bildirimleri paralel gönderir; hazırlığı başarısız olanlar gönderilmeden sonuçlanır.
+   * EMAIL burada gönderilmez, outbox satırı sonuç yazılırken eklenir.
+   */
+  private List<DeliveryOutcome> deliverAll(List<PreparedNotification> prepared) {
+    List<Future<DeliveryOutcome>> futures = new ArrayList<>(prepared.size());
+    try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (PreparedNotification notification : prepared) {
+        if (notification.error() != null) {
+          futures.add(
+              CompletableFuture.completedFuture(
+                  new DeliveryOutcome(notification, notification.error())));
+        } else if (notification.channel() == NotificationChannel.EMAIL) {
+          futures.add(CompletableFuture.completedFuture(new DeliveryOutcome(notification, null)));
+        } else {
+          futures.add(senders.submit(() -> deliver(notification)));
+        }
       }
     }
+    return futures.stream().map(Future::resultNow).toList();
+  }
+
+  private DeliveryOutcome deliver(PreparedNotification notification) {
+    Semaphore permits = channelPermits.get(notification.channel());
+    try {
+      permits.acquire();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return new DeliveryOutcome(notification, "Interrupted before send");
+    }
+    try {
+      TenantContext.executeInTenantContext(
+          notification.tenantId(), () -> itemProcessor.deliver(notification));
+      return new DeliveryOutcome(notification, null);
+    } catch (Exception ex) {
+      log.error(
+          "Notification send failed: recipient={} event={} channel={}",
+          notification.recipientId(),
+          notification.eventType(),
+          notification.channel(),
+          ex);
+      return new DeliveryOutcome(notification, NotificationItemProcessor.truncate(ex.getMessage()));
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void recordOutcome(DeliveryOutcome outcome) {
+    PreparedNotification notification = outcome.notification();
+    String channel = notification.channel().name();
+    Counter.builder("notification.dispatch.total")
+        .description("Notifications dispatched, by channel and outcome")
+        .tag("channel", channel)
+        .tag("outcome", outcome.error() == null ? "sent" : "failed")
+        .register(meterRegistry)
+        .increment();
+    if (outcome.error() == null && notification.queuedAt() != null) {
+      Timer.builder("notification.dispatch.latency")
+          .description("Time from enqueue to successful dispatch")
+          .tag("channel", channel)
+          .register(meterRegistry)
+          .record(Duration.between(notification.queuedAt(), Instant.now()));
+    }
+  }
+
+  /** Kuyruk gauge'larını yeniler; metrik hatası kuyruk işlemeyi durdurmaz. */
+  private void refreshQueueGauges() {
+    try {
+      pendingCount.set(claimStore.countPending());
+      oldestPendingAgeSeconds.set(Math.round(claimStore.oldestPendingAgeSeconds()));
+    } catch (Exception ex) {
+      log.warn("Failed to refresh notification queue gauges: {}", ex.getMessage());
+    }
   }
 
   /**
    * 5+ dakikadır PROCESSING statüsünde kalan kayıtları PENDING'e geri çeker.
    *
    * <p>Uygulama çökerse veya thread kesilirse kayıtlar PROCESSING'de kalır. Bu metot onları
-   * kurtarır.
+   * kurtarır. Takılı kayıtlar RLS dışında okunur, her biri kendi tenant context'inde kurtarılır.
    */
   private void recoverStuckItems() {
     Instant threshold = Instant.now().minus(stuckThresholdMinutes, ChronoUnit.MINUTES);
-    List<NotificationQueue> stuck = queueRepo.findStuckProcessing(threshold);
+    List<QueuedNotification> stuck = claimStore.findStuck(threshold);
 
     if (!stuck.isEmpty()) {
       log.warn(
@@ -84,16 +285,15 @@ public class NotificationQueueProcessor {
           stuck.size(),
           stuckThresholdMinutes);
 
-      for (NotificationQueue item : stuck) {
+      for (QueuedNotification item : stuck) {
         try {
-          itemProcessor.recoverStuckProcessingItem(item.getId(), threshold);
-          log.warn(
-              "Recovered stuck notification: queueId={} event={}",
-              item.getId(),
-              item.getEventType());
+          TenantContext.executeInTenantContext(
+              item.tenantId(),
+              () -> itemProcessor.recoverStuckProcessingItem(item.id(), threshold));
+          log.warn("Recovered stuck notification: queueId={}", item.id());
         } catch (Exception ex) {
           log.error(
-              "Failed to recover stuck notification queueId={}: {}", item.getId(), ex.getMessage());
+              "Failed to recover stuck notification queueId={}: {}", item.id(), ex.getMessage());
         }
       }
     }
@@ -4,7 +4,11 @@ import com.fabricmanagement.common.infrastructure.persistence.BaseEntity;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -14,6 +18,11 @@ import org.hibernate.annotations.Type;
 /**
  * Gönderim kuyruğu — her bildirim için bir kayıt. Scheduler bu tabloyu periyodik işler. Max 3 retry
  * → FAILED.
+ *
+ * <p>Özet (digest) kaydı: aynı alıcıya aynı türden gelen bildirim patlamaları tek kayıtta toplanır
+ * ({@link #digest}, {@link #absorb}). {@code scheduledAt} gelene kadar claim edilmez; {@code
+ * digestCount} kaç bildirimi temsil ettiğini, payload'daki {@value #REFERENCE_IDS_KEY} ilgili
+ * entity id'lerini taşır.
  */
 @Entity
 @Table(schema = "notification", name = "notification_queue")
@@ -21,6 +30,12 @@ import org.hibernate.annotations.Type;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class NotificationQueue extends BaseEntity {
 
+  /** Özet payload'ında virgülle ayrılmış referans id listesi. */
+  public static final String REFERENCE_IDS_KEY = "referenceIds";
+
+  /** Özette tutulan en fazla referans id — sayaç bundan sonra da artar. */
+  public static final int MAX_DIGEST_REFERENCES = 50;
+
   @Column(name = "recipient_id", nullable = false)
   private UUID recipientId;
 
@@ -63,6 +78,13 @@ public class NotificationQueue extends BaseEntity {
   @Column(name = "processed_at")
   private Instant processedAt;
 
+  /** İlgili entity tipi (ör: PRODUCT) — özet anahtarının parçası. */
+  @Column(name = "reference_type", length = 100)
+  private String referenceType;
+
+  @Column(name = "digest_count", nullable = false)
+  private int digestCount = 1;
+
   @Override
   protected String getModuleCode() {
     return "NQ";
@@ -77,6 +99,20 @@ public class NotificationQueue extends BaseEntity {
       NotificationDeliveryType deliveryType,
       Map<String, String> payload,
       String locale) {
+    return create(
+        tenantId, recipientId, eventType, channel, importance, deliveryType, payload, locale, null);
+  }
+
+  public static NotificationQueue create(
+      UUID tenantId,
+      UUID recipientId,
+      String eventType,
+      NotificationChannel channel,
+      NotificationImportance importance,
+      NotificationDeliveryType deliveryType,
+      Map<String, String> payload,
+      String locale,
+      String referenceType) {
     var q = new NotificationQueue();
     q.setTenantId(tenantId);
     q.recipientId = recipientId;
@@ -89,10 +125,76 @@ public class NotificationQueue extends BaseEntity {
         locale != null
             ? locale
             : com.fabricmanagement.common.domain.LocaleConstants.PLATFORM_DEFAULT_LOCALE;
+    q.referenceType = referenceType;
     q.status = NotificationQueueStatus.PENDING;
     return q;
   }
 
+  /**
+   * {@code scheduledAt}'e kadar bekletilen bir özet açar; ilk bildirimin payload'ı ve referansıyla
+   * başlar.
+   */
+  public static NotificationQueue digest(
+      UUID tenantId,
+      UUID recipientId,
+      String eventType,
+      NotificationChannel channel,
+      NotificationImportance importance,
+      Map<String, String> payload,
+      String locale,
+      String referenceType,
+      UUID referenceId,
+      Instant scheduledAt) {
+    var q =
+        create(
+            tenantId,
+            recipientId,
+            eventType,
+            channel,
+            importance,
+            NotificationDeliveryType.DIGEST,
+            payload,
+            locale,
+            referenceType);
+    q.scheduledAt = scheduledAt;
+    q.payload = withReference(q.payload, List.of(), referenceId);
+    return q;
+  }
+
+  /**
+   * Açık özete aynı türden bir bildirim daha katar: sayaç artar, son payload geçerli olur,
+   * referans listesi ({@value #MAX_DIGEST_REFERENCES} id'ye kadar) büyür.
+   */
+  public void absorb(Map<String, String> latestPayload, UUID referenceId) {
+    this.digestCount++;
+    this.payload =
+        withReference(
+            latestPayload != null ? latestPayload : Map.of(), referenceIds(), referenceId);
+  }
+
+  /** Kayıt birden fazla bildirimi temsil ediyor mu? */
+  public boolean isDigest() {
+    return digestCount > 1;
+  }
+
+  private List<String> referenceIds() {
+    String ids = payload.get(REFERENCE_IDS_KEY);
+    return ids == null || ids.isEmpty() ? List.of() : List.of(ids.split(","));
+  }
+
+  private static Map<String, String> withReference(
+      Map<String, String> payload, List<String> referenceIds, UUID referenceId) {
+    Set<String> ids = new LinkedHashSet<>(referenceIds);
+    if (referenceId != null && ids.size() < MAX_DIGEST_REFERENCES) {
+      ids.add(referenceId.toString());
+    }
+    Map<String, String> merged = new HashMap<>(payload);
+    if (!ids.isEmpty()) {
+      merged.put(REFERENCE_IDS_KEY, String.join(",", ids));
+    }
+    return merged;
+  }
+
   /** Gönderim başladı — durum güncelle. */
   public void markProcessing() {
     this.status = NotificationQueueStatus.PROCESSING;
@@ -1,5 +1,6 @@
 package com.fabricmanagement.notification.hub.infra.repository;
 
+import com.fabricmanagement.notification.hub.domain.NotificationChannel;
 import com.fabricmanagement.notification.hub.domain.NotificationQueue;
 import com.fabricmanagement.notification.hub.domain.NotificationQueueStatus;
 import jakarta.persistence.LockModeType;
@@ -49,4 +50,46 @@ public interface NotificationQueueRepository extends JpaRepository<NotificationQ
       """)
   long countPendingForRecipient(
       @Param("recipientId") UUID recipientId, @Param("status") NotificationQueueStatus status);
+
+  /**
+   * Henüz gönderim zamanı gelmemiş açık özet(ler) — satır kilidiyle; eşzamanlı katılımlar sırayla
+   * uygulanır. {@code referenceType} null ise boş string verilir.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      """
+      SELECT q FROM NotificationQueue q
+      WHERE q.recipientId = :recipientId
+        AND q.eventType = :eventType
+        AND q.channel = :channel
+        AND COALESCE(q.referenceType, '') = :referenceType
+        AND q.status = 'PENDING'
+        AND q.scheduledAt > :now
+        AND q.isActive = true
+      ORDER BY q.scheduledAt ASC
+      """)
+  List<NotificationQueue> findOpenDigestsForUpdate(
+      @Param("recipientId") UUID recipientId,
+      @Param("eventType") String eventType,
+      @Param("channel") NotificationChannel channel,
+      @Param("referenceType") String referenceType,
+      @Param("now") Instant now);
+
+  /** Aynı özet anahtarıyla {@code since}'den beri kuyruğa girmiş kayıt var mı? */
+  @Query(
+      """
+      SELECT COUNT(q) > 0 FROM NotificationQueue q
+      WHERE q.recipientId = :recipientId
+        AND q.eventType = :eventType
+        AND q.channel = :channel
+        AND COALESCE(q.referenceType, '') = :referenceType
+        AND q.createdAt > :since
+        AND q.isActive = true
+      """)
+  boolean existsQueuedSince(
+      @Param("recipientId") UUID recipientId,
+      @Param("eventType") String eventType,
+      @Param("channel") NotificationChannel channel,
+      @Param("referenceType") String referenceType,
+      @Param("since") Instant since);
 }
@@ -2,6 +2,7 @@ package com.fabricmanagement.notification.hub.infra.repository;
 
 import com.fabricmanagement.notification.hub.domain.NotificationChannel;
 import com.fabricmanagement.notification.hub.domain.NotificationTemplate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,4 +30,12 @@ public interface NotificationTemplateRepository extends JpaRepository<Notificati
       WHERE t.eventType = :eventType AND t.isActive = true
       """)
   List<NotificationTemplate> findAllByEventType(@Param("eventType") String eventType);
+
+  @Query(
+      """
+      SELECT t FROM NotificationTemplate t
+      WHERE t.eventType IN :eventTypes AND t.isActive = true
+      """)
+  List<NotificationTemplate> findAllActiveByEventTypeIn(
+      @Param("eventTypes") Collection<String> eventTypes);
 }
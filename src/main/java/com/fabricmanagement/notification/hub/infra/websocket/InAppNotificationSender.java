@@ -1,23 +1,24 @@
 package com.fabricmanagement.notification.hub.infra.websocket;
 
+import com.fabricmanagement.common.infrastructure.websocket.WebSocketRelay;
 import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 /**
  * IN_APP kanal servisi — WebSocket üzerinden gerçek zamanlı bildirim gönderimi.
  *
- * <p>Her kullanıcı /user/queue/notifications yolundan kendi bildirimlerini alır.
+ * <p>Her kullanıcı /user/queue/notifications yolundan kendi bildirimlerini alır. Kullanıcı hangi
+ * node'a bağlı olursa olsun {@link WebSocketRelay} mesajı oraya taşır.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class InAppNotificationSender {
 
-  private final SimpMessagingTemplate messagingTemplate;
+  private final WebSocketRelay webSocketRelay;
 
   /**
    * Kullanıcıya gerçek zamanlı bildirim gönderir.
@@ -27,8 +28,7 @@ public class InAppNotificationSender {
    */
   public void send(UUID recipientId, Map<String, Object> payload) {
     try {
-      messagingTemplate.convertAndSendToUser(
-          recipientId.toString(), "/queue/notifications", payload);
+      webSocketRelay.sendToUser(recipientId.toString(), "/queue/notifications", payload);
       log.debug("IN_APP notification sent to user={}", recipientId);
     } catch (Exception ex) {
       log.error("Failed to send IN_APP notification to user={}", recipientId, ex);
@@ -39,7 +39,7 @@ public class InAppNotificationSender {
   /** Tenant tüm bağlı kullanıcılarına genel bildirim (CRITICAL eventler). */
   public void broadcast(UUID tenantId, Map<String, Object> payload) {
     try {
-      messagingTemplate.convertAndSend("/topic/tenant/" + tenantId, payload);
+      webSocketRelay.send("/topic/tenant/" + tenantId, payload);
       log.debug("Broadcast notification sent to tenant={}", tenantId);
     } catch (Exception ex) {
       log.error("Failed to broadcast notification to tenant={}", tenantId, ex);
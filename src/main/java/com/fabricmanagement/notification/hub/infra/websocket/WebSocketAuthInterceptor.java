@@ -1,9 +1,7 @@
 package com.fabricmanagement.notification.hub.infra.websocket;
 
 import com.fabricmanagement.common.infrastructure.security.AuthenticatedUserContext;
-import com.fabricmanagement.platform.auth.app.JwtService;
-import java.util.List;
-import java.util.UUID;
+import com.fabricmanagement.common.infrastructure.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
@@ -13,14 +11,14 @@ import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 /**
  * WebSocket STOMP bağlantısında JWT authentication yapan interceptor.
  *
  * <p>Client, STOMP CONNECT frame'inde {@code Authorization: Bearer <token>} header'ı gönderir.
- * Token doğrulanır ve Spring Security principal ayarlanır.
+ * Token {@link VerifiedTokenCache} üzerinden doğrulanır (HTTP istekleriyle aynı cache) ve Spring
+ * Security principal ayarlanır.
  *
  * <p><b>Bu olmadan:</b> Herhangi biri başkasının userId ile subscribe olarak bildirimlerini
  * dinleyebilir (Cross-Site WebSocket Hijacking).
@@ -38,7 +36,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
-  private final JwtService jwtService;
+  private final VerifiedTokenCache verifiedTokenCache;
 
   @Override
   public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -67,40 +65,28 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
       throw new SecurityException("Missing or invalid Authorization token");
     }
 
-    if (!jwtService.validateToken(token) || jwtService.isPreAuthToken(token)) {
+    VerifiedTokenCache.Entry verified = verifiedTokenCache.verify(token).orElse(null);
+    if (verified == null || verified.preAuth()) {
       log.warn("WebSocket CONNECT rejected — invalid or pre-auth JWT token");
       throw new SecurityException("Invalid JWT token");
     }
 
-    try {
-      UUID userId = jwtService.getUserIdFromToken(token);
-      String roleCode = jwtService.getRoleCodeFromToken(token);
-      UUID tenantId = null;
-      try {
-        tenantId = jwtService.getTenantIdFromToken(token);
-      } catch (Exception ignored) {
-        // tenant_id opsiyonel
-      }
-
-      List<String> departmentCodes = jwtService.getDepartmentCodesFromToken(token);
-      String primaryDepartment = jwtService.getPrimaryDepartmentFromToken(token);
-
-      AuthenticatedUserContext userContext =
-          new AuthenticatedUserContext(
-              userId, roleCode, departmentCodes, primaryDepartment, tenantId);
-
-      var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + roleCode));
-      var authentication = new UsernamePasswordAuthenticationToken(userContext, null, authorities);
-      authentication.setDetails(userContext);
+    AuthenticatedUserContext userContext = verified.userContext();
+    if (userContext == null) {
+      log.warn("WebSocket CONNECT failed — JWT missing user_id claim");
+      throw new SecurityException("JWT authentication failed");
+    }
 
-      accessor.setUser(authentication);
+    var authentication =
+        new UsernamePasswordAuthenticationToken(userContext, null, verified.authorities());
+    authentication.setDetails(userContext);
 
-      log.debug("WebSocket CONNECT authenticated: userId={} role={}", userId, roleCode);
+    accessor.setUser(authentication);
 
-    } catch (Exception ex) {
-      log.warn("WebSocket CONNECT failed — JWT parsing error: {}", ex.getMessage());
-      throw new SecurityException("JWT authentication failed");
-    }
+    log.debug(
+        "WebSocket CONNECT authenticated: userId={} role={}",
+        userContext.userId(),
+        userContext.roleCode());
 
     return message;
   }
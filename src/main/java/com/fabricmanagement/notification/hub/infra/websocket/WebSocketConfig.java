@@ -1,6 +1,8 @@
 package com.fabricmanagement.notification.hub.infra.websocket;
 
 import com.fabricmanagement.common.infrastructure.security.JwtTokenExtractor;
+import com.fabricmanagement.common.infrastructure.websocket.WebSocketSessionMetrics;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +17,7 @@ import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
 /**
@@ -30,6 +33,10 @@ import org.springframework.web.socket.server.HandshakeInterceptor;
  *   <li>Handshake aşamasında HttpOnly cookie'den JWT çıkarılır (raw Cookie header parse)
  *   <li>STOMP CONNECT'te JWT authentication yapılır ({@link WebSocketAuthInterceptor})
  * </ul>
+ *
+ * <p><b>Yavaş client:</b> Her session'ın giden mesajları sınırlı bir buffer'dan geçer ({@code
+ * send-buffer-size-limit}, {@code send-time-limit}). Sınırı aşan client bağlantısı kapatılır;
+ * broker thread'leri ve diğer session'lar onu beklemez ({@link WebSocketSessionMetrics}).
  */
 @Configuration
 @EnableWebSocketMessageBroker
@@ -39,11 +46,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
   @Value("${application.websocket.allowed-origins:http://localhost:3000,http://localhost:5173}")
   private String[] allowedOrigins;
 
+  @Value("${application.websocket.send-time-limit:PT5S}")
+  private Duration sendTimeLimit;
+
+  @Value("${application.websocket.send-buffer-size-limit:262144}")
+  private int sendBufferSizeLimit;
+
   private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+  private final WebSocketSessionMetrics webSocketSessionMetrics;
 
   @Override
   public void configureMessageBroker(MessageBrokerRegistry registry) {
-    // Basit in-memory broker — üretim için Redis/RabbitMQ ile değiştirilebilir
+    // Node başına in-memory broker — node'lar arası dağıtım WebSocketRelay ile
     registry.enableSimpleBroker("/topic", "/queue");
     registry.setApplicationDestinationPrefixes("/app");
     registry.setUserDestinationPrefix("/user");
@@ -62,6 +76,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     registration.interceptors(webSocketAuthInterceptor);
   }
 
+  @Override
+  public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+    registration
+        .setSendTimeLimit((int) sendTimeLimit.toMillis())
+        .setSendBufferSizeLimit(sendBufferSizeLimit)
+        .addDecoratorFactory(webSocketSessionMetrics);
+  }
+
   /**
    * Handshake sırasında HttpOnly {@code access_token} cookie'sinden JWT'yi çıkarıp WebSocket
    * session attribute'larına yazar. Böylece STOMP CONNECT aşamasında {@link
@@ -0,0 +1,106 @@
+package com.fabricmanagement.notification.i18n.app;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derlenmiş çeviri şablonu: metin bir kez sabit ve {parametre} parçalarına ayrılır, render tek
+ * geçişte önceden boyutlandırılmış tek bir StringBuilder'a yazar.
+ *
+ * <p>Davranış eski {@code String.replace} zinciriyle aynıdır: parametre değerleri HTML escape
+ * edilir, null değer boş string olur, params'ta olmayan placeholder metinde aynen kalır. Fark:
+ * değerler yeniden taranmaz, yani değerin içindeki "{x}" başka bir parametreyle değiştirilmez.
+ */
+final class MessageTemplate {
+
+  private final String source;
+
+  /** Sabit metin için String, placeholder için {@link Placeholder}. */
+  private final Object[] segments;
+
+  private final int literalLength;
+
+  private MessageTemplate(String source, Object[] segments, int literalLength) {
+    this.source = source;
+    this.segments = segments;
+    this.literalLength = literalLength;
+  }
+
+  /** Metni parçalara ayırır. Kapanmayan veya boş süslü parantez sabit metin sayılır. */
+  static MessageTemplate compile(String source) {
+    List<Object> segments = new ArrayList<>();
+    int literalLength = 0;
+    int literalStart = 0;
+    int open = source.indexOf('{');
+    while (open >= 0) {
+      int close = source.indexOf('}', open + 1);
+      if (close < 0) {
+        break;
+      }
+      int nestedOpen = source.lastIndexOf('{', close - 1);
+      if (nestedOpen > open) {
+        open = nestedOpen;
+      }
+      if (close > open + 1) {
+        if (open > literalStart) {
+          segments.add(source.substring(literalStart, open));
+          literalLength += open - literalStart;
+        }
+        segments.add(new Placeholder(source.substring(open + 1, close)));
+        literalStart = close + 1;
+      }
+      open = source.indexOf('{', close + 1);
+    }
+    if (literalStart < source.length()) {
+      segments.add(source.substring(literalStart));
+      literalLength += source.length() - literalStart;
+    }
+    return new MessageTemplate(source, segments.toArray(), literalLength);
+  }
+
+  /** Ham çeviri metni. */
+  String source() {
+    return source;
+  }
+
+  /** params boşsa ham metni döndürür; aksi halde değerleri escape ederek yerleştirir. */
+  String render(Map<String, String> params) {
+    if (params == null || params.isEmpty()) {
+      return source;
+    }
+    StringBuilder out = new StringBuilder(literalLength + 16 * params.size());
+    for (Object segment : segments) {
+      if (segment instanceof Placeholder placeholder) {
+        if (params.containsKey(placeholder.name())) {
+          appendEscaped(out, params.get(placeholder.name()));
+        } else {
+          out.append('{').append(placeholder.name()).append('}');
+        }
+      } else {
+        out.append((String) segment);
+      }
+    }
+    return out.toString();
+  }
+
+  /** HTML special karakter escape — XSS koruması. */
+  private static void appendEscaped(StringBuilder out, String value) {
+    if (value == null) {
+      return;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '&' -> out.append("&amp;");
+        case '<' -> out.append("&lt;");
+        case '>' -> out.append("&gt;");
+        case '"' -> out.append("&quot;");
+        case '\'' -> out.append("&#39;");
+        default -> out.append(c);
+      }
+    }
+  }
+
+  private record Placeholder(String name) {}
+}
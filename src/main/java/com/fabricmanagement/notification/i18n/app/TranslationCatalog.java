@@ -0,0 +1,186 @@
+package com.fabricmanagement.notification.i18n.app;
+
+import com.fabricmanagement.notification.i18n.domain.TranslationKey;
+import com.fabricmanagement.notification.i18n.domain.TranslationValue;
+import com.fabricmanagement.notification.i18n.infra.repository.TranslationKeyRepository;
+import com.fabricmanagement.notification.i18n.infra.repository.TranslationValueRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Node-local, tenant başına çeviri kataloğu.
+ *
+ * <p>Bir tenant'ın tüm anahtarları ve aktif çevirileri ilk istekte iki sorguyla yüklenir; fallback
+ * zinciri (tenant override → sistem çevirisi → EN → TranslationKey.defaultValue) her locale için
+ * yükleme sırasında çözülür ve metinler {@link MessageTemplate} olarak derlenir. Böylece çeviri
+ * ve render sorgu atmadan birkaç hash lookup'a iner.
+ *
+ * <p>Bu node'daki çeviri yazıları {@link #invalidateAll} çağırır; diğer node'ların yazıları
+ * {@code expire-after-write} sonunda görünür. Sorgular tenant'a bağlı bağlantıda çalışır, RLS
+ * her zamanki gibi uygulanır; katalog bu yüzden çağıranın tenant context'inde yüklenmelidir.
+ */
+@Component
+@Slf4j
+public class TranslationCatalog {
+
+  static final String SYSTEM_DEFAULT_LOCALE = "EN";
+
+  private final TranslationKeyRepository translationKeyRepo;
+  private final TranslationValueRepository translationValueRepo;
+  private final Cache<UUID, Snapshot> snapshots;
+
+  public TranslationCatalog(
+      TranslationKeyRepository translationKeyRepo,
+      TranslationValueRepository translationValueRepo,
+      MeterRegistry meterRegistry,
+      @Value("${application.translation-catalog.expire-after-write:PT10M}")
+          Duration expireAfterWrite,
+      @Value("${application.translation-catalog.maximum-size:1000}") long maximumSize) {
+    this.translationKeyRepo = translationKeyRepo;
+    this.translationValueRepo = translationValueRepo;
+    this.snapshots =
+        Caffeine.newBuilder()
+            .expireAfterWrite(expireAfterWrite)
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "translationCatalog");
+  }
+
+  /**
+   * Verilen locale (büyük harf) ve keyCode için çözülmüş şablonu döndürür; anahtar hiç yoksa
+   * null.
+   */
+  MessageTemplate template(UUID tenantId, String locale, String keyCode) {
+    return snapshots.get(tenantId, this::load).template(locale, keyCode);
+  }
+
+  /**
+   * Tüm tenant kataloglarını hemen ve mevcut transaction bittiğinde (rollback dahil) düşürür; bir
+   * katalog transaction'ın commit edilmemiş satırlarından yüklenmiş olabilir.
+   */
+  public void invalidateAll() {
+    snapshots.invalidateAll();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              snapshots.invalidateAll();
+            }
+          });
+    }
+  }
+
+  private Snapshot load(UUID tenantId) {
+    List<TranslationKey> keys = translationKeyRepo.findAll();
+    List<TranslationValue> values = translationValueRepo.findAllActiveWithKey();
+    Snapshot snapshot = Snapshot.build(tenantId, keys, values);
+    log.debug(
+        "Loaded translation catalog: tenantId={}, keys={}, values={}, locales={}",
+        tenantId,
+        keys.size(),
+        values.size(),
+        snapshot.byLocale.keySet());
+    return snapshot;
+  }
+
+  /** Bir tenant'ın locale → keyCode → şablon haritası, fallback zinciri çözülmüş halde. */
+  private static final class Snapshot {
+
+    private final Map<String, Map<String, MessageTemplate>> byLocale;
+
+    /** Hiç çevirisi olmayan locale'ler için: sistem EN çevirisi → defaultValue. */
+    private final Map<String, MessageTemplate> fallback;
+
+    private Snapshot(
+        Map<String, Map<String, MessageTemplate>> byLocale,
+        Map<String, MessageTemplate> fallback) {
+      this.byLocale = byLocale;
+      this.fallback = fallback;
+    }
+
+    MessageTemplate template(String locale, String keyCode) {
+      return byLocale.getOrDefault(locale, fallback).get(keyCode);
+    }
+
+    static Snapshot build(UUID tenantId, List<TranslationKey> keys, List<TranslationValue> values) {
+      Map<String, String> defaults = new HashMap<>();
+      keys.forEach(key -> defaults.put(key.getKeyCode(), key.getDefaultValue()));
+
+      // locale → keyCode → metin; override'lar sistem çevirisinden önce gelir
+      Map<String, Map<String, String>> overrides = new HashMap<>();
+      Map<String, Map<String, String>> system = new HashMap<>();
+      Set<String> keyCodes = new HashSet<>(defaults.keySet());
+      for (TranslationValue value : values) {
+        String keyCode = value.getTranslationKey().getKeyCode();
+        keyCodes.add(keyCode);
+        if (Objects.equals(tenantId, value.getTenantId())) {
+          Map<String, String> tenantValues =
+              overrides.computeIfAbsent(value.getLocale(), l -> new HashMap<>());
+          if (Boolean.TRUE.equals(value.getIsOverride()) || !tenantValues.containsKey(keyCode)) {
+            tenantValues.put(keyCode, value.getValue());
+          }
+        }
+        if (!Boolean.TRUE.equals(value.getIsOverride())) {
+          system
+              .computeIfAbsent(value.getLocale(), l -> new HashMap<>())
+              .putIfAbsent(keyCode, value.getValue());
+        }
+      }
+
+      Map<String, MessageTemplate> compiled = new HashMap<>();
+      Map<String, String> systemEn = system.getOrDefault(SYSTEM_DEFAULT_LOCALE, Map.of());
+      Set<String> locales = new HashSet<>(overrides.keySet());
+      locales.addAll(system.keySet());
+      locales.add(SYSTEM_DEFAULT_LOCALE);
+
+      Map<String, Map<String, MessageTemplate>> byLocale = new HashMap<>();
+      for (String locale : locales) {
+        Map<String, String> tenantValues = overrides.getOrDefault(locale, Map.of());
+        Map<String, String> systemValues = system.getOrDefault(locale, Map.of());
+        Map<String, MessageTemplate> templates = new HashMap<>();
+        for (String keyCode : keyCodes) {
+          String text = tenantValues.get(keyCode);
+          if (text == null) {
+            text = systemValues.get(keyCode);
+          }
+          if (text == null) {
+            text = systemEn.get(keyCode);
+          }
+          if (text == null) {
+            text = defaults.get(keyCode);
+          }
+          if (text != null) {
+            templates.put(keyCode, compiled.computeIfAbsent(text, MessageTemplate::compile));
+          }
+        }
+        byLocale.put(locale, templates);
+      }
+
+      Map<String, MessageTemplate> fallback = new HashMap<>();
+      for (String keyCode : keyCodes) {
+        String text = systemEn.getOrDefault(keyCode, defaults.get(keyCode));
+        if (text != null) {
+          fallback.put(keyCode, compiled.computeIfAbsent(text, MessageTemplate::compile));
+        }
+      }
+      return new Snapshot(byLocale, fallback);
+    }
+  }
+}
@@ -11,7 +11,6 @@ import java.util.Objects;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,60 +26,23 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class TranslationService {
 
-  private static final String SYSTEM_DEFAULT_LOCALE = "EN";
+  private static final String SYSTEM_DEFAULT_LOCALE = TranslationCatalog.SYSTEM_DEFAULT_LOCALE;
 
   private final TranslationKeyRepository translationKeyRepo;
   private final TranslationValueRepository translationValueRepo;
   private final TenantLocaleConfigRepository tenantLocaleConfigRepo;
   private final UserLocaleConfigRepository userLocaleConfigRepo;
+  private final TranslationCatalog translationCatalog;
 
   /**
    * Verilen keyCode için çeviri döndürür.
    *
    * <p>Öncelik: tenant override → sistem çevirisi (istenen locale) → sistem çevirisi (EN) →
-   * TranslationKey.defaultValue
+   * TranslationKey.defaultValue → keyCode. Zincir {@link TranslationCatalog} yüklenirken çözülür.
    */
   @Transactional(readOnly = true)
-  @Cacheable(value = "translations", key = "#tenantId + ':' + #locale + ':' + #keyCode")
   public String translate(UUID tenantId, String locale, String keyCode) {
-    Objects.requireNonNull(keyCode, "keyCode must not be null");
-    String resolvedLocale = locale != null ? locale.toUpperCase() : SYSTEM_DEFAULT_LOCALE;
-
-    // 1. Tenant override
-    var tenantOverride =
-        translationValueRepo.findByKeyCodeAndLocaleAndTenant(keyCode, resolvedLocale, tenantId);
-    if (tenantOverride.isPresent()) {
-      return tenantOverride.get().getValue();
-    }
-
-    // 2. Sistem çevirisi (istenen locale)
-    var systemTranslation = translationValueRepo.findSystemDefault(keyCode, resolvedLocale);
-    if (systemTranslation.isPresent()) {
-      return systemTranslation.get().getValue();
-    }
-
-    // 3. EN fallback
-    if (!SYSTEM_DEFAULT_LOCALE.equals(resolvedLocale)) {
-      var enFallback = translationValueRepo.findSystemDefault(keyCode, SYSTEM_DEFAULT_LOCALE);
-      if (enFallback.isPresent()) {
-        log.debug("i18n fallback to EN for key={} locale={}", keyCode, resolvedLocale);
-        return enFallback.get().getValue();
-      }
-    }
-
-    // 4. TranslationKey.defaultValue
-    var key = translationKeyRepo.findByKeyCode(keyCode);
-    if (key.isPresent()) {
-      log.warn(
-          "i18n missing translation — using defaultValue: key={} locale={}",
-          keyCode,
-          resolvedLocale);
-      return key.get().getDefaultValue();
-    }
-
-    // 5. Son çare: keyCode döndür
-    log.error("i18n key not found at all: {}", keyCode);
-    return keyCode;
+    return resolve(tenantId, locale, keyCode).source();
   }
 
   /**
@@ -89,28 +51,22 @@ public class TranslationService {
    *
    * <p><b>Security:</b> Tüm parametre değerleri HTML escape edilir (XSS koruması).
    */
+  @Transactional(readOnly = true)
   public String translateAndRender(
       UUID tenantId, String locale, String keyCode, Map<String, String> params) {
-    String raw = translate(tenantId, locale, keyCode);
-    if (params == null || params.isEmpty()) {
-      return raw;
-    }
-    for (var entry : params.entrySet()) {
-      String safeValue = escapeHtml(entry.getValue());
-      raw = raw.replace("{" + entry.getKey() + "}", safeValue);
-    }
-    return raw;
+    return resolve(tenantId, locale, keyCode).render(params);
   }
 
-  /** HTML special karakter escape — XSS koruması. */
-  private String escapeHtml(String value) {
-    if (value == null) return "";
-    return value
-        .replace("&", "&amp;")
-        .replace("<", "&lt;")
-        .replace(">", "&gt;")
-        .replace("\"", "&quot;")
-        .replace("'", "&#39;");
+  private MessageTemplate resolve(UUID tenantId, String locale, String keyCode) {
+    Objects.requireNonNull(tenantId, "tenantId must not be null");
+    Objects.requireNonNull(keyCode, "keyCode must not be null");
+    String resolvedLocale = locale != null ? locale.toUpperCase() : SYSTEM_DEFAULT_LOCALE;
+    MessageTemplate template = translationCatalog.template(tenantId, resolvedLocale, keyCode);
+    if (template == null) {
+      log.error("i18n key not found at all: {}", keyCode);
+      return MessageTemplate.compile(keyCode);
+    }
+    return template;
   }
 
   /**
@@ -198,7 +154,9 @@ public class TranslationService {
         .orElseGet(
             () -> {
               var key = TranslationKey.of(keyCode, module, defaultValue, description);
-              return translationKeyRepo.save(key);
+              var saved = translationKeyRepo.save(key);
+              translationCatalog.invalidateAll();
+              return saved;
             });
   }
 
@@ -217,6 +175,8 @@ public class TranslationService {
     }
 
     var tv = TranslationValue.of(key, locale, value, false);
-    return translationValueRepo.save(tv);
+    var saved = translationValueRepo.save(tv);
+    translationCatalog.invalidateAll();
+    return saved;
   }
 }
@@ -43,4 +43,12 @@ public interface TranslationValueRepository extends JpaRepository<TranslationVal
       WHERE tv.translationKey.id = :keyId AND tv.isActive = true
       """)
   List<TranslationValue> findAllByTranslationKeyId(@Param("keyId") UUID keyId);
+
+  @Query(
+      """
+      SELECT tv FROM TranslationValue tv
+      JOIN FETCH tv.translationKey
+      WHERE tv.isActive = true
+      """)
+  List<TranslationValue> findAllActiveWithKey();
 }
@@ -3,17 +3,32 @@ package com.fabricmanagement.platform.audit.api.controller;
 import com.fabricmanagement.common.infrastructure.web.ApiResponse;
 import com.fabricmanagement.common.infrastructure.web.PageRequestDto;
 import com.fabricmanagement.common.infrastructure.web.PagedResponse;
+import com.fabricmanagement.platform.audit.app.AuditLogExportService;
+import com.fabricmanagement.platform.audit.app.AuditLogWindow;
 import com.fabricmanagement.platform.audit.app.AuditService;
 import com.fabricmanagement.platform.audit.domain.AuditLog;
+import com.fabricmanagement.platform.audit.dto.AuditExportFormat;
 import com.fabricmanagement.platform.audit.dto.AuditLogDto;
+import com.fabricmanagement.platform.audit.dto.AuditLogKeysetPageDto;
 import com.fabricmanagement.platform.audit.mapper.AuditMapper;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -21,10 +36,13 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 @Slf4j
 @Tag(name = "Audit", description = "Audit operations")
+@Validated
 public class AuditController {
 
   private final AuditService auditService;
+  private final AuditLogExportService auditLogExportService;
   private final AuditMapper auditMapper;
+  private final Clock clock;
 
   @GetMapping("/logs")
   public ResponseEntity<ApiResponse<PagedResponse<AuditLogDto>>> getAuditLogs(
@@ -58,4 +76,65 @@ public class AuditController {
 
     return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(dtoPage)));
   }
+
+  /** Keyset-paginated audit log within a time window (default: the last 30 days). */
+  @GetMapping("/logs/page")
+  public ResponseEntity<ApiResponse<AuditLogKeysetPageDto>> getAuditLogPage(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size) {
+    log.debug("Getting audit log page: from={}, to={}, size={}", from, to, size);
+
+    AuditService.KeysetPage page =
+        auditService.getAuditLogPage(AuditLogWindow.of(from, to, clock), cursor, size);
+    AuditLogKeysetPageDto dto =
+        AuditLogKeysetPageDto.builder()
+            .content(page.content().stream().map(auditMapper::toDto).toList())
+            .nextCursor(page.nextCursor())
+            .build();
+
+    return ResponseEntity.ok(ApiResponse.success(dto));
+  }
+
+  @GetMapping("/logs/critical")
+  public ResponseEntity<ApiResponse<PagedResponse<AuditLogDto>>> getCriticalLogs(
+      @Valid PageRequestDto pageRequest) {
+    log.debug("Getting critical audit logs");
+
+    Page<AuditLog> page = auditService.getCriticalLogs(pageRequest.toPageable());
+    Page<AuditLogDto> dtoPage = page.map(auditMapper::toDto);
+
+    return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(dtoPage)));
+  }
+
+  /**
+   * Streams the audit log within a time window (default: the last 30 days) as NDJSON or CSV,
+   * straight from a database cursor to the response.
+   */
+  @GetMapping("/logs/export")
+  public void exportAuditLogs(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant to,
+      @RequestParam(defaultValue = "NDJSON") AuditExportFormat format,
+      HttpServletResponse response)
+      throws IOException {
+    AuditLogWindow window = AuditLogWindow.of(from, to, clock);
+    log.debug(
+        "Exporting audit logs: from={}, to={}, format={}", window.from(), window.to(), format);
+
+    response.setContentType(format.contentType());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment()
+            .filename("audit-log." + format.fileExtension())
+            .build()
+            .toString());
+    auditLogExportService.export(window, format, response.getOutputStream());
+  }
 }
@@ -0,0 +1,37 @@
+package com.fabricmanagement.platform.audit.app;
+
+import com.fabricmanagement.platform.common.exception.PlatformDomainException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the audit log: the (timestamp, id) of the last entry of a page. Travels to
+ * the client as an opaque URL-safe token.
+ */
+public record AuditLogCursor(Instant timestamp, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  public String encode() {
+    byte[] raw = (timestamp + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  public static AuditLogCursor decode(String token) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = raw.indexOf(SEPARATOR);
+      if (separator < 0) {
+        throw new IllegalArgumentException("missing separator");
+      }
+      return new AuditLogCursor(
+          Instant.parse(raw.substring(0, separator)),
+          UUID.fromString(raw.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new PlatformDomainException("Invalid audit log cursor");
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.fabricmanagement.platform.audit.app;
+
+import com.fabricmanagement.common.infrastructure.tenant.TenantJobLeaseStore;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job: keeps the monthly partitions of {@code common_audit.common_audit_log} ahead of
+ * time and drops the ones past retention.
+ *
+ * <p>Partition DDL runs through the {@code common_audit} maintenance functions, which execute as
+ * the schema owner; the system pool itself has no DDL rights. A retention of 0 months keeps all
+ * history.
+ *
+ * <p>Only one replica maintains the partitions per slot: a run first takes the job's lease in
+ * {@link TenantJobLeaseStore} and a replica that finds it held skips the run. The lease is kept for
+ * another {@code lease-duration} after the run, like an interval job of the tenant fan-out, so a
+ * replica whose schedule fires a little later does not repeat the DDL.
+ */
+@Component
+@Slf4j
+public class AuditLogPartitionMaintenanceJob {
+
+  static final String JOB_NAME = "audit-log-partition-maintenance";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TenantJobLeaseStore leaseStore;
+  private final Clock clock;
+  private final int monthsAhead;
+  private final int retentionMonths;
+  private final Duration leaseDuration;
+  private final String holder;
+
+  public AuditLogPartitionMaintenanceJob(
+      JdbcTemplate jdbcTemplate,
+      TenantJobLeaseStore leaseStore,
+      Clock clock,
+      @Value("${application.audit.partitions-ahead:3}") int monthsAhead,
+      @Value("${application.audit.retention-months:0}") int retentionMonths,
+      @Value("${application.tenant-fan-out.lease-duration:PT10M}") Duration leaseDuration) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.leaseStore = leaseStore;
+    this.clock = clock;
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+    this.leaseDuration = leaseDuration;
+    this.holder = AuditLogPartitionMaintenanceJob.class.getSimpleName() + "-" + UUID.randomUUID();
+  }
+
+  /** Runs daily at 3:30 AM by default; override with application.audit.partition-cron */
+  @Scheduled(cron = "${application.audit.partition-cron:0 30 3 * * ?}")
+  public void maintainPartitions() {
+    if (!leaseStore.tryAcquire(JOB_NAME, null, holder, leaseDuration)) {
+      log.info("Audit log partition maintenance skipped, lease held elsewhere");
+      return;
+    }
+    try {
+      maintain();
+    } finally {
+      leaseStore.release(JOB_NAME, holder, leaseDuration);
+    }
+  }
+
+  private void maintain() {
+    LocalDate currentMonth = LocalDate.now(clock.withZone(ZoneOffset.UTC)).withDayOfMonth(1);
+
+    int created = 0;
+    for (int i = 0; i <= monthsAhead; i++) {
+      Boolean added =
+          jdbcTemplate.queryForObject(
+              "SELECT common_audit.ensure_audit_log_partition(?)",
+              Boolean.class,
+              Date.valueOf(currentMonth.plusMonths(i)));
+      if (Boolean.TRUE.equals(added)) {
+        created++;
+      }
+    }
+
+    int dropped = 0;
+    if (retentionMonths > 0) {
+      Integer result =
+          jdbcTemplate.queryForObject(
+              "SELECT common_audit.drop_audit_log_partitions_before(?)",
+              Integer.class,
+              Date.valueOf(currentMonth.minusMonths(retentionMonths)));
+      dropped = result != null ? result : 0;
+    }
+
+    log.info(
+        "Audit log partitions maintained: created={}, dropped={}, retentionMonths={}",
+        created,
+        dropped,
+        retentionMonths);
+  }
+}
@@ -0,0 +1,29 @@
+package com.fabricmanagement.platform.audit.app;
+
+import com.fabricmanagement.platform.common.exception.PlatformDomainException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Time window {@code [from, to)} of an audit read. Every paged or exported read is bounded, so
+ * PostgreSQL prunes the monthly partitions outside it.
+ */
+public record AuditLogWindow(Instant from, Instant to) {
+
+  /** Window used when the caller gives no lower bound. */
+  public static final Duration DEFAULT_SPAN = Duration.ofDays(30);
+
+  public AuditLogWindow {
+    if (!from.isBefore(to)) {
+      throw new PlatformDomainException("Audit log window must start before it ends");
+    }
+  }
+
+  /** Resolves optional bounds: {@code to} defaults to now, {@code from} to 30 days before it. */
+  public static AuditLogWindow of(Instant from, Instant to, Clock clock) {
+    Instant end = to != null ? to : clock.instant();
+    Instant start = from != null ? from : end.minus(DEFAULT_SPAN);
+    return new AuditLogWindow(start, end);
+  }
+}
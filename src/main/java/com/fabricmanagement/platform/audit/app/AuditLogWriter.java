@@ -0,0 +1,331 @@
+package com.fabricmanagement.platform.audit.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.audit.domain.AuditSeverity;
+import com.fabricmanagement.platform.user.api.facade.UserFacade;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffers audit entries and writes them to {@code common_audit.common_audit_log} in batches.
+ *
+ * <p>Callers hand over an {@link Entry} and return immediately. A single writer thread drains the
+ * bounded buffer every {@code flush-interval} or as soon as {@code batch-size} entries are waiting,
+ * resolves user UIDs through a small cache and inserts the batch with one JDBC batch statement.
+ *
+ * <h2>When the buffer is full:</h2>
+ *
+ * <ul>
+ *   <li>{@link AuditSeverity#INFO} entries are dropped immediately
+ *   <li>higher severities block the caller for up to {@code offer-timeout} before being dropped
+ * </ul>
+ *
+ * <p>Every drop is logged and counted in {@code audit.log.dropped}. On shutdown the buffer is
+ * drained before the DataSource closes; entries submitted after that are written inline.
+ *
+ * <p>If the database rejects a batch, the batch is retried row by row so one bad entry does not
+ * take the rest with it; only the rejected rows are lost and counted in {@code audit.log.failed}.
+ * When the database cannot be reached at all the whole batch is counted as failed without a retry.
+ *
+ * <p>Inserts run on the system pool: the entries carry their own {@code tenant_id}, captured on
+ * the calling thread.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+  private static final String INSERT_SQL =
+      """
+      INSERT INTO common_audit.common_audit_log (
+          id, tenant_id, uid, user_id, user_uid, action, resource, resource_id, description,
+          ip_address, severity, timestamp, created_at, created_by, updated_at)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+
+  /** Row-by-row retry; skips rows of the failed batch that were written after all. */
+  private static final String RETRY_INSERT_SQL =
+      INSERT_SQL.strip() + " ON CONFLICT (id, \"timestamp\") DO NOTHING";
+
+  private static final String SYSTEM_USER_UID = "SYSTEM";
+  private static final String UNKNOWN_USER_UID = "UNKNOWN";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final UserFacade userFacade;
+  private final BlockingQueue<Entry> buffer;
+  private final int batchSize;
+  private final Duration flushInterval;
+  private final Duration offerTimeout;
+  private final Cache<UUID, String> userUids;
+
+  private final Map<AuditSeverity, Counter> droppedCounters = new EnumMap<>(AuditSeverity.class);
+  private final Counter writtenCounter;
+  private final Counter failedCounter;
+  private final Timer flushTimer;
+
+  private volatile boolean running;
+  private Thread worker;
+
+  public AuditLogWriter(
+      JdbcTemplate jdbcTemplate,
+      UserFacade userFacade,
+      MeterRegistry meterRegistry,
+      @Value("${application.audit.buffer-capacity:10000}") int bufferCapacity,
+      @Value("${application.audit.batch-size:500}") int batchSize,
+      @Value("${application.audit.flush-interval:PT0.2S}") Duration flushInterval,
+      @Value("${application.audit.offer-timeout:PT0.05S}") Duration offerTimeout) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.userFacade = userFacade;
+    this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+    this.batchSize = batchSize;
+    this.flushInterval = flushInterval;
+    this.offerTimeout = offerTimeout;
+    this.userUids =
+        Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(Duration.ofHours(1)).build();
+
+    for (AuditSeverity severity : AuditSeverity.values()) {
+      droppedCounters.put(
+          severity,
+          Counter.builder("audit.log.dropped")
+              .description("Audit entries dropped because the buffer was full")
+              .tag("severity", severity.name())
+              .register(meterRegistry));
+    }
+    this.writtenCounter =
+        Counter.builder("audit.log.written")
+            .description("Audit entries written to the database")
+            .register(meterRegistry);
+    this.failedCounter =
+        Counter.builder("audit.log.failed")
+            .description("Audit entries lost because the database rejected or missed them")
+            .register(meterRegistry);
+    this.flushTimer =
+        Timer.builder("audit.log.flush")
+            .description("Time to write one batch of audit entries")
+            .register(meterRegistry);
+    Gauge.builder("audit.log.buffer.depth", buffer, BlockingQueue::size)
+        .description("Audit entries waiting to be written")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Queues an entry for writing.
+   *
+   * @return false if the entry was dropped
+   */
+  public boolean submit(Entry entry) {
+    if (!running) {
+      write(List.of(entry));
+      return true;
+    }
+    if (buffer.offer(entry)) {
+      return true;
+    }
+    if (entry.severity() != AuditSeverity.INFO) {
+      try {
+        if (buffer.offer(entry, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+          return true;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    droppedCounters.get(entry.severity()).increment();
+    log.warn(
+        "Audit buffer full, dropped entry: action={}, resource={}, resourceId={}, severity={}",
+        entry.action(),
+        entry.resource(),
+        entry.resourceId(),
+        entry.severity());
+    return false;
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    worker = Thread.ofPlatform().name("audit-log-writer").daemon().start(this::drainLoop);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (worker != null) {
+      try {
+        worker.join(Duration.ofSeconds(15));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    flushRemaining();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Stops after the web server, so requests still in flight during shutdown are buffered. */
+  @Override
+  public int getPhase() {
+    return DEFAULT_PHASE - 4096;
+  }
+
+  private void drainLoop() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running) {
+      try {
+        Entry first = buffer.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        buffer.drainTo(batch, batchSize - 1);
+        write(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /** Writes whatever is left in the buffer. Called once the writer thread has stopped. */
+  void flushRemaining() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (buffer.drainTo(batch, batchSize) > 0) {
+      write(batch);
+      batch.clear();
+    }
+  }
+
+  private void write(List<Entry> batch) {
+    Timer.Sample sample = Timer.start();
+    List<Object[]> rows = new ArrayList<>(batch.size());
+    try {
+      for (Entry entry : batch) {
+        rows.add(toRow(entry));
+      }
+      jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+      writtenCounter.increment(batch.size());
+      log.debug("Audit batch written: entries={}", batch.size());
+    } catch (DataAccessResourceFailureException e) {
+      failedCounter.increment(batch.size());
+      log.error("Failed to write audit batch of {} entries: {}", batch.size(), e.getMessage(), e);
+    } catch (RuntimeException e) {
+      log.warn(
+          "Audit batch of {} entries rejected, retrying row by row: {}",
+          batch.size(),
+          e.getMessage());
+      failedCounter.increment(batch.size() - rows.size());
+      writeRowByRow(rows);
+    } finally {
+      sample.stop(flushTimer);
+    }
+  }
+
+  private void writeRowByRow(List<Object[]> rows) {
+    for (int i = 0; i < rows.size(); i++) {
+      Object[] row = rows.get(i);
+      try {
+        jdbcTemplate.update(RETRY_INSERT_SQL, row);
+        writtenCounter.increment();
+      } catch (DataAccessResourceFailureException e) {
+        failedCounter.increment(rows.size() - i);
+        log.error("Audit store unavailable, lost {} entries: {}", rows.size() - i, e.getMessage());
+        return;
+      } catch (RuntimeException e) {
+        failedCounter.increment();
+        log.error(
+            "Failed to write audit entry: uid={}, action={}, resource={}, resourceId={}",
+            row[2],
+            row[5],
+            row[6],
+            row[7],
+            e);
+      }
+    }
+  }
+
+  private Object[] toRow(Entry entry) {
+    Timestamp timestamp = Timestamp.from(entry.timestamp());
+    return new Object[] {
+      UUID.randomUUID(),
+      entry.tenantId(),
+      entry.uid(),
+      entry.userId(),
+      entry.resolveUserUid() ? resolveUserUid(entry.tenantId(), entry.userId()) : null,
+      entry.action(),
+      entry.resource(),
+      entry.resourceId(),
+      entry.description(),
+      entry.ipAddress(),
+      entry.severity().name(),
+      timestamp,
+      timestamp,
+      entry.userId(),
+      timestamp
+    };
+  }
+
+  private String resolveUserUid(UUID tenantId, UUID userId) {
+    if (userId == null) {
+      return SYSTEM_USER_UID;
+    }
+    String cached = userUids.getIfPresent(userId);
+    if (cached != null) {
+      return cached;
+    }
+    try {
+      String uid =
+          TenantContext.executeInTenantContext(
+              tenantId, () -> userFacade.findById(tenantId, userId).map(u -> u.getUid()))
+              .orElse(null);
+      if (uid == null) {
+        return UNKNOWN_USER_UID;
+      }
+      userUids.put(userId, uid);
+      return uid;
+    } catch (RuntimeException e) {
+      log.warn("Could not resolve user UID for audit entry: userId={}", userId, e);
+      return UNKNOWN_USER_UID;
+    }
+  }
+
+  /**
+   * One audit row, captured on the calling thread. {@code resolveUserUid} asks the writer to look
+   * up the user's UID ({@code SYSTEM} when there is no user); security events leave it empty.
+   */
+  public record Entry(
+      UUID tenantId,
+      String uid,
+      UUID userId,
+      boolean resolveUserUid,
+      String action,
+      String resource,
+      String resourceId,
+      String description,
+      String ipAddress,
+      AuditSeverity severity,
+      Instant timestamp) {}
+}
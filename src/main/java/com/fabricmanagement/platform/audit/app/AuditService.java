@@ -4,17 +4,15 @@ import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.platform.audit.domain.AuditLog;
 import com.fabricmanagement.platform.audit.domain.AuditSeverity;
 import com.fabricmanagement.platform.audit.infra.repository.AuditLogRepository;
-import com.fabricmanagement.platform.user.api.facade.UserFacade;
-import java.time.Instant;
+import java.time.Clock;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -54,49 +52,69 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class AuditService {
 
+  private static final String MODULE_CODE = "AUD";
+
   private final AuditLogRepository auditLogRepository;
-  private final UserFacade userFacade;
+  private final AuditLogWriter auditLogWriter;
+  private final Clock clock;
 
   /**
-   * Log an action (async for performance).
+   * Log an action. The entry is buffered and written in the background by {@link AuditLogWriter}.
    *
    * @param action the action performed
    * @param resource the resource type
    * @param resourceId the resource ID
    * @param description description of what happened
    */
-  @Async
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
   public void logAction(String action, String resource, String resourceId, String description) {
-    UUID tenantId = TenantContext.requireTenantId();
+    UUID tenantId = TenantContext.getCurrentTenantIdOrNull();
+    if (tenantId == null) {
+      log.warn(
+          "Audit entry without tenant context skipped: action={}, resource={}", action, resource);
+      return;
+    }
     UUID userId = TenantContext.getCurrentUserId();
 
-    String userUid =
-        userId != null
-            ? userFacade.findById(tenantId, userId).map(u -> u.getUid()).orElse("UNKNOWN")
-            : "SYSTEM";
-
-    AuditLog auditLog = AuditLog.create(userId, userUid, action, resource, resourceId, description);
-    auditLog.setTenantId(tenantId);
-
-    auditLogRepository.save(auditLog);
+    auditLogWriter.submit(
+        new AuditLogWriter.Entry(
+            tenantId,
+            nextUid(),
+            userId,
+            true,
+            action,
+            resource,
+            resourceId,
+            description,
+            null,
+            AuditSeverity.INFO,
+            clock.instant()));
 
     log.debug("Audit logged: action={}, resource={}, resourceId={}", action, resource, resourceId);
   }
 
   /** Log a security event. */
-  @Async
-  @Transactional(propagation = Propagation.REQUIRES_NEW)
   public void logSecurityEvent(
       String action, String description, String ipAddress, AuditSeverity severity) {
-    UUID tenantId = TenantContext.requireTenantId();
+    UUID tenantId = TenantContext.getCurrentTenantIdOrNull();
+    if (tenantId == null) {
+      log.warn("Security event without tenant context skipped: action={}", action);
+      return;
+    }
     UUID userId = TenantContext.getCurrentUserId();
 
-    AuditLog auditLog =
-        AuditLog.createSecurityEvent(userId, action, description, ipAddress, severity);
-    auditLog.setTenantId(tenantId);
-
-    auditLogRepository.save(auditLog);
+    auditLogWriter.submit(
+        new AuditLogWriter.Entry(
+            tenantId,
+            nextUid(),
+            userId,
+            false,
+            action,
+            "security",
+            null,
+            description,
+            ipAddress,
+            severity,
+            clock.instant()));
 
     log.warn("Security event logged: action={}, severity={}, ip={}", action, severity, ipAddress);
   }
@@ -124,17 +142,55 @@ public class AuditService {
         tenantId, resource, pageable);
   }
 
-  /** Get audit logs by time range. */
+  /**
+   * Keyset page of the tenant's audit log within the window, newest first. Unlike offset paging,
+   * the cost of a page does not grow with its depth.
+   *
+   * @param cursor {@link AuditLogCursor} token from the previous page, or null for the first page
+   */
   @Transactional(readOnly = true)
-  public List<AuditLog> getAuditLogsByTimeRange(Instant start, Instant end) {
+  public KeysetPage getAuditLogPage(AuditLogWindow window, String cursor, int size) {
     UUID tenantId = TenantContext.requireTenantId();
-    return auditLogRepository.findByTenantIdAndTimestampBetween(tenantId, start, end);
+    Pageable limit = PageRequest.of(0, size + 1);
+    List<AuditLog> rows =
+        cursor == null
+            ? auditLogRepository.findFirstKeysetPage(tenantId, window.from(), window.to(), limit)
+            : keysetPageAfter(tenantId, window, AuditLogCursor.decode(cursor), limit);
+
+    if (rows.size() <= size) {
+      return new KeysetPage(rows, null);
+    }
+    List<AuditLog> content = rows.subList(0, size);
+    AuditLog last = content.get(size - 1);
+    return new KeysetPage(
+        content, new AuditLogCursor(last.getTimestamp(), last.getId()).encode());
   }
 
-  /** Get critical/error audit logs for security monitoring. */
+  /** Get critical audit logs for security monitoring, newest first. */
   @Transactional(readOnly = true)
-  public List<AuditLog> getCriticalLogs() {
+  public Page<AuditLog> getCriticalLogs(Pageable pageable) {
     UUID tenantId = TenantContext.requireTenantId();
-    return auditLogRepository.findByTenantIdAndSeverity(tenantId, AuditSeverity.CRITICAL);
+    return auditLogRepository.findByTenantIdAndSeverityOrderByTimestampDesc(
+        tenantId, AuditSeverity.CRITICAL, pageable);
+  }
+
+  private List<AuditLog> keysetPageAfter(
+      UUID tenantId, AuditLogWindow window, AuditLogCursor after, Pageable limit) {
+    return auditLogRepository.findKeysetPageAfter(
+        tenantId, window.from(), window.to(), after.timestamp(), after.id(), limit);
   }
+
+  /** Same format as {@code BaseEntity#generateUid()}, captured while the tenant UID is bound. */
+  private static String nextUid() {
+    String tenantUid = TenantContext.getCurrentTenantUid();
+    if (tenantUid == null) {
+      tenantUid = "SYS-000";
+    }
+    String uniqueSuffix =
+        UUID.randomUUID().toString().replace("-", "").substring(0, 8).toUpperCase();
+    return String.format("%s-%s-%s", tenantUid, MODULE_CODE, uniqueSuffix);
+  }
+
+  /** A keyset page; {@code nextCursor} is null on the last page. */
+  public record KeysetPage(List<AuditLog> content, String nextCursor) {}
 }
@@ -0,0 +1,25 @@
+package com.fabricmanagement.platform.audit.dto;
+
+/** Output formats of the audit log export. */
+public enum AuditExportFormat {
+  /** One JSON object per line. */
+  NDJSON("application/x-ndjson", "ndjson"),
+  /** RFC 4180 CSV with a header row. */
+  CSV("text/csv", "csv");
+
+  private final String contentType;
+  private final String fileExtension;
+
+  AuditExportFormat(String contentType, String fileExtension) {
+    this.contentType = contentType;
+    this.fileExtension = fileExtension;
+  }
+
+  public String contentType() {
+    return contentType;
+  }
+
+  public String fileExtension() {
+    return fileExtension;
+  }
+}
@@ -0,0 +1,21 @@
+package com.fabricmanagement.platform.audit.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page of audit entries, newest first. Pass {@code nextCursor} back as {@code cursor}
+ * to fetch the following page; it is null on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogKeysetPageDto {
+
+  private List<AuditLogDto> content;
+  private String nextCursor;
+}
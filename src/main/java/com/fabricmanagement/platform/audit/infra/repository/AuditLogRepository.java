@@ -2,17 +2,27 @@ package com.fabricmanagement.platform.audit.infra.repository;
 
 import com.fabricmanagement.platform.audit.domain.AuditLog;
 import com.fabricmanagement.platform.audit.domain.AuditSeverity;
+import com.fabricmanagement.platform.audit.dto.AuditLogDto;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-/** Repository for AuditLog entity. */
+/**
+ * Repository for AuditLog entity.
+ *
+ * <p>The table is range-partitioned by month on {@code timestamp}; the keyset and export queries
+ * take a {@code [from, to)} window so PostgreSQL only scans the matching partitions.
+ */
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
 
@@ -27,12 +37,62 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
   Page<AuditLog> findByTenantIdAndActionOrderByTimestampDesc(
       UUID tenantId, String action, Pageable pageable);
 
-  List<AuditLog> findByTenantIdAndSeverity(UUID tenantId, AuditSeverity severity);
+  Page<AuditLog> findByTenantIdAndSeverityOrderByTimestampDesc(
+      UUID tenantId, AuditSeverity severity, Pageable pageable);
 
+  long countByTenantIdAndSeverity(UUID tenantId, AuditSeverity severity);
+
+  /** First keyset page of the window, newest first. Only the page size of the pageable is used. */
   @Query(
-      "SELECT a FROM AuditLog a WHERE a.tenantId = :tenantId AND a.timestamp BETWEEN :start AND :end ORDER BY a.timestamp DESC")
-  List<AuditLog> findByTenantIdAndTimestampBetween(
-      @Param("tenantId") UUID tenantId, @Param("start") Instant start, @Param("end") Instant end);
+      """
+      SELECT a FROM AuditLog a
+      WHERE a.tenantId = :tenantId
+        AND a.timestamp >= :from AND a.timestamp < :to
+      ORDER BY a.timestamp DESC, a.id DESC
+      """)
+  List<AuditLog> findFirstKeysetPage(
+      @Param("tenantId") UUID tenantId,
+      @Param("from") Instant from,
+      @Param("to") Instant to,
+      Pageable pageable);
 
-  long countByTenantIdAndSeverity(UUID tenantId, AuditSeverity severity);
+  /** Keyset page continuing after the (timestamp, id) of the previous page's last entry. */
+  @Query(
+      """
+      SELECT a FROM AuditLog a
+      WHERE a.tenantId = :tenantId
+        AND a.timestamp >= :from AND a.timestamp < :to
+        AND (a.timestamp < :afterTimestamp
+             OR (a.timestamp = :afterTimestamp AND a.id < :afterId))
+      ORDER BY a.timestamp DESC, a.id DESC
+      """)
+  List<AuditLog> findKeysetPageAfter(
+      @Param("tenantId") UUID tenantId,
+      @Param("from") Instant from,
+      @Param("to") Instant to,
+      @Param("afterTimestamp") Instant afterTimestamp,
+      @Param("afterId") UUID afterId,
+      Pageable pageable);
+
+  /**
+   * Streams the window as DTOs through a server-side cursor. Must be consumed inside a read-only
+   * transaction and closed.
+   */
+  @Query(
+      """
+      SELECT new com.fabricmanagement.platform.audit.dto.AuditLogDto(
+          a.id, a.tenantId, a.uid, a.userId, a.userUid, a.action, a.resource, a.resourceId,
+          a.description, a.oldValue, a.newValue, a.ipAddress, a.userAgent, a.severity,
+          a.timestamp)
+      FROM AuditLog a
+      WHERE a.tenantId = :tenantId
+        AND a.timestamp >= :from AND a.timestamp < :to
+      ORDER BY a.timestamp DESC, a.id DESC
+      """)
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  Stream<AuditLogDto> streamForExport(
+      @Param("tenantId") UUID tenantId, @Param("from") Instant from, @Param("to") Instant to);
 }
@@ -536,7 +536,28 @@ public class JwtService {
    *     com.fabricmanagement.common.infrastructure.security.JwtAuthenticationFilter}
    */
   public AuthTokenClaims extractAuthContext(String token) {
+    return toAuthTokenClaims(extractClaims(token));
+  }
+
+  /**
+   * Verifies the token's signature and expiry and extracts everything the authentication filter
+   * needs, in a single parse.
+   *
+   * @param token JWT access or pre-auth token
+   * @return the verified claims
+   * @throws JwtException if the token is malformed, tampered with or expired
+   */
+  public VerifiedToken verify(String token) {
     Claims claims = extractClaims(token);
+    Date expiration = claims.getExpiration();
+    return new VerifiedToken(
+        toAuthTokenClaims(claims),
+        Boolean.TRUE.equals(claims.get("mfa_pre_auth", Boolean.class)),
+        claims.get("tenant_uid", String.class),
+        expiration != null ? expiration.toInstant() : null);
+  }
+
+  private AuthTokenClaims toAuthTokenClaims(Claims claims) {
 
     // user_id
     String userIdStr = claims.get("user_id", String.class);
@@ -612,6 +633,10 @@ public class JwtService {
       String guestId,
       UUID partnerId) {}
 
+  /** Result of {@link #verify(String)}. {@code expiresAt} is null for tokens without exp. */
+  public record VerifiedToken(
+      AuthTokenClaims claims, boolean preAuth, String tenantUid, Instant expiresAt) {}
+
   private Claims extractClaims(String token) {
     return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
   }
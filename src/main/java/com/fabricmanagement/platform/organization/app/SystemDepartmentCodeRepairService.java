@@ -1,6 +1,7 @@
 package com.fabricmanagement.platform.organization.app;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.security.PermissionInvalidationNotifier;
 import com.fabricmanagement.platform.organization.domain.Department;
 import com.fabricmanagement.platform.organization.domain.SystemDepartment;
 import com.fabricmanagement.platform.organization.infra.repository.DepartmentRepository;
@@ -23,18 +24,25 @@ import org.springframework.transaction.annotation.Transactional;
 public class SystemDepartmentCodeRepairService {
 
   private final DepartmentRepository departmentRepository;
+  private final PermissionInvalidationNotifier permissionInvalidationNotifier;
 
   @Transactional
   public int repairTenant(UUID tenantId) {
-    return TenantContext.executeInTenantContext(
-        tenantId,
-        () ->
-            departmentRepository.findByTenantIdAndIsActiveTrue(tenantId).stream()
-                .collect(Collectors.groupingBy(Department::getOrganizationId))
-                .values()
-                .stream()
-                .mapToInt(this::repairOrganization)
-                .sum());
+    int repaired =
+        TenantContext.executeInTenantContext(
+            tenantId,
+            () ->
+                departmentRepository.findByTenantIdAndIsActiveTrue(tenantId).stream()
+                    .collect(Collectors.groupingBy(Department::getOrganizationId))
+                    .values()
+                    .stream()
+                    .mapToInt(this::repairOrganization)
+                    .sum());
+    if (repaired > 0) {
+      // Department codes and parents feed the compiled permission snapshots.
+      permissionInvalidationNotifier.invalidateTenant(tenantId);
+    }
+    return repaired;
   }
 
   private int repairOrganization(List<Department> departments) {
@@ -61,6 +61,8 @@ public class TenantTransactionalPurgeService {
           "common_approval.approval_policy",
           "finance.fx_revaluation",
           "finance.fx_realization",
+          "finance.finance_partner_metric_snapshot",
+          "finance.finance_ledger_metric_snapshot",
           "finance.finance_credit_note_application",
           "finance.finance_payment_allocation",
           "finance.finance_payment",
@@ -101,6 +103,9 @@ public class TenantTransactionalPurgeService {
           "production.work_order_consumption",
           "production.quality_decision_unit",
           "production.quality_decision",
+          "production.stock_availability_projection",
+          "production.stock_unit_reconciliation_discrepancy",
+          "production.inventory_balance_checkpoint",
           "production.stock_unit_audit_log",
           "production.stock_unit_soft_hold",
           "production.stock_unit",
@@ -146,8 +151,10 @@ public class TenantTransactionalPurgeService {
           "sales.discount_policy",
           "common_company.partner_contact",
           "human.human_pay_run_audit_log",
+          "human.human_pay_run_payout_duplicate",
           "human.human_pay_run_payout",
           "human.human_pay_run_entry",
+          "human.human_pay_run_chunk",
           "human.human_pay_run",
           "human.human_pay_period",
           "human.human_leave_accrual_log",
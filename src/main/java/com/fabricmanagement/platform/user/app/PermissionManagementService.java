@@ -1,6 +1,7 @@
 package com.fabricmanagement.platform.user.app;
 
 import com.fabricmanagement.common.infrastructure.security.PermissionEvaluator;
+import com.fabricmanagement.common.infrastructure.security.PermissionInvalidationNotifier;
 import com.fabricmanagement.common.infrastructure.security.PermissionRegistry;
 import com.fabricmanagement.common.infrastructure.security.dto.PermissionResult;
 import com.fabricmanagement.platform.common.exception.PlatformDomainException;
@@ -32,6 +33,7 @@ public class PermissionManagementService {
   private final PermissionOverrideRepository overrideRepository;
   private final PermissionEvaluator permissionEvaluator;
   private final UserQueryService userQueryService;
+  private final PermissionInvalidationNotifier permissionInvalidationNotifier;
 
   @Transactional(readOnly = true)
   public List<PermissionTemplateDto> getTemplates(
@@ -59,7 +61,6 @@ public class PermissionManagementService {
   }
 
   @Transactional
-  @org.springframework.cache.annotation.CacheEvict(value = "permissions", allEntries = true)
   public PermissionTemplateDto createTemplate(
       UUID tenantId, CreatePermissionTemplateRequest request) {
     validateResourceAction(request.getResource(), request.getAction());
@@ -76,11 +77,11 @@ public class PermissionManagementService {
     template.setTenantId(tenantId);
     template.setIsActive(true);
 
+    permissionInvalidationNotifier.invalidateTenant(tenantId);
     return PermissionTemplateDto.from(templateRepository.save(template));
   }
 
   @Transactional
-  @org.springframework.cache.annotation.CacheEvict(value = "permissions", allEntries = true)
   public PermissionTemplateDto updateTemplate(
       UUID tenantId, UUID id, UpdatePermissionTemplateRequest request) {
     PermissionTemplate template =
@@ -102,6 +103,7 @@ public class PermissionManagementService {
       copy.setTenantId(tenantId);
       copy.setIsActive(request.getIsActive());
 
+      permissionInvalidationNotifier.invalidateTenant(tenantId);
       return PermissionTemplateDto.from(templateRepository.save(copy));
     }
 
@@ -113,11 +115,11 @@ public class PermissionManagementService {
     template.setDataScope(request.getDataScope());
     template.setIsActive(request.getIsActive());
 
+    permissionInvalidationNotifier.invalidateTenant(tenantId);
     return PermissionTemplateDto.from(templateRepository.save(template));
   }
 
   @Transactional
-  @org.springframework.cache.annotation.CacheEvict(value = "permissions", allEntries = true)
   public void deleteTemplate(UUID tenantId, UUID id) {
     PermissionTemplate template =
         templateRepository
@@ -135,6 +137,7 @@ public class PermissionManagementService {
 
     template.setIsActive(false);
     templateRepository.save(template);
+    permissionInvalidationNotifier.invalidateTenant(tenantId);
   }
 
   @Transactional(readOnly = true)
@@ -145,9 +148,6 @@ public class PermissionManagementService {
   }
 
   @Transactional
-  @org.springframework.cache.annotation.CacheEvict(
-      value = "permissions",
-      key = "#tenantId + '_' + #request.userId")
   public PermissionOverrideDto createOverride(
       UUID tenantId, UUID grantedBy, CreatePermissionOverrideRequest request) {
     validateResourceAction(request.getResource(), request.getAction());
@@ -166,11 +166,11 @@ public class PermissionManagementService {
     override.setTenantId(tenantId);
     override.setIsActive(true);
 
+    permissionInvalidationNotifier.invalidateTenant(tenantId);
     return PermissionOverrideDto.from(overrideRepository.save(override));
   }
 
   @Transactional
-  @org.springframework.cache.annotation.CacheEvict(value = "permissions", allEntries = true)
   public void deleteOverride(UUID tenantId, UUID id) {
     PermissionOverride override =
         overrideRepository
@@ -183,6 +183,7 @@ public class PermissionManagementService {
 
     override.setIsActive(false);
     overrideRepository.save(override);
+    permissionInvalidationNotifier.invalidateTenant(tenantId);
   }
 
   @Transactional(readOnly = true)
@@ -1,14 +1,14 @@
 package com.fabricmanagement.production.execution.batch.app;
 
-import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
-import com.fabricmanagement.common.infrastructure.tenant.TenantQueryPort;
-import com.fabricmanagement.common.infrastructure.tenant.TenantReference;
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
 import com.fabricmanagement.common.infrastructure.web.LocalizationService;
 import com.fabricmanagement.platform.communication.app.InAppNotificationService;
 import com.fabricmanagement.platform.communication.domain.NotificationDeliveryChannel;
 import com.fabricmanagement.platform.communication.domain.NotificationType;
 import com.fabricmanagement.production.execution.batch.domain.BatchCertification;
 import com.fabricmanagement.production.execution.batch.infra.repository.BatchCertificationRepository;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Locale;
@@ -18,7 +18,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Scheduled job: finds active batch certifications that are expired or expiring within the
@@ -31,56 +30,62 @@ import org.springframework.transaction.annotation.Transactional;
 @Component
 @RequiredArgsConstructor
 @Slf4j
-public class BatchCertificationExpiryCheckJob {
+public class BatchCertificationExpiryCheckJob implements ResumableTenantJob {
+
+  private static final String JOB_NAME = "batch-certification-expiry-check";
 
   @Value("${application.batch-certification.expiry-warning-days:30}")
   private int expiryWarningDays;
 
-  private final TenantQueryPort tenantQueryPort;
+  private final TenantFanOutExecutor fanOutExecutor;
   private final BatchCertificationRepository batchCertificationRepository;
   private final InAppNotificationService inAppNotificationService;
   private final LocalizationService localizationService;
+  private final Clock clock;
 
   /**
    * Runs every night at 2 AM by default; override with
    * application.batch-certification.expiry-check-cron
    */
   @Scheduled(cron = "${application.batch-certification.expiry-check-cron:0 0 2 * * ?}")
-  @Transactional(readOnly = true)
   public void checkExpiringCertifications() {
-    LocalDate threshold = LocalDate.now().plusDays(expiryWarningDays);
-    List<TenantReference> tenants = tenantQueryPort.findAllActiveTenants();
+    LocalDate today = LocalDate.now(clock);
+    LocalDate threshold = today.plusDays(expiryWarningDays);
+    fanOutExecutor.run(
+        JOB_NAME,
+        today.toString(),
+        tenant -> {
+          UUID tenantId = tenant.id();
+          List<BatchCertification> expiring =
+              batchCertificationRepository.findByTenantIdAndIsActiveTrueAndValidUntilBeforeOrOn(
+                  tenantId, threshold);
+          if (expiring.isEmpty()) {
+            log.debug(
+                "Batch certification expiry check: tenant {} has no expiring certs.", tenantId);
+            return;
+          }
+          notifyTenantOfExpiringCerts(tenantId, expiring, threshold);
+          log.info(
+              "Batch certification expiry: tenant {}, {} cert(s) expired or expiring by {}",
+              tenantId,
+              expiring.size(),
+              threshold);
+        });
+  }
+
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
+
+  @Override
+  public String runKey() {
+    return LocalDate.now(clock).toString();
+  }
 
-    for (TenantReference tenant : tenants) {
-      UUID tenantId = tenant.id();
-      try {
-        TenantContext.executeInTenantContext(
-            tenantId,
-            () -> {
-              List<BatchCertification> expiring =
-                  batchCertificationRepository.findByTenantIdAndIsActiveTrueAndValidUntilBeforeOrOn(
-                      tenantId, threshold);
-              if (expiring.isEmpty()) {
-                log.debug(
-                    "Batch certification expiry check: tenant {} has no expiring certs.", tenantId);
-                return null;
-              }
-              notifyTenantOfExpiringCerts(tenantId, expiring, threshold);
-              log.info(
-                  "Batch certification expiry: tenant {}, {} cert(s) expired or expiring by {}",
-                  tenantId,
-                  expiring.size(),
-                  threshold);
-              return null;
-            });
-      } catch (Exception e) {
-        log.warn(
-            "Batch certification expiry check failed for tenant {}: {}",
-            tenantId,
-            e.getMessage(),
-            e);
-      }
-    }
+  @Override
+  public void resume() {
+    checkExpiringCertifications();
   }
 
   private void notifyTenantOfExpiringCerts(
@@ -0,0 +1,118 @@
+package com.fabricmanagement.production.execution.batch.app;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@code production.stock_availability_projection} in step with StockUnit writes.
+ *
+ * <p>Writers call {@link #markDirty(UUID, UUID)} after changing a piece. Dirty batches are collected
+ * per transaction and re-aggregated once, just before commit, so a bulk receipt of hundreds of
+ * pieces costs one DELETE and one INSERT … SELECT for its batch rather than one per piece. The
+ * refresh runs inside the writing transaction: readers never see a piece change without its
+ * projection, and a rollback discards both.
+ *
+ * <p>Writes that arrive after the before-commit refresh has already run (e.g. from a {@code
+ * BEFORE_COMMIT} listener) are refreshed immediately.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockAvailabilityProjectionService {
+
+  private final StockAvailabilityProjectionStore store;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  public void markDirty(UUID tenantId, UUID batchId) {
+    if (tenantId == null || batchId == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      store.refresh(tenantId, List.of(batchId));
+      return;
+    }
+    RefreshOnCommit pending = currentRefresh();
+    if (pending.refreshed) {
+      entityManager.flush();
+      store.refresh(tenantId, List.of(batchId));
+      return;
+    }
+    Set<UUID> batchIds =
+        pending.batchIdsByTenant.computeIfAbsent(tenantId, ignored -> new LinkedHashSet<>());
+    batchIds.add(batchId);
+  }
+
+  /** Rebuilds the tenant's projection from scratch. */
+  @Transactional
+  public int rebuild(UUID tenantId) {
+    int rows = store.rebuild(tenantId);
+    log.info("Rebuilt stock availability projection: tenantId={}, rows={}", tenantId, rows);
+    return rows;
+  }
+
+  /**
+   * Compares the tenant's projection with the live StockUnit aggregate and, when {@code repair} is
+   * set, refreshes the drifted batches.
+   *
+   * @return the batches whose projection did not match
+   */
+  @Transactional
+  public List<UUID> verify(UUID tenantId, boolean repair) {
+    List<UUID> drifted = store.findDriftedBatchIds(tenantId);
+    if (drifted.isEmpty()) {
+      return drifted;
+    }
+    log.warn(
+        "Stock availability projection drift: tenantId={}, batches={}, repair={}",
+        tenantId,
+        drifted.size(),
+        repair);
+    if (repair) {
+      store.refresh(tenantId, drifted);
+    }
+    return drifted;
+  }
+
+  /**
+   * Returns the refresh registered on the current transaction. Looked up among the transaction's
+   * own synchronizations so that a {@code REQUIRES_NEW} transaction never folds its batches into
+   * the suspended outer one.
+   */
+  private RefreshOnCommit currentRefresh() {
+    for (TransactionSynchronization synchronization :
+        TransactionSynchronizationManager.getSynchronizations()) {
+      if (synchronization instanceof RefreshOnCommit refresh) {
+        return refresh;
+      }
+    }
+    RefreshOnCommit refresh = new RefreshOnCommit();
+    TransactionSynchronizationManager.registerSynchronization(refresh);
+    return refresh;
+  }
+
+  private final class RefreshOnCommit implements TransactionSynchronization {
+
+    private final Map<UUID, Set<UUID>> batchIdsByTenant = new HashMap<>();
+    private boolean refreshed;
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      entityManager.flush();
+      batchIdsByTenant.forEach(store::refresh);
+      refreshed = true;
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package com.fabricmanagement.production.execution.batch.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.production.execution.stockunit.domain.PackageType;
+import com.fabricmanagement.production.execution.stockunit.domain.QualityDisposition;
+import com.fabricmanagement.production.execution.stockunit.domain.StockUnitStatus;
+import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL access to {@code production.stock_availability_projection}.
+ *
+ * <p>The projection holds one row per (batch, status, quality grade, disposition, package type,
+ * weight unit, length unit) for every active StockUnit. That grain is fine enough to answer the
+ * vector, piece and quality breakdown queries of {@link StockAvailabilityQueryService} from a
+ * single indexed read, and coarse enough that a lot with thousands of pieces collapses to a handful
+ * of rows. Writes join the transaction of the StockUnit changes they reflect ({@link
+ * NativeSqlSupport}).
+ *
+ * <p>A refresh deletes and re-inserts a batch's rows, and the grain has no unique key, so two
+ * transactions refreshing the same batch would both insert and double its figures. Writers
+ * therefore take a transaction-scoped advisory lock per (tenant, batch) before the delete; the
+ * second writer waits for the first to commit and then aggregates both writers' pieces. A rebuild
+ * takes the tenant's lock exclusively, which refreshes take shared.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockAvailabilityProjectionStore {
+
+  private static final String LIVE_AGGREGATE =
+      """
+      SELECT s.batch_id,
+             s.status,
+             s.quality_grade_id,
+             s.quality_disposition,
+             s.package_type,
+             UPPER(TRIM(s.unit)) AS weight_unit,
+             UPPER(TRIM(s.length_unit)) AS length_unit,
+             COALESCE(SUM(s.current_weight), 0) AS weight_quantity,
+             SUM(s.length) AS length_quantity,
+             COUNT(s.id) AS piece_count
+      FROM production.stock_unit s
+      WHERE s.tenant_id = :tenantId
+        AND s.is_active = TRUE
+        AND s.batch_id IS NOT NULL
+        %s
+      GROUP BY s.batch_id, s.status, s.quality_grade_id, s.quality_disposition,
+               s.package_type, UPPER(TRIM(s.unit)), UPPER(TRIM(s.length_unit))
+      """;
+
+  private static final String LOCK_BATCHES =
+      """
+      SELECT count(pg_advisory_xact_lock(hashtext(CAST(:tenantId AS text) || ids.batch_id)))
+      FROM (
+          SELECT DISTINCT batch_id
+          FROM jsonb_array_elements_text(CAST(:batchIds AS jsonb)) AS j(batch_id)
+          ORDER BY batch_id
+      ) ids
+      """;
+
+  private final NativeSqlSupport nativeSql;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /** Reads the projected rows of the given batches. Batches without active pieces have no rows. */
+  public List<Row> findRows(UUID tenantId, Collection<UUID> batchIds) {
+    if (batchIds.isEmpty()) {
+      return List.of();
+    }
+    return mapRows(
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT batch_id, status, quality_grade_id, quality_disposition, package_type,
+                       weight_unit, length_unit, weight_quantity, length_quantity, piece_count
+                FROM production.stock_availability_projection
+                WHERE tenant_id = :tenantId
+                  AND batch_id IN (:batchIds)
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("batchIds", batchIds)
+            .getResultList());
+  }
+
+  /** Computes the same rows on the fly from {@code production.stock_unit}. */
+  public List<Row> computeLiveRows(UUID tenantId, Collection<UUID> batchIds) {
+    if (batchIds.isEmpty()) {
+      return List.of();
+    }
+    return mapRows(
+        entityManager
+            .createNativeQuery(LIVE_AGGREGATE.formatted("AND s.batch_id IN (:batchIds)"))
+            .setParameter("tenantId", tenantId)
+            .setParameter("batchIds", batchIds)
+            .getResultList());
+  }
+
+  /**
+   * Replaces the projected rows of the given batches with a fresh aggregate of their active pieces.
+   * Must run on the same connection as the StockUnit writes it reflects, after they were flushed.
+   * Waits for concurrent refreshes of the same batches to commit.
+   */
+  public void refresh(UUID tenantId, Collection<UUID> batchIds) {
+    if (batchIds.isEmpty()) {
+      return;
+    }
+    lockTenant(tenantId, "pg_advisory_xact_lock_shared");
+    entityManager
+        .createNativeQuery(LOCK_BATCHES)
+        .setParameter("tenantId", tenantId)
+        .setParameter("batchIds", nativeSql.jsonRows(batchIds, "projection batch ids"))
+        .getSingleResult();
+    entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM production.stock_availability_projection
+            WHERE tenant_id = :tenantId
+              AND batch_id IN (:batchIds)
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("batchIds", batchIds)
+        .executeUpdate();
+    entityManager
+        .createNativeQuery(insertFromLive("AND s.batch_id IN (:batchIds)"))
+        .setParameter("tenantId", tenantId)
+        .setParameter("batchIds", batchIds)
+        .executeUpdate();
+  }
+
+  /** Drops and rebuilds every projected row of the tenant. Returns the number of rows written. */
+  public int rebuild(UUID tenantId) {
+    lockTenant(tenantId, "pg_advisory_xact_lock");
+    entityManager
+        .createNativeQuery(
+            "DELETE FROM production.stock_availability_projection WHERE tenant_id = :tenantId")
+        .setParameter("tenantId", tenantId)
+        .executeUpdate();
+    return entityManager
+        .createNativeQuery(insertFromLive(""))
+        .setParameter("tenantId", tenantId)
+        .executeUpdate();
+  }
+
+  /**
+   * Returns the batches whose projected rows differ from the live aggregate: missing rows, stale
+   * rows, or rows whose quantities or piece counts have drifted.
+   */
+  @SuppressWarnings("unchecked")
+  public List<UUID> findDriftedBatchIds(UUID tenantId) {
+    String sql =
+        """
+        WITH live AS (%s),
+             projected AS (
+                 SELECT *
+                 FROM production.stock_availability_projection
+                 WHERE tenant_id = :tenantId
+             )
+        SELECT DISTINCT COALESCE(l.batch_id, p.batch_id)
+        FROM live l
+        FULL OUTER JOIN projected p
+          ON p.batch_id = l.batch_id
+         AND p.status = l.status
+         AND COALESCE(p.quality_grade_id, CAST('00000000-0000-0000-0000-000000000000' AS uuid))
+             = COALESCE(l.quality_grade_id, CAST('00000000-0000-0000-0000-000000000000' AS uuid))
+         AND p.quality_disposition = l.quality_disposition
+         AND p.package_type = l.package_type
+         AND COALESCE(p.weight_unit, '') = COALESCE(l.weight_unit, '')
+         AND COALESCE(p.length_unit, '') = COALESCE(l.length_unit, '')
+        WHERE l.batch_id IS NULL
+           OR p.batch_id IS NULL
+           OR p.weight_quantity <> l.weight_quantity
+           OR p.length_quantity IS DISTINCT FROM l.length_quantity
+           OR p.piece_count <> l.piece_count
+        """
+            .formatted(LIVE_AGGREGATE.formatted(""));
+    return entityManager
+        .createNativeQuery(sql)
+        .setParameter("tenantId", tenantId)
+        .getResultList();
+  }
+
+  private void lockTenant(UUID tenantId, String lockFunction) {
+    entityManager
+        .createNativeQuery(
+            "SELECT count(%s(hashtext(CAST(:tenantId AS text))))".formatted(lockFunction))
+        .setParameter("tenantId", tenantId)
+        .getSingleResult();
+  }
+
+  private String insertFromLive(String batchPredicate) {
+    return """
+        INSERT INTO production.stock_availability_projection (
+            tenant_id, batch_id, status, quality_grade_id, quality_disposition, package_type,
+            weight_unit, length_unit, weight_quantity, length_quantity, piece_count, refreshed_at)
+        SELECT CAST(:tenantId AS uuid), live.*, now()
+        FROM (%s) live
+        """
+        .formatted(LIVE_AGGREGATE.formatted(batchPredicate));
+  }
+
+  /** Maps rows in the column order shared by the projection table and {@link #LIVE_AGGREGATE}. */
+  @SuppressWarnings("unchecked")
+  private static List<Row> mapRows(List<?> results) {
+    return ((List<Object[]>) results)
+        .stream()
+        .map(
+            r ->
+                new Row(
+                    (UUID) r[0],
+                    StockUnitStatus.valueOf((String) r[1]),
+                    (UUID) r[2],
+                    QualityDisposition.valueOf((String) r[3]),
+                    PackageType.valueOf((String) r[4]),
+                    (String) r[5],
+                    (BigDecimal) r[7],
+                    (String) r[6],
+                    (BigDecimal) r[8],
+                    ((Number) r[9]).longValue()))
+        .toList();
+  }
+
+  /**
+   * One projected row. Implements every availability row shape of {@link StockUnitRepository} so
+   * the query service can feed projected rows through the same aggregation code as live ones.
+   */
+  @Value
+  public static class Row
+      implements StockUnitRepository.AvailabilityVectorRow,
+          StockUnitRepository.AvailabilityPieceBreakdownRow,
+          StockUnitRepository.AvailabilityQualityBreakdownRow {
+    UUID batchId;
+    StockUnitStatus status;
+    UUID qualityGradeId;
+    QualityDisposition qualityDisposition;
+    PackageType packageType;
+    String weightUnit;
+    BigDecimal weightQuantity;
+    String lengthUnit;
+    BigDecimal lengthQuantity;
+    long pieceCount;
+  }
+}
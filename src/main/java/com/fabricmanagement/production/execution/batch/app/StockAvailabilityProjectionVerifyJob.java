@@ -0,0 +1,74 @@
+package com.fabricmanagement.production.execution.batch.app;
+
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job: proves the stock availability projection matches the live StockUnit aggregate and
+ * repairs drifted batches (writes that bypassed {@link StockAvailabilityProjectionService}, manual
+ * SQL fixes, restores).
+ *
+ * <p>Runs nightly after the StockUnit reconciliation; each tenant is verified separately.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockAvailabilityProjectionVerifyJob implements ResumableTenantJob {
+
+  private static final String JOB_NAME = "stock-availability-projection-verify";
+
+  private final TenantFanOutExecutor fanOutExecutor;
+  private final StockAvailabilityProjectionService projectionService;
+  private final Clock clock;
+
+  @Value("${application.stock-availability.projection-repair:true}")
+  private boolean repair;
+
+  /** Runs nightly at 4 AM by default; override with application.stock-availability.verify-cron */
+  @Scheduled(cron = "${application.stock-availability.verify-cron:0 0 4 * * ?}")
+  public void verifyAllTenants() {
+    AtomicInteger driftedTenants = new AtomicInteger();
+    TenantFanOutExecutor.Result result =
+        fanOutExecutor.run(
+            JOB_NAME,
+            runKey(),
+            tenant -> {
+              List<UUID> drifted = projectionService.verify(tenant.id(), repair);
+              if (!drifted.isEmpty()) {
+                driftedTenants.incrementAndGet();
+              }
+            });
+
+    if (result.leaseHeld()) {
+      log.info(
+          "Stock availability projection verified: tenants={}, drifted={}",
+          result.tenants(),
+          driftedTenants.get());
+    }
+  }
+
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
+
+  @Override
+  public String runKey() {
+    return LocalDate.now(clock).toString();
+  }
+
+  @Override
+  public void resume() {
+    verifyAllTenants();
+  }
+}
@@ -12,6 +12,7 @@ import com.fabricmanagement.production.execution.batch.infra.repository.BatchRep
 import com.fabricmanagement.production.execution.batch.infra.repository.StockAvailabilityBatchRepository.Filter;
 import com.fabricmanagement.production.execution.batch.infra.repository.StockAvailabilityBatchRepository.ProductRow;
 import com.fabricmanagement.production.execution.stockunit.domain.PackageType;
+import com.fabricmanagement.production.execution.stockunit.domain.QualityDisposition;
 import com.fabricmanagement.production.execution.stockunit.domain.StockUnitStatus;
 import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
 import com.fabricmanagement.production.masterdata.qualitygrade.api.query.QualityGradeQueryService;
@@ -31,6 +32,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,7 +40,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-/** Tenant-scoped stock-availability read model for product summaries and lot detail. */
+/**
+ * Tenant-scoped stock-availability read model for product summaries and lot detail.
+ *
+ * <p>Piece-level figures come from {@code production.stock_availability_projection} (one indexed
+ * read, maintained by {@link StockAvailabilityProjectionService}) when {@code
+ * application.stock-availability.projection-read-enabled} is set, and from the grouped StockUnit
+ * queries otherwise. Both feed the same aggregation, so the two paths produce identical lots.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -53,6 +62,10 @@ public class StockAvailabilityQueryService {
   private final BatchPrimaryMeasureService primaryMeasureService;
   private final BatchCommitmentQuantityService commitmentQuantityService;
   private final QualityGradeQueryService qualityGradeQueryService;
+  private final StockAvailabilityProjectionStore projectionStore;
+
+  @Value("${application.stock-availability.projection-read-enabled:true}")
+  private boolean projectionReadEnabled;
 
   public Page<StockAvailabilityDtos.Summary> summary(
       UUID colorId,
@@ -150,37 +163,13 @@ public class StockAvailabilityQueryService {
       return Map.of();
     }
     List<UUID> batchIds = batches.stream().map(Batch::getId).toList();
-    Set<UUID> pieceBackedBatchIds =
-        stockUnitRepository.findBatchIdsWithActiveStockUnits(tenantId, batchIds);
-    Map<UUID, List<StockUnitRepository.AvailabilityVectorRow>> vectorRows =
-        stockUnitRepository.findAvailabilityVectorRows(tenantId, batchIds).stream()
-            .collect(Collectors.groupingBy(StockUnitRepository.AvailabilityVectorRow::getBatchId));
-    Map<UUID, List<StockUnitRepository.AvailabilityPieceBreakdownRow>> pieceRows =
-        stockUnitRepository
-            .findAvailabilityPieceBreakdownRows(
-                tenantId,
-                batchIds,
-                SELECTABLE_PIECE_STATUSES,
-                filter.qualityGradeId(),
-                filter.qualityUnassigned())
-            .stream()
-            .collect(
-                Collectors.groupingBy(
-                    StockUnitRepository.AvailabilityPieceBreakdownRow::getBatchId));
-    List<StockUnitRepository.AvailabilityQualityBreakdownRow> allQualityRows =
-        stockUnitRepository.findAvailabilityQualityBreakdownRows(
-            tenantId,
-            batchIds,
-            SELECTABLE_PIECE_STATUSES,
-            filter.qualityGradeId(),
-            filter.qualityUnassigned());
-    Map<UUID, List<StockUnitRepository.AvailabilityQualityBreakdownRow>> qualityRows =
-        allQualityRows.stream()
-            .collect(
-                Collectors.groupingBy(
-                    StockUnitRepository.AvailabilityQualityBreakdownRow::getBatchId));
+    PieceRows rows =
+        projectionReadEnabled
+            ? projectedPieceRows(tenantId, batchIds, filter)
+            : livePieceRows(tenantId, batchIds, filter);
     Set<UUID> qualityGradeIds =
-        allQualityRows.stream()
+        rows.qualityRows().values().stream()
+            .flatMap(List::stream)
             .map(StockUnitRepository.AvailabilityQualityBreakdownRow::getQualityGradeId)
             .filter(Objects::nonNull)
             .collect(Collectors.toSet());
@@ -200,11 +189,11 @@ public class StockAvailabilityQueryService {
                     computeLot(
                         tenantId,
                         batch,
-                        pieceBackedBatchIds.contains(batch.getId()),
+                        rows.pieceBackedBatchIds().contains(batch.getId()),
                         filter,
-                        vectorRows.getOrDefault(batch.getId(), List.of()),
-                        pieceRows.getOrDefault(batch.getId(), List.of()),
-                        qualityRows.getOrDefault(batch.getId(), List.of()),
+                        rows.vectorRows().getOrDefault(batch.getId(), List.of()),
+                        rows.pieceRows().getOrDefault(batch.getId(), List.of()),
+                        rows.qualityRows().getOrDefault(batch.getId(), List.of()),
                         qualityGrades,
                         commitments.get(batch.getId()),
                         colours.get(batch.getId())),
@@ -212,6 +201,79 @@ public class StockAvailabilityQueryService {
                 LinkedHashMap::new));
   }
 
+  private PieceRows livePieceRows(UUID tenantId, List<UUID> batchIds, Filter filter) {
+    Set<UUID> pieceBackedBatchIds =
+        stockUnitRepository.findBatchIdsWithActiveStockUnits(tenantId, batchIds);
+    Map<UUID, List<StockUnitRepository.AvailabilityVectorRow>> vectorRows =
+        stockUnitRepository.findAvailabilityVectorRows(tenantId, batchIds).stream()
+            .collect(Collectors.groupingBy(StockUnitRepository.AvailabilityVectorRow::getBatchId));
+    Map<UUID, List<StockUnitRepository.AvailabilityPieceBreakdownRow>> pieceRows =
+        stockUnitRepository
+            .findAvailabilityPieceBreakdownRows(
+                tenantId,
+                batchIds,
+                SELECTABLE_PIECE_STATUSES,
+                filter.qualityGradeId(),
+                filter.qualityUnassigned())
+            .stream()
+            .collect(
+                Collectors.groupingBy(
+                    StockUnitRepository.AvailabilityPieceBreakdownRow::getBatchId));
+    Map<UUID, List<StockUnitRepository.AvailabilityQualityBreakdownRow>> qualityRows =
+        stockUnitRepository
+            .findAvailabilityQualityBreakdownRows(
+                tenantId,
+                batchIds,
+                SELECTABLE_PIECE_STATUSES,
+                filter.qualityGradeId(),
+                filter.qualityUnassigned())
+            .stream()
+            .collect(
+                Collectors.groupingBy(
+                    StockUnitRepository.AvailabilityQualityBreakdownRow::getBatchId));
+    return new PieceRows(pieceBackedBatchIds, vectorRows, pieceRows, qualityRows);
+  }
+
+  /**
+   * Derives the live query shapes from projected rows. The projection is finer grained than each
+   * live query, but every consumer sums rows (and groups mismatches, packages and grades itself), so
+   * the extra grain does not change any figure.
+   */
+  private PieceRows projectedPieceRows(UUID tenantId, List<UUID> batchIds, Filter filter) {
+    List<StockAvailabilityProjectionStore.Row> projected =
+        projectionStore.findRows(tenantId, batchIds);
+    Set<UUID> pieceBackedBatchIds =
+        projected.stream()
+            .map(StockAvailabilityProjectionStore.Row::getBatchId)
+            .collect(Collectors.toSet());
+    List<StockAvailabilityProjectionStore.Row> released =
+        projected.stream()
+            .filter(row -> row.getQualityDisposition() == QualityDisposition.RELEASED)
+            .toList();
+    List<StockAvailabilityProjectionStore.Row> selectable =
+        released.stream()
+            .filter(row -> SELECTABLE_PIECE_STATUSES.contains(row.getStatus()))
+            .filter(row -> matchesQuality(row.getQualityGradeId(), filter))
+            .toList();
+    return new PieceRows(
+        pieceBackedBatchIds,
+        released.stream()
+            .collect(
+                Collectors.groupingBy(
+                    StockAvailabilityProjectionStore.Row::getBatchId,
+                    Collectors.<StockUnitRepository.AvailabilityVectorRow>toList())),
+        selectable.stream()
+            .collect(
+                Collectors.groupingBy(
+                    StockAvailabilityProjectionStore.Row::getBatchId,
+                    Collectors.<StockUnitRepository.AvailabilityPieceBreakdownRow>toList())),
+        selectable.stream()
+            .collect(
+                Collectors.groupingBy(
+                    StockAvailabilityProjectionStore.Row::getBatchId,
+                    Collectors.<StockUnitRepository.AvailabilityQualityBreakdownRow>toList())));
+  }
+
   private LotComputation computeLot(
       UUID tenantId,
       Batch batch,
@@ -577,6 +639,12 @@ public class StockAvailabilityQueryService {
 
   private record LotComputation(UUID productId, StockAvailabilityDtos.Lot lot) {}
 
+  private record PieceRows(
+      Set<UUID> pieceBackedBatchIds,
+      Map<UUID, List<StockUnitRepository.AvailabilityVectorRow>> vectorRows,
+      Map<UUID, List<StockUnitRepository.AvailabilityPieceBreakdownRow>> pieceRows,
+      Map<UUID, List<StockUnitRepository.AvailabilityQualityBreakdownRow>> qualityRows) {}
+
   private record PhysicalAggregation(
       StockAvailabilityDtos.Physical physical, List<UnitMismatch> mismatches) {}
 
@@ -3,13 +3,23 @@ package com.fabricmanagement.production.execution.inventory.api.controller;
 import com.fabricmanagement.common.infrastructure.web.ApiResponse;
 import com.fabricmanagement.common.infrastructure.web.PageRequestDto;
 import com.fabricmanagement.common.infrastructure.web.PagedResponse;
+import com.fabricmanagement.production.execution.inventory.app.checkpoint.InventoryBalanceAsOfService;
 import com.fabricmanagement.production.execution.inventory.app.query.InventoryBalanceQueryService;
+import com.fabricmanagement.production.execution.inventory.dto.InventoryBalanceAsOfDto;
 import com.fabricmanagement.production.execution.inventory.dto.InventoryBalanceDto;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +33,7 @@ import org.springframework.web.bind.annotation.*;
 public class InventoryBalanceController {
 
   private final InventoryBalanceQueryService balanceQueryService;
+  private final InventoryBalanceAsOfService balanceAsOfService;
 
   @GetMapping("/batch/{batchId}")
   @PreAuthorize("@auth.can(authentication, 'products', 'read')")
@@ -51,4 +62,38 @@ public class InventoryBalanceController {
     return ResponseEntity.ok(
         ApiResponse.success(balanceQueryService.getByBatchAndLocation(batchId, locationId)));
   }
+
+  /** The batch's balances per location as of a past instant (default: now). */
+  @GetMapping("/batch/{batchId}/as-of")
+  @PreAuthorize("@auth.can(authentication, 'products', 'read')")
+  public ResponseEntity<ApiResponse<List<InventoryBalanceAsOfDto>>> getByBatchAsOf(
+      @PathVariable UUID batchId,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant at) {
+    return ResponseEntity.ok(ApiResponse.success(balanceAsOfService.getBatchAsOf(batchId, at)));
+  }
+
+  /**
+   * Streams every balance of the tenant as of a past instant (default: now) as CSV, straight from
+   * a database cursor to the response.
+   */
+  @GetMapping("/as-of/export")
+  @PreAuthorize("@auth.can(authentication, 'products', 'read')")
+  public void exportAsOf(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          Instant at,
+      HttpServletResponse response)
+      throws IOException {
+    log.debug("Exporting inventory balances as of {}", at);
+
+    response.setContentType("text/csv");
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment()
+            .filename("inventory-balances-as-of.csv")
+            .build()
+            .toString());
+    balanceAsOfService.exportAsOf(at, response.getOutputStream());
+  }
 }
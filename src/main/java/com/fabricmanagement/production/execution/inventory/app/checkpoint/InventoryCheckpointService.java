@@ -0,0 +1,80 @@
+package com.fabricmanagement.production.execution.inventory.app.checkpoint;
+
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduled job: writes every active tenant's inventory balance checkpoint at the start of the
+ * current UTC day.
+ *
+ * <p>Each checkpoint is the previous one plus the ledger rows in between, so a run reads one day of
+ * transactions; a tenant's first run sums its whole ledger once. Running an hour after midnight
+ * leaves transactions dated before midnight time to commit. Daily checkpoints older than {@code
+ * checkpoint-retention-days} are purged; the first of each month is kept for month-end reporting.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCheckpointService implements ResumableTenantJob {
+
+  private static final String JOB_NAME = "inventory-balance-checkpoint";
+
+  private final TenantFanOutExecutor fanOutExecutor;
+  private final InventoryCheckpointStore checkpointStore;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
+
+  @Value("${application.inventory.checkpoint-retention-days:35}")
+  private int retentionDays;
+
+  /** Runs nightly at 1 AM by default; override with application.inventory.checkpoint-cron */
+  @Scheduled(cron = "${application.inventory.checkpoint-cron:0 0 1 * * ?}")
+  public void checkpointAllTenants() {
+    Instant at = checkpointInstant();
+    fanOutExecutor.run(JOB_NAME, at.toString(), tenant -> checkpointTenant(tenant.id(), at));
+  }
+
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
+
+  @Override
+  public String runKey() {
+    return checkpointInstant().toString();
+  }
+
+  @Override
+  public void resume() {
+    checkpointAllTenants();
+  }
+
+  /** Writes (or rewrites) the tenant's checkpoint at the instant and purges expired ones. */
+  public int checkpointTenant(UUID tenantId, Instant at) {
+    Integer written =
+        transactionTemplate.execute(
+            status -> {
+              int rows = checkpointStore.writeCheckpoint(tenantId, at);
+              checkpointStore.deleteBefore(tenantId, at.minus(Duration.ofDays(retentionDays)));
+              return rows;
+            });
+    log.info(
+        "Inventory checkpoint written: tenantId={}, at={}, balances={}", tenantId, at, written);
+    return written != null ? written : 0;
+  }
+
+  private Instant checkpointInstant() {
+    return clock.instant().truncatedTo(ChronoUnit.DAYS);
+  }
+}
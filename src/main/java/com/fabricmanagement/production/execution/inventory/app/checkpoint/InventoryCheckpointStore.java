@@ -0,0 +1,237 @@
+package com.fabricmanagement.production.execution.inventory.app.checkpoint;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL access to {@code production.inventory_balance_checkpoint} and the inventory transaction
+ * ledger it summarizes.
+ *
+ * <p>A balance as of an instant is the tenant's latest checkpoint at or before it plus the bucket
+ * deltas of the ledger rows after the checkpoint, up to and including the instant. The deltas use
+ * the same mapping from transaction type to quantity bucket as the live balance updater, so a
+ * balance as of now equals the current balance row.
+ */
+@Component
+public class InventoryCheckpointStore {
+
+  /** The base when a tenant has no checkpoint yet: the ledger is summed from its start. */
+  static final Instant NO_CHECKPOINT = Instant.EPOCH;
+
+  /**
+   * {@code %1$s} / {@code %2$s}: extra filters on the checkpoint ({@code c}) and ledger ({@code
+   * t}) rows. Parameters: tenantId, since, asOf.
+   */
+  private static final String AS_OF =
+      """
+      SELECT x.batch_id, x.location_id, MIN(x.unit) AS unit,
+             SUM(x.quantity) AS quantity,
+             SUM(x.reserved_quantity) AS reserved_quantity,
+             SUM(x.consumed_quantity) AS consumed_quantity,
+             SUM(x.waste_quantity) AS waste_quantity
+      FROM (
+          SELECT c.batch_id, c.location_id, c.unit, c.quantity, c.reserved_quantity,
+                 c.consumed_quantity, c.waste_quantity
+          FROM production.inventory_balance_checkpoint c
+          WHERE c.tenant_id = :tenantId
+            AND c.checkpoint_at = :since
+            %1$s
+          UNION ALL
+          SELECT t.batch_id, t.location_id, t.unit,
+                 CASE
+                     WHEN t.transaction_type IN ('RECEIPT', 'SPLIT_IN', 'TRANSFER_IN', 'RETURN',
+                                                 'SHIPMENT_RETURN', 'ADJUSTMENT')
+                         THEN t.quantity
+                     WHEN t.transaction_type IN ('CONSUMPTION', 'WASTE', 'SPLIT_OUT',
+                                                 'TRANSFER_OUT', 'SAMPLE', 'SHIPMENT_DISPATCH')
+                         THEN -t.quantity
+                     ELSE 0
+                 END,
+                 CASE t.transaction_type
+                     WHEN 'RESERVATION' THEN t.quantity
+                     WHEN 'RESERVATION_RELEASE' THEN -t.quantity
+                     ELSE 0
+                 END,
+                 CASE WHEN t.transaction_type = 'CONSUMPTION' THEN t.quantity ELSE 0 END,
+                 CASE WHEN t.transaction_type = 'WASTE' THEN t.quantity ELSE 0 END
+          FROM production.production_execution_inventory_transaction t
+          WHERE t.tenant_id = :tenantId
+            AND t.transaction_date > :since
+            AND t.transaction_date <= :asOf
+            %2$s
+      ) x
+      GROUP BY x.batch_id, x.location_id
+      """;
+
+  /** {@link #AS_OF} with the batch code and product of each balance. */
+  private static final String BALANCES_AS_OF =
+      """
+      SELECT a.batch_id, b.batch_code, b.product_id, a.location_id, a.unit, a.quantity,
+             a.reserved_quantity, a.consumed_quantity, a.waste_quantity
+      FROM (%s) a
+      JOIN production.production_execution_batch b ON b.id = a.batch_id
+      """;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /** The latest checkpoint at or before the instant, or {@link #NO_CHECKPOINT}. */
+  public Instant findBase(UUID tenantId, Instant asOf) {
+    return latestCheckpoint(tenantId, asOf, "<=");
+  }
+
+  /** The balances of one batch as of the instant, one per location, including all-zero ones. */
+  @SuppressWarnings("unchecked")
+  public List<Row> findBatchAsOf(UUID tenantId, UUID batchId, Instant since, Instant asOf) {
+    List<Object[]> rows =
+        asOfQuery(
+                BALANCES_AS_OF.formatted(
+                        AS_OF.formatted("AND c.batch_id = :batchId", "AND t.batch_id = :batchId"))
+                    + " ORDER BY a.location_id NULLS FIRST",
+                tenantId,
+                since,
+                asOf)
+            .setParameter("batchId", batchId)
+            .getResultList();
+    return rows.stream().map(InventoryCheckpointStore::toRow).toList();
+  }
+
+  /**
+   * Streams every balance of the tenant as of the instant through a server-side cursor, ordered
+   * by batch and location. Must be consumed inside a read-only transaction and closed.
+   */
+  @SuppressWarnings("unchecked")
+  public Stream<Row> streamAsOf(UUID tenantId, Instant since, Instant asOf) {
+    Stream<Object[]> rows =
+        asOfQuery(
+                BALANCES_AS_OF.formatted(AS_OF.formatted("", ""))
+                    + " ORDER BY a.batch_id, a.location_id NULLS FIRST",
+                tenantId,
+                since,
+                asOf)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    return rows.map(InventoryCheckpointStore::toRow);
+  }
+
+  /**
+   * Writes the tenant's checkpoint at {@code at} from its previous checkpoint and the ledger in
+   * between, replacing any checkpoint already written at that instant. All-zero balances are left
+   * out.
+   *
+   * @return the number of balances written
+   */
+  public int writeCheckpoint(UUID tenantId, Instant at) {
+    Instant since = latestCheckpoint(tenantId, at, "<");
+    entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM production.inventory_balance_checkpoint
+            WHERE tenant_id = :tenantId
+              AND checkpoint_at = :at
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("at", at)
+        .executeUpdate();
+    return asOfQuery(
+            """
+            INSERT INTO production.inventory_balance_checkpoint (
+                tenant_id, checkpoint_at, batch_id, location_id, unit, quantity,
+                reserved_quantity, consumed_quantity, waste_quantity)
+            SELECT CAST(:tenantId AS uuid), CAST(:asOf AS timestamptz), a.batch_id,
+                   a.location_id, a.unit, a.quantity, a.reserved_quantity, a.consumed_quantity,
+                   a.waste_quantity
+            FROM (%s) a
+            WHERE a.quantity <> 0
+               OR a.reserved_quantity <> 0
+               OR a.consumed_quantity <> 0
+               OR a.waste_quantity <> 0
+            """
+                .formatted(AS_OF.formatted("", "")),
+            tenantId,
+            since,
+            at)
+        .executeUpdate();
+  }
+
+  /**
+   * Removes checkpoints before the cutoff except the first of each month (UTC), which are kept
+   * for month-end reporting.
+   *
+   * @return the number of rows removed
+   */
+  public int deleteBefore(UUID tenantId, Instant cutoff) {
+    return entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM production.inventory_balance_checkpoint
+            WHERE tenant_id = :tenantId
+              AND checkpoint_at < :cutoff
+              AND checkpoint_at <> date_trunc('month', checkpoint_at AT TIME ZONE 'UTC')
+                                       AT TIME ZONE 'UTC'
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("cutoff", cutoff)
+        .executeUpdate();
+  }
+
+  private Instant latestCheckpoint(UUID tenantId, Instant asOf, String comparison) {
+    Object latest =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT MAX(checkpoint_at)
+                FROM production.inventory_balance_checkpoint
+                WHERE tenant_id = :tenantId
+                  AND checkpoint_at %s :asOf
+                """
+                    .formatted(comparison))
+            .setParameter("tenantId", tenantId)
+            .setParameter("asOf", asOf)
+            .getSingleResult();
+    return Optional.ofNullable(NativeSqlSupport.toInstant(latest)).orElse(NO_CHECKPOINT);
+  }
+
+  private Query asOfQuery(String sql, UUID tenantId, Instant since, Instant asOf) {
+    return entityManager
+        .createNativeQuery(sql)
+        .setParameter("tenantId", tenantId)
+        .setParameter("since", since)
+        .setParameter("asOf", asOf);
+  }
+
+  private static Row toRow(Object[] r) {
+    return new Row(
+        (UUID) r[0],
+        (String) r[1],
+        (UUID) r[2],
+        (UUID) r[3],
+        (String) r[4],
+        (BigDecimal) r[5],
+        (BigDecimal) r[6],
+        (BigDecimal) r[7],
+        (BigDecimal) r[8]);
+  }
+
+  /** A balance as of an instant; the buckets match {@code InventoryBalance}. */
+  public record Row(
+      UUID batchId,
+      String batchCode,
+      UUID productId,
+      UUID locationId,
+      String unit,
+      BigDecimal quantity,
+      BigDecimal reservedQuantity,
+      BigDecimal consumedQuantity,
+      BigDecimal wasteQuantity) {}
+}
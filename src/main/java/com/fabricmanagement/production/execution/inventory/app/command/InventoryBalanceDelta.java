@@ -0,0 +1,125 @@
+package com.fabricmanagement.production.execution.inventory.app.command;
+
+import com.fabricmanagement.production.execution.inventory.domain.event.InventoryTransactionCreatedEvent;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * The net change of one balance row — (tenant, batch, location) — over the transactions of one
+ * database transaction, per quantity bucket. Each transaction type moves the same buckets in the
+ * same direction as the former per-event read-modify-write did; the last event supplies the
+ * last-transaction stamp and the first one the unit of a new row.
+ */
+@Getter
+final class InventoryBalanceDelta {
+
+  /** PostgreSQL's uuid order: the 16 bytes compared unsigned. */
+  private static final Comparator<UUID> POSTGRES_UUID_ORDER =
+      Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+          .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+  private static final Comparator<UUID> LOCATION_ORDER =
+      Comparator.nullsFirst(POSTGRES_UUID_ORDER);
+
+  /**
+   * The order in which balance rows are written, and so locked: by batch, then by location with
+   * the unlocated row first. Two transactions touching the same rows lock them in the same order
+   * instead of deadlocking on each other.
+   */
+  static final Comparator<InventoryBalanceDelta> LOCK_ORDER =
+      Comparator.comparing(InventoryBalanceDelta::getBatchId, POSTGRES_UUID_ORDER)
+          .thenComparing(InventoryBalanceDelta::getLocationId, LOCATION_ORDER);
+
+  private final UUID tenantId;
+  private final UUID batchId;
+  private final UUID locationId;
+  private final String unit;
+  private BigDecimal quantity = BigDecimal.ZERO;
+  private BigDecimal reservedQuantity = BigDecimal.ZERO;
+  private BigDecimal consumedQuantity = BigDecimal.ZERO;
+  private BigDecimal wasteQuantity = BigDecimal.ZERO;
+  private UUID lastTransactionId;
+  private Instant lastTransactionDate;
+
+  InventoryBalanceDelta(UUID tenantId, UUID batchId, UUID locationId, String unit) {
+    this.tenantId = tenantId;
+    this.batchId = batchId;
+    this.locationId = locationId;
+    this.unit = unit;
+  }
+
+  static Key keyOf(InventoryTransactionCreatedEvent event) {
+    return new Key(event.getTenantId(), event.getBatchId(), event.getLocationId());
+  }
+
+  void add(InventoryTransactionCreatedEvent event) {
+    BigDecimal qty = event.getQuantity();
+    switch (event.getTransactionType()) {
+      case RECEIPT:
+      case SPLIT_IN:
+      case TRANSFER_IN:
+      case RETURN:
+      case SHIPMENT_RETURN:
+        quantity = quantity.add(qty);
+        break;
+
+      case CONSUMPTION:
+        quantity = quantity.subtract(qty);
+        consumedQuantity = consumedQuantity.add(qty);
+        break;
+
+      case WASTE:
+        quantity = quantity.subtract(qty);
+        wasteQuantity = wasteQuantity.add(qty);
+        break;
+
+      case SPLIT_OUT:
+      case TRANSFER_OUT:
+      case SAMPLE:
+      case SHIPMENT_DISPATCH:
+        quantity = quantity.subtract(qty);
+        break;
+
+      case RESERVATION:
+        reservedQuantity = reservedQuantity.add(qty);
+        break;
+
+      case RESERVATION_RELEASE:
+        reservedQuantity = reservedQuantity.subtract(qty);
+        break;
+
+      case ADJUSTMENT:
+        quantity = quantity.add(qty);
+        break;
+
+      case QUALITY_TEST:
+        break;
+
+      default:
+        break;
+    }
+
+    lastTransactionId = event.getTransactionId();
+    lastTransactionDate = event.getTransactionDate();
+  }
+
+  /**
+   * Balance rows are unique per key; a null location is a key of its own. Keys sort by tenant,
+   * then in {@link #LOCK_ORDER}.
+   */
+  record Key(UUID tenantId, UUID batchId, UUID locationId) implements Comparable<Key> {
+
+    private static final Comparator<Key> ORDER =
+        Comparator.comparing(Key::tenantId, POSTGRES_UUID_ORDER)
+            .thenComparing(Key::batchId, POSTGRES_UUID_ORDER)
+            .thenComparing(Key::locationId, LOCATION_ORDER);
+
+    @Override
+    public int compareTo(Key other) {
+      return ORDER.compare(this, other);
+    }
+  }
+}
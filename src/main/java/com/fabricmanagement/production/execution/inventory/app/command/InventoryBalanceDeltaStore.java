@@ -0,0 +1,99 @@
+package com.fabricmanagement.production.execution.inventory.app.command;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.user.domain.SystemUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL writes to {@code production.production_execution_inventory_balance}.
+ *
+ * <p>Coalesced deltas are applied in one {@code INSERT … ON CONFLICT DO UPDATE} that adds each
+ * bucket's delta to the stored value, so a balance row is never read into Java and concurrent
+ * writers to a hot batch serialize on the row lock instead of failing their optimistic check. It
+ * runs in the transaction of the inventory transactions it reflects ({@link NativeSqlSupport}).
+ */
+@Component
+@RequiredArgsConstructor
+class InventoryBalanceDeltaStore {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final NativeSqlSupport nativeSql;
+
+  /**
+   * Applies the deltas of one tenant; each (batch, location) must appear at most once. Rows are
+   * written in {@link InventoryBalanceDelta#LOCK_ORDER} whatever the order of {@code deltas}.
+   */
+  void apply(UUID tenantId, Collection<InventoryBalanceDelta> deltas) {
+    if (deltas.isEmpty()) {
+      return;
+    }
+    String tenantUid = TenantContext.getCurrentTenantUid();
+    UUID actorId = TenantContext.getCurrentUserId();
+
+    List<Map<String, Object>> records =
+        deltas.stream()
+            .sorted(InventoryBalanceDelta.LOCK_ORDER)
+            .map(
+                delta -> {
+                  Map<String, Object> record = new LinkedHashMap<>();
+                  record.put("batch_id", delta.getBatchId());
+                  record.put("location_id", delta.getLocationId());
+                  record.put("unit", delta.getUnit());
+                  record.put("quantity", delta.getQuantity());
+                  record.put("reserved_quantity", delta.getReservedQuantity());
+                  record.put("consumed_quantity", delta.getConsumedQuantity());
+                  record.put("waste_quantity", delta.getWasteQuantity());
+                  record.put("last_transaction_id", delta.getLastTransactionId());
+                  record.put("last_transaction_date", delta.getLastTransactionDate());
+                  return record;
+                })
+            .toList();
+
+    entityManager
+        .createNativeQuery(
+            """
+            INSERT INTO production.production_execution_inventory_balance AS ib (
+                id, tenant_id, uid, batch_id, location_id, quantity, reserved_quantity,
+                consumed_quantity, waste_quantity, unit, last_transaction_id,
+                last_transaction_date, is_active, created_at, created_by, updated_at, updated_by,
+                version)
+            SELECT gen_random_uuid(), CAST(:tenantId AS uuid),
+                   :tenantUid || '-IWM-BAL-'
+                       || upper(substr(replace(CAST(gen_random_uuid() AS text), '-', ''), 1, 8)),
+                   r.batch_id, r.location_id, r.quantity, r.reserved_quantity,
+                   r.consumed_quantity, r.waste_quantity, r.unit, r.last_transaction_id,
+                   r.last_transaction_date, TRUE, now(), CAST(:actorId AS uuid), now(),
+                   CAST(:actorId AS uuid), 0
+            FROM jsonb_to_recordset(CAST(:rows AS jsonb)) AS r(
+                batch_id uuid, location_id uuid, unit varchar, quantity numeric,
+                reserved_quantity numeric, consumed_quantity numeric, waste_quantity numeric,
+                last_transaction_id uuid, last_transaction_date timestamptz)
+            ORDER BY r.batch_id, r.location_id NULLS FIRST
+            ON CONFLICT (tenant_id, batch_id, location_id) DO UPDATE
+            SET quantity = ib.quantity + EXCLUDED.quantity,
+                reserved_quantity = ib.reserved_quantity + EXCLUDED.reserved_quantity,
+                consumed_quantity = ib.consumed_quantity + EXCLUDED.consumed_quantity,
+                waste_quantity = ib.waste_quantity + EXCLUDED.waste_quantity,
+                last_transaction_id = EXCLUDED.last_transaction_id,
+                last_transaction_date = EXCLUDED.last_transaction_date,
+                updated_at = EXCLUDED.updated_at,
+                updated_by = EXCLUDED.updated_by,
+                version = ib.version + 1
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("tenantUid", tenantUid != null ? tenantUid : "SYS-000")
+        .setParameter("actorId", actorId != null ? actorId : SystemUser.ID)
+        .setParameter("rows", nativeSql.jsonRows(records, "inventory balance deltas"))
+        .executeUpdate();
+  }
+}
@@ -1,23 +1,46 @@
 package com.fabricmanagement.production.execution.inventory.app.command;
 
-import com.fabricmanagement.production.execution.inventory.domain.InventoryBalance;
 import com.fabricmanagement.production.execution.inventory.domain.event.InventoryTransactionCreatedEvent;
-import com.fabricmanagement.production.execution.inventory.infra.repository.InventoryBalanceRepository;
-import java.util.Optional;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps inventory balances in step with inventory transactions.
+ *
+ * <p>Each {@link InventoryTransactionCreatedEvent} is folded into a per-transaction delta for its
+ * (batch, location) balance; just before commit the deltas are applied with one upsert, so a bulk
+ * goods receipt or transfer of hundreds of lines costs one statement instead of a read, a save and
+ * an optimistic version check per line. As before, balances change only when the writing
+ * transaction commits, and a rollback discards both.
+ *
+ * <p>Like the {@code @TransactionalEventListener(BEFORE_COMMIT)} this replaces, an event published
+ * without an active transaction is skipped. It is a plain {@code @EventListener} so the deltas are
+ * folded as the events arrive; an event published after the before-commit apply has already run
+ * (e.g. from another {@code BEFORE_COMMIT} listener) is applied immediately in that transaction,
+ * where the former listener would have dropped it.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class InventoryBalanceUpdater {
 
-  private final InventoryBalanceRepository inventoryBalanceRepository;
+  private final InventoryBalanceDeltaStore deltaStore;
+
+  @PersistenceContext private EntityManager entityManager;
 
-  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  @EventListener
   public void onTransactionCreated(InventoryTransactionCreatedEvent event) {
     log.debug(
         "Updating inventory balance for batchId={}, locationId={}, type={}",
@@ -25,69 +48,73 @@ public class InventoryBalanceUpdater {
         event.getLocationId(),
         event.getTransactionType());
 
-    Optional<InventoryBalance> balanceOpt =
-        event.getLocationId() == null
-            ? inventoryBalanceRepository.findByBatchIdAndLocationIdIsNull(event.getBatchId())
-            : inventoryBalanceRepository.findByBatchIdAndLocationId(
-                event.getBatchId(), event.getLocationId());
-
-    InventoryBalance balance =
-        balanceOpt.orElseGet(
-            () ->
-                InventoryBalance.create(
-                    event.getTenantId(),
-                    event.getBatchId(),
-                    event.getLocationId(),
-                    event.getUnit()));
-
-    switch (event.getTransactionType()) {
-      case RECEIPT:
-      case SPLIT_IN:
-      case TRANSFER_IN:
-      case RETURN:
-      case SHIPMENT_RETURN:
-        balance.setQuantity(balance.getQuantity().add(event.getQuantity()));
-        break;
-
-      case CONSUMPTION:
-        balance.setQuantity(balance.getQuantity().subtract(event.getQuantity()));
-        balance.setConsumedQuantity(balance.getConsumedQuantity().add(event.getQuantity()));
-        break;
-
-      case WASTE:
-        balance.setQuantity(balance.getQuantity().subtract(event.getQuantity()));
-        balance.setWasteQuantity(balance.getWasteQuantity().add(event.getQuantity()));
-        break;
-
-      case SPLIT_OUT:
-      case TRANSFER_OUT:
-      case SAMPLE:
-      case SHIPMENT_DISPATCH:
-        balance.setQuantity(balance.getQuantity().subtract(event.getQuantity()));
-        break;
-
-      case RESERVATION:
-        balance.setReservedQuantity(balance.getReservedQuantity().add(event.getQuantity()));
-        break;
-
-      case RESERVATION_RELEASE:
-        balance.setReservedQuantity(balance.getReservedQuantity().subtract(event.getQuantity()));
-        break;
-
-      case ADJUSTMENT:
-        balance.setQuantity(balance.getQuantity().add(event.getQuantity()));
-        break;
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      log.debug(
+          "No active transaction, skipping inventory balance update for transactionId={}",
+          event.getTransactionId());
+      return;
+    }
+    ApplyOnCommit pending = currentApply();
+    if (pending.applied) {
+      entityManager.flush();
+      applyNow(event);
+      return;
+    }
+    pending
+        .deltas
+        .computeIfAbsent(
+            InventoryBalanceDelta.keyOf(event),
+            key ->
+                new InventoryBalanceDelta(
+                    key.tenantId(), key.batchId(), key.locationId(), event.getUnit()))
+        .add(event);
+  }
 
-      case QUALITY_TEST:
-        break;
+  private void applyNow(InventoryTransactionCreatedEvent event) {
+    InventoryBalanceDelta delta =
+        new InventoryBalanceDelta(
+            event.getTenantId(), event.getBatchId(), event.getLocationId(), event.getUnit());
+    delta.add(event);
+    deltaStore.apply(event.getTenantId(), List.of(delta));
+  }
 
-      default:
-        break;
+  /**
+   * Returns the apply registered on the current transaction. Looked up among the transaction's own
+   * synchronizations so that a {@code REQUIRES_NEW} transaction never folds its deltas into the
+   * suspended outer one.
+   */
+  private ApplyOnCommit currentApply() {
+    for (TransactionSynchronization synchronization :
+        TransactionSynchronizationManager.getSynchronizations()) {
+      if (synchronization instanceof ApplyOnCommit apply) {
+        return apply;
+      }
     }
+    ApplyOnCommit apply = new ApplyOnCommit();
+    TransactionSynchronizationManager.registerSynchronization(apply);
+    return apply;
+  }
 
-    balance.setLastTransactionId(event.getTransactionId());
-    balance.setLastTransactionDate(event.getTransactionDate());
-
-    inventoryBalanceRepository.save(balance);
+  private final class ApplyOnCommit implements TransactionSynchronization {
+
+    /**
+     * Sorted by tenant and then in {@link InventoryBalanceDelta#LOCK_ORDER}, so every transaction
+     * locks the balance rows it shares with another in the same order.
+     */
+    private final Map<InventoryBalanceDelta.Key, InventoryBalanceDelta> deltas = new TreeMap<>();
+
+    private boolean applied;
+
+    @Override
+    public void beforeCommit(boolean readOnly) {
+      entityManager.flush();
+      Map<UUID, List<InventoryBalanceDelta>> byTenant = new LinkedHashMap<>();
+      deltas.values().forEach(
+          delta ->
+              byTenant.computeIfAbsent(delta.getTenantId(), t -> new ArrayList<>()).add(delta));
+      byTenant.forEach(deltaStore::apply);
+      log.debug("Applied {} inventory balance deltas", deltas.size());
+      applied = true;
+    }
   }
 }
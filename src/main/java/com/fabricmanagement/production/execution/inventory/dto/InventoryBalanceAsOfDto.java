@@ -0,0 +1,50 @@
+package com.fabricmanagement.production.execution.inventory.dto;
+
+import com.fabricmanagement.production.execution.inventory.app.checkpoint.InventoryCheckpointStore;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A (batch, location) balance as of a past instant, derived from the transaction ledger. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBalanceAsOfDto {
+
+  private Instant asOf;
+
+  /** The checkpoint the balance was computed from; null when none preceded {@code asOf}. */
+  private Instant checkpointAt;
+
+  private UUID batchId;
+  private String batchCode;
+  private UUID productId;
+  private UUID locationId;
+  private String unit;
+  private BigDecimal quantity;
+  private BigDecimal reservedQuantity;
+  private BigDecimal consumedQuantity;
+  private BigDecimal wasteQuantity;
+
+  public static InventoryBalanceAsOfDto from(
+      InventoryCheckpointStore.Row row, Instant asOf, Instant checkpointAt) {
+    return InventoryBalanceAsOfDto.builder()
+        .asOf(asOf)
+        .checkpointAt(checkpointAt)
+        .batchId(row.batchId())
+        .batchCode(row.batchCode())
+        .productId(row.productId())
+        .locationId(row.locationId())
+        .unit(row.unit())
+        .quantity(row.quantity())
+        .reservedQuantity(row.reservedQuantity())
+        .consumedQuantity(row.consumedQuantity())
+        .wasteQuantity(row.wasteQuantity())
+        .build();
+  }
+}
@@ -8,12 +8,14 @@ import com.fabricmanagement.production.execution.stockunit.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -89,6 +91,20 @@ public class StockUnitController {
     return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(page)));
   }
 
+  @GetMapping("/reconciliation-discrepancies")
+  @PreAuthorize("@auth.can(authentication, 'products', 'read')")
+  @Operation(
+      summary = "Browse the nightly StockUnit reconciliation report (latest run by default)")
+  public ResponseEntity<ApiResponse<PagedResponse<StockUnitReconciliationDiscrepancyDto>>>
+      findReconciliationDiscrepancies(
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+              LocalDate runDate,
+          Pageable pageable) {
+    Page<StockUnitReconciliationDiscrepancyDto> page =
+        stockUnitQueryService.findReconciliationDiscrepancies(runDate, pageable);
+    return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(page)));
+  }
+
   // ── Consumption ───────────────────────────────────────────────────────────
 
   @PostMapping("/{id}/consume")
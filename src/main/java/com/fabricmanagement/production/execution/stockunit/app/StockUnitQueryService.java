@@ -4,12 +4,15 @@ import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.web.exception.NotFoundException;
 import com.fabricmanagement.production.execution.stockunit.domain.StockUnitStatus;
 import com.fabricmanagement.production.execution.stockunit.dto.StockUnitDto;
+import com.fabricmanagement.production.execution.stockunit.dto.StockUnitReconciliationDiscrepancyDto;
 import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,6 +25,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class StockUnitQueryService {
 
   private final StockUnitRepository stockUnitRepository;
+  private final StockUnitReconciliationStore reconciliationStore;
 
   /**
    * Look up a stock unit by its unique barcode within the tenant.
@@ -56,4 +60,39 @@ public class StockUnitQueryService {
         .findByTenantIdAndLocationId(tenantId, locationId, pageable)
         .map(StockUnitDto::from);
   }
+
+  /**
+   * Browses the discrepancies of one nightly reconciliation run, largest difference first. Without
+   * a run date the latest run that reported anything is shown.
+   */
+  public Page<StockUnitReconciliationDiscrepancyDto> findReconciliationDiscrepancies(
+      LocalDate runDate, Pageable pageable) {
+    UUID tenantId = TenantContext.requireTenantId();
+    LocalDate day =
+        runDate != null ? runDate : reconciliationStore.findLatestRunDate(tenantId).orElse(null);
+    if (day == null) {
+      return Page.empty(pageable);
+    }
+    long total = reconciliationStore.countDiscrepancies(tenantId, day);
+    if (total == 0) {
+      return Page.empty(pageable);
+    }
+    List<StockUnitReconciliationDiscrepancyDto> content =
+        reconciliationStore
+            .findDiscrepancies(tenantId, day, (int) pageable.getOffset(), pageable.getPageSize())
+            .stream()
+            .map(
+                row ->
+                    new StockUnitReconciliationDiscrepancyDto(
+                        day,
+                        row.batchId(),
+                        row.batchCode(),
+                        row.nominalRemaining(),
+                        row.physicalSum(),
+                        row.difference(),
+                        row.autoFixed(),
+                        row.detectedAt()))
+            .toList();
+    return new PageImpl<>(content, pageable, total);
+  }
 }
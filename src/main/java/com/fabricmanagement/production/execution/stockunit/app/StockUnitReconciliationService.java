@@ -1,22 +1,26 @@
 package com.fabricmanagement.production.execution.stockunit.app;
 
-import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
-import com.fabricmanagement.common.infrastructure.tenant.TenantQueryPort;
-import com.fabricmanagement.common.infrastructure.tenant.TenantReference;
+import com.fabricmanagement.common.infrastructure.tenant.ResumableTenantJob;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
 import com.fabricmanagement.production.execution.batch.app.BatchPrimaryMeasureService;
-import com.fabricmanagement.production.execution.batch.domain.Batch;
 import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
 import com.fabricmanagement.production.execution.batch.domain.PrimaryMeasure;
-import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
-import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
+import com.fabricmanagement.production.execution.stockunit.app.StockUnitReconciliationStore.BatchBalance;
+import com.fabricmanagement.production.masterdata.product.domain.ProductType;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Passive mode reconciliation cron job.
@@ -32,107 +36,110 @@ import org.springframework.stereotype.Service;
  * — reserved weight is still physically present and must be counted on both sides. Length-based and
  * unsupported primary measures are skipped because {@code currentWeight} is always a weight-axis
  * value.
+ *
+ * <p>Set-based: both sides are computed for a chunk of batches in one grouped query (see {@link
+ * StockUnitReconciliationStore}), each chunk's discrepancies are written to the reconciliation
+ * report in one statement and its own transaction, and auto-fixes are applied to the whole run in
+ * one update at the end. Each run replaces the tenant's report rows of the day.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class StockUnitReconciliationService {
+public class StockUnitReconciliationService implements ResumableTenantJob {
+
+  private static final String JOB_NAME = "stockunit-reconciliation";
 
-  private final TenantQueryPort tenantQueryPort;
-  private final BatchRepository batchRepository;
-  private final StockUnitRepository stockUnitRepository;
+  private static final List<BatchStatus> RECONCILED_STATUSES =
+      List.of(BatchStatus.AVAILABLE, BatchStatus.RESERVED, BatchStatus.IN_PROGRESS);
+
+  private final TenantFanOutExecutor fanOutExecutor;
+  private final StockUnitReconciliationStore reconciliationStore;
   private final BatchPrimaryMeasureService primaryMeasureService;
+  private final TransactionTemplate transactionTemplate;
+  private final Clock clock;
 
   @Value("${application.stockunit.reconciliation-auto-fix:false}")
   private boolean autoFix;
 
+  @Value("${application.stockunit.reconciliation-chunk-size:1000}")
+  private int chunkSize;
+
+  @Value("${application.stockunit.reconciliation-report-retention-days:90}")
+  private int reportRetentionDays;
+
   /** Run every night at 3 AM. */
   @Scheduled(cron = "${application.stockunit.reconciliation-cron:0 0 3 * * ?}")
   public void reconcileAllTenants() {
-    List<TenantReference> tenants = tenantQueryPort.findAllActiveTenants();
-
-    for (TenantReference tenant : tenants) {
-      UUID tenantId = tenant.id();
-      try {
-        TenantContext.executeInTenantContext(
-            tenantId,
-            () -> {
-              reconcileTenantBatches(tenantId);
-              return null;
-            });
-      } catch (Exception e) {
-        log.error("Failed to reconcile StockUnits for tenant {}: {}", tenantId, e.getMessage(), e);
-      }
-    }
+    fanOutExecutor.run(JOB_NAME, runKey(), tenant -> reconcileTenantBatches(tenant.id()));
   }
 
-  private void reconcileTenantBatches(UUID tenantId) {
-    // Reconcile batches that are in progress or available
-    List<Batch> activeBatches =
-        batchRepository.findByTenantIdAndStatusIn(
-            tenantId,
-            List.of(BatchStatus.AVAILABLE, BatchStatus.RESERVED, BatchStatus.IN_PROGRESS));
-
-    if (activeBatches == null || activeBatches.isEmpty()) {
-      return;
-    }
+  @Override
+  public String jobName() {
+    return JOB_NAME;
+  }
+
+  @Override
+  public String runKey() {
+    return LocalDate.now(clock).toString();
+  }
+
+  @Override
+  public void resume() {
+    reconcileAllTenants();
+  }
 
+  private void reconcileTenantBatches(UUID tenantId) {
+    LocalDate runDate = LocalDate.now(clock);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          reconciliationStore.deleteRun(tenantId, runDate);
+          reconciliationStore.deleteRunsBefore(tenantId, runDate.minusDays(reportRetentionDays));
+        });
+
+    Map<ProductType, Boolean> weightBased = new EnumMap<>(ProductType.class);
     int discrepancyCount = 0;
     int measureSkipCount = 0;
+    UUID cursor = StockUnitReconciliationStore.FIRST_BATCH;
 
-    for (Batch batch : activeBatches) {
-      if (!isWeightBased(batch)) {
-        measureSkipCount++;
-        continue;
-      }
-
-      BigDecimal physicalSum =
-          stockUnitRepository.sumCurrentWeightByBatchId(
-              tenantId,
-              batch.getId(),
-              com.fabricmanagement.production.execution.stockunit.domain.StockUnitStatus.DISPOSED);
-      if (physicalSum == null) {
-        physicalSum = BigDecimal.ZERO;
+    while (true) {
+      List<BatchBalance> chunk =
+          reconciliationStore.findBalances(tenantId, RECONCILED_STATUSES, cursor, chunkSize);
+      if (chunk.isEmpty()) {
+        break;
       }
 
-      // C3: Correct comparison:
-      //   Batch side:        quantity - consumedQuantity  (physical stock not yet written off)
-      //   StockUnit side:    SUM(currentWeight) excluding DISPOSED  (same concept)
-      // Note: getAvailableQuantity() also subtracts reservedQuantity, which would create a
-      // systematic false-positive for every batch with active reservations.
-      BigDecimal nominalRemaining = batch.getQuantity().subtract(batch.getConsumedQuantity());
-
-      // If the difference is non-zero, log it. In a real scenario we might have an acceptable
-      // tolerance.
-      if (physicalSum.compareTo(nominalRemaining) != 0) {
-        log.warn(
-            "Reconciliation discrepancy found! Tenant: {}, Batch: {}, NominalRemaining: {}, PhysicalSum: {}",
-            tenantId,
-            batch.getBatchCode(),
-            nominalRemaining,
-            physicalSum);
-
-        if (autoFix) {
-          BigDecimal correctedConsumed = batch.getQuantity().subtract(physicalSum);
-          if (correctedConsumed.compareTo(BigDecimal.ZERO) < 0) {
-            log.warn(
-                "Cannot auto-fix Batch {}: corrected consumed would be negative ({})",
-                batch.getBatchCode(),
-                correctedConsumed);
-          } else {
-            BigDecimal oldConsumed = batch.getConsumedQuantity();
-            batch.setConsumedQuantity(correctedConsumed);
-            batchRepository.save(batch);
-            log.info(
-                "Auto-fixed Batch {}: updated consumedQuantity from {} to {}",
-                batch.getBatchCode(),
-                oldConsumed,
-                correctedConsumed);
-          }
+      List<BatchBalance> discrepancies = new ArrayList<>();
+      for (BatchBalance balance : chunk) {
+        if (!weightBased.computeIfAbsent(balance.productType(), type -> isWeightBased(balance))) {
+          measureSkipCount++;
+          continue;
+        }
+        if (balance.physicalSum().compareTo(balance.nominalRemaining()) != 0) {
+          logDiscrepancy(tenantId, balance);
+          discrepancies.add(balance);
         }
+      }
+      if (!discrepancies.isEmpty()) {
+        transactionTemplate.executeWithoutResult(
+            status -> reconciliationStore.insertDiscrepancies(tenantId, runDate, discrepancies));
+        discrepancyCount += discrepancies.size();
+      }
 
-        discrepancyCount++;
+      if (chunk.size() < chunkSize) {
+        break;
       }
+      cursor = chunk.getLast().batchId();
+    }
+
+    if (autoFix && discrepancyCount > 0) {
+      Integer fixed =
+          transactionTemplate.execute(
+              status -> reconciliationStore.applyAutoFixes(tenantId, runDate));
+      log.info(
+          "Auto-fixed {} of {} discrepant batches for tenant {}",
+          fixed,
+          discrepancyCount,
+          tenantId);
     }
 
     if (discrepancyCount > 0) {
@@ -151,22 +158,38 @@ public class StockUnitReconciliationService {
     }
   }
 
-  private boolean isWeightBased(Batch batch) {
+  private void logDiscrepancy(UUID tenantId, BatchBalance balance) {
+    log.warn(
+        "Reconciliation discrepancy found! Tenant: {}, Batch: {}, NominalRemaining: {}, PhysicalSum: {}",
+        tenantId,
+        balance.batchCode(),
+        balance.nominalRemaining(),
+        balance.physicalSum());
+    if (autoFix && balance.quantity().subtract(balance.physicalSum()).signum() < 0) {
+      log.warn(
+          "Cannot auto-fix Batch {}: corrected consumed would be negative ({})",
+          balance.batchCode(),
+          balance.quantity().subtract(balance.physicalSum()));
+    }
+  }
+
+  /** Decided once per product type and run; the first batch of the type names it in the log. */
+  private boolean isWeightBased(BatchBalance batch) {
     try {
-      PrimaryMeasure primaryMeasure = primaryMeasureService.primaryMeasure(batch.getProductType());
+      PrimaryMeasure primaryMeasure = primaryMeasureService.primaryMeasure(batch.productType());
       if (primaryMeasure == PrimaryMeasure.WEIGHT) {
         return true;
       }
       log.info(
           "Reconciliation skipped (dimension mismatch): batch={}, unit={} vs stock-unit weight KG",
-          batch.getBatchCode(),
-          batch.getUnit());
+          batch.batchCode(),
+          batch.unit());
       return false;
     } catch (IllegalArgumentException exception) {
       log.info(
           "Reconciliation skipped (unsupported primary measure): batch={}, productType={}, reason={}",
-          batch.getBatchCode(),
-          batch.getProductType(),
+          batch.batchCode(),
+          batch.productType(),
           exception.getMessage());
       return false;
     }
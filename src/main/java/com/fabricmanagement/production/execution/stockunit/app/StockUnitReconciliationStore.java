@@ -0,0 +1,299 @@
+package com.fabricmanagement.production.execution.stockunit.app;
+
+import com.fabricmanagement.common.infrastructure.persistence.NativeSqlSupport;
+import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
+import com.fabricmanagement.production.masterdata.product.domain.ProductType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Raw-SQL access for the nightly StockUnit reconciliation and its report table {@code
+ * production.stock_unit_reconciliation_discrepancy}.
+ *
+ * <p>Batches are read in keyset chunks, each chunk joined to its StockUnits and grouped in one
+ * statement, so a tenant with tens of thousands of lots costs one round-trip per chunk instead of
+ * one per batch. Discrepancies are written in one statement per chunk ({@link NativeSqlSupport}),
+ * and auto-fixes are applied to the whole run in one statement.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockUnitReconciliationStore {
+
+  /** Lowest UUID in PostgreSQL's ordering; the keyset cursor before the first chunk. */
+  public static final UUID FIRST_BATCH = new UUID(0L, 0L);
+
+  private static final String REPORT_COLUMNS =
+      "batch_id, batch_code, nominal_remaining, physical_sum, difference, auto_fixed, detected_at";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final NativeSqlSupport nativeSql;
+
+  /**
+   * Reads the next chunk of batches in the given statuses, ordered by ID, with the summed current
+   * weight of their non-disposed active StockUnits.
+   */
+  @SuppressWarnings("unchecked")
+  public List<BatchBalance> findBalances(
+      UUID tenantId, Collection<BatchStatus> statuses, UUID afterBatchId, int limit) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                WITH chunk AS (
+                    SELECT b.id, b.batch_code, b.product_type, b.unit, b.quantity,
+                           b.consumed_quantity
+                    FROM production.production_execution_batch b
+                    WHERE b.tenant_id = :tenantId
+                      AND b.status IN (:statuses)
+                      AND b.id > :afterBatchId
+                    ORDER BY b.id
+                    LIMIT :limit
+                )
+                SELECT c.id, c.batch_code, c.product_type, c.unit, c.quantity,
+                       c.consumed_quantity, COALESCE(SUM(s.current_weight), 0)
+                FROM chunk c
+                LEFT JOIN production.stock_unit s
+                  ON s.tenant_id = :tenantId
+                 AND s.batch_id = c.id
+                 AND s.status <> 'DISPOSED'
+                 AND s.is_active = TRUE
+                GROUP BY c.id, c.batch_code, c.product_type, c.unit, c.quantity,
+                         c.consumed_quantity
+                ORDER BY c.id
+                """)
+            .setParameter("tenantId", tenantId)
+            .setParameter("statuses", statuses.stream().map(BatchStatus::name).toList())
+            .setParameter("afterBatchId", afterBatchId)
+            .setParameter("limit", limit)
+            .getResultList();
+    return rows.stream()
+        .map(
+            r ->
+                new BatchBalance(
+                    (UUID) r[0],
+                    (String) r[1],
+                    ProductType.valueOf((String) r[2]),
+                    (String) r[3],
+                    (BigDecimal) r[4],
+                    (BigDecimal) r[5],
+                    (BigDecimal) r[6]))
+        .toList();
+  }
+
+  /** Removes the report rows of one run, so a re-run of the same day starts clean. */
+  public void deleteRun(UUID tenantId, LocalDate runDate) {
+    entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM production.stock_unit_reconciliation_discrepancy
+            WHERE tenant_id = :tenantId
+              AND run_date = :runDate
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("runDate", runDate)
+        .executeUpdate();
+  }
+
+  /** Removes the report rows of runs before the cutoff; returns the number removed. */
+  public int deleteRunsBefore(UUID tenantId, LocalDate cutoff) {
+    return entityManager
+        .createNativeQuery(
+            """
+            DELETE FROM production.stock_unit_reconciliation_discrepancy
+            WHERE tenant_id = :tenantId
+              AND run_date < :cutoff
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("cutoff", cutoff)
+        .executeUpdate();
+  }
+
+  /** Writes the discrepancies of one chunk in a single statement. */
+  public void insertDiscrepancies(
+      UUID tenantId, LocalDate runDate, List<BatchBalance> discrepancies) {
+    if (discrepancies.isEmpty()) {
+      return;
+    }
+    entityManager
+        .createNativeQuery(
+            """
+            INSERT INTO production.stock_unit_reconciliation_discrepancy (
+                tenant_id, run_date, batch_id, batch_code, nominal_remaining, physical_sum,
+                difference, auto_fixed, detected_at)
+            SELECT CAST(:tenantId AS uuid), CAST(:runDate AS date), r.batch_id, r.batch_code,
+                   r.nominal_remaining, r.physical_sum, r.physical_sum - r.nominal_remaining,
+                   FALSE, now()
+            FROM jsonb_to_recordset(CAST(:rows AS jsonb)) AS r(
+                batch_id uuid, batch_code text, nominal_remaining numeric, physical_sum numeric)
+            ON CONFLICT (tenant_id, run_date, batch_id) DO NOTHING
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("runDate", runDate)
+        .setParameter("rows", toJson(discrepancies))
+        .executeUpdate();
+  }
+
+  /**
+   * Sets {@code consumed_quantity} of every reported batch of the run so its nominal remainder
+   * equals the physical sum, and flags the report rows it fixed. A batch is left alone when the fix
+   * would make consumption negative, or when the batch or its StockUnits changed since the scan.
+   *
+   * @return the number of batches fixed
+   */
+  public int applyAutoFixes(UUID tenantId, LocalDate runDate) {
+    return entityManager
+        .createNativeQuery(
+            """
+            WITH fixed AS (
+                UPDATE production.production_execution_batch b
+                SET consumed_quantity = b.quantity - r.physical_sum,
+                    updated_at = now(),
+                    version = b.version + 1
+                FROM production.stock_unit_reconciliation_discrepancy r
+                WHERE r.tenant_id = :tenantId
+                  AND r.run_date = :runDate
+                  AND r.auto_fixed = FALSE
+                  AND b.tenant_id = :tenantId
+                  AND b.id = r.batch_id
+                  AND b.quantity - r.physical_sum >= 0
+                  AND b.quantity - b.consumed_quantity = r.nominal_remaining
+                  AND r.physical_sum = (
+                      SELECT COALESCE(SUM(s.current_weight), 0)
+                      FROM production.stock_unit s
+                      WHERE s.tenant_id = :tenantId
+                        AND s.batch_id = b.id
+                        AND s.status <> 'DISPOSED'
+                        AND s.is_active = TRUE)
+                RETURNING b.id
+            )
+            UPDATE production.stock_unit_reconciliation_discrepancy r
+            SET auto_fixed = TRUE
+            FROM fixed
+            WHERE r.tenant_id = :tenantId
+              AND r.run_date = :runDate
+              AND r.batch_id = fixed.id
+            """)
+        .setParameter("tenantId", tenantId)
+        .setParameter("runDate", runDate)
+        .executeUpdate();
+  }
+
+  public Optional<LocalDate> findLatestRunDate(UUID tenantId) {
+    Object latest =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT MAX(run_date)
+                FROM production.stock_unit_reconciliation_discrepancy
+                WHERE tenant_id = :tenantId
+                """)
+            .setParameter("tenantId", tenantId)
+            .getSingleResult();
+    return Optional.ofNullable(latest).map(NativeSqlSupport::toLocalDate);
+  }
+
+  public long countDiscrepancies(UUID tenantId, LocalDate runDate) {
+    return ((Number)
+            entityManager
+                .createNativeQuery(
+                    """
+                    SELECT COUNT(*)
+                    FROM production.stock_unit_reconciliation_discrepancy
+                    WHERE tenant_id = :tenantId
+                      AND run_date = :runDate
+                    """)
+                .setParameter("tenantId", tenantId)
+                .setParameter("runDate", runDate)
+                .getSingleResult())
+        .longValue();
+  }
+
+  /** One page of a run's discrepancies, largest absolute difference first. */
+  @SuppressWarnings("unchecked")
+  public List<ReportRow> findDiscrepancies(
+      UUID tenantId, LocalDate runDate, int offset, int limit) {
+    List<Object[]> rows =
+        entityManager
+            .createNativeQuery(
+                """
+                SELECT %s
+                FROM production.stock_unit_reconciliation_discrepancy
+                WHERE tenant_id = :tenantId
+                  AND run_date = :runDate
+                ORDER BY ABS(difference) DESC, batch_id
+                LIMIT :limit OFFSET :offset
+                """
+                    .formatted(REPORT_COLUMNS))
+            .setParameter("tenantId", tenantId)
+            .setParameter("runDate", runDate)
+            .setParameter("limit", limit)
+            .setParameter("offset", offset)
+            .getResultList();
+    return rows.stream()
+        .map(
+            r ->
+                new ReportRow(
+                    (UUID) r[0],
+                    (String) r[1],
+                    (BigDecimal) r[2],
+                    (BigDecimal) r[3],
+                    (BigDecimal) r[4],
+                    Boolean.TRUE.equals(r[5]),
+                    NativeSqlSupport.toInstant(r[6])))
+        .toList();
+  }
+
+  private String toJson(List<BatchBalance> discrepancies) {
+    List<Map<String, Object>> records =
+        discrepancies.stream()
+            .map(
+                balance -> {
+                  Map<String, Object> record = new LinkedHashMap<>();
+                  record.put("batch_id", balance.batchId());
+                  record.put("batch_code", balance.batchCode());
+                  record.put("nominal_remaining", balance.nominalRemaining());
+                  record.put("physical_sum", balance.physicalSum());
+                  return record;
+                })
+            .toList();
+    return nativeSql.jsonRows(records, "reconciliation discrepancies");
+  }
+
+  /** One batch's two sides of the comparison. */
+  public record BatchBalance(
+      UUID batchId,
+      String batchCode,
+      ProductType productType,
+      String unit,
+      BigDecimal quantity,
+      BigDecimal consumedQuantity,
+      BigDecimal physicalSum) {
+
+    /** Weight that entered the system and has not been written off, by the batch's bookkeeping. */
+    public BigDecimal nominalRemaining() {
+      return quantity.subtract(consumedQuantity);
+    }
+  }
+
+  /** One row of the reconciliation report. {@code difference} is physical minus nominal. */
+  public record ReportRow(
+      UUID batchId,
+      String batchCode,
+      BigDecimal nominalRemaining,
+      BigDecimal physicalSum,
+      BigDecimal difference,
+      boolean autoFixed,
+      Instant detectedAt) {}
+}
@@ -2,6 +2,7 @@ package com.fabricmanagement.production.execution.stockunit.app;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.web.exception.NotFoundException;
+import com.fabricmanagement.production.execution.batch.app.StockAvailabilityProjectionService;
 import com.fabricmanagement.production.execution.batch.domain.Batch;
 import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
 import com.fabricmanagement.production.execution.batch.domain.WasteCategory;
@@ -60,6 +61,8 @@ import org.springframework.transaction.annotation.Transactional;
  *       changeGrade()}
  *   <li>Audit log writing — every state change produces a {@link StockUnitAuditLog} entry
  *   <li>Domain event publishing — via {@link ApplicationEventPublisher}
+ *   <li>Availability projection — every save marks the unit's batch dirty in {@link
+ *       StockAvailabilityProjectionService}
  * </ul>
  *
  * <h2>F5: RESERVED → Consume Flow</h2>
@@ -83,6 +86,7 @@ public class StockUnitService {
   private final StockUnitAuditLogRepository auditLogRepository;
   private final ApplicationEventPublisher eventPublisher;
   private final WarehouseLocationPort warehouseLocationPort;
+  private final StockAvailabilityProjectionService availabilityProjectionService;
 
   // ── Creation ─────────────────────────────────────────────────────────────
 
@@ -171,7 +175,7 @@ public class StockUnitService {
       stockUnit.recordLength(length, lengthUnit);
     }
 
-    stockUnit = stockUnitRepository.save(stockUnit);
+    stockUnit = saveAndProject(stockUnit);
 
     auditLogRepository.save(
         StockUnitAuditLog.of(
@@ -230,7 +234,7 @@ public class StockUnitService {
     StockUnitStatus prevStatus = unit.getStatus();
 
     unit.consume(amount);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     batch.consumeReleasedUnitFromAvailable(amount);
     batchRepository.save(batch);
@@ -314,7 +318,7 @@ public class StockUnitService {
     // Release → consume in a single method call to bypass status check
     unit.releaseReservation();
     unit.consume(amount);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     batch.consumeReleasedUnitFromReservation(amount);
     batchRepository.save(batch);
@@ -382,7 +386,7 @@ public class StockUnitService {
     BigDecimal prevWeight = unit.getCurrentWeight();
 
     unit.reverseConsumption(amount, reason);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     // Sync: Reduce consumed quantity at Batch level
     batch.reverseConsumption(amount);
@@ -430,7 +434,7 @@ public class StockUnitService {
 
     UUID fromLocation = unit.getLocationId();
     unit.startTransfer(targetLocationId);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     writeAuditLog(
         tenantId,
@@ -481,7 +485,7 @@ public class StockUnitService {
     StockUnitStatus previousStatus = unit.getStatus();
     QualityDisposition previousDisposition = unit.getQualityDisposition();
     unit.relocateForQuality(targetLocationId);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     writeAuditLog(
         tenantId,
@@ -513,7 +517,7 @@ public class StockUnitService {
 
     UUID fromLocation = unit.getPreviousLocationId();
     unit.arriveAt(finalLocationId);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     writeAuditLog(
         tenantId,
@@ -578,7 +582,7 @@ public class StockUnitService {
 
     UUID prevGradeId = unit.getQualityGradeId();
     unit.changeGrade(newGradeId);
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     writeAuditLog(
         tenantId,
@@ -619,7 +623,7 @@ public class StockUnitService {
     StockUnit unit = loadUnit(stockUnitId, tenantId);
     StockUnitStatus prev = unit.getStatus();
     unit.hold();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
     writeAuditLog(
         tenantId,
         stockUnitId,
@@ -639,7 +643,7 @@ public class StockUnitService {
     UUID actorId = TenantContext.getCurrentUserId();
     StockUnit unit = loadUnit(stockUnitId, tenantId);
     unit.releaseHold();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
     writeAuditLog(
         tenantId,
         stockUnitId,
@@ -660,7 +664,7 @@ public class StockUnitService {
     StockUnit unit = loadUnit(stockUnitId, tenantId);
     StockUnitStatus prev = unit.getStatus();
     unit.quarantine();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
     writeAuditLog(
         tenantId,
         stockUnitId,
@@ -680,7 +684,7 @@ public class StockUnitService {
     UUID actorId = TenantContext.getCurrentUserId();
     StockUnit unit = loadUnit(stockUnitId, tenantId);
     unit.releaseQuarantine();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
     writeAuditLog(
         tenantId,
         stockUnitId,
@@ -715,7 +719,7 @@ public class StockUnitService {
 
     BigDecimal disposedWeight = unit.getCurrentWeight();
     unit.dispose();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
 
     if (disposedWeight.compareTo(BigDecimal.ZERO) > 0) {
       batch.consumeFromAvailable(disposedWeight);
@@ -773,7 +777,7 @@ public class StockUnitService {
     UUID actorId = TenantContext.getCurrentUserId();
     StockUnit unit = loadUnit(stockUnitId, tenantId);
     unit.reserve();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
     writeAuditLog(
         tenantId,
         stockUnitId,
@@ -793,7 +797,7 @@ public class StockUnitService {
     UUID actorId = TenantContext.getCurrentUserId();
     StockUnit unit = loadUnit(stockUnitId, tenantId);
     unit.releaseReservation();
-    unit = stockUnitRepository.save(unit);
+    unit = saveAndProject(unit);
     writeAuditLog(
         tenantId,
         stockUnitId,
@@ -874,6 +878,13 @@ public class StockUnitService {
 
   // ── Private Helpers ───────────────────────────────────────────────────────
 
+  /** Saves the unit and queues its batch for the before-commit availability projection refresh. */
+  private StockUnit saveAndProject(StockUnit unit) {
+    StockUnit saved = stockUnitRepository.save(unit);
+    availabilityProjectionService.markDirty(saved.getTenantId(), saved.getBatchId());
+    return saved;
+  }
+
   private StockUnit loadUnit(UUID stockUnitId, UUID tenantId) {
     return stockUnitRepository
         .findById(stockUnitId)
@@ -0,0 +1,21 @@
+package com.fabricmanagement.production.execution.stockunit.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One batch reported by the nightly StockUnit reconciliation. {@code difference} is {@code
+ * physicalSum - nominalRemaining}; {@code autoFixed} is true if the run corrected the batch's
+ * consumed quantity.
+ */
+public record StockUnitReconciliationDiscrepancyDto(
+    LocalDate runDate,
+    UUID batchId,
+    String batchCode,
+    BigDecimal nominalRemaining,
+    BigDecimal physicalSum,
+    BigDecimal difference,
+    boolean autoFixed,
+    Instant detectedAt) {}
@@ -253,29 +253,6 @@ public interface StockUnitRepository extends JpaRepository<StockUnit, UUID> {
       @Param("qualityGradeId") UUID qualityGradeId,
       @Param("qualityUnassigned") boolean qualityUnassigned);
 
-  /**
-   * Returns the sum of current weights for all non-disposed, active stock units of a batch. Used by
-   * {@code StockUnitReconciliationService} to compare against {@code Batch.quantity}.
-   *
-   * <p>DISPOSED units are excluded because they are write-offs; the Batch quantity is reduced
-   * separately via the disposal flow.
-   *
-   * @param excludedStatus pass {@code StockUnitStatus.DISPOSED} — parameterised for testability
-   */
-  @Query(
-      """
-      SELECT COALESCE(SUM(s.currentWeight), 0)
-      FROM StockUnit s
-      WHERE s.tenantId = :tenantId
-        AND s.batchId  = :batchId
-        AND s.status  <> :excludedStatus
-        AND s.isActive = true
-      """)
-  BigDecimal sumCurrentWeightByBatchId(
-      @Param("tenantId") UUID tenantId,
-      @Param("batchId") UUID batchId,
-      @Param("excludedStatus") StockUnitStatus excludedStatus);
-
   interface AvailabilityVectorRow {
     UUID getBatchId();
 
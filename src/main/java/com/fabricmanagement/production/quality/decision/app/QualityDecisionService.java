@@ -2,6 +2,7 @@ package com.fabricmanagement.production.quality.decision.app;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.web.exception.NotFoundException;
+import com.fabricmanagement.production.execution.batch.app.StockAvailabilityProjectionService;
 import com.fabricmanagement.production.execution.batch.domain.Batch;
 import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
 import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
@@ -53,6 +54,7 @@ public class QualityDecisionService {
   private final StockUnitRepository stockUnitRepository;
   private final QualityDecisionRepository decisionRepository;
   private final QualityDecisionUnitRepository decisionUnitRepository;
+  private final StockAvailabilityProjectionService availabilityProjectionService;
 
   @Transactional
   public QualityDecision recordDecision(
@@ -118,6 +120,7 @@ public class QualityDecisionService {
     if (affected != populationIds.size()) {
       throw QualityDecisionException.populationDrift();
     }
+    availabilityProjectionService.markDirty(tenantId, batch.getId());
 
     if (allowsQualityProjection(batch)) {
       applyBatchProjection(tenantId, batch);
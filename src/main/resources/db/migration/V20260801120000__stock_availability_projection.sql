@@ -0,0 +1,70 @@
+-- Pre-aggregated stock availability per (batch, status, quality grade, disposition, package, units).
+-- Maintained per batch by StockAvailabilityProjectionService in the same transaction as the
+-- StockUnit mutation; verified and repaired nightly against production.stock_unit.
+CREATE TABLE IF NOT EXISTS production.stock_availability_projection (
+    id                  uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id           uuid NOT NULL,
+    batch_id            uuid NOT NULL,
+    status              varchar(20) NOT NULL,
+    quality_grade_id    uuid,
+    quality_disposition varchar(30) NOT NULL,
+    package_type        varchar(20) NOT NULL,
+    weight_unit         varchar(10),
+    length_unit         varchar(10),
+    weight_quantity     numeric(19,3) NOT NULL,
+    length_quantity     numeric(19,3),
+    piece_count         bigint NOT NULL,
+    refreshed_at        timestamptz NOT NULL DEFAULT now(),
+
+    CONSTRAINT chk_sap_piece_count_positive CHECK (piece_count > 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sap_tenant_batch
+    ON production.stock_availability_projection (tenant_id, batch_id);
+
+-- Initial build from the current physical population, for every tenant in one pass. Runs before
+-- RLS is forced on the table, since the migration session carries no tenant.
+INSERT INTO production.stock_availability_projection (
+    tenant_id, batch_id, status, quality_grade_id, quality_disposition, package_type,
+    weight_unit, length_unit, weight_quantity, length_quantity, piece_count)
+SELECT s.tenant_id,
+       s.batch_id,
+       s.status,
+       s.quality_grade_id,
+       s.quality_disposition,
+       s.package_type,
+       UPPER(TRIM(s.unit)),
+       UPPER(TRIM(s.length_unit)),
+       COALESCE(SUM(s.current_weight), 0),
+       SUM(s.length),
+       COUNT(s.id)
+FROM production.stock_unit s
+WHERE s.is_active = TRUE
+  AND s.batch_id IS NOT NULL
+GROUP BY s.tenant_id, s.batch_id, s.status, s.quality_grade_id, s.quality_disposition,
+         s.package_type, UPPER(TRIM(s.unit)), UPPER(TRIM(s.length_unit));
+
+ALTER TABLE production.stock_availability_projection ENABLE ROW LEVEL SECURITY;
+ALTER TABLE production.stock_availability_projection FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation
+    ON production.stock_availability_projection;
+CREATE POLICY rls_tenant_isolation
+    ON production.stock_availability_projection
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE production.stock_availability_projection TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE production.stock_availability_projection TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
@@ -0,0 +1,33 @@
+-- Shared sliding-window counters for @RateLimited endpoints (PostgresRateLimiter).
+-- Keyed by principal, not tenant: no RLS.
+CREATE SCHEMA IF NOT EXISTS common_infrastructure;
+
+CREATE TABLE IF NOT EXISTS common_infrastructure.rate_limit_window (
+    limit_key     varchar(255) NOT NULL,
+    window_start  timestamptz  NOT NULL,
+    request_count integer      NOT NULL,
+    expires_at    timestamptz  NOT NULL,
+
+    PRIMARY KEY (limit_key, window_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_window_expires
+    ON common_infrastructure.rate_limit_window (expires_at);
+
+DO $$
+BEGIN
+    GRANT USAGE ON SCHEMA common_infrastructure TO fabric_app;
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE common_infrastructure.rate_limit_window TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT USAGE ON SCHEMA common_infrastructure TO fabric_system;
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE common_infrastructure.rate_limit_window TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
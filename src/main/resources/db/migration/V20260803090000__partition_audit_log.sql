@@ -0,0 +1,197 @@
+-- Monthly range partitioning of common_audit.common_audit_log on "timestamp".
+--
+-- Reads bounded by time only touch the matching months, and retention becomes a DROP of whole
+-- partitions instead of a DELETE scan. Partitions are named common_audit_log_pYYYYMM (UTC months)
+-- and created ahead of time by AuditLogPartitionMaintenanceJob through
+-- ensure_audit_log_partition(); common_audit_log_default catches anything outside them.
+--
+-- The primary key and the uid constraint must include the partition key, so they become
+-- (id, "timestamp") and (uid, "timestamp").
+
+ALTER TABLE common_audit.common_audit_log RENAME TO common_audit_log_legacy;
+-- The owner must see every tenant's rows to copy them.
+ALTER TABLE common_audit.common_audit_log_legacy NO FORCE ROW LEVEL SECURITY;
+
+CREATE TABLE common_audit.common_audit_log (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    tenant_id UUID NOT NULL,
+    uid VARCHAR(100) NOT NULL,
+    user_id UUID,
+    user_uid VARCHAR(100),
+    action VARCHAR(50) NOT NULL,
+    resource VARCHAR(100) NOT NULL,
+    resource_id VARCHAR(100),
+    description TEXT,
+    old_value TEXT,
+    new_value TEXT,
+    ip_address VARCHAR(50),
+    user_agent TEXT,
+    severity VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    timestamp TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    deleted_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by UUID,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_by UUID,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_common_audit_log PRIMARY KEY (id, "timestamp"),
+    CONSTRAINT uk_common_audit_log_uid UNIQUE (uid, "timestamp")
+) PARTITION BY RANGE ("timestamp");
+
+CREATE TABLE common_audit.common_audit_log_default
+    PARTITION OF common_audit.common_audit_log DEFAULT;
+
+-- Every partition carries the same tenant policy as the parent, so direct access to a partition
+-- is isolated too.
+CREATE OR REPLACE FUNCTION common_audit.secure_audit_log_partition(p_name text)
+RETURNS void
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = common_audit, pg_temp
+AS $$
+BEGIN
+    EXECUTE format('ALTER TABLE common_audit.%I ENABLE ROW LEVEL SECURITY', p_name);
+    EXECUTE format('ALTER TABLE common_audit.%I FORCE ROW LEVEL SECURITY', p_name);
+    EXECUTE format('DROP POLICY IF EXISTS rls_tenant_isolation ON common_audit.%I', p_name);
+    EXECUTE format(
+        'CREATE POLICY rls_tenant_isolation ON common_audit.%I FOR ALL '
+        'USING (tenant_id = current_setting(''app.current_tenant'', true)::uuid) '
+        'WITH CHECK (tenant_id = current_setting(''app.current_tenant'', true)::uuid)',
+        p_name);
+END $$;
+
+-- Creates the partition for the UTC month containing p_month. Rows of that month already in the
+-- default partition are moved into it first. Returns false if the partition already exists.
+CREATE OR REPLACE FUNCTION common_audit.ensure_audit_log_partition(p_month date)
+RETURNS boolean
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = common_audit, pg_temp
+AS $$
+DECLARE
+    v_start timestamp := date_trunc('month', p_month::timestamp);
+    v_from timestamptz := v_start AT TIME ZONE 'UTC';
+    v_to timestamptz := (v_start + interval '1 month') AT TIME ZONE 'UTC';
+    v_name text := 'common_audit_log_p' || to_char(v_start, 'YYYYMM');
+BEGIN
+    IF to_regclass('common_audit.' || v_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+
+    EXECUTE format(
+        'CREATE TABLE common_audit.%I '
+        '(LIKE common_audit.common_audit_log INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+        v_name);
+
+    ALTER TABLE common_audit.common_audit_log_default NO FORCE ROW LEVEL SECURITY;
+    EXECUTE format(
+        'WITH moved AS ('
+        '    DELETE FROM common_audit.common_audit_log_default'
+        '    WHERE "timestamp" >= $1 AND "timestamp" < $2'
+        '    RETURNING *) '
+        'INSERT INTO common_audit.%I SELECT * FROM moved',
+        v_name)
+        USING v_from, v_to;
+    ALTER TABLE common_audit.common_audit_log_default FORCE ROW LEVEL SECURITY;
+
+    EXECUTE format(
+        'ALTER TABLE common_audit.common_audit_log ATTACH PARTITION common_audit.%I '
+        'FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_from, v_to);
+    PERFORM common_audit.secure_audit_log_partition(v_name);
+    RETURN true;
+END $$;
+
+-- Drops every monthly partition that ends on or before p_cutoff. Returns the number dropped.
+CREATE OR REPLACE FUNCTION common_audit.drop_audit_log_partitions_before(p_cutoff date)
+RETURNS integer
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = common_audit, pg_temp
+AS $$
+DECLARE
+    v_partition record;
+    v_dropped integer := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'common_audit.common_audit_log'::regclass
+          AND c.relname ~ '^common_audit_log_p[0-9]{6}$'
+          AND to_date(substring(c.relname from '[0-9]{6}$'), 'YYYYMM') + interval '1 month'
+              <= p_cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('DROP TABLE common_audit.%I', v_partition.relname);
+        v_dropped := v_dropped + 1;
+    END LOOP;
+    RETURN v_dropped;
+END $$;
+
+-- Partitions for every month that has audit history, up to three months ahead.
+DO $$
+DECLARE
+    v_month date;
+    v_current date := date_trunc('month', now() AT TIME ZONE 'UTC')::date;
+    v_last date := v_current + interval '3 months';
+BEGIN
+    SELECT date_trunc('month', min("timestamp") AT TIME ZONE 'UTC')::date
+      INTO v_month
+      FROM common_audit.common_audit_log_legacy;
+    v_month := LEAST(COALESCE(v_month, v_current), v_current);
+    WHILE v_month <= v_last LOOP
+        PERFORM common_audit.ensure_audit_log_partition(v_month);
+        v_month := v_month + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO common_audit.common_audit_log (
+    id, tenant_id, uid, user_id, user_uid, action, resource, resource_id, description,
+    old_value, new_value, ip_address, user_agent, severity, timestamp, is_active, deleted_at,
+    created_at, created_by, updated_at, updated_by, version)
+SELECT id, tenant_id, uid, user_id, user_uid, action, resource, resource_id, description,
+       old_value, new_value, ip_address, user_agent, severity, timestamp, is_active, deleted_at,
+       created_at, created_by, updated_at, updated_by, version
+FROM common_audit.common_audit_log_legacy;
+
+DROP TABLE common_audit.common_audit_log_legacy;
+
+-- Keyset pages and exports walk (tenant_id, timestamp DESC, id DESC).
+CREATE INDEX idx_audit_log_tenant_timestamp
+    ON common_audit.common_audit_log (tenant_id, timestamp DESC, id DESC);
+CREATE INDEX idx_audit_log_tenant_user
+    ON common_audit.common_audit_log (tenant_id, user_id, timestamp DESC);
+CREATE INDEX idx_audit_log_tenant_resource
+    ON common_audit.common_audit_log (tenant_id, resource, timestamp DESC);
+CREATE INDEX idx_audit_log_tenant_severity
+    ON common_audit.common_audit_log (tenant_id, severity, timestamp DESC);
+
+ALTER TABLE common_audit.common_audit_log ENABLE ROW LEVEL SECURITY;
+ALTER TABLE common_audit.common_audit_log FORCE ROW LEVEL SECURITY;
+CREATE POLICY rls_tenant_isolation ON common_audit.common_audit_log
+    FOR ALL
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+SELECT common_audit.secure_audit_log_partition('common_audit_log_default');
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE ON TABLE common_audit.common_audit_log TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE ON TABLE common_audit.common_audit_log TO fabric_system;
+    GRANT EXECUTE ON FUNCTION common_audit.ensure_audit_log_partition(date) TO fabric_system;
+    GRANT EXECUTE ON FUNCTION common_audit.drop_audit_log_partitions_before(date) TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+REVOKE EXECUTE ON FUNCTION common_audit.secure_audit_log_partition(text) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION common_audit.ensure_audit_log_partition(date) FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION common_audit.drop_audit_log_partitions_before(date) FROM PUBLIC;
@@ -0,0 +1,79 @@
+-- Daily receivable and payable metrics, one fact row per (tenant, side, as-of date, partner) plus
+-- one ledger row per (tenant, side, as-of date). Rebuilt nightly by PartnerMetricSnapshotJob and
+-- refreshed intraday for the partners touched by invoice, credit-note and payment events. Past
+-- dates are never rewritten, so the rows double as trend history.
+CREATE TABLE IF NOT EXISTS finance.finance_partner_metric_snapshot (
+    tenant_id          uuid NOT NULL,
+    side               varchar(20) NOT NULL,
+    as_of_date         date NOT NULL,
+    trading_partner_id uuid NOT NULL,
+    outstanding        numeric(19,4) NOT NULL,
+    overdue_exposure   numeric(19,4) NOT NULL,
+    unapplied_credits  numeric(19,4) NOT NULL,
+    aging_current      numeric(19,4) NOT NULL,
+    aging_1_30         numeric(19,4) NOT NULL,
+    aging_31_60        numeric(19,4) NOT NULL,
+    aging_61_90        numeric(19,4) NOT NULL,
+    aging_90_plus      numeric(19,4) NOT NULL,
+    has_dispute        boolean NOT NULL,
+    average_days_late  numeric(19,4),
+    refreshed_at       timestamptz NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_partner_metric_snapshot
+        PRIMARY KEY (tenant_id, side, as_of_date, trading_partner_id),
+    CONSTRAINT chk_pms_side CHECK (side IN ('ACCOUNTS_RECEIVABLE', 'ACCOUNTS_PAYABLE'))
+);
+
+CREATE TABLE IF NOT EXISTS finance.finance_ledger_metric_snapshot (
+    tenant_id                uuid NOT NULL,
+    side                     varchar(20) NOT NULL,
+    as_of_date               date NOT NULL,
+    reporting_currency       varchar(3) NOT NULL,
+    total_outstanding        numeric(19,4) NOT NULL,
+    overdue_exposure         numeric(19,4) NOT NULL,
+    partner_count            integer NOT NULL,
+    window_days              integer NOT NULL,
+    days_outstanding         numeric(19,4),
+    window_volume            numeric(19,4) NOT NULL,
+    days_outstanding_status  varchar(40) NOT NULL,
+    refreshed_at             timestamptz NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_ledger_metric_snapshot PRIMARY KEY (tenant_id, side, as_of_date),
+    CONSTRAINT chk_lms_side CHECK (side IN ('ACCOUNTS_RECEIVABLE', 'ACCOUNTS_PAYABLE'))
+);
+
+ALTER TABLE finance.finance_partner_metric_snapshot ENABLE ROW LEVEL SECURITY;
+ALTER TABLE finance.finance_partner_metric_snapshot FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation ON finance.finance_partner_metric_snapshot;
+CREATE POLICY rls_tenant_isolation
+    ON finance.finance_partner_metric_snapshot
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+ALTER TABLE finance.finance_ledger_metric_snapshot ENABLE ROW LEVEL SECURITY;
+ALTER TABLE finance.finance_ledger_metric_snapshot FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation ON finance.finance_ledger_metric_snapshot;
+CREATE POLICY rls_tenant_isolation
+    ON finance.finance_ledger_metric_snapshot
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE finance.finance_partner_metric_snapshot,
+                 finance.finance_ledger_metric_snapshot
+        TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE finance.finance_partner_metric_snapshot,
+                 finance.finance_ledger_metric_snapshot
+        TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
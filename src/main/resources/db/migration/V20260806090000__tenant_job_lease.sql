@@ -0,0 +1,37 @@
+CREATE TABLE IF NOT EXISTS public.scheduled_job_lease (
+    job_name     VARCHAR(128) NOT NULL,
+    run_key      VARCHAR(64),
+    holder       VARCHAR(128) NOT NULL,
+    leased_until TIMESTAMPTZ  NOT NULL,
+    started_at   TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    finished_at  TIMESTAMPTZ,
+    CONSTRAINT pk_scheduled_job_lease PRIMARY KEY (job_name)
+);
+
+CREATE TABLE IF NOT EXISTS public.scheduled_job_tenant_checkpoint (
+    job_name     VARCHAR(128) NOT NULL,
+    run_key      VARCHAR(64)  NOT NULL,
+    tenant_id    UUID         NOT NULL,
+    completed_at TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    CONSTRAINT pk_scheduled_job_tenant_checkpoint PRIMARY KEY (job_name, run_key, tenant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_scheduled_job_tenant_checkpoint_completed
+    ON public.scheduled_job_tenant_checkpoint(completed_at);
+
+COMMENT ON TABLE public.scheduled_job_lease
+    IS 'Cluster-wide lease per cross-tenant scheduled job (TenantFanOutExecutor). Non-RLS, scheduler-written.';
+COMMENT ON TABLE public.scheduled_job_tenant_checkpoint
+    IS 'Tenants completed per job run, so an interrupted run resumes. Non-RLS, scheduler-written.';
+
+DO $$
+BEGIN
+  IF EXISTS (SELECT FROM pg_catalog.pg_roles WHERE rolname = 'fabric_app') THEN
+    EXECUTE 'GRANT SELECT, INSERT, UPDATE, DELETE ON TABLE public.scheduled_job_lease TO fabric_app';
+    EXECUTE 'GRANT SELECT, INSERT, UPDATE, DELETE ON TABLE public.scheduled_job_tenant_checkpoint TO fabric_app';
+  END IF;
+  IF EXISTS (SELECT FROM pg_catalog.pg_roles WHERE rolname = 'fabric_system') THEN
+    EXECUTE 'GRANT SELECT, INSERT, UPDATE, DELETE ON TABLE public.scheduled_job_lease TO fabric_system';
+    EXECUTE 'GRANT SELECT, INSERT, UPDATE, DELETE ON TABLE public.scheduled_job_tenant_checkpoint TO fabric_system';
+  END IF;
+END $$;
@@ -0,0 +1,43 @@
+-- Nightly StockUnit reconciliation report: one row per (tenant, run date, batch) whose nominal
+-- remainder (quantity - consumed_quantity) differs from the summed current weight of its
+-- non-disposed StockUnits. Written by StockUnitReconciliationService; a re-run of the same day
+-- replaces that day's rows, older runs are purged after the retention period.
+CREATE TABLE IF NOT EXISTS production.stock_unit_reconciliation_discrepancy (
+    tenant_id          uuid NOT NULL,
+    run_date           date NOT NULL,
+    batch_id           uuid NOT NULL,
+    batch_code         varchar(100) NOT NULL,
+    nominal_remaining  numeric(15,3) NOT NULL,
+    physical_sum       numeric(15,3) NOT NULL,
+    difference         numeric(15,3) NOT NULL,
+    auto_fixed         boolean NOT NULL DEFAULT FALSE,
+    detected_at        timestamptz NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_stock_unit_reconciliation_discrepancy PRIMARY KEY (tenant_id, run_date, batch_id)
+);
+
+ALTER TABLE production.stock_unit_reconciliation_discrepancy ENABLE ROW LEVEL SECURITY;
+ALTER TABLE production.stock_unit_reconciliation_discrepancy FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation ON production.stock_unit_reconciliation_discrepancy;
+CREATE POLICY rls_tenant_isolation
+    ON production.stock_unit_reconciliation_discrepancy
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE production.stock_unit_reconciliation_discrepancy
+        TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE production.stock_unit_reconciliation_discrepancy
+        TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
@@ -0,0 +1,128 @@
+-- Chunked pay run execution: payouts are written with upserts keyed by (pay_run_id, employee_id),
+-- and every chunk of employees records its progress so a failed run resumes from the first
+-- unfinished chunk. Written by PayrollService.
+
+-- One payout per employee and run. PayrollService always looked the row up before saving, so
+-- duplicates can only come from concurrent runs. An employee with more than one PROCESSED payout
+-- in a run was paid twice and has to be sorted out by hand, so the migration stops there.
+-- Otherwise the PROCESSED payout is kept, or else the most recently updated one, and the others
+-- are moved to human_pay_run_payout_duplicate. The owner must see every tenant's rows.
+ALTER TABLE human.human_pay_run_payout NO FORCE ROW LEVEL SECURITY;
+
+DO $$
+DECLARE
+    v_paid_twice integer;
+BEGIN
+    SELECT count(*) INTO v_paid_twice
+    FROM (
+        SELECT 1
+        FROM human.human_pay_run_payout
+        WHERE status = 'PROCESSED'
+        GROUP BY pay_run_id, employee_id
+        HAVING count(*) > 1
+    ) paid_twice;
+    IF v_paid_twice > 0 THEN
+        RAISE EXCEPTION
+            '% employee(s) have more than one PROCESSED payout in the same pay run; '
+            'resolve them before migrating',
+            v_paid_twice;
+    END IF;
+END $$;
+
+CREATE TABLE IF NOT EXISTS human.human_pay_run_payout_duplicate (
+    LIKE human.human_pay_run_payout INCLUDING DEFAULTS,
+    archived_at timestamptz NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_pay_run_payout_duplicate PRIMARY KEY (id)
+);
+
+WITH ranked AS (
+    SELECT id,
+           row_number() OVER (
+               PARTITION BY pay_run_id, employee_id
+               ORDER BY (status = 'PROCESSED') DESC, updated_at DESC, id DESC) AS row_rank
+    FROM human.human_pay_run_payout
+),
+archived AS (
+    DELETE FROM human.human_pay_run_payout p
+    USING ranked
+    WHERE p.id = ranked.id
+      AND ranked.row_rank > 1
+    RETURNING p.*
+)
+INSERT INTO human.human_pay_run_payout_duplicate
+SELECT archived.*, now()
+FROM archived;
+
+ALTER TABLE human.human_pay_run_payout FORCE ROW LEVEL SECURITY;
+
+ALTER TABLE human.human_pay_run_payout_duplicate ENABLE ROW LEVEL SECURITY;
+ALTER TABLE human.human_pay_run_payout_duplicate FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation ON human.human_pay_run_payout_duplicate;
+CREATE POLICY rls_tenant_isolation
+    ON human.human_pay_run_payout_duplicate
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+DO $$
+BEGIN
+    GRANT SELECT
+        ON TABLE human.human_pay_run_payout_duplicate
+        TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, DELETE
+        ON TABLE human.human_pay_run_payout_duplicate
+        TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DROP INDEX IF EXISTS human.idx_pay_run_payout_employee;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_pay_run_payout_employee
+    ON human.human_pay_run_payout (pay_run_id, employee_id);
+
+CREATE TABLE IF NOT EXISTS human.human_pay_run_chunk (
+    tenant_id      uuid NOT NULL,
+    pay_run_id     uuid NOT NULL,
+    chunk_index    int NOT NULL,
+    employee_ids   uuid[] NOT NULL,
+    status         varchar(20) NOT NULL DEFAULT 'PENDING', -- PENDING / COMPLETED / FAILED
+    attempts       int NOT NULL DEFAULT 0,
+    last_error     text,
+    completed_at   timestamptz,
+
+    CONSTRAINT pk_pay_run_chunk PRIMARY KEY (tenant_id, pay_run_id, chunk_index),
+    CONSTRAINT fk_pay_run_chunk_run FOREIGN KEY (pay_run_id)
+        REFERENCES human.human_pay_run (id) ON DELETE CASCADE
+);
+
+ALTER TABLE human.human_pay_run_chunk ENABLE ROW LEVEL SECURITY;
+ALTER TABLE human.human_pay_run_chunk FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation ON human.human_pay_run_chunk;
+CREATE POLICY rls_tenant_isolation
+    ON human.human_pay_run_chunk
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE human.human_pay_run_chunk
+        TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE human.human_pay_run_chunk
+        TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
@@ -0,0 +1,83 @@
+-- InventoryBalanceUpdater applies coalesced deltas with INSERT ... ON CONFLICT on
+-- (tenant_id, batch_id, location_id). A balance without a location must hit that key too, so
+-- NULL locations are treated as equal (PostgreSQL 15+).
+--
+-- Until now NULL locations never collided, and deleting a location sets its balances' location
+-- to NULL, so a batch can have several balances without a location. They are merged first: the
+-- row with the latest transaction takes the sum of every bucket and the others are deleted. Rows
+-- of one batch in different units cannot be summed, so the migration stops there instead. The
+-- owner must see every tenant's rows.
+ALTER TABLE production.production_execution_inventory_balance NO FORCE ROW LEVEL SECURITY;
+
+DO $$
+DECLARE
+    v_mixed_units integer;
+    v_merged integer;
+BEGIN
+    SELECT count(*) INTO v_mixed_units
+    FROM (
+        SELECT 1
+        FROM production.production_execution_inventory_balance
+        WHERE location_id IS NULL
+        GROUP BY tenant_id, batch_id
+        HAVING count(DISTINCT unit) > 1
+    ) mixed;
+    IF v_mixed_units > 0 THEN
+        RAISE EXCEPTION
+            '% batch(es) have balances without a location in more than one unit; '
+            'merge them by hand before migrating',
+            v_mixed_units;
+    END IF;
+
+    WITH ranked AS (
+        SELECT id,
+               tenant_id,
+               batch_id,
+               row_number() OVER (
+                   PARTITION BY tenant_id, batch_id
+                   ORDER BY last_transaction_date DESC NULLS LAST, updated_at DESC, id DESC)
+                   AS row_rank,
+               count(*) OVER (PARTITION BY tenant_id, batch_id) AS row_count,
+               sum(quantity) OVER (PARTITION BY tenant_id, batch_id) AS quantity,
+               sum(reserved_quantity) OVER (PARTITION BY tenant_id, batch_id) AS reserved_quantity,
+               sum(consumed_quantity) OVER (PARTITION BY tenant_id, batch_id) AS consumed_quantity,
+               sum(waste_quantity) OVER (PARTITION BY tenant_id, batch_id) AS waste_quantity
+        FROM production.production_execution_inventory_balance
+        WHERE location_id IS NULL
+    ),
+    merged AS (
+        UPDATE production.production_execution_inventory_balance b
+        SET quantity = ranked.quantity,
+            reserved_quantity = ranked.reserved_quantity,
+            consumed_quantity = ranked.consumed_quantity,
+            waste_quantity = ranked.waste_quantity,
+            updated_at = now(),
+            version = b.version + 1
+        FROM ranked
+        WHERE b.id = ranked.id
+          AND ranked.row_rank = 1
+          AND ranked.row_count > 1
+        RETURNING b.id
+    ),
+    removed AS (
+        DELETE FROM production.production_execution_inventory_balance b
+        USING ranked
+        WHERE b.id = ranked.id
+          AND ranked.row_rank > 1
+        RETURNING b.id
+    )
+    SELECT count(*) INTO v_merged FROM removed;
+
+    IF v_merged > 0 THEN
+        RAISE NOTICE 'Merged % inventory balance row(s) without a location', v_merged;
+    END IF;
+END $$;
+
+ALTER TABLE production.production_execution_inventory_balance FORCE ROW LEVEL SECURITY;
+
+ALTER TABLE production.production_execution_inventory_balance
+    DROP CONSTRAINT IF EXISTS uq_inv_balance_batch_location;
+
+ALTER TABLE production.production_execution_inventory_balance
+    ADD CONSTRAINT uq_inv_balance_batch_location
+        UNIQUE NULLS NOT DISTINCT (tenant_id, batch_id, location_id);
@@ -0,0 +1,55 @@
+-- Point-in-time inventory balances: a nightly checkpoint of every (batch, location) balance as
+-- derived from the inventory transaction ledger, written by InventoryCheckpointService. A balance
+-- as of any instant is the latest checkpoint at or before it plus the ledger rows since, so
+-- historical stock reports read the changes since one checkpoint rather than the whole history.
+-- All keys of a tenant share the checkpoint instant; a key absent from a checkpoint was all zero.
+CREATE TABLE IF NOT EXISTS production.inventory_balance_checkpoint (
+    id                 bigint GENERATED ALWAYS AS IDENTITY,
+    tenant_id          uuid NOT NULL,
+    checkpoint_at      timestamptz NOT NULL,
+    batch_id           uuid NOT NULL,
+    location_id        uuid,
+    unit               varchar(20) NOT NULL,
+    quantity           numeric(15,3) NOT NULL,
+    reserved_quantity  numeric(15,3) NOT NULL,
+    consumed_quantity  numeric(15,3) NOT NULL,
+    waste_quantity     numeric(15,3) NOT NULL,
+    created_at         timestamptz NOT NULL DEFAULT now(),
+
+    CONSTRAINT pk_inventory_balance_checkpoint PRIMARY KEY (id),
+    CONSTRAINT uq_inventory_balance_checkpoint_key
+        UNIQUE NULLS NOT DISTINCT (tenant_id, checkpoint_at, batch_id, location_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_balance_checkpoint_batch
+    ON production.inventory_balance_checkpoint (tenant_id, batch_id, checkpoint_at);
+
+-- The ledger is read by tenant and time window since the last checkpoint.
+CREATE INDEX IF NOT EXISTS idx_inv_txn_tenant_date
+    ON production.production_execution_inventory_transaction (tenant_id, transaction_date);
+
+ALTER TABLE production.inventory_balance_checkpoint ENABLE ROW LEVEL SECURITY;
+ALTER TABLE production.inventory_balance_checkpoint FORCE ROW LEVEL SECURITY;
+DROP POLICY IF EXISTS rls_tenant_isolation ON production.inventory_balance_checkpoint;
+CREATE POLICY rls_tenant_isolation
+    ON production.inventory_balance_checkpoint
+    USING (tenant_id = current_setting('app.current_tenant', true)::uuid)
+    WITH CHECK (tenant_id = current_setting('app.current_tenant', true)::uuid);
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE production.inventory_balance_checkpoint
+        TO fabric_app;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
+
+DO $$
+BEGIN
+    GRANT SELECT, INSERT, UPDATE, DELETE
+        ON TABLE production.inventory_balance_checkpoint
+        TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
@@ -0,0 +1,96 @@
+-- Notification coalescing: bursts of the same event for one recipient are folded into a single
+-- held digest row (see NotificationCoalescer). The digest is keyed by recipient, event type,
+-- channel and reference type; digest_count is how many events it stands for and the payload
+-- carries the referenced ids. Held rows have scheduled_at in the future and are not claimed
+-- before it passes.
+ALTER TABLE notification.notification_queue
+    ADD COLUMN IF NOT EXISTS reference_type VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS digest_count   INT NOT NULL DEFAULT 1;
+
+-- Open-digest lookup and the "sent recently" check on every enqueue.
+CREATE INDEX IF NOT EXISTS idx_notif_queue_coalesce
+    ON notification.notification_queue (recipient_id, event_type, channel, created_at);
+
+-- Summary line appended to a digest body. Seed future tenants through the golden TEMPLATE tenant.
+INSERT INTO i18n.translation_key
+    (id, tenant_id, key_code, module, default_value, description)
+VALUES
+    (gen_random_uuid(), '00000000-0000-0000-ffff-000000000001',
+     'notification.digest.summary', 'NOTIFICATION',
+     '{count} notifications of this kind were grouped together.',
+     'Summary line appended to a coalesced notification digest')
+ON CONFLICT (tenant_id, key_code) DO NOTHING;
+
+INSERT INTO i18n.translation_value
+    (id, tenant_id, translation_key_id, locale, value, is_override)
+SELECT gen_random_uuid(),
+       '00000000-0000-0000-ffff-000000000001',
+       tk.id,
+       'TR',
+       'Bu türden {count} bildirim bir araya getirildi.',
+       FALSE
+FROM i18n.translation_key tk
+WHERE tk.tenant_id = '00000000-0000-0000-ffff-000000000001'
+  AND tk.key_code = 'notification.digest.summary'
+ON CONFLICT (translation_key_id, locale, tenant_id) DO NOTHING;
+
+-- Backfill the key into every existing real tenant.
+INSERT INTO i18n.translation_key
+    (id, tenant_id, uid, key_code, module, default_value, description,
+     is_active, created_at, updated_at, version)
+SELECT gen_random_uuid(),
+       tenant.id,
+       gen_random_uuid()::varchar,
+       source_key.key_code,
+       source_key.module,
+       source_key.default_value,
+       source_key.description,
+       source_key.is_active,
+       now(),
+       now(),
+       0
+FROM common_tenant.common_tenant tenant
+CROSS JOIN i18n.translation_key source_key
+WHERE tenant.type NOT IN ('TEMPLATE', 'SYSTEM')
+  AND source_key.tenant_id = '00000000-0000-0000-ffff-000000000001'
+  AND source_key.key_code = 'notification.digest.summary'
+  AND NOT EXISTS (
+    SELECT 1
+    FROM i18n.translation_key destination_key
+    WHERE destination_key.tenant_id = tenant.id
+      AND destination_key.key_code = source_key.key_code
+  );
+
+-- Backfill TR values, remapping the source key to the destination tenant's key ID.
+INSERT INTO i18n.translation_value
+    (id, tenant_id, uid, translation_key_id, locale, value, is_override,
+     is_active, created_at, updated_at, version)
+SELECT gen_random_uuid(),
+       tenant.id,
+       gen_random_uuid()::varchar,
+       destination_key.id,
+       source_value.locale,
+       source_value.value,
+       source_value.is_override,
+       source_value.is_active,
+       now(),
+       now(),
+       0
+FROM common_tenant.common_tenant tenant
+JOIN i18n.translation_key source_key
+  ON source_key.tenant_id = '00000000-0000-0000-ffff-000000000001'
+ AND source_key.key_code = 'notification.digest.summary'
+JOIN i18n.translation_value source_value
+  ON source_value.tenant_id = '00000000-0000-0000-ffff-000000000001'
+ AND source_value.translation_key_id = source_key.id
+JOIN i18n.translation_key destination_key
+  ON destination_key.tenant_id = tenant.id
+ AND destination_key.key_code = source_key.key_code
+WHERE tenant.type NOT IN ('TEMPLATE', 'SYSTEM')
+  AND NOT EXISTS (
+    SELECT 1
+    FROM i18n.translation_value destination_value
+    WHERE destination_value.tenant_id = tenant.id
+      AND destination_value.translation_key_id = destination_key.id
+      AND destination_value.locale = source_value.locale
+  );
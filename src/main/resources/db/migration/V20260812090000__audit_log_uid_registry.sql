@@ -0,0 +1,101 @@
+-- Restores the global uniqueness of common_audit.common_audit_log.uid.
+--
+-- A unique constraint on a partitioned table must include the partition key, so since
+-- V20260803090000 uid was only unique together with "timestamp". Every insert now claims its uid
+-- in a non-partitioned registry first; a uid already claimed by another row fails the insert with
+-- unique_violation, as before partitioning. Re-inserting the same row (same id) passes the check,
+-- so the audit writer's idempotent retry still lands on the primary key's ON CONFLICT.
+-- Dropping old partitions releases their uids.
+
+CREATE TABLE common_audit.common_audit_log_uid (
+    uid VARCHAR(100) NOT NULL,
+    id UUID NOT NULL,
+    "timestamp" TIMESTAMPTZ NOT NULL,
+    CONSTRAINT pk_common_audit_log_uid PRIMARY KEY (uid)
+);
+
+CREATE INDEX idx_audit_log_uid_timestamp ON common_audit.common_audit_log_uid ("timestamp");
+
+-- The owner must see every tenant's rows to register them. Duplicates that slipped in since
+-- partitioning keep their oldest row registered.
+ALTER TABLE common_audit.common_audit_log NO FORCE ROW LEVEL SECURITY;
+INSERT INTO common_audit.common_audit_log_uid (uid, id, "timestamp")
+SELECT DISTINCT ON (uid) uid, id, "timestamp"
+FROM common_audit.common_audit_log
+ORDER BY uid, "timestamp", id;
+ALTER TABLE common_audit.common_audit_log FORCE ROW LEVEL SECURITY;
+
+CREATE OR REPLACE FUNCTION common_audit.claim_audit_log_uid()
+RETURNS trigger
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = common_audit, pg_temp
+AS $$
+BEGIN
+    INSERT INTO common_audit.common_audit_log_uid (uid, id, "timestamp")
+    VALUES (NEW.uid, NEW.id, NEW."timestamp")
+    ON CONFLICT (uid) DO NOTHING;
+    IF NOT FOUND AND NOT EXISTS (
+        SELECT 1 FROM common_audit.common_audit_log_uid WHERE uid = NEW.uid AND id = NEW.id)
+    THEN
+        RAISE EXCEPTION 'duplicate audit log uid: %', NEW.uid
+            USING ERRCODE = 'unique_violation', CONSTRAINT = 'uk_common_audit_log_uid';
+    END IF;
+    RETURN NEW;
+END $$;
+
+-- Cloned onto every partition, including the ones attached later.
+CREATE TRIGGER trg_audit_log_claim_uid
+    BEFORE INSERT ON common_audit.common_audit_log
+    FOR EACH ROW EXECUTE FUNCTION common_audit.claim_audit_log_uid();
+
+-- Same as in V20260803090000, plus releasing the uids of the dropped months.
+CREATE OR REPLACE FUNCTION common_audit.drop_audit_log_partitions_before(p_cutoff date)
+RETURNS integer
+LANGUAGE plpgsql
+SECURITY DEFINER
+SET search_path = common_audit, pg_temp
+AS $$
+DECLARE
+    v_partition record;
+    v_dropped integer := 0;
+    v_released_before timestamptz;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname,
+               (to_date(substring(c.relname from '[0-9]{6}$'), 'YYYYMM') + interval '1 month')
+                   AT TIME ZONE 'UTC' AS ends_at
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'common_audit.common_audit_log'::regclass
+          AND c.relname ~ '^common_audit_log_p[0-9]{6}$'
+          AND to_date(substring(c.relname from '[0-9]{6}$'), 'YYYYMM') + interval '1 month'
+              <= p_cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('DROP TABLE common_audit.%I', v_partition.relname);
+        v_dropped := v_dropped + 1;
+        v_released_before := v_partition.ends_at;
+    END LOOP;
+
+    -- Rows of those months left in the default partition keep their uid.
+    IF v_released_before IS NOT NULL THEN
+        ALTER TABLE common_audit.common_audit_log_default NO FORCE ROW LEVEL SECURITY;
+        DELETE FROM common_audit.common_audit_log_uid r
+        WHERE r."timestamp" < v_released_before
+          AND NOT EXISTS (
+              SELECT 1 FROM common_audit.common_audit_log_default d WHERE d.id = r.id);
+        ALTER TABLE common_audit.common_audit_log_default FORCE ROW LEVEL SECURITY;
+    END IF;
+    RETURN v_dropped;
+END $$;
+
+REVOKE EXECUTE ON FUNCTION common_audit.claim_audit_log_uid() FROM PUBLIC;
+REVOKE EXECUTE ON FUNCTION common_audit.drop_audit_log_partitions_before(date) FROM PUBLIC;
+
+DO $$
+BEGIN
+    GRANT EXECUTE ON FUNCTION common_audit.drop_audit_log_partitions_before(date) TO fabric_system;
+EXCEPTION WHEN undefined_object THEN
+    NULL;
+END $$;
@@ -98,7 +98,8 @@ class ConstitutionArchTest {
     void infraShouldNotDependOnApiOrApp() {
       // Documented design exception (1 class):
       //   - WebSocketAuthInterceptor: Spring ChannelInterceptor (security infra) legitimately
-      //     needs JwtService for WebSocket auth. Moving to app layer would misrepresent its role.
+      //     needs JWT verification for WebSocket auth. Moving to app layer would misrepresent its
+      //     role.
       //
       // EmailNotificationSender was moved from infra/email/ to app/adapter/email/ — resolved.
 
@@ -0,0 +1,51 @@
+package com.fabricmanagement.common.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class NativeSqlSupportTest {
+
+  private final NativeSqlSupport nativeSql = new NativeSqlSupport(new ObjectMapper());
+
+  @Test
+  void encodesRowsAsJsonArray() {
+    assertEquals(
+        "[{\"qty\":3},{\"qty\":5}]",
+        nativeSql.jsonRows(List.of(Map.of("qty", 3), Map.of("qty", 5)), "test rows"));
+  }
+
+  @Test
+  void encodingFailureNamesTheRows() {
+    IllegalStateException ex =
+        assertThrows(
+            IllegalStateException.class,
+            () -> nativeSql.jsonRows(List.of(new Object()), "test rows"));
+    assertEquals("Could not encode test rows", ex.getMessage());
+  }
+
+  @Test
+  void mapsJdbcDatesAndTimestamps() {
+    LocalDate day = LocalDate.of(2026, 3, 1);
+    Instant instant = Instant.parse("2026-03-01T10:15:30Z");
+
+    assertEquals(day, NativeSqlSupport.toLocalDate(Date.valueOf(day)));
+    assertEquals(day, NativeSqlSupport.toLocalDate(day));
+    assertEquals(instant, NativeSqlSupport.toInstant(Timestamp.from(instant)));
+    assertEquals(
+        instant, NativeSqlSupport.toInstant(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC)));
+    assertNull(NativeSqlSupport.toLocalDate(null));
+    assertNull(NativeSqlSupport.toInstant(null));
+  }
+}
@@ -65,6 +65,11 @@ class RlsPolicyEnforcementIT {
           -- sweep (the outbox-worker failure mode); tenant_id is informational for routing
           -- resolution, not an isolation boundary. Deliberately RLS-free.
           AND NOT (c.table_schema = 'public' AND c.table_name = 'stuck_event_publication')
+          -- public.scheduled_job_tenant_checkpoint records which tenants a cross-tenant job run
+          -- has finished (TenantFanOutExecutor). Written on the system pool between tenants, with
+          -- no ambient tenant; tenant_id is a progress marker, not tenant data. Deliberately
+          -- RLS-free.
+          AND NOT (c.table_schema = 'public' AND c.table_name = 'scheduled_job_tenant_checkpoint')
           AND (
             pc.relrowsecurity = false
             OR pc.relforcerowsecurity = false
@@ -0,0 +1,163 @@
+package com.fabricmanagement.common.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Proves that reusing tenant bindings across pooled connections keeps RLS isolation.
+ *
+ * <p>The pool holds a single {@code NOBYPASSRLS} connection, so every checkout reuses the same
+ * physical connection and whatever the previous checkout left bound to it.
+ */
+@Testcontainers
+@DisabledIf(value = "dockerNotAvailable", disabledReason = "Docker is not available")
+@DisplayName("TenantConnectionProvider binding reuse IT")
+class TenantConnectionBindingIT {
+
+  private static final String TENANT_A = "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+  private static final String TENANT_B = "bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb";
+
+  static boolean dockerNotAvailable() {
+    return !org.testcontainers.DockerClientFactory.instance().isDockerAvailable();
+  }
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+          .withDatabaseName("fabric_test")
+          .withUsername("fabric_owner")
+          .withPassword("fabric123");
+
+  private static HikariDataSource appPool;
+
+  private SimpleMeterRegistry meterRegistry;
+  private TenantConnectionProvider provider;
+
+  @BeforeAll
+  static void createSchema() throws SQLException {
+    try (Connection conn =
+            DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Statement stmt = conn.createStatement()) {
+      stmt.execute(
+          "CREATE ROLE binding_app LOGIN NOSUPERUSER NOBYPASSRLS PASSWORD 'binding_app'");
+      stmt.execute("CREATE TABLE binding_probe (tenant_id uuid NOT NULL, label text NOT NULL)");
+      stmt.execute("ALTER TABLE binding_probe ENABLE ROW LEVEL SECURITY");
+      stmt.execute(
+          "CREATE POLICY rls_tenant_isolation ON binding_probe "
+              + "USING (tenant_id = current_setting('app.current_tenant', true)::uuid)");
+      stmt.execute("GRANT SELECT ON binding_probe TO binding_app");
+      stmt.execute(
+          "INSERT INTO binding_probe VALUES ('" + TENANT_A + "', 'A'), ('" + TENANT_B + "', 'B')");
+    }
+
+    appPool = new HikariDataSource();
+    appPool.setJdbcUrl(postgres.getJdbcUrl());
+    appPool.setUsername("binding_app");
+    appPool.setPassword("binding_app");
+    appPool.setMaximumPoolSize(1);
+  }
+
+  @AfterAll
+  static void closePool() {
+    appPool.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    provider = new TenantConnectionProvider(appPool, meterRegistry, true);
+  }
+
+  @Test
+  void alternatingTenantsOnOnePhysicalConnectionSeeOnlyTheirOwnRows() throws SQLException {
+    assertThat(labelsAs(TENANT_A)).containsExactly("A");
+    assertThat(labelsAs(TENANT_A)).containsExactly("A");
+    assertThat(labelsAs(TENANT_B)).containsExactly("B");
+    assertThat(labelsAs(TENANT_A)).containsExactly("A");
+
+    assertThat(count("bound")).isEqualTo(3);
+    assertThat(count("reused")).isEqualTo(1);
+  }
+
+  @Test
+  void anyConnectionCarriesNoTenantAfterATenantCheckout() throws SQLException {
+    assertThat(labelsAs(TENANT_A)).containsExactly("A");
+
+    Connection connection = provider.getAnyConnection();
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs =
+            stmt.executeQuery("SELECT coalesce(current_setting('app.current_tenant', true), '')")) {
+      rs.next();
+      assertThat(rs.getString(1)).isEmpty();
+    } finally {
+      provider.releaseAnyConnection(connection);
+    }
+  }
+
+  @Test
+  void connectionReboundInsideATransactionIsBoundAgainOnTheNextCheckout() throws SQLException {
+    assertThat(labelsAs(TENANT_A)).containsExactly("A");
+
+    Connection connection = provider.getConnection(TENANT_A);
+    try {
+      connection.setAutoCommit(false);
+      try (Statement stmt = connection.createStatement()) {
+        stmt.execute("SELECT set_config('app.current_tenant', '" + TENANT_B + "', false)");
+      }
+      provider.forgetBinding(connection);
+      assertThat(labels(connection)).containsExactly("B");
+      connection.commit();
+      connection.setAutoCommit(true);
+    } finally {
+      provider.releaseConnection(TENANT_A, connection);
+    }
+
+    assertThat(labelsAs(TENANT_A)).containsExactly("A");
+    assertThat(count("cleared")).isEqualTo(1);
+  }
+
+  private List<String> labelsAs(String tenantIdentifier) throws SQLException {
+    Connection connection = provider.getConnection(tenantIdentifier);
+    try {
+      return labels(connection);
+    } finally {
+      provider.releaseConnection(tenantIdentifier, connection);
+    }
+  }
+
+  private static List<String> labels(Connection connection) throws SQLException {
+    List<String> labels = new ArrayList<>();
+    try (Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT label FROM binding_probe ORDER BY label")) {
+      while (rs.next()) {
+        labels.add(rs.getString(1));
+      }
+    }
+    return labels;
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.counter("tenant.connection.binding", "outcome", outcome).count();
+  }
+}
@@ -0,0 +1,151 @@
+package com.fabricmanagement.common.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TenantConnectionProviderTest {
+
+  private static final String TENANT_A = "aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa";
+  private static final String TENANT_B = "bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb";
+
+  @Mock private DataSource dataSource;
+  @Mock private Connection connection;
+  @Mock private PreparedStatement statement;
+
+  private SimpleMeterRegistry meterRegistry;
+  private TenantConnectionProvider provider;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    meterRegistry = new SimpleMeterRegistry();
+    provider = new TenantConnectionProvider(dataSource, meterRegistry, true);
+    lenient().when(dataSource.getConnection()).thenReturn(connection);
+    lenient().when(connection.prepareStatement(anyString())).thenReturn(statement);
+    lenient().when(connection.getAutoCommit()).thenReturn(true);
+  }
+
+  @Test
+  void secondCheckoutForTheSameTenantSkipsTheBind() throws SQLException {
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+
+    verify(statement, times(1)).setString(1, TENANT_A);
+    verify(statement, times(1)).execute();
+    verify(connection, times(2)).close();
+    assertThat(count("bound")).isEqualTo(1);
+    assertThat(count("reused")).isEqualTo(1);
+    assertThat(count("cleared")).isZero();
+  }
+
+  @Test
+  void checkoutForAnotherTenantRebindsTheConnection() throws SQLException {
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+    provider.releaseConnection(TENANT_B, provider.getConnection(TENANT_B));
+
+    InOrder order = inOrder(statement);
+    order.verify(statement).setString(1, TENANT_A);
+    order.verify(statement).setString(1, TENANT_B);
+    assertThat(count("bound")).isEqualTo(2);
+    assertThat(count("reused")).isZero();
+  }
+
+  @Test
+  void bindingMadeInsideATransactionIsClearedOnRelease() throws SQLException {
+    when(connection.getAutoCommit()).thenReturn(false);
+
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+    provider.getConnection(TENANT_A);
+
+    InOrder order = inOrder(statement);
+    order.verify(statement).setString(1, TENANT_A);
+    order.verify(statement).setString(1, null);
+    order.verify(statement).setString(1, TENANT_A);
+    assertThat(count("reused")).isZero();
+  }
+
+  @Test
+  void forgottenBindingIsClearedOnReleaseAndBoundAgainOnCheckout() throws SQLException {
+    Connection checkedOut = provider.getConnection(TENANT_A);
+    provider.forgetBinding(checkedOut);
+    provider.releaseConnection(TENANT_A, checkedOut);
+    provider.getConnection(TENANT_A);
+
+    InOrder order = inOrder(statement);
+    order.verify(statement).setString(1, TENANT_A);
+    order.verify(statement).setString(1, null);
+    order.verify(statement).setString(1, TENANT_A);
+    assertThat(count("cleared")).isEqualTo(1);
+  }
+
+  @Test
+  void anyConnectionNeverCarriesATenantBinding() throws SQLException {
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+
+    provider.releaseAnyConnection(provider.getAnyConnection());
+    provider.releaseAnyConnection(provider.getAnyConnection());
+
+    verify(statement, times(1)).setString(1, null);
+    assertThat(count("cleared")).isEqualTo(1);
+  }
+
+  @Test
+  void failedBindClosesTheConnectionAndIsNotRemembered() throws SQLException {
+    when(statement.execute()).thenThrow(new SQLException("boom")).thenReturn(true);
+
+    assertThatThrownBy(() -> provider.getConnection(TENANT_A))
+        .isInstanceOf(SQLException.class)
+        .hasMessage("Could not bind tenant to connection");
+    verify(connection).close();
+
+    provider.getConnection(TENANT_A);
+    verify(statement, times(2)).setString(1, TENANT_A);
+  }
+
+  @Test
+  void failedClearAbortsTheConnection() throws SQLException {
+    when(connection.getAutoCommit()).thenReturn(false);
+    Connection checkedOut = provider.getConnection(TENANT_A);
+    when(statement.execute()).thenThrow(new SQLException("boom"));
+
+    provider.releaseConnection(TENANT_A, checkedOut);
+
+    verify(connection).abort(any());
+    verify(connection, never()).close();
+  }
+
+  @Test
+  void reuseDisabledBindsAndClearsEveryCheckout() throws SQLException {
+    provider = new TenantConnectionProvider(dataSource, new SimpleMeterRegistry(), false);
+
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+    provider.releaseConnection(TENANT_A, provider.getConnection(TENANT_A));
+
+    verify(statement, times(2)).setString(1, TENANT_A);
+    verify(statement, times(2)).setString(1, null);
+  }
+
+  private double count(String outcome) {
+    return meterRegistry.counter("tenant.connection.binding", "outcome", outcome).count();
+  }
+}
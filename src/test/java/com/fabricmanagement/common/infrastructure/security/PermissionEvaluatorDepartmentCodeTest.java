@@ -10,6 +10,7 @@ import com.fabricmanagement.platform.user.domain.PermissionTemplate;
 import com.fabricmanagement.platform.user.infra.repository.PermissionOverrideRepository;
 import com.fabricmanagement.platform.user.infra.repository.PermissionTemplateRepository;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -56,7 +57,11 @@ class PermissionEvaluatorDepartmentCodeTest {
                     ? List.of()
                     : defaultValue(method.getReturnType()));
     PermissionEvaluator evaluator =
-        new PermissionEvaluator(templateRepository, overrideRepository, departmentRepository);
+        new PermissionEvaluator(
+            templateRepository,
+            overrideRepository,
+            departmentRepository,
+            new PermissionSnapshotCache(Duration.ofHours(1), 100));
 
     PermissionResult result =
         evaluator.evaluate(TENANT_ID, "WORKER", List.of(department.code()), USER_ID);
@@ -0,0 +1,130 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.security.dto.PermissionResult;
+import com.fabricmanagement.platform.organization.infra.repository.DepartmentRepository;
+import com.fabricmanagement.platform.user.domain.DataScope;
+import com.fabricmanagement.platform.user.domain.PermissionOverride;
+import com.fabricmanagement.platform.user.domain.PermissionTemplate;
+import com.fabricmanagement.platform.user.infra.repository.PermissionOverrideRepository;
+import com.fabricmanagement.platform.user.infra.repository.PermissionTemplateRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PermissionEvaluator snapshot cache (Unit Test)")
+class PermissionEvaluatorSnapshotCacheTest {
+
+  private static final UUID TENANT_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final UUID ALICE = UUID.fromString("20000000-0000-0000-0000-000000000001");
+  private static final UUID BOB = UUID.fromString("20000000-0000-0000-0000-000000000002");
+
+  @Mock private PermissionTemplateRepository templateRepository;
+  @Mock private PermissionOverrideRepository overrideRepository;
+  @Mock private DepartmentRepository departmentRepository;
+
+  private PermissionSnapshotCache snapshotCache;
+  private PermissionEvaluator evaluator;
+
+  @BeforeEach
+  void setUp() {
+    snapshotCache = new PermissionSnapshotCache(Duration.ofHours(4), 1_000);
+    evaluator =
+        new PermissionEvaluator(
+            templateRepository, overrideRepository, departmentRepository, snapshotCache);
+    when(departmentRepository.findAncestorCodes(eq(TENANT_ID), anyString()))
+        .thenAnswer(invocation -> List.of(invocation.getArgument(1, String.class)));
+    when(templateRepository.findEffectiveTemplatesForDepartments(
+            eq(TENANT_ID), eq("WORKER"), anyList()))
+        .thenReturn(List.of(template("FINANCE", "invoices", "read", DataScope.DEPARTMENT)));
+  }
+
+  @Test
+  @DisplayName("Should share one compiled snapshot across users with the same role and departments")
+  void shouldShareSnapshotAcrossUsers() {
+    when(overrideRepository.findActiveOverrides(eq(TENANT_ID), any())).thenReturn(List.of());
+
+    PermissionResult alice = evaluator.evaluate(TENANT_ID, "WORKER", List.of("FINANCE"), ALICE);
+    PermissionResult bob =
+        evaluator.evaluate(TENANT_ID, "WORKER", List.of("FINANCE", "FINANCE"), BOB);
+
+    assertThat(alice.scopeOf("invoices", "read")).isEqualTo(DataScope.DEPARTMENT);
+    assertThat(bob).isSameAs(alice);
+    verify(departmentRepository, times(1)).findAncestorCodes(TENANT_ID, "FINANCE");
+    verify(templateRepository, times(1))
+        .findEffectiveTemplatesForDepartments(eq(TENANT_ID), eq("WORKER"), anyList());
+  }
+
+  @Test
+  @DisplayName("Should recompile after the tenant is invalidated")
+  void shouldRecompileAfterInvalidation() {
+    when(overrideRepository.findActiveOverrides(eq(TENANT_ID), any())).thenReturn(List.of());
+    evaluator.evaluate(TENANT_ID, "WORKER", List.of("FINANCE"), ALICE);
+
+    snapshotCache.invalidateTenant(TENANT_ID);
+    evaluator.evaluate(TENANT_ID, "WORKER", List.of("FINANCE"), ALICE);
+
+    verify(templateRepository, times(2))
+        .findEffectiveTemplatesForDepartments(eq(TENANT_ID), eq("WORKER"), anyList());
+    verify(overrideRepository, times(2)).findActiveOverrides(TENANT_ID, ALICE);
+  }
+
+  @Test
+  @DisplayName("Should layer user overrides on the shared snapshot without mutating it")
+  void shouldLayerOverridesPerUser() {
+    when(overrideRepository.findActiveOverrides(TENANT_ID, ALICE))
+        .thenReturn(
+            List.of(
+                override("invoices", "read", null, null),
+                override("invoices", "approve", DataScope.GLOBAL, null),
+                override("payments", "read", DataScope.OWN, Instant.now().minusSeconds(60))));
+    when(overrideRepository.findActiveOverrides(TENANT_ID, BOB)).thenReturn(List.of());
+
+    PermissionResult alice = evaluator.evaluate(TENANT_ID, "WORKER", List.of("FINANCE"), ALICE);
+    PermissionResult bob = evaluator.evaluate(TENANT_ID, "WORKER", List.of("FINANCE"), BOB);
+
+    assertThat(alice.can("invoices", "read")).isFalse();
+    assertThat(alice.scopeOf("invoices", "approve")).isEqualTo(DataScope.GLOBAL);
+    assertThat(alice.can("payments", "read")).as("expired override").isFalse();
+    assertThat(bob.scopeOf("invoices", "read")).isEqualTo(DataScope.DEPARTMENT);
+    assertThat(bob.can("invoices", "approve")).isFalse();
+  }
+
+  private static PermissionTemplate template(
+      String departmentCode, String resource, String action, DataScope scope) {
+    return PermissionTemplate.builder()
+        .roleCode("WORKER")
+        .departmentCode(departmentCode)
+        .resource(resource)
+        .action(action)
+        .dataScope(scope)
+        .build();
+  }
+
+  private static PermissionOverride override(
+      String resource, String action, DataScope scope, Instant expiresAt) {
+    return PermissionOverride.builder()
+        .userId(ALICE)
+        .resource(resource)
+        .action(action)
+        .dataScope(scope)
+        .expiresAt(expiresAt)
+        .build();
+  }
+}
@@ -0,0 +1,90 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.platform.user.domain.DataScope;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+class PermissionExpressionParserTest {
+
+  private final PermissionExpressionParser parser = new PermissionExpressionParser();
+  private final SpELPermissionEvaluator evaluator = mock(SpELPermissionEvaluator.class);
+  private final Authentication authentication =
+      new UsernamePasswordAuthenticationToken("user", null, List.of());
+
+  private StandardEvaluationContext context;
+
+  @BeforeEach
+  void setUp() {
+    context = new StandardEvaluationContext(new SecurityExpressionRoot(authentication) {});
+    context.setBeanResolver((ctx, name) -> "auth".equals(name) ? evaluator : null);
+  }
+
+  @Test
+  void canCheckIsResolvedWhenParsed() {
+    PermissionKeys.Permission salesRead = PermissionKeys.Permission.of("sales", "read");
+    when(evaluator.can(authentication, salesRead)).thenReturn(true);
+
+    Expression expression = parser.parseExpression("@auth.can(authentication, 'sales', 'read')");
+
+    assertThat(expression.getValue(context, Boolean.class)).isTrue();
+    assertThat(expression.getValue(context)).isEqualTo(true);
+    verify(evaluator, never()).can(any(), anyString(), anyString());
+  }
+
+  @Test
+  void hasScopeCheckParsesTheScopeWhenParsed() {
+    PermissionKeys.Permission salesRead = PermissionKeys.Permission.of("sales", "read");
+    when(evaluator.hasScope(authentication, salesRead, DataScope.ORGANIZATION)).thenReturn(true);
+
+    Expression expression =
+        parser.parseExpression("@auth.hasScope(authentication, 'sales', 'read', 'organization')");
+
+    assertThat(expression.getValue(context, Boolean.class)).isTrue();
+    verify(evaluator, never()).hasScope(any(), anyString(), anyString(), anyString());
+  }
+
+  @Test
+  void combinedExpressionsAreLeftToSpel() {
+    when(evaluator.can(authentication, "sales", "write")).thenReturn(true);
+
+    Expression expression =
+        parser.parseExpression("@auth.can(authentication, 'sales', 'write') or false");
+
+    assertThat(expression.getValue(context, Boolean.class)).isTrue();
+    verify(evaluator).can(authentication, "sales", "write");
+  }
+
+  @Test
+  void checkOutsideASecurityRootFallsBackToSpel() {
+    StandardEvaluationContext plain = new StandardEvaluationContext(new Root(authentication));
+    plain.setBeanResolver(context.getBeanResolver());
+    when(evaluator.can(authentication, "sales", "read")).thenReturn(true);
+
+    Expression expression = parser.parseExpression("@auth.can(authentication, 'sales', 'read')");
+
+    assertThat(expression.getValue(plain, Boolean.class)).isTrue();
+    verify(evaluator).can(authentication, "sales", "read");
+  }
+
+  /** A root that only exposes {@code authentication}, as a hand-built context might. */
+  public record Root(Authentication authentication) {
+
+    public Authentication getAuthentication() {
+      return authentication;
+    }
+  }
+}
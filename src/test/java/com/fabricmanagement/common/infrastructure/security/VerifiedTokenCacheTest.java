@@ -0,0 +1,136 @@
+package com.fabricmanagement.common.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.platform.auth.app.JwtService;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VerifiedTokenCache (Unit Test)")
+class VerifiedTokenCacheTest {
+
+  private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+  private static final UUID USER_ID = UUID.fromString("20000000-0000-0000-0000-000000000001");
+  private static final UUID TENANT_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final String TOKEN = "header.payload.signature";
+
+  @Mock private JwtService jwtService;
+
+  private MutableClock clock;
+  private SimpleMeterRegistry meterRegistry;
+  private VerifiedTokenCache cache;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(NOW);
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new VerifiedTokenCache(jwtService, clock, meterRegistry, 100);
+  }
+
+  @Test
+  @DisplayName("second request with the same token skips verification")
+  void repeatedTokenIsVerifiedOnce() {
+    when(jwtService.verify(TOKEN)).thenReturn(verified("ADMIN", "INTERNAL", NOW.plusSeconds(900)));
+
+    VerifiedTokenCache.Entry first = cache.verify(TOKEN).orElseThrow();
+    VerifiedTokenCache.Entry second = cache.verify(TOKEN).orElseThrow();
+
+    assertThat(second).isSameAs(first);
+    assertThat(first.userContext().userId()).isEqualTo(USER_ID);
+    assertThat(first.userContext().tenantId()).isEqualTo(TENANT_ID);
+    verify(jwtService, times(1)).verify(TOKEN);
+    assertThat(meterRegistry.get("security.jwt.verification").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("cached entry is not served past the token's exp")
+  void expiredEntryIsReverified() {
+    when(jwtService.verify(TOKEN))
+        .thenReturn(verified("ADMIN", "INTERNAL", NOW.plusSeconds(60)))
+        .thenThrow(new ExpiredJwtException(null, null, "expired"));
+
+    assertThat(cache.verify(TOKEN)).isPresent();
+    clock.advance(Duration.ofSeconds(61));
+
+    assertThat(cache.verify(TOKEN)).isEmpty();
+    verify(jwtService, times(2)).verify(TOKEN);
+  }
+
+  @Test
+  @DisplayName("invalid tokens are not cached")
+  void invalidTokenIsNotCached() {
+    when(jwtService.verify(TOKEN)).thenThrow(new IllegalArgumentException("bad user_id"));
+
+    assertThat(cache.verify(TOKEN)).isEmpty();
+    assertThat(cache.verify(TOKEN)).isEmpty();
+    verify(jwtService, times(2)).verify(TOKEN);
+  }
+
+  @Test
+  @DisplayName("authority lists are shared across tokens with the same role")
+  void authoritiesAreInterned() {
+    List<?> admin = VerifiedTokenCache.authorities("admin", "INTERNAL");
+    List<?> partner = VerifiedTokenCache.authorities("VIEWER", "PARTNER");
+
+    assertThat(VerifiedTokenCache.authorities("ADMIN", "INTERNAL")).isSameAs(admin);
+    assertThat(admin).extracting(Object::toString).containsExactly("ROLE_ADMIN", "ADMIN");
+    assertThat(partner)
+        .extracting(Object::toString)
+        .containsExactly("ROLE_PARTNER_USER", "PARTNER_USER", "ROLE_VIEWER", "VIEWER");
+  }
+
+  private static JwtService.VerifiedToken verified(
+      String roleCode, String userType, Instant expiresAt) {
+    return new JwtService.VerifiedToken(
+        new JwtService.AuthTokenClaims(
+            USER_ID, roleCode, userType, List.of("SALES"), "SALES", TENANT_ID, false, null, null),
+        false,
+        "ACME",
+        expiresAt);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
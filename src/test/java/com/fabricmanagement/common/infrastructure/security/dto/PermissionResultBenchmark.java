@@ -0,0 +1,131 @@
+package com.fabricmanagement.common.infrastructure.security.dto;
+
+import static com.fabricmanagement.testsupport.Benchmarks.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.infrastructure.security.PermissionKeys;
+import com.fabricmanagement.common.infrastructure.security.PermissionRegistry;
+import com.fabricmanagement.platform.user.domain.DataScope;
+import com.fabricmanagement.testsupport.Benchmarks;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Synthetic benchmark of permission checks: one million {@code hasScope}-style checks against a
+ * user granted a third of the registered resource/action pairs, once the previous way (two map
+ * lookups plus {@code DataScope.valueOf(required.toUpperCase())} per check), once through the
+ * compiled {@link PermissionResult} table by name, and once with the names resolved in advance as
+ * a parsed {@code @PreAuthorize} expression does. Run it with {@code mvn test
+ * -Dtest=PermissionResultBenchmark}.
+ */
+class PermissionResultBenchmark {
+
+  private static final int CHECKS = 1_000_000;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final Map<String, DataScope> SCOPE_BY_NAME = new ConcurrentHashMap<>();
+
+  @Test
+  void oneMillionScopeChecks() {
+    Random random = new Random(42);
+    DataScope[] scopes = DataScope.values();
+    List<String> resources = new ArrayList<>(PermissionRegistry.VALID_RESOURCES);
+    List<String> actions = new ArrayList<>(PermissionRegistry.VALID_ACTIONS);
+
+    Map<String, Map<String, DataScope>> permissions = new HashMap<>();
+    for (String resource : resources) {
+      for (String action : actions) {
+        if (random.nextInt(3) == 0) {
+          permissions
+              .computeIfAbsent(resource, r -> new HashMap<>())
+              .put(action, scopes[random.nextInt(scopes.length)]);
+        }
+      }
+    }
+    PermissionResult compiled = new PermissionResult(permissions, false);
+
+    List<Check> checks = new ArrayList<>(CHECKS);
+    for (int i = 0; i < CHECKS; i++) {
+      checks.add(
+          new Check(
+              resources.get(random.nextInt(resources.size())),
+              actions.get(random.nextInt(actions.size())),
+              scopes[random.nextInt(scopes.length)].name().toLowerCase(Locale.ROOT)));
+    }
+
+    List<ResolvedCheck> resolvedChecks =
+        checks.stream()
+            .map(
+                check ->
+                    new ResolvedCheck(
+                        PermissionKeys.Permission.of(check.resource(), check.action()),
+                        DataScope.valueOf(check.requiredScope().toUpperCase(Locale.ROOT))))
+            .toList();
+
+    Map<String, Long> granted =
+        Benchmarks.compare(
+            "PermissionResult",
+            "checks=" + CHECKS + " grants=" + compiled.toList().size(),
+            WARMUP_ROUNDS,
+            MEASURED_ROUNDS,
+            variant("nestedMaps", () -> nestedMaps(permissions, checks)),
+            variant("compiled", () -> compiled(compiled, checks)),
+            variant("resolved", () -> resolved(compiled, resolvedChecks)));
+
+    assertThat(granted.get("compiled")).isPositive().isEqualTo(granted.get("nestedMaps"));
+    assertThat(granted.get("resolved")).isEqualTo(granted.get("nestedMaps"));
+  }
+
+  /** The previous lookup: nested maps, and the required scope parsed on every call. */
+  private static long nestedMaps(
+      Map<String, Map<String, DataScope>> permissions, List<Check> checks) {
+    long granted = 0;
+    for (Check check : checks) {
+      Map<String, DataScope> actions = permissions.get(check.resource());
+      DataScope actual = actions == null ? null : actions.get(check.action());
+      DataScope required = DataScope.valueOf(check.requiredScope().toUpperCase(Locale.ROOT));
+      if (actual != null && actual.ordinal() >= required.ordinal()) {
+        granted++;
+      }
+    }
+    return granted;
+  }
+
+  /** The current lookup, with the required scope parsed once per literal as the evaluator does. */
+  private static long compiled(PermissionResult result, List<Check> checks) {
+    long granted = 0;
+    for (Check check : checks) {
+      DataScope actual = result.scopeOf(check.resource(), check.action());
+      DataScope required =
+          SCOPE_BY_NAME.computeIfAbsent(
+              check.requiredScope(), name -> DataScope.valueOf(name.toUpperCase(Locale.ROOT)));
+      if (actual != null && actual.ordinal() >= required.ordinal()) {
+        granted++;
+      }
+    }
+    return granted;
+  }
+
+  /** Checks resolved when the expression is parsed: an id pair and a scope. */
+  private static long resolved(PermissionResult result, List<ResolvedCheck> checks) {
+    long granted = 0;
+    for (ResolvedCheck check : checks) {
+      DataScope actual = result.scopeOf(check.permission());
+      if (actual != null && actual.ordinal() >= check.requiredScope().ordinal()) {
+        granted++;
+      }
+    }
+    return granted;
+  }
+
+  private record Check(String resource, String action, String requiredScope) {}
+
+  private record ResolvedCheck(PermissionKeys.Permission permission, DataScope requiredScope) {}
+}
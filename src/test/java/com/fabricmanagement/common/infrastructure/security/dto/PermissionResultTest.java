@@ -0,0 +1,75 @@
+package com.fabricmanagement.common.infrastructure.security.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.infrastructure.security.PermissionKeys;
+import com.fabricmanagement.platform.user.domain.DataScope;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PermissionResult (Unit Test)")
+class PermissionResultTest {
+
+  @Test
+  @DisplayName("Should answer registered and template-only resources from the compiled table")
+  void shouldResolveCompiledScopes() {
+    PermissionResult result =
+        new PermissionResult(
+            Map.of(
+                "sales", Map.of("read", DataScope.ORGANIZATION, "write", DataScope.OWN),
+                "invoices-archive", Map.of("purge", DataScope.GLOBAL)),
+            false);
+
+    assertThat(result.scopeOf("sales", "read")).isEqualTo(DataScope.ORGANIZATION);
+    assertThat(result.scopeOf("sales", "write")).isEqualTo(DataScope.OWN);
+    assertThat(result.can("sales", "delete")).isFalse();
+    assertThat(result.scopeOf("invoices-archive", "purge")).isEqualTo(DataScope.GLOBAL);
+    assertThat(result.can("fiber", "read")).isFalse();
+    assertThat(result.can("never-seen", "read")).isFalse();
+    assertThat(result.scopeOf(null, "read")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should answer pairs resolved in advance like their names")
+  void shouldResolvePermissionsResolvedInAdvance() {
+    PermissionKeys.Permission salesRead = PermissionKeys.Permission.of("sales", "read");
+    PermissionKeys.Permission lateRead = PermissionKeys.Permission.of("resolved-early", "read");
+    PermissionResult result =
+        new PermissionResult(
+            Map.of(
+                "sales", Map.of("read", DataScope.DEPARTMENT),
+                "resolved-early", Map.of("read", DataScope.OWN)),
+            false);
+
+    assertThat(result.scopeOf(salesRead)).isEqualTo(DataScope.DEPARTMENT);
+    assertThat(result.can(lateRead)).isTrue();
+    assertThat(result.can(PermissionKeys.Permission.of("sales", "delete"))).isFalse();
+    assertThat(new PermissionResult(Map.of(), true).scopeOf(salesRead))
+        .isEqualTo(DataScope.GLOBAL);
+  }
+
+  @Test
+  @DisplayName("Should grant everything to super admins with an empty map")
+  void shouldGrantEverythingToSuperAdmin() {
+    PermissionResult result = new PermissionResult(Map.of(), true);
+
+    assertThat(result.can("anything", "at-all")).isTrue();
+    assertThat(result.scopeOf("sales", "read")).isEqualTo(DataScope.GLOBAL);
+  }
+
+  @Test
+  @DisplayName("Should keep map semantics for equality and listing")
+  void shouldKeepMapSemantics() {
+    Map<String, Map<String, DataScope>> permissions = new HashMap<>();
+    permissions.put("quality", Map.of("approve", DataScope.DEPARTMENT));
+
+    PermissionResult result = new PermissionResult(permissions, false);
+
+    assertThat(result).isEqualTo(new PermissionResult(Map.copyOf(permissions), false));
+    assertThat(result.toList())
+        .containsExactly(new EffectivePermission("quality", "approve", DataScope.DEPARTMENT));
+    assertThat(new PermissionResult(null, false).can("quality", "approve")).isFalse();
+  }
+}
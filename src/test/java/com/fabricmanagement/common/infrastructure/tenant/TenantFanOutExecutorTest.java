@@ -0,0 +1,224 @@
+package com.fabricmanagement.common.infrastructure.tenant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class TenantFanOutExecutorTest {
+
+  private static final String JOB = "test-job";
+  private static final String RUN_KEY = "2026-08-06";
+
+  private final TenantReference first = tenant("FIRST");
+  private final TenantReference second = tenant("SECOND");
+  private final TenantReference third = tenant("THIRD");
+
+  @Mock private TenantQueryPort tenantQueryPort;
+  @Mock private TenantJobLeaseStore leaseStore;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    lenient().when(leaseStore.tryAcquire(eq(JOB), any(), any(), any())).thenReturn(true);
+    lenient().when(leaseStore.renew(eq(JOB), any(), any())).thenReturn(true);
+    lenient()
+        .when(tenantQueryPort.findAllActiveTenants())
+        .thenReturn(List.of(first, second, third));
+  }
+
+  @Test
+  void leaseHeldElsewhereRunsNoTenant() {
+    when(leaseStore.tryAcquire(eq(JOB), any(), any(), any())).thenReturn(false);
+    AtomicInteger runs = new AtomicInteger();
+
+    TenantFanOutExecutor.Result result =
+        executor(4, Duration.ofSeconds(5)).run(JOB, RUN_KEY, tenant -> runs.incrementAndGet());
+
+    assertThat(result.leaseHeld()).isFalse();
+    assertThat(runs).hasValue(0);
+    verifyNoInteractions(tenantQueryPort);
+    verify(leaseStore, never()).release(any(), any(), any());
+    assertThat(meterRegistry.get("tenant.fanout.run.skipped").tag("job", JOB).counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void bindsTenantContextAndCheckpointsEachTenant() {
+    Map<UUID, UUID> boundTenants = new ConcurrentHashMap<>();
+
+    TenantFanOutExecutor.Result result =
+        executor(4, Duration.ofSeconds(5))
+            .run(
+                JOB,
+                RUN_KEY,
+                tenant -> boundTenants.put(tenant.id(), TenantContext.getCurrentTenantIdOrNull()));
+
+    assertThat(result.succeeded()).isEqualTo(3);
+    assertThat(boundTenants)
+        .containsEntry(first.id(), first.id())
+        .containsEntry(second.id(), second.id())
+        .containsEntry(third.id(), third.id());
+    verify(leaseStore).markCompleted(JOB, RUN_KEY, first.id());
+    verify(leaseStore).markCompleted(JOB, RUN_KEY, second.id());
+    verify(leaseStore).markCompleted(JOB, RUN_KEY, third.id());
+    verify(leaseStore).release(eq(JOB), any(), eq(Duration.ZERO));
+  }
+
+  @Test
+  void resumedRunSkipsCheckpointedTenants() {
+    when(leaseStore.findCompletedTenants(JOB, RUN_KEY)).thenReturn(Set.of(first.id()));
+    Set<UUID> ran = ConcurrentHashMap.newKeySet();
+
+    TenantFanOutExecutor.Result result =
+        executor(4, Duration.ofSeconds(5)).run(JOB, RUN_KEY, tenant -> ran.add(tenant.id()));
+
+    assertThat(ran).containsExactlyInAnyOrder(second.id(), third.id());
+    assertThat(result.resumed()).isEqualTo(1);
+    assertThat(result.succeeded()).isEqualTo(2);
+  }
+
+  @Test
+  void failedTenantIsNotCheckpointedAndDoesNotStopOthers() {
+    TenantFanOutExecutor.Result result =
+        executor(1, Duration.ofSeconds(5))
+            .run(
+                JOB,
+                RUN_KEY,
+                tenant -> {
+                  if (tenant.id().equals(second.id())) {
+                    throw new IllegalStateException("boom");
+                  }
+                });
+
+    assertThat(result.failed()).isEqualTo(1);
+    assertThat(result.succeeded()).isEqualTo(2);
+    verify(leaseStore, never()).markCompleted(JOB, RUN_KEY, second.id());
+    assertThat(
+            meterRegistry
+                .get("tenant.fanout.tenant")
+                .tag("job", JOB)
+                .tag("outcome", "failure")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void slowTenantTimesOutAndIsInterrupted() throws InterruptedException {
+    when(tenantQueryPort.findAllActiveTenants()).thenReturn(List.of(first));
+    CountDownLatch interrupted = new CountDownLatch(1);
+
+    TenantFanOutExecutor.Result result =
+        executor(1, Duration.ofMillis(50))
+            .run(
+                JOB,
+                RUN_KEY,
+                tenant -> {
+                  try {
+                    Thread.sleep(Duration.ofSeconds(30));
+                  } catch (InterruptedException e) {
+                    interrupted.countDown();
+                  }
+                });
+
+    assertThat(result.timedOut()).isEqualTo(1);
+    assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(leaseStore, never()).markCompleted(any(), any(), any());
+    assertThat(
+            meterRegistry
+                .get("tenant.fanout.tenant")
+                .tag("job", JOB)
+                .tag("outcome", "timeout")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void runWithoutKeyNeitherReadsNorWritesCheckpointsAndKeepsTheLease() {
+    executor(4, Duration.ofSeconds(5)).run(JOB, null, tenant -> {});
+
+    verify(leaseStore, never()).findCompletedTenants(any(), any());
+    verify(leaseStore, never()).markCompleted(any(), any(), any());
+    verify(leaseStore).release(eq(JOB), any(), eq(Duration.ofMinutes(10)));
+  }
+
+  @Test
+  void heartbeatRenewsTheLeaseWhileTenantsWaitForAPermit() {
+    executor(1, Duration.ofSeconds(5), Duration.ofMillis(150))
+        .run(JOB, RUN_KEY, tenant -> sleep(Duration.ofMillis(100)));
+
+    verify(leaseStore, atLeastOnce()).renew(eq(JOB), any(), eq(Duration.ofMillis(150)));
+  }
+
+  @Test
+  void lostLeaseStopsStartingTenants() {
+    when(leaseStore.renew(eq(JOB), any(), any())).thenReturn(false);
+    AtomicInteger runs = new AtomicInteger();
+
+    executor(1, Duration.ofSeconds(5), Duration.ofMillis(150))
+        .run(
+            JOB,
+            RUN_KEY,
+            tenant -> {
+              runs.incrementAndGet();
+              sleep(Duration.ofMillis(300));
+            });
+
+    assertThat(runs).hasValue(1);
+  }
+
+  private TenantFanOutExecutor executor(int maxParallelism, Duration tenantTimeout) {
+    return executor(maxParallelism, tenantTimeout, Duration.ofMinutes(10));
+  }
+
+  private TenantFanOutExecutor executor(
+      int maxParallelism, Duration tenantTimeout, Duration leaseDuration) {
+    return new TenantFanOutExecutor(
+        tenantQueryPort,
+        leaseStore,
+        meterRegistry,
+        null,
+        maxParallelism,
+        tenantTimeout,
+        leaseDuration);
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static TenantReference tenant(String uid) {
+    return new TenantReference(UUID.randomUUID(), uid, uid + " Tenant", "TENANT");
+  }
+}
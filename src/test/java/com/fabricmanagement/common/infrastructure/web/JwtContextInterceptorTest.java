@@ -1,13 +1,17 @@
 package com.fabricmanagement.common.infrastructure.web;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.security.VerifiedTokenCache;
 import com.fabricmanagement.common.infrastructure.tenant.TenantQueryPort;
 import com.fabricmanagement.common.infrastructure.tenant.TrialLifecyclePort;
 import com.fabricmanagement.platform.auth.app.JwtService;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,12 +23,14 @@ import org.springframework.mock.web.MockHttpServletResponse;
 
 class JwtContextInterceptorTest {
 
-  private final JwtService jwtService = org.mockito.Mockito.mock(JwtService.class);
+  private final VerifiedTokenCache verifiedTokenCache =
+      org.mockito.Mockito.mock(VerifiedTokenCache.class);
   private final TenantQueryPort tenantQueryPort = org.mockito.Mockito.mock(TenantQueryPort.class);
   private final TrialLifecyclePort trialLifecyclePort =
       org.mockito.Mockito.mock(TrialLifecyclePort.class);
   private final JwtContextInterceptor interceptor =
-      new JwtContextInterceptor(jwtService, tenantQueryPort, Optional.of(trialLifecyclePort));
+      new JwtContextInterceptor(
+          verifiedTokenCache, tenantQueryPort, Optional.of(trialLifecyclePort));
 
   @AfterEach
   void tearDown() {
@@ -64,10 +70,35 @@ class JwtContextInterceptorTest {
     verify(trialLifecyclePort, never()).touchTenantActivity(tenantId);
   }
 
+  @Test
+  @DisplayName("takes the claims verified by the authentication filter from the request")
+  void shouldReuseEntryVerifiedByFilter() {
+    UUID tenantId = UUID.randomUUID();
+    MockHttpServletRequest request = request();
+    request.setAttribute(
+        VerifiedTokenCache.REQUEST_ATTRIBUTE, entry(authClaims(tenantId, false, null, null)));
+
+    interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+    assertThat(TenantContext.getCurrentTenantIdOrNull()).isEqualTo(tenantId);
+    assertThat(TenantContext.getCurrentTenantUid()).isEqualTo("ACME-001");
+    verifyNoInteractions(verifiedTokenCache, tenantQueryPort);
+  }
+
   private void arrangeToken(JwtService.AuthTokenClaims claims) {
-    when(jwtService.validateToken("token")).thenReturn(true);
-    when(jwtService.extractAuthContext("token")).thenReturn(claims);
-    when(jwtService.getTenantUidFromToken("token")).thenReturn("ACME-001");
+    when(verifiedTokenCache.verify("token")).thenReturn(Optional.of(entry(claims)));
+  }
+
+  private static VerifiedTokenCache.Entry entry(JwtService.AuthTokenClaims claims) {
+    return new VerifiedTokenCache.Entry(
+        claims,
+        null,
+        List.of(),
+        claims.userType(),
+        claims.partnerId(),
+        false,
+        "ACME-001",
+        Instant.now().plusSeconds(900));
   }
 
   private static MockHttpServletRequest request() {
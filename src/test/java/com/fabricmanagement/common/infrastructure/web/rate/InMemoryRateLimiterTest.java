@@ -0,0 +1,124 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("InMemoryRateLimiter (Unit Test)")
+class InMemoryRateLimiterTest {
+
+  private static final Instant WINDOW_START = Instant.parse("2026-08-01T10:00:00Z");
+
+  private final MutableClock clock = new MutableClock(WINDOW_START);
+  private final InMemoryRateLimiter limiter = new InMemoryRateLimiter(clock);
+
+  @Test
+  @DisplayName("Should reject requests beyond the limit within one window")
+  void shouldRejectBeyondLimit() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("rate:alice:60", 5, 60)).isTrue();
+    }
+    assertThat(limiter.tryAcquire("rate:alice:60", 5, 60)).isFalse();
+    assertThat(limiter.tryAcquire("rate:bob:60", 5, 60)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should weight the previous window by its remaining overlap")
+  void shouldWeightPreviousWindow() {
+    for (int i = 0; i < 4; i++) {
+      limiter.tryAcquire("rate:alice:60", 4, 60);
+    }
+
+    // 15s into the next window: 4 * 0.75 = 3 still count, so one request fits.
+    clock.advance(Duration.ofSeconds(75));
+    assertThat(limiter.tryAcquire("rate:alice:60", 4, 60)).isTrue();
+    assertThat(limiter.tryAcquire("rate:alice:60", 4, 60)).isFalse();
+
+    // A full idle window later the budget is back.
+    clock.advance(Duration.ofSeconds(120));
+    for (int i = 0; i < 4; i++) {
+      assertThat(limiter.tryAcquire("rate:alice:60", 4, 60)).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("Should evict counters idle for two windows")
+  void shouldEvictIdleCounters() {
+    limiter.tryAcquire("rate:alice:60", 5, 60);
+    limiter.evictIdleCounters();
+    assertThat(limiter.size()).isEqualTo(1);
+
+    clock.advance(Duration.ofSeconds(120));
+    limiter.evictIdleCounters();
+    assertThat(limiter.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should admit exactly the limit under concurrent callers")
+  void shouldAdmitExactlyLimitUnderContention() throws Exception {
+    int threads = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger admitted = new AtomicInteger();
+    try {
+      for (int t = 0; t < threads; t++) {
+        executor.submit(
+            () -> {
+              start.await();
+              for (int i = 0; i < 1_000; i++) {
+                if (limiter.tryAcquire("rate:alice:60", 500, 60)) {
+                  admitted.incrementAndGet();
+                }
+              }
+              return null;
+            });
+      }
+      start.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(admitted.get()).isEqualTo(500);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneOffset getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@DisplayName("PostgresRateLimiter (Unit Test)")
+class PostgresRateLimiterTest {
+
+  private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+  private final Clock clock = Clock.fixed(Instant.parse("2026-08-01T10:00:30Z"), ZoneOffset.UTC);
+  private final PostgresRateLimiter limiter = new PostgresRateLimiter(jdbcTemplate, clock);
+
+  @Test
+  @DisplayName("Should reject without a database round trip once this node exhausted the key")
+  @SuppressWarnings("unchecked")
+  void shouldRejectLocallyExhaustedKey() {
+    when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+        .thenReturn(1.0);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(limiter.tryAcquire("rate:alice:60", 3, 60)).isTrue();
+    }
+    assertThat(limiter.tryAcquire("rate:alice:60", 3, 60)).isFalse();
+    assertThat(limiter.tryAcquire("rate:alice:60", 3, 60)).isFalse();
+
+    verify(jdbcTemplate, times(3))
+        .queryForObject(anyString(), any(RowMapper.class), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("Should reject when the cluster-wide count exceeds the limit")
+  @SuppressWarnings("unchecked")
+  void shouldRejectOnClusterCount() {
+    when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+        .thenReturn(4.0);
+
+    assertThat(limiter.tryAcquire("rate:alice:60", 3, 60)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should allow the request when the store is unavailable")
+  @SuppressWarnings("unchecked")
+  void shouldFailOpen() {
+    when(jdbcTemplate.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    assertThat(limiter.tryAcquire("rate:alice:60", 3, 60)).isTrue();
+  }
+}
@@ -0,0 +1,79 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.web.exception.TooManyRequestsException;
+import java.util.List;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+@DisplayName("RateLimitAspect (Unit Test)")
+class RateLimitAspectTest {
+
+  private final RateLimiter rateLimiter = mock(RateLimiter.class);
+  private final RateLimitAspect aspect = new RateLimitAspect(rateLimiter);
+  private final ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Should pass unauthenticated requests through without counting")
+  void shouldSkipUnauthenticated() throws Throwable {
+    when(joinPoint.proceed()).thenReturn("ok");
+
+    assertThat(aspect.enforce(joinPoint, limit())).isEqualTo("ok");
+    verifyNoInteractions(rateLimiter);
+  }
+
+  @Test
+  @DisplayName("Should key the limit by principal and window")
+  void shouldProceedWhenAllowed() throws Throwable {
+    authenticate("alice");
+    when(rateLimiter.tryAcquire("rate:alice:60", 5, 60)).thenReturn(true);
+    when(joinPoint.proceed()).thenReturn("ok");
+
+    assertThat(aspect.enforce(joinPoint, limit())).isEqualTo("ok");
+  }
+
+  @Test
+  @DisplayName("Should throw 429 without invoking the endpoint when the limit is exhausted")
+  void shouldRejectWhenExhausted() throws Throwable {
+    authenticate("alice");
+    when(rateLimiter.tryAcquire(anyString(), anyInt(), anyInt())).thenReturn(false);
+
+    assertThatThrownBy(() -> aspect.enforce(joinPoint, limit()))
+        .isInstanceOf(TooManyRequestsException.class);
+    verify(joinPoint, never()).proceed();
+  }
+
+  private static void authenticate(String name) {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new UsernamePasswordAuthenticationToken(name, null, List.of()));
+  }
+
+  @RateLimited
+  private static RateLimited limit() {
+    try {
+      return RateLimitAspectTest.class
+          .getDeclaredMethod("limit")
+          .getAnnotation(RateLimited.class);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
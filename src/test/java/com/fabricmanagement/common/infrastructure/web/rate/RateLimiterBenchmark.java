@@ -0,0 +1,120 @@
+package com.fabricmanagement.common.infrastructure.web.rate;
+
+import static com.fabricmanagement.testsupport.Benchmarks.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.testsupport.Benchmarks;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Synthetic benchmark of the {@code @RateLimited} check under contention: 16 threads firing 80k
+ * checks at 8 principals, once through the previous aspect's per-key timestamp list and once
+ * through {@link InMemoryRateLimiter}. Not part of the regular build (surefire only picks up
+ * {@code *Test}); run it with {@code mvn test -Dtest=RateLimiterBenchmark}.
+ *
+ * <p>Each round starts from empty state with a one-hour window, so both ways admit exactly the
+ * limit per key and the rest of the checks are rejected. {@link PostgresRateLimiter} is not
+ * measured: its cost is the upsert round trip, which a stub would hide.
+ */
+class RateLimiterBenchmark {
+
+  private static final int THREADS = 16;
+  private static final int CHECKS_PER_THREAD = 5_000;
+  private static final int KEYS = 8;
+  private static final int LIMIT = 5_000;
+  private static final int WINDOW_SECONDS = 3_600;
+  private static final int WARMUP_ROUNDS = 2;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private final ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+
+  @AfterEach
+  void shutDown() {
+    workers.shutdownNow();
+  }
+
+  @Test
+  void sixteenThreadsOnEightKeys() {
+    Map<String, Integer> admitted =
+        Benchmarks.compare(
+            "RateLimiter",
+            "threads=" + THREADS + " checks=" + THREADS * CHECKS_PER_THREAD + " keys=" + KEYS,
+            WARMUP_ROUNDS,
+            MEASURED_ROUNDS,
+            variant("timestampList", () -> contend(new TimestampListLimiter())),
+            variant("slidingWindow", () -> contend(new InMemoryRateLimiter(Clock.systemUTC()))));
+
+    assertThat(admitted.get("timestampList")).isEqualTo(KEYS * LIMIT);
+    assertThat(admitted.get("slidingWindow")).isEqualTo(KEYS * LIMIT);
+  }
+
+  /** Releases all threads at once and returns how many checks were admitted. */
+  private int contend(RateLimiter limiter) {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>(THREADS);
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      results.add(
+          workers.submit(
+              () -> {
+                start.await();
+                int allowed = 0;
+                for (int i = 0; i < CHECKS_PER_THREAD; i++) {
+                  String key = "rate:user-" + (thread + i) % KEYS + ":" + WINDOW_SECONDS;
+                  if (limiter.tryAcquire(key, LIMIT, WINDOW_SECONDS)) {
+                    allowed++;
+                  }
+                }
+                return allowed;
+              }));
+    }
+    start.countDown();
+    int allowed = 0;
+    try {
+      for (Future<Integer> result : results) {
+        allowed += result.get(60, TimeUnit.SECONDS);
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException("Benchmark round failed", e);
+    }
+    return allowed;
+  }
+
+  /** The check {@code RateLimitAspect} made before the {@link RateLimiter} engines. */
+  private static final class TimestampListLimiter implements RateLimiter {
+
+    private final ConcurrentHashMap<String, Window> windowByKey = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryAcquire(String key, int maxRequests, int windowSeconds) {
+      Instant since = Instant.now().minusSeconds(windowSeconds);
+      Window window = windowByKey.computeIfAbsent(key, k -> new Window());
+      synchronized (window.lock) {
+        window.timestamps.removeIf(t -> t.isBefore(since));
+        if (window.timestamps.size() >= maxRequests) {
+          return false;
+        }
+        window.timestamps.add(Instant.now());
+        return true;
+      }
+    }
+
+    private static final class Window {
+      final Object lock = new Object();
+      final CopyOnWriteArrayList<Instant> timestamps = new CopyOnWriteArrayList<>();
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.fabricmanagement.common.infrastructure.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIf;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Two relay "nodes" on one database: what one node publishes reaches the other node's sessions,
+ * and each node's own sessions get it exactly once.
+ *
+ * <p>The nodes are two relay instances rather than two application contexts. Each has its own node
+ * id and its own LISTEN and NOTIFY connections, which is all that separates nodes on the wire. The
+ * STOMP broker behind each one is a mock {@link SimpMessagingTemplate}.
+ */
+@Testcontainers
+@DisabledIf(value = "dockerNotAvailable", disabledReason = "Docker is not available")
+@DisplayName("PostgresWebSocketRelay multi-node IT")
+class PostgresWebSocketRelayIT {
+
+  private static final Duration WAIT = Duration.ofSeconds(10);
+
+  static boolean dockerNotAvailable() {
+    return !org.testcontainers.DockerClientFactory.instance().isDockerAvailable();
+  }
+
+  @Container
+  @SuppressWarnings("resource")
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+          .withDatabaseName("fabric_test")
+          .withUsername("fabric_owner")
+          .withPassword("fabric123");
+
+  private SimpMessagingTemplate templateA;
+  private SimpMessagingTemplate templateB;
+  private SimpleMeterRegistry metersA;
+  private SimpleMeterRegistry metersB;
+  private PostgresWebSocketRelay nodeA;
+  private PostgresWebSocketRelay nodeB;
+
+  @BeforeEach
+  void startNodes() {
+    templateA = mock(SimpMessagingTemplate.class);
+    templateB = mock(SimpMessagingTemplate.class);
+    metersA = new SimpleMeterRegistry();
+    metersB = new SimpleMeterRegistry();
+    nodeA = node(templateA, metersA);
+    nodeB = node(templateB, metersB);
+    nodeA.start();
+    nodeB.start();
+    await().atMost(WAIT).until(() -> nodeA.isListening() && nodeB.isListening());
+  }
+
+  @AfterEach
+  void stopNodes() {
+    nodeA.stop();
+    nodeB.stop();
+  }
+
+  @Test
+  @DisplayName("user message published on A is delivered on B, and once on A")
+  void should_deliver_user_message_on_other_node() {
+    nodeA.sendToUser("user-1", "/queue/notifications", Map.of("title", "Stok azaldı"));
+
+    ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+    verify(templateB, timeout(WAIT.toMillis()))
+        .convertAndSendToUser(eq("user-1"), eq("/queue/notifications"), payload.capture());
+    assertThat(((JsonNode) payload.getValue()).get("title").asText()).isEqualTo("Stok azaldı");
+
+    verify(templateA, after(500).times(1))
+        .convertAndSendToUser(eq("user-1"), eq("/queue/notifications"), any());
+    assertThat(metersB.get("websocket.relay.latency").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("a burst arrives in order, packed into fewer NOTIFYs than messages")
+  void should_batch_burst_and_keep_order() {
+    int burst = 300;
+    for (int i = 0; i < burst; i++) {
+      nodeA.send("/topic/board/b1", Map.of("seq", i));
+    }
+
+    ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+    verify(templateB, timeout(WAIT.toMillis()).times(burst))
+        .convertAndSend(eq("/topic/board/b1"), payloads.capture());
+    List<Integer> received =
+        payloads.getAllValues().stream().map(p -> ((JsonNode) p).get("seq").asInt()).toList();
+    assertThat(received).isSorted().hasSize(burst);
+
+    var batches = metersA.get("websocket.relay.batch.size").summary();
+    assertThat(batches.totalAmount()).isEqualTo(burst);
+    assertThat(batches.count()).isLessThan(burst);
+  }
+
+  @Test
+  @DisplayName("a message too large for one NOTIFY stays local and is counted as dropped")
+  void should_drop_oversize_message_but_deliver_locally() {
+    nodeA.send("/topic/tenant/t1", Map.of("body", "x".repeat(10_000)));
+
+    verify(templateA).convertAndSend(eq("/topic/tenant/t1"), any(Object.class));
+    assertThat(
+            metersA.get("websocket.relay.dropped").tag("reason", "oversize").counter().count())
+        .isEqualTo(1);
+    verify(templateB, after(500).never()).convertAndSend(eq("/topic/tenant/t1"), any(Object.class));
+  }
+
+  private static PostgresWebSocketRelay node(
+      SimpMessagingTemplate template, SimpleMeterRegistry meterRegistry) {
+    var properties = new DataSourceProperties();
+    properties.setUrl(postgres.getJdbcUrl());
+    properties.setUsername(postgres.getUsername());
+    properties.setPassword(postgres.getPassword());
+    return new PostgresWebSocketRelay(
+        template,
+        properties,
+        new ObjectMapper(),
+        meterRegistry,
+        1_000,
+        Duration.ofMillis(20),
+        100);
+  }
+}
@@ -0,0 +1,241 @@
+package com.fabricmanagement.costing.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.domain.vo.ConvertedMoney;
+import com.fabricmanagement.common.infrastructure.events.DomainEventPublisher;
+import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.costing.app.CostCalculationService.CostTarget;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.costing.app.port.TenantCostingSettingsPort;
+import com.fabricmanagement.costing.app.port.WorkOrderPlanningUpdatePort;
+import com.fabricmanagement.costing.domain.calculation.CostCalculation;
+import com.fabricmanagement.costing.domain.calculation.CostEntityType;
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import com.fabricmanagement.costing.domain.calculation.MissingCostItemEntry;
+import com.fabricmanagement.costing.domain.event.CostVarianceDetectedEvent;
+import com.fabricmanagement.costing.domain.exception.CostingDomainException;
+import com.fabricmanagement.costing.domain.item.CalculationBase;
+import com.fabricmanagement.costing.domain.item.CostItem;
+import com.fabricmanagement.costing.domain.item.CostItemScope;
+import com.fabricmanagement.costing.domain.price.PriceList;
+import com.fabricmanagement.costing.domain.price.PriceListItem;
+import com.fabricmanagement.costing.domain.template.CostTemplate;
+import com.fabricmanagement.costing.domain.template.CostTemplateItem;
+import com.fabricmanagement.costing.infra.repository.CostCalculationRepository;
+import com.fabricmanagement.costing.infra.repository.CostItemRepository;
+import com.fabricmanagement.costing.infra.repository.CostTemplateRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListItemRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CostCalculationServiceTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final LocalDate RATE_DATE = LocalDate.of(2026, 10, 1);
+  private static final UUID PRODUCT_A = UUID.randomUUID();
+  private static final UUID PRODUCT_B = UUID.randomUUID();
+  private static final UUID PRODUCT_C = UUID.randomUUID();
+  private static final UUID PARTNER = UUID.randomUUID();
+
+  @Mock private CostItemRepository costItemRepo;
+  @Mock private CostTemplateRepository costTemplateRepo;
+  @Mock private PriceListRepository priceListRepo;
+  @Mock private PriceListItemRepository priceListItemRepo;
+  @Mock private CostCalculationRepository costCalcRepo;
+  @Mock private ExchangeRateService exchangeRateService;
+  @Mock private TenantReportingCurrencyPort tenantReportingCurrencyPort;
+  @Mock private TenantCostingSettingsPort tenantCostingSettingsPort;
+  @Mock private DomainEventPublisher eventPublisher;
+  @Mock private WorkOrderPlanningUpdatePort workOrderPlanningUpdatePort;
+
+  private final PriceList priceList =
+      PriceList.create(TENANT_ID, "2026", "FIBER", "TRY", LocalDate.of(2026, 1, 1), null, null);
+  private CostCalculationService service;
+
+  @BeforeEach
+  void setUp() {
+    priceList.setId(UUID.randomUUID());
+    service =
+        new CostCalculationService(
+            new CostPlanCompiler(
+                costItemRepo,
+                costTemplateRepo,
+                priceListRepo,
+                priceListItemRepo,
+                exchangeRateService,
+                tenantReportingCurrencyPort),
+            priceListRepo,
+            costCalcRepo,
+            tenantCostingSettingsPort,
+            eventPublisher,
+            Optional.of(workOrderPlanningUpdatePort));
+  }
+
+  @Test
+  void recalculatesFromOnePlanWithMostSpecificPricesAndBatchedWrites() {
+    givenPlan(
+        new CostTemplateItem("MATERIAL", null, true),
+        new CostTemplateItem("PACKAGING", null, true),
+        new CostTemplateItem("OVERHEAD", new BigDecimal("0.10"), true),
+        new CostTemplateItem("DYEING", null, true),
+        new CostTemplateItem("LABOR", null, false));
+    when(costCalcRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    List<CostCalculation> calcs =
+        service.recalculate(
+            TENANT_ID,
+            "FIBER",
+            CostStage.ESTIMATED,
+            List.of(
+                new CostTarget(UUID.randomUUID(), PRODUCT_A, new BigDecimal("100"), null),
+                new CostTarget(UUID.randomUUID(), PRODUCT_B, new BigDecimal("100"), PARTNER),
+                new CostTarget(UUID.randomUUID(), PRODUCT_C, new BigDecimal("100"), null)),
+            RATE_DATE);
+
+    // product 1200 / partner + product 1100 / general 1000, then + 50 fixed and + 10 % overhead
+    assertThat(calcs)
+        .extracting(CostCalculation::getTotalCost)
+        .usingElementComparator(BigDecimal::compareTo)
+        .containsExactly(
+            new BigDecimal("1375"), new BigDecimal("1265"), new BigDecimal("1155"));
+    assertThat(calcs)
+        .allSatisfy(
+            calc -> {
+              assertThat(calc.getEntityType()).isEqualTo(CostEntityType.QUOTE);
+              assertThat(calc.isComplete()).isFalse();
+              assertThat(calc.getMissingItems())
+                  .extracting(MissingCostItemEntry::costItemCode)
+                  .containsExactly("DYEING");
+            });
+    verify(priceListItemRepo, times(1)).findActiveWithBreaks(priceList.getId());
+    verify(priceListItemRepo, never()).findBest(any(), any(), any(), any());
+    verify(costTemplateRepo, times(1)).findDefault(TENANT_ID, "FIBER");
+    verify(costCalcRepo, times(2)).saveAll(anyList());
+    verify(costCalcRepo, never()).save(any());
+  }
+
+  @Test
+  void replacesExistingPlannedCostsAndPublishesVarianceAgainstEstimates() {
+    givenPlan(
+        new CostTemplateItem("MATERIAL", null, true),
+        new CostTemplateItem("PACKAGING", null, true));
+    UUID workOrderId = UUID.randomUUID();
+    CostCalculation existing =
+        CostCalculation.create(
+            TENANT_ID, CostEntityType.WORK_ORDER, workOrderId, "FIBER", CostStage.PLANNED, "TRY");
+    CostCalculation estimate =
+        CostCalculation.create(
+            TENANT_ID,
+            CostEntityType.WORK_ORDER,
+            workOrderId,
+            "FIBER",
+            CostStage.ESTIMATED,
+            "TRY");
+    estimate.setTotalCost(new BigDecimal("1000"));
+    when(costCalcRepo.findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(
+            eq(TENANT_ID), eq(CostEntityType.WORK_ORDER), eq(CostStage.PLANNED), anySet()))
+        .thenReturn(List.of(existing));
+    when(costCalcRepo.findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(
+            eq(TENANT_ID), eq(CostEntityType.WORK_ORDER), eq(CostStage.ESTIMATED), anySet()))
+        .thenReturn(List.of(estimate));
+    when(costCalcRepo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(tenantCostingSettingsPort.getVarianceThreshold(TENANT_ID))
+        .thenReturn(new BigDecimal("0.05"));
+
+    List<CostCalculation> calcs =
+        service.recalculate(
+            TENANT_ID,
+            "FIBER",
+            CostStage.PLANNED,
+            List.of(new CostTarget(workOrderId, PRODUCT_A, new BigDecimal("100"), null)),
+            RATE_DATE);
+
+    assertThat(existing.getIsActive()).isFalse();
+    assertThat(calcs.getFirst().getTotalCost()).isEqualByComparingTo("1250");
+    verify(workOrderPlanningUpdatePort)
+        .updatePlannedCost(TENANT_ID, workOrderId, calcs.getFirst().getTotalCost(), "TRY");
+    verify(eventPublisher).publish(any(CostVarianceDetectedEvent.class));
+  }
+
+  @Test
+  void rejectsTheSameEntityTwice() {
+    UUID entityId = UUID.randomUUID();
+    CostTarget target = new CostTarget(entityId, PRODUCT_A, BigDecimal.ONE, null);
+
+    assertThatThrownBy(
+            () ->
+                service.recalculate(
+                    TENANT_ID, "FIBER", CostStage.ACTUAL, List.of(target, target), RATE_DATE))
+        .isInstanceOf(CostingDomainException.class)
+        .hasMessageContaining(entityId.toString());
+  }
+
+  private void givenPlan(CostTemplateItem... items) {
+    CostTemplate template =
+        CostTemplate.create(TENANT_ID, "Default", "FIBER", true, List.of(items));
+    template.setId(UUID.randomUUID());
+    when(costTemplateRepo.findDefault(TENANT_ID, "FIBER")).thenReturn(Optional.of(template));
+    when(priceListRepo.findActiveForModule(TENANT_ID, "FIBER", RATE_DATE))
+        .thenReturn(Optional.of(priceList));
+    when(tenantReportingCurrencyPort.getReportingCurrency(TENANT_ID)).thenReturn("TRY");
+    when(exchangeRateService.converter(TENANT_ID, "TRY", RATE_DATE))
+        .thenReturn(ConvertedMoney::sameUnit);
+    when(costItemRepo.findActiveForModule("FIBER"))
+        .thenReturn(
+            List.of(
+                costItem("MATERIAL", CalculationBase.PER_KG),
+                costItem("PACKAGING", CalculationBase.FIXED),
+                costItem("OVERHEAD", CalculationBase.PERCENTAGE)));
+    when(priceListItemRepo.findActiveWithBreaks(priceList.getId()))
+        .thenReturn(
+            List.of(
+                price("MATERIAL", null, null, "10"),
+                price("MATERIAL", PRODUCT_A, null, "12"),
+                price("MATERIAL", PRODUCT_B, PARTNER, "11"),
+                price("PACKAGING", null, null, "50"),
+                price("OVERHEAD", null, null, "0")));
+  }
+
+
+  private static CostItem costItem(String code, CalculationBase base) {
+    return CostItem.builder()
+        .code(code)
+        .name(code)
+        .scope(CostItemScope.GLOBAL)
+        .calculationBase(base)
+        .build();
+  }
+
+  private PriceListItem price(
+      String costItemCode, UUID productId, UUID tradingPartnerId, String unitPrice) {
+    return PriceListItem.builder()
+        .priceListId(priceList.getId())
+        .costItemCode(costItemCode)
+        .productId(productId)
+        .tradingPartnerId(tradingPartnerId)
+        .unitPrice(new BigDecimal(unitPrice))
+        .unit("KG")
+        .currency("TRY")
+        .build();
+  }
+}
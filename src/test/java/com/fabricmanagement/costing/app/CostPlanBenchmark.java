@@ -0,0 +1,182 @@
+package com.fabricmanagement.costing.app;
+
+import static com.fabricmanagement.testsupport.Benchmarks.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.domain.vo.ConvertedMoney;
+import com.fabricmanagement.costing.app.CostCalculationService.CostTarget;
+import com.fabricmanagement.costing.domain.calculation.CostCalculation;
+import com.fabricmanagement.costing.domain.calculation.CostEntityType;
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import com.fabricmanagement.costing.domain.item.CalculationBase;
+import com.fabricmanagement.costing.domain.item.CostItem;
+import com.fabricmanagement.costing.domain.item.CostItemScope;
+import com.fabricmanagement.costing.domain.price.PriceListItem;
+import com.fabricmanagement.costing.domain.template.CostTemplate;
+import com.fabricmanagement.costing.domain.template.CostTemplateItem;
+import com.fabricmanagement.testsupport.Benchmarks;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Synthetic benchmark of the per-entity compute path: 500 work orders against a 40-item template
+ * and a 6k-row price list, once compiling a plan per entity (what a loop of single-entity calls
+ * does) and once evaluating one plan for all of them (what {@code recalculate} does). Not part of
+ * the regular build (surefire only picks up {@code *Test}); run it with {@code mvn test
+ * -Dtest=CostPlanBenchmark}.
+ *
+ * <p>Besides the timings it logs, it checks that both ways produce the same totals.
+ */
+class CostPlanBenchmark {
+
+  private static final int COST_ITEMS = 40;
+  private static final int PRODUCTS = 100;
+  private static final int PARTNERS = 20;
+  private static final int ENTITIES = 500;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final UUID PRICE_LIST_ID = UUID.randomUUID();
+
+  @Test
+  void fiveHundredWorkOrders() {
+    Random random = new Random(42);
+    List<UUID> products = ids(random, PRODUCTS);
+    List<UUID> partners = ids(random, PARTNERS);
+    List<CostItem> costItems = costItems();
+    CostTemplate template = template(costItems);
+    List<PriceListItem> prices = prices(random, costItems, products, partners);
+    List<CostTarget> targets =
+        IntStream.range(0, ENTITIES)
+            .mapToObj(
+                i ->
+                    new CostTarget(
+                        UUID.randomUUID(),
+                        products.get(random.nextInt(PRODUCTS)),
+                        BigDecimal.valueOf(100 + random.nextInt(5_000)),
+                        random.nextBoolean() ? partners.get(random.nextInt(PARTNERS)) : null))
+            .toList();
+    Supplier<CostPlan> compile =
+        () ->
+            CostPlan.compile(
+                TENANT_ID,
+                "FABRIC",
+                template,
+                costItems,
+                new PriceIndex(PRICE_LIST_ID, prices),
+                "TRY",
+                ConvertedMoney::sameUnit);
+
+    Map<String, List<BigDecimal>> totals =
+        Benchmarks.compare(
+            "CostPlan",
+            "entities=" + ENTITIES + " costItems=" + COST_ITEMS + " prices=" + prices.size(),
+            WARMUP_ROUNDS,
+            MEASURED_ROUNDS,
+            variant("planPerEntity", () -> planPerEntity(compile, targets)),
+            variant("onePlan", () -> onePlan(compile, targets)));
+
+    assertThat(totals.get("onePlan")).hasSize(ENTITIES).isEqualTo(totals.get("planPerEntity"));
+  }
+
+  private static List<BigDecimal> planPerEntity(
+      Supplier<CostPlan> compile, List<CostTarget> targets) {
+    List<BigDecimal> totals = new ArrayList<>(targets.size());
+    for (CostTarget target : targets) {
+      totals.add(evaluate(compile.get(), target).getTotalCost());
+    }
+    return totals;
+  }
+
+  private static List<BigDecimal> onePlan(Supplier<CostPlan> compile, List<CostTarget> targets) {
+    CostPlan plan = compile.get();
+    return targets.stream().map(target -> evaluate(plan, target).getTotalCost()).toList();
+  }
+
+  private static CostCalculation evaluate(CostPlan plan, CostTarget target) {
+    return plan.evaluate(CostEntityType.WORK_ORDER, CostStage.PLANNED, target, null);
+  }
+
+  private static List<CostItem> costItems() {
+    CalculationBase[] bases = {
+      CalculationBase.PER_KG, CalculationBase.PER_HOUR, CalculationBase.PER_UNIT,
+      CalculationBase.FIXED, CalculationBase.PERCENTAGE
+    };
+    return IntStream.range(0, COST_ITEMS)
+        .mapToObj(
+            i ->
+                CostItem.builder()
+                    .code("ITEM_" + i)
+                    .name("Item " + i)
+                    .scope(CostItemScope.GLOBAL)
+                    .calculationBase(bases[i % bases.length])
+                    .displayOrder(i)
+                    .build())
+        .toList();
+  }
+
+  private static CostTemplate template(List<CostItem> costItems) {
+    List<CostTemplateItem> items =
+        costItems.stream()
+            .map(
+                item ->
+                    new CostTemplateItem(
+                        item.getCode(),
+                        item.getCalculationBase() == CalculationBase.PERCENTAGE
+                            ? new BigDecimal("0.02")
+                            : null,
+                        true))
+            .toList();
+    CostTemplate template = CostTemplate.create(TENANT_ID, "Benchmark", "FABRIC", true, items);
+    template.setId(UUID.randomUUID());
+    return template;
+  }
+
+  /** Per cost item: a catch-all row, 100 product rows and 50 supplier + product rows. */
+  private static List<PriceListItem> prices(
+      Random random, List<CostItem> costItems, List<UUID> products, List<UUID> partners) {
+    List<PriceListItem> prices = new ArrayList<>();
+    for (CostItem item : costItems) {
+      prices.add(price(random, item.getCode(), null, null));
+      for (UUID product : products) {
+        prices.add(price(random, item.getCode(), product, null));
+      }
+      for (int i = 0; i < 50; i++) {
+        prices.add(
+            price(
+                random,
+                item.getCode(),
+                products.get(random.nextInt(products.size())),
+                partners.get(random.nextInt(partners.size()))));
+      }
+    }
+    return prices;
+  }
+
+  private static PriceListItem price(
+      Random random, String costItemCode, UUID productId, UUID tradingPartnerId) {
+    return PriceListItem.builder()
+        .priceListId(PRICE_LIST_ID)
+        .costItemCode(costItemCode)
+        .productId(productId)
+        .tradingPartnerId(tradingPartnerId)
+        .unitPrice(BigDecimal.valueOf(1 + random.nextInt(9_999), 2))
+        .unit("KG")
+        .currency("TRY")
+        .build();
+  }
+
+  private static List<UUID> ids(Random random, int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> new UUID(random.nextLong(), random.nextLong()))
+        .toList();
+  }
+}
@@ -0,0 +1,237 @@
+package com.fabricmanagement.costing.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.costing.app.CostCalculationService.CostTarget;
+import com.fabricmanagement.costing.app.CostSimulationService.Scenario;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.costing.domain.calculation.CostCalculation;
+import com.fabricmanagement.costing.domain.calculation.CostEntityType;
+import com.fabricmanagement.costing.domain.calculation.CostStage;
+import com.fabricmanagement.costing.domain.exception.CostingDomainException;
+import com.fabricmanagement.costing.domain.exception.ExchangeRateRequiredException;
+import com.fabricmanagement.costing.domain.item.CalculationBase;
+import com.fabricmanagement.costing.domain.item.CostItem;
+import com.fabricmanagement.costing.domain.item.CostItemScope;
+import com.fabricmanagement.costing.domain.price.PriceList;
+import com.fabricmanagement.costing.domain.price.PriceListItem;
+import com.fabricmanagement.costing.domain.template.CostTemplate;
+import com.fabricmanagement.costing.domain.template.CostTemplateItem;
+import com.fabricmanagement.costing.dto.CostSimulationResponse;
+import com.fabricmanagement.costing.dto.CostSimulationResponse.Row;
+import com.fabricmanagement.costing.infra.repository.CostCalculationRepository;
+import com.fabricmanagement.costing.infra.repository.CostItemRepository;
+import com.fabricmanagement.costing.infra.repository.CostTemplateRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListItemRepository;
+import com.fabricmanagement.costing.infra.repository.PriceListRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CostSimulationServiceTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final LocalDate RATE_DATE = LocalDate.of(2026, 10, 1);
+  private static final UUID PRODUCT = UUID.randomUUID();
+
+  @Mock private CostItemRepository costItemRepo;
+  @Mock private CostTemplateRepository costTemplateRepo;
+  @Mock private PriceListRepository priceListRepo;
+  @Mock private PriceListItemRepository priceListItemRepo;
+  @Mock private CostCalculationRepository costCalcRepo;
+  @Mock private ExchangeRateService exchangeRateService;
+  @Mock private TenantReportingCurrencyPort tenantReportingCurrencyPort;
+
+  /** Inactive and not yet valid — only reachable by id. */
+  private final PriceList draft =
+      PriceList.create(TENANT_ID, "Draft", "FIBER", "USD", LocalDate.of(2027, 1, 1), null, null);
+
+  private CostSimulationService service;
+
+  @BeforeEach
+  void setUp() {
+    draft.setId(UUID.randomUUID());
+    draft.setIsActive(false);
+    service =
+        new CostSimulationService(
+            new CostPlanCompiler(
+                costItemRepo,
+                costTemplateRepo,
+                priceListRepo,
+                priceListItemRepo,
+                exchangeRateService,
+                tenantReportingCurrencyPort),
+            priceListRepo,
+            costCalcRepo,
+            exchangeRateService);
+    lenient().when(priceListRepo.findById(draft.getId())).thenReturn(Optional.of(draft));
+  }
+
+  @Test
+  void simulatesDraftPricesWithOverriddenRateWithoutWriting() {
+    givenPlan();
+    List<CostTarget> targets =
+        IntStream.range(0, 10)
+            .mapToObj(i -> new CostTarget(UUID.randomUUID(), PRODUCT, new BigDecimal("100"), null))
+            .toList();
+    CostCalculation current =
+        CostCalculation.create(
+            TENANT_ID,
+            CostEntityType.WORK_ORDER,
+            targets.getFirst().entityId(),
+            "FIBER",
+            CostStage.PLANNED,
+            "TRY");
+    current.setTotalCost(new BigDecimal("1000"));
+    when(costCalcRepo.findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(
+            eq(TENANT_ID), eq(CostEntityType.WORK_ORDER), eq(CostStage.PLANNED), anySet()))
+        .thenReturn(List.of(current));
+
+    CostSimulationResponse response =
+        service.simulate(TENANT_ID, scenario(Map.of("usd", new BigDecimal("30"))), targets);
+
+    // 100 kg × 1 USD × 30 + 50 fixed
+    assertThat(response.rows())
+        .hasSize(10)
+        .allSatisfy(row -> assertThat(row.simulatedCost()).isEqualByComparingTo("3050"));
+    Row compared = response.rows().getFirst();
+    assertThat(compared.entityId()).isEqualTo(targets.getFirst().entityId());
+    assertThat(compared.currentCost()).isEqualByComparingTo("1000");
+    assertThat(compared.difference()).isEqualByComparingTo("2050");
+    assertThat(compared.varianceRatio()).isEqualByComparingTo("2.05");
+    assertThat(response.rows().get(1).currentCost()).isNull();
+    assertThat(response.stages())
+        .singleElement()
+        .satisfies(
+            summary -> {
+              assertThat(summary.simulated()).isEqualTo(10);
+              assertThat(summary.compared()).isEqualTo(1);
+              assertThat(summary.difference()).isEqualByComparingTo("2050");
+            });
+    verify(exchangeRateService, never()).getRate(any(UUID.class), any(), any(), any());
+    verify(costCalcRepo, never()).save(any());
+    verify(costCalcRepo, never()).saveAll(anyIterable());
+  }
+
+  @Test
+  void missingRateFailsTheSimulation() {
+    givenPlan();
+    when(exchangeRateService.getRate(TENANT_ID, "USD", "TRY", RATE_DATE))
+        .thenReturn(Optional.empty());
+    List<CostTarget> targets =
+        List.of(new CostTarget(UUID.randomUUID(), PRODUCT, BigDecimal.ONE, null));
+
+    assertThatThrownBy(() -> service.simulate(TENANT_ID, scenario(null), targets))
+        .isInstanceOf(ExchangeRateRequiredException.class);
+  }
+
+  @Test
+  void rejectsPriceListOfAnotherModule() {
+    Scenario scenario =
+        new Scenario(
+            "YARN",
+            CostEntityType.WORK_ORDER,
+            Set.of(CostStage.PLANNED),
+            draft.getId(),
+            null,
+            RATE_DATE);
+    List<CostTarget> targets =
+        List.of(new CostTarget(UUID.randomUUID(), PRODUCT, BigDecimal.ONE, null));
+
+    assertThatThrownBy(() -> service.simulate(TENANT_ID, scenario, targets))
+        .isInstanceOf(CostingDomainException.class)
+        .hasMessageContaining("FIBER");
+  }
+
+  @Test
+  void refusesActualStageOfWorkOrders() {
+    Scenario scenario =
+        new Scenario(
+            "FIBER",
+            CostEntityType.WORK_ORDER,
+            Set.of(CostStage.PLANNED, CostStage.ACTUAL),
+            draft.getId(),
+            null,
+            RATE_DATE);
+    List<CostTarget> targets =
+        List.of(new CostTarget(UUID.randomUUID(), PRODUCT, BigDecimal.ONE, null));
+
+    assertThatThrownBy(() -> service.simulate(TENANT_ID, scenario, targets))
+        .isInstanceOf(CostingDomainException.class)
+        .hasMessageContaining("consumptions");
+    verify(costCalcRepo, never())
+        .findActiveByTenantIdAndEntityTypeAndStageAndEntityIdIn(any(), any(), any(), anySet());
+  }
+
+  private Scenario scenario(Map<String, BigDecimal> exchangeRates) {
+    return new Scenario(
+        "FIBER",
+        CostEntityType.WORK_ORDER,
+        Set.of(CostStage.PLANNED),
+        draft.getId(),
+        exchangeRates,
+        RATE_DATE);
+  }
+
+  private void givenPlan() {
+    CostTemplate template =
+        CostTemplate.create(
+            TENANT_ID,
+            "Default",
+            "FIBER",
+            true,
+            List.of(
+                new CostTemplateItem("MATERIAL", null, true),
+                new CostTemplateItem("PACKAGING", null, true)));
+    template.setId(UUID.randomUUID());
+    when(costTemplateRepo.findDefault(TENANT_ID, "FIBER")).thenReturn(Optional.of(template));
+    when(tenantReportingCurrencyPort.getReportingCurrency(TENANT_ID)).thenReturn("TRY");
+    when(costItemRepo.findActiveForModule("FIBER"))
+        .thenReturn(
+            List.of(
+                costItem("MATERIAL", CalculationBase.PER_KG),
+                costItem("PACKAGING", CalculationBase.FIXED)));
+    when(priceListItemRepo.findActiveWithBreaks(draft.getId()))
+        .thenReturn(List.of(price("MATERIAL", "1.00"), price("PACKAGING", "50")));
+  }
+
+  private static CostItem costItem(String code, CalculationBase base) {
+    return CostItem.builder()
+        .code(code)
+        .name(code)
+        .scope(CostItemScope.GLOBAL)
+        .calculationBase(base)
+        .build();
+  }
+
+  private PriceListItem price(String costItemCode, String unitPrice) {
+    return PriceListItem.builder()
+        .priceListId(draft.getId())
+        .costItemCode(costItemCode)
+        .unitPrice(new BigDecimal(unitPrice))
+        .unit("KG")
+        .currency("USD")
+        .build();
+  }
+}
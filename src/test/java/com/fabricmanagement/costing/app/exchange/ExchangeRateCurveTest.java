@@ -0,0 +1,77 @@
+package com.fabricmanagement.costing.app.exchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.costing.domain.exchange.ExchangeRateCache;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ExchangeRateCurve (Unit Test)")
+class ExchangeRateCurveTest {
+
+  private static final LocalDate D1 = LocalDate.of(2026, 3, 2);
+  private static final LocalDate D2 = LocalDate.of(2026, 3, 5);
+  private static final LocalDate D3 = LocalDate.of(2026, 3, 9);
+
+  private final ExchangeRateCurve curve =
+      ExchangeRateCurve.of(List.of(rate(D1, "1.10"), rate(D2, "1.20"), rate(D3, "1.30")));
+
+  @Test
+  void rateOn_ExactDate_ShouldReturnRate() {
+    assertThat(curve.rateOn(D2)).contains(new BigDecimal("1.20"));
+  }
+
+  @Test
+  void rateOn_DateBetweenPoints_ShouldReturnEmpty() {
+    assertThat(curve.rateOn(D2.plusDays(1))).isEmpty();
+  }
+
+  @Test
+  void floor_DateBetweenPoints_ShouldReturnPreviousPoint() {
+    assertThat(curve.floor(D3.minusDays(1), D1))
+        .contains(new ExchangeRateCurve.Point(D2, new BigDecimal("1.20")));
+  }
+
+  @Test
+  void floor_DateAfterLastPoint_ShouldReturnLastPoint() {
+    assertThat(curve.floor(D3.plusDays(30), D3))
+        .contains(new ExchangeRateCurve.Point(D3, new BigDecimal("1.30")));
+  }
+
+  @Test
+  void floor_NearestPointBeforeCutoff_ShouldReturnEmpty() {
+    assertThat(curve.floor(D3.minusDays(1), D2.plusDays(1))).isEmpty();
+  }
+
+  @Test
+  void floor_DateBeforeFirstPoint_ShouldReturnEmpty() {
+    assertThat(curve.floor(D1.minusDays(1), D1.minusDays(10))).isEmpty();
+  }
+
+  @Test
+  void of_DuplicateDate_ShouldKeepFirstRow() {
+    ExchangeRateCurve duplicated =
+        ExchangeRateCurve.of(List.of(rate(D1, "1.10"), rate(D1, "9.99"), rate(D2, "1.20")));
+
+    assertThat(duplicated.size()).isEqualTo(2);
+    assertThat(duplicated.rateOn(D1)).contains(new BigDecimal("1.10"));
+  }
+
+  @Test
+  void empty_ShouldFindNothing() {
+    ExchangeRateCurve empty = ExchangeRateCurve.of(List.of());
+
+    assertThat(empty.rateOn(D1)).isEmpty();
+    assertThat(empty.floor(D1, D1.minusDays(7))).isEmpty();
+  }
+
+  private static ExchangeRateCache rate(LocalDate date, String value) {
+    ExchangeRateCache cache = ExchangeRateCache.builder().build();
+    cache.setRate(new BigDecimal(value));
+    cache.setRateDate(date);
+    return cache;
+  }
+}
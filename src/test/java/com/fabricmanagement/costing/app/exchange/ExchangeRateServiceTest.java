@@ -16,7 +16,9 @@ import com.fabricmanagement.costing.domain.exchange.ExchangeRateCache;
 import com.fabricmanagement.costing.domain.exchange.ExchangeRateProvider;
 import com.fabricmanagement.costing.domain.exchange.ExchangeRateSource;
 import com.fabricmanagement.costing.infra.repository.ExchangeRateCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +40,7 @@ class ExchangeRateServiceTest {
   @Mock private ExchangeRateProvider rateProvider;
   @Mock private ExchangeRateCacheRepository cacheRepo;
 
+  private ExchangeRateCurveCache curveCache;
   private ExchangeRateService service;
 
   @Captor private ArgumentCaptor<ExchangeRateCache> cacheCaptor;
@@ -49,7 +52,10 @@ class ExchangeRateServiceTest {
   void setUp() {
     tenantContextMock = mockStatic(TenantContext.class);
     tenantContextMock.when(TenantContext::requireTenantId).thenReturn(tenantId);
-    service = new ExchangeRateService(List.of(rateProvider), cacheRepo);
+    curveCache =
+        new ExchangeRateCurveCache(
+            cacheRepo, new SimpleMeterRegistry(), Duration.ofMinutes(10), 1_000);
+    service = new ExchangeRateService(List.of(rateProvider), cacheRepo, curveCache);
   }
 
   @AfterEach
@@ -149,9 +155,9 @@ class ExchangeRateServiceTest {
     when(rateProvider.getRate(tenantId, "USD", "GBP", requestedDate)).thenReturn(Optional.empty());
 
     when(cacheRepo
-            .findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateBetweenAndIsActiveTrueOrderByRateDateDesc(
-                tenantId, "USD", "GBP", cutoffDate, requestedDate))
-        .thenReturn(Optional.of(cache));
+            .findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+                tenantId, "USD", "GBP"))
+        .thenReturn(List.of(rate(cutoffDate.minusDays(1), "37.00"), cache));
 
     ConvertedMoney result = service.convert(new BigDecimal("100"), "USD", "GBP", requestedDate);
 
@@ -170,14 +176,49 @@ class ExchangeRateServiceTest {
     when(rateProvider.getRate(tenantId, "USD", "GBP", requestedDate)).thenReturn(Optional.empty());
 
     when(cacheRepo
-            .findFirstByTenantIdAndBaseCurrencyAndTargetCurrencyAndRateDateBetweenAndIsActiveTrueOrderByRateDateDesc(
-                tenantId, "USD", "GBP", cutoffDate, requestedDate))
-        .thenReturn(Optional.empty());
+            .findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+                tenantId, "USD", "GBP"))
+        .thenReturn(List.of(rate(cutoffDate.minusDays(1), "38.00")));
 
     assertThatThrownBy(() -> service.convert(new BigDecimal("100"), "USD", "GBP", requestedDate))
         .isInstanceOf(ExchangeRateRequiredException.class);
   }
 
+  @Test
+  void getRate_RepeatedStaleLookups_ShouldLoadCurveOnce() {
+    LocalDate requestedDate = LocalDate.now();
+    when(rateProvider.getRate(any(), any(), any(), any())).thenReturn(Optional.empty());
+    when(cacheRepo
+            .findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+                tenantId, "USD", "GBP"))
+        .thenReturn(List.of(rate(requestedDate.minusDays(2), "38.00")));
+
+    assertThat(service.getRate(tenantId, "USD", "GBP", requestedDate)).contains(bd("38.00"));
+    assertThat(service.getRate(tenantId, "USD", "GBP", requestedDate.minusDays(1)))
+        .contains(bd("38.00"));
+
+    verify(cacheRepo, times(1))
+        .findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+            tenantId, "USD", "GBP");
+  }
+
+  @Test
+  void saveRate_ShouldInvalidateCachedCurve() {
+    LocalDate date = LocalDate.now();
+    when(rateProvider.getRate(any(), any(), any(), any())).thenReturn(Optional.empty());
+    when(cacheRepo
+            .findByTenantIdAndBaseCurrencyAndTargetCurrencyAndIsActiveTrueOrderByRateDateAscCreatedAtAsc(
+                tenantId, "USD", "GBP"))
+        .thenReturn(List.of())
+        .thenReturn(List.of(rate(date, "38.50")));
+
+    assertThat(service.getRate(tenantId, "USD", "GBP", date)).isEmpty();
+
+    service.saveRate("USD", "GBP", bd("38.50"), date, ExchangeRateSource.MANUAL);
+
+    assertThat(service.getRate(tenantId, "USD", "GBP", date)).contains(bd("38.50"));
+  }
+
   // ─── saveRate() ───────────────────────────────────────
 
   @Test
@@ -247,6 +288,17 @@ class ExchangeRateServiceTest {
     assertThat(savedCaches.get(1).getSource()).isEqualTo(ExchangeRateSource.ECB);
   }
 
+  private static ExchangeRateCache rate(LocalDate date, String value) {
+    ExchangeRateCache cache = ExchangeRateCache.builder().build();
+    cache.setRate(bd(value));
+    cache.setRateDate(date);
+    return cache;
+  }
+
+  private static BigDecimal bd(String value) {
+    return new BigDecimal(value);
+  }
+
   // ─── Chain of Responsibility behavior ─────────────────
 
   @Nested
@@ -258,7 +310,7 @@ class ExchangeRateServiceTest {
     @Test
     void getRate_FirstProviderReturnsRate_ShouldNotCallSecond() {
       ExchangeRateService chainService =
-          new ExchangeRateService(List.of(provider1, provider2), cacheRepo);
+          new ExchangeRateService(List.of(provider1, provider2), cacheRepo, curveCache);
       LocalDate date = LocalDate.now();
       BigDecimal rate = new BigDecimal("38.50");
 
@@ -274,7 +326,7 @@ class ExchangeRateServiceTest {
     @Test
     void getRate_FirstProviderEmpty_ShouldFallToSecond() {
       ExchangeRateService chainService =
-          new ExchangeRateService(List.of(provider1, provider2), cacheRepo);
+          new ExchangeRateService(List.of(provider1, provider2), cacheRepo, curveCache);
       LocalDate date = LocalDate.now();
       BigDecimal rate = new BigDecimal("38.50");
 
@@ -291,7 +343,7 @@ class ExchangeRateServiceTest {
     @Test
     void getRate_AllProvidersEmpty_ShouldReturnEmpty() {
       ExchangeRateService chainService =
-          new ExchangeRateService(List.of(provider1, provider2), cacheRepo);
+          new ExchangeRateService(List.of(provider1, provider2), cacheRepo, curveCache);
       LocalDate date = LocalDate.now();
 
       when(provider1.getRate(tenantId, "USD", "GBP", date)).thenReturn(Optional.empty());
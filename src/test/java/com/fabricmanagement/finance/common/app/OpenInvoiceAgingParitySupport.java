@@ -0,0 +1,179 @@
+package com.fabricmanagement.finance.common.app;
+
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.common.util.Money;
+import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.costing.domain.exchange.ExchangeRateSource;
+import com.fabricmanagement.costing.infra.exchange.EcbExchangeRateProvider;
+import com.fabricmanagement.costing.infra.exchange.TcmbExchangeRateProvider;
+import com.fabricmanagement.finance.invoice.domain.Invoice;
+import com.fabricmanagement.finance.invoice.domain.InvoicePaymentStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceType;
+import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.recursive.comparison.RecursiveComparisonConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Seeds open invoices for a fresh tenant so the receivables and payables parity tests can hold
+ * {@link OpenInvoiceAgingQuery} against the in-memory rollup. Both sides share this context, so
+ * the Spring test context is built once.
+ */
+public abstract class OpenInvoiceAgingParitySupport extends AbstractIntegrationTest {
+
+  protected static final String REPORTING_CURRENCY = "GBP";
+
+  /** Compares DTO trees with BigDecimals equal by value, whatever their scale. */
+  protected static final RecursiveComparisonConfiguration BY_VALUE =
+      RecursiveComparisonConfiguration.builder()
+          .withComparatorForType(Comparator.naturalOrder(), BigDecimal.class)
+          .build();
+
+  @Autowired protected InvoiceRepository invoiceRepository;
+  @Autowired protected ExchangeRateService exchangeRateService;
+  @Autowired protected JdbcTemplate jdbcTemplate;
+  @Autowired protected Clock clock;
+
+  @MockBean private TenantReportingCurrencyPort reportingCurrencyPort;
+  @MockBean private EcbExchangeRateProvider ecbProvider;
+  @MockBean private TcmbExchangeRateProvider tcmbProvider;
+
+  protected final UUID tenantId = UUID.randomUUID();
+  protected LocalDate asOfDate;
+
+  private final AtomicInteger invoiceNumbers = new AtomicInteger();
+  private final List<UUID> registryIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUpTenant() {
+    asOfDate = LocalDate.now(clock);
+    TenantContext.setCurrentTenantId(tenantId);
+    when(reportingCurrencyPort.getReportingCurrency(tenantId)).thenReturn(REPORTING_CURRENCY);
+    jdbcTemplate.update(
+        "INSERT INTO common_tenant.common_tenant "
+            + "(id, uid, slug, name, status, is_active, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, 'ACTIVE', true, now(), now(), 0)",
+        tenantId,
+        UUID.randomUUID().toString(),
+        "aging-" + tenantId.toString().substring(0, 8),
+        "Aging Parity Tenant");
+  }
+
+  @AfterEach
+  void tearDownTenant() {
+    jdbcTemplate.update(
+        "UPDATE finance.finance_invoice SET original_invoice_id = NULL WHERE tenant_id = ?",
+        tenantId);
+    jdbcTemplate.update("DELETE FROM finance.finance_invoice WHERE tenant_id = ?", tenantId);
+    jdbcTemplate.update("DELETE FROM costing.exchange_rate_cache WHERE tenant_id = ?", tenantId);
+    jdbcTemplate.update(
+        "DELETE FROM common_company.common_trading_partner WHERE tenant_id = ?", tenantId);
+    registryIds.forEach(
+        id ->
+            jdbcTemplate.update(
+                "DELETE FROM common_company.trading_partner_registry WHERE id = ?", id));
+    jdbcTemplate.update("DELETE FROM common_tenant.common_tenant WHERE id = ?", tenantId);
+    TenantContext.clear();
+  }
+
+  protected UUID partner(String name) {
+    UUID registryId = UUID.randomUUID();
+    registryIds.add(registryId);
+    jdbcTemplate.update(
+        "INSERT INTO common_company.trading_partner_registry "
+            + "(id, uid, tax_id, official_name, verified_status, is_active, created_at, "
+            + "updated_at, version) "
+            + "VALUES (?, ?, ?, ?, 'UNVERIFIED', true, now(), now(), 0)",
+        registryId,
+        UUID.randomUUID().toString(),
+        registryId.toString().substring(0, 10),
+        name);
+    UUID partnerId = UUID.randomUUID();
+    jdbcTemplate.update(
+        "INSERT INTO common_company.common_trading_partner "
+            + "(id, tenant_id, uid, registry_id, custom_name, partner_type, status, is_active, "
+            + "created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, 'BOTH', 'ACTIVE', true, now(), now(), 0)",
+        partnerId,
+        tenantId,
+        UUID.randomUUID().toString(),
+        registryId,
+        name);
+    return partnerId;
+  }
+
+  /** Saves an unpaid, sent invoice due {@code daysPastDue} days before the as-of date. */
+  protected Invoice invoice(
+      UUID partnerId, InvoiceType type, String currency, String amountDue, int daysPastDue) {
+    return invoice(
+        partnerId,
+        type,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.UNPAID,
+        currency,
+        amountDue,
+        daysPastDue,
+        null,
+        null);
+  }
+
+  protected Invoice invoice(
+      UUID partnerId,
+      InvoiceType type,
+      InvoiceStatus status,
+      InvoicePaymentStatus paymentStatus,
+      String currency,
+      String amountDue,
+      int daysPastDue,
+      UUID originalInvoiceId,
+      String issueRate) {
+    BigDecimal due = new BigDecimal(amountDue);
+    Invoice invoice =
+        Invoice.builder()
+            .tradingPartnerId(partnerId)
+            .invoiceNumber("AGING-" + invoiceNumbers.incrementAndGet())
+            .invoiceType(type)
+            .status(status)
+            .paymentStatus(paymentStatus)
+            .originalInvoiceId(originalInvoiceId)
+            .issueDate(asOfDate.minusDays(daysPastDue + 30L))
+            .dueDate(asOfDate.minusDays(daysPastDue))
+            .subtotal(Money.of(due, currency))
+            .totalAmount(Money.of(due, currency))
+            .amountPaid(Money.zero(currency))
+            .amountCredited(Money.zero(currency))
+            .amountDue(Money.of(due, currency))
+            .build();
+    invoice.setTenantId(tenantId);
+    if (issueRate != null) {
+      invoice.captureReportingSnapshot(
+          REPORTING_CURRENCY, new BigDecimal(issueRate), invoice.getIssueDate(), null);
+    }
+    return invoiceRepository.saveAndFlush(invoice);
+  }
+
+  protected void rate(String currency, String rate, int daysAgo) {
+    exchangeRateService.saveRate(
+        currency,
+        REPORTING_CURRENCY,
+        new BigDecimal(rate),
+        asOfDate.minusDays(daysAgo),
+        ExchangeRateSource.MANUAL);
+  }
+}
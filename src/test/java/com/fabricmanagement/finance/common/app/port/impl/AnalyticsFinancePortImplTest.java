@@ -3,6 +3,7 @@ package com.fabricmanagement.finance.common.app.port.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.util.Money;
@@ -16,14 +17,18 @@ import com.fabricmanagement.finance.invoice.domain.Invoice;
 import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceType;
 import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
 import com.fabricmanagement.finance.payables.app.PayablesInsightService;
+import com.fabricmanagement.finance.payables.dto.DpoDto;
 import com.fabricmanagement.finance.receivables.app.ReceivablesInsightService;
+import com.fabricmanagement.finance.receivables.dto.DsoDto;
 import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,6 +46,7 @@ class AnalyticsFinancePortImplTest {
   @Mock private InvoiceSideResolver invoiceSideResolver;
   @Mock private ReceivablesInsightService receivablesInsightService;
   @Mock private PayablesInsightService payablesInsightService;
+  @Mock private MetricSnapshotQueryService metricSnapshotQueryService;
 
   private Clock clock;
   private AnalyticsFinancePortImpl port;
@@ -55,6 +61,7 @@ class AnalyticsFinancePortImplTest {
             invoiceSideResolver,
             receivablesInsightService,
             payablesInsightService,
+            metricSnapshotQueryService,
             clock);
   }
 
@@ -168,4 +175,29 @@ class AnalyticsFinancePortImplTest {
             .get();
     assertThat(recCredit.reportingAmount()).isEqualByComparingTo("-22"); // -22
   }
+
+  @Test
+  void dsoIsReadFromTheSnapshotWhenTheDayWasSnapshotted() {
+    LocalDate asOfDate = LocalDate.of(2024, 6, 15);
+    DsoDto snapshot =
+        new DsoDto(
+            90, new BigDecimal("42.5000"), new BigDecimal("1000"), new BigDecimal("2117"), "OK");
+    when(metricSnapshotQueryService.findDso(TENANT_ID, asOfDate, "USD"))
+        .thenReturn(Optional.of(snapshot));
+
+    assertThat(port.getDso(TENANT_ID, asOfDate, "USD")).isEqualTo(snapshot);
+    verifyNoInteractions(receivablesInsightService);
+  }
+
+  @Test
+  void dpoIsComputedWhenTheDayWasNotSnapshotted() {
+    LocalDate asOfDate = LocalDate.of(2024, 6, 15);
+    DpoDto computed =
+        new DpoDto(90, null, BigDecimal.ZERO, BigDecimal.ZERO, "INSUFFICIENT_PURCHASE_WINDOW");
+    when(metricSnapshotQueryService.findDpo(TENANT_ID, asOfDate, "USD"))
+        .thenReturn(Optional.empty());
+    when(payablesInsightService.computeDpo(TENANT_ID, asOfDate, "USD")).thenReturn(computed);
+
+    assertThat(port.getDpo(TENANT_ID, asOfDate, "USD")).isEqualTo(computed);
+  }
 }
@@ -0,0 +1,203 @@
+package com.fabricmanagement.finance.metrics.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerAging;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerPage;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.Scope;
+import com.fabricmanagement.finance.invoice.app.InvoiceSide;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.LedgerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerTotals;
+import com.fabricmanagement.finance.payables.app.PayablesInsightService;
+import com.fabricmanagement.finance.payables.dto.DpoDto;
+import com.fabricmanagement.finance.receivables.app.ReceivablesInsightService;
+import com.fabricmanagement.finance.receivables.dto.DsoDto;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PartnerMetricSnapshotServiceTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final UUID PARTNER_ID = UUID.randomUUID();
+  private static final LocalDate AS_OF_DATE = LocalDate.of(2026, 8, 5);
+
+  @Mock private OpenInvoiceAgingQuery agingQuery;
+  @Mock private MetricSnapshotStore store;
+  @Mock private ReceivablesInsightService receivablesInsightService;
+  @Mock private PayablesInsightService payablesInsightService;
+  @Mock private TenantReportingCurrencyPort reportingCurrencyPort;
+
+  private PartnerMetricSnapshotService service;
+
+  @BeforeEach
+  void setUp() {
+    service =
+        new PartnerMetricSnapshotService(
+            agingQuery,
+            store,
+            receivablesInsightService,
+            payablesInsightService,
+            reportingCurrencyPort);
+  }
+
+  @Test
+  void fullRefreshWritesEveryPartnerAndTheLedgerOfBothSides() {
+    stubSides();
+    Scope ar = scope(InvoiceSide.ACCOUNTS_RECEIVABLE);
+    Scope ap = scope(InvoiceSide.ACCOUNTS_PAYABLE);
+    when(agingQuery.partners(ar, List.of(), 0, null)).thenReturn(page());
+    when(agingQuery.partners(ap, List.of(), 0, null))
+        .thenReturn(new PartnerPage(List.of(), BigDecimal.ZERO, 0));
+    when(receivablesInsightService.averageDaysLate(TENANT_ID, AS_OF_DATE))
+        .thenReturn(Map.of(PARTNER_ID, new BigDecimal("4.5000")));
+    when(payablesInsightService.averageDaysLate(TENANT_ID, AS_OF_DATE)).thenReturn(Map.of());
+
+    service.refreshTenant(TENANT_ID, AS_OF_DATE);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<PartnerRow>> rows = ArgumentCaptor.forClass(List.class);
+    verify(store)
+        .replacePartners(
+            eq(TENANT_ID),
+            eq(InvoiceSide.ACCOUNTS_RECEIVABLE),
+            eq(AS_OF_DATE),
+            isNull(),
+            rows.capture());
+    assertThat(rows.getValue())
+        .singleElement()
+        .satisfies(
+            row -> {
+              assertThat(row.tradingPartnerId()).isEqualTo(PARTNER_ID);
+              assertThat(row.outstanding()).isEqualByComparingTo("1500");
+              assertThat(row.aging31To60()).isEqualByComparingTo("500");
+              assertThat(row.averageDaysLate()).isEqualByComparingTo("4.5");
+            });
+
+    ArgumentCaptor<LedgerRow> ledger = ArgumentCaptor.forClass(LedgerRow.class);
+    verify(store)
+        .upsertLedger(eq(TENANT_ID), eq(InvoiceSide.ACCOUNTS_RECEIVABLE), ledger.capture());
+    assertThat(ledger.getValue().totalOutstanding()).isEqualByComparingTo("1500");
+    assertThat(ledger.getValue().partnerCount()).isEqualTo(1);
+    assertThat(ledger.getValue().daysOutstanding()).isEqualByComparingTo("30");
+    assertThat(ledger.getValue().daysOutstandingStatus()).isEqualTo("OK");
+  }
+
+  @Test
+  void partnerRefreshRecomputesOnlyTheGivenPartnersOnceTheDayExists() {
+    stubSides();
+    Set<UUID> partnerIds = Set.of(PARTNER_ID);
+    when(store.hasLedger(eq(TENANT_ID), any(), eq(AS_OF_DATE))).thenReturn(true);
+    when(agingQuery.partners(scope(InvoiceSide.ACCOUNTS_RECEIVABLE), partnerIds))
+        .thenReturn(page());
+    when(agingQuery.partners(scope(InvoiceSide.ACCOUNTS_PAYABLE), partnerIds))
+        .thenReturn(new PartnerPage(List.of(), BigDecimal.ZERO, 0));
+    when(receivablesInsightService.averageDaysLate(TENANT_ID, AS_OF_DATE, partnerIds))
+        .thenReturn(Map.of());
+    when(payablesInsightService.averageDaysLate(TENANT_ID, AS_OF_DATE, partnerIds))
+        .thenReturn(Map.of());
+
+    service.refreshPartners(TENANT_ID, AS_OF_DATE, partnerIds);
+
+    verify(store)
+        .replacePartners(
+            eq(TENANT_ID),
+            eq(InvoiceSide.ACCOUNTS_RECEIVABLE),
+            eq(AS_OF_DATE),
+            eq(partnerIds),
+            any());
+    verify(agingQuery, never()).partners(any(), any(), eq(0), isNull());
+    verify(receivablesInsightService, never()).averageDaysLate(TENANT_ID, AS_OF_DATE);
+  }
+
+  @Test
+  void partnerRefreshBuildsTheWholeSideWhenTheDayHasNoSnapshotYet() {
+    stubSides();
+    when(store.hasLedger(TENANT_ID, InvoiceSide.ACCOUNTS_RECEIVABLE, AS_OF_DATE)).thenReturn(false);
+    when(store.hasLedger(TENANT_ID, InvoiceSide.ACCOUNTS_PAYABLE, AS_OF_DATE)).thenReturn(false);
+    when(agingQuery.partners(any(Scope.class), eq(List.of()), eq(0), isNull())).thenReturn(page());
+    when(receivablesInsightService.averageDaysLate(TENANT_ID, AS_OF_DATE)).thenReturn(Map.of());
+    when(payablesInsightService.averageDaysLate(TENANT_ID, AS_OF_DATE)).thenReturn(Map.of());
+
+    service.refreshPartners(TENANT_ID, AS_OF_DATE, Set.of(PARTNER_ID));
+
+    verify(store)
+        .replacePartners(
+            eq(TENANT_ID), eq(InvoiceSide.ACCOUNTS_PAYABLE), eq(AS_OF_DATE), isNull(), any());
+    verify(agingQuery, never()).partners(any(Scope.class), any(Set.class));
+  }
+
+  @Test
+  void partnerRefreshWithoutPartnersDoesNothing() {
+    service.refreshPartners(TENANT_ID, AS_OF_DATE, Set.of());
+
+    verifyNoInteractions(agingQuery, store);
+  }
+
+  private void stubSides() {
+    when(reportingCurrencyPort.getReportingCurrency(TENANT_ID)).thenReturn("EUR");
+    for (InvoiceSide side : InvoiceSide.values()) {
+      when(agingQuery.scope(TENANT_ID, side, "EUR", AS_OF_DATE)).thenReturn(scope(side));
+      when(store.sumPartners(TENANT_ID, side, AS_OF_DATE))
+          .thenReturn(new PartnerTotals(new BigDecimal("1500"), new BigDecimal("500"), 1));
+    }
+    when(receivablesInsightService.computeDso(
+            eq(TENANT_ID), eq(AS_OF_DATE), eq("EUR"), any(BigDecimal.class)))
+        .thenReturn(
+            new DsoDto(
+                90, new BigDecimal("30"), new BigDecimal("1500"), new BigDecimal("4500"), "OK"));
+    when(payablesInsightService.computeDpo(
+            eq(TENANT_ID), eq(AS_OF_DATE), eq("EUR"), any(BigDecimal.class)))
+        .thenReturn(
+            new DpoDto(
+                90, null, new BigDecimal("1500"), BigDecimal.ZERO, "INSUFFICIENT_PURCHASE_WINDOW"));
+  }
+
+  private static Scope scope(InvoiceSide side) {
+    return new Scope(TENANT_ID, side, "EUR", AS_OF_DATE, "[]");
+  }
+
+  private static PartnerPage page() {
+    Map<AgingBucket, BigDecimal> aging = new EnumMap<>(AgingBucket.class);
+    for (AgingBucket bucket : AgingBucket.values()) {
+      aging.put(bucket, BigDecimal.ZERO);
+    }
+    aging.put(AgingBucket.CURRENT, new BigDecimal("1000"));
+    aging.put(AgingBucket.DAYS_31_60, new BigDecimal("500"));
+    return new PartnerPage(
+        List.of(
+            new PartnerAging(
+                PARTNER_ID,
+                new BigDecimal("1500"),
+                new BigDecimal("500"),
+                BigDecimal.ZERO,
+                aging,
+                false,
+                false,
+                null)),
+        new BigDecimal("1500"),
+        1);
+  }
+}
@@ -0,0 +1,213 @@
+package com.fabricmanagement.finance.payables.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingParitySupport;
+import com.fabricmanagement.finance.invoice.domain.Invoice;
+import com.fabricmanagement.finance.invoice.domain.InvoicePaymentStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceType;
+import com.fabricmanagement.finance.payables.dto.PayablesSupplierDto;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Holds the database supplier aging behind {@link PayablesInsightService#getSuppliers} to the
+ * in-memory rollup, across credit-note contra, disputes, every aging bucket, fresh, stale, issue-
+ * rate and missing FX, an outflow due within the week, and the invoices the open-item filter must
+ * drop.
+ */
+@DisplayName("Payables aging parity (database vs in-memory)")
+class PayablesAgingParityIntegrationTest extends OpenInvoiceAgingParitySupport {
+
+  @Autowired private PayablesInsightService payablesInsightService;
+
+  private UUID acme;
+  private UUID bolt;
+
+  @BeforeEach
+  void seed() {
+    rate("USD", "0.79123456", 0);
+    rate("EUR", "0.85432109", 3);
+
+    acme = partner("Acme Textiles");
+    Invoice acmePurchase = invoice(acme, InvoiceType.PURCHASE, "GBP", "5000.00", -3);
+    invoice(acme, InvoiceType.PURCHASE, "USD", "533.33", 20);
+    invoice(
+        acme,
+        InvoiceType.PURCHASE,
+        InvoiceStatus.DISPUTED,
+        InvoicePaymentStatus.UNPAID,
+        "EUR",
+        "300.07",
+        45,
+        null,
+        null);
+    invoice(
+        acme,
+        InvoiceType.CREDIT_NOTE,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.PARTIALLY_PAID,
+        "GBP",
+        "120.00",
+        10,
+        acmePurchase.getId(),
+        null);
+
+    bolt = partner("Bolt Weaving");
+    invoice(
+        bolt,
+        InvoiceType.PURCHASE,
+        InvoiceStatus.ISSUED,
+        InvoicePaymentStatus.UNPAID,
+        "CHF",
+        "812.50",
+        75,
+        null,
+        "0.87654321");
+    invoice(bolt, InvoiceType.PURCHASE, "JPY", "9000", 100);
+    invoice(bolt, InvoiceType.DEBIT_NOTE, "GBP", "45.55", 0);
+
+    UUID cotton = partner("Cotton Mills");
+    invoice(cotton, InvoiceType.PURCHASE, "GBP", "250.00", 10);
+    invoice(cotton, InvoiceType.SALES, "GBP", "9999.00", 10);
+    excluded(cotton, InvoiceType.PURCHASE);
+
+    UUID dye = partner("Dye House");
+    excluded(dye, InvoiceType.PURCHASE);
+
+    UUID eastLoom = partner("East Loom");
+    Invoice eastPaidPurchase =
+        invoice(
+            eastLoom,
+            InvoiceType.PURCHASE,
+            InvoiceStatus.SENT,
+            InvoicePaymentStatus.PAID,
+            "GBP",
+            "300.00",
+            5,
+            null,
+            null);
+    invoice(
+        eastLoom,
+        InvoiceType.CREDIT_NOTE,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.UNPAID,
+        "GBP",
+        "80.00",
+        5,
+        eastPaidPurchase.getId(),
+        null);
+  }
+
+  @Test
+  void defaultPageMatchesInMemoryRollup() {
+    List<PayablesSupplierDto> expected = expectedSortedBy(outstandingDescending());
+
+    Page<PayablesSupplierDto> page = payablesInsightService.getSuppliers(PageRequest.of(0, 20));
+
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected);
+    assertThat(page.getContent().get(1).riskFlags())
+        .extracting("code")
+        .contains("LARGE_UPCOMING_OUTFLOW");
+  }
+
+  @Test
+  void secondPageIsCutInTheDatabase() {
+    List<PayablesSupplierDto> expected = expectedSortedBy(outstandingDescending());
+
+    Page<PayablesSupplierDto> page = payablesInsightService.getSuppliers(PageRequest.of(1, 3));
+
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected.subList(3, 4));
+  }
+
+  @Test
+  void overdueExposureSortMatchesInMemoryRollup() {
+    List<PayablesSupplierDto> expected =
+        expectedSortedBy(Comparator.comparing(PayablesSupplierDto::overdueExposure).reversed());
+
+    Page<PayablesSupplierDto> page =
+        payablesInsightService.getSuppliers(
+            PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "overdueExposure")));
+
+    assertThat(page.getContent())
+        .extracting(PayablesSupplierDto::tradingPartnerId)
+        .startsWith(bolt, acme);
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void nameSortMatchesInMemoryRollup() {
+    List<PayablesSupplierDto> expected =
+        expectedSortedBy(Comparator.comparing(PayablesSupplierDto::tradingPartnerName));
+
+    Page<PayablesSupplierDto> page =
+        payablesInsightService.getSuppliers(
+            PageRequest.of(0, 20, Sort.by("tradingPartnerName")));
+
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected);
+  }
+
+  private List<PayablesSupplierDto> expectedSortedBy(
+      Comparator<PayablesSupplierDto> comparator) {
+    return payablesInsightService.computeSuppliers(tenantId, asOfDate).stream()
+        .sorted(comparator)
+        .toList();
+  }
+
+  private static Comparator<PayablesSupplierDto> outstandingDescending() {
+    return Comparator.comparing(PayablesSupplierDto::outstanding).reversed();
+  }
+
+  private void excluded(UUID partnerId, InvoiceType type) {
+    invoice(
+        partnerId,
+        type,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.PAID,
+        "GBP",
+        "10.00",
+        5,
+        null,
+        null);
+    invoice(
+        partnerId,
+        type,
+        InvoiceStatus.DRAFT,
+        InvoicePaymentStatus.UNPAID,
+        "GBP",
+        "20.00",
+        5,
+        null,
+        null);
+    invoice(
+        partnerId,
+        type,
+        InvoiceStatus.CANCELLED,
+        InvoicePaymentStatus.UNPAID,
+        "GBP",
+        "30.00",
+        5,
+        null,
+        null);
+    invoice(partnerId, type, "GBP", "0.00", 5);
+  }
+}
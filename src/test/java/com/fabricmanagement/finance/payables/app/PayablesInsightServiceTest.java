@@ -4,12 +4,18 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.domain.vo.ConvertedMoney;
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
 import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrencyPort;
 import com.fabricmanagement.common.util.Money;
 import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.Order;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerAging;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerPage;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.SortKey;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService;
 import com.fabricmanagement.finance.invoice.app.InvoiceSide;
 import com.fabricmanagement.finance.invoice.app.InvoiceSideResolver;
@@ -18,6 +24,7 @@ import com.fabricmanagement.finance.invoice.domain.InvoicePaymentStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceType;
 import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
 import com.fabricmanagement.finance.payables.dto.PayablesSummaryDto;
 import com.fabricmanagement.finance.payables.dto.PayablesSupplierDto;
 import com.fabricmanagement.finance.payment.domain.PaymentDirection;
@@ -40,6 +47,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 class PayablesInsightServiceTest {
@@ -52,6 +60,8 @@ class PayablesInsightServiceTest {
   @Mock private ExchangeRateService exchangeRateService;
   @Mock private InvoiceSideResolver invoiceSideResolver;
   @Mock private TradingPartnerResolver tradingPartnerResolver;
+  @Mock private OpenInvoiceAgingQuery agingQuery;
+  @Mock private MetricSnapshotQueryService metricSnapshotQueryService;
   private Clock clock = Clock.fixed(Instant.parse("2026-06-16T12:00:00Z"), ZoneId.of("UTC"));
 
   private final UUID tenantId = UUID.randomUUID();
@@ -149,9 +159,7 @@ class PayablesInsightServiceTest {
                 new Object[] {partnerId, AS_OF_DATE.minusDays(30), AS_OF_DATE.minusDays(35)},
                 new Object[] {partnerId, AS_OF_DATE.minusDays(30), AS_OF_DATE.minusDays(10)}));
 
-    Page<PayablesSupplierDto> page = service().getSuppliers(PageRequest.of(0, 20));
-
-    PayablesSupplierDto supplier = page.getContent().get(0);
+    PayablesSupplierDto supplier = service().computeSuppliers(tenantId, AS_OF_DATE).get(0);
     assertThat(supplier.outstanding()).isEqualByComparingTo("650.0000");
     assertThat(supplier.unappliedCredits()).isEqualByComparingTo("50.0000");
     assertThat(supplier.averageDaysLate()).isEqualByComparingTo("10.0000");
@@ -219,11 +227,48 @@ class PayablesInsightServiceTest {
     // It's 100% of AP, so LARGE_UPCOMING_OUTFLOW should fire.
     assertThat(summary.concentration().get(0).outstanding()).isEqualByComparingTo("1000.0000");
 
-    Page<PayablesSupplierDto> page = service().getSuppliers(PageRequest.of(0, 20));
-    PayablesSupplierDto supplier = page.getContent().get(0);
+    PayablesSupplierDto supplier = service().computeSuppliers(tenantId, AS_OF_DATE).get(0);
     assertThat(supplier.riskFlags()).extracting("code").contains("LARGE_UPCOMING_OUTFLOW");
   }
 
+  @Test
+  void supplierPageIsOrderedAndLimitedInTheDatabase() {
+    OpenInvoiceAgingQuery.Scope scope =
+        new OpenInvoiceAgingQuery.Scope(
+            tenantId, InvoiceSide.ACCOUNTS_PAYABLE, "GBP", AS_OF_DATE, "[]");
+    when(agingQuery.scope(tenantId, InvoiceSide.ACCOUNTS_PAYABLE, "GBP", AS_OF_DATE))
+        .thenReturn(scope);
+    when(agingQuery.partners(scope, List.of(new Order(SortKey.CONCENTRATION, true)), 10, 10))
+        .thenReturn(
+            new PartnerPage(
+                List.of(
+                    new PartnerAging(
+                        partnerId,
+                        new BigDecimal("1000.0000"),
+                        BigDecimal.ZERO,
+                        BigDecimal.ZERO,
+                        Map.of(),
+                        false,
+                        false,
+                        new BigDecimal("1000.0000"))),
+                new BigDecimal("2000.0000"),
+                11));
+    when(tradingPartnerResolver.resolveDisplayNames(tenantId, List.of(partnerId)))
+        .thenReturn(Map.of(partnerId, "Loom Supplies"));
+
+    Page<PayablesSupplierDto> page =
+        service()
+            .getSuppliers(
+                PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "concentrationPercent")));
+
+    assertThat(page.getTotalElements()).isEqualTo(11);
+    PayablesSupplierDto supplier = page.getContent().get(0);
+    assertThat(supplier.concentrationPercent()).isEqualByComparingTo("50.0000");
+    assertThat(supplier.riskFlags())
+        .extracting("code")
+        .contains("HIGH_DEPENDENCY", "LARGE_UPCOMING_OUTFLOW");
+  }
+
   private BigDecimal bucket(PayablesSummaryDto summary, String bucket) {
     return summary.agingBuckets().stream()
         .filter(dto -> dto.bucket().equals(bucket))
@@ -250,6 +295,8 @@ class PayablesInsightServiceTest {
         reportingCurrencyPort,
         new OpenInvoiceAmountService(exchangeRateService, invoiceSideResolver),
         tradingPartnerResolver,
+        agingQuery,
+        metricSnapshotQueryService,
         clock);
   }
 
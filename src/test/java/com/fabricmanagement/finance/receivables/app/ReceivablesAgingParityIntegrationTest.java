@@ -0,0 +1,211 @@
+package com.fabricmanagement.finance.receivables.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingParitySupport;
+import com.fabricmanagement.finance.invoice.domain.Invoice;
+import com.fabricmanagement.finance.invoice.domain.InvoicePaymentStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
+import com.fabricmanagement.finance.invoice.domain.InvoiceType;
+import com.fabricmanagement.finance.receivables.dto.ReceivablesCustomerDto;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Holds the database customer aging behind {@link ReceivablesInsightService#getCustomers} to the
+ * in-memory rollup, across credit-note contra, disputes, every aging bucket, fresh, stale, issue-
+ * rate and missing FX, and the invoices the open-item filter must drop.
+ */
+@DisplayName("Receivables aging parity (database vs in-memory)")
+class ReceivablesAgingParityIntegrationTest extends OpenInvoiceAgingParitySupport {
+
+  @Autowired private ReceivablesInsightService receivablesInsightService;
+
+  private UUID acme;
+  private UUID bolt;
+
+  @BeforeEach
+  void seed() {
+    rate("USD", "0.79123456", 0);
+    rate("EUR", "0.85432109", 3);
+
+    acme = partner("Acme Textiles");
+    Invoice acmeSales = invoice(acme, InvoiceType.SALES, "GBP", "1000.00", -3);
+    invoice(acme, InvoiceType.SALES, "USD", "533.33", 20);
+    invoice(
+        acme,
+        InvoiceType.SALES,
+        InvoiceStatus.DISPUTED,
+        InvoicePaymentStatus.UNPAID,
+        "EUR",
+        "300.07",
+        45,
+        null,
+        null);
+    invoice(
+        acme,
+        InvoiceType.CREDIT_NOTE,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.PARTIALLY_PAID,
+        "GBP",
+        "120.00",
+        10,
+        acmeSales.getId(),
+        null);
+
+    bolt = partner("Bolt Weaving");
+    invoice(
+        bolt,
+        InvoiceType.SALES,
+        InvoiceStatus.ISSUED,
+        InvoicePaymentStatus.UNPAID,
+        "CHF",
+        "812.50",
+        75,
+        null,
+        "0.87654321");
+    invoice(bolt, InvoiceType.SALES, "JPY", "90000", 100);
+    invoice(bolt, InvoiceType.DEBIT_NOTE, "GBP", "45.55", 0);
+
+    UUID cotton = partner("Cotton Mills");
+    invoice(cotton, InvoiceType.SALES, "GBP", "250.00", 10);
+    invoice(cotton, InvoiceType.PURCHASE, "GBP", "9999.00", 10);
+    excluded(cotton, InvoiceType.SALES);
+
+    UUID dye = partner("Dye House");
+    excluded(dye, InvoiceType.SALES);
+
+    UUID eastLoom = partner("East Loom");
+    Invoice eastPaidSales =
+        invoice(
+            eastLoom,
+            InvoiceType.SALES,
+            InvoiceStatus.SENT,
+            InvoicePaymentStatus.PAID,
+            "GBP",
+            "300.00",
+            5,
+            null,
+            null);
+    invoice(
+        eastLoom,
+        InvoiceType.CREDIT_NOTE,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.UNPAID,
+        "GBP",
+        "80.00",
+        5,
+        eastPaidSales.getId(),
+        null);
+  }
+
+  @Test
+  void defaultPageMatchesInMemoryRollup() {
+    List<ReceivablesCustomerDto> expected = expectedSortedBy(outstandingDescending());
+
+    Page<ReceivablesCustomerDto> page =
+        receivablesInsightService.getCustomers(PageRequest.of(0, 20));
+
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void secondPageIsCutInTheDatabase() {
+    List<ReceivablesCustomerDto> expected = expectedSortedBy(outstandingDescending());
+
+    Page<ReceivablesCustomerDto> page =
+        receivablesInsightService.getCustomers(PageRequest.of(1, 3));
+
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected.subList(3, 4));
+  }
+
+  @Test
+  void overdueExposureSortMatchesInMemoryRollup() {
+    List<ReceivablesCustomerDto> expected =
+        expectedSortedBy(Comparator.comparing(ReceivablesCustomerDto::overdueExposure).reversed());
+
+    Page<ReceivablesCustomerDto> page =
+        receivablesInsightService.getCustomers(
+            PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "overdueExposure")));
+
+    assertThat(page.getContent())
+        .extracting(ReceivablesCustomerDto::tradingPartnerId)
+        .startsWith(bolt, acme);
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void nameSortMatchesInMemoryRollup() {
+    List<ReceivablesCustomerDto> expected =
+        expectedSortedBy(Comparator.comparing(ReceivablesCustomerDto::tradingPartnerName));
+
+    Page<ReceivablesCustomerDto> page =
+        receivablesInsightService.getCustomers(
+            PageRequest.of(0, 20, Sort.by("tradingPartnerName")));
+
+    assertThat(page.getContent())
+        .usingRecursiveFieldByFieldElementComparator(BY_VALUE)
+        .containsExactlyElementsOf(expected);
+  }
+
+  private List<ReceivablesCustomerDto> expectedSortedBy(
+      Comparator<ReceivablesCustomerDto> comparator) {
+    return receivablesInsightService.computeCustomers(tenantId, asOfDate).stream()
+        .sorted(comparator)
+        .toList();
+  }
+
+  private static Comparator<ReceivablesCustomerDto> outstandingDescending() {
+    return Comparator.comparing(ReceivablesCustomerDto::outstanding).reversed();
+  }
+
+  private void excluded(UUID partnerId, InvoiceType type) {
+    invoice(
+        partnerId,
+        type,
+        InvoiceStatus.SENT,
+        InvoicePaymentStatus.PAID,
+        "GBP",
+        "10.00",
+        5,
+        null,
+        null);
+    invoice(
+        partnerId,
+        type,
+        InvoiceStatus.DRAFT,
+        InvoicePaymentStatus.UNPAID,
+        "GBP",
+        "20.00",
+        5,
+        null,
+        null);
+    invoice(
+        partnerId,
+        type,
+        InvoiceStatus.CANCELLED,
+        InvoicePaymentStatus.UNPAID,
+        "GBP",
+        "30.00",
+        5,
+        null,
+        null);
+    invoice(partnerId, type, "GBP", "0.00", 5);
+  }
+}
@@ -3,6 +3,7 @@ package com.fabricmanagement.finance.receivables.app;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.domain.vo.ConvertedMoney;
@@ -11,6 +12,13 @@ import com.fabricmanagement.common.infrastructure.tenant.TenantReportingCurrency
 import com.fabricmanagement.common.util.Money;
 import com.fabricmanagement.costing.app.exchange.ExchangeRateService;
 import com.fabricmanagement.costing.domain.exception.ExchangeRateRequiredException;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.AgingBucket;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.CurrencySummary;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.Order;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerAging;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.PartnerPage;
+import com.fabricmanagement.finance.common.app.OpenInvoiceAgingQuery.SortKey;
 import com.fabricmanagement.finance.common.app.OpenInvoiceAmountService;
 import com.fabricmanagement.finance.invoice.app.InvoiceSide;
 import com.fabricmanagement.finance.invoice.app.InvoiceSideResolver;
@@ -19,6 +27,10 @@ import com.fabricmanagement.finance.invoice.domain.InvoicePaymentStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceStatus;
 import com.fabricmanagement.finance.invoice.domain.InvoiceType;
 import com.fabricmanagement.finance.invoice.infra.repository.InvoiceRepository;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotQueryService.SummarySnapshot;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.LedgerRow;
+import com.fabricmanagement.finance.metrics.app.MetricSnapshotStore.PartnerRow;
 import com.fabricmanagement.finance.payment.domain.PaymentDirection;
 import com.fabricmanagement.finance.payment.domain.PaymentStatus;
 import com.fabricmanagement.finance.payment.infra.repository.PaymentAllocationRepository;
@@ -32,6 +44,7 @@ import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +54,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 class ReceivablesInsightServiceTest {
@@ -53,6 +67,8 @@ class ReceivablesInsightServiceTest {
   @Mock private ExchangeRateService exchangeRateService;
   @Mock private InvoiceSideResolver invoiceSideResolver;
   @Mock private TradingPartnerResolver tradingPartnerResolver;
+  @Mock private OpenInvoiceAgingQuery agingQuery;
+  @Mock private MetricSnapshotQueryService metricSnapshotQueryService;
 
   private final Clock clock = Clock.fixed(Instant.parse("2026-06-16T12:00:00Z"), ZoneOffset.UTC);
   private final UUID tenantId = UUID.randomUUID();
@@ -138,9 +154,7 @@ class ReceivablesInsightServiceTest {
                 new Object[] {partnerId, AS_OF_DATE.minusDays(30), AS_OF_DATE.minusDays(35)},
                 new Object[] {partnerId, AS_OF_DATE.minusDays(30), AS_OF_DATE.minusDays(10)}));
 
-    Page<ReceivablesCustomerDto> page = service().getCustomers(PageRequest.of(0, 20));
-
-    ReceivablesCustomerDto customer = page.getContent().get(0);
+    ReceivablesCustomerDto customer = service().computeCustomers(tenantId, AS_OF_DATE).get(0);
     assertThat(customer.outstanding()).isEqualByComparingTo("650.0000");
     assertThat(customer.unappliedCredits()).isEqualByComparingTo("50.0000");
     assertThat(customer.averageDaysLate()).isEqualByComparingTo("10.0000");
@@ -228,6 +242,22 @@ class ReceivablesInsightServiceTest {
     assertThat(summary.warnings()).extracting("code").contains("MISSING_RATE");
   }
 
+  private static PartnerRow partnerRow(UUID tradingPartnerId, String outstanding) {
+    BigDecimal amount = new BigDecimal(outstanding);
+    return new PartnerRow(
+        tradingPartnerId,
+        amount,
+        BigDecimal.ZERO,
+        BigDecimal.ZERO,
+        amount,
+        BigDecimal.ZERO,
+        BigDecimal.ZERO,
+        BigDecimal.ZERO,
+        BigDecimal.ZERO,
+        false,
+        null);
+  }
+
   private BigDecimal bucket(ReceivablesSummaryDto summary, String bucket) {
     return summary.agingBuckets().stream()
         .filter(dto -> dto.bucket().equals(bucket))
@@ -245,6 +275,112 @@ class ReceivablesInsightServiceTest {
         .thenReturn(invoices);
   }
 
+  @Test
+  void customerPageSortedByOverdueExposureIsOrderedAndLimitedInTheDatabase() {
+    OpenInvoiceAgingQuery.Scope scope = stubAgingScope();
+    when(agingQuery.partners(scope, List.of(new Order(SortKey.OVERDUE_EXPOSURE, true)), 20, 10))
+        .thenReturn(
+            new PartnerPage(
+                List.of(
+                    new PartnerAging(
+                        partnerId,
+                        new BigDecimal("400.0000"),
+                        new BigDecimal("400.0000"),
+                        BigDecimal.ZERO,
+                        Map.of(AgingBucket.DAYS_61_90, new BigDecimal("400.0000")),
+                        false,
+                        true,
+                        null)),
+                new BigDecimal("1000.0000"),
+                21));
+    when(tradingPartnerResolver.resolveDisplayNames(tenantId, List.of(partnerId)))
+        .thenReturn(Map.of(partnerId, "Acme Textiles"));
+
+    Page<ReceivablesCustomerDto> page =
+        service()
+            .getCustomers(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "overdueExposure")));
+
+    assertThat(page.getTotalElements()).isEqualTo(21);
+    ReceivablesCustomerDto customer = page.getContent().get(0);
+    assertThat(customer.tradingPartnerName()).isEqualTo("Acme Textiles");
+    assertThat(customer.concentrationPercent()).isEqualByComparingTo("40.0000");
+    assertThat(customer.riskFlags()).extracting("code").contains("SEVERE_OVERDUE");
+  }
+
+  @Test
+  void summaryIsServedFromTodaysSnapshotWithoutReadingInvoices() {
+    UUID smallPartnerId = UUID.randomUUID();
+    when(metricSnapshotQueryService.findSummary(
+            tenantId, InvoiceSide.ACCOUNTS_RECEIVABLE, AS_OF_DATE, "GBP", 5))
+        .thenReturn(
+            Optional.of(
+                new SummarySnapshot(
+                    new LedgerRow(
+                        AS_OF_DATE,
+                        "GBP",
+                        new BigDecimal("1000.0000"),
+                        new BigDecimal("400.0000"),
+                        2,
+                        90,
+                        new BigDecimal("45.0000"),
+                        new BigDecimal("2000.0000"),
+                        "OK"),
+                    Map.of(
+                        AgingBucket.CURRENT, new BigDecimal("600.0000"),
+                        AgingBucket.DAYS_1_30, new BigDecimal("400.0000")),
+                    List.of(
+                        partnerRow(partnerId, "600.0000"), partnerRow(smallPartnerId, "-50")))));
+    OpenInvoiceAgingQuery.Scope scope = stubAgingScope();
+    when(agingQuery.currencyTotals(scope))
+        .thenReturn(
+            List.of(
+                new CurrencySummary(
+                    "GBP", new BigDecimal("600.0000"), new BigDecimal("600.0000"), true),
+                new CurrencySummary(
+                    "USD", new BigDecimal("500.0000"), new BigDecimal("400.0000"), false)));
+    when(tradingPartnerResolver.resolveDisplayNames(tenantId, List.of(partnerId)))
+        .thenReturn(Map.of(partnerId, "Acme Textiles"));
+
+    ReceivablesSummaryDto summary = service().getSummary(5);
+
+    assertThat(summary.totalOutstanding()).isEqualByComparingTo("1000.0000");
+    assertThat(summary.overdueExposurePercent()).isEqualByComparingTo("40.0000");
+    assertThat(bucket(summary, "DAYS_1_30")).isEqualByComparingTo("400.0000");
+    assertThat(summary.concentration())
+        .singleElement()
+        .satisfies(
+            top -> {
+              assertThat(top.tradingPartnerName()).isEqualTo("Acme Textiles");
+              assertThat(top.percentOfTotal()).isEqualByComparingTo("60.0000");
+            });
+    assertThat(summary.dso().daysSalesOutstanding()).isEqualByComparingTo("45.0000");
+    assertThat(summary.perCurrencyBreakdown()).hasSize(2);
+    assertThat(summary.warnings()).extracting("code").containsExactly("MISSING_RATE");
+    verifyNoInteractions(invoiceRepository);
+  }
+
+  @Test
+  void customerPageSortedByNameAggregatesEveryCustomerBeforeOrdering() {
+    OpenInvoiceAgingQuery.Scope scope = stubAgingScope();
+    when(agingQuery.partners(scope, List.of(), 0, null))
+        .thenReturn(new PartnerPage(List.of(), BigDecimal.ZERO, 0));
+
+    Page<ReceivablesCustomerDto> page =
+        service().getCustomers(PageRequest.of(0, 10, Sort.by("tradingPartnerName")));
+
+    assertThat(page.getContent()).isEmpty();
+    verify(agingQuery).partners(scope, List.of(), 0, null);
+  }
+
+  private OpenInvoiceAgingQuery.Scope stubAgingScope() {
+    OpenInvoiceAgingQuery.Scope scope =
+        new OpenInvoiceAgingQuery.Scope(
+            tenantId, InvoiceSide.ACCOUNTS_RECEIVABLE, "GBP", AS_OF_DATE, "[]");
+    when(agingQuery.scope(tenantId, InvoiceSide.ACCOUNTS_RECEIVABLE, "GBP", AS_OF_DATE))
+        .thenReturn(scope);
+    return scope;
+  }
+
   private ReceivablesInsightService service() {
     return new ReceivablesInsightService(
         invoiceRepository,
@@ -252,6 +388,8 @@ class ReceivablesInsightServiceTest {
         reportingCurrencyPort,
         new OpenInvoiceAmountService(exchangeRateService, invoiceSideResolver),
         tradingPartnerResolver,
+        agingQuery,
+        metricSnapshotQueryService,
         clock);
   }
 
@@ -17,6 +17,8 @@ import com.fabricmanagement.flowboard.task.domain.Task;
 import com.fabricmanagement.flowboard.task.domain.TaskStatus;
 import com.fabricmanagement.flowboard.task.domain.TaskType;
 import com.fabricmanagement.flowboard.task.infra.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
@@ -47,13 +49,19 @@ class AutomationEngineTest {
   private com.fasterxml.jackson.databind.ObjectMapper objectMapper =
       new com.fasterxml.jackson.databind.ObjectMapper();
 
+  @Mock private AutomationExecutionCounter executionCounter;
+
   @InjectMocks private AutomationActionExecutor actionExecutor;
 
+  private AutomationRuleIndex ruleIndex;
   private AutomationEngine automationEngine;
 
   @org.junit.jupiter.api.BeforeEach
   void setUp() {
-    automationEngine = new AutomationEngine(ruleRepo, actionExecutor, objectMapper);
+    ruleIndex =
+        new AutomationRuleIndex(
+            ruleRepo, objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+    automationEngine = new AutomationEngine(ruleIndex, actionExecutor, executionCounter);
   }
 
   private static final UUID TASK_ID = UUID.randomUUID();
@@ -111,7 +119,7 @@ class AutomationEngineTest {
           "IN_PROGRESS",
           "DONE");
 
-      verify(rule).markExecuted();
+      verify(executionCounter).record(any());
     }
 
     @Test
@@ -136,7 +144,7 @@ class AutomationEngineTest {
           "IN_PROGRESS",
           "DONE");
 
-      verify(rule, never()).markExecuted();
+      verify(executionCounter, never()).record(any());
     }
 
     @Test
@@ -164,7 +172,7 @@ class AutomationEngineTest {
           "TO_DO",
           "IN_PROGRESS");
 
-      verify(rule, never()).markExecuted();
+      verify(executionCounter, never()).record(any());
     }
 
     @Test
@@ -189,7 +197,7 @@ class AutomationEngineTest {
           "IN_PROGRESS",
           "DONE");
 
-      verify(rule, never()).markExecuted();
+      verify(executionCounter, never()).record(any());
     }
   }
 
@@ -225,6 +233,81 @@ class AutomationEngineTest {
     }
   }
 
+  @Nested
+  @DisplayName("Compiled Rule Index")
+  class CompiledRuleIndex {
+
+    @Test
+    @DisplayName("Kurallar (tenant, board, trigger) başına bir kez yüklenir ve parse edilir")
+    void rulesLoadedAndParsedOnce() throws Exception {
+      Task task = buildMockTask(TaskType.PRODUCTION, TaskStatus.DONE);
+      AutomationRule rule = mockRule("{}", "{\"taskType\": \"QUALITY\"}", 0L);
+      when(ruleRepo.findActiveByTenantAndTriggerTypeAndBoard(any(), any(), any()))
+          .thenReturn(List.of(rule));
+
+      for (int i = 0; i < 3; i++) {
+        automationEngine.evaluate(
+            task,
+            AutomationTriggerType.STATUS_CHANGED,
+            AutomationContext.initial(TASK_ID, BOARD_ID),
+            "IN_PROGRESS",
+            "DONE");
+      }
+
+      UUID tenantId = task.getTenantId();
+      verify(ruleRepo, times(1))
+          .findActiveByTenantAndTriggerTypeAndBoard(
+              tenantId, AutomationTriggerType.STATUS_CHANGED, BOARD_ID);
+      verify(objectMapper, times(1)).readTree(anyString());
+      verify(executionCounter, never()).record(any());
+    }
+
+    @Test
+    @DisplayName("invalidateTenant sonrası kurallar yeniden yüklenir")
+    void invalidateTenant_reloadsRules() {
+      Task task = buildMockTask(TaskType.QUALITY, TaskStatus.DONE);
+      when(ruleRepo.findActiveByTenantAndTriggerTypeAndBoard(any(), any(), any()))
+          .thenReturn(List.of());
+
+      automationEngine.evaluate(
+          task, AutomationTriggerType.TASK_CREATED, AutomationContext.initial(TASK_ID, BOARD_ID));
+      ruleIndex.invalidateTenant(task.getTenantId());
+      automationEngine.evaluate(
+          task, AutomationTriggerType.TASK_CREATED, AutomationContext.initial(TASK_ID, BOARD_ID));
+
+      verify(ruleRepo, times(2)).findActiveByTenantAndTriggerTypeAndBoard(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Max execution limiti henüz yazılmamış çalıştırmaları da sayar")
+    void maxExecutionCount_includesUnflushedExecutions() {
+      Task task = buildMockTask(TaskType.QUALITY, TaskStatus.DONE);
+      AutomationRule rule = mockRule("{}", null, 9_999L);
+      when(rule.getActionType()).thenReturn(AutomationActionType.NOTIFY_MANAGER);
+      when(rule.getActionConfig()).thenReturn("{\"message\": \"done!\"}");
+      when(ruleRepo.findActiveByTenantAndTriggerTypeAndBoard(any(), any(), any()))
+          .thenReturn(List.of(rule));
+      doAnswer(
+              invocation -> {
+                invocation.<CompiledAutomationRule>getArgument(0).markExecuted();
+                return null;
+              })
+          .when(executionCounter)
+          .record(any());
+
+      for (int i = 0; i < 2; i++) {
+        automationEngine.evaluate(
+            task,
+            AutomationTriggerType.STATUS_CHANGED,
+            AutomationContext.initial(TASK_ID, BOARD_ID),
+            "IN_PROGRESS",
+            "DONE");
+      }
+
+      verify(executionCounter, times(1)).record(any());
+    }
+  }
+
   // =========================================================================
   // HELPERS
   // =========================================================================
@@ -239,4 +322,16 @@ class AutomationEngineTest {
     when(task.getPriority()).thenReturn(Priority.MEDIUM);
     return task;
   }
+
+  private AutomationRule mockRule(
+      String triggerConfig, String conditionConfig, long executionCount) {
+    AutomationRule rule = mock(AutomationRule.class);
+    when(rule.getId()).thenReturn(UUID.randomUUID());
+    when(rule.getTriggerType()).thenReturn(AutomationTriggerType.STATUS_CHANGED);
+    when(rule.getTriggerConfig()).thenReturn(triggerConfig);
+    when(rule.getConditionConfig()).thenReturn(conditionConfig);
+    when(rule.getName()).thenReturn("indexed-rule");
+    when(rule.getExecutionCount()).thenReturn(executionCount);
+    return rule;
+  }
 }
@@ -0,0 +1,123 @@
+package com.fabricmanagement.flowboard.automation.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fabricmanagement.flowboard.automation.domain.AutomationRule;
+import com.fabricmanagement.flowboard.automation.domain.AutomationTriggerType;
+import com.fabricmanagement.flowboard.automation.infra.repository.AutomationRuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("AutomationExecutionCounter")
+class AutomationExecutionCounterTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+
+  @Mock private AutomationRuleRepository ruleRepo;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private AutomationExecutionCounter counter;
+
+  @BeforeEach
+  void setUp() {
+    doAnswer(
+            invocation -> {
+              invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+              return null;
+            })
+        .when(transactionTemplate)
+        .executeWithoutResult(any());
+    counter = new AutomationExecutionCounter(ruleRepo, transactionTemplate);
+  }
+
+  @Test
+  @DisplayName("Aynı kuralın çalıştırmaları tek UPDATE ile yazılır")
+  void executionsAggregatedPerRule() {
+    CompiledAutomationRule compiled = compiledRule(UUID.randomUUID(), 5L);
+
+    counter.record(compiled);
+    counter.record(compiled);
+    counter.record(compiled);
+    counter.flush();
+    counter.flush();
+
+    UUID ruleId = compiled.rule().getId();
+    verify(ruleRepo, times(1)).addExecutions(eq(ruleId), eq(TENANT_ID), eq(3L), any());
+    assertThat(compiled.executionCount()).isEqualTo(8L);
+  }
+
+  @Test
+  @DisplayName("Başarısız yazımın artışları bir sonraki tura kalır")
+  void failedFlushRetriedWithLaterExecutions() {
+    CompiledAutomationRule compiled = compiledRule(UUID.randomUUID(), 0L);
+    UUID ruleId = compiled.rule().getId();
+    when(ruleRepo.addExecutions(any(), any(), anyLong(), any()))
+        .thenThrow(new IllegalStateException("db down"))
+        .thenReturn(1);
+
+    counter.record(compiled);
+    counter.flush();
+    counter.record(compiled);
+    counter.flush();
+
+    verify(ruleRepo).addExecutions(eq(ruleId), eq(TENANT_ID), eq(1L), any());
+    verify(ruleRepo).addExecutions(eq(ruleId), eq(TENANT_ID), eq(2L), any());
+  }
+
+  @Test
+  @DisplayName("Transaction içindeki çalıştırma yalnızca commit sonrasında sayılır")
+  void executionCountedOnlyAfterCommit() {
+    CompiledAutomationRule committed = compiledRule(UUID.randomUUID(), 0L);
+    CompiledAutomationRule rolledBack = compiledRule(UUID.randomUUID(), 0L);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      counter.record(committed);
+      assertThat(committed.executionCount()).isZero();
+      TransactionSynchronizationUtils.triggerAfterCommit();
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      counter.record(rolledBack);
+      TransactionSynchronizationUtils.triggerAfterCompletion(
+          TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    counter.flush();
+
+    assertThat(committed.executionCount()).isEqualTo(1L);
+    assertThat(rolledBack.executionCount()).isZero();
+    verify(ruleRepo).addExecutions(eq(committed.rule().getId()), eq(TENANT_ID), eq(1L), any());
+    verify(ruleRepo, never()).addExecutions(eq(rolledBack.rule().getId()), any(), anyLong(), any());
+  }
+
+  private CompiledAutomationRule compiledRule(UUID ruleId, long executionCount) {
+    AutomationRule rule = mock(AutomationRule.class);
+    when(rule.getId()).thenReturn(ruleId);
+    when(rule.getTenantId()).thenReturn(TENANT_ID);
+    when(rule.getTriggerType()).thenReturn(AutomationTriggerType.TASK_CREATED);
+    when(rule.getExecutionCount()).thenReturn(executionCount);
+    return CompiledAutomationRule.compile(rule, new ObjectMapper());
+  }
+}
@@ -0,0 +1,172 @@
+package com.fabricmanagement.flowboard.automation.app;
+
+import static com.fabricmanagement.testsupport.Benchmarks.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.fabricmanagement.flowboard.automation.domain.AutomationRule;
+import com.fabricmanagement.flowboard.automation.domain.AutomationTriggerType;
+import com.fabricmanagement.flowboard.automation.infra.repository.AutomationRuleRepository;
+import com.fabricmanagement.flowboard.task.domain.Priority;
+import com.fabricmanagement.flowboard.task.domain.Task;
+import com.fabricmanagement.flowboard.task.domain.TaskStatus;
+import com.fabricmanagement.flowboard.task.domain.TaskType;
+import com.fabricmanagement.testsupport.Benchmarks;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Synthetic benchmark of automation rule evaluation: 10k task status transitions against a board
+ * with 40 STATUS_CHANGED rules, once the previous way (rule query plus triggerConfig and
+ * conditionConfig parse on every transition) and once through {@link AutomationRuleIndex}. Not
+ * part of the regular build (surefire only picks up {@code *Test}); run it with {@code mvn test
+ * -Dtest=AutomationRuleEvaluationBenchmark}.
+ *
+ * <p>The repository is a stub, so the round trip each of those queries cost is not measured; the
+ * benchmark counts them instead and checks that both ways select the same rules. Actions are not
+ * executed.
+ */
+class AutomationRuleEvaluationBenchmark {
+
+  private static final int RULES = 40;
+  private static final int TASKS = 200;
+  private static final int TRANSITIONS = 10_000;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final UUID BOARD_ID = UUID.randomUUID();
+  private static final AutomationTriggerType TRIGGER = AutomationTriggerType.STATUS_CHANGED;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  void tenThousandTransitions() {
+    Random random = new Random(42);
+    TaskStatus[] statuses = TaskStatus.values();
+    TaskType[] taskTypes = TaskType.values();
+    Priority[] priorities = Priority.values();
+
+    List<AutomationRule> rules = new ArrayList<>(RULES);
+    for (int i = 0; i < RULES; i++) {
+      String trigger =
+          switch (i % 4) {
+            case 0 -> "{}";
+            case 1 -> "{\"toStatus\": \"" + statuses[random.nextInt(statuses.length)] + "\"}";
+            default ->
+                "{\"fromStatus\": \""
+                    + statuses[random.nextInt(statuses.length)]
+                    + "\", \"toStatus\": \""
+                    + statuses[random.nextInt(statuses.length)]
+                    + "\"}";
+          };
+      String condition =
+          switch (i % 5) {
+            case 0 -> null;
+            case 1 -> "{\"taskType\": \"" + taskTypes[random.nextInt(taskTypes.length)] + "\"}";
+            case 2 -> "{\"priority\": [\"HIGH\", \"CRITICAL\"]}";
+            case 3 -> "{\"estimatedHoursGte\": " + random.nextInt(16) + "}";
+            default ->
+                "{\"taskType\": \"QUALITY\", \"priority\": \"MEDIUM\", \"estimatedHoursGte\": 4}";
+          };
+      rules.add(rule(trigger, condition));
+    }
+
+    List<Task> tasks = new ArrayList<>(TASKS);
+    for (int i = 0; i < TASKS; i++) {
+      Task task = mock(Task.class, withSettings().stubOnly());
+      when(task.getTaskType()).thenReturn(taskTypes[random.nextInt(taskTypes.length)]);
+      when(task.getPriority()).thenReturn(priorities[random.nextInt(priorities.length)]);
+      when(task.getEstimatedHours())
+          .thenReturn(random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(24)));
+      tasks.add(task);
+    }
+
+    List<Transition> transitions = new ArrayList<>(TRANSITIONS);
+    for (int i = 0; i < TRANSITIONS; i++) {
+      transitions.add(
+          new Transition(
+              tasks.get(random.nextInt(TASKS)),
+              statuses[random.nextInt(statuses.length)].name(),
+              statuses[random.nextInt(statuses.length)].name()));
+    }
+
+    AutomationRuleRepository queriedRepo =
+        mock(AutomationRuleRepository.class, withSettings().stubOnly());
+    when(queriedRepo.findActiveByTenantAndTriggerTypeAndBoard(TENANT_ID, TRIGGER, BOARD_ID))
+        .thenReturn(rules);
+    AutomationRuleRepository indexedRepo = mock(AutomationRuleRepository.class);
+    when(indexedRepo.findActiveByTenantAndTriggerTypeAndBoard(TENANT_ID, TRIGGER, BOARD_ID))
+        .thenReturn(rules);
+    AutomationRuleIndex index =
+        new AutomationRuleIndex(
+            indexedRepo, objectMapper, new SimpleMeterRegistry(), Duration.ofMinutes(1), 1_000);
+
+    Map<String, Long> matches =
+        Benchmarks.compare(
+            "AutomationRuleEvaluation",
+            "transitions=" + TRANSITIONS + " rules=" + RULES,
+            WARMUP_ROUNDS,
+            MEASURED_ROUNDS,
+            variant("parsePerTransition", () -> parsePerTransition(queriedRepo, transitions)),
+            variant("indexed", () -> indexed(index, transitions)));
+
+    assertThat(matches.get("indexed")).isPositive().isEqualTo(matches.get("parsePerTransition"));
+    // Parse-per-transition queries once per transition; the index once in total.
+    verify(indexedRepo, times(1))
+        .findActiveByTenantAndTriggerTypeAndBoard(TENANT_ID, TRIGGER, BOARD_ID);
+  }
+
+  /** The previous evaluation: query the rules, then parse both configs of each rule. */
+  private long parsePerTransition(AutomationRuleRepository ruleRepo, List<Transition> transitions) {
+    long matches = 0;
+    for (Transition transition : transitions) {
+      for (AutomationRule rule :
+          ruleRepo.findActiveByTenantAndTriggerTypeAndBoard(TENANT_ID, TRIGGER, BOARD_ID)) {
+        CompiledAutomationRule parsed = CompiledAutomationRule.compile(rule, objectMapper);
+        if (parsed.triggerMatches(transition.oldStatus(), transition.newStatus())
+            && parsed.conditionMatches(transition.task())) {
+          matches++;
+        }
+      }
+    }
+    return matches;
+  }
+
+  private static long indexed(AutomationRuleIndex index, List<Transition> transitions) {
+    long matches = 0;
+    for (Transition transition : transitions) {
+      for (CompiledAutomationRule compiled : index.rules(TENANT_ID, BOARD_ID, TRIGGER)) {
+        if (compiled.triggerMatches(transition.oldStatus(), transition.newStatus())
+            && compiled.conditionMatches(transition.task())) {
+          matches++;
+        }
+      }
+    }
+    return matches;
+  }
+
+  private static AutomationRule rule(String triggerConfig, String conditionConfig) {
+    AutomationRule rule = mock(AutomationRule.class, withSettings().stubOnly());
+    when(rule.getId()).thenReturn(UUID.randomUUID());
+    when(rule.getName()).thenReturn("bench-rule");
+    when(rule.getTriggerType()).thenReturn(TRIGGER);
+    when(rule.getTriggerConfig()).thenReturn(triggerConfig);
+    when(rule.getConditionConfig()).thenReturn(conditionConfig);
+    return rule;
+  }
+
+  private record Transition(Task task, String oldStatus, String newStatus) {}
+}
@@ -0,0 +1,119 @@
+package com.fabricmanagement.flowboard.dashboard.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.flowboard.common.exception.FlowBoardDomainException;
+import com.fabricmanagement.flowboard.dashboard.app.UserPerformanceSnapshotStore.SnapshotRow;
+import com.fabricmanagement.flowboard.dashboard.app.UserPerformanceSnapshotStore.WeeklyTally;
+import com.fabricmanagement.flowboard.dashboard.domain.BadgeType;
+import com.fabricmanagement.flowboard.dashboard.infra.repository.UserPerformanceSnapshotRepository;
+import com.fabricmanagement.platform.user.domain.SystemUser;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PerformanceService")
+class PerformanceServiceTest {
+
+  private static final LocalDate WEEK = LocalDate.of(2026, 8, 2); // Pazar
+
+  @Mock private UserPerformanceSnapshotRepository snapshotRepo;
+  @Mock private UserPerformanceSnapshotStore snapshotStore;
+  @InjectMocks private PerformanceService performanceService;
+
+  private final UUID tenantId = UUID.randomUUID();
+  private final UUID userId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(performanceService, "maxBackfillWeeks", 104);
+    TenantContext.setCurrentTenantUid("ACME-001");
+  }
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
+  @Test
+  @DisplayName("Puan ve rozetler bellekte hesaplanır, ilk kazanılan rozet topBadge olur")
+  void score_awardsBadgesInOrder() {
+    SnapshotRow row = PerformanceService.score(new WeeklyTally(WEEK, userId, 12, 1));
+
+    assertThat(row.totalPoints()).isEqualTo(115);
+    assertThat(row.earnedBadges()).containsExactly("SPEEDSTER", "CONSISTENT_PERFORMER");
+    assertThat(row.topBadge()).isEqualTo(BadgeType.SPEEDSTER);
+  }
+
+  @Test
+  @DisplayName("Tamamlanan görev yoksa puan sıfır, rozet yok")
+  void score_noTasks_noBadges() {
+    SnapshotRow row = PerformanceService.score(new WeeklyTally(WEEK, userId, 0, 0));
+
+    assertThat(row.totalPoints()).isZero();
+    assertThat(row.earnedBadges()).isEmpty();
+    assertThat(row.topBadge()).isNull();
+  }
+
+  @Test
+  @DisplayName("Haftalık yazım mevcut snapshot'ları korur ve tek toplu insert yapar")
+  @SuppressWarnings("unchecked")
+  void writeSnapshots_keepsExistingRows() {
+    when(snapshotStore.findWeeklyTallies(tenantId, WEEK, WEEK))
+        .thenReturn(List.of(new WeeklyTally(WEEK, userId, 5, 0)));
+    when(snapshotStore.insertSnapshots(
+            eq(tenantId), eq("ACME-001"), eq(SystemUser.ID), any(), eq(false)))
+        .thenReturn(1);
+
+    int written = performanceService.writeSnapshots(tenantId, WEEK, WEEK, false);
+
+    assertThat(written).isEqualTo(1);
+    ArgumentCaptor<List<SnapshotRow>> rows = ArgumentCaptor.forClass(List.class);
+    verify(snapshotStore)
+        .insertSnapshots(
+            eq(tenantId), eq("ACME-001"), eq(SystemUser.ID), rows.capture(), eq(false));
+    assertThat(rows.getValue())
+        .singleElement()
+        .satisfies(row -> assertThat(row.topBadge()).isEqualTo(BadgeType.QUALITY_CHAMPION));
+  }
+
+  @Test
+  @DisplayName("Backfill hafta başlangıçlarını Pazar'a hizalar ve üzerine yazar")
+  void backfill_alignsToSundayAndReplaces() {
+    LocalDate lastWeek = WEEK.plusWeeks(9);
+    when(snapshotStore.findWeeklyTallies(tenantId, WEEK, lastWeek)).thenReturn(List.of());
+
+    performanceService.backfill(tenantId, WEEK.plusDays(3), lastWeek.plusDays(6));
+
+    verify(snapshotStore).findWeeklyTallies(tenantId, WEEK, lastWeek);
+    verify(snapshotStore).insertSnapshots(any(), any(), any(), eq(List.of()), eq(true));
+  }
+
+  @Test
+  @DisplayName("Backfill üst sınırı aşan aralığı reddeder")
+  void backfill_rangeTooLong_rejected() {
+    assertThatThrownBy(() -> performanceService.backfill(tenantId, WEEK, WEEK.plusWeeks(104)))
+        .isInstanceOf(FlowBoardDomainException.class);
+
+    verify(snapshotStore, never()).insertSnapshots(any(), any(), any(), any(), anyBoolean());
+  }
+}
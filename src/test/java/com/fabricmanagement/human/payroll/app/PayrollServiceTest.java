@@ -0,0 +1,231 @@
+package com.fabricmanagement.human.payroll.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.human.compliance.localization.app.HrPolicyPackResolver;
+import com.fabricmanagement.human.compliance.localization.app.HrPolicyPackService;
+import com.fabricmanagement.human.compliance.localization.app.ResolvedPolicyPack;
+import com.fabricmanagement.human.compliance.localization.domain.HrPolicyPack;
+import com.fabricmanagement.human.payroll.app.PayRunChunkStore.Chunk;
+import com.fabricmanagement.human.payroll.domain.PayPeriod;
+import com.fabricmanagement.human.payroll.domain.PayRun;
+import com.fabricmanagement.human.payroll.domain.PayRunStatus;
+import com.fabricmanagement.human.payroll.strategy.PayrollResult;
+import com.fabricmanagement.human.payroll.strategy.TrPayrollStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class PayrollServiceTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final String PACK_CODE = "TR-PAYROLL";
+
+  @Mock private PayRunService payRunService;
+  @Mock private PayRunChunkStore chunkStore;
+  @Mock private PayrollStrategyRegistry strategyRegistry;
+  @Mock private PayRunAuditService auditService;
+  @Mock private HrPolicyPackService hrPolicyPackService;
+  @Mock private HrPolicyPackResolver hrPolicyPackResolver;
+
+  private final TrPayrollStrategy strategy = new TrPayrollStrategy();
+  private PayRun payRun;
+  private PayrollService service;
+
+  @BeforeEach
+  void setUp() {
+    TenantContext.setCurrentTenantId(TENANT_ID);
+    TenantContext.setCurrentTenantUid("ACME-001");
+    service =
+        new PayrollService(
+            payRunService,
+            chunkStore,
+            strategyRegistry,
+            auditService,
+            new PayrollComplianceService(),
+            hrPolicyPackService,
+            hrPolicyPackResolver,
+            new ObjectMapper(),
+            transactionTemplate());
+    ReflectionTestUtils.setField(service, "chunkSize", 2);
+    ReflectionTestUtils.setField(service, "parallelism", 2);
+
+    PayPeriod period =
+        PayPeriod.builder()
+            .periodCode("2026-08")
+            .countryCode("TR")
+            .startDate(LocalDate.of(2026, 8, 1))
+            .endDate(LocalDate.of(2026, 8, 31))
+            .build();
+    payRun = PayRun.builder().payPeriod(period).runNumber(1).policyPackCode(PACK_CODE).build();
+    payRun.setId(UUID.randomUUID());
+    payRun.setTenantId(TENANT_ID);
+
+    HrPolicyPack pack = mock(HrPolicyPack.class);
+    when(payRunService.getPayRun(payRun.getId())).thenReturn(payRun);
+    when(hrPolicyPackService.findActiveByPackCode(TENANT_ID, PACK_CODE))
+        .thenReturn(Optional.of(pack));
+    when(hrPolicyPackResolver.resolve(TENANT_ID, pack))
+        .thenReturn(new ResolvedPolicyPack(PACK_CODE, 1, "{}", List.of(PACK_CODE)));
+    when(strategyRegistry.resolve("TR")).thenReturn(strategy);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
+  @Test
+  void executesEveryChunkWithOneUpsertEach() {
+    List<UUID> employees = employees(5);
+    claimedFrom(PayRunStatus.CREATED);
+
+    PayrollResult result = service.executePayRun(payRun.getId(), employees, Map.of());
+
+    assertThat(result.netAmounts()).containsOnlyKeys(employees);
+    verify(chunkStore).replacePlan(eq(TENANT_ID), eq(payRun.getId()), anyList());
+    verify(chunkStore, times(3))
+        .upsertPayouts(
+            eq(TENANT_ID), eq("ACME-001"), any(), eq(payRun.getId()), eq("USD"), anyMap());
+    verify(chunkStore, times(3)).markCompleted(eq(TENANT_ID), eq(payRun.getId()), anyInt());
+    verify(payRunService).updateStatus(payRun.getId(), PayRunStatus.VALIDATED, null);
+  }
+
+  @Test
+  void resumesUnfinishedRunFromItsIncompleteChunks() {
+    List<UUID> employees = employees(4);
+    claimedFrom(PayRunStatus.FAILED);
+    when(chunkStore.findChunks(TENANT_ID, payRun.getId()))
+        .thenReturn(
+            List.of(
+                new Chunk(0, employees.subList(0, 2), "COMPLETED"),
+                new Chunk(1, employees.subList(2, 4), "FAILED")));
+    when(chunkStore.findCompletedNetAmounts(TENANT_ID, payRun.getId()))
+        .thenReturn(
+            Map.of(
+                employees.get(0), new BigDecimal("1000.00"),
+                employees.get(1), new BigDecimal("2000.00")));
+
+    PayrollResult result = service.executePayRun(payRun.getId(), employees, Map.of());
+
+    assertThat(result.netAmounts()).containsOnlyKeys(employees);
+    assertThat(result.netAmounts()).containsEntry(employees.get(0), new BigDecimal("1000.00"));
+    verify(auditService)
+        .record(
+            eq(payRun),
+            eq("EXECUTE"),
+            contains("1 carried over from an earlier execution"),
+            contains("carriedOverChunks=[0]"));
+    verify(chunkStore, never()).replacePlan(any(), any(), anyList());
+    verify(chunkStore).markCompleted(TENANT_ID, payRun.getId(), 1);
+    verify(chunkStore, never()).markCompleted(TENANT_ID, payRun.getId(), 0);
+  }
+
+  @Test
+  void failedChunkIsRecordedAndRunMarkedFailed() {
+    List<UUID> employees = employees(4);
+    claimedFrom(PayRunStatus.CREATED);
+    doThrow(new IllegalStateException("boom"))
+        .when(chunkStore)
+        .markCompleted(TENANT_ID, payRun.getId(), 1);
+
+    assertThatThrownBy(() -> service.executePayRun(payRun.getId(), employees, Map.of()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("1 of 2 chunks failed");
+
+    verify(chunkStore).markCompleted(TENANT_ID, payRun.getId(), 0);
+    verify(chunkStore).markFailed(TENANT_ID, payRun.getId(), 1, "boom");
+    verify(payRunService).updateStatus(eq(payRun.getId()), eq(PayRunStatus.FAILED), anyString());
+    verify(payRunService, never()).updateStatus(payRun.getId(), PayRunStatus.VALIDATED, null);
+  }
+
+  @Test
+  void runClaimedByAnotherExecutionIsRefused() {
+    when(chunkStore.claimRun(eq(TENANT_ID), eq(payRun.getId()), any()))
+        .thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> service.executePayRun(payRun.getId(), employees(4), Map.of()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("already being executed");
+
+    verify(chunkStore, never()).replacePlan(any(), any(), anyList());
+    verify(chunkStore, never()).upsertPayouts(any(), any(), any(), any(), any(), anyMap());
+    verify(payRunService, never()).updateStatus(any(), any(), any());
+  }
+
+  @Test
+  void runIsReleasedAsFailedWhenAChunkWorkerBreaksDown() {
+    claimedFrom(PayRunStatus.CREATED);
+    doThrow(new IllegalStateException("boom"))
+        .when(chunkStore)
+        .markCompleted(eq(TENANT_ID), eq(payRun.getId()), anyInt());
+    doThrow(new IllegalStateException("database gone"))
+        .when(chunkStore)
+        .markFailed(eq(TENANT_ID), eq(payRun.getId()), anyInt(), anyString());
+
+    assertThatThrownBy(() -> service.executePayRun(payRun.getId(), employees(2), Map.of()))
+        .hasMessage("Pay run chunk worker failed");
+
+    verify(payRunService)
+        .updateStatus(payRun.getId(), PayRunStatus.FAILED, "Pay run chunk worker failed");
+    verify(payRunService, never()).updateStatus(payRun.getId(), PayRunStatus.VALIDATED, null);
+  }
+
+  private void claimedFrom(PayRunStatus previousStatus) {
+    when(chunkStore.claimRun(eq(TENANT_ID), eq(payRun.getId()), any()))
+        .thenReturn(Optional.of(previousStatus));
+  }
+
+  private static List<UUID> employees(int count) {
+    return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+  }
+
+  private static TransactionTemplate transactionTemplate() {
+    return new TransactionTemplate(
+        new PlatformTransactionManager() {
+          @Override
+          public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+          }
+
+          @Override
+          public void commit(TransactionStatus status) {}
+
+          @Override
+          public void rollback(TransactionStatus status) {}
+        });
+  }
+}
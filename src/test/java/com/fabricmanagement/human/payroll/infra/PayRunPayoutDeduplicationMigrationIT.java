@@ -0,0 +1,180 @@
+package com.fabricmanagement.human.payroll.infra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Runs the payout deduplication migration against seeded duplicates. The shared container already
+ * holds the fully migrated test schema, so the migration runs in a database of its own there.
+ */
+class PayRunPayoutDeduplicationMigrationIT extends AbstractIntegrationTest {
+
+  private static final String TENANT_ID = "aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa";
+  private static final String DATABASE = "pay_run_payout_dedup_migration";
+
+  @BeforeAll
+  static void migrateToPreChangeAndSeedDuplicatePayouts() throws SQLException {
+    try (Connection connection =
+            DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP DATABASE IF EXISTS " + DATABASE);
+      statement.execute("CREATE DATABASE " + DATABASE);
+    }
+    migrateTo("20260807090000");
+    try (Connection connection = ownerConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          """
+          INSERT INTO common_tenant.common_tenant (id, uid, slug, name, status)
+          VALUES ('aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa', 'PAYDUP-MIGRATION',
+                  'paydup-migration', 'Payout Dedup Migration', 'ACTIVE');
+
+          INSERT INTO human.human_pay_period
+            (id, tenant_id, uid, period_code, country_code, start_date, end_date, status)
+          VALUES ('30000000-0000-4000-8000-000000000001', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+                  'PAYDUP-PERIOD', '2026-07', 'TR', '2026-07-01', '2026-07-31', 'OPEN');
+
+          INSERT INTO human.human_pay_run
+            (id, tenant_id, uid, pay_period_id, run_number, status)
+          VALUES ('40000000-0000-4000-8000-000000000001', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+                  'PAYDUP-RUN', '30000000-0000-4000-8000-000000000001', 1, 'COMPLETED');
+
+          INSERT INTO human.human_pay_run_payout
+            (id, tenant_id, uid, pay_run_id, employee_id, net_amount, currency, status,
+             updated_at)
+          VALUES
+            -- Paid, then overwritten as pending by a racing run: the paid row stays.
+            ('50000000-0000-4000-8000-000000000001', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+             'PAYDUP-PAID', '40000000-0000-4000-8000-000000000001',
+             '60000000-0000-4000-8000-000000000001', 1000, 'TRY', 'PROCESSED',
+             '2026-08-01 10:00'),
+            ('50000000-0000-4000-8000-000000000002', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+             'PAYDUP-PAID-LATER-PENDING', '40000000-0000-4000-8000-000000000001',
+             '60000000-0000-4000-8000-000000000001', 1200, 'TRY', 'PENDING',
+             '2026-08-02 10:00'),
+            -- Two pending rows: the later one stays.
+            ('50000000-0000-4000-8000-000000000003', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+             'PAYDUP-PENDING-OLD', '40000000-0000-4000-8000-000000000001',
+             '60000000-0000-4000-8000-000000000002', 900, 'TRY', 'PENDING',
+             '2026-08-01 10:00'),
+            ('50000000-0000-4000-8000-000000000004', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+             'PAYDUP-PENDING-NEW', '40000000-0000-4000-8000-000000000001',
+             '60000000-0000-4000-8000-000000000002', 950, 'TRY', 'PENDING',
+             '2026-08-02 10:00'),
+            -- Paid twice.
+            ('50000000-0000-4000-8000-000000000005', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+             'PAYDUP-TWICE-1', '40000000-0000-4000-8000-000000000001',
+             '60000000-0000-4000-8000-000000000003', 800, 'TRY', 'PROCESSED',
+             '2026-08-01 10:00'),
+            ('50000000-0000-4000-8000-000000000006', 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa',
+             'PAYDUP-TWICE-2', '40000000-0000-4000-8000-000000000001',
+             '60000000-0000-4000-8000-000000000003', 800, 'TRY', 'PROCESSED',
+             '2026-08-02 10:00');
+          """);
+    }
+  }
+
+  @Test
+  void refusesDoublePaidEmployeesThenKeepsPaidPayoutsAndArchivesTheRest() throws SQLException {
+    assertThatThrownBy(() -> migrateTo("20260808090000"))
+        .isInstanceOf(FlywayException.class)
+        .hasMessageContaining("more than one PROCESSED payout");
+    assertThat(payoutStatusByUid()).hasSize(6);
+
+    // The double payment has been sorted out by hand.
+    try (Connection connection = ownerConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(
+          """
+          UPDATE human.human_pay_run_payout
+          SET status = 'FAILED'
+          WHERE uid = 'PAYDUP-TWICE-2'
+          """);
+    }
+    migrateTo("20260808090000");
+
+    assertThat(payoutStatusByUid())
+        .containsOnly(
+            Map.entry("PAYDUP-PAID", "PROCESSED"),
+            Map.entry("PAYDUP-PENDING-NEW", "PENDING"),
+            Map.entry("PAYDUP-TWICE-1", "PROCESSED"));
+    try (Connection connection = ownerConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result =
+            statement.executeQuery(
+                """
+                SELECT uid, tenant_id::text, archived_at IS NOT NULL
+                FROM human.human_pay_run_payout_duplicate
+                ORDER BY uid
+                """)) {
+      Map<String, String> archivedTenantByUid = new HashMap<>();
+      while (result.next()) {
+        assertThat(result.getBoolean(3)).isTrue();
+        archivedTenantByUid.put(result.getString(1), result.getString(2));
+      }
+      assertThat(archivedTenantByUid)
+          .containsOnly(
+              Map.entry("PAYDUP-PAID-LATER-PENDING", TENANT_ID),
+              Map.entry("PAYDUP-PENDING-OLD", TENANT_ID),
+              Map.entry("PAYDUP-TWICE-2", TENANT_ID));
+    }
+  }
+
+  private static Map<String, String> payoutStatusByUid() throws SQLException {
+    Map<String, String> statusByUid = new HashMap<>();
+    try (Connection connection = ownerConnection();
+        Statement statement = connection.createStatement();
+        ResultSet result =
+            statement.executeQuery(
+                """
+                SELECT uid, status
+                FROM human.human_pay_run_payout
+                WHERE tenant_id = 'aaaaaaaa-aaaa-4aaa-8aaa-aaaaaaaaaaaa'
+                """)) {
+      while (result.next()) {
+        statusByUid.put(result.getString(1), result.getString(2));
+      }
+    }
+    return statusByUid;
+  }
+
+  private static void migrateTo(String target) {
+    Flyway.configure()
+        .dataSource(migrationUrl(), postgres.getUsername(), postgres.getPassword())
+        .locations("classpath:db/migration")
+        .schemas("common_tenant")
+        .defaultSchema("common_tenant")
+        .target(target)
+        .load()
+        .migrate();
+  }
+
+  private static Connection ownerConnection() throws SQLException {
+    return DriverManager.getConnection(
+        migrationUrl(), postgres.getUsername(), postgres.getPassword());
+  }
+
+  private static String migrationUrl() {
+    return "jdbc:postgresql://"
+        + postgres.getHost()
+        + ":"
+        + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)
+        + "/"
+        + DATABASE;
+  }
+}
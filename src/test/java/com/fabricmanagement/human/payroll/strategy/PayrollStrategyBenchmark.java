@@ -0,0 +1,131 @@
+package com.fabricmanagement.human.payroll.strategy;
+
+import static com.fabricmanagement.testsupport.Benchmarks.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.testsupport.Benchmarks;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Synthetic 10k-employee benchmark of every country strategy, run whole and in the chunks
+ * PayrollService uses. Not part of the regular build (surefire only picks up {@code *Test}); run it
+ * with {@code mvn test -Dtest=PayrollStrategyBenchmark}.
+ *
+ * <p>Besides the timings it logs, it checks that the chunked run produces exactly the net amounts
+ * of the whole run, the property chunked execution relies on.
+ */
+class PayrollStrategyBenchmark {
+
+  private static final int EMPLOYEES = 10_000;
+  private static final int CHUNK_SIZE = 500;
+  private static final int WORKERS = 4;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  static Stream<PayrollStrategy> strategies() {
+    return Stream.of(
+        new TrPayrollStrategy(),
+        new DePayrollStrategy(),
+        new FrPayrollStrategy(),
+        new ItPayrollStrategy(),
+        new EsPayrollStrategy(),
+        new UkPayrollStrategy(),
+        new EuPayrollStrategy(),
+        new UsPayrollStrategy(),
+        new GlobalPayrollStrategy());
+  }
+
+  @ParameterizedTest
+  @MethodSource("strategies")
+  void tenThousandEmployees(PayrollStrategy strategy) {
+    PayrollContext context = syntheticContext();
+
+    Map<String, Map<UUID, BigDecimal>> netAmounts =
+        Benchmarks.compare(
+            strategy.getClass().getSimpleName(),
+            "employees=" + EMPLOYEES + " chunks=" + CHUNK_SIZE + " workers=" + WORKERS,
+            WARMUP_ROUNDS,
+            MEASURED_ROUNDS,
+            variant("whole", () -> strategy.execute(context).netAmounts()),
+            variant("chunked", () -> executeChunked(strategy, context)));
+
+    assertThat(netAmounts.get("whole")).hasSize(EMPLOYEES);
+    assertThat(netAmounts.get("chunked")).isEqualTo(netAmounts.get("whole"));
+  }
+
+  private static Map<UUID, BigDecimal> executeChunked(
+      PayrollStrategy strategy, PayrollContext context) {
+    List<UUID> employees = context.employeeIds();
+    List<Future<PayrollResult>> futures = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(WORKERS)) {
+      for (int from = 0; from < employees.size(); from += CHUNK_SIZE) {
+        List<UUID> chunk = employees.subList(from, Math.min(from + CHUNK_SIZE, employees.size()));
+        futures.add(executor.submit(() -> strategy.execute(context.forEmployees(chunk))));
+      }
+    }
+    Map<UUID, BigDecimal> netAmounts = new HashMap<>();
+    for (Future<PayrollResult> future : futures) {
+      netAmounts.putAll(future.resultNow().netAmounts());
+    }
+    return netAmounts;
+  }
+
+  private static PayrollContext syntheticContext() {
+    Random random = new Random(42);
+    List<UUID> employees =
+        IntStream.range(0, EMPLOYEES)
+            .mapToObj(i -> new UUID(random.nextLong(), random.nextLong()))
+            .toList();
+
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put(
+        "payroll",
+        Map.of(
+            "taxBrackets",
+            List.of(
+                Map.of("threshold", 2000, "rate", 0.1),
+                Map.of("threshold", 6000, "rate", 0.25),
+                Map.of("threshold", 20000, "rate", 0.4)),
+            "socialContributions",
+            Map.of("pension", 0.093, "health", 0.073, "sgkEmployee", 0.14),
+            "incomeTax",
+            Map.of("rate", 0.15),
+            "federalTax",
+            Map.of(
+                "brackets",
+                List.of(
+                    Map.of("threshold", 1000, "rate", 0.1),
+                    Map.of("threshold", 4000, "rate", 0.12),
+                    Map.of("threshold", 9000, "rate", 0.22))),
+            "fica",
+            Map.of("rate", 0.0765)));
+    for (UUID employee : employees) {
+      parameters.put("employeeGross:" + employee, 2000 + random.nextInt(18_000));
+    }
+
+    return new PayrollContext(
+        UUID.randomUUID(),
+        UUID.randomUUID(),
+        "XX",
+        LocalDate.of(2026, 8, 1),
+        LocalDate.of(2026, 8, 31),
+        "BENCHMARK",
+        1,
+        employees,
+        parameters);
+  }
+}
@@ -0,0 +1,92 @@
+package com.fabricmanagement.iwm.reservation.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.iwm.reservation.domain.LotAllocationStrategy;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationRequest;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult;
+import com.fabricmanagement.iwm.reservation.dto.LotAllocationResult.LineAllocation;
+import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class LotAllocatorTest {
+
+  private static final UUID PRODUCT_A = UUID.randomUUID();
+  private static final UUID PRODUCT_B = UUID.randomUUID();
+
+  @Test
+  void linesShareLotsInOrderWithoutOverAllocating() {
+    LotSuggestion lot1 = lot("L1", "30");
+    LotSuggestion lot2 = lot("L2", "50");
+    List<LotAllocationRequest.Line> lines =
+        List.of(line(PRODUCT_A, "20"), line(PRODUCT_A, "40"), line(PRODUCT_A, "10"));
+
+    LotAllocationResult result =
+        LotAllocator.allocate(
+            LotAllocationStrategy.FIFO, lines, Map.of(PRODUCT_A, List.of(lot1, lot2)));
+
+    assertThat(result.isFullyAllocated()).isTrue();
+    assertThat(quantities(result.getLines().get(0))).containsExactly("L1:20");
+    assertThat(quantities(result.getLines().get(1))).containsExactly("L1:10", "L2:30");
+    assertThat(quantities(result.getLines().get(2))).containsExactly("L2:10");
+  }
+
+  @Test
+  void reportsShortfallOnceStockRunsOut() {
+    List<LotAllocationRequest.Line> lines =
+        List.of(line(PRODUCT_A, "25"), line(PRODUCT_A, "10"), line(PRODUCT_B, "5"));
+
+    LotAllocationResult result =
+        LotAllocator.allocate(
+            LotAllocationStrategy.FEFO, lines, Map.of(PRODUCT_A, List.of(lot("L1", "30"))));
+
+    assertThat(result.isFullyAllocated()).isFalse();
+    LineAllocation second = result.getLines().get(1);
+    assertThat(second.getAllocatedQty()).isEqualByComparingTo("5");
+    assertThat(second.getShortfallQty()).isEqualByComparingTo("5");
+    LineAllocation third = result.getLines().get(2);
+    assertThat(third.getLots()).isEmpty();
+    assertThat(third.getShortfallQty()).isEqualByComparingTo("5");
+  }
+
+  @Test
+  void sameInputGivesSameAllocation() {
+    List<LotAllocationRequest.Line> lines = List.of(line(PRODUCT_A, "45"), line(PRODUCT_A, "5"));
+    Map<UUID, List<LotSuggestion>> candidates =
+        Map.of(PRODUCT_A, List.of(lot("L1", "30"), lot("L2", "30")));
+
+    LotAllocationResult first =
+        LotAllocator.allocate(LotAllocationStrategy.FIFO, lines, candidates);
+    LotAllocationResult second =
+        LotAllocator.allocate(LotAllocationStrategy.FIFO, lines, candidates);
+
+    assertThat(second).isEqualTo(first);
+  }
+
+  private static List<String> quantities(LineAllocation line) {
+    return line.getLots().stream()
+        .map(lot -> lot.getLotNumber() + ":" + lot.getQuantity().toBigInteger())
+        .toList();
+  }
+
+  private static LotAllocationRequest.Line line(UUID productId, String quantity) {
+    LotAllocationRequest.Line line = new LotAllocationRequest.Line();
+    line.setLineId(UUID.randomUUID());
+    line.setProductId(productId);
+    line.setQuantity(new BigDecimal(quantity));
+    return line;
+  }
+
+  private static LotSuggestion lot(String lotNumber, String availableQty) {
+    return LotSuggestion.builder()
+        .batchId(UUID.randomUUID())
+        .lotNumber(lotNumber)
+        .locationId(UUID.randomUUID())
+        .availableQty(new BigDecimal(availableQty))
+        .build();
+  }
+}
@@ -0,0 +1,139 @@
+package com.fabricmanagement.iwm.reservation.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.iwm.reservation.dto.LotSuggestion;
+import com.fabricmanagement.platform.tenant.domain.Tenant;
+import com.fabricmanagement.platform.tenant.infra.repository.TenantRepository;
+import com.fabricmanagement.production.execution.batch.domain.Batch;
+import com.fabricmanagement.production.execution.batch.domain.BatchSourceType;
+import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
+import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
+import com.fabricmanagement.production.execution.inventory.domain.InventoryBalance;
+import com.fabricmanagement.production.execution.inventory.infra.repository.InventoryBalanceRepository;
+import com.fabricmanagement.production.masterdata.product.domain.Product;
+import com.fabricmanagement.production.masterdata.product.domain.ProductType;
+import com.fabricmanagement.production.masterdata.product.infra.repository.ProductRepository;
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * FIFO lot selection against real balances: the running total stops at the first balance that
+ * covers the requirement. Data is committed, since the engine reads through its own connection.
+ */
+class StockReservationEngineFifoIT extends AbstractIntegrationTest {
+
+  private static final Instant DAY_ONE = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Autowired private StockReservationEngine engine;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private BatchRepository batchRepository;
+  @Autowired private InventoryBalanceRepository inventoryBalanceRepository;
+  @Autowired private TenantRepository tenantRepository;
+
+  private UUID tenantId;
+  private Product product;
+  private Batch oldest;
+  private Batch middle;
+  private Batch newest;
+
+  @BeforeEach
+  void setUpStock() {
+    tenantId = tenant();
+    TenantContext.setCurrentTenantId(tenantId);
+    TenantContext.setCurrentUserId(UUID.randomUUID());
+    product = product(tenantId);
+
+    // Saved out of order so the result order can only come from the production date.
+    newest = batch(product, "LOT-NEWEST", 2, tenantId);
+    balance(newest, "30", "0", tenantId);
+    oldest = batch(product, "LOT-OLDEST", 0, tenantId);
+    balance(oldest, "30", "10", tenantId);
+    middle = batch(product, "LOT-MIDDLE", 1, tenantId);
+    balance(middle, "30", "0", tenantId);
+    Batch empty = batch(product, "LOT-EMPTY", -1, tenantId);
+    balance(empty, "30", "30", tenantId);
+  }
+
+  @AfterEach
+  void clearTenant() {
+    TenantContext.clear();
+  }
+
+  @Test
+  void stopsAtTheFirstBalanceThatCoversTheRequirement() {
+    assertThat(engine.suggestLotsFifo(tenantId, product.getId(), new BigDecimal("25")))
+        .extracting(LotSuggestion::getBatchId)
+        .containsExactly(oldest.getId(), middle.getId());
+  }
+
+  @Test
+  void anExactlyCoveredRequirementDoesNotPullTheNextBalance() {
+    assertThat(engine.suggestLotsFifo(tenantId, product.getId(), new BigDecimal("20")))
+        .singleElement()
+        .satisfies(
+            lot -> {
+              assertThat(lot.getBatchId()).isEqualTo(oldest.getId());
+              assertThat(lot.getAvailableQty()).isEqualByComparingTo("20");
+            });
+  }
+
+  @Test
+  void shortStockReturnsEveryAvailableBalanceAndNothingOfOtherTenants() {
+    UUID otherTenant = tenant();
+    Product otherProduct = product(otherTenant);
+    balance(batch(otherProduct, "LOT-OTHER", -2, otherTenant), "500", "0", otherTenant);
+
+    assertThat(engine.suggestLotsFifo(tenantId, product.getId(), new BigDecimal("1000")))
+        .extracting(LotSuggestion::getBatchId)
+        .containsExactly(oldest.getId(), middle.getId(), newest.getId());
+  }
+
+  private UUID tenant() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    Tenant tenant = Tenant.create("Lot FIFO " + suffix, "FIFO-" + suffix);
+    tenant.activate("test");
+    return tenantRepository.saveAndFlush(tenant).getId();
+  }
+
+  private Product product(UUID ownerTenantId) {
+    Product created = Product.create(ProductType.FABRIC, "KG");
+    created.setTenantId(ownerTenantId);
+    return productRepository.saveAndFlush(created);
+  }
+
+  private Batch batch(Product owner, String code, int dayOffset, UUID ownerTenantId) {
+    Batch batch =
+        Batch.builder()
+            .productId(owner.getId())
+            .productType(owner.getProductType())
+            .batchCode(code + "-" + UUID.randomUUID().toString().substring(0, 8))
+            .quantity(new BigDecimal("30"))
+            .reservedQuantity(BigDecimal.ZERO)
+            .consumedQuantity(BigDecimal.ZERO)
+            .wasteQuantity(BigDecimal.ZERO)
+            .unit(owner.getUnit())
+            .status(BatchStatus.AVAILABLE)
+            .sourceType(BatchSourceType.INITIAL_STOCK)
+            .productionDate(DAY_ONE.plus(Duration.ofDays(dayOffset)))
+            .build();
+    batch.setTenantId(ownerTenantId);
+    batch.setIsActive(true);
+    return batchRepository.saveAndFlush(batch);
+  }
+
+  private void balance(Batch batch, String quantity, String reserved, UUID ownerTenantId) {
+    InventoryBalance balance = InventoryBalance.create(ownerTenantId, batch.getId(), null, "KG");
+    balance.setQuantity(new BigDecimal(quantity));
+    balance.setReservedQuantity(new BigDecimal(reserved));
+    inventoryBalanceRepository.saveAndFlush(balance);
+  }
+}
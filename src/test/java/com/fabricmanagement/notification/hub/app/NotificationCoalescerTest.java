@@ -0,0 +1,269 @@
+package com.fabricmanagement.notification.hub.app;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fabricmanagement.notification.hub.domain.*;
+import com.fabricmanagement.notification.hub.infra.repository.NotificationQueueRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("NotificationCoalescer Unit Tests")
+class NotificationCoalescerTest {
+
+  @Mock private NotificationQueueRepository queueRepo;
+
+  private NotificationCoalescer coalescer;
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final UUID RECIPIENT_ID = UUID.randomUUID();
+  private static final String EVENT_TYPE = "MIN_STOCK_ALERT";
+
+  @BeforeEach
+  void setUp() {
+    coalescer = new NotificationCoalescer(queueRepo, true, "08:00", ZoneId.of("UTC"));
+  }
+
+  private NotificationContext context(UUID referenceId) {
+    return NotificationContext.of(
+        TENANT_ID,
+        RECIPIENT_ID,
+        EVENT_TYPE,
+        Map.of("productCode", "P-" + referenceId),
+        referenceId,
+        "PRODUCT");
+  }
+
+  @Nested
+  @DisplayName("absorb()")
+  class AbsorbTests {
+
+    @Test
+    @DisplayName("CRITICAL şablon birleştirilmez")
+    void should_not_coalesce_critical() {
+      var template =
+          mockTemplate(
+              NotificationImportance.CRITICAL,
+              NotificationChannel.IN_APP,
+              NotificationDeliveryType.INSTANT,
+              5);
+
+      assertThat(coalescer.absorb(context(UUID.randomUUID()), template, "EN")).isFalse();
+      verifyNoInteractions(queueRepo);
+    }
+
+    @Test
+    @DisplayName("pencere 0 ise birleştirilmez")
+    void should_not_coalesce_without_window() {
+      var template =
+          mockTemplate(
+              NotificationImportance.NORMAL,
+              NotificationChannel.IN_APP,
+              NotificationDeliveryType.INSTANT,
+              0);
+
+      assertThat(coalescer.absorb(context(UUID.randomUUID()), template, "EN")).isFalse();
+      verifyNoInteractions(queueRepo);
+    }
+
+    @Test
+    @DisplayName("patlamanın ilk bildirimi hemen gider")
+    void should_send_first_of_burst_immediately() {
+      var template =
+          mockTemplate(
+              NotificationImportance.NORMAL,
+              NotificationChannel.IN_APP,
+              NotificationDeliveryType.INSTANT,
+              5);
+      when(queueRepo.findOpenDigestsForUpdate(any(), any(), any(), any(), any()))
+          .thenReturn(List.of());
+      when(queueRepo.existsQueuedSince(any(), any(), any(), any(), any())).thenReturn(false);
+
+      assertThat(coalescer.absorb(context(UUID.randomUUID()), template, "EN")).isFalse();
+      verify(queueRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("pencere içindeki ikinci bildirim pencere sonuna bekletilen özet açar")
+    void should_open_held_digest_within_window() {
+      var template =
+          mockTemplate(
+              NotificationImportance.NORMAL,
+              NotificationChannel.IN_APP,
+              NotificationDeliveryType.INSTANT,
+              5);
+      when(queueRepo.findOpenDigestsForUpdate(any(), any(), any(), any(), any()))
+          .thenReturn(List.of());
+      when(queueRepo.existsQueuedSince(
+              eq(RECIPIENT_ID),
+              eq(EVENT_TYPE),
+              eq(NotificationChannel.IN_APP),
+              eq("PRODUCT"),
+              any()))
+          .thenReturn(true);
+      UUID productId = UUID.randomUUID();
+      Instant before = Instant.now();
+
+      assertThat(coalescer.absorb(context(productId), template, "EN")).isTrue();
+
+      ArgumentCaptor<NotificationQueue> captor = ArgumentCaptor.forClass(NotificationQueue.class);
+      verify(queueRepo).save(captor.capture());
+      var digest = captor.getValue();
+      assertThat(digest.getDeliveryType()).isEqualTo(NotificationDeliveryType.DIGEST);
+      assertThat(digest.getReferenceType()).isEqualTo("PRODUCT");
+      assertThat(digest.getDigestCount()).isEqualTo(1);
+      assertThat(digest.getScheduledAt())
+          .isBetween(before.plus(Duration.ofMinutes(5)), Instant.now().plus(Duration.ofMinutes(5)));
+      assertThat(digest.getPayload())
+          .containsEntry(NotificationQueue.REFERENCE_IDS_KEY, productId.toString());
+    }
+
+    @Test
+    @DisplayName("açık özete katılır: sayaç artar, son payload geçerli, referanslar birikir")
+    void should_fold_into_open_digest() {
+      var template =
+          mockTemplate(
+              NotificationImportance.NORMAL,
+              NotificationChannel.IN_APP,
+              NotificationDeliveryType.INSTANT,
+              5);
+      UUID first = UUID.randomUUID();
+      UUID second = UUID.randomUUID();
+      var open =
+          NotificationQueue.digest(
+              TENANT_ID,
+              RECIPIENT_ID,
+              EVENT_TYPE,
+              NotificationChannel.IN_APP,
+              NotificationImportance.NORMAL,
+              Map.of("productCode", "P-" + first),
+              "EN",
+              "PRODUCT",
+              first,
+              Instant.now().plusSeconds(60));
+      when(queueRepo.findOpenDigestsForUpdate(
+              eq(RECIPIENT_ID),
+              eq(EVENT_TYPE),
+              eq(NotificationChannel.IN_APP),
+              eq("PRODUCT"),
+              any()))
+          .thenReturn(List.of(open));
+
+      assertThat(coalescer.absorb(context(second), template, "EN")).isTrue();
+
+      verify(queueRepo).save(open);
+      verify(queueRepo, never()).existsQueuedSince(any(), any(), any(), any(), any());
+      assertThat(open.getDigestCount()).isEqualTo(2);
+      assertThat(open.isDigest()).isTrue();
+      assertThat(open.getPayload())
+          .containsEntry("productCode", "P-" + second)
+          .containsEntry(NotificationQueue.REFERENCE_IDS_KEY, first + "," + second);
+    }
+
+    @Test
+    @DisplayName("DIGEST + EMAIL şablon günlük özet saatine bekletilir")
+    void should_hold_email_digest_until_daily_digest_time() {
+      var template =
+          mockTemplate(
+              NotificationImportance.NORMAL,
+              NotificationChannel.EMAIL,
+              NotificationDeliveryType.DIGEST,
+              null);
+      when(queueRepo.findOpenDigestsForUpdate(any(), any(), any(), any(), any()))
+          .thenReturn(List.of());
+
+      assertThat(coalescer.absorb(context(UUID.randomUUID()), template, "TR")).isTrue();
+
+      ArgumentCaptor<NotificationQueue> captor = ArgumentCaptor.forClass(NotificationQueue.class);
+      verify(queueRepo).save(captor.capture());
+      assertThat(captor.getValue().getScheduledAt().atZone(ZoneId.of("UTC")).toLocalTime())
+          .isEqualTo(LocalTime.of(8, 0));
+      verify(queueRepo, never()).existsQueuedSince(any(), any(), any(), any(), any());
+    }
+  }
+
+  @Nested
+  @DisplayName("NotificationQueue özet referansları")
+  class DigestReferenceTests {
+
+    @Test
+    @DisplayName("referans listesi tekrar etmez ve üst sınırda durur, sayaç artmaya devam eder")
+    void should_cap_and_deduplicate_reference_ids() {
+      UUID repeated = UUID.randomUUID();
+      var digest =
+          NotificationQueue.digest(
+              TENANT_ID,
+              RECIPIENT_ID,
+              EVENT_TYPE,
+              NotificationChannel.IN_APP,
+              NotificationImportance.NORMAL,
+              Map.of(),
+              "EN",
+              "PRODUCT",
+              repeated,
+              Instant.now().plusSeconds(60));
+
+      digest.absorb(Map.of(), repeated);
+      for (int i = 0; i < NotificationQueue.MAX_DIGEST_REFERENCES + 10; i++) {
+        digest.absorb(Map.of(), UUID.randomUUID());
+      }
+
+      String[] ids = digest.getPayload().get(NotificationQueue.REFERENCE_IDS_KEY).split(",");
+      assertThat(ids).hasSize(NotificationQueue.MAX_DIGEST_REFERENCES).doesNotHaveDuplicates();
+      assertThat(ids[0]).isEqualTo(repeated.toString());
+      assertThat(digest.getDigestCount()).isEqualTo(NotificationQueue.MAX_DIGEST_REFERENCES + 12);
+    }
+  }
+
+  @Nested
+  @DisplayName("nextDailyDigest()")
+  class NextDailyDigestTests {
+
+    @Test
+    @DisplayName("saat geçmediyse bugün, geçtiyse yarın")
+    void should_pick_today_or_tomorrow() {
+      ZoneId zone = ZoneId.of("Europe/Istanbul");
+      LocalTime at = LocalTime.of(8, 0);
+
+      assertThat(
+              NotificationCoalescer.nextDailyDigest(
+                  Instant.parse("2026-10-17T04:00:00Z"), at, zone))
+          .isEqualTo(Instant.parse("2026-10-17T05:00:00Z"));
+      assertThat(
+              NotificationCoalescer.nextDailyDigest(
+                  Instant.parse("2026-10-17T05:00:00Z"), at, zone))
+          .isEqualTo(Instant.parse("2026-10-18T05:00:00Z"));
+    }
+  }
+
+  private NotificationTemplate mockTemplate(
+      NotificationImportance importance,
+      NotificationChannel channel,
+      NotificationDeliveryType deliveryType,
+      Integer groupingWindowMinutes) {
+    var template = mock(NotificationTemplate.class);
+    when(template.getImportance()).thenReturn(importance);
+    when(template.getChannel()).thenReturn(channel);
+    when(template.getDeliveryType()).thenReturn(deliveryType);
+    when(template.getGroupingWindowMinutes()).thenReturn(groupingWindowMinutes);
+    return template;
+  }
+}
@@ -33,6 +33,7 @@ class NotificationHubServiceTest {
   @Mock private NotificationLogRepository logRepo;
   @Mock private UserNotificationPreferenceRepository prefRepo;
   @Mock private TranslationService translationService;
+  @Mock private NotificationCoalescer coalescer;
 
   @InjectMocks private NotificationHubService notificationHubService;
 
@@ -123,6 +124,41 @@ class NotificationHubServiceTest {
 
       verify(queueRepo, times(2)).save(any(NotificationQueue.class));
     }
+
+    @Test
+    @DisplayName("özet tarafından karşılanan bildirim için ayrı kuyruk kaydı oluşturulmaz")
+    void should_not_queue_when_coalesced() {
+      when(translationService.resolveLocaleForUser(any(), any())).thenReturn("EN");
+      var template = mockTemplate(NotificationImportance.NORMAL, NotificationChannel.IN_APP);
+      when(templateRepo.findAllByEventType(EVENT_TYPE)).thenReturn(List.of(template));
+      when(coalescer.absorb(any(), eq(template), eq("EN"))).thenReturn(true);
+
+      notificationHubService.notify(
+          NotificationContext.of(TENANT_ID, RECIPIENT_ID, EVENT_TYPE, Map.of()));
+
+      verify(queueRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("referans bilgisi kuyruk payload'ına ve referenceType kolonuna yazılır")
+    void should_store_reference_on_queue_row() {
+      when(translationService.resolveLocaleForUser(any(), any())).thenReturn("EN");
+      var template = mockTemplate(NotificationImportance.HIGH, NotificationChannel.IN_APP);
+      when(templateRepo.findAllByEventType(EVENT_TYPE)).thenReturn(List.of(template));
+      UUID productId = UUID.randomUUID();
+
+      notificationHubService.notify(
+          NotificationContext.of(
+              TENANT_ID, RECIPIENT_ID, EVENT_TYPE, Map.of("a", "b"), productId, "PRODUCT"));
+
+      ArgumentCaptor<NotificationQueue> captor = ArgumentCaptor.forClass(NotificationQueue.class);
+      verify(queueRepo).save(captor.capture());
+      assertThat(captor.getValue().getReferenceType()).isEqualTo("PRODUCT");
+      assertThat(captor.getValue().getPayload())
+          .containsEntry("a", "b")
+          .containsEntry("referenceId", productId.toString())
+          .containsEntry("referenceType", "PRODUCT");
+    }
   }
 
   @Nested
@@ -4,13 +4,19 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import com.fabricmanagement.notification.hub.app.NotificationItemProcessor.DeliveryOutcome;
+import com.fabricmanagement.notification.hub.app.NotificationItemProcessor.PreparedNotification;
 import com.fabricmanagement.notification.hub.app.adapter.email.EmailNotificationSender;
 import com.fabricmanagement.notification.hub.domain.*;
 import com.fabricmanagement.notification.hub.infra.repository.*;
 import com.fabricmanagement.notification.hub.infra.websocket.InAppNotificationSender;
 import com.fabricmanagement.notification.i18n.app.TranslationService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -57,125 +63,279 @@ class NotificationItemProcessorTest {
     return q;
   }
 
-  private void stubLockedQueueRow(NotificationQueue item) {
-    when(queueRepo.findByIdWithWriteLock(item.getId())).thenReturn(Optional.of(item));
+  private NotificationQueue processingItem(NotificationChannel channel) {
+    var item = createQueueItem(channel);
+    item.markProcessing();
+    return item;
+  }
+
+  /** Kaydı tek kayıtlık bir batch olarak hazırlar. */
+  private PreparedNotification prepare(NotificationQueue item, String renderedText) {
+    var template = mockTemplate(item.getChannel());
+    when(queueRepo.findAllById(any())).thenReturn(List.of(item));
+    when(templateRepo.findAllActiveByEventTypeIn(any())).thenReturn(List.of(template));
+    when(translationService.translateAndRender(any(), any(), any(), any()))
+        .thenReturn(renderedText);
+    return processor.prepareBatch(List.of(item.getId())).get(0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<NotificationLog> savedLogs() {
+    ArgumentCaptor<Iterable<NotificationLog>> logsCaptor = ArgumentCaptor.forClass(Iterable.class);
+    verify(logRepo).saveAll(logsCaptor.capture());
+    List<NotificationLog> logs = new ArrayList<>();
+    logsCaptor.getValue().forEach(logs::add);
+    return logs;
   }
 
   @Nested
-  @DisplayName("processItem()")
-  class ProcessItemTests {
+  @DisplayName("deliver() / completeBatch() — kanallar ve hatalar")
+  class DeliveryTests {
 
     @Test
     @DisplayName("IN_APP — başarılı gönderim → SENT + log kaydı")
     void should_process_in_app_successfully() {
-      var item = createQueueItem(NotificationChannel.IN_APP);
-      var template = mockTemplate();
-
-      when(templateRepo.findByEventTypeAndChannel(EVENT_TYPE, NotificationChannel.IN_APP))
-          .thenReturn(Optional.of(template));
-      when(translationService.translateAndRender(any(), any(), any(), any()))
-          .thenReturn("Rendered text");
-      stubLockedQueueRow(item);
+      var item = processingItem(NotificationChannel.IN_APP);
+      var prepared = prepare(item, "Rendered text");
 
-      processor.processItem(item.getId());
+      processor.deliver(prepared);
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared, null)));
 
       assertThat(item.getStatus()).isEqualTo(NotificationQueueStatus.SENT);
       assertThat(item.getProcessedAt()).isNotNull();
       verify(inAppSender).send(eq(RECIPIENT_ID), anyMap());
-      verify(logRepo).save(any(NotificationLog.class));
-      // queueRepo.save çağrılmalı: markProcessing + markSent = 2 kez
-      verify(queueRepo, atLeast(2)).save(item);
+      assertThat(savedLogs()).hasSize(1);
+      verify(queueRepo).saveAll(List.of(item));
     }
 
     @Test
-    @DisplayName("EMAIL — kullanıcı email'i varsa gönderilir")
-    void should_send_email_when_user_has_email() {
-      var item = createQueueItem(NotificationChannel.EMAIL);
-      var template = mockTemplate();
-
-      when(templateRepo.findByEventTypeAndChannel(EVENT_TYPE, NotificationChannel.EMAIL))
-          .thenReturn(Optional.of(template));
-      when(translationService.translateAndRender(any(), any(), any(), any()))
-          .thenReturn("Email body");
+    @DisplayName("EMAIL — outbox'a gönderimde değil, SENT ile aynı transaction'da yazılır")
+    void should_queue_email_when_completing() {
+      var item = processingItem(NotificationChannel.EMAIL);
+      var prepared = prepare(item, "Email body");
       when(userQueryService.findEmailByUserId(RECIPIENT_ID))
           .thenReturn(Optional.of("user@test.com"));
-      stubLockedQueueRow(item);
 
-      processor.processItem(item.getId());
+      processor.deliver(prepared);
+      verifyNoInteractions(emailSender);
+
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared, null)));
 
       verify(emailSender).send(TENANT_ID, "user@test.com", "Email body", "Email body");
       assertThat(item.getStatus()).isEqualTo(NotificationQueueStatus.SENT);
     }
 
     @Test
-    @DisplayName("Template bulunamazsa → FAILED")
+    @DisplayName("EMAIL — outbox yazılamazsa sonuç yazılmaz, kayıt PROCESSING'de kalır")
+    void should_not_complete_when_email_outbox_fails() {
+      var item = processingItem(NotificationChannel.EMAIL);
+      var prepared = prepare(item, "Email body");
+      when(userQueryService.findEmailByUserId(RECIPIENT_ID))
+          .thenReturn(Optional.of("user@test.com"));
+      doThrow(new RuntimeException("outbox down"))
+          .when(emailSender)
+          .send(any(), any(), any(), any());
+
+      assertThatThrownBy(
+              () -> processor.completeBatch(List.of(new DeliveryOutcome(prepared, null))))
+          .hasMessage("outbox down");
+
+      assertThat(item.getStatus()).isEqualTo(NotificationQueueStatus.PROCESSING);
+      verify(logRepo, never()).saveAll(any());
+      verify(queueRepo, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Template bulunamazsa → gönderilmez, retry sayacı artar")
     void should_mark_failed_when_no_template() {
-      var item = createQueueItem(NotificationChannel.IN_APP);
-      when(templateRepo.findByEventTypeAndChannel(anyString(), any())).thenReturn(Optional.empty());
-      stubLockedQueueRow(item);
+      var item = processingItem(NotificationChannel.IN_APP);
+      when(queueRepo.findAllById(any())).thenReturn(List.of(item));
+      when(templateRepo.findAllActiveByEventTypeIn(any())).thenReturn(List.of());
 
-      processor.processItem(item.getId());
+      var prepared = processor.prepareBatch(List.of(item.getId())).get(0);
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared, prepared.error())));
 
       // İlk markFailed: retryCount=1 → hâlâ PENDING
+      assertThat(item.getStatus()).isEqualTo(NotificationQueueStatus.PENDING);
       assertThat(item.getRetryCount()).isEqualTo(1);
+      assertThat(item.getLastError()).contains("Template not found");
       verify(inAppSender, never()).send(any(), anyMap());
-      verify(logRepo, never()).save(any(NotificationLog.class));
+      assertThat(savedLogs()).isEmpty();
     }
 
     @Test
     @DisplayName("Gönderim hatası → markFailed çağrılır")
     void should_mark_failed_on_send_error() {
-      var item = createQueueItem(NotificationChannel.IN_APP);
-      var template = mockTemplate();
-
-      when(templateRepo.findByEventTypeAndChannel(EVENT_TYPE, NotificationChannel.IN_APP))
-          .thenReturn(Optional.of(template));
-      when(translationService.translateAndRender(any(), any(), any(), any())).thenReturn("Title");
+      var item = processingItem(NotificationChannel.IN_APP);
+      var prepared = prepare(item, "Title");
       doThrow(new RuntimeException("WebSocket down")).when(inAppSender).send(any(), anyMap());
-      stubLockedQueueRow(item);
 
-      processor.processItem(item.getId());
+      assertThatThrownBy(() -> processor.deliver(prepared)).hasMessage("WebSocket down");
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared, "WebSocket down")));
 
       assertThat(item.getRetryCount()).isEqualTo(1);
       assertThat(item.getLastError()).contains("WebSocket down");
     }
 
+    @Test
+    @DisplayName("Üçüncü başarısız deneme → FAILED")
+    void should_mark_failed_after_third_attempt() {
+      var item = processingItem(NotificationChannel.IN_APP);
+      item.markFailed("first");
+      item.markProcessing();
+      item.markFailed("second");
+      item.markProcessing();
+      when(queueRepo.findAllById(any())).thenReturn(List.of(item));
+
+      processor.completeBatch(
+          List.of(new DeliveryOutcome(PreparedNotification.of(item, "T", "B", null), "third")));
+
+      assertThat(item.getStatus()).isEqualTo(NotificationQueueStatus.FAILED);
+      assertThat(item.getRetryCount()).isEqualTo(3);
+      assertThat(item.getLastError()).isEqualTo("third");
+    }
+
     @Test
     @DisplayName("Hata mesajı 500+ karakter ise kısaltılır")
     void should_truncate_long_error_message() {
-      var item = createQueueItem(NotificationChannel.IN_APP);
-      var template = mockTemplate();
-
-      when(templateRepo.findByEventTypeAndChannel(EVENT_TYPE, NotificationChannel.IN_APP))
-          .thenReturn(Optional.of(template));
-      when(translationService.translateAndRender(any(), any(), any(), any())).thenReturn("Title");
-      String longError = "X".repeat(600);
-      doThrow(new RuntimeException(longError)).when(inAppSender).send(any(), anyMap());
-      stubLockedQueueRow(item);
+      String error = NotificationItemProcessor.truncate("X".repeat(600));
 
-      processor.processItem(item.getId());
-
-      assertThat(item.getLastError()).hasSize(503); // 500 + "..."
-      assertThat(item.getLastError()).endsWith("...");
+      assertThat(error).hasSize(503); // 500 + "..."
+      assertThat(error).endsWith("...");
     }
 
     @Test
     @DisplayName("PUSH — token yoksa log + skip, hata fırlatmaz")
     void should_skip_push_when_no_token() {
-      var item = createQueueItem(NotificationChannel.PUSH);
-      var template = mockTemplate();
-
-      when(templateRepo.findByEventTypeAndChannel(EVENT_TYPE, NotificationChannel.PUSH))
-          .thenReturn(Optional.of(template));
-      when(translationService.translateAndRender(any(), any(), any(), any()))
-          .thenReturn("Push text");
+      var item = processingItem(NotificationChannel.PUSH);
+      var prepared = prepare(item, "Push text");
       when(userQueryService.findPushTokenByUserId(RECIPIENT_ID)).thenReturn(Optional.empty());
-      stubLockedQueueRow(item);
 
-      processor.processItem(item.getId());
+      processor.deliver(prepared);
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared, null)));
 
       assertThat(item.getStatus()).isEqualTo(NotificationQueueStatus.SENT);
-      verify(logRepo).save(any(NotificationLog.class));
+      assertThat(savedLogs()).hasSize(1);
+    }
+  }
+
+  @Nested
+  @DisplayName("prepareBatch() / completeBatch()")
+  class BatchTests {
+
+    @Test
+    @DisplayName("şablonlar tek sorguda yüklenir, şablonu olmayan kayıt hata ile döner")
+    void should_prefetch_templates_and_flag_missing_template() {
+      var inApp = createQueueItem(NotificationChannel.IN_APP);
+      var email = createQueueItem(NotificationChannel.EMAIL);
+      inApp.markProcessing();
+      email.markProcessing();
+      var template = mockTemplate();
+      when(queueRepo.findAllById(any())).thenReturn(List.of(inApp, email));
+      when(templateRepo.findAllActiveByEventTypeIn(Set.of(EVENT_TYPE)))
+          .thenReturn(List.of(template));
+      when(translationService.translateAndRender(any(), any(), any(), any()))
+          .thenReturn("Rendered text");
+
+      var prepared = processor.prepareBatch(List.of(inApp.getId(), email.getId()));
+
+      assertThat(prepared).hasSize(2);
+      assertThat(prepared.get(0).error()).isNull();
+      assertThat(prepared.get(0).title()).isEqualTo("Rendered text");
+      assertThat(prepared.get(1).error()).contains("Template not found");
+      verify(templateRepo, never()).findByEventTypeAndChannel(any(), any());
+    }
+
+    @Test
+    @DisplayName("özet kaydı — gövdeye sayaç satırı eklenir, log grup id'si kayıt id'si olur")
+    void should_render_digest_summary_and_group_log() {
+      UUID first = UUID.randomUUID();
+      var digest =
+          NotificationQueue.digest(
+              TENANT_ID,
+              RECIPIENT_ID,
+              EVENT_TYPE,
+              NotificationChannel.IN_APP,
+              NotificationImportance.NORMAL,
+              Map.of("batchCode", "B-001"),
+              "EN",
+              "BATCH",
+              first,
+              Instant.now());
+      digest.absorb(Map.of("batchCode", "B-002"), UUID.randomUUID());
+      digest.setId(UUID.randomUUID());
+      digest.markProcessing();
+      var template = mockTemplate();
+      when(queueRepo.findAllById(any())).thenReturn(List.of(digest));
+      when(templateRepo.findAllActiveByEventTypeIn(any())).thenReturn(List.of(template));
+      when(translationService.translateAndRender(
+              any(), any(), startsWith("notification.batch"), any()))
+          .thenReturn("Batch B-002 failed");
+      when(translationService.translateAndRender(
+              TENANT_ID, "EN", NotificationItemProcessor.DIGEST_SUMMARY_KEY, Map.of("count", "2")))
+          .thenReturn("2 notifications were grouped together.");
+
+      var prepared = processor.prepareBatch(List.of(digest.getId()));
+
+      assertThat(prepared)
+          .singleElement()
+          .satisfies(
+              p -> {
+                assertThat(p.digestCount()).isEqualTo(2);
+                assertThat(p.body())
+                    .isEqualTo("Batch B-002 failed\n\n2 notifications were grouped together.");
+              });
+
+      processor.deliver(prepared.get(0));
+      @SuppressWarnings("unchecked")
+      ArgumentCaptor<Map<String, Object>> message = ArgumentCaptor.forClass(Map.class);
+      verify(inAppSender).send(eq(RECIPIENT_ID), message.capture());
+      assertThat(message.getValue()).containsEntry("digestCount", 2);
+
+      when(queueRepo.findAllById(any())).thenReturn(List.of(digest));
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared.get(0), null)));
+      @SuppressWarnings("unchecked")
+      ArgumentCaptor<Iterable<NotificationLog>> logsCaptor =
+          ArgumentCaptor.forClass(Iterable.class);
+      verify(logRepo).saveAll(logsCaptor.capture());
+      assertThat(logsCaptor.getValue())
+          .singleElement()
+          .satisfies(log -> assertThat(log.getGroupId()).isEqualTo(digest.getId()));
+    }
+
+    @Test
+    @DisplayName("artık PROCESSING olmayan kayıt hazırlanmaz")
+    void should_skip_items_no_longer_processing() {
+      var item = createQueueItem(NotificationChannel.IN_APP);
+      when(queueRepo.findAllById(any())).thenReturn(List.of(item));
+
+      var prepared = processor.prepareBatch(List.of(item.getId()));
+
+      assertThat(prepared).isEmpty();
+      verify(templateRepo, never()).findAllActiveByEventTypeIn(any());
+    }
+
+    @Test
+    @DisplayName("başarılı → SENT + toplu log, başarısız → retry sayacı artar")
+    void should_complete_batch_with_bulk_writes() {
+      var sent = createQueueItem(NotificationChannel.IN_APP);
+      var failed = createQueueItem(NotificationChannel.EMAIL);
+      sent.markProcessing();
+      failed.markProcessing();
+      when(queueRepo.findAllById(any())).thenReturn(List.of(sent, failed));
+
+      processor.completeBatch(
+          List.of(
+              new DeliveryOutcome(PreparedNotification.of(sent, "T", "B", null), null),
+              new DeliveryOutcome(PreparedNotification.of(failed, "T", "B", null), "SMTP down")));
+
+      assertThat(sent.getStatus()).isEqualTo(NotificationQueueStatus.SENT);
+      assertThat(failed.getStatus()).isEqualTo(NotificationQueueStatus.PENDING);
+      assertThat(failed.getRetryCount()).isEqualTo(1);
+      assertThat(failed.getLastError()).isEqualTo("SMTP down");
+      assertThat(savedLogs()).hasSize(1);
+      verify(queueRepo).saveAll(List.of(sent, failed));
+      verify(logRepo, never()).save(any(NotificationLog.class));
     }
   }
 
@@ -198,30 +358,29 @@ class NotificationItemProcessorTest {
               Map.of(
                   "batchCode", "B-001", "referenceId", refId.toString(), "referenceType", "BATCH"),
               "EN");
-
-      var template = mockTemplate();
-      when(templateRepo.findByEventTypeAndChannel(EVENT_TYPE, NotificationChannel.IN_APP))
-          .thenReturn(Optional.of(template));
-      when(translationService.translateAndRender(any(), any(), any(), any())).thenReturn("Text");
       item.setId(UUID.randomUUID());
-      stubLockedQueueRow(item);
-
-      processor.processItem(item.getId());
+      item.markProcessing();
+      var prepared = prepare(item, "Text");
 
-      ArgumentCaptor<NotificationLog> logCaptor = ArgumentCaptor.forClass(NotificationLog.class);
-      verify(logRepo).save(logCaptor.capture());
+      processor.completeBatch(List.of(new DeliveryOutcome(prepared, null)));
 
-      assertThat(logCaptor.getValue().getReferenceId()).isEqualTo(refId);
-      assertThat(logCaptor.getValue().getReferenceType()).isEqualTo("BATCH");
+      var log = savedLogs().get(0);
+      assertThat(log.getReferenceId()).isEqualTo(refId);
+      assertThat(log.getReferenceType()).isEqualTo("BATCH");
     }
   }
 
   private NotificationTemplate mockTemplate() {
+    return mockTemplate(NotificationChannel.IN_APP);
+  }
+
+  private NotificationTemplate mockTemplate(NotificationChannel channel) {
     var template = mock(NotificationTemplate.class);
+    when(template.getEventType()).thenReturn(EVENT_TYPE);
     when(template.getTitleKey()).thenReturn("notification.batch_qc_failed.title");
     when(template.getBodyKey()).thenReturn("notification.batch_qc_failed.body");
     when(template.getImportance()).thenReturn(NotificationImportance.CRITICAL);
-    when(template.getChannel()).thenReturn(NotificationChannel.IN_APP);
+    when(template.getChannel()).thenReturn(channel);
     when(template.getDeliveryType()).thenReturn(NotificationDeliveryType.INSTANT);
     return template;
   }
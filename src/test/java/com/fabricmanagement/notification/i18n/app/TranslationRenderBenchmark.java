@@ -0,0 +1,143 @@
+package com.fabricmanagement.notification.i18n.app;
+
+import static com.fabricmanagement.testsupport.Benchmarks.variant;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.notification.i18n.domain.TranslationKey;
+import com.fabricmanagement.notification.i18n.domain.TranslationValue;
+import com.fabricmanagement.notification.i18n.infra.repository.TenantLocaleConfigRepository;
+import com.fabricmanagement.notification.i18n.infra.repository.TranslationKeyRepository;
+import com.fabricmanagement.notification.i18n.infra.repository.TranslationValueRepository;
+import com.fabricmanagement.notification.i18n.infra.repository.UserLocaleConfigRepository;
+import com.fabricmanagement.testsupport.Benchmarks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Synthetic benchmark of notification rendering: 200k title/body renders over a 400-key catalog in
+ * three locales, once with the previous per-parameter {@code String.replace} chain over the raw
+ * text and once through {@link TranslationService}, i.e. the catalog lookup plus the compiled
+ * template. Not part of the regular build (surefire only picks up {@code *Test}); run it with
+ * {@code mvn test -Dtest=TranslationRenderBenchmark}.
+ *
+ * <p>The previous path also cost up to four queries per uncached render, which is not measured
+ * here; the benchmark checks that the catalog is loaded once and that both ways render the same
+ * text.
+ */
+class TranslationRenderBenchmark {
+
+  private static final int KEYS = 400;
+  private static final String[] LOCALES = {"EN", "TR", "DE"};
+  private static final int RENDERS = 200_000;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+
+  @Test
+  void twoHundredThousandRenders() {
+    Random random = new Random(42);
+    List<TranslationKey> keys = new ArrayList<>();
+    List<TranslationValue> values = new ArrayList<>();
+    for (int i = 0; i < KEYS; i++) {
+      TranslationKey key =
+          TranslationKey.of("notification.key_" + i, "NOTIFICATION", "k" + i, null);
+      keys.add(key);
+      for (String locale : LOCALES) {
+        values.add(
+            TranslationValue.of(
+                key,
+                locale,
+                locale + " order {orderNumber} for {customerName} is due on {dueDate}"
+                    + " (quantity {quantity}, <b>{status}</b>)",
+                false));
+      }
+    }
+    Map<String, String> raw = new HashMap<>();
+    values.forEach(
+        v -> raw.put(v.getLocale() + ":" + v.getTranslationKey().getKeyCode(), v.getValue()));
+
+    TranslationKeyRepository keyRepo = mock(TranslationKeyRepository.class);
+    TranslationValueRepository valueRepo = mock(TranslationValueRepository.class);
+    when(keyRepo.findAll()).thenReturn(keys);
+    when(valueRepo.findAllActiveWithKey()).thenReturn(values);
+    TranslationService service =
+        new TranslationService(
+            keyRepo,
+            valueRepo,
+            mock(TenantLocaleConfigRepository.class),
+            mock(UserLocaleConfigRepository.class),
+            new TranslationCatalog(
+                keyRepo, valueRepo, new SimpleMeterRegistry(), Duration.ofMinutes(10), 1_000));
+
+    List<Render> renders = new ArrayList<>(RENDERS);
+    for (int i = 0; i < RENDERS; i++) {
+      renders.add(
+          new Render(
+              LOCALES[random.nextInt(LOCALES.length)],
+              "notification.key_" + random.nextInt(KEYS),
+              Map.of(
+                  "orderNumber", "SO-" + random.nextInt(100_000),
+                  "customerName", "Customer & Sons " + random.nextInt(500),
+                  "dueDate", "2026-0" + (1 + random.nextInt(9)) + "-15",
+                  "quantity", String.valueOf(random.nextInt(10_000)),
+                  "status", random.nextBoolean() ? "OPEN" : "LATE")));
+    }
+
+    Map<String, List<String>> rendered =
+        Benchmarks.compare(
+            "TranslationRender",
+            "renders=" + RENDERS + " keys=" + KEYS + " locales=" + LOCALES.length,
+            WARMUP_ROUNDS,
+            MEASURED_ROUNDS,
+            variant("replaceChain", () -> replaceChain(raw, renders)),
+            variant("compiled", () -> compiled(service, renders)));
+
+    assertThat(rendered.get("compiled")).hasSize(RENDERS).isEqualTo(rendered.get("replaceChain"));
+    verify(valueRepo, times(1)).findAllActiveWithKey();
+  }
+
+  /** The previous rendering: one replace pass per parameter plus a chained escape. */
+  private static List<String> replaceChain(Map<String, String> raw, List<Render> renders) {
+    List<String> out = new ArrayList<>(renders.size());
+    for (Render render : renders) {
+      String text = raw.get(render.locale() + ":" + render.keyCode());
+      for (var entry : render.params().entrySet()) {
+        String safeValue =
+            entry
+                .getValue()
+                .replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+        text = text.replace("{" + entry.getKey() + "}", safeValue);
+      }
+      out.add(text);
+    }
+    return out;
+  }
+
+  private static List<String> compiled(TranslationService service, List<Render> renders) {
+    List<String> out = new ArrayList<>(renders.size());
+    for (Render render : renders) {
+      out.add(
+          service.translateAndRender(
+              TENANT_ID, render.locale(), render.keyCode(), render.params()));
+    }
+    return out;
+  }
+
+  private record Render(String locale, String keyCode, Map<String, String> params) {}
+}
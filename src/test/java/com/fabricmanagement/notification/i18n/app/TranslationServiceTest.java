@@ -10,14 +10,18 @@ import com.fabricmanagement.notification.i18n.infra.repository.TenantLocaleConfi
 import com.fabricmanagement.notification.i18n.infra.repository.TranslationKeyRepository;
 import com.fabricmanagement.notification.i18n.infra.repository.TranslationValueRepository;
 import com.fabricmanagement.notification.i18n.infra.repository.UserLocaleConfigRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -30,20 +34,47 @@ class TranslationServiceTest {
   @Mock private TenantLocaleConfigRepository tenantLocaleConfigRepo;
   @Mock private UserLocaleConfigRepository userLocaleConfigRepo;
 
-  @InjectMocks private TranslationService translationService;
+  private TranslationService translationService;
 
   private static final UUID TENANT_ID = UUID.randomUUID();
   private static final String KEY_CODE = "notification.work_order_pending_approval.title";
 
+  /** Katalog yüklemesinin döndüreceği satırlar; her test kendi anahtar ve çevirilerini ekler. */
+  private final List<TranslationKey> keys = new ArrayList<>();
+
+  private final List<TranslationValue> values = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    var catalog =
+        new TranslationCatalog(
+            translationKeyRepo,
+            translationValueRepo,
+            new SimpleMeterRegistry(),
+            Duration.ofMinutes(10),
+            1_000);
+    translationService =
+        new TranslationService(
+            translationKeyRepo,
+            translationValueRepo,
+            tenantLocaleConfigRepo,
+            userLocaleConfigRepo,
+            catalog);
+    lenient().when(translationKeyRepo.findAll()).thenReturn(keys);
+    lenient().when(translationValueRepo.findAllActiveWithKey()).thenReturn(values);
+  }
+
   // TranslationKey fabrikası — NoArgsConstructor protected olduğu için spy kullanamayız,
   // TranslationKey.of() factory'sini kullanırız (tenantId set edilmez ama test için sorun değil)
   private TranslationKey makeKey(String keyCode, String defaultValue) {
     return TranslationKey.of(keyCode, "NOTIFICATION", defaultValue, null);
   }
 
-  private TranslationValue makeValue(String value) {
-    // TranslationKey ve locale persist edilmese de getValue() çalışır
-    return TranslationValue.of(makeKey(KEY_CODE, value), "EN", value, false);
+  /** Sistem çevirisi (isOverride=false) ekler. */
+  private TranslationValue addSystemValue(String locale, String value) {
+    var tv = TranslationValue.of(makeKey(KEY_CODE, value), locale, value, false);
+    values.add(tv);
+    return tv;
   }
 
   @Nested
@@ -53,9 +84,12 @@ class TranslationServiceTest {
     @Test
     @DisplayName("tenant override varsa onu döndürür")
     void should_return_tenant_override_when_present() {
-      var override = makeValue("Özel Başlık - Tenant Override");
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "EN", TENANT_ID))
-          .thenReturn(Optional.of(override));
+      addSystemValue("EN", "İş Emri Onay Bekliyor");
+      var override =
+          TranslationValue.of(
+              makeKey(KEY_CODE, "x"), "EN", "Özel Başlık - Tenant Override", true);
+      override.setTenantId(TENANT_ID);
+      values.add(override);
 
       String result = translationService.translate(TENANT_ID, "EN", KEY_CODE);
 
@@ -66,11 +100,7 @@ class TranslationServiceTest {
     @Test
     @DisplayName("tenant override yoksa sistem çevirisini döndürür")
     void should_return_system_translation_when_no_override() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "EN", TENANT_ID))
-          .thenReturn(Optional.empty());
-      var sysValue = makeValue("İş Emri Onay Bekliyor");
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "EN"))
-          .thenReturn(Optional.of(sysValue));
+      addSystemValue("EN", "İş Emri Onay Bekliyor");
 
       String result = translationService.translate(TENANT_ID, "EN", KEY_CODE);
 
@@ -80,11 +110,8 @@ class TranslationServiceTest {
     @Test
     @DisplayName("Seçili locale yoksa EN fallback döner")
     void should_fallback_to_en_when_locale_missing() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "DE", TENANT_ID))
-          .thenReturn(Optional.empty());
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "DE")).thenReturn(Optional.empty());
-      var enValue = makeValue("Work Order Pending Approval");
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "EN")).thenReturn(Optional.of(enValue));
+      addSystemValue("EN", "Work Order Pending Approval");
+      addSystemValue("TR", "İş Emri Onay Bekliyor");
 
       String result = translationService.translate(TENANT_ID, "DE", KEY_CODE);
 
@@ -94,12 +121,7 @@ class TranslationServiceTest {
     @Test
     @DisplayName("hiç çeviri yoksa TranslationKey.defaultValue döner")
     void should_return_default_value_when_no_translation() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(anyString(), anyString(), any()))
-          .thenReturn(Optional.empty());
-      when(translationValueRepo.findSystemDefault(anyString(), anyString()))
-          .thenReturn(Optional.empty());
-      var key = makeKey(KEY_CODE, "Default EN Title");
-      when(translationKeyRepo.findByKeyCode(KEY_CODE)).thenReturn(Optional.of(key));
+      keys.add(makeKey(KEY_CODE, "Default EN Title"));
 
       String result = translationService.translate(TENANT_ID, "EN", KEY_CODE);
 
@@ -109,12 +131,6 @@ class TranslationServiceTest {
     @Test
     @DisplayName("key hiç yoksa keyCode döner")
     void should_return_key_code_when_key_not_found() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(anyString(), anyString(), any()))
-          .thenReturn(Optional.empty());
-      when(translationValueRepo.findSystemDefault(anyString(), anyString()))
-          .thenReturn(Optional.empty());
-      when(translationKeyRepo.findByKeyCode(KEY_CODE)).thenReturn(Optional.empty());
-
       String result = translationService.translate(TENANT_ID, "EN", KEY_CODE);
 
       assertThat(result).isEqualTo(KEY_CODE);
@@ -123,15 +139,48 @@ class TranslationServiceTest {
     @Test
     @DisplayName("null locale EN olarak işlenir")
     void should_treat_null_locale_as_en() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "EN", TENANT_ID))
-          .thenReturn(Optional.empty());
-      var enValue = makeValue("Work Order Pending");
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "EN")).thenReturn(Optional.of(enValue));
+      addSystemValue("EN", "Work Order Pending");
 
       String result = translationService.translate(TENANT_ID, null, KEY_CODE);
 
       assertThat(result).isEqualTo("Work Order Pending");
     }
+
+    @Test
+    @DisplayName("katalog tenant başına bir kez yüklenir")
+    void should_load_catalog_once_per_tenant() {
+      addSystemValue("EN", "Work Order Pending");
+
+      translationService.translate(TENANT_ID, "EN", KEY_CODE);
+      translationService.translate(TENANT_ID, "tr", KEY_CODE);
+      translationService.translateAndRender(TENANT_ID, "EN", KEY_CODE, Map.of("a", "b"));
+
+      verify(translationValueRepo, times(1)).findAllActiveWithKey();
+      verify(translationKeyRepo, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("yeni sistem çevirisi kataloğu yeniler")
+    void should_reload_catalog_after_system_translation_added() {
+      var key = makeKey(KEY_CODE, "Default EN Title");
+      keys.add(key);
+      assertThat(translationService.translate(TENANT_ID, "TR", KEY_CODE))
+          .isEqualTo("Default EN Title");
+
+      when(translationKeyRepo.findByKeyCode(KEY_CODE)).thenReturn(Optional.of(key));
+      when(translationValueRepo.findSystemDefault(KEY_CODE, "TR")).thenReturn(Optional.empty());
+      when(translationValueRepo.save(any()))
+          .thenAnswer(
+              invocation -> {
+                values.add(invocation.getArgument(0));
+                return invocation.getArgument(0);
+              });
+      translationService.addSystemTranslation(KEY_CODE, "tr", "İş Emri Onay Bekliyor");
+
+      assertThat(translationService.translate(TENANT_ID, "TR", KEY_CODE))
+          .isEqualTo("İş Emri Onay Bekliyor");
+      verify(translationValueRepo, times(2)).findAllActiveWithKey();
+    }
   }
 
   @Nested
@@ -141,10 +190,7 @@ class TranslationServiceTest {
     @Test
     @DisplayName("parametreler doğru şekilde replace edilir")
     void should_replace_all_parameters() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "EN", TENANT_ID))
-          .thenReturn(Optional.empty());
-      var tv = makeValue("İş emri {workOrderNumber} onay bekliyor");
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "EN")).thenReturn(Optional.of(tv));
+      addSystemValue("EN", "İş emri {workOrderNumber} onay bekliyor");
 
       String result =
           translationService.translateAndRender(
@@ -156,10 +202,7 @@ class TranslationServiceTest {
     @Test
     @DisplayName("boş params map ile düz metin döner")
     void should_return_plain_text_when_no_params() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "EN", TENANT_ID))
-          .thenReturn(Optional.empty());
-      var tv = makeValue("Onay Gerekiyor");
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "EN")).thenReturn(Optional.of(tv));
+      addSystemValue("EN", "Onay Gerekiyor");
 
       String result = translationService.translateAndRender(TENANT_ID, "EN", KEY_CODE, null);
 
@@ -169,10 +212,7 @@ class TranslationServiceTest {
     @Test
     @DisplayName("null parametre değeri boş string ile replace edilir")
     void should_replace_null_param_with_empty_string() {
-      when(translationValueRepo.findByKeyCodeAndLocaleAndTenant(KEY_CODE, "EN", TENANT_ID))
-          .thenReturn(Optional.empty());
-      var tv = makeValue("Batch {batchCode} failed");
-      when(translationValueRepo.findSystemDefault(KEY_CODE, "EN")).thenReturn(Optional.of(tv));
+      addSystemValue("EN", "Batch {batchCode} failed");
 
       Map<String, String> params = new java.util.HashMap<>();
       params.put("batchCode", null);
@@ -181,5 +221,29 @@ class TranslationServiceTest {
 
       assertThat(result).isEqualTo("Batch  failed");
     }
+
+    @Test
+    @DisplayName("değerler HTML escape edilir, bilinmeyen placeholder aynen kalır")
+    void should_escape_values_and_keep_unknown_placeholders() {
+      addSystemValue("EN", "{a} & {b} {unknown} {} {c");
+
+      String result =
+          translationService.translateAndRender(
+              TENANT_ID, "EN", KEY_CODE, Map.of("a", "<b>\"x\"</b>", "b", "it's {a}"));
+
+      assertThat(result)
+          .isEqualTo("&lt;b&gt;&quot;x&quot;&lt;/b&gt; & it&#39;s {a} {unknown} {} {c");
+    }
+
+    @Test
+    @DisplayName("iç içe süslü parantezde en içteki placeholder değiştirilir")
+    void should_replace_innermost_placeholder() {
+      addSystemValue("EN", "{{orderNo}}");
+
+      String result =
+          translationService.translateAndRender(TENANT_ID, "EN", KEY_CODE, Map.of("orderNo", "7"));
+
+      assertThat(result).isEqualTo("{7}");
+    }
   }
 }
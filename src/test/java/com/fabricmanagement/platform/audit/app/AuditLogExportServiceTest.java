@@ -0,0 +1,105 @@
+package com.fabricmanagement.platform.audit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.audit.domain.AuditSeverity;
+import com.fabricmanagement.platform.audit.dto.AuditExportFormat;
+import com.fabricmanagement.platform.audit.dto.AuditLogDto;
+import com.fabricmanagement.platform.audit.infra.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogExportService (Unit Test)")
+class AuditLogExportServiceTest {
+
+  private static final UUID TENANT_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+  private static final AuditLogWindow WINDOW = new AuditLogWindow(NOW.minusSeconds(60), NOW);
+
+  @Mock private AuditLogRepository auditLogRepository;
+
+  private AuditLogExportService exportService;
+
+  @BeforeEach
+  void setUp() {
+    TenantContext.setCurrentTenantId(TENANT_ID);
+    ObjectMapper objectMapper =
+        new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    exportService = new AuditLogExportService(auditLogRepository, objectMapper);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
+  @Test
+  @DisplayName("NDJSON writes one object per line")
+  void exportsNdjson() throws Exception {
+    when(auditLogRepository.streamForExport(TENANT_ID, WINDOW.from(), WINDOW.to()))
+        .thenReturn(Stream.of(row("first"), row("second")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count = exportService.export(WINDOW, AuditExportFormat.NDJSON, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(count).isEqualTo(2);
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).startsWith("{").contains("\"description\":\"first\"");
+    assertThat(lines[1]).contains("\"description\":\"second\"");
+  }
+
+  @Test
+  @DisplayName("CSV writes a header and escapes fields")
+  void exportsCsv() throws Exception {
+    when(auditLogRepository.streamForExport(TENANT_ID, WINDOW.from(), WINDOW.to()))
+        .thenReturn(Stream.of(row("price \"raised\", again")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    exportService.export(WINDOW, AuditExportFormat.CSV, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertThat(lines[0]).startsWith("id,timestamp,uid");
+    assertThat(lines[1]).contains(",\"price \"\"raised\"\", again\",");
+  }
+
+  @Test
+  @DisplayName("CSV neutralises spreadsheet formulas")
+  void csvFieldNeutralisesFormulas() {
+    assertThat(AuditLogExportService.csvField("=HYPERLINK(\"x\")"))
+        .isEqualTo("\"'=HYPERLINK(\"\"x\"\")\"");
+    assertThat(AuditLogExportService.csvField("+1")).isEqualTo("'+1");
+    assertThat(AuditLogExportService.csvField(null)).isEmpty();
+  }
+
+  private static AuditLogDto row(String description) {
+    return AuditLogDto.builder()
+        .id(UUID.randomUUID())
+        .tenantId(TENANT_ID)
+        .uid("ACME-001-AUD-0001")
+        .action("PRICE_CHANGE")
+        .resource("price_list")
+        .description(description)
+        .severity(AuditSeverity.INFO)
+        .timestamp(NOW)
+        .build();
+  }
+}
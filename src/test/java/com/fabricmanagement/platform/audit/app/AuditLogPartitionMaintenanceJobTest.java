@@ -0,0 +1,83 @@
+package com.fabricmanagement.platform.audit.app;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.tenant.TenantJobLeaseStore;
+import java.sql.Date;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogPartitionMaintenanceJobTest {
+
+  private static final String JOB = AuditLogPartitionMaintenanceJob.JOB_NAME;
+  private static final Duration LEASE = Duration.ofMinutes(10);
+
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private TenantJobLeaseStore leaseStore;
+
+  private AuditLogPartitionMaintenanceJob job;
+
+  @BeforeEach
+  void setUp() {
+    Clock clock = Clock.fixed(Instant.parse("2026-08-17T03:30:00Z"), ZoneOffset.UTC);
+    job = new AuditLogPartitionMaintenanceJob(jdbcTemplate, leaseStore, clock, 2, 0, LEASE);
+  }
+
+  @Test
+  void leaseHeldElsewhereRunsNoDdl() {
+    when(leaseStore.tryAcquire(eq(JOB), isNull(), any(), eq(LEASE))).thenReturn(false);
+
+    job.maintainPartitions();
+
+    verifyNoInteractions(jdbcTemplate);
+    verify(leaseStore, never()).release(any(), any(), any());
+  }
+
+  @Test
+  void leaseHolderCreatesPartitionsAheadAndKeepsTheLease() {
+    when(leaseStore.tryAcquire(eq(JOB), isNull(), any(), eq(LEASE))).thenReturn(true);
+    when(jdbcTemplate.queryForObject(
+            eq("SELECT common_audit.ensure_audit_log_partition(?)"), eq(Boolean.class), any()))
+        .thenReturn(true);
+
+    job.maintainPartitions();
+
+    verify(jdbcTemplate, times(3))
+        .queryForObject(
+            eq("SELECT common_audit.ensure_audit_log_partition(?)"), eq(Boolean.class), any());
+    verify(jdbcTemplate)
+        .queryForObject(
+            "SELECT common_audit.ensure_audit_log_partition(?)",
+            Boolean.class,
+            Date.valueOf("2026-10-01"));
+    verify(leaseStore).release(eq(JOB), any(), eq(LEASE));
+  }
+
+  @Test
+  void failedDdlStillReleasesTheLease() {
+    when(leaseStore.tryAcquire(eq(JOB), isNull(), any(), eq(LEASE))).thenReturn(true);
+    when(jdbcTemplate.queryForObject(any(String.class), eq(Boolean.class), any()))
+        .thenThrow(new IllegalStateException("permission denied"));
+
+    assertThatThrownBy(job::maintainPartitions).isInstanceOf(IllegalStateException.class);
+
+    verify(leaseStore).release(eq(JOB), any(), eq(LEASE));
+  }
+}
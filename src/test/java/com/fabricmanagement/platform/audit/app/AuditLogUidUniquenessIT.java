@@ -0,0 +1,75 @@
+package com.fabricmanagement.platform.audit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/** The uid of an audit row stays unique across monthly partitions. */
+class AuditLogUidUniquenessIT extends AbstractIntegrationTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+
+  @Autowired private JdbcTemplate jdbc;
+
+  @Test
+  void rejectsADuplicateUidInAnotherPartition() {
+    String uid = "AUD-IT-" + UUID.randomUUID();
+    Instant now = Instant.now();
+    insert(UUID.randomUUID(), uid, now);
+
+    assertThatThrownBy(() -> insert(UUID.randomUUID(), uid, now.minus(Duration.ofDays(45))))
+        .isInstanceOf(DataIntegrityViolationException.class);
+    assertThat(count(uid)).isEqualTo(1);
+  }
+
+  @Test
+  void reinsertingTheSameRowIsSkippedByItsPrimaryKey() {
+    String uid = "AUD-IT-" + UUID.randomUUID();
+    UUID id = UUID.randomUUID();
+    Instant now = Instant.now();
+    insert(id, uid, now);
+
+    int inserted =
+        jdbc.update(
+            """
+            INSERT INTO common_audit.common_audit_log
+                (id, tenant_id, uid, action, resource, severity, timestamp)
+            VALUES (?, ?, ?, 'IT', 'audit', 'INFO', ?)
+            ON CONFLICT (id, "timestamp") DO NOTHING
+            """,
+            id,
+            TENANT_ID,
+            uid,
+            Timestamp.from(now));
+
+    assertThat(inserted).isZero();
+    assertThat(count(uid)).isEqualTo(1);
+  }
+
+  private void insert(UUID id, String uid, Instant timestamp) {
+    jdbc.update(
+        """
+        INSERT INTO common_audit.common_audit_log
+            (id, tenant_id, uid, action, resource, severity, timestamp)
+        VALUES (?, ?, ?, 'IT', 'audit', 'INFO', ?)
+        """,
+        id,
+        TENANT_ID,
+        uid,
+        Timestamp.from(timestamp));
+  }
+
+  private int count(String uid) {
+    return jdbc.queryForObject(
+        "SELECT count(*) FROM common_audit.common_audit_log WHERE uid = ?", Integer.class, uid);
+  }
+}
@@ -0,0 +1,195 @@
+package com.fabricmanagement.platform.audit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.platform.audit.domain.AuditSeverity;
+import com.fabricmanagement.platform.user.api.facade.UserFacade;
+import com.fabricmanagement.platform.user.dto.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogWriter (Unit Test)")
+class AuditLogWriterTest {
+
+  private static final UUID TENANT_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final UUID USER_ID = UUID.fromString("20000000-0000-0000-0000-000000000001");
+  private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private UserFacade userFacade;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  @DisplayName("buffered entries are written in one batch on shutdown")
+  void flushesBufferedEntriesInBatches() {
+    AuditLogWriter writer = writer(100, 50);
+    when(userFacade.findById(TENANT_ID, USER_ID))
+        .thenReturn(Optional.of(UserDto.builder().uid("ACME-001-USER-0001").build()));
+    writer.start();
+
+    for (int i = 0; i < 20; i++) {
+      assertThat(writer.submit(entry(USER_ID, AuditSeverity.INFO))).isTrue();
+    }
+    writer.stop();
+
+    List<Object[]> written = capturedRows();
+    assertThat(written).hasSize(20);
+    assertThat(written).allSatisfy(row -> assertThat(row[4]).isEqualTo("ACME-001-USER-0001"));
+    verify(userFacade, times(1)).findById(TENANT_ID, USER_ID);
+    assertThat(meterRegistry.get("audit.log.written").counter().count()).isEqualTo(20);
+  }
+
+  @Test
+  @DisplayName("entries without a user are attributed to SYSTEM without a lookup")
+  void systemEntriesSkipUserLookup() {
+    AuditLogWriter writer = writer(10, 10);
+
+    writer.submit(entry(null, AuditSeverity.INFO));
+
+    assertThat(capturedRows())
+        .singleElement()
+        .satisfies(row -> assertThat(row[4]).isEqualTo("SYSTEM"));
+    verify(userFacade, never()).findById(any(), any());
+  }
+
+  @Test
+  @DisplayName("full buffer drops entries and counts them per severity")
+  void fullBufferDropsEntries() throws InterruptedException {
+    AuditLogWriter writer = writer(2, 10);
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+        .thenAnswer(
+            invocation -> {
+              writing.countDown();
+              release.await(5, TimeUnit.SECONDS);
+              return new int[0];
+            });
+    writer.start();
+
+    // The writer thread takes the first entry and blocks in the insert; the next two fill the
+    // buffer.
+    writer.submit(entry(null, AuditSeverity.INFO));
+    assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(writer.submit(entry(null, AuditSeverity.INFO))).isTrue();
+    assertThat(writer.submit(entry(null, AuditSeverity.INFO))).isTrue();
+
+    assertThat(writer.submit(entry(null, AuditSeverity.INFO))).isFalse();
+    assertThat(writer.submit(entry(null, AuditSeverity.CRITICAL))).isFalse();
+
+    release.countDown();
+    writer.stop();
+    assertThat(dropped("INFO")).isEqualTo(1);
+    assertThat(dropped("CRITICAL")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("a failed batch is counted and does not stop the writer")
+  void failedBatchIsCounted() {
+    AuditLogWriter writer = writer(10, 10);
+    when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    assertThat(writer.submit(entry(null, AuditSeverity.INFO))).isTrue();
+
+    assertThat(meterRegistry.get("audit.log.failed").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("a rejected batch is retried row by row and only the bad rows are lost")
+  void rejectedBatchIsRetriedRowByRow() {
+    AuditLogWriter writer = writer(10, 10);
+    AuditLogWriter.Entry bad = entry(null, AuditSeverity.WARNING);
+    when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+        .thenThrow(new DataIntegrityViolationException("duplicate uid"));
+    when(jdbcTemplate.update(anyString(), any(Object[].class)))
+        .thenAnswer(
+            invocation -> {
+              if (bad.uid().equals(invocation.getArgument(3))) {
+                throw new DataIntegrityViolationException("duplicate uid");
+              }
+              return 1;
+            });
+
+    // Not started: every submit writes inline.
+    writer.submit(entry(null, AuditSeverity.INFO));
+    writer.submit(bad);
+    writer.submit(entry(null, AuditSeverity.INFO));
+
+    verify(jdbcTemplate, times(3)).update(contains("ON CONFLICT"), any(Object[].class));
+    assertThat(meterRegistry.get("audit.log.written").counter().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("audit.log.failed").counter().count()).isEqualTo(1);
+  }
+
+  private AuditLogWriter writer(int capacity, int batchSize) {
+    return new AuditLogWriter(
+        jdbcTemplate,
+        userFacade,
+        meterRegistry,
+        capacity,
+        batchSize,
+        Duration.ofMillis(10),
+        Duration.ofMillis(10));
+  }
+
+  private double dropped(String severity) {
+    return meterRegistry.get("audit.log.dropped").tag("severity", severity).counter().count();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Object[]> capturedRows() {
+    ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+    verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), captor.capture());
+    List<Object[]> rows = new ArrayList<>();
+    captor.getAllValues().forEach(rows::addAll);
+    return rows;
+  }
+
+  private static AuditLogWriter.Entry entry(UUID userId, AuditSeverity severity) {
+    return new AuditLogWriter.Entry(
+        TENANT_ID,
+        "ACME-001-AUD-" + UUID.randomUUID().toString().substring(0, 8),
+        userId,
+        true,
+        "STOCK_COUNT",
+        "stock_unit",
+        UUID.randomUUID().toString(),
+        "Counted",
+        null,
+        severity,
+        NOW);
+  }
+}
@@ -0,0 +1,127 @@
+package com.fabricmanagement.platform.audit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.audit.domain.AuditLog;
+import com.fabricmanagement.platform.audit.infra.repository.AuditLogRepository;
+import com.fabricmanagement.platform.common.exception.PlatformDomainException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditService keyset paging (Unit Test)")
+class AuditServiceKeysetPageTest {
+
+  private static final UUID TENANT_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+  private static final AuditLogWindow WINDOW = new AuditLogWindow(NOW.minusSeconds(3600), NOW);
+
+  @Mock private AuditLogRepository auditLogRepository;
+  @Mock private AuditLogWriter auditLogWriter;
+
+  private AuditService auditService;
+
+  @BeforeEach
+  void setUp() {
+    TenantContext.setCurrentTenantId(TENANT_ID);
+    auditService =
+        new AuditService(auditLogRepository, auditLogWriter, Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
+  @Test
+  @DisplayName("a full page returns a cursor pointing at its last entry")
+  void fullPageReturnsCursor() {
+    List<AuditLog> rows = logs(4);
+    when(auditLogRepository.findFirstKeysetPage(
+            TENANT_ID, WINDOW.from(), WINDOW.to(), PageRequest.of(0, 4)))
+        .thenReturn(rows);
+
+    AuditService.KeysetPage page = auditService.getAuditLogPage(WINDOW, null, 3);
+
+    assertThat(page.content()).hasSize(3);
+    AuditLogCursor cursor = AuditLogCursor.decode(page.nextCursor());
+    assertThat(cursor.timestamp()).isEqualTo(rows.get(2).getTimestamp());
+    assertThat(cursor.id()).isEqualTo(rows.get(2).getId());
+  }
+
+  @Test
+  @DisplayName("the cursor continues strictly after the previous page's last entry")
+  void cursorContinuesAfterLastEntry() {
+    AuditLog last = logs(1).get(0);
+    String token = new AuditLogCursor(last.getTimestamp(), last.getId()).encode();
+    when(auditLogRepository.findKeysetPageAfter(
+            eq(TENANT_ID),
+            eq(WINDOW.from()),
+            eq(WINDOW.to()),
+            eq(last.getTimestamp()),
+            eq(last.getId()),
+            any()))
+        .thenReturn(List.of());
+
+    AuditService.KeysetPage page = auditService.getAuditLogPage(WINDOW, token, 3);
+
+    assertThat(page.content()).isEmpty();
+    assertThat(page.nextCursor()).isNull();
+    verify(auditLogRepository)
+        .findKeysetPageAfter(
+            TENANT_ID,
+            WINDOW.from(),
+            WINDOW.to(),
+            last.getTimestamp(),
+            last.getId(),
+            PageRequest.of(0, 4));
+  }
+
+  @Test
+  @DisplayName("malformed cursors and inverted windows are rejected")
+  void rejectsInvalidInput() {
+    assertThatThrownBy(() -> auditService.getAuditLogPage(WINDOW, "not-a-cursor", 3))
+        .isInstanceOf(PlatformDomainException.class);
+    assertThatThrownBy(() -> new AuditLogWindow(NOW, NOW.minusSeconds(1)))
+        .isInstanceOf(PlatformDomainException.class);
+  }
+
+  @Test
+  @DisplayName("window defaults to the last 30 days")
+  void windowDefaults() {
+    AuditLogWindow window = AuditLogWindow.of(null, null, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    assertThat(window.to()).isEqualTo(NOW);
+    assertThat(window.from()).isEqualTo(NOW.minus(AuditLogWindow.DEFAULT_SPAN));
+  }
+
+  private static List<AuditLog> logs(int count) {
+    List<AuditLog> logs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      AuditLog entry =
+          AuditLog.create(null, "SYSTEM", "STOCK_COUNT", "stock_unit", "r" + i, "Counted");
+      entry.setId(UUID.randomUUID());
+      entry.setTimestamp(NOW.minusSeconds(i));
+      logs.add(entry);
+    }
+    return logs;
+  }
+}
@@ -1,8 +1,10 @@
 package com.fabricmanagement.platform.organization.app;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.security.PermissionInvalidationNotifier;
 import com.fabricmanagement.platform.organization.domain.Department;
 import com.fabricmanagement.platform.organization.domain.SystemDepartment;
 import com.fabricmanagement.platform.organization.infra.repository.DepartmentRepository;
@@ -53,7 +55,8 @@ class SystemDepartmentCodeRepairServiceTest {
               return defaultValue(method.getReturnType());
             });
     SystemDepartmentCodeRepairService service =
-        new SystemDepartmentCodeRepairService(departmentRepository);
+        new SystemDepartmentCodeRepairService(
+            departmentRepository, mock(PermissionInvalidationNotifier.class));
 
     int repaired = service.repairTenant(TENANT_ID);
 
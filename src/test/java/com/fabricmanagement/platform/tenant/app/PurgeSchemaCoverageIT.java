@@ -109,6 +109,15 @@ class PurgeSchemaCoverageIT extends AbstractIntegrationTest {
           AND c.table_schema NOT IN ('pg_catalog', 'information_schema')
           AND c.table_schema NOT LIKE 'pg_toast%'
           AND c.table_name <> 'flyway_schema_history'
+          -- Partitions are purged and exempted through their partitioned parent table.
+          AND NOT EXISTS (
+            SELECT 1
+            FROM pg_class pc
+            JOIN pg_namespace pn ON pn.oid = pc.relnamespace
+            WHERE pn.nspname = c.table_schema
+              AND pc.relname = c.table_name
+              AND pc.relispartition
+          )
         ORDER BY 1
         """,
         String.class);
@@ -129,6 +138,10 @@ class PurgeSchemaCoverageIT extends AbstractIntegrationTest {
         "public.stuck_event_publication",
         "Scheduler-owned cross-tenant stuck-event bookkeeping (EVENT-VISIBILITY-1); non-RLS, "
             + "self-purging by resolution/age. tenant_id is informational, not tenant business data.");
+    tables.put(
+        "public.scheduled_job_tenant_checkpoint",
+        "Scheduler-owned fan-out checkpoints (TenantFanOutExecutor); non-RLS, purged by age. "
+            + "tenant_id records which tenants a job run finished, not tenant business data.");
     tables.put("common_audit.common_audit_log", "Audit history is retained across demo reset.");
     tables.put("common_auth.common_auth_user", "Seed-user auth rows are deleted by demo_seed CTE.");
     tables.put(
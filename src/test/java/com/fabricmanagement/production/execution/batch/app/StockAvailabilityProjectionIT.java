@@ -0,0 +1,214 @@
+package com.fabricmanagement.production.execution.batch.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.tenant.domain.Tenant;
+import com.fabricmanagement.platform.tenant.infra.repository.TenantRepository;
+import com.fabricmanagement.production.execution.batch.domain.Batch;
+import com.fabricmanagement.production.execution.batch.domain.BatchSourceType;
+import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
+import com.fabricmanagement.production.execution.batch.dto.StockAvailabilityDtos;
+import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
+import com.fabricmanagement.production.execution.stockunit.app.StockUnitService;
+import com.fabricmanagement.production.execution.stockunit.domain.PackageType;
+import com.fabricmanagement.production.execution.stockunit.domain.QualityDisposition;
+import com.fabricmanagement.production.execution.stockunit.domain.StockUnit;
+import com.fabricmanagement.production.execution.stockunit.domain.StockUnitSourceType;
+import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
+import com.fabricmanagement.production.masterdata.product.domain.Product;
+import com.fabricmanagement.production.masterdata.product.domain.ProductType;
+import com.fabricmanagement.production.masterdata.product.infra.repository.ProductRepository;
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Availability read through the projection, with the projection written by the real before-commit
+ * refresh. Data is committed: the concurrency test needs two transactions that see each other.
+ */
+@TestPropertySource(properties = "application.stock-availability.projection-read-enabled=true")
+class StockAvailabilityProjectionIT extends AbstractIntegrationTest {
+
+  @Autowired private StockAvailabilityQueryService service;
+  @Autowired private StockAvailabilityProjectionService projectionService;
+  @Autowired private StockAvailabilityProjectionStore projectionStore;
+  @Autowired private StockUnitService stockUnitService;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private BatchRepository batchRepository;
+  @Autowired private StockUnitRepository stockUnitRepository;
+  @Autowired private TenantRepository tenantRepository;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  private UUID tenantId;
+  private UUID actorId;
+  private Product product;
+  private Batch batch;
+
+  @BeforeEach
+  void setUpBatch() {
+    tenantId = tenant();
+    actorId = UUID.randomUUID();
+    TenantContext.setCurrentTenantId(tenantId);
+    TenantContext.setCurrentUserId(actorId);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          product = Product.create(ProductType.FABRIC, "M");
+          product.setTenantId(tenantId);
+          product = productRepository.saveAndFlush(product);
+          batch = batchRepository.saveAndFlush(batch(product));
+        });
+  }
+
+  @AfterEach
+  void clearTenant() {
+    TenantContext.clear();
+  }
+
+  @Test
+  void lotsReadTheProjectionKeptInStepWithPieceWrites() {
+    StockUnit first = write(piece("10", "100"));
+    write(piece("5", "50"));
+
+    StockAvailabilityDtos.Lot lot = lot();
+    assertThat(lot.physical().pieceCount()).isEqualTo(2);
+    assertThat(lot.physical().kg()).isEqualByComparingTo("15");
+    assertThat(lot.physical().metres()).isEqualByComparingTo("150");
+
+    transactionTemplate.executeWithoutResult(
+        status -> stockUnitService.consume(first.getId(), new BigDecimal("4")));
+
+    assertThat(lot().physical().kg()).isEqualByComparingTo("11");
+    assertThat(transactionTemplate.execute(status -> projectionService.verify(tenantId, false)))
+        .isEmpty();
+  }
+
+  @Test
+  void concurrentRefreshesOfOneBatchLeaveOneRowPerGrain() throws Exception {
+    CountDownLatch bothWritten = new CountDownLatch(2);
+    ExecutorService writers = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<StockUnit>> written =
+          List.of(
+              writers.submit(() -> writeTogether(piece("10", "100"), bothWritten)),
+              writers.submit(() -> writeTogether(piece("20", "200"), bothWritten)));
+      for (Future<StockUnit> future : written) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      writers.shutdownNow();
+    }
+
+    assertThat(
+            transactionTemplate.execute(
+                status -> projectionStore.findRows(tenantId, List.of(batch.getId()))))
+        .singleElement()
+        .satisfies(
+            row -> {
+              assertThat(row.getPieceCount()).isEqualTo(2);
+              assertThat(row.getWeightQuantity()).isEqualByComparingTo("30");
+            });
+    assertThat(lot().physical().kg()).isEqualByComparingTo("30");
+  }
+
+  /** Saves the piece and marks its batch dirty, as StockUnitService does, in one transaction. */
+  private StockUnit write(StockUnit piece) {
+    return transactionTemplate.execute(
+        status -> {
+          StockUnit saved = stockUnitRepository.save(piece);
+          projectionService.markDirty(tenantId, batch.getId());
+          return saved;
+        });
+  }
+
+  /** Like {@link #write}, but holds the commit until the other writer has written its piece too. */
+  private StockUnit writeTogether(StockUnit piece, CountDownLatch bothWritten) {
+    TenantContext.setCurrentTenantId(tenantId);
+    TenantContext.setCurrentUserId(actorId);
+    try {
+      return transactionTemplate.execute(
+          status -> {
+            StockUnit saved = stockUnitRepository.saveAndFlush(piece);
+            projectionService.markDirty(tenantId, batch.getId());
+            bothWritten.countDown();
+            try {
+              assertThat(bothWritten.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new IllegalStateException(e);
+            }
+            return saved;
+          });
+    } finally {
+      TenantContext.clear();
+    }
+  }
+
+  private StockAvailabilityDtos.Lot lot() {
+    return transactionTemplate.execute(
+        status ->
+            service
+                .lots(null, null, product.getId(), null, null, null, PageRequest.of(0, 20))
+                .getContent()
+                .getFirst());
+  }
+
+  private UUID tenant() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    Tenant tenant = Tenant.create("Projection " + suffix, "PRJ-" + suffix);
+    tenant.activate("test");
+    return tenantRepository.saveAndFlush(tenant).getId();
+  }
+
+  private Batch batch(Product owner) {
+    Batch created =
+        Batch.builder()
+            .productId(owner.getId())
+            .productType(owner.getProductType())
+            .batchCode("LOT-PROJECTION-" + UUID.randomUUID().toString().substring(0, 8))
+            .quantity(new BigDecimal("200"))
+            .reservedQuantity(BigDecimal.ZERO)
+            .consumedQuantity(BigDecimal.ZERO)
+            .wasteQuantity(BigDecimal.ZERO)
+            .unit(owner.getUnit())
+            .status(BatchStatus.AVAILABLE)
+            .sourceType(BatchSourceType.INITIAL_STOCK)
+            .build();
+    created.setTenantId(tenantId);
+    created.setIsActive(true);
+    return created;
+  }
+
+  private StockUnit piece(String kg, String metres) {
+    StockUnit piece =
+        StockUnit.create(
+            tenantId,
+            batch.getId(),
+            ProductType.FABRIC,
+            "ROLL-" + UUID.randomUUID().toString().substring(0, 8),
+            null,
+            PackageType.ROLL,
+            new BigDecimal(kg),
+            null,
+            "KG",
+            null,
+            StockUnitSourceType.PRODUCTION,
+            UUID.randomUUID(),
+            QualityDisposition.RELEASED);
+    piece.recordLength(new BigDecimal(metres), "M");
+    return piece;
+  }
+}
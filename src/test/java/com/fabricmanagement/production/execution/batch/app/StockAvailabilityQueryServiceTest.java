@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,6 +19,7 @@ import com.fabricmanagement.production.execution.batch.dto.StockAvailabilityDtos
 import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
 import com.fabricmanagement.production.execution.batch.infra.repository.StockAvailabilityBatchRepository;
 import com.fabricmanagement.production.execution.stockunit.domain.PackageType;
+import com.fabricmanagement.production.execution.stockunit.domain.QualityDisposition;
 import com.fabricmanagement.production.execution.stockunit.domain.StockUnitStatus;
 import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
 import com.fabricmanagement.production.masterdata.product.domain.ProductType;
@@ -36,6 +38,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class StockAvailabilityQueryServiceTest {
@@ -50,6 +53,7 @@ class StockAvailabilityQueryServiceTest {
   @Mock private StockUnitRepository stockUnitRepository;
   @Mock private BatchCommitmentQuantityService commitmentQuantityService;
   @Mock private QualityGradeQueryService qualityGradeQueryService;
+  @Mock private StockAvailabilityProjectionStore projectionStore;
 
   private StockAvailabilityQueryService service;
 
@@ -62,7 +66,8 @@ class StockAvailabilityQueryServiceTest {
             stockUnitRepository,
             new BatchPrimaryMeasureService(),
             commitmentQuantityService,
-            qualityGradeQueryService);
+            qualityGradeQueryService,
+            projectionStore);
   }
 
   @AfterEach
@@ -131,6 +136,61 @@ class StockAvailabilityQueryServiceTest {
     assertThat(lot.qualityBreakdown().get(2).pieceCount()).isEqualTo(1);
   }
 
+  @Test
+  void projectedRowsProduceTheSameLotAsTheLiveStockUnitQueries() {
+    ReflectionTestUtils.setField(service, "projectionReadEnabled", true);
+    Batch batch = batch("LOT-001", "150", "M");
+    var pageable = PageRequest.of(0, 20);
+    var projected =
+        List.of(
+            projected(batch, StockUnitStatus.AVAILABLE, GRADE_ONE, "KG", "10", "M", "100"),
+            projected(batch, StockUnitStatus.AVAILABLE, GRADE_TWO, "LB", "22", "CM", "500"),
+            projected(batch, StockUnitStatus.AVAILABLE, null, "KG", "5", "M", "20"),
+            projected(batch, StockUnitStatus.QUARANTINE, GRADE_ONE, "KG", "100", "M", "1000"),
+            new StockAvailabilityProjectionStore.Row(
+                batch.getId(),
+                StockUnitStatus.AVAILABLE,
+                null,
+                QualityDisposition.PENDING_INSPECTION,
+                PackageType.ROLL,
+                "KG",
+                new BigDecimal("7"),
+                "M",
+                new BigDecimal("70"),
+                1));
+    var colourRows = List.of(colour(batch));
+
+    when(batchRepository.findAvailabilityLots(
+            eq(TENANT_ID), any(StockAvailabilityBatchRepository.Filter.class), any()))
+        .thenReturn(new PageImpl<>(List.of(batch), pageable, 1));
+    when(projectionStore.findRows(TENANT_ID, List.of(batch.getId()))).thenReturn(projected);
+    when(qualityGradeQueryService.findReferencesByIds(Set.of(GRADE_ONE, GRADE_TWO)))
+        .thenReturn(List.of(grade(GRADE_TWO, "2", 2, false), grade(GRADE_ONE, "1", 1, true)));
+    when(commitmentQuantityService.summarize(TENANT_ID, List.of(batch), null))
+        .thenReturn(Map.of(batch.getId(), commitments("10", "5")));
+    when(batchRepository.findColorReferencesByBatchIds(TENANT_ID, List.of(batch.getId())))
+        .thenReturn(colourRows);
+
+    var lot = service.lots(COLOR_ID, null, null, null, null, null, pageable).getContent().getFirst();
+
+    assertThat(lot.physicalSource()).isEqualTo(PhysicalSource.PIECES);
+    assertThat(lot.physical().pieceCount()).isEqualTo(3);
+    assertThat(lot.physical().kg()).isEqualByComparingTo("15");
+    assertThat(lot.physical().metres()).isEqualByComparingTo("125");
+    assertThat(lot.free()).isEqualByComparingTo("110");
+    assertThat(lot.pieceBreakdown())
+        .singleElement()
+        .satisfies(
+            row -> {
+              assertThat(row.packageType()).isEqualTo(PackageType.ROLL);
+              assertThat(row.count()).isEqualTo(3);
+            });
+    assertThat(lot.qualityBreakdown()).hasSize(3);
+    assertThat(lot.qualityBreakdown().get(0).grade().id()).isEqualTo(GRADE_ONE);
+    assertThat(lot.qualityBreakdown().get(2).grade()).isNull();
+    verifyNoInteractions(stockUnitRepository);
+  }
+
   @Test
   void qualityFilterScopesPhysicalPiecesButKeepsLotGrainCommitmentsAndFree() {
     Batch batch = batch("LOT-001", "150", "M");
@@ -316,6 +376,27 @@ class StockAvailabilityQueryServiceTest {
     return row;
   }
 
+  private StockAvailabilityProjectionStore.Row projected(
+      Batch batch,
+      StockUnitStatus status,
+      UUID gradeId,
+      String weightUnit,
+      String weight,
+      String lengthUnit,
+      String length) {
+    return new StockAvailabilityProjectionStore.Row(
+        batch.getId(),
+        status,
+        gradeId,
+        QualityDisposition.RELEASED,
+        PackageType.ROLL,
+        weightUnit,
+        new BigDecimal(weight),
+        lengthUnit,
+        new BigDecimal(length),
+        1);
+  }
+
   private QualityGradeReference grade(UUID id, String code, int rank, boolean saleable) {
     return new QualityGradeReference(
         id, code, "Grade " + code, rank, BigDecimal.ONE, saleable, true);
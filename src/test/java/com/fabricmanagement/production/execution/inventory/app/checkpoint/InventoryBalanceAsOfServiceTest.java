@@ -0,0 +1,116 @@
+package com.fabricmanagement.production.execution.inventory.app.checkpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.production.execution.inventory.dto.InventoryBalanceAsOfDto;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InventoryBalanceAsOfService (Unit Test)")
+class InventoryBalanceAsOfServiceTest {
+
+  private static final UUID TENANT_ID = UUID.fromString("10000000-0000-0000-0000-000000000001");
+  private static final UUID BATCH_ID = UUID.fromString("20000000-0000-0000-0000-000000000002");
+  private static final UUID PRODUCT_ID = UUID.fromString("30000000-0000-0000-0000-000000000003");
+  private static final Instant NOW = Instant.parse("2026-03-10T10:00:00Z");
+  private static final Instant CHECKPOINT = Instant.parse("2026-03-10T00:00:00Z");
+
+  @Mock private InventoryCheckpointStore checkpointStore;
+
+  private InventoryBalanceAsOfService asOfService;
+
+  @BeforeEach
+  void setUp() {
+    TenantContext.setCurrentTenantId(TENANT_ID);
+    asOfService =
+        new InventoryBalanceAsOfService(checkpointStore, Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @AfterEach
+  void tearDown() {
+    TenantContext.clear();
+  }
+
+  @Test
+  @DisplayName("Batch balances default to now and report the checkpoint they start from")
+  void batchAsOfDefaultsToNow() {
+    when(checkpointStore.findBase(TENANT_ID, NOW)).thenReturn(CHECKPOINT);
+    when(checkpointStore.findBatchAsOf(TENANT_ID, BATCH_ID, CHECKPOINT, NOW))
+        .thenReturn(List.of(row("B-001", "12.500")));
+
+    List<InventoryBalanceAsOfDto> balances = asOfService.getBatchAsOf(BATCH_ID, null);
+
+    assertThat(balances)
+        .singleElement()
+        .satisfies(
+            balance -> {
+              assertThat(balance.getAsOf()).isEqualTo(NOW);
+              assertThat(balance.getCheckpointAt()).isEqualTo(CHECKPOINT);
+              assertThat(balance.getQuantity()).isEqualByComparingTo("12.5");
+            });
+  }
+
+  @Test
+  @DisplayName("Without a checkpoint the balance is summed from the whole ledger")
+  void batchAsOfWithoutCheckpoint() {
+    Instant asOf = Instant.parse("2026-01-05T12:00:00Z");
+    when(checkpointStore.findBase(TENANT_ID, asOf))
+        .thenReturn(InventoryCheckpointStore.NO_CHECKPOINT);
+    when(checkpointStore.findBatchAsOf(
+            TENANT_ID, BATCH_ID, InventoryCheckpointStore.NO_CHECKPOINT, asOf))
+        .thenReturn(List.of(row("B-001", "3")));
+
+    List<InventoryBalanceAsOfDto> balances = asOfService.getBatchAsOf(BATCH_ID, asOf);
+
+    assertThat(balances).singleElement().extracting("checkpointAt").isNull();
+  }
+
+  @Test
+  @DisplayName("CSV writes a header, plain quantities and escapes text fields")
+  void exportsCsv() throws Exception {
+    when(checkpointStore.findBase(TENANT_ID, NOW)).thenReturn(CHECKPOINT);
+    when(checkpointStore.streamAsOf(TENANT_ID, CHECKPOINT, NOW))
+        .thenReturn(Stream.of(row("=B,1", "-1E+1"), row("B-002", "0.250")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    long count = asOfService.exportAsOf(null, out);
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+    assertThat(count).isEqualTo(2);
+    assertThat(lines).hasSize(3);
+    assertThat(lines[0]).startsWith("batch_id,batch_code,product_id,location_id,unit,quantity");
+    assertThat(lines[1])
+        .isEqualTo(BATCH_ID + ",\"'=B,1\"," + PRODUCT_ID + ",,KG,-10,0,0,0");
+    assertThat(lines[2]).contains(",B-002,").contains(",KG,0.250,");
+  }
+
+  private static InventoryCheckpointStore.Row row(String batchCode, String quantity) {
+    return new InventoryCheckpointStore.Row(
+        BATCH_ID,
+        batchCode,
+        PRODUCT_ID,
+        null,
+        "KG",
+        new BigDecimal(quantity),
+        BigDecimal.ZERO,
+        BigDecimal.ZERO,
+        BigDecimal.ZERO);
+  }
+}
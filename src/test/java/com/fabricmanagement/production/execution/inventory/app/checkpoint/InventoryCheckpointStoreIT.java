@@ -0,0 +1,276 @@
+package com.fabricmanagement.production.execution.inventory.app.checkpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.tenant.domain.Tenant;
+import com.fabricmanagement.platform.tenant.infra.repository.TenantRepository;
+import com.fabricmanagement.production.execution.batch.domain.Batch;
+import com.fabricmanagement.production.execution.batch.domain.BatchSourceType;
+import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
+import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
+import com.fabricmanagement.production.execution.inventory.app.checkpoint.InventoryCheckpointStore.Row;
+import com.fabricmanagement.production.execution.inventory.app.command.InventoryTransactionCommandService;
+import com.fabricmanagement.production.execution.inventory.domain.InventoryBalance;
+import com.fabricmanagement.production.execution.inventory.domain.InventoryTransaction;
+import com.fabricmanagement.production.execution.inventory.domain.enums.InventoryTransactionType;
+import com.fabricmanagement.production.execution.inventory.infra.repository.InventoryBalanceRepository;
+import com.fabricmanagement.production.execution.inventory.infra.repository.InventoryTransactionRepository;
+import com.fabricmanagement.production.masterdata.product.domain.Product;
+import com.fabricmanagement.production.masterdata.product.domain.ProductType;
+import com.fabricmanagement.production.masterdata.product.infra.repository.ProductRepository;
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The as-of SQL against a real ledger: which rows a checkpoint and a query window take, the
+ * mapping from transaction type to bucket, and balances without a location. Ledger rows are
+ * written with fixed dates, except in the comparison with the live balances, which goes through
+ * {@link InventoryTransactionCommandService} so the balance updater runs as in production.
+ */
+class InventoryCheckpointStoreIT extends AbstractIntegrationTest {
+
+  private static final Instant CHECKPOINT_AT = Instant.parse("2026-03-01T00:00:00Z");
+
+  @Autowired private InventoryCheckpointStore store;
+  @Autowired private InventoryTransactionCommandService transactionService;
+  @Autowired private InventoryTransactionRepository transactionRepository;
+  @Autowired private InventoryBalanceRepository balanceRepository;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private BatchRepository batchRepository;
+  @Autowired private TenantRepository tenantRepository;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private UUID tenantId;
+  private Batch batch;
+  private UUID locationId;
+
+  @BeforeEach
+  void setUpBatch() {
+    tenantId = tenant();
+    TenantContext.setCurrentTenantId(tenantId);
+    TenantContext.setCurrentTenantUid("CHK-IT");
+    TenantContext.setCurrentUserId(UUID.randomUUID());
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          Product product = Product.create(ProductType.FABRIC, "KG");
+          product.setTenantId(tenantId);
+          product = productRepository.saveAndFlush(product);
+          batch = batchRepository.saveAndFlush(batch(product));
+          locationId = location();
+        });
+  }
+
+  @AfterEach
+  void clearTenant() {
+    TenantContext.clear();
+  }
+
+  @Test
+  void checkpointTakesRowsAtItsInstantAndTheWindowEndIsInclusive() {
+    ledger(InventoryTransactionType.RECEIPT, "100", null, CHECKPOINT_AT.minusSeconds(3_600));
+    ledger(InventoryTransactionType.RECEIPT, "7", null, CHECKPOINT_AT);
+    Instant asOf = CHECKPOINT_AT.plusSeconds(3_600);
+    ledger(InventoryTransactionType.CONSUMPTION, "20", null, CHECKPOINT_AT.plusMillis(1));
+    ledger(InventoryTransactionType.WASTE, "2", null, asOf);
+    ledger(InventoryTransactionType.WASTE, "50", null, asOf.plus(1, ChronoUnit.MICROS));
+
+    int written =
+        transactionTemplate.execute(status -> store.writeCheckpoint(tenantId, CHECKPOINT_AT));
+    assertThat(written).isEqualTo(1);
+
+    Row checkpoint = onlyRow(findAsOf(InventoryCheckpointStore.NO_CHECKPOINT, CHECKPOINT_AT));
+    assertThat(checkpoint.quantity()).isEqualByComparingTo("107");
+    assertThat(transactionTemplate.execute(status -> store.findBase(tenantId, asOf)))
+        .isEqualTo(CHECKPOINT_AT);
+
+    Row later = onlyRow(findAsOf(CHECKPOINT_AT, asOf));
+    assertThat(later.quantity()).isEqualByComparingTo("85");
+    assertThat(later.consumedQuantity()).isEqualByComparingTo("20");
+    assertThat(later.wasteQuantity()).isEqualByComparingTo("2");
+  }
+
+  @Test
+  void eachTransactionTypeMovesItsBucket() {
+    Instant at = CHECKPOINT_AT.minusSeconds(60);
+    ledger(InventoryTransactionType.RECEIPT, "100", null, at);
+    ledger(InventoryTransactionType.TRANSFER_IN, "10", null, at);
+    ledger(InventoryTransactionType.SPLIT_IN, "6", null, at);
+    ledger(InventoryTransactionType.RETURN, "4", null, at);
+    ledger(InventoryTransactionType.ADJUSTMENT, "5", null, at);
+    ledger(InventoryTransactionType.CONSUMPTION, "20", null, at);
+    ledger(InventoryTransactionType.WASTE, "3", null, at);
+    ledger(InventoryTransactionType.SPLIT_OUT, "6", null, at);
+    ledger(InventoryTransactionType.TRANSFER_OUT, "4", null, at);
+    ledger(InventoryTransactionType.SAMPLE, "1", null, at);
+    ledger(InventoryTransactionType.RESERVATION, "30", null, at);
+    ledger(InventoryTransactionType.RESERVATION_RELEASE, "10", null, at);
+    ledger(InventoryTransactionType.QUALITY_TEST, "99", null, at);
+    ledger(InventoryTransactionType.TRANSFER, "99", null, at);
+
+    Row row = onlyRow(findAsOf(InventoryCheckpointStore.NO_CHECKPOINT, CHECKPOINT_AT));
+    assertThat(row.quantity()).isEqualByComparingTo("91");
+    assertThat(row.reservedQuantity()).isEqualByComparingTo("20");
+    assertThat(row.consumedQuantity()).isEqualByComparingTo("20");
+    assertThat(row.wasteQuantity()).isEqualByComparingTo("3");
+    assertThat(row.batchCode()).isEqualTo(batch.getBatchCode());
+    assertThat(row.unit()).isEqualTo("KG");
+  }
+
+  @Test
+  void balancesWithoutALocationAreOneRowCarriedThroughTheCheckpoint() {
+    Instant before = CHECKPOINT_AT.minusSeconds(60);
+    ledger(InventoryTransactionType.RECEIPT, "10", null, before);
+    ledger(InventoryTransactionType.RECEIPT, "5", null, before.plusSeconds(1));
+    ledger(InventoryTransactionType.RECEIPT, "40", locationId, before);
+    transactionTemplate.execute(status -> store.writeCheckpoint(tenantId, CHECKPOINT_AT));
+    ledger(InventoryTransactionType.CONSUMPTION, "3", null, CHECKPOINT_AT.plusSeconds(60));
+
+    List<Row> rows = findAsOf(CHECKPOINT_AT, CHECKPOINT_AT.plusSeconds(120));
+
+    assertThat(rows).extracting(Row::locationId).containsExactly(null, locationId);
+    assertThat(rows.get(0).quantity()).isEqualByComparingTo("12");
+    assertThat(rows.get(1).quantity()).isEqualByComparingTo("40");
+  }
+
+  @Test
+  void balancesAsOfNowEqualTheLiveBalancesAcrossACheckpoint() {
+    create(InventoryTransactionType.RECEIPT, "100", null);
+    create(InventoryTransactionType.RECEIPT, "60", locationId);
+    create(InventoryTransactionType.RESERVATION, "25", null);
+    Instant checkpointAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    transactionTemplate.execute(status -> store.writeCheckpoint(tenantId, checkpointAt));
+    create(InventoryTransactionType.CONSUMPTION, "15", null);
+    create(InventoryTransactionType.RESERVATION_RELEASE, "10", null);
+    create(InventoryTransactionType.WASTE, "4", locationId);
+
+    Instant now = Instant.now();
+    Instant base = transactionTemplate.execute(status -> store.findBase(tenantId, now));
+    List<Row> asOf = findAsOf(base, now);
+    List<InventoryBalance> live =
+        transactionTemplate.execute(
+            status ->
+                balanceRepository.findByBatchId(batch.getId(), Pageable.unpaged()).getContent());
+
+    assertThat(base).isEqualTo(checkpointAt);
+    assertThat(asOf).hasSameSizeAs(live).hasSize(2);
+    for (InventoryBalance balance : live) {
+      Row row =
+          asOf.stream()
+              .filter(r -> Objects.equals(r.locationId(), balance.getLocationId()))
+              .findFirst()
+              .orElseThrow();
+      assertThat(row.quantity()).isEqualByComparingTo(balance.getQuantity());
+      assertThat(row.reservedQuantity()).isEqualByComparingTo(balance.getReservedQuantity());
+      assertThat(row.consumedQuantity()).isEqualByComparingTo(balance.getConsumedQuantity());
+      assertThat(row.wasteQuantity()).isEqualByComparingTo(balance.getWasteQuantity());
+      assertThat(row.unit()).isEqualTo(balance.getUnit());
+    }
+  }
+
+  /** Writes a ledger row with a fixed date; the live balance is not touched. */
+  private void ledger(
+      InventoryTransactionType type, String quantity, UUID location, Instant date) {
+    transactionTemplate.executeWithoutResult(
+        status ->
+            transactionRepository.saveAndFlush(
+                InventoryTransaction.create(
+                    tenantId,
+                    batch.getId(),
+                    type,
+                    new BigDecimal(quantity),
+                    "KG",
+                    location,
+                    null,
+                    null,
+                    date,
+                    null,
+                    null,
+                    null)));
+  }
+
+  /** Writes a ledger row dated now through the command service, which moves the live balance. */
+  private void create(InventoryTransactionType type, String quantity, UUID location) {
+    transactionTemplate.executeWithoutResult(
+        status ->
+            transactionService.createTransaction(
+                tenantId,
+                batch.getId(),
+                type,
+                new BigDecimal(quantity),
+                "KG",
+                location,
+                null,
+                null,
+                null,
+                null,
+                null));
+  }
+
+  private List<Row> findAsOf(Instant since, Instant asOf) {
+    return transactionTemplate.execute(
+        status -> store.findBatchAsOf(tenantId, batch.getId(), since, asOf));
+  }
+
+  private static Row onlyRow(List<Row> rows) {
+    assertThat(rows).hasSize(1);
+    return rows.getFirst();
+  }
+
+  private UUID tenant() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    Tenant tenant = Tenant.create("Checkpoint " + suffix, "CHK-" + suffix);
+    tenant.activate("test");
+    return tenantRepository.saveAndFlush(tenant).getId();
+  }
+
+  private Batch batch(Product owner) {
+    Batch created =
+        Batch.builder()
+            .productId(owner.getId())
+            .productType(owner.getProductType())
+            .batchCode("LOT-CHECKPOINT-" + UUID.randomUUID().toString().substring(0, 8))
+            .quantity(new BigDecimal("200"))
+            .reservedQuantity(BigDecimal.ZERO)
+            .consumedQuantity(BigDecimal.ZERO)
+            .wasteQuantity(BigDecimal.ZERO)
+            .unit(owner.getUnit())
+            .status(BatchStatus.AVAILABLE)
+            .sourceType(BatchSourceType.INITIAL_STOCK)
+            .build();
+    created.setTenantId(tenantId);
+    created.setIsActive(true);
+    return created;
+  }
+
+  /** A bare bin: the live balance references its location. */
+  private UUID location() {
+    UUID id = UUID.randomUUID();
+    entityManager
+        .createNativeQuery(
+            """
+            INSERT INTO iwm.warehouse_location (id, tenant_id, code, name, type)
+            VALUES (:id, :tenantId, :code, 'Checkpoint bin', 'BIN')
+            """)
+        .setParameter("id", id)
+        .setParameter("tenantId", tenantId)
+        .setParameter("code", "BIN-" + id.toString().substring(0, 8))
+        .executeUpdate();
+    return id;
+  }
+}
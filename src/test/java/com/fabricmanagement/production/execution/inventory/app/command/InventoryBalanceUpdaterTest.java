@@ -0,0 +1,171 @@
+package com.fabricmanagement.production.execution.inventory.app.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.fabricmanagement.production.execution.inventory.domain.enums.InventoryTransactionType;
+import com.fabricmanagement.production.execution.inventory.domain.event.InventoryTransactionCreatedEvent;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryBalanceUpdaterTest {
+
+  private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final UUID BATCH_ID = UUID.randomUUID();
+  private static final UUID LOCATION_ID = UUID.randomUUID();
+
+  @Mock private InventoryBalanceDeltaStore deltaStore;
+  @Mock private EntityManager entityManager;
+
+  private InventoryBalanceUpdater updater;
+
+  @BeforeEach
+  void setUp() {
+    updater = new InventoryBalanceUpdater(deltaStore);
+    ReflectionTestUtils.setField(updater, "entityManager", entityManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void coalescesEventsPerBalanceAndAppliesOnceBeforeCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    UUID lastReceipt = UUID.randomUUID();
+
+    updater.onTransactionCreated(event(InventoryTransactionType.RECEIPT, "100", LOCATION_ID));
+    updater.onTransactionCreated(event(InventoryTransactionType.CONSUMPTION, "30", LOCATION_ID));
+    updater.onTransactionCreated(event(InventoryTransactionType.WASTE, "5", LOCATION_ID));
+    updater.onTransactionCreated(event(InventoryTransactionType.RESERVATION, "20", LOCATION_ID));
+    updater.onTransactionCreated(
+        event(InventoryTransactionType.RESERVATION_RELEASE, "8", LOCATION_ID));
+    updater.onTransactionCreated(event(InventoryTransactionType.RECEIPT, "7", null, lastReceipt));
+    verify(deltaStore, never()).apply(eq(TENANT_ID), any());
+
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.beforeCommit(false));
+
+    ArgumentCaptor<Collection<InventoryBalanceDelta>> captor = deltasCaptor();
+    verify(deltaStore, times(1)).apply(eq(TENANT_ID), captor.capture());
+    List<InventoryBalanceDelta> deltas = List.copyOf(captor.getValue());
+    assertThat(deltas).hasSize(2);
+
+    InventoryBalanceDelta located = deltas.get(1);
+    assertThat(located.getLocationId()).isEqualTo(LOCATION_ID);
+    assertThat(located.getQuantity()).isEqualByComparingTo("65");
+    assertThat(located.getConsumedQuantity()).isEqualByComparingTo("30");
+    assertThat(located.getWasteQuantity()).isEqualByComparingTo("5");
+    assertThat(located.getReservedQuantity()).isEqualByComparingTo("12");
+
+    InventoryBalanceDelta unlocated = deltas.get(0);
+    assertThat(unlocated.getLocationId()).isNull();
+    assertThat(unlocated.getQuantity()).isEqualByComparingTo("7");
+    assertThat(unlocated.getLastTransactionId()).isEqualTo(lastReceipt);
+  }
+
+  @Test
+  void appliesImmediatelyOnceTheBeforeCommitApplyHasRun() {
+    TransactionSynchronizationManager.initSynchronization();
+    updater.onTransactionCreated(event(InventoryTransactionType.RECEIPT, "10", LOCATION_ID));
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.beforeCommit(false));
+
+    updater.onTransactionCreated(event(InventoryTransactionType.SAMPLE, "1", LOCATION_ID));
+
+    ArgumentCaptor<Collection<InventoryBalanceDelta>> captor = deltasCaptor();
+    verify(deltaStore, times(2)).apply(eq(TENANT_ID), captor.capture());
+    assertThat(captor.getAllValues().get(1))
+        .singleElement()
+        .satisfies(delta -> assertThat(delta.getQuantity()).isEqualByComparingTo("-1"));
+  }
+
+  @Test
+  void skipsEventsPublishedWithoutTransaction() {
+    updater.onTransactionCreated(event(InventoryTransactionType.RECEIPT, "3", LOCATION_ID));
+
+    verifyNoInteractions(deltaStore);
+  }
+
+  @Test
+  void appliesDeltasInLockOrderWhateverTheOrderOfTheEvents() {
+    TransactionSynchronizationManager.initSynchronization();
+    UUID lowBatch = new UUID(0x10L, 1L);
+    UUID highBatch = new UUID(0xF000000000000000L, 1L);
+    UUID lowLocation = new UUID(0x20L, 1L);
+
+    updater.onTransactionCreated(event(highBatch, InventoryTransactionType.RECEIPT, null));
+    updater.onTransactionCreated(event(lowBatch, InventoryTransactionType.RECEIPT, lowLocation));
+    updater.onTransactionCreated(event(lowBatch, InventoryTransactionType.RECEIPT, null));
+    TransactionSynchronizationManager.getSynchronizations()
+        .forEach(synchronization -> synchronization.beforeCommit(false));
+
+    ArgumentCaptor<Collection<InventoryBalanceDelta>> captor = deltasCaptor();
+    verify(deltaStore).apply(eq(TENANT_ID), captor.capture());
+    assertThat(captor.getValue())
+        .extracting(InventoryBalanceDelta::getBatchId, InventoryBalanceDelta::getLocationId)
+        .containsExactly(
+            tuple(lowBatch, null), tuple(lowBatch, lowLocation), tuple(highBatch, null));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static ArgumentCaptor<Collection<InventoryBalanceDelta>> deltasCaptor() {
+    return (ArgumentCaptor) ArgumentCaptor.forClass(Collection.class);
+  }
+
+  private static InventoryTransactionCreatedEvent event(
+      InventoryTransactionType type, String quantity, UUID locationId) {
+    return event(type, quantity, locationId, UUID.randomUUID());
+  }
+
+  private static InventoryTransactionCreatedEvent event(
+      InventoryTransactionType type, String quantity, UUID locationId, UUID transactionId) {
+    return event(BATCH_ID, type, quantity, locationId, transactionId);
+  }
+
+  private static InventoryTransactionCreatedEvent event(
+      UUID batchId, InventoryTransactionType type, UUID locationId) {
+    return event(batchId, type, "1", locationId, UUID.randomUUID());
+  }
+
+  private static InventoryTransactionCreatedEvent event(
+      UUID batchId,
+      InventoryTransactionType type,
+      String quantity,
+      UUID locationId,
+      UUID transactionId) {
+    return InventoryTransactionCreatedEvent.builder()
+        .tenantId(TENANT_ID)
+        .transactionId(transactionId)
+        .batchId(batchId)
+        .transactionType(type)
+        .quantity(new BigDecimal(quantity))
+        .unit("KG")
+        .locationId(locationId)
+        .transactionDate(Instant.now())
+        .build();
+  }
+}
@@ -2,24 +2,28 @@ package com.fabricmanagement.production.execution.stockunit.app;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.common.infrastructure.tenant.TenantFanOutExecutor;
+import com.fabricmanagement.common.infrastructure.tenant.TenantJobLeaseStore;
 import com.fabricmanagement.common.infrastructure.tenant.TenantQueryPort;
 import com.fabricmanagement.common.infrastructure.tenant.TenantReference;
 import com.fabricmanagement.production.execution.batch.app.BatchPrimaryMeasureService;
-import com.fabricmanagement.production.execution.batch.domain.Batch;
-import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
 import com.fabricmanagement.production.execution.batch.domain.PrimaryMeasure;
-import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
-import com.fabricmanagement.production.execution.stockunit.domain.StockUnitStatus;
-import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
+import com.fabricmanagement.production.execution.stockunit.app.StockUnitReconciliationStore.BatchBalance;
 import com.fabricmanagement.production.masterdata.product.domain.ProductType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
@@ -31,24 +35,46 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
 class StockUnitReconciliationServiceTest {
 
   private static final UUID TENANT_ID = UUID.randomUUID();
+  private static final LocalDate RUN_DATE = LocalDate.of(2026, 8, 7);
 
   @Mock private TenantQueryPort tenantQueryPort;
-  @Mock private BatchRepository batchRepository;
-  @Mock private StockUnitRepository stockUnitRepository;
+  @Mock private TenantJobLeaseStore leaseStore;
+  @Mock private StockUnitReconciliationStore reconciliationStore;
   @Mock private BatchPrimaryMeasureService primaryMeasureService;
 
   private StockUnitReconciliationService service;
 
   @BeforeEach
   void setUp() {
+    TenantFanOutExecutor fanOutExecutor =
+        new TenantFanOutExecutor(
+            tenantQueryPort,
+            leaseStore,
+            new SimpleMeterRegistry(),
+            null,
+            1,
+            Duration.ofMinutes(1),
+            Duration.ofMinutes(10));
     service =
         new StockUnitReconciliationService(
-            tenantQueryPort, batchRepository, stockUnitRepository, primaryMeasureService);
+            fanOutExecutor,
+            reconciliationStore,
+            primaryMeasureService,
+            transactionTemplate(),
+            Clock.fixed(RUN_DATE.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(service, "chunkSize", 1000);
+    ReflectionTestUtils.setField(service, "reportRetentionDays", 90);
+    when(leaseStore.tryAcquire(any(), any(), any(), any())).thenReturn(true);
     when(tenantQueryPort.findAllActiveTenants())
         .thenReturn(List.of(new TenantReference(TENANT_ID, "TEST", "Test Tenant", "TENANT")));
   }
@@ -61,13 +87,12 @@ class StockUnitReconciliationServiceTest {
   @Test
   void skipsNonWeightAndUnsupportedBatchesWithoutInterruptingWeightReconciliation(
       CapturedOutput output) {
-    Batch fabric = batch("FABRIC-1", ProductType.FABRIC, "M", "10", "0");
-    Batch yarn = batch("YARN-1", ProductType.YARN, "KG", "8", "0");
-    Batch chemical = batch("CHEM-1", ProductType.CHEMICAL, "L", "4", "0");
-    Batch fiber = batch("FIBER-1", ProductType.FIBER, "KG", "6", "1");
-    Batch consumable = batch("CONS-1", ProductType.CONSUMABLE, "PCS", "3", "0");
-    when(batchRepository.findByTenantIdAndStatusIn(eq(TENANT_ID), anyCollection()))
-        .thenReturn(List.of(fabric, yarn, chemical, fiber, consumable));
+    BatchBalance fabric = balance("FABRIC-1", ProductType.FABRIC, "M", "10", "0", "0");
+    BatchBalance yarn = balance("YARN-1", ProductType.YARN, "KG", "8", "0", "8");
+    BatchBalance chemical = balance("CHEM-1", ProductType.CHEMICAL, "L", "4", "0", "0");
+    BatchBalance fiber = balance("FIBER-1", ProductType.FIBER, "KG", "6", "1", "5");
+    BatchBalance consumable = balance("CONS-1", ProductType.CONSUMABLE, "PCS", "3", "0", "0");
+    stubChunks(List.of(fabric, yarn, chemical, fiber, consumable));
     when(primaryMeasureService.primaryMeasure(ProductType.FABRIC))
         .thenReturn(PrimaryMeasure.LENGTH);
     when(primaryMeasureService.primaryMeasure(ProductType.YARN)).thenReturn(PrimaryMeasure.WEIGHT);
@@ -76,27 +101,14 @@ class StockUnitReconciliationServiceTest {
     when(primaryMeasureService.primaryMeasure(ProductType.FIBER)).thenReturn(PrimaryMeasure.WEIGHT);
     when(primaryMeasureService.primaryMeasure(ProductType.CONSUMABLE))
         .thenThrow(new IllegalArgumentException("Unsupported product type: CONSUMABLE"));
-    when(stockUnitRepository.sumCurrentWeightByBatchId(
-            TENANT_ID, yarn.getId(), StockUnitStatus.DISPOSED))
-        .thenReturn(new BigDecimal("8"));
-    when(stockUnitRepository.sumCurrentWeightByBatchId(
-            TENANT_ID, fiber.getId(), StockUnitStatus.DISPOSED))
-        .thenReturn(new BigDecimal("5"));
     ReflectionTestUtils.setField(service, "autoFix", true);
 
     service.reconcileAllTenants();
 
-    verify(stockUnitRepository)
-        .sumCurrentWeightByBatchId(TENANT_ID, yarn.getId(), StockUnitStatus.DISPOSED);
-    verify(stockUnitRepository)
-        .sumCurrentWeightByBatchId(TENANT_ID, fiber.getId(), StockUnitStatus.DISPOSED);
-    verify(stockUnitRepository, never())
-        .sumCurrentWeightByBatchId(TENANT_ID, fabric.getId(), StockUnitStatus.DISPOSED);
-    verify(stockUnitRepository, never())
-        .sumCurrentWeightByBatchId(TENANT_ID, chemical.getId(), StockUnitStatus.DISPOSED);
-    verify(stockUnitRepository, never())
-        .sumCurrentWeightByBatchId(TENANT_ID, consumable.getId(), StockUnitStatus.DISPOSED);
-    verify(batchRepository, never()).save(any(Batch.class));
+    verify(reconciliationStore).deleteRun(TENANT_ID, RUN_DATE);
+    verify(reconciliationStore).deleteRunsBefore(TENANT_ID, RUN_DATE.minusDays(90));
+    verify(reconciliationStore, never()).insertDiscrepancies(any(), any(), anyList());
+    verify(reconciliationStore, never()).applyAutoFixes(any(), any());
     assertThat(output.getAll())
         .contains("Reconciliation skipped (dimension mismatch): batch=FABRIC-1")
         .contains("Reconciliation skipped (unsupported primary measure): batch=CHEM-1")
@@ -106,37 +118,84 @@ class StockUnitReconciliationServiceTest {
 
   @Test
   void weightBatchStillReconcilesAndAutoFixes() {
-    Batch yarn = batch("YARN-2", ProductType.YARN, "KG", "10", "2");
-    when(batchRepository.findByTenantIdAndStatusIn(eq(TENANT_ID), anyCollection()))
-        .thenReturn(List.of(yarn));
+    BatchBalance yarn = balance("YARN-2", ProductType.YARN, "KG", "10", "2", "7");
+    stubChunks(List.of(yarn));
     when(primaryMeasureService.primaryMeasure(ProductType.YARN)).thenReturn(PrimaryMeasure.WEIGHT);
-    when(stockUnitRepository.sumCurrentWeightByBatchId(
-            TENANT_ID, yarn.getId(), StockUnitStatus.DISPOSED))
-        .thenReturn(new BigDecimal("7"));
+    when(reconciliationStore.applyAutoFixes(TENANT_ID, RUN_DATE)).thenReturn(1);
     ReflectionTestUtils.setField(service, "autoFix", true);
 
     service.reconcileAllTenants();
 
-    assertThat(yarn.getConsumedQuantity()).isEqualByComparingTo("3");
-    verify(batchRepository).save(yarn);
+    verify(reconciliationStore).insertDiscrepancies(TENANT_ID, RUN_DATE, List.of(yarn));
+    verify(reconciliationStore).applyAutoFixes(TENANT_ID, RUN_DATE);
   }
 
-  private static Batch batch(
-      String code, ProductType productType, String unit, String quantity, String consumedQuantity) {
-    Batch batch =
-        Batch.builder()
-            .productId(UUID.randomUUID())
-            .productType(productType)
-            .batchCode(code)
-            .quantity(new BigDecimal(quantity))
-            .reservedQuantity(BigDecimal.ZERO)
-            .consumedQuantity(new BigDecimal(consumedQuantity))
-            .wasteQuantity(BigDecimal.ZERO)
-            .unit(unit)
-            .status(BatchStatus.AVAILABLE)
-            .build();
-    batch.setId(UUID.randomUUID());
-    batch.setTenantId(TENANT_ID);
-    return batch;
+  @Test
+  void discrepanciesAreOnlyReportedWhenAutoFixIsOff() {
+    BatchBalance yarn = balance("YARN-3", ProductType.YARN, "KG", "10", "2", "7");
+    stubChunks(List.of(yarn));
+    when(primaryMeasureService.primaryMeasure(ProductType.YARN)).thenReturn(PrimaryMeasure.WEIGHT);
+
+    service.reconcileAllTenants();
+
+    verify(reconciliationStore).insertDiscrepancies(TENANT_ID, RUN_DATE, List.of(yarn));
+    verify(reconciliationStore, never()).applyAutoFixes(any(), any());
+  }
+
+  @Test
+  void readsBatchesInKeysetChunks() {
+    ReflectionTestUtils.setField(service, "chunkSize", 2);
+    BatchBalance first = balance("YARN-A", ProductType.YARN, "KG", "5", "0", "5");
+    BatchBalance second = balance("YARN-B", ProductType.YARN, "KG", "5", "0", "4");
+    BatchBalance third = balance("YARN-C", ProductType.YARN, "KG", "5", "0", "5");
+    when(reconciliationStore.findBalances(
+            eq(TENANT_ID), anyList(), eq(StockUnitReconciliationStore.FIRST_BATCH), eq(2)))
+        .thenReturn(List.of(first, second));
+    when(reconciliationStore.findBalances(eq(TENANT_ID), anyList(), eq(second.batchId()), eq(2)))
+        .thenReturn(List.of(third));
+    when(primaryMeasureService.primaryMeasure(ProductType.YARN)).thenReturn(PrimaryMeasure.WEIGHT);
+
+    service.reconcileAllTenants();
+
+    verify(reconciliationStore).insertDiscrepancies(TENANT_ID, RUN_DATE, List.of(second));
+    verify(primaryMeasureService).primaryMeasure(ProductType.YARN);
+  }
+
+  private void stubChunks(List<BatchBalance> balances) {
+    when(reconciliationStore.findBalances(eq(TENANT_ID), anyList(), any(), anyInt()))
+        .thenReturn(balances);
+  }
+
+  private static BatchBalance balance(
+      String code,
+      ProductType productType,
+      String unit,
+      String quantity,
+      String consumedQuantity,
+      String physicalSum) {
+    return new BatchBalance(
+        UUID.randomUUID(),
+        code,
+        productType,
+        unit,
+        new BigDecimal(quantity),
+        new BigDecimal(consumedQuantity),
+        new BigDecimal(physicalSum));
+  }
+
+  private static TransactionTemplate transactionTemplate() {
+    return new TransactionTemplate(
+        new PlatformTransactionManager() {
+          @Override
+          public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+          }
+
+          @Override
+          public void commit(TransactionStatus status) {}
+
+          @Override
+          public void rollback(TransactionStatus status) {}
+        });
   }
 }
@@ -0,0 +1,182 @@
+package com.fabricmanagement.production.execution.stockunit.app;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.platform.tenant.domain.Tenant;
+import com.fabricmanagement.platform.tenant.infra.repository.TenantRepository;
+import com.fabricmanagement.production.execution.batch.domain.Batch;
+import com.fabricmanagement.production.execution.batch.domain.BatchSourceType;
+import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
+import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
+import com.fabricmanagement.production.execution.stockunit.app.StockUnitReconciliationStore.BatchBalance;
+import com.fabricmanagement.production.execution.stockunit.domain.PackageType;
+import com.fabricmanagement.production.execution.stockunit.domain.QualityDisposition;
+import com.fabricmanagement.production.execution.stockunit.domain.StockUnit;
+import com.fabricmanagement.production.execution.stockunit.domain.StockUnitSourceType;
+import com.fabricmanagement.production.execution.stockunit.infra.repository.StockUnitRepository;
+import com.fabricmanagement.production.masterdata.product.domain.Product;
+import com.fabricmanagement.production.masterdata.product.domain.ProductType;
+import com.fabricmanagement.production.masterdata.product.infra.repository.ProductRepository;
+import com.fabricmanagement.testsupport.AbstractIntegrationTest;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+class StockUnitReconciliationStoreIT extends AbstractIntegrationTest {
+
+  private static final List<BatchStatus> SCANNED = List.of(BatchStatus.AVAILABLE);
+  private static final LocalDate RUN_DATE = LocalDate.of(2026, 3, 1);
+
+  @Autowired private StockUnitReconciliationStore store;
+  @Autowired private ProductRepository productRepository;
+  @Autowired private BatchRepository batchRepository;
+  @Autowired private StockUnitRepository stockUnitRepository;
+  @Autowired private TenantRepository tenantRepository;
+  @Autowired private EntityManager entityManager;
+
+  private UUID tenantId;
+  private Product product;
+
+  @BeforeEach
+  void setUpTenant() {
+    tenantId = tenant();
+    TenantContext.setCurrentTenantId(tenantId);
+    TenantContext.setCurrentUserId(UUID.randomUUID());
+    product = Product.create(ProductType.FABRIC, "KG");
+    product.setTenantId(tenantId);
+    product = productRepository.saveAndFlush(product);
+  }
+
+  @AfterEach
+  void clearTenant() {
+    TenantContext.clear();
+  }
+
+  @Test
+  void keysetChunksVisitEveryBatchOnceWithItsPhysicalSum() {
+    Batch first = batch("LOT-A", "100", "0", BatchStatus.AVAILABLE);
+    piece(first, "40");
+    piece(first, "60");
+    Batch second = batch("LOT-B", "50", "10", BatchStatus.AVAILABLE);
+    StockUnit disposed = piece(second, "25");
+    disposed.hold();
+    disposed.dispose();
+    stockUnitRepository.saveAndFlush(disposed);
+    piece(second, "30");
+    Batch third = batch("LOT-C", "20", "0", BatchStatus.AVAILABLE);
+    batch("LOT-PENDING", "70", "0", BatchStatus.PENDING_QC);
+
+    List<BatchBalance> visited = new ArrayList<>();
+    List<Integer> chunkSizes = new ArrayList<>();
+    UUID cursor = StockUnitReconciliationStore.FIRST_BATCH;
+    List<BatchBalance> chunk;
+    while (!(chunk = store.findBalances(tenantId, SCANNED, cursor, 2)).isEmpty()) {
+      chunkSizes.add(chunk.size());
+      visited.addAll(chunk);
+      cursor = chunk.getLast().batchId();
+    }
+
+    assertThat(chunkSizes).containsExactly(2, 1);
+    assertThat(visited)
+        .extracting(BatchBalance::batchId)
+        .isSortedAccordingTo(Comparator.comparing(UUID::toString))
+        .containsExactlyInAnyOrder(first.getId(), second.getId(), third.getId());
+    Map<UUID, BatchBalance> byId =
+        visited.stream().collect(Collectors.toMap(BatchBalance::batchId, Function.identity()));
+    assertThat(byId.get(first.getId()).physicalSum()).isEqualByComparingTo("100");
+    assertThat(byId.get(second.getId()).physicalSum()).isEqualByComparingTo("30");
+    assertThat(byId.get(second.getId()).nominalRemaining()).isEqualByComparingTo("40");
+    assertThat(byId.get(third.getId()).physicalSum()).isEqualByComparingTo("0");
+  }
+
+  @Test
+  void autoFixSkipsBatchesThatChangedSinceTheScanOrWouldGoNegative() {
+    Batch fixable = batch("LOT-FIX", "100", "0", BatchStatus.AVAILABLE);
+    piece(fixable, "80");
+    Batch stale = batch("LOT-STALE", "100", "0", BatchStatus.AVAILABLE);
+    piece(stale, "70");
+    Batch negative = batch("LOT-NEGATIVE", "50", "0", BatchStatus.AVAILABLE);
+    piece(negative, "60");
+
+    List<BatchBalance> scanned =
+        store.findBalances(tenantId, SCANNED, StockUnitReconciliationStore.FIRST_BATCH, 10);
+    store.insertDiscrepancies(tenantId, RUN_DATE, scanned);
+    piece(stale, "5");
+
+    int fixed = store.applyAutoFixes(tenantId, RUN_DATE);
+    entityManager.clear();
+
+    assertThat(fixed).isEqualTo(1);
+    assertThat(batchRepository.findById(fixable.getId()).orElseThrow().getConsumedQuantity())
+        .isEqualByComparingTo("20");
+    assertThat(batchRepository.findById(stale.getId()).orElseThrow().getConsumedQuantity())
+        .isEqualByComparingTo("0");
+    assertThat(batchRepository.findById(negative.getId()).orElseThrow().getConsumedQuantity())
+        .isEqualByComparingTo("0");
+    assertThat(store.countDiscrepancies(tenantId, RUN_DATE)).isEqualTo(3);
+    assertThat(store.findDiscrepancies(tenantId, RUN_DATE, 0, 10))
+        .filteredOn(StockUnitReconciliationStore.ReportRow::autoFixed)
+        .extracting(StockUnitReconciliationStore.ReportRow::batchId)
+        .containsExactly(fixable.getId());
+    assertThat(store.applyAutoFixes(tenantId, RUN_DATE)).isZero();
+  }
+
+  private UUID tenant() {
+    String suffix = UUID.randomUUID().toString().substring(0, 8);
+    Tenant tenant = Tenant.create("Reconciliation " + suffix, "REC-" + suffix);
+    tenant.activate("test");
+    return tenantRepository.saveAndFlush(tenant).getId();
+  }
+
+  private Batch batch(String code, String quantity, String consumed, BatchStatus status) {
+    Batch batch =
+        Batch.builder()
+            .productId(product.getId())
+            .productType(product.getProductType())
+            .batchCode(code + "-" + UUID.randomUUID().toString().substring(0, 8))
+            .quantity(new BigDecimal(quantity))
+            .reservedQuantity(BigDecimal.ZERO)
+            .consumedQuantity(new BigDecimal(consumed))
+            .wasteQuantity(BigDecimal.ZERO)
+            .unit(product.getUnit())
+            .status(status)
+            .sourceType(BatchSourceType.INITIAL_STOCK)
+            .build();
+    batch.setTenantId(tenantId);
+    batch.setIsActive(true);
+    return batchRepository.saveAndFlush(batch);
+  }
+
+  private StockUnit piece(Batch batch, String kg) {
+    StockUnit piece =
+        StockUnit.create(
+            tenantId,
+            batch.getId(),
+            ProductType.FABRIC,
+            "ROLL-" + UUID.randomUUID().toString().substring(0, 8),
+            null,
+            PackageType.ROLL,
+            new BigDecimal(kg),
+            null,
+            "KG",
+            null,
+            StockUnitSourceType.PRODUCTION,
+            UUID.randomUUID(),
+            QualityDisposition.RELEASED);
+    return stockUnitRepository.saveAndFlush(piece);
+  }
+}
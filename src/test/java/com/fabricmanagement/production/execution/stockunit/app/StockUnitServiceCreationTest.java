@@ -7,6 +7,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.production.execution.batch.app.StockAvailabilityProjectionService;
 import com.fabricmanagement.production.execution.batch.domain.Batch;
 import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
 import com.fabricmanagement.production.execution.batch.domain.port.WarehouseLocationPort;
@@ -44,6 +45,7 @@ class StockUnitServiceCreationTest {
   @Mock private StockUnitAuditLogRepository auditLogRepository;
   @Mock private ApplicationEventPublisher eventPublisher;
   @Mock private WarehouseLocationPort warehouseLocationPort;
+  @Mock private StockAvailabilityProjectionService availabilityProjectionService;
   @InjectMocks private StockUnitService service;
 
   @BeforeEach
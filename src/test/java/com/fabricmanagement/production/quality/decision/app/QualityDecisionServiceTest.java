@@ -10,6 +10,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fabricmanagement.common.infrastructure.persistence.TenantContext;
+import com.fabricmanagement.production.execution.batch.app.StockAvailabilityProjectionService;
 import com.fabricmanagement.production.execution.batch.domain.Batch;
 import com.fabricmanagement.production.execution.batch.domain.BatchStatus;
 import com.fabricmanagement.production.execution.batch.infra.repository.BatchRepository;
@@ -52,6 +53,7 @@ class QualityDecisionServiceTest {
   @Mock private StockUnitRepository stockUnitRepository;
   @Mock private QualityDecisionRepository decisionRepository;
   @Mock private QualityDecisionUnitRepository decisionUnitRepository;
+  @Mock private StockAvailabilityProjectionService availabilityProjectionService;
   @InjectMocks private QualityDecisionService service;
 
   @BeforeEach
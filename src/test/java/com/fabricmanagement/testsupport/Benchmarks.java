@@ -0,0 +1,73 @@
+package com.fabricmanagement.testsupport;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Timing loop shared by the plain JUnit {@code *Benchmark} classes. Surefire only picks up {@code
+ * *Test}, so these run on demand with {@code mvn test -Dtest=<name>}.
+ *
+ * <p>Variants run interleaved: every round runs each variant once, in declaration order, so JIT
+ * and GC noise hits all of them alike. The mean time per measured round is logged at INFO.
+ */
+@Slf4j
+public final class Benchmarks {
+
+  private Benchmarks() {
+    // Utility class
+  }
+
+  /** A named piece of work; its result is handed back for the benchmark's own assertions. */
+  public record Variant<T>(String name, Supplier<T> work) {}
+
+  public static <T> Variant<T> variant(String name, Supplier<T> work) {
+    return new Variant<>(name, work);
+  }
+
+  /**
+   * Runs {@code warmupRounds} unmeasured and {@code measuredRounds} measured rounds of all
+   * variants, logs their mean time and returns the result of each variant's last run by name.
+   *
+   * @param benchmark name printed first in the log line
+   * @param detail sizing of the run (entities, rules, ...), printed after the name
+   */
+  @SafeVarargs
+  public static <T> Map<String, T> compare(
+      String benchmark,
+      String detail,
+      int warmupRounds,
+      int measuredRounds,
+      Variant<? extends T>... variants) {
+    for (int i = 0; i < warmupRounds; i++) {
+      for (Variant<? extends T> variant : variants) {
+        variant.work().get();
+      }
+    }
+
+    long[] nanos = new long[variants.length];
+    Map<String, T> results = new LinkedHashMap<>();
+    for (int i = 0; i < measuredRounds; i++) {
+      for (int v = 0; v < variants.length; v++) {
+        long start = System.nanoTime();
+        T result = variants[v].work().get();
+        nanos[v] += System.nanoTime() - start;
+        results.put(variants[v].name(), result);
+      }
+    }
+
+    StringJoiner timings = new StringJoiner(" ");
+    for (int v = 0; v < variants.length; v++) {
+      timings.add(
+          variants[v].name()
+              + "="
+              + Duration.ofNanos(nanos[v] / Math.max(1, measuredRounds)).toMillis()
+              + "ms");
+    }
+    log.info("{} {} {}", benchmark, detail, timings);
+    return results;
+  }
+}